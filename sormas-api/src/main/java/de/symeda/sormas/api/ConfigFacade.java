@@ -85,6 +85,10 @@ public interface ConfigFacade {
 
 	int getInfrastructureSyncThreshold();
 
+	int getSyncBatchSize();
+
+	int getPushBatchSize();
+
 	int getDaysAfterCaseGetsArchived();
 
 	int getDaysAfterEventGetsArchived();
@@ -105,6 +109,12 @@ public interface ConfigFacade {
 
 	String getGeocodingEPSG4326_WKT();
 
+	int getGeocodingMaxConcurrentRequests();
+
+	int getGeocodingMaxRequestsPerSecond();
+
+	int getGeocodingCacheDays();
+
 	SymptomJournalConfig getSymptomJournalConfig();
 
 	PatientDiaryConfig getPatientDiaryConfig();
@@ -133,5 +143,11 @@ public interface ConfigFacade {
 
 	boolean isAuditorAttributeLoggingEnabled();
 
+	String getAuditLogMode();
+
+	String getAuditLogSpoolPath();
+
 	int getStepSizeForCsvExport();
+
+	int getDatabaseExportParallelism();
 }
@@ -62,6 +62,7 @@ import de.symeda.sormas.api.infrastructure.PointOfEntryFacade;
 import de.symeda.sormas.api.infrastructure.PopulationDataFacade;
 import de.symeda.sormas.api.labmessage.ExternalLabResultsFacade;
 import de.symeda.sormas.api.labmessage.LabMessageFacade;
+import de.symeda.sormas.api.metrics.MetricsFacade;
 import de.symeda.sormas.api.outbreak.OutbreakFacade;
 import de.symeda.sormas.api.person.PersonFacade;
 import de.symeda.sormas.api.region.AreaFacade;
@@ -449,6 +450,10 @@ public class FacadeProvider {
 		return get().lookupEjbRemote(InfoFacade.class);
 	}
 
+	public static MetricsFacade getMetricsFacade() {
+		return get().lookupEjbRemote(MetricsFacade.class);
+	}
+
 	@SuppressWarnings("unchecked")
 	public <P> P lookupEjbRemote(Class<P> clazz) {
 		try {
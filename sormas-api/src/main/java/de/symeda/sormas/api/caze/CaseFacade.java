@@ -30,6 +30,7 @@ import de.symeda.sormas.api.CaseMeasure;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.event.EventParticipantReferenceDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
@@ -37,6 +38,7 @@ import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.externalsurveillancetool.ExternalSurveillanceToolException;
 import de.symeda.sormas.api.followup.FollowUpPeriodDto;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.messaging.ManualMessageLogDto;
 import de.symeda.sormas.api.messaging.MessageType;
 import de.symeda.sormas.api.region.DistrictDto;
@@ -56,6 +58,14 @@ public interface CaseFacade {
 	 */
 	List<CaseDataDto> getAllActiveCasesAfter(Date date, boolean includeExtendedChangeDateFilters);
 
+	/**
+	 * One batch of the cases returned by {@link #getAllActiveCasesAfter(Date)}, sorted by change date and uuid.
+	 * 
+	 * @param cursor
+	 *            {@link SyncPage#getCursor()} of the previous batch, null for the first one.
+	 */
+	SyncPage<CaseDataDto> getActiveCasesPageAfter(Date date, String cursor);
+
 	long count(CaseCriteria caseCriteria);
 
 	long count(CaseCriteria caseCriteria, boolean ignoreUserFilter);
@@ -77,6 +87,19 @@ public interface CaseFacade {
 		ExportConfigurationDto exportConfiguration,
 		Language userLanguage);
 
+	/**
+	 * Keyset paginated variant of the export list: Returns the next {@code max} rows after the given cursor, or the first rows
+	 * if {@code after} is null.
+	 */
+	List<CaseExportDto> getExportList(
+		CaseCriteria caseCriteria,
+		Collection<String> selectedRows,
+		CaseExportType exportType,
+		ExportCursor after,
+		int max,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage);
+
 	CaseDataDto getCaseDataByUuid(String uuid);
 
 	CaseDataDto saveCase(@Valid CaseDataDto dto) throws ValidationRuntimeException;
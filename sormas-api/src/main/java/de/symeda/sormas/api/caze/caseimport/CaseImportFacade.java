@@ -15,6 +15,8 @@
 
 package de.symeda.sormas.api.caze.caseimport;
 
+import java.util.List;
+
 import javax.ejb.Remote;
 
 import de.symeda.sormas.api.importexport.ImportLineResultDto;
@@ -40,4 +42,32 @@ public interface CaseImportFacade {
 		throws InvalidColumnException;
 
 	ImportLineResultDto<CaseImportEntities> saveImportedEntities(CaseImportEntities entities);
+
+	/**
+	 * Builds and validates the entities of the given lines without saving them. Infrastructure data and users referenced by name are
+	 * looked up once per import and reused for all further lines of the same import until {@link #finishImport(String)} is called.
+	 * 
+	 * @param containsFirstLine
+	 *            Whether the first of the lines is the first data line of the file, for which empty entries are not ignored.
+	 * @return One result per line in the order of the lines; successful results contain the entities to save.
+	 */
+	List<ImportLineResultDto<CaseImportEntities>> validateCaseData(
+		String importUuid,
+		List<String[]> lines,
+		String[] entityClasses,
+		String[] entityProperties,
+		String[][] entityPropertyPaths,
+		boolean containsFirstLine)
+		throws InvalidColumnException;
+
+	/**
+	 * Saves the entities of several validated lines in one transaction, in the order of the list. Stops at the first entities whose
+	 * person is similar to an existing person or to the person of a preceding line that has been saved, which are not saved but
+	 * returned as duplicate so that the user can decide how to handle them.
+	 * 
+	 * @return One result per saved entities, followed by the duplicate result if there is one.
+	 */
+	List<ImportLineResultDto<CaseImportEntities>> saveValidatedEntities(List<CaseImportEntities> entities);
+
+	void finishImport(String importUuid);
 }
@@ -0,0 +1,85 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.common;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Position of the last entity of a {@link SyncPage}. Sync pages are sorted ascending by change date and uuid, the next page
+ * starts right after this position.
+ * <p>
+ * The change date keeps its full (microsecond) database precision, otherwise entities changed within the same millisecond
+ * could be skipped or pulled over and over again. Clients only pass the cursor back as the opaque string created by
+ * {@link #toString()}.
+ */
+public class SyncCursor implements Serializable {
+
+	private static final long serialVersionUID = 4470452218227367524L;
+
+	private static final char SEPARATOR = ':';
+
+	private final Timestamp changeDate;
+	private final String uuid;
+
+	public SyncCursor(Date changeDate, String uuid) {
+		if (changeDate instanceof Timestamp) {
+			this.changeDate = (Timestamp) changeDate;
+		} else {
+			this.changeDate = new Timestamp(changeDate.getTime());
+		}
+		this.uuid = uuid;
+	}
+
+	public Timestamp getChangeDate() {
+		return changeDate;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * @return The cursor, or null if the string is empty.
+	 * @throws IllegalArgumentException
+	 *             If the string has not been created by {@link #toString()}.
+	 */
+	public static SyncCursor parse(String cursor) {
+
+		if (cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+
+		String[] parts = cursor.split(String.valueOf(SEPARATOR), 3);
+		if (parts.length != 3 || parts[2].isEmpty()) {
+			throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+		}
+
+		try {
+			Timestamp changeDate = new Timestamp(Long.parseLong(parts[0]));
+			changeDate.setNanos(Integer.parseInt(parts[1]));
+			return new SyncCursor(changeDate, parts[2]);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid sync cursor: " + cursor, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(changeDate.getTime()) + SEPARATOR + changeDate.getNanos() + SEPARATOR + uuid;
+	}
+}
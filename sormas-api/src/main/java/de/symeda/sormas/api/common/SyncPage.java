@@ -0,0 +1,68 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.common;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One batch of entities pulled by the mobile app. As long as {@link #isHasMore()} is true, the next batch is requested with
+ * the {@link #getCursor() cursor} of this one.
+ */
+public class SyncPage<T> implements Serializable {
+
+	private static final long serialVersionUID = -3566934216183624587L;
+
+	private List<T> elements;
+	private String cursor;
+	private boolean hasMore;
+
+	public SyncPage() {
+	}
+
+	public SyncPage(List<T> elements, String cursor, boolean hasMore) {
+		this.elements = elements;
+		this.cursor = cursor;
+		this.hasMore = hasMore;
+	}
+
+	public List<T> getElements() {
+		return elements;
+	}
+
+	public void setElements(List<T> elements) {
+		this.elements = elements;
+	}
+
+	/**
+	 * @return Opaque position of the last element, see {@link SyncCursor}. Null if the page is empty.
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+
+	public boolean isHasMore() {
+		return hasMore;
+	}
+
+	public void setHasMore(boolean hasMore) {
+		this.hasMore = hasMore;
+	}
+}
@@ -28,11 +28,13 @@ import javax.validation.Valid;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.dashboard.DashboardContactDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.followup.FollowUpPeriodDto;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.utils.SortProperty;
@@ -43,6 +45,14 @@ public interface ContactFacade {
 
 	List<ContactDto> getAllActiveContactsAfter(Date date);
 
+	/**
+	 * One batch of the contacts returned by {@link #getAllActiveContactsAfter(Date)}, sorted by change date and uuid.
+	 * 
+	 * @param cursor
+	 *            {@link SyncPage#getCursor()} of the previous batch, null for the first one.
+	 */
+	SyncPage<ContactDto> getActiveContactsPageAfter(Date date, String cursor);
+
 	ContactDto getContactByUuid(String uuid);
 
 	Boolean isValidContactUuid(String uuid);
@@ -85,6 +95,18 @@ public interface ContactFacade {
 		ExportConfigurationDto exportConfiguration,
 		Language userLanguage);
 
+	/**
+	 * Keyset paginated variant of the export list: Returns the next {@code max} rows after the given cursor, or the first rows
+	 * if {@code after} is null.
+	 */
+	List<ContactExportDto> getExportList(
+		ContactCriteria contactCriteria,
+		Collection<String> selectedRows,
+		ExportCursor after,
+		int max,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage);
+
 	List<VisitSummaryExportDto> getVisitSummaryExportList(
 		ContactCriteria contactCriteria,
 		Collection<String> selectedRows,
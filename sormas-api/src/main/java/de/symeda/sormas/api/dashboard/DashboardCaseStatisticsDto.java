@@ -0,0 +1,111 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.dashboard;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
+
+/**
+ * Aggregated case figures shown by the surveillance dashboard for one disease, computed on the server so that the cases
+ * themselves do not have to be transferred.
+ */
+public class DashboardCaseStatisticsDto implements Serializable {
+
+	private static final long serialVersionUID = -5705128377788134966L;
+
+	private long caseCount;
+	private long fatalCaseCount;
+	private long previousFatalCaseCount;
+	private long casesInQuarantineCount;
+	private long casesPlacedInQuarantineCount;
+	private String lastReportedDistrictName;
+	private Map<CaseClassification, Integer> caseCountByClassification = new HashMap<>();
+	private Map<PathogenTestResultType, Long> testResultCountByResultType = new HashMap<>();
+
+	public long getCaseCount() {
+		return caseCount;
+	}
+
+	public void setCaseCount(long caseCount) {
+		this.caseCount = caseCount;
+	}
+
+	public long getFatalCaseCount() {
+		return fatalCaseCount;
+	}
+
+	public void setFatalCaseCount(long fatalCaseCount) {
+		this.fatalCaseCount = fatalCaseCount;
+	}
+
+	public long getPreviousFatalCaseCount() {
+		return previousFatalCaseCount;
+	}
+
+	public void setPreviousFatalCaseCount(long previousFatalCaseCount) {
+		this.previousFatalCaseCount = previousFatalCaseCount;
+	}
+
+	public long getCasesInQuarantineCount() {
+		return casesInQuarantineCount;
+	}
+
+	public void setCasesInQuarantineCount(long casesInQuarantineCount) {
+		this.casesInQuarantineCount = casesInQuarantineCount;
+	}
+
+	public long getCasesPlacedInQuarantineCount() {
+		return casesPlacedInQuarantineCount;
+	}
+
+	public void setCasesPlacedInQuarantineCount(long casesPlacedInQuarantineCount) {
+		this.casesPlacedInQuarantineCount = casesPlacedInQuarantineCount;
+	}
+
+	public String getLastReportedDistrictName() {
+		return lastReportedDistrictName;
+	}
+
+	public void setLastReportedDistrictName(String lastReportedDistrictName) {
+		this.lastReportedDistrictName = lastReportedDistrictName;
+	}
+
+	/**
+	 * @return The case count per classification, including {@link CaseClassification#NO_CASE}.
+	 */
+	public Map<CaseClassification, Integer> getCaseCountByClassification() {
+		return caseCountByClassification;
+	}
+
+	public void setCaseCountByClassification(Map<CaseClassification, Integer> caseCountByClassification) {
+		this.caseCountByClassification = caseCountByClassification;
+	}
+
+	/**
+	 * @return The count of the latest test results of the cases, per result.
+	 */
+	public Map<PathogenTestResultType, Long> getTestResultCountByResultType() {
+		return testResultCountByResultType;
+	}
+
+	public void setTestResultCountByResultType(Map<PathogenTestResultType, Long> testResultCountByResultType) {
+		this.testResultCountByResultType = testResultCountByResultType;
+	}
+}
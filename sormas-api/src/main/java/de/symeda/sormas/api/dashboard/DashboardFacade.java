@@ -24,8 +24,23 @@ public interface DashboardFacade {
 
 	String getLastReportedDistrictName(DashboardCriteria dashboardCriteria);
 
+	/**
+	 * @deprecated Transfers all cases to the server again, use {@link #getCaseStatistics(DashboardCriteria, Date, Date)} instead.
+	 */
+	@Deprecated
 	Map<PathogenTestResultType, Long> getTestResultCountByResultType(List<DashboardCaseDto> cases);
 
+	/**
+	 * Aggregates the case figures of the surveillance dashboard in the database. The results are cached for a short time and
+	 * shared by all users of the same jurisdiction.
+	 * 
+	 * @param previousDateFrom
+	 *            Start of the period the fatalities are compared to.
+	 * @param previousDateTo
+	 *            End of the period the fatalities are compared to.
+	 */
+	DashboardCaseStatisticsDto getCaseStatistics(DashboardCriteria dashboardCriteria, Date previousDateFrom, Date previousDateTo);
+
 	long countCasesConvertedFromContacts(DashboardCriteria dashboardCriteria);
 
 	Map<PresentCondition, Integer> getCasesCountPerPersonCondition(DashboardCriteria dashboardCriteria);
@@ -15,6 +15,7 @@
 
 package de.symeda.sormas.api.docgeneneration;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -44,6 +45,19 @@ public interface QuarantineOrderFacade {
 		Properties extraProperties)
 		throws DocumentTemplateException;
 
+	/**
+	 * Generates the documents for all given root entities and writes them into a zip file in the temp files directory, without
+	 * holding all documents in memory.
+	 * 
+	 * @return The path of the zip file.
+	 */
+	String generateDocumentsZip(
+		String templateName,
+		DocumentWorkflow workflow,
+		List<ReferenceDto> rootEntityReferences,
+		Properties extraProperties)
+		throws DocumentTemplateException, IOException;
+
 	List<String> getAvailableTemplates(DocumentWorkflow workflow);
 
 	DocumentVariables getDocumentVariables(DocumentWorkflow documentWorkflow, String templateName) throws DocumentTemplateException;
@@ -32,6 +32,7 @@ import de.symeda.sormas.api.common.Page;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.externalsurveillancetool.ExternalSurveillanceToolException;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
@@ -65,6 +66,12 @@ public interface EventFacade {
 
 	List<EventExportDto> getExportList(EventCriteria eventCriteria, Collection<String> selectedRows, Integer first, Integer max);
 
+	/**
+	 * Keyset paginated variant of the export list: Returns the next {@code max} rows after the given cursor, or the first rows
+	 * if {@code after} is null.
+	 */
+	List<EventExportDto> getExportList(EventCriteria eventCriteria, Collection<String> selectedRows, ExportCursor after, int max);
+
 	boolean isArchived(String caseUuid);
 
 	boolean isDeleted(String eventUuid);
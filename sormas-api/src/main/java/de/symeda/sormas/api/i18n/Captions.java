@@ -1125,6 +1125,7 @@ public interface Captions {
 	String exportBasic = "exportBasic";
 	String exportCaseCustom = "exportCaseCustom";
 	String exportCaseManagement = "exportCaseManagement";
+	String exportChangedSince = "exportChangedSince";
 	String ExportConfiguration_myExports = "ExportConfiguration.myExports";
 	String ExportConfiguration_NAME = "ExportConfiguration.NAME";
 	String ExportConfiguration_sharedExports = "ExportConfiguration.sharedExports";
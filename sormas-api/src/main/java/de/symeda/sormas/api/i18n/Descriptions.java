@@ -54,6 +54,7 @@ public interface Descriptions {
 	String descDetailedExportButton = "descDetailedExportButton";
 	String descDistrictFilter = "descDistrictFilter";
 	String descExportButton = "descExportButton";
+	String descExportChangedSince = "descExportChangedSince";
 	String descFacilityFilter = "descFacilityFilter";
 	String descFollowUpExportButton = "descFollowUpExportButton";
 	String descGdpr = "descGdpr";
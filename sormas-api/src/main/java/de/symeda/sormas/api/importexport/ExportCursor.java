@@ -0,0 +1,44 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.importexport;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Position of the last exported row for keyset paginated exports.
+ * Export lists are sorted descending by report date and uuid, the next page starts right after this position.
+ */
+public class ExportCursor implements Serializable {
+
+	private static final long serialVersionUID = -2719617337404931306L;
+
+	private final Date reportDate;
+	private final String uuid;
+
+	public ExportCursor(Date reportDate, String uuid) {
+		this.reportDate = reportDate;
+		this.uuid = uuid;
+	}
+
+	public Date getReportDate() {
+		return reportDate;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+}
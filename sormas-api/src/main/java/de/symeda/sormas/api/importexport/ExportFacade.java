@@ -18,6 +18,7 @@
 package de.symeda.sormas.api.importexport;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 
 import javax.ejb.Remote;
@@ -34,6 +35,15 @@ public interface ExportFacade {
 	 */
 	String generateDatabaseExportArchive(List<DatabaseTable> databaseTables) throws ExportErrorException, IOException;
 
+	/**
+	 * Like {@link #generateDatabaseExportArchive(List)}, but only exports the rows that have been changed after changedSince.
+	 * Rows that have been deleted in the meantime are not part of the export, so it cannot be used to remove data from an earlier export.
+	 * 
+	 * @param changedSince
+	 *            If null, all rows are exported.
+	 */
+	String generateDatabaseExportArchive(List<DatabaseTable> databaseTables, Date changedSince) throws ExportErrorException, IOException;
+
 	String generateZipArchive(String date, int randomNumber);
 
 	List<ExportConfigurationDto> getExportConfigurations(ExportConfigurationCriteria criteria, boolean isPublic);
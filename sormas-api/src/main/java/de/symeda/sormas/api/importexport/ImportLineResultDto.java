@@ -59,6 +59,14 @@ public class ImportLineResultDto<E> implements Serializable {
 		return new ImportLineResultDto<>(ImportLineResult.SUCCESS, null, null);
 	}
 
+	/**
+	 * @param entities
+	 *            The entities built from the line, e.g. when they still have to be saved.
+	 */
+	public static <E> ImportLineResultDto<E> successResult(E entities) {
+		return new ImportLineResultDto<>(ImportLineResult.SUCCESS, null, entities);
+	}
+
 	public static <E> ImportLineResultDto<E> errorResult(String message) {
 		return new ImportLineResultDto<>(ImportLineResult.ERROR, message, null);
 	}
@@ -6,4 +6,27 @@ import javax.ejb.Remote;
 public interface InfrastructureFacade {
 
 	InfrastructureSyncDto getInfrastructureSyncData(InfrastructureChangeDatesDto changeDates);
+
+	/**
+	 * @param regionUuid
+	 *            If not null, the districts, communities, facilities and points of entry are limited to the ones of this region
+	 *            (and the ones without region).
+	 * @param eTag
+	 *            The {@link InfrastructureSnapshotDto#getETag()} of the snapshot the caller already has, may be null.
+	 * @param rangeETag
+	 *            If not null, the byte range is only applied to the snapshot with this {@link InfrastructureSnapshotDto#getETag()}, and
+	 *            the whole data is returned for any other snapshot.
+	 * @param rangeFirstByte
+	 *            The first byte of the requested range, null for the last {@code rangeLastByte} bytes.
+	 * @param rangeLastByte
+	 *            The last byte of the requested range, null for all bytes from {@code rangeFirstByte} on.
+	 * @return The current snapshot, without data if it still has the given eTag. If a range has been requested, only the bytes of
+	 *         this range are contained (see {@link InfrastructureSnapshotDto#getRangeStart()}).
+	 */
+	InfrastructureSnapshotDto getInfrastructureSnapshot(
+		String regionUuid,
+		String eTag,
+		String rangeETag,
+		Long rangeFirstByte,
+		Long rangeLastByte);
 }
@@ -0,0 +1,103 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.infrastructure;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Precomputed infrastructure data for the initial synchronization of mobile devices.
+ * <p>
+ * The data is a gzip compressed JSON object that contains the lists of {@link #CONTINENTS}, {@link #SUBCONTINENTS},
+ * {@link #COUNTRIES}, {@link #AREAS}, {@link #REGIONS}, {@link #DISTRICTS}, {@link #COMMUNITIES}, {@link #FACILITIES} and
+ * {@link #POINTS_OF_ENTRY} in this order, so every entity is read after the entities it references.
+ */
+public class InfrastructureSnapshotDto implements Serializable {
+
+	private static final long serialVersionUID = 2817624452342287960L;
+
+	public static final String CONTINENTS = "continents";
+	public static final String SUBCONTINENTS = "subcontinents";
+	public static final String COUNTRIES = "countries";
+	public static final String AREAS = "areas";
+	public static final String REGIONS = "regions";
+	public static final String DISTRICTS = "districts";
+	public static final String COMMUNITIES = "communities";
+	public static final String FACILITIES = "facilities";
+	public static final String POINTS_OF_ENTRY = "pointsOfEntry";
+
+	private String eTag;
+	private Date changeDate;
+	private long totalLength;
+	private Long rangeStart;
+	private byte[] data;
+
+	/**
+	 * @return Identifies the content of the data, changes whenever the data changes.
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	public void setETag(String eTag) {
+		this.eTag = eTag;
+	}
+
+	/**
+	 * @return The latest change date of the contained infrastructure.
+	 */
+	public Date getChangeDate() {
+		return changeDate;
+	}
+
+	public void setChangeDate(Date changeDate) {
+		this.changeDate = changeDate;
+	}
+
+	/**
+	 * @return The number of bytes of the whole data, also if only a range of it is contained.
+	 */
+	public long getTotalLength() {
+		return totalLength;
+	}
+
+	public void setTotalLength(long totalLength) {
+		this.totalLength = totalLength;
+	}
+
+	/**
+	 * @return The position of the first contained byte within the whole data, null if the whole data is contained.
+	 */
+	public Long getRangeStart() {
+		return rangeStart;
+	}
+
+	public void setRangeStart(Long rangeStart) {
+		this.rangeStart = rangeStart;
+	}
+
+	/**
+	 * @return The gzip compressed JSON data or the requested range of it, null if the snapshot has not been modified. Empty if the
+	 *         requested range is not within the data.
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	public void setData(byte[] data) {
+		this.data = data;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled access to one column of a CSV export: The getter is bound to a {@link MethodHandle} and the value formatter is
+ * chosen by the return type once, instead of using {@link Method#invoke(Object, Object...)} and
+ * {@link DataHelper#valueToString(Object)} for every cell.
+ * Accessors are immutable and cached per getter, so they are shared between all exports.
+ */
+final class CsvColumnAccessor {
+
+	private static final ConcurrentMap<Method, CsvColumnAccessor> ACCESSORS = new ConcurrentHashMap<>();
+
+	private final MethodHandle getter;
+	private final ValueFormatter formatter;
+
+	private CsvColumnAccessor(MethodHandle getter, ValueFormatter formatter) {
+		this.getter = getter;
+		this.formatter = formatter;
+	}
+
+	public static CsvColumnAccessor of(Method method) {
+
+		CsvColumnAccessor accessor = ACCESSORS.get(method);
+		if (accessor == null) {
+			accessor = create(method);
+			CsvColumnAccessor existing = ACCESSORS.putIfAbsent(method, accessor);
+			if (existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	private static CsvColumnAccessor create(Method method) {
+
+		MethodHandle getter;
+		try {
+			getter = MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("Export column [" + method.getName() + "] is not accessible", e);
+		}
+
+		return new CsvColumnAccessor(getter, createFormatter(method.getReturnType()));
+	}
+
+	private static ValueFormatter createFormatter(Class<?> type) {
+
+		if (type == String.class) {
+			return STRING_FORMATTER;
+		} else if (Date.class.isAssignableFrom(type)) {
+			return DATE_FORMATTER;
+		} else if (type == Boolean.class || type == boolean.class) {
+			return BOOLEAN_FORMATTER;
+		} else if (type.isPrimitive() || type.isEnum() || Number.class.isAssignableFrom(type) || type == Character.class) {
+			return TO_STRING_FORMATTER;
+		} else {
+			// the runtime type decides how the value is formatted
+			return GENERIC_FORMATTER;
+		}
+	}
+
+	public Object getValue(Object entity) {
+
+		try {
+			return (Object) getter.invokeExact(entity);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return The formatted value of this column for the given entity; an empty string if the value is null.
+	 */
+	public String getString(Object entity) {
+
+		Object value = getValue(entity);
+		return value != null ? formatter.format(value) : "";
+	}
+
+	private interface ValueFormatter {
+
+		String format(Object value);
+	}
+
+	private static final ValueFormatter STRING_FORMATTER = new ValueFormatter() {
+
+		@Override
+		public String format(Object value) {
+			return (String) value;
+		}
+	};
+
+	private static final ValueFormatter DATE_FORMATTER = new ValueFormatter() {
+
+		@Override
+		public String format(Object value) {
+			return DateFormatHelper.formatDate((Date) value);
+		}
+	};
+
+	private static final ValueFormatter BOOLEAN_FORMATTER = new ValueFormatter() {
+
+		@Override
+		public String format(Object value) {
+			return DataHelper.stringifyBoolean((Boolean) value);
+		}
+	};
+
+	private static final ValueFormatter TO_STRING_FORMATTER = new ValueFormatter() {
+
+		@Override
+		public String format(Object value) {
+			return value.toString();
+		}
+	};
+
+	private static final ValueFormatter GENERIC_FORMATTER = new ValueFormatter() {
+
+		@Override
+		public String format(Object value) {
+			return DataHelper.valueToString(value);
+		}
+	};
+}
@@ -17,7 +17,6 @@ package de.symeda.sormas.api.utils;
 
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -25,8 +24,11 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.Predicate;
@@ -43,9 +45,58 @@ import de.symeda.sormas.api.utils.fieldvisibility.checkers.CountryFieldVisibilit
 
 public class CsvStreamUtils {
 
+	private static final ConcurrentMap<Class<?>, List<Method>> ORDERED_READ_METHODS = new ConcurrentHashMap<>();
+
 	public static <T> void writeCsvContentToStream(
 		Class<T> csvRowClass,
-		SupplierBiFunction<Integer, Integer, List<T>> exportRowsSupplier,
+		final SupplierBiFunction<Integer, Integer, List<T>> exportRowsSupplier,
+		SupplierBiFunction<String, Class<?>, String> propertyIdCaptionSupplier,
+		ExportConfigurationDto exportConfiguration,
+		final Predicate redMethodFilter,
+		ConfigFacade configFacade,
+		OutputStream out) {
+
+		final int stepSize = configFacade.getStepSizeForCsvExport();
+		writeCsvContentToStream(csvRowClass, new RowPager<T>() {
+
+			private int startIndex = 0;
+
+			@Override
+			public List<T> nextRows(T lastRow) {
+				List<T> rows = exportRowsSupplier.apply(startIndex, stepSize);
+				startIndex += stepSize;
+				return rows;
+			}
+		}, propertyIdCaptionSupplier, exportConfiguration, redMethodFilter, configFacade, out);
+	}
+
+	/**
+	 * Same as {@link #writeCsvContentToStream(Class, SupplierBiFunction, SupplierBiFunction, ExportConfigurationDto, Predicate, ConfigFacade, OutputStream)}
+	 * but the rows are fetched by keyset pagination: The supplier gets the last row of the previous page (null for the first page)
+	 * instead of an offset, so fetching a page does not get slower the further the export proceeds.
+	 */
+	public static <T> void writeKeysetPagedCsvContentToStream(
+		Class<T> csvRowClass,
+		final SupplierBiFunction<T, Integer, List<T>> exportRowsAfterSupplier,
+		SupplierBiFunction<String, Class<?>, String> propertyIdCaptionSupplier,
+		ExportConfigurationDto exportConfiguration,
+		final Predicate redMethodFilter,
+		ConfigFacade configFacade,
+		OutputStream out) {
+
+		final int stepSize = configFacade.getStepSizeForCsvExport();
+		writeCsvContentToStream(csvRowClass, new RowPager<T>() {
+
+			@Override
+			public List<T> nextRows(T lastRow) {
+				return exportRowsAfterSupplier.apply(lastRow, stepSize);
+			}
+		}, propertyIdCaptionSupplier, exportConfiguration, redMethodFilter, configFacade, out);
+	}
+
+	private static <T> void writeCsvContentToStream(
+		Class<T> csvRowClass,
+		RowPager<T> rowPager,
 		SupplierBiFunction<String, Class<?>, String> propertyIdCaptionSupplier,
 		ExportConfigurationDto exportConfiguration,
 		final Predicate redMethodFilter,
@@ -126,33 +177,34 @@ public class CsvStreamUtils {
 			labels[0] = CSVCommentLineValidator.DEFAULT_COMMENT_LINE_PREFIX + labels[0];
 			writer.writeNext(labels, false);
 
-			int startIndex = 0;
-			int stepSize = configFacade.getStepSizeForCsvExport();
+			// 3. compile the column plan: accessors per column, every sub entity is only fetched once per row
+			List<SubEntityProvider<T>> distinctSubEntityProviders = new ArrayList<>(new LinkedHashSet<>(subEntityProviders.values()));
+			CsvColumnAccessor[] columnAccessors = new CsvColumnAccessor[readMethods.size()];
+			int[] columnSubEntityIndexes = new int[readMethods.size()];
+			for (int i = 0; i < readMethods.size(); i++) {
+				final Method method = readMethods.get(i);
+				columnAccessors[i] = CsvColumnAccessor.of(method);
+				columnSubEntityIndexes[i] = distinctSubEntityProviders.indexOf(subEntityProviders.get(method));
+			}
+			Object[] subEntities = new Object[distinctSubEntityProviders.size()];
 
-			List<T> exportRows = exportRowsSupplier.apply(startIndex, stepSize);
+			List<T> exportRows = rowPager.nextRows(null);
 			while (!exportRows.isEmpty()) {
-				try {
-					for (T exportRow : exportRows) {
-						for (int i = 0; i < readMethods.size(); i++) {
-							Method method = readMethods.get(i);
-							SubEntityProvider<T> subEntityProvider = subEntityProviders.get(method);
-							Object entity = subEntityProvider != null ? subEntityProvider.get(exportRow) : exportRow;
-							// Sub entity might be null
-							Object value = entity != null ? method.invoke(entity) : null;
-
-							labels[i] = DataHelper.valueToString(value);
-						}
-						writer.writeNext(labels);
+				for (T exportRow : exportRows) {
+					for (int j = 0; j < subEntities.length; j++) {
+						subEntities[j] = distinctSubEntityProviders.get(j).get(exportRow);
 					}
-				} catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-					throw new RuntimeException(e);
-				} catch (Exception e) {
-					throw new RuntimeException(e);
+					for (int i = 0; i < columnAccessors.length; i++) {
+						int subEntityIndex = columnSubEntityIndexes[i];
+						Object entity = subEntityIndex < 0 ? exportRow : subEntities[subEntityIndex];
+						// Sub entity might be null
+						labels[i] = entity != null ? columnAccessors[i].getString(entity) : "";
+					}
+					writer.writeNext(labels);
 				}
 
 				writer.flush();
-				startIndex += stepSize;
-				exportRows = exportRowsSupplier.apply(startIndex, stepSize);
+				exportRows = rowPager.nextRows(exportRows.get(exportRows.size() - 1));
 			}
 		} catch (Exception e) {
 			throw new RuntimeException(e);
@@ -196,6 +248,25 @@ public class CsvStreamUtils {
 	}
 
 	private static List<Method> getReadMethods(Class<?> clazz, final Predicate filters) {
+		ArrayList<Method> readMethods = new ArrayList<>(getOrderedReadMethods(clazz));
+
+		if (filters != null) {
+			CollectionUtils.filter(readMethods, filters);
+		}
+
+		return readMethods;
+	}
+
+	/**
+	 * The ordered read methods only depend on the class, so they are only looked up once per class.
+	 */
+	private static List<Method> getOrderedReadMethods(Class<?> clazz) {
+
+		List<Method> orderedReadMethods = ORDERED_READ_METHODS.get(clazz);
+		if (orderedReadMethods != null) {
+			return orderedReadMethods;
+		}
+
 		ArrayList<Method> readMethods = new ArrayList<>(Arrays.asList(clazz.getDeclaredMethods()));
 
 		CollectionUtils.filter(readMethods, new Predicate() {
@@ -203,9 +274,7 @@ public class CsvStreamUtils {
 			@Override
 			public boolean evaluate(Object o) {
 				Method m = (Method) o;
-				return (m.getName().startsWith("get") || m.getName().startsWith("is"))
-					&& m.isAnnotationPresent(Order.class)
-					&& (filters == null || filters.evaluate(o));
+				return (m.getName().startsWith("get") || m.getName().startsWith("is")) && m.isAnnotationPresent(Order.class);
 			}
 		});
 		Collections.sort(readMethods, new Comparator<Method>() {
@@ -219,7 +288,9 @@ public class CsvStreamUtils {
 			}
 		});
 
-		return readMethods;
+		orderedReadMethods = Collections.unmodifiableList(readMethods);
+		List<Method> existing = ORDERED_READ_METHODS.putIfAbsent(clazz, orderedReadMethods);
+		return existing != null ? existing : orderedReadMethods;
 	}
 
 	public interface SupplierBiFunction<T, U, R> {
@@ -227,6 +298,11 @@ public class CsvStreamUtils {
 		R apply(T t, U u);
 	}
 
+	private interface RowPager<T> {
+
+		List<T> nextRows(T lastRow);
+	}
+
 	private interface SubEntityProvider<T> {
 
 		String getName();
@@ -249,13 +325,11 @@ public class CsvStreamUtils {
 				return getter.getReturnType();
 			}
 
+			private final CsvColumnAccessor accessor = CsvColumnAccessor.of(getter);
+
 			@Override
 			public Object get(T parent) {
-				try {
-					return getter.invoke(parent);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					throw new RuntimeException(e);
-				}
+				return accessor.getValue(parent);
 			}
 		};
 	}
@@ -0,0 +1,115 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.api.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Trigram similarity of texts as computed by the PostgreSQL extension pg_trgm
+ * (https://www.postgresql.org/docs/9.6/pgtrgm.html), so texts can be compared without a database query:
+ * The words (sequences of letters and digits) of the lower case text are padded with two spaces in front and one space
+ * behind and split into trigrams. The similarity is the number of shared trigrams divided by the number of distinct trigrams
+ * of both texts.
+ */
+public final class TrigramSimilarity {
+
+	/**
+	 * Order of the trigrams for {@link #getBlockingTrigrams(Set, double)}. It has to be the same for all texts and should not
+	 * prefer the frequent trigrams of common word beginnings, so the hash code is compared first.
+	 */
+	private static final Comparator<String> BLOCKING_ORDER = new Comparator<String>() {
+
+		@Override
+		public int compare(String t1, String t2) {
+			int result = Integer.compare(t1.hashCode(), t2.hashCode());
+			return result != 0 ? result : t1.compareTo(t2);
+		}
+	};
+
+	private TrigramSimilarity() {
+		// Hide Utility Class Constructor
+	}
+
+	public static Set<String> getTrigrams(String text) {
+
+		Set<String> trigrams = new HashSet<>();
+		if (text == null) {
+			return trigrams;
+		}
+
+		String lowerCaseText = text.toLowerCase(Locale.ROOT);
+		int wordStart = -1;
+		for (int i = 0; i <= lowerCaseText.length(); i++) {
+			boolean wordCharacter = i < lowerCaseText.length() && Character.isLetterOrDigit(lowerCaseText.charAt(i));
+			if (wordCharacter && wordStart < 0) {
+				wordStart = i;
+			} else if (!wordCharacter && wordStart >= 0) {
+				String paddedWord = "  " + lowerCaseText.substring(wordStart, i) + " ";
+				for (int j = 0; j + 3 <= paddedWord.length(); j++) {
+					trigrams.add(paddedWord.substring(j, j + 3));
+				}
+				wordStart = -1;
+			}
+		}
+		return trigrams;
+	}
+
+	public static double getSimilarity(String text1, String text2) {
+		return getSimilarity(getTrigrams(text1), getTrigrams(text2));
+	}
+
+	public static double getSimilarity(Set<String> trigrams1, Set<String> trigrams2) {
+
+		if (trigrams1.isEmpty() || trigrams2.isEmpty()) {
+			return 0;
+		}
+
+		Set<String> smaller = trigrams1.size() <= trigrams2.size() ? trigrams1 : trigrams2;
+		Set<String> larger = smaller == trigrams1 ? trigrams2 : trigrams1;
+		int shared = 0;
+		for (String trigram : smaller) {
+			if (larger.contains(trigram)) {
+				shared++;
+			}
+		}
+		return (double) shared / (trigrams1.size() + trigrams2.size() - shared);
+	}
+
+	/**
+	 * Prefix filtering: Two texts with a similarity of at least {@code threshold} share at least
+	 * {@code ceil(threshold * size)} trigrams, with {@code size} being the number of trigrams of either text. So they share at
+	 * least one of the first {@code size - ceil(threshold * size) + 1} trigrams of their sets in a global order. These trigrams can be used as
+	 * blocking keys to find all similar texts without comparing each pair of texts.
+	 * 
+	 * @return The blocking trigrams of the text; empty if the text has no trigrams.
+	 */
+	public static List<String> getBlockingTrigrams(Set<String> trigrams, double threshold) {
+
+		List<String> sortedTrigrams = new ArrayList<>(trigrams);
+		Collections.sort(sortedTrigrams, BLOCKING_ORDER);
+		// the tolerance keeps rounding errors from shortening the prefix
+		int minSharedTrigrams = Math.max(1, (int) Math.ceil(threshold * sortedTrigrams.size() - 1e-9));
+		int prefixLength = Math.min(sortedTrigrams.size(), sortedTrigrams.size() - minSharedTrigrams + 1);
+		return new ArrayList<>(sortedTrigrams.subList(0, prefixLength));
+	}
+}
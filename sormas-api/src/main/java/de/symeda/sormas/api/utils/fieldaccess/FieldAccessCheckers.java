@@ -90,6 +90,13 @@ public class FieldAccessCheckers {
 		return true;
 	}
 
+	/**
+	 * @return A snapshot of the configured checkers, in the order they were added.
+	 */
+	public List<FieldAccessChecker> getCheckers() {
+		return new ArrayList<>(checkers);
+	}
+
 	public FieldAccessCheckers add(FieldAccessChecker checker) {
 		checkers.add(checker);
 		return this;
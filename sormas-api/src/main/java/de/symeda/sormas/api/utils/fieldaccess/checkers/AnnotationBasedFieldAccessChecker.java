@@ -58,6 +58,29 @@ public abstract class AnnotationBasedFieldAccessChecker implements FieldAccessCh
 		return hasRight;
 	}
 
+	/**
+	 * Checkers are equal if they check the same annotations with the same result, so they can be used as cache keys.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		AnnotationBasedFieldAccessChecker that = (AnnotationBasedFieldAccessChecker) o;
+		return hasRight == that.hasRight && fieldAnnotation == that.fieldAnnotation && embeddedAnnotation == that.embeddedAnnotation;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = fieldAnnotation.hashCode();
+		result = 31 * result + embeddedAnnotation.hashCode();
+		result = 31 * result + (hasRight ? 1 : 0);
+		return result;
+	}
+
 	public interface RightCheck {
 
 		boolean check(boolean inJurisdiction);
@@ -15,18 +15,21 @@
 
 package de.symeda.sormas.api.utils.pseudonymization;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.utils.fieldaccess.FieldAccessChecker;
 import de.symeda.sormas.api.utils.fieldaccess.FieldAccessCheckers;
-import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.DefaultValuePseudonymizer;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.AnnotationBasedFieldAccessChecker;
 
 public class DtoPseudonymizer {
 
+	private static final ConcurrentMap<PlanKey, PseudonymizationPlan> SHARED_PLANS = new ConcurrentHashMap<>();
+
 	protected FieldAccessCheckers inJurisdictionCheckers;
 	protected FieldAccessCheckers outsideJurisdictionCheckers;
 
@@ -34,6 +37,8 @@ public class DtoPseudonymizer {
 
 	private final boolean pseudonymizeMandatoryFields;
 
+	private final ConcurrentMap<PlanKey, PseudonymizationPlan> plans = new ConcurrentHashMap<>();
+
 	protected DtoPseudonymizer(
 		FieldAccessCheckers inJurisdictionCheckers,
 		FieldAccessCheckers outsideJurisdictionCheckers,
@@ -49,6 +54,7 @@ public class DtoPseudonymizer {
 	public void addFieldAccessChecker(FieldAccessChecker inJurisdictionChecker, FieldAccessChecker outsideJurisdictionChecker) {
 		this.inJurisdictionCheckers.add(inJurisdictionChecker);
 		this.outsideJurisdictionCheckers.add(outsideJurisdictionChecker);
+		plans.clear();
 	}
 
 	public <DTO> void pseudonymizeDtoCollection(
@@ -67,19 +73,15 @@ public class DtoPseudonymizer {
 		final CustomCollectionItemPseudonymization<DTO> customPseudonymization,
 		boolean skipEmbeddedFields) {
 
-		List<Field> pseudonymizableFieldsInJurisdiction = getPseudonymizableFields(type, true);
-		List<Field> pseudonymizableFieldsOutsideJurisdiction = getPseudonymizableFields(type, false);
-		List<Field> embeddedFieldsInJurisdiction = getEmbeddedFields(type, true);
-		List<Field> embeddedFieldsOutsideJurisdiction = getEmbeddedFields(type, false);
+		PseudonymizationPlan planInJurisdiction = getPlan(type, true, null);
+		PseudonymizationPlan planOutsideJurisdiction = getPlan(type, false, null);
 
 		for (final DTO dto : dtos) {
 			final boolean isInJurisdiction = jurisdictionValidator.validate(dto);
 			pseudonymizeDto(
 				dto,
-				isInJurisdiction ? pseudonymizableFieldsInJurisdiction : pseudonymizableFieldsOutsideJurisdiction,
-				isInJurisdiction ? embeddedFieldsInJurisdiction : embeddedFieldsOutsideJurisdiction,
+				isInJurisdiction ? planInJurisdiction : planOutsideJurisdiction,
 				isInJurisdiction,
-				null,
 				customPseudonymization == null ? null : new CustomPseudonymization<DTO>() {
 
 					@Override
@@ -92,20 +94,16 @@ public class DtoPseudonymizer {
 	}
 
 	public <DTO> void pseudonymizeDto(Class<DTO> type, DTO dto, boolean isInJurisdiction, CustomPseudonymization<DTO> customPseudonymization) {
-		List<Field> declaredFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
-
-		pseudonymizeDto(dto, declaredFields, embeddedFields, isInJurisdiction, null, customPseudonymization, false);
+		pseudonymizeDto(dto, getPlan(type, isInJurisdiction, null), isInJurisdiction, customPseudonymization, false);
 	}
 
 	public <DTO> boolean isAccessible(Class<DTO> type, String fieldName, boolean isInJurisdiction) {
-		List<Field> pseudonymizableFields = getPseudonymizableFields(type, isInJurisdiction);
-		for (Field field : pseudonymizableFields) {
-			if (fieldName.equals(field.getName())) {
-				return getFieldAccessCheckers(isInJurisdiction).isAccessible(field, pseudonymizeMandatoryFields);
-			}
+		PseudonymizationPlan.PseudonymizableField field = getPlan(type, isInJurisdiction, null).getField(fieldName);
+		if (field == null) {
+			throw new RuntimeException("Could not find field: " + fieldName);
 		}
-		throw new RuntimeException("Could not find field: " + fieldName);
+
+		return field.isAccessible();
 	}
 
 	public <DTO extends Pseudonymizable> void restorePseudonymizedValues(Class<DTO> type, DTO dto, DTO originalDto, boolean isInJurisdiction) {
@@ -113,62 +111,34 @@ public class DtoPseudonymizer {
 			return;
 		}
 
-		List<Field> pseudonymizableFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
+		restorePseudonymizedValues(getPlan(type, isInJurisdiction, null), dto, originalDto, isInJurisdiction);
+	}
 
-		for (Field pseudonymizedField : pseudonymizableFields) {
-			if (!getFieldAccessCheckers(isInJurisdiction).isAccessible(pseudonymizedField, pseudonymizeMandatoryFields) || dto.isPseudonymized()) {
-				restoreOriginalValue(dto, pseudonymizedField, originalDto);
+	private void restorePseudonymizedValues(PseudonymizationPlan plan, Pseudonymizable dto, Pseudonymizable originalDto, boolean isInJurisdiction) {
+		if (originalDto == null) {
+			return;
+		}
+
+		for (PseudonymizationPlan.PseudonymizableField pseudonymizedField : plan.getFields()) {
+			if (!pseudonymizedField.isAccessible() || dto.isPseudonymized()) {
+				pseudonymizedField.copyValue(originalDto, dto);
 			}
 		}
-		for (Field embeddedField : embeddedFields) {
-			Class<?> fieldType = embeddedField.getType();
-
-			if (Pseudonymizable.class.isAssignableFrom(fieldType)) {
-				boolean isAccessible = embeddedField.isAccessible();
-				try {
-					embeddedField.setAccessible(true);
-
-					restorePseudonymizedValues(
-						(Class<Pseudonymizable>) fieldType,
-						(Pseudonymizable) embeddedField.get(dto),
-						(Pseudonymizable) embeddedField.get(originalDto),
-						isInJurisdiction);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException("Couldn't restore embedded field " + dto.getClass().getName() + "." + embeddedField.getName(), e);
-				} finally {
-					embeddedField.setAccessible(isAccessible);
-				}
+		for (PseudonymizationPlan.EmbeddedField embeddedField : plan.getEmbeddedFields()) {
+			if (Pseudonymizable.class.isAssignableFrom(embeddedField.getType())) {
+				restorePseudonymizedValues(
+					getPlan(embeddedField.getType(), isInJurisdiction, null),
+					(Pseudonymizable) embeddedField.getValue(dto),
+					(Pseudonymizable) embeddedField.getValue(originalDto),
+					isInJurisdiction);
 			}
 		}
 	}
 
 	private <DTO> boolean pseudonymizeDto(
-		Class<DTO> type,
 		DTO dto,
-		boolean isInJurisdiction,
-		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
-		CustomPseudonymization<DTO> customPseudonymization,
-		boolean skipEmbeddedFields) {
-		List<Field> declaredFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
-
-		return pseudonymizeDto(
-			dto,
-			declaredFields,
-			embeddedFields,
-			isInJurisdiction,
-			defaultPseudonymizerClass,
-			customPseudonymization,
-			skipEmbeddedFields);
-	}
-
-	private <DTO> boolean pseudonymizeDto(
-		DTO dto,
-		List<Field> pseudonymizableFields,
-		List<Field> embeddedFields,
+		PseudonymizationPlan plan,
 		boolean inJurisdiction,
-		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
 		CustomPseudonymization<DTO> customPseudonymization,
 		boolean skipEmbeddedFields) {
 		if (dto == null) {
@@ -177,41 +147,21 @@ public class DtoPseudonymizer {
 
 		boolean didPseudonymization = false;
 
-		for (Field field : pseudonymizableFields) {
-			if (!getFieldAccessCheckers(inJurisdiction).isAccessible(field, pseudonymizeMandatoryFields)) {
-				pseudonymizeField(dto, field, defaultPseudonymizerClass);
+		for (PseudonymizationPlan.PseudonymizableField field : plan.getFields()) {
+			if (!field.isAccessible()) {
+				field.pseudonymize(dto);
 				didPseudonymization = true;
 			}
 		}
 
 		if (!skipEmbeddedFields) {
-			for (Field embeddedField : embeddedFields) {
-				boolean accessible = embeddedField.isAccessible();
-				try {
-
-					embeddedField.setAccessible(true);
-					Pseudonymizer pseudonymizerAnnotation = embeddedField.getAnnotation(Pseudonymizer.class);
-					Class<? extends ValuePseudonymizer> psudonomyzerClass =
-						pseudonymizerAnnotation != null ? pseudonymizerAnnotation.value() : defaultPseudonymizerClass;
-
-					didPseudonymization = pseudonymizeDto(
-						(Class<Object>) embeddedField.getType(),
-						embeddedField.get(dto),
-						inJurisdiction,
-						psudonomyzerClass,
-						null,
-						skipEmbeddedFields);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException(
-						"Failed to pseudonymize embedded field " + dto.getClass().getName() + "." + embeddedField.getName(),
-						e);
-				} finally {
-					embeddedField.setAccessible(accessible);
-				}
+			for (PseudonymizationPlan.EmbeddedField embeddedField : plan.getEmbeddedFields()) {
+				didPseudonymization =
+					pseudonymizeDto(embeddedField.getValue(dto), getEmbeddedPlan(embeddedField, inJurisdiction), inJurisdiction, null, skipEmbeddedFields);
 			}
 		}
 
-		if (Pseudonymizable.class.isAssignableFrom(dto.getClass())) {
+		if (plan.isPseudonymizable()) {
 			((Pseudonymizable) dto).setPseudonymized(didPseudonymization);
 		}
 
@@ -222,87 +172,61 @@ public class DtoPseudonymizer {
 		return didPseudonymization;
 	}
 
-	private <DTO> void pseudonymizeField(DTO dto, Field field, Class<? extends ValuePseudonymizer> pseudonymizerClass) {
-
-		try {
-			field.setAccessible(true);
-
-			ValuePseudonymizer<?> pseudonymizer = getPseudonymizer(field, pseudonymizerClass);
-			Object emptyValue = pseudonymizer.pseudonymize(field.get(dto));
-			field.set(dto, emptyValue);
-		} catch (IllegalAccessException | InstantiationException e) {
-			throw new RuntimeException(e);
-		} finally {
-			field.setAccessible(false);
+	private PseudonymizationPlan getEmbeddedPlan(PseudonymizationPlan.EmbeddedField embeddedField, boolean inJurisdiction) {
+		PseudonymizationPlan plan = embeddedField.getPlan();
+		if (plan == null) {
+			plan = getPlan(embeddedField.getType(), inJurisdiction, embeddedField.getPseudonymizerClass());
+			embeddedField.setPlan(plan);
 		}
-	}
-
-	private ValuePseudonymizer<?> getPseudonymizer(Field field, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass)
-		throws IllegalAccessException, InstantiationException {
-		Pseudonymizer pseudonymizerAnnotation = field.getAnnotation(Pseudonymizer.class);
-
-		if (pseudonymizerAnnotation == null) {
-			if (defaultPseudonymizerClass != null) {
-				return defaultPseudonymizerClass.newInstance();
-			}
 
-			return new DefaultValuePseudonymizer<>(stringValuePlaceholder);
-		}
-
-		return pseudonymizerAnnotation.value().newInstance();
+		return plan;
 	}
 
-	private <DTO extends Pseudonymizable> void restoreOriginalValue(DTO dto, Field field, DTO originalDto) {
-
-		try {
-			field.setAccessible(true);
-			Object originalValue = field.get(originalDto);
-			field.set(dto, originalValue);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		} finally {
-			field.setAccessible(false);
+	/**
+	 * Plans are shared between all pseudonymizers with equal field access checkers, i.e. with the same user rights.
+	 * Checkers that can't be compared by value get plans that are only cached by this pseudonymizer.
+	 */
+	private PseudonymizationPlan getPlan(Class<?> type, boolean inJurisdiction, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass) {
+		PlanKey key = new PlanKey(type, inJurisdiction, defaultPseudonymizerClass, null);
+		PseudonymizationPlan plan = plans.get(key);
+		if (plan != null) {
+			return plan;
 		}
-	}
-
-	private List<Field> getPseudonymizableFields(Class<?> type, boolean inJurisdiction) {
-		final FieldAccessCheckers fieldAccessCheckers = getFieldAccessCheckers(inJurisdiction);
-
-		return filterFields(type, new FieldFilter() {
 
-			@Override
-			public boolean apply(Field field) {
-				return fieldAccessCheckers.isConfiguredForCheck(field, pseudonymizeMandatoryFields);
+		FieldAccessCheckers fieldAccessCheckers = getFieldAccessCheckers(inJurisdiction);
+		List<FieldAccessChecker> checkers = fieldAccessCheckers.getCheckers();
+		if (isComparable(checkers)) {
+			PlanKey sharedKey = new PlanKey(
+				type,
+				inJurisdiction,
+				defaultPseudonymizerClass,
+				Arrays.asList(checkers, stringValuePlaceholder, pseudonymizeMandatoryFields));
+			plan = SHARED_PLANS.get(sharedKey);
+			if (plan == null) {
+				plan = PseudonymizationPlan
+					.create(type, fieldAccessCheckers, pseudonymizeMandatoryFields, defaultPseudonymizerClass, stringValuePlaceholder);
+				PseudonymizationPlan existing = SHARED_PLANS.putIfAbsent(sharedKey, plan);
+				if (existing != null) {
+					plan = existing;
+				}
 			}
-		});
-	}
-
-	private List<Field> getEmbeddedFields(Class<?> type, boolean inJurisdiction) {
-		final FieldAccessCheckers fieldAccessCheckers = getFieldAccessCheckers(inJurisdiction);
-
-		return filterFields(type, new FieldFilter() {
+		} else {
+			plan =
+				PseudonymizationPlan.create(type, fieldAccessCheckers, pseudonymizeMandatoryFields, defaultPseudonymizerClass, stringValuePlaceholder);
+		}
 
-			@Override
-			public boolean apply(Field field) {
-				return fieldAccessCheckers.isEmbedded(field);
-			}
-		});
+		plans.put(key, plan);
+		return plan;
 	}
 
-	private List<Field> filterFields(Class<?> type, FieldFilter filter) {
-		List<Field> declaredFields = new ArrayList<>();
-
-		for (Field field : type.getDeclaredFields()) {
-			if (filter.apply(field)) {
-				declaredFields.add(field);
+	private static boolean isComparable(List<FieldAccessChecker> checkers) {
+		for (FieldAccessChecker checker : checkers) {
+			if (!(checker instanceof AnnotationBasedFieldAccessChecker)) {
+				return false;
 			}
 		}
 
-		if (type.getSuperclass() != null) {
-			declaredFields.addAll(filterFields(type.getSuperclass(), filter));
-		}
-
-		return declaredFields;
+		return true;
 	}
 
 	protected FieldAccessCheckers getFieldAccessCheckers(boolean inJurisdiction) {
@@ -329,9 +253,42 @@ public class DtoPseudonymizer {
 		void pseudonymize(DTO dto);
 	}
 
-	private interface FieldFilter {
+	private static final class PlanKey {
 
-		boolean apply(Field field);
-	}
+		private final Class<?> type;
+		private final boolean inJurisdiction;
+		private final Class<? extends ValuePseudonymizer> defaultPseudonymizerClass;
+		private final Object configuration;
+
+		private PlanKey(Class<?> type, boolean inJurisdiction, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass, Object configuration) {
+			this.type = type;
+			this.inJurisdiction = inJurisdiction;
+			this.defaultPseudonymizerClass = defaultPseudonymizerClass;
+			this.configuration = configuration;
+		}
 
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			PlanKey planKey = (PlanKey) o;
+			return inJurisdiction == planKey.inJurisdiction
+				&& type == planKey.type
+				&& defaultPseudonymizerClass == planKey.defaultPseudonymizerClass
+				&& (configuration == null ? planKey.configuration == null : configuration.equals(planKey.configuration));
+		}
+
+		@Override
+		public int hashCode() {
+			int result = type.hashCode();
+			result = 31 * result + (inJurisdiction ? 1 : 0);
+			result = 31 * result + (defaultPseudonymizerClass != null ? defaultPseudonymizerClass.hashCode() : 0);
+			result = 31 * result + (configuration != null ? configuration.hashCode() : 0);
+			return result;
+		}
+	}
 }
@@ -0,0 +1,287 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils.pseudonymization;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.symeda.sormas.api.utils.fieldaccess.FieldAccessCheckers;
+import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.DefaultValuePseudonymizer;
+
+/**
+ * Immutable pseudonymization plan of one DTO class for one set of field access checkers (jurisdiction and user rights):
+ * The pseudonymizable and embedded fields are looked up, their access checks are evaluated and their getters and setters are
+ * bound to {@link MethodHandle}s once, so pseudonymizing a DTO does not use reflection anymore.
+ */
+final class PseudonymizationPlan {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodHandle FIELD_SET;
+
+	static {
+		try {
+			FIELD_SET = MethodHandles.lookup()
+				.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Class<?> type;
+	private final boolean pseudonymizable;
+	private final PseudonymizableField[] fields;
+	private final EmbeddedField[] embeddedFields;
+
+	private PseudonymizationPlan(Class<?> type, PseudonymizableField[] fields, EmbeddedField[] embeddedFields) {
+		this.type = type;
+		this.pseudonymizable = Pseudonymizable.class.isAssignableFrom(type);
+		this.fields = fields;
+		this.embeddedFields = embeddedFields;
+	}
+
+	static PseudonymizationPlan create(
+		Class<?> type,
+		FieldAccessCheckers fieldAccessCheckers,
+		boolean pseudonymizeMandatoryFields,
+		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
+		String stringValuePlaceholder) {
+
+		List<PseudonymizableField> fields = new ArrayList<>();
+		List<EmbeddedField> embeddedFields = new ArrayList<>();
+
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				if (fieldAccessCheckers.isConfiguredForCheck(field, pseudonymizeMandatoryFields)) {
+					boolean accessible = fieldAccessCheckers.isAccessible(field, pseudonymizeMandatoryFields);
+					fields.add(
+						new PseudonymizableField(
+							field.getName(),
+							getter(field),
+							setter(field),
+							accessible,
+							accessible ? null : createPseudonymizer(field, defaultPseudonymizerClass, stringValuePlaceholder)));
+				}
+			}
+		}
+
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				if (fieldAccessCheckers.isEmbedded(field)) {
+					Pseudonymizer pseudonymizerAnnotation = field.getAnnotation(Pseudonymizer.class);
+					embeddedFields.add(
+						new EmbeddedField(
+							field.getName(),
+							field.getType(),
+							getter(field),
+							pseudonymizerAnnotation != null ? pseudonymizerAnnotation.value() : defaultPseudonymizerClass));
+				}
+			}
+		}
+
+		return new PseudonymizationPlan(
+			type,
+			fields.toArray(new PseudonymizableField[fields.size()]),
+			embeddedFields.toArray(new EmbeddedField[embeddedFields.size()]));
+	}
+
+	private static MethodHandle getter(Field field) {
+
+		field.setAccessible(true);
+		try {
+			return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("Field " + field.getDeclaringClass().getName() + "." + field.getName() + " is not readable", e);
+		}
+	}
+
+	private static MethodHandle setter(Field field) {
+
+		field.setAccessible(true);
+		if (Modifier.isFinal(field.getModifiers())) {
+			// method handles cannot write final fields, reflection can once the field is accessible
+			return FIELD_SET.bindTo(field).asType(SETTER_TYPE);
+		}
+
+		try {
+			return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException("Field " + field.getDeclaringClass().getName() + "." + field.getName() + " is not writable", e);
+		}
+	}
+
+	private static ValuePseudonymizer<?> createPseudonymizer(
+		Field field,
+		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
+		String stringValuePlaceholder) {
+
+		Pseudonymizer pseudonymizerAnnotation = field.getAnnotation(Pseudonymizer.class);
+		try {
+			if (pseudonymizerAnnotation != null) {
+				return pseudonymizerAnnotation.value().newInstance();
+			} else if (defaultPseudonymizerClass != null) {
+				return defaultPseudonymizerClass.newInstance();
+			} else {
+				return new DefaultValuePseudonymizer<>(stringValuePlaceholder);
+			}
+		} catch (IllegalAccessException | InstantiationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return Whether the DTOs of this plan implement {@link Pseudonymizable}.
+	 */
+	public boolean isPseudonymizable() {
+		return pseudonymizable;
+	}
+
+	public PseudonymizableField[] getFields() {
+		return fields;
+	}
+
+	public EmbeddedField[] getEmbeddedFields() {
+		return embeddedFields;
+	}
+
+	public PseudonymizableField getField(String fieldName) {
+
+		for (PseudonymizableField field : fields) {
+			if (fieldName.equals(field.name)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+	static Object invokeGetter(MethodHandle getter, Object dto) {
+
+		try {
+			return (Object) getter.invokeExact(dto);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * A field that is configured for an access check, with the result of that check.
+	 */
+	static final class PseudonymizableField {
+
+		private final String name;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final boolean accessible;
+		private final ValuePseudonymizer<?> pseudonymizer;
+
+		private PseudonymizableField(String name, MethodHandle getter, MethodHandle setter, boolean accessible, ValuePseudonymizer<?> pseudonymizer) {
+			this.name = name;
+			this.getter = getter;
+			this.setter = setter;
+			this.accessible = accessible;
+			this.pseudonymizer = pseudonymizer;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isAccessible() {
+			return accessible;
+		}
+
+		public void pseudonymize(Object dto) {
+			setValue(dto, pseudonymizer.pseudonymize(getValue(dto)));
+		}
+
+		public void copyValue(Object source, Object target) {
+			setValue(target, getValue(source));
+		}
+
+		public Object getValue(Object dto) {
+			return invokeGetter(getter, dto);
+		}
+
+		private void setValue(Object dto, Object value) {
+
+			try {
+				setter.invokeExact(dto, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * A field holding another DTO that is pseudonymized with its own plan.
+	 */
+	static final class EmbeddedField {
+
+		private final String name;
+		private final Class<?> type;
+		private final MethodHandle getter;
+		private final Class<? extends ValuePseudonymizer> pseudonymizerClass;
+
+		/**
+		 * Resolved on first use, so DTO classes embedding each other don't recurse while building the plans.
+		 */
+		private volatile PseudonymizationPlan plan;
+
+		private EmbeddedField(String name, Class<?> type, MethodHandle getter, Class<? extends ValuePseudonymizer> pseudonymizerClass) {
+			this.name = name;
+			this.type = type;
+			this.getter = getter;
+			this.pseudonymizerClass = pseudonymizerClass;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public Class<? extends ValuePseudonymizer> getPseudonymizerClass() {
+			return pseudonymizerClass;
+		}
+
+		public Object getValue(Object dto) {
+			return invokeGetter(getter, dto);
+		}
+
+		public PseudonymizationPlan getPlan() {
+			return plan;
+		}
+
+		public void setPlan(PseudonymizationPlan plan) {
+			this.plan = plan;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.BirthDateDto;
+
+public class CsvColumnAccessorTest {
+
+	@Test
+	public void testFormattingEqualsValueToString() throws Exception {
+
+		ExportRow row = new ExportRow();
+		row.text = "text";
+		row.date = new Date();
+		row.flag = Boolean.TRUE;
+		row.primitiveFlag = false;
+		row.number = 42;
+		row.disease = Disease.CORONAVIRUS;
+		row.diseases = new LinkedHashSet<>(Arrays.asList(Disease.CORONAVIRUS, Disease.EVD));
+		row.birthDate = new BirthDateDto(1, 2, 1990);
+		row.object = new Date();
+
+		assertSameFormatting(row);
+		assertSameFormatting(new ExportRow());
+	}
+
+	@Test
+	public void testAccessorsAreCached() throws Exception {
+
+		Method getter = ExportRow.class.getMethod("getText");
+		assertSame(CsvColumnAccessor.of(getter), CsvColumnAccessor.of(getter));
+	}
+
+	private static void assertSameFormatting(ExportRow row) throws Exception {
+
+		for (Method method : ExportRow.class.getDeclaredMethods()) {
+			if (method.isSynthetic()) {
+				continue;
+			}
+			assertEquals(method.getName(), DataHelper.valueToString(method.invoke(row)), CsvColumnAccessor.of(method).getString(row));
+		}
+	}
+
+	public static class ExportRow {
+
+		private String text;
+		private Date date;
+		private Boolean flag;
+		private boolean primitiveFlag;
+		private Integer number;
+		private Disease disease;
+		private Set<Disease> diseases;
+		private BirthDateDto birthDate;
+		private Object object;
+
+		public String getText() {
+			return text;
+		}
+
+		public Date getDate() {
+			return date;
+		}
+
+		public Boolean getFlag() {
+			return flag;
+		}
+
+		public boolean isPrimitiveFlag() {
+			return primitiveFlag;
+		}
+
+		public Integer getNumber() {
+			return number;
+		}
+
+		public Disease getDisease() {
+			return disease;
+		}
+
+		public Set<Disease> getDiseases() {
+			return diseases;
+		}
+
+		public BirthDateDto getBirthDate() {
+			return birthDate;
+		}
+
+		public Object getObject() {
+			return object;
+		}
+	}
+}
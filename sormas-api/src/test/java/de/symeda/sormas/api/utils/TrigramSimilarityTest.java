@@ -0,0 +1,110 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.api.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TrigramSimilarityTest {
+
+	@Test
+	public void testGetTrigrams() {
+
+		assertEquals(new HashSet<>(Arrays.asList("  w", " wo", "wor", "ord", "rd ")), TrigramSimilarity.getTrigrams("Word"));
+		assertEquals(new HashSet<>(Arrays.asList("  a", " a ", "  b", " b ")), TrigramSimilarity.getTrigrams("a-b"));
+		assertTrue(TrigramSimilarity.getTrigrams(" ,").isEmpty());
+		assertTrue(TrigramSimilarity.getTrigrams(null).isEmpty());
+	}
+
+	@Test
+	public void testGetSimilarity() {
+
+		// same result as SELECT similarity('word', 'two words') with pg_trgm
+		assertEquals(4d / 11, TrigramSimilarity.getSimilarity("word", "two words"), 1e-9);
+		assertEquals(1d, TrigramSimilarity.getSimilarity("Case Person", "case  person"), 1e-9);
+		assertEquals(0d, TrigramSimilarity.getSimilarity("Case Person", ""), 1e-9);
+		assertTrue(TrigramSimilarity.getSimilarity("Jonathan Miller", "Jonathon Miller") > 0.65);
+		assertFalse(TrigramSimilarity.getSimilarity("Jonathan Miller", "Maria Schmidt") > 0.65);
+	}
+
+	@Test
+	public void testSimilarTextsShareBlockingTrigram() {
+
+		double threshold = 0.65;
+		Random random = new Random(1);
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			String name = randomWord(random) + " " + randomWord(random);
+			names.add(name);
+			names.add(misspell(name, random));
+			names.add(misspell(misspell(name, random), random));
+		}
+
+		List<Set<String>> trigrams = new ArrayList<>();
+		List<Set<String>> blockingTrigrams = new ArrayList<>();
+		for (String name : names) {
+			Set<String> nameTrigrams = TrigramSimilarity.getTrigrams(name);
+			trigrams.add(nameTrigrams);
+			blockingTrigrams.add(new HashSet<>(TrigramSimilarity.getBlockingTrigrams(nameTrigrams, threshold)));
+		}
+
+		int similarPairs = 0;
+		for (int i = 0; i < names.size(); i++) {
+			for (int j = i + 1; j < names.size(); j++) {
+				if (TrigramSimilarity.getSimilarity(trigrams.get(i), trigrams.get(j)) >= threshold) {
+					similarPairs++;
+					assertFalse(names.get(i) + " / " + names.get(j), Collections.disjoint(blockingTrigrams.get(i), blockingTrigrams.get(j)));
+				}
+			}
+		}
+		assertTrue(similarPairs >= 50);
+	}
+
+	private static String randomWord(Random random) {
+
+		int length = 4 + random.nextInt(6);
+		StringBuilder word = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(26)));
+		}
+		return word.toString();
+	}
+
+	private static String misspell(String name, Random random) {
+
+		int position = random.nextInt(name.length());
+		switch (random.nextInt(3)) {
+		case 0:
+			return name.substring(0, position) + name.substring(position + 1);
+		case 1:
+			return name.substring(0, position) + (char) ('a' + random.nextInt(26)) + name.substring(position);
+		default:
+			return name.substring(0, position) + (char) ('a' + random.nextInt(26)) + name.substring(position + 1);
+		}
+	}
+}
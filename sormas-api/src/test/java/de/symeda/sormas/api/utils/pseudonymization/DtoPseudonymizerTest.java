@@ -0,0 +1,198 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils.pseudonymization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.api.utils.EmbeddedPersonalData;
+import de.symeda.sormas.api.utils.PersonalData;
+import de.symeda.sormas.api.utils.SensitiveData;
+import de.symeda.sormas.api.utils.fieldaccess.FieldAccessCheckers;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.PersonalDataFieldAccessChecker;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.SensitiveDataFieldAccessChecker;
+import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.EmptyValuePseudonymizer;
+import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.PostalCodePseudonymizer;
+
+public class DtoPseudonymizerTest {
+
+	@Test
+	public void testPseudonymizeOutsideJurisdiction() {
+
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(UserRight.SEE_PERSONAL_DATA_IN_JURISDICTION);
+
+		TestDto inJurisdiction = createDto();
+		TestDto outsideJurisdiction = createDto();
+		outsideJurisdiction.inJurisdiction = false;
+		pseudonymizer.pseudonymizeDtoCollection(
+			TestDto.class,
+			Arrays.asList(inJurisdiction, outsideJurisdiction),
+			new DtoPseudonymizer.JurisdictionValidator<TestDto>() {
+
+				@Override
+				public boolean validate(TestDto dto) {
+					return dto.inJurisdiction;
+				}
+			},
+			null);
+
+		assertEquals("John", inJurisdiction.firstName);
+		assertEquals("***", inJurisdiction.notes);
+		assertEquals("Main street", inJurisdiction.address.street);
+		assertEquals("12345", inJurisdiction.address.postalCode);
+
+		assertEquals("***", outsideJurisdiction.firstName);
+		assertEquals("***", outsideJurisdiction.notes);
+		assertEquals("", outsideJurisdiction.address.street);
+		assertEquals("123", outsideJurisdiction.address.postalCode);
+		assertEquals("***", outsideJurisdiction.finalValue);
+		assertTrue(outsideJurisdiction.isPseudonymized());
+	}
+
+	@Test
+	public void testPseudonymizeWithAllRights() {
+
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(UserRight.values());
+
+		TestDto dto = createDto();
+		pseudonymizer.pseudonymizeDto(TestDto.class, dto, false, null);
+
+		assertEquals("John", dto.firstName);
+		assertEquals("sensitive", dto.notes);
+		assertEquals("Main street", dto.address.street);
+		assertFalse(dto.isPseudonymized());
+		assertTrue(pseudonymizer.isAccessible(TestDto.class, "firstName", false));
+	}
+
+	@Test
+	public void testPlansFollowAddedCheckers() {
+
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(UserRight.values());
+		assertTrue(pseudonymizer.isAccessible(TestDto.class, "firstName", true));
+
+		pseudonymizer.addFieldAccessChecker(PersonalDataFieldAccessChecker.forcedNoAccess(), PersonalDataFieldAccessChecker.forcedNoAccess());
+		assertFalse(pseudonymizer.isAccessible(TestDto.class, "firstName", true));
+
+		// a new pseudonymizer with the same rights must not see the added checker
+		assertTrue(createPseudonymizer(UserRight.values()).isAccessible(TestDto.class, "firstName", true));
+	}
+
+	@Test
+	public void testRestorePseudonymizedValues() {
+
+		DtoPseudonymizer pseudonymizer = createPseudonymizer();
+
+		TestDto original = createDto();
+		TestDto dto = createDto();
+		pseudonymizer.pseudonymizeDto(TestDto.class, dto, false, null);
+		dto.firstName = "Changed";
+
+		pseudonymizer.restorePseudonymizedValues(TestDto.class, dto, original, false);
+
+		assertEquals("John", dto.firstName);
+		assertEquals("sensitive", dto.notes);
+		assertEquals("Main street", dto.address.street);
+		assertEquals("12345", dto.address.postalCode);
+	}
+
+	@Test
+	public void testNullEmbeddedDto() {
+
+		TestDto dto = createDto();
+		dto.address = null;
+		createPseudonymizer().pseudonymizeDto(TestDto.class, dto, false, null);
+
+		assertEquals("***", dto.firstName);
+		assertNull(dto.address);
+	}
+
+	private static DtoPseudonymizer createPseudonymizer(UserRight... rights) {
+
+		final List<UserRight> userRights = Arrays.asList(rights);
+		PersonalDataFieldAccessChecker.RightCheck personalRightCheck = new PersonalDataFieldAccessChecker.RightCheck() {
+
+			@Override
+			public boolean check(UserRight userRight) {
+				return userRights.contains(userRight);
+			}
+		};
+		SensitiveDataFieldAccessChecker.RightCheck sensitiveRightCheck = new SensitiveDataFieldAccessChecker.RightCheck() {
+
+			@Override
+			public boolean check(UserRight userRight) {
+				return userRights.contains(userRight);
+			}
+		};
+
+		return new DtoPseudonymizer(
+			FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.inJurisdiction(personalRightCheck),
+				SensitiveDataFieldAccessChecker.inJurisdiction(sensitiveRightCheck)),
+			FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.outsideJurisdiction(personalRightCheck),
+				SensitiveDataFieldAccessChecker.outsideJurisdiction(sensitiveRightCheck)),
+			"***",
+			true);
+	}
+
+	private static TestDto createDto() {
+
+		TestDto dto = new TestDto("final");
+		dto.inJurisdiction = true;
+		dto.firstName = "John";
+		dto.notes = "sensitive";
+		dto.address = new TestAddressDto();
+		dto.address.street = "Main street";
+		dto.address.postalCode = "12345";
+		return dto;
+	}
+
+	public static class TestDto extends PseudonymizableIndexDto {
+
+		private boolean inJurisdiction;
+		@PersonalData
+		private String firstName;
+		@SensitiveData
+		private String notes;
+		@PersonalData
+		@SensitiveData
+		private final String finalValue;
+		@EmbeddedPersonalData
+		@Pseudonymizer(EmptyValuePseudonymizer.class)
+		private TestAddressDto address;
+
+		public TestDto(String finalValue) {
+			this.finalValue = finalValue;
+		}
+	}
+
+	public static class TestAddressDto extends PseudonymizableIndexDto {
+
+		@PersonalData
+		private String street;
+		@PersonalData
+		@Pseudonymizer(PostalCodePseudonymizer.class)
+		private String postalCode;
+	}
+}
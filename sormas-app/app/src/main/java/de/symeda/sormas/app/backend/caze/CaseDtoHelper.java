@@ -20,6 +20,7 @@ import java.util.List;
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
 import de.symeda.sormas.app.backend.caze.maternalhistory.MaternalHistoryDtoHelper;
 import de.symeda.sormas.app.backend.caze.porthealthinfo.PortHealthInfoDtoHelper;
@@ -80,6 +81,11 @@ public class CaseDtoHelper extends AdoDtoHelper<Case, CaseDataDto> {
 		return RetroProvider.getCaseFacade().pullAllSince(since);
 	}
 
+	@Override
+	protected Call<SyncPage<CaseDataDto>> pullPageSince(long since, String cursor) throws NoConnectionException {
+		return RetroProvider.getCaseFacade().pullPageSince(since, cursor);
+	}
+
 	@Override
 	protected Call<List<CaseDataDto>> pullByUuids(List<String> uuids) throws NoConnectionException {
 		return RetroProvider.getCaseFacade().pullByUuids(uuids);
@@ -34,8 +34,10 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 import javax.persistence.NonUniqueResultException;
@@ -55,8 +57,15 @@ import de.symeda.sormas.app.util.MetaProperty;
  */
 public abstract class AbstractAdoDao<ADO extends AbstractDomainObject> {
 
+	private static final Object BATCH_TASKS_LOCK = new Object();
+
 	private Dao<ADO, Long> dao;
 
+	/**
+	 * Set by {@link #prefetchForMerge(Collection)} for the thread handling the pulled entities.
+	 */
+	private final ThreadLocal<MergePrefetch> mergePrefetch = new ThreadLocal<>();
+
 	public AbstractAdoDao(Dao<ADO, Long> innerDao) {
 		this.dao = innerDao;
 	}
@@ -191,6 +200,62 @@ public abstract class AbstractAdoDao<ADO extends AbstractDomainObject> {
 		}
 	}
 
+	/**
+	 * Looks up which of the given entities already exist with one query, so the following {@link #mergeOrCreate(AbstractDomainObject)}
+	 * calls of the current thread don't have to query the entities that don't exist yet. Has to be cleared by
+	 * {@link #clearPrefetchedForMerge()}.
+	 *
+	 * @param uuids
+	 *            Limited by the maximum number of query parameters of SQLite (999)
+	 */
+	public void prefetchForMerge(Collection<String> uuids) {
+
+		MergePrefetch prefetch = new MergePrefetch(uuids);
+		try {
+			List<ADO> existing = queryBuilder().selectColumns(AbstractDomainObject.UUID, AbstractDomainObject.SNAPSHOT)
+				.where()
+				.in(AbstractDomainObject.UUID, uuids)
+				.query();
+			for (ADO ado : existing) {
+				if (ado.isSnapshot()) {
+					prefetch.existingSnapshots.add(ado.getUuid());
+				} else {
+					prefetch.existing.add(ado.getUuid());
+				}
+			}
+		} catch (SQLException e) {
+			Log.e(getTableName(), "Could not perform prefetchForMerge");
+			throw new RuntimeException(e);
+		}
+		mergePrefetch.set(prefetch);
+	}
+
+	public void clearPrefetchedForMerge() {
+		mergePrefetch.remove();
+	}
+
+	/**
+	 * @return Same as {@link #queryUuid(String)}, without a query when the entity is known not to exist
+	 */
+	protected ADO queryUuidForMerge(String uuid) {
+		MergePrefetch prefetch = mergePrefetch.get();
+		if (prefetch != null && prefetch.uuids.contains(uuid) && !prefetch.existing.contains(uuid)) {
+			return null;
+		}
+		return queryUuid(uuid);
+	}
+
+	/**
+	 * @return Same as {@link #querySnapshotByUuid(String)}, without a query when the snapshot is known not to exist
+	 */
+	protected ADO querySnapshotForMerge(String uuid) {
+		MergePrefetch prefetch = mergePrefetch.get();
+		if (prefetch != null && prefetch.uuids.contains(uuid) && !prefetch.existingSnapshots.contains(uuid)) {
+			return null;
+		}
+		return querySnapshotByUuid(uuid);
+	}
+
 	public List<ADO> queryForEq(String fieldName, Object value, String orderBy, boolean ascending) {
 		try {
 			QueryBuilder builder = queryBuilder();
@@ -577,8 +642,13 @@ public abstract class AbstractAdoDao<ADO extends AbstractDomainObject> {
 			throw new IllegalArgumentException("Merged source is not allowed to have an id");
 		}
 
-		ADO current = queryUuid(source.getUuid());
-		ADO snapshot = querySnapshotByUuid(source.getUuid());
+		ADO current = queryUuidForMerge(source.getUuid());
+		ADO snapshot = querySnapshotForMerge(source.getUuid());
+		MergePrefetch prefetch = mergePrefetch.get();
+		if (prefetch != null) {
+			// the entity is created or updated now, so a duplicate in the pulled data has to be queried
+			prefetch.uuids.remove(source.getUuid());
+		}
 		String sourceEntityString = source.toString();
 		if (StringUtils.isEmpty(sourceEntityString)) {
 			sourceEntityString = source.getEntityName();
@@ -1284,11 +1354,16 @@ public abstract class AbstractAdoDao<ADO extends AbstractDomainObject> {
 	}
 
 	/**
+	 * Batch tasks of all DAOs are serialized, because the entity types are synchronized in parallel (see
+	 * {@link de.symeda.sormas.app.rest.SyncGraph}) and SQLite only supports one writing transaction at a time.
+	 *
 	 * @see Dao#callBatchTasks(Callable)
 	 */
 	public <CT> CT callBatchTasks(Callable<CT> callable) throws DaoException {
 		try {
-			return dao.callBatchTasks(callable);
+			synchronized (BATCH_TASKS_LOCK) {
+				return dao.callBatchTasks(callable);
+			}
 		} catch (SQLException e) {
 			throw new DaoException(e);
 		} catch (DaoException e) {
@@ -1315,4 +1390,15 @@ public abstract class AbstractAdoDao<ADO extends AbstractDomainObject> {
 	public ConnectionSource getConnectionSource() {
 		return dao.getConnectionSource();
 	}
+
+	private static final class MergePrefetch {
+
+		private final Set<String> uuids;
+		private final Set<String> existing = new HashSet<>();
+		private final Set<String> existingSnapshots = new HashSet<>();
+
+		private MergePrefetch(Collection<String> uuids) {
+			this.uuids = new HashSet<>(uuids);
+		}
+	}
 }
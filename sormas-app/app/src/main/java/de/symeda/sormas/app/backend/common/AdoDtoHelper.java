@@ -15,7 +15,15 @@
 
 package de.symeda.sormas.app.backend.common;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -23,6 +31,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Callable;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.j256.ormlite.logger.Logger;
 import com.j256.ormlite.logger.LoggerFactory;
 
@@ -30,6 +41,8 @@ import android.util.Log;
 
 import de.symeda.sormas.api.EntityDto;
 import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.common.SyncPage;
+import de.symeda.sormas.app.backend.config.ConfigProvider;
 import de.symeda.sormas.app.rest.NoConnectionException;
 import de.symeda.sormas.app.rest.RetroProvider;
 import de.symeda.sormas.app.rest.ServerCommunicationException;
@@ -42,12 +55,30 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 
 	private static final Logger logger = LoggerFactory.getLogger(AdoDtoHelper.class);
 
+	/**
+	 * Number of pulled DTOs whose existing entities are looked up with one query. Has to stay below the maximum number of query
+	 * parameters of SQLite (999).
+	 */
+	public static final int PULL_CHUNK_SIZE = 250;
+
 	protected abstract Class<ADO> getAdoClass();
 
 	protected abstract Class<DTO> getDtoClass();
 
 	protected abstract Call<List<DTO>> pullAllSince(long since) throws NoConnectionException;
 
+	/**
+	 * Pulls one page of the entities changed since the given date, see {@link SyncPage}.
+	 *
+	 * @param cursor
+	 *            {@link SyncPage#getCursor()} of the previous page, null for the first one.
+	 * @return null, if the entity type is not pulled in pages. All entities are pulled at once by {@link #pullAllSince(long)}
+	 *         then.
+	 */
+	protected Call<SyncPage<DTO>> pullPageSince(long since, String cursor) throws NoConnectionException {
+		return null;
+	}
+
 	/**
 	 * Explicitly pull missing entities.
 	 * This is needed, because entities are synced based on user access rights and these might change
@@ -64,6 +95,14 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 	protected void preparePulledResult(List<DTO> result) {
 	}
 
+	/**
+	 * @return false, if {@link #preparePulledResult(List)} needs all pulled DTOs at once (e.g. to sort them). The pulled DTOs are
+	 *         then read completely before they are handled.
+	 */
+	protected boolean isPullStreamable() {
+		return true;
+	}
+
 	/**
 	 * @return another pull needed?
 	 */
@@ -80,19 +119,17 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 			final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
 
 			Date maxModifiedDate = dao.getLatestChangeDate();
-			Call<List<DTO>> dtoCall = pullAllSince(maxModifiedDate != null ? maxModifiedDate.getTime() : 0);
-			if (dtoCall == null) {
+			long since = maxModifiedDate != null ? maxModifiedDate.getTime() : 0;
+			if (pullPages(dao, since)) {
 				return;
 			}
 
-			Response<List<DTO>> response;
-			try {
-				response = dtoCall.execute();
-			} catch (IOException e) {
-				throw new ServerCommunicationException(e);
+			Call<List<DTO>> dtoCall = pullAllSince(since);
+			if (dtoCall == null) {
+				return;
 			}
 
-			handlePullResponse(markAsRead, dao, response);
+			handleStreamedPullResponse(markAsRead, dao, dtoCall);
 
 		} catch (RuntimeException e) {
 			Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
@@ -104,24 +141,70 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 		try {
 			final AbstractAdoDao<ADO> dao = DatabaseHelper.getAdoDao(getAdoClass());
 
+			if (pullPages(dao, 0)) {
+				return;
+			}
+
 			Call<List<DTO>> dtoCall = pullAllSince(0);
 			if (dtoCall == null) {
 				return;
 			}
 
-			Response<List<DTO>> response;
+			handleStreamedPullResponse(false, dao, dtoCall);
+
+		} catch (RuntimeException e) {
+			Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
+			throw new DaoException(e);
+		}
+	}
+
+	/**
+	 * Pulls the entities changed since the given date page by page. The cursor of every handled page is stored, so an interrupted
+	 * pull is resumed with the next page instead of starting over.
+	 *
+	 * @return false, if the entity type is not pulled in pages
+	 */
+	private boolean pullPages(AbstractAdoDao<ADO> dao, long since)
+		throws DaoException, ServerCommunicationException, ServerConnectionException, NoConnectionException {
+
+		String entityName = getAdoClass().getSimpleName();
+		String cursor = null;
+		Long interruptedSince = ConfigProvider.getPullCursorSince(entityName);
+		if (interruptedSince != null && interruptedSince <= since) {
+			// the latest change date has been raised by the pages that were already pulled
+			since = interruptedSince;
+			cursor = ConfigProvider.getPullCursor(entityName);
+		}
+
+		boolean hasMore = true;
+		while (hasMore) {
+			Call<SyncPage<DTO>> pageCall = pullPageSince(since, cursor);
+			if (pageCall == null) {
+				return false;
+			}
+
+			Response<SyncPage<DTO>> response;
 			try {
-				response = dtoCall.execute();
+				response = pageCall.execute();
 			} catch (IOException e) {
 				throw new ServerCommunicationException(e);
 			}
 
-			handlePullResponse(false, dao, response);
+			if (!response.isSuccessful()) {
+				RetroProvider.throwException(response);
+			}
 
-		} catch (RuntimeException e) {
-			Log.e(getClass().getName(), "Exception thrown when trying to pull entities");
-			throw new DaoException(e);
+			SyncPage<DTO> page = response.body();
+			if (page.getElements() != null && !page.getElements().isEmpty()) {
+				handlePulledList(dao, page.getElements());
+			}
+
+			cursor = page.getCursor();
+			hasMore = page.isHasMore();
+			ConfigProvider.setPullCursor(entityName, hasMore ? since : null, cursor);
 		}
+
+		return true;
 	}
 
 	/**
@@ -140,12 +223,127 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 		return 0;
 	}
 
+	/**
+	 * Spools the pulled DTOs from the response stream to a temporary file and handles them in chunks of {@link #PULL_CHUNK_SIZE}, so the
+	 * complete result is never held in memory. All chunks are handled in one transaction, because the pulled entities are not ordered
+	 * by their change date and a partially handled result would raise the latest change date used for the next pull. The transaction
+	 * is only started once the response has been received, so a stalling connection does not block the batch tasks of other DAOs.
+	 *
+	 * @return Number of pulled entities
+	 */
+	protected int handleStreamedPullResponse(final boolean markAsRead, final AbstractAdoDao<ADO> dao, Call<List<DTO>> dtoCall)
+		throws ServerCommunicationException, DaoException, ServerConnectionException, NoConnectionException {
+
+		if (!isPullStreamable()) {
+			Response<List<DTO>> response;
+			try {
+				response = dtoCall.execute();
+			} catch (IOException e) {
+				throw new ServerCommunicationException(e);
+			}
+			return handlePullResponse(markAsRead, dao, response);
+		}
+
+		File spoolFile;
+		try {
+			spoolFile = File.createTempFile("pull_" + dao.getTableName(), ".json");
+		} catch (IOException e) {
+			throw new DaoException(e);
+		}
+
+		try {
+			spoolPullResponse(dtoCall, spoolFile);
+
+			try (JsonReader reader =
+				new JsonReader(new InputStreamReader(new BufferedInputStream(new FileInputStream(spoolFile)), StandardCharsets.UTF_8))) {
+				int count = dao.callBatchTasks(() -> readAndHandlePulledChunks(dao, reader));
+				Log.d(dao.getTableName(), "Pulled: " + count);
+				return count;
+			} catch (IOException e) {
+				throw new ServerCommunicationException(e);
+			} catch (DaoException | RuntimeException e) {
+				// reading the spooled response fails inside the transaction
+				IOException readException = findIOException(e);
+				if (readException != null) {
+					throw new ServerCommunicationException(readException);
+				}
+				throw e;
+			}
+		} finally {
+			spoolFile.delete();
+		}
+	}
+
+	private static void spoolPullResponse(Call<?> dtoCall, File spoolFile)
+		throws ServerCommunicationException, ServerConnectionException, NoConnectionException {
+
+		okhttp3.Response response = RetroProvider.executeUnconverted(dtoCall);
+		try (InputStream in = response.body().byteStream(); OutputStream out = new FileOutputStream(spoolFile)) {
+			byte[] buffer = new byte[8192];
+			int length;
+			while ((length = in.read(buffer)) != -1) {
+				out.write(buffer, 0, length);
+			}
+		} catch (IOException e) {
+			throw new ServerCommunicationException(e);
+		} finally {
+			response.close();
+		}
+	}
+
+	/**
+	 * Reads a JSON array of DTOs and handles them in chunks of {@link #PULL_CHUNK_SIZE}.
+	 * Has to be called within {@link AbstractAdoDao#callBatchTasks(Callable)}.
+	 *
+	 * @return Number of pulled entities
+	 */
+	public int readAndHandlePulledList(JsonReader reader) throws IOException, DaoException, SQLException {
+		return readAndHandlePulledChunks(DatabaseHelper.getAdoDao(getAdoClass()), reader);
+	}
+
+	private int readAndHandlePulledChunks(AbstractAdoDao<ADO> dao, JsonReader reader) throws IOException, DaoException, SQLException {
+
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return 0;
+		}
+
+		Gson gson = RetroProvider.getGson();
+		List<DTO> chunk = new ArrayList<>(PULL_CHUNK_SIZE);
+		int count = 0;
+		reader.beginArray();
+		while (reader.hasNext()) {
+			chunk.add(gson.fromJson(reader, getDtoClass()));
+			if (chunk.size() == PULL_CHUNK_SIZE) {
+				preparePulledResult(chunk);
+				count += handlePulledChunk(dao, chunk);
+				chunk.clear();
+			}
+		}
+		reader.endArray();
+
+		if (!chunk.isEmpty()) {
+			preparePulledResult(chunk);
+			count += handlePulledChunk(dao, chunk);
+		}
+		return count;
+	}
+
+	private static IOException findIOException(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException) {
+				return (IOException) cause;
+			}
+		}
+		return null;
+	}
+
 	public int handlePulledList(AbstractAdoDao<ADO> dao, List<DTO> result) throws DaoException {
 		preparePulledResult(result);
 		dao.callBatchTasks((Callable<Void>) () -> {
 //            boolean empty = dao.countOf() == 0;
-			for (DTO dto : result) {
-				handlePulledDto(dao, dto);
+			for (int i = 0; i < result.size(); i += PULL_CHUNK_SIZE) {
+				handlePulledChunk(dao, result.subList(i, Math.min(i + PULL_CHUNK_SIZE, result.size())));
 				// TODO #704
 //                        if (entity != null && markAsRead) {
 //                            dao.markAsRead(entity);
@@ -158,6 +356,28 @@ public abstract class AdoDtoHelper<ADO extends AbstractDomainObject, DTO extends
 		return result.size();
 	}
 
+	/**
+	 * Looks up the existing entities of the chunk with one query before merging the DTOs.
+	 * Has to be called within {@link AbstractAdoDao#callBatchTasks(Callable)}.
+	 */
+	private int handlePulledChunk(AbstractAdoDao<ADO> dao, List<DTO> chunk) throws DaoException, SQLException {
+
+		List<String> uuids = new ArrayList<>(chunk.size());
+		for (DTO dto : chunk) {
+			uuids.add(dto.getUuid());
+		}
+
+		dao.prefetchForMerge(uuids);
+		try {
+			for (DTO dto : chunk) {
+				handlePulledDto(dao, dto);
+			}
+		} finally {
+			dao.clearPrefetchedForMerge();
+		}
+		return chunk.size();
+	}
+
 	/**
 	 * @return The resulting entity. May be null!
 	 */
@@ -36,9 +36,10 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -188,7 +189,8 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
 	private ConfigDao configDao = null;
 	private final Context context;
 
-	private final HashMap<Class<? extends AbstractDomainObject>, AbstractAdoDao<? extends AbstractDomainObject>> adoDaos = new HashMap<>();
+	// looked up by the parallel pulls of the synchronization
+	private final Map<Class<? extends AbstractDomainObject>, AbstractAdoDao<? extends AbstractDomainObject>> adoDaos = new ConcurrentHashMap<>();
 
 	private SyncLogDao syncLogDao = null;
 
@@ -270,6 +272,8 @@ public class DatabaseHelper extends OrmLiteSqliteOpenHelper {
 
 			// keep config!
 			//TableUtils.clearTable(connectionSource, Config.class);
+			// ...but not the progress of paged pulls, the pulled entities are gone
+			ConfigProvider.clearPullCursors();
 		} catch (SQLException e) {
 			Log.e(DatabaseHelper.class.getName(), "Can't clear database", e);
 			throw new RuntimeException(e);
@@ -18,6 +18,7 @@ package de.symeda.sormas.app.backend.config;
 import java.sql.SQLException;
 
 import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.DeleteBuilder;
 
 import android.util.Log;
 
@@ -69,4 +70,18 @@ public class ConfigDao {
 			throw new RuntimeException(e);
 		}
 	}
+
+	/**
+	 * Deletes all entries whose key starts with the given prefix.
+	 */
+	public int deleteByKeyPrefix(String keyPrefix) {
+		try {
+			DeleteBuilder<Config, String> deleteBuilder = dao.deleteBuilder();
+			deleteBuilder.where().like(Config.KEY, keyPrefix + "%");
+			return deleteBuilder.delete();
+		} catch (SQLException e) {
+			Log.e(getClass().getName(), "deleteByKeyPrefix threw exception on: " + keyPrefix, e);
+			throw new RuntimeException(e);
+		}
+	}
 }
@@ -83,6 +83,9 @@ public final class ConfigProvider {
 	private static String SERVER_LOCALE = "locale";
 	private static String SERVER_COUNTRY_NAME = "countryname";
 	private static String INITIAL_SYNC_REQUIRED = "initialSyncRequired";
+	private static String PULL_CURSOR_PREFIX = "pullCursor.";
+	private static String INFRASTRUCTURE_SNAPSHOT_ETAG = "infrastructureSnapshotETag";
+	private static String INFRASTRUCTURE_SNAPSHOT_DOWNLOAD_ETAG = "infrastructureSnapshotDownloadETag";
 
 	private static String LBDS_SORMAS_PRIVATE_KEY_AES_SECRET = "lbdsSormasPrivateKeyAesSecret";
 	private static String LBDS_SORMAS_PRIVATE_KEY = "lbdsSormasPrivateKey";
@@ -600,6 +603,62 @@ public final class ConfigProvider {
 		saveConfigEntry(LAST_DELETED_SYNC_DATE, lastDeletedSyncDate != null ? String.valueOf(lastDeletedSyncDate.getTime()) : null);
 	}
 
+	/**
+	 * @return The change date the interrupted paged pull of the given entity type was started with, or null if there is none.
+	 */
+	public static Long getPullCursorSince(String entityName) {
+		Config config = DatabaseHelper.getConfigDao().queryForId(PULL_CURSOR_PREFIX + "since." + entityName);
+		return config != null ? Long.valueOf(config.getValue()) : null;
+	}
+
+	/**
+	 * @return The cursor of the last page received by the interrupted paged pull of the given entity type, or null if there is none.
+	 */
+	public static String getPullCursor(String entityName) {
+		Config config = DatabaseHelper.getConfigDao().queryForId(PULL_CURSOR_PREFIX + "cursor." + entityName);
+		return config != null ? config.getValue() : null;
+	}
+
+	/**
+	 * Stores the progress of a paged pull, so it can be resumed when it is interrupted. Pass null to remove it once the pull has
+	 * been completed.
+	 */
+	public static void setPullCursor(String entityName, Long since, String cursor) {
+		saveConfigEntry(PULL_CURSOR_PREFIX + "since." + entityName, since != null && cursor != null ? String.valueOf(since) : null);
+		saveConfigEntry(PULL_CURSOR_PREFIX + "cursor." + entityName, since != null ? cursor : null);
+	}
+
+	/**
+	 * Removes the progress of all paged pulls, e.g. because the pulled entities have been deleted.
+	 */
+	public static void clearPullCursors() {
+		DatabaseHelper.getConfigDao().deleteByKeyPrefix(PULL_CURSOR_PREFIX);
+	}
+
+	/**
+	 * @return The ETag of the infrastructure snapshot that has been loaded into the database, or null if there is none.
+	 */
+	public static String getInfrastructureSnapshotETag() {
+		Config config = DatabaseHelper.getConfigDao().queryForId(INFRASTRUCTURE_SNAPSHOT_ETAG);
+		return config != null ? config.getValue() : null;
+	}
+
+	public static void setInfrastructureSnapshotETag(String eTag) {
+		saveConfigEntry(INFRASTRUCTURE_SNAPSHOT_ETAG, eTag);
+	}
+
+	/**
+	 * @return The ETag of the infrastructure snapshot whose download has been interrupted, or null if there is none.
+	 */
+	public static String getInfrastructureSnapshotDownloadETag() {
+		Config config = DatabaseHelper.getConfigDao().queryForId(INFRASTRUCTURE_SNAPSHOT_DOWNLOAD_ETAG);
+		return config != null ? config.getValue() : null;
+	}
+
+	public static void setInfrastructureSnapshotDownloadETag(String eTag) {
+		saveConfigEntry(INFRASTRUCTURE_SNAPSHOT_DOWNLOAD_ETAG, eTag);
+	}
+
 	public static Long getCurrentAppDownloadId() {
 		if (instance.currentAppDownloadId == null) {
 			synchronized (ConfigProvider.class) {
@@ -19,6 +19,7 @@ import java.util.List;
 
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.app.backend.clinicalcourse.HealthConditions;
@@ -68,6 +69,11 @@ public class ContactDtoHelper extends AdoDtoHelper<Contact, ContactDto> {
 		return RetroProvider.getContactFacade().pullAllSince(since);
 	}
 
+	@Override
+	protected Call<SyncPage<ContactDto>> pullPageSince(long since, String cursor) throws NoConnectionException {
+		return RetroProvider.getContactFacade().pullPageSince(since, cursor);
+	}
+
 	@Override
 	protected Call<List<ContactDto>> pullByUuids(List<String> uuids) throws NoConnectionException {
 		return RetroProvider.getContactFacade().pullByUuids(uuids);
@@ -1,11 +1,20 @@
 package de.symeda.sormas.app.backend.infrastructure;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.google.gson.stream.JsonReader;
+
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.infrastructure.InfrastructureChangeDatesDto;
+import de.symeda.sormas.api.infrastructure.InfrastructureSnapshotDto;
 import de.symeda.sormas.api.infrastructure.InfrastructureSyncDto;
 import de.symeda.sormas.app.backend.campaign.CampaignDtoHelper;
 import de.symeda.sormas.app.backend.campaign.form.CampaignFormMetaDtoHelper;
 import de.symeda.sormas.app.backend.classification.DiseaseClassificationDtoHelper;
+import de.symeda.sormas.app.backend.common.AdoDtoHelper;
 import de.symeda.sormas.app.backend.common.DaoException;
 import de.symeda.sormas.app.backend.common.DatabaseHelper;
 import de.symeda.sormas.app.backend.disease.DiseaseConfigurationDtoHelper;
@@ -75,4 +84,47 @@ public class InfrastructureHelper {
 			new CampaignFormMetaDtoHelper().handlePulledList(DatabaseHelper.getCampaignFormMetaDao(), infrastructureData.getCampaignFormMetas());
 		}
 	}
+
+	/**
+	 * Reads the infrastructure snapshot of the server (see {@link InfrastructureSnapshotDto}) and merges it into the database in a
+	 * single transaction.
+	 */
+	public static void handlePulledInfrastructureSnapshot(final JsonReader reader) throws DaoException, IOException {
+
+		final Map<String, AdoDtoHelper<?, ?>> dtoHelpers = new HashMap<>();
+		dtoHelpers.put(InfrastructureSnapshotDto.CONTINENTS, new ContinentDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.SUBCONTINENTS, new SubcontinentDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.COUNTRIES, new CountryDtoHelper());
+		if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.INFRASTRUCTURE_TYPE_AREA)) {
+			dtoHelpers.put(InfrastructureSnapshotDto.AREAS, new AreaDtoHelper());
+		}
+		dtoHelpers.put(InfrastructureSnapshotDto.REGIONS, new RegionDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.DISTRICTS, new DistrictDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.COMMUNITIES, new CommunityDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.FACILITIES, new FacilityDtoHelper());
+		dtoHelpers.put(InfrastructureSnapshotDto.POINTS_OF_ENTRY, new PointOfEntryDtoHelper());
+
+		try {
+			// the lists are sent in the order of their references, so they can be handled as they are read
+			DatabaseHelper.getContinentDao().callBatchTasks((Callable<Void>) () -> {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					AdoDtoHelper<?, ?> dtoHelper = dtoHelpers.get(reader.nextName());
+					if (dtoHelper != null) {
+						dtoHelper.readAndHandlePulledList(reader);
+					} else {
+						reader.skipValue();
+					}
+				}
+				reader.endObject();
+				return null;
+			});
+		} catch (RuntimeException e) {
+			// reading the snapshot fails inside the transaction
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+	}
 }
@@ -61,6 +61,12 @@ public class UserDtoHelper extends AdoDtoHelper<User, UserDto> {
 		throw new UnsupportedOperationException("Can't change users in app");
 	}
 
+	@Override
+	protected boolean isPullStreamable() {
+		// users are sorted, so the associated officers are created first
+		return false;
+	}
+
 	protected void preparePulledResult(List<UserDto> result) {
 		Collections.sort(result, new Comparator<UserDto>() {
 
@@ -19,17 +19,22 @@ import java.util.List;
 
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.common.SyncPage;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 public interface CaseFacadeRetro {
 
 	@GET("cases/all/{since}")
 	Call<List<CaseDataDto>> pullAllSince(@Path("since") long since);
 
+	@GET("cases/sync/{since}")
+	Call<SyncPage<CaseDataDto>> pullPageSince(@Path("since") long since, @Query("cursor") String cursor);
+
 	@POST("cases/query")
 	Call<List<CaseDataDto>> pullByUuids(@Body List<String> uuids);
 
@@ -18,12 +18,14 @@ package de.symeda.sormas.app.rest;
 import java.util.List;
 
 import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactDto;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 /**
  * Created by Stefan Szczesny on 24.10.2016.
@@ -33,6 +35,9 @@ public interface ContactFacadeRetro {
 	@GET("contacts/all/{since}")
 	Call<List<ContactDto>> pullAllSince(@Path("since") long since);
 
+	@GET("contacts/sync/{since}")
+	Call<SyncPage<ContactDto>> pullPageSince(@Path("since") long since, @Query("cursor") String cursor);
+
 	@POST("contacts/query")
 	Call<List<ContactDto>> pullByUuids(@Body List<String> uuids);
 
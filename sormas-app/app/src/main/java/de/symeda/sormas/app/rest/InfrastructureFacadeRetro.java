@@ -2,13 +2,32 @@ package de.symeda.sormas.app.rest;
 
 import de.symeda.sormas.api.infrastructure.InfrastructureChangeDatesDto;
 import de.symeda.sormas.api.infrastructure.InfrastructureSyncDto;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.POST;
+import retrofit2.http.Streaming;
 
 public interface InfrastructureFacadeRetro {
 
 	@POST("infrastructure/sync")
 	Call<InfrastructureSyncDto> pullInfrastructureSyncData(@Body InfrastructureChangeDatesDto changeDates);
 
+	/**
+	 * @param ifNoneMatch
+	 *            ETag of the snapshot that has already been loaded, may be null.
+	 * @param range
+	 *            To resume an interrupted download, may be null.
+	 * @param ifRange
+	 *            ETag of the interrupted download, may be null.
+	 */
+	@Streaming
+	@GET("infrastructure/snapshot")
+	Call<ResponseBody> pullInfrastructureSnapshot(
+		@Header("If-None-Match") String ifNoneMatch,
+		@Header("Range") String range,
+		@Header("If-Range") String ifRange);
+
 }
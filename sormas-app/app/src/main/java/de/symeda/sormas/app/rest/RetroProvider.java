@@ -79,6 +79,7 @@ public final class RetroProvider {
 
 	private static int lastConnectionId = 0;
 	private static RetroProvider instance = null;
+	private static volatile Gson gson = null;
 	private static boolean connecting = false;
 
 	private final Context context;
@@ -142,7 +143,7 @@ public final class RetroProvider {
 	}
 
 	public static Retrofit buildRetrofit(String serverUrl) {
-		Gson gson = initGson();
+		Gson gson = getGson();
 
 		// Basic auth as explained in https://futurestud.io/tutorials/android-basic-authentication-with-retrofit
 
@@ -176,6 +177,20 @@ public final class RetroProvider {
 		return new Retrofit.Builder().baseUrl(serverUrl).addConverterFactory(GsonConverterFactory.create(gson)).client(httpClient.build()).build();
 	}
 
+	/**
+	 * @return The gson instance used to read the responses of the server, e.g. as a stream
+	 */
+	public static Gson getGson() {
+		if (gson == null) {
+			synchronized (RetroProvider.class) {
+				if (gson == null) {
+					gson = initGson();
+				}
+			}
+		}
+		return gson;
+	}
+
 	public static Gson initGson() {
 		RuntimeTypeAdapterFactory<ClassificationCriteriaDto> classificationCriteriaFactory =
 			RuntimeTypeAdapterFactory.of(ClassificationCriteriaDto.class, "type")
@@ -941,6 +956,33 @@ public final class RetroProvider {
 		return instance.aggregateReportFacadeRetro;
 	}
 
+	/**
+	 * Executes the request of the call without converting the response body, so a large result can be read as a stream.
+	 * The returned response has to be closed by the caller.
+	 */
+	public static okhttp3.Response executeUnconverted(Call<?> call)
+		throws NoConnectionException, ServerConnectionException, ServerCommunicationException {
+
+		if (instance == null)
+			throw new NoConnectionException();
+
+		okhttp3.Response response;
+		try {
+			response = instance.retrofit.callFactory().newCall(call.request()).execute();
+		} catch (IOException e) {
+			throw new ServerCommunicationException(e);
+		}
+
+		if (!response.isSuccessful()) {
+			try {
+				throwException(Response.error(response.body(), response));
+			} finally {
+				response.close();
+			}
+		}
+		return response;
+	}
+
 	public static void throwException(Response<?> response) throws ServerConnectionException, ServerCommunicationException {
 
 		if (ServerConnectionException.RelatedErrorCodes.contains(response.code())) {
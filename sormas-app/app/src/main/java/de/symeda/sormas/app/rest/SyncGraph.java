@@ -0,0 +1,196 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.app.rest;
+
+import android.util.Log;
+
+import com.google.firebase.perf.FirebasePerformance;
+import com.google.firebase.perf.metrics.Trace;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.symeda.sormas.app.backend.common.DaoException;
+
+/**
+ * Runs the synchronization steps of the entity types as a dependency graph: A step is started as soon as the steps it depends on
+ * (e.g. persons for cases) are done, so the requests of independent entity types run in parallel on a bounded number of threads.
+ * The database writes of the steps are serialized by {@link de.symeda.sormas.app.backend.common.AbstractAdoDao#callBatchTasks}.
+ * <p>
+ * The duration of every step is reported as a Firebase performance trace named {@code <graph name><step name>Trace}.
+ */
+public class SyncGraph {
+
+	/**
+	 * Keeps the number of parallel requests low for slow mobile connections.
+	 */
+	public static final int MAX_PARALLEL_STEPS = 4;
+
+	public interface SyncStep {
+
+		void run() throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException;
+	}
+
+	private final String name;
+	private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+	/**
+	 * @param name
+	 *            Prefix of the performance traces of the steps.
+	 */
+	public SyncGraph(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param dependencies
+	 *            Names of the steps that have to be completed before this one is started. They have to be added first.
+	 */
+	public SyncGraph add(String name, SyncStep step, String... dependencies) {
+
+		if (nodes.containsKey(name)) {
+			throw new IllegalArgumentException("Sync step " + name + " has already been added");
+		}
+
+		Node node = new Node(this.name + name, step);
+		for (String dependency : dependencies) {
+			Node dependencyNode = nodes.get(dependency);
+			if (dependencyNode == null) {
+				throw new IllegalArgumentException("Sync step " + name + " depends on unknown step " + dependency);
+			}
+			dependencyNode.dependents.add(node);
+			node.pendingDependencies++;
+		}
+		nodes.put(name, node);
+		return this;
+	}
+
+	/**
+	 * Runs all steps and waits for them. When a step fails, no further steps are started and the exception of the first failed step
+	 * is thrown once the running steps are done.
+	 */
+	public void execute() throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException {
+
+		if (nodes.isEmpty()) {
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_PARALLEL_STEPS, nodes.size()));
+		ExecutorCompletionService<Node> completionService = new ExecutorCompletionService<>(executor);
+		try {
+			int running = 0;
+			for (Node node : nodes.values()) {
+				if (node.pendingDependencies == 0) {
+					completionService.submit(node::run);
+					running++;
+				}
+			}
+
+			Throwable failure = null;
+			while (running > 0) {
+				Future<Node> completed = completionService.take();
+				running--;
+
+				Node node;
+				try {
+					node = completed.get();
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause();
+					}
+					continue;
+				}
+
+				if (failure != null) {
+					continue;
+				}
+
+				for (Node dependent : node.dependents) {
+					if (--dependent.pendingDependencies == 0) {
+						completionService.submit(dependent::run);
+						running++;
+					}
+				}
+			}
+
+			if (failure != null) {
+				rethrow(failure);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServerCommunicationException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void rethrow(Throwable failure)
+		throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException {
+
+		if (failure instanceof DaoException) {
+			throw (DaoException) failure;
+		} else if (failure instanceof NoConnectionException) {
+			throw (NoConnectionException) failure;
+		} else if (failure instanceof ServerConnectionException) {
+			throw (ServerConnectionException) failure;
+		} else if (failure instanceof ServerCommunicationException) {
+			throw (ServerCommunicationException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else {
+			throw new RuntimeException(failure);
+		}
+	}
+
+	private static final class Node {
+
+		private final String name;
+		private final SyncStep step;
+		private final List<Node> dependents = new ArrayList<>();
+		/**
+		 * Only accessed by the thread executing the graph.
+		 */
+		private int pendingDependencies;
+
+		private Node(String name, SyncStep step) {
+			this.name = name;
+			this.step = step;
+		}
+
+		private Node run() throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException {
+
+			Trace trace = FirebasePerformance.getInstance().newTrace(name + "Trace");
+			trace.start();
+			long start = System.currentTimeMillis();
+			try {
+				step.run();
+			} finally {
+				trace.stop();
+				Log.d(SyncGraph.class.getSimpleName(), name + " synchronized in " + (System.currentTimeMillis() - start) + " ms");
+			}
+			return this;
+		}
+	}
+}
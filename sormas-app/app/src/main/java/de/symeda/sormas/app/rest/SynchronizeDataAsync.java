@@ -23,10 +23,24 @@ import com.google.firebase.perf.FirebasePerformance;
 import com.google.firebase.perf.metrics.AddTrace;
 import com.google.firebase.perf.metrics.Trace;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+import com.google.gson.stream.JsonReader;
 
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.infrastructure.InfrastructureChangeDatesDto;
@@ -39,6 +53,7 @@ import de.symeda.sormas.app.backend.campaign.form.CampaignFormMetaDtoHelper;
 import de.symeda.sormas.app.backend.caze.CaseDtoHelper;
 import de.symeda.sormas.app.backend.classification.DiseaseClassificationDtoHelper;
 import de.symeda.sormas.app.backend.clinicalcourse.ClinicalVisitDtoHelper;
+import de.symeda.sormas.app.backend.common.AdoDtoHelper;
 import de.symeda.sormas.app.backend.common.DaoException;
 import de.symeda.sormas.app.backend.common.DatabaseHelper;
 import de.symeda.sormas.app.backend.config.ConfigProvider;
@@ -75,11 +90,14 @@ import de.symeda.sormas.app.backend.visit.VisitDtoHelper;
 import de.symeda.sormas.app.core.TaskNotificationService;
 import de.symeda.sormas.app.util.ErrorReportingHelper;
 import de.symeda.sormas.app.util.SyncCallback;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Response;
 
 public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 
+	private static final String INFRASTRUCTURE_SNAPSHOT_FILE_NAME = "infrastructure_snapshot.json.gz";
+
 	/**
 	 * Should be set to true when the synchronization fails and reset to false as soon
 	 * as the last callback is called (i.e. the synchronization has been completed/cancelled).
@@ -241,110 +259,35 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 
 	@AddTrace(name = "synchronizeChangedDataTrace")
 	private void synchronizeChangedData() throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException {
-		PersonDtoHelper personDtoHelper = new PersonDtoHelper();
-		CaseDtoHelper caseDtoHelper = new CaseDtoHelper();
-		ImmunizationDtoHelper immunizationDtoHelper = new ImmunizationDtoHelper();
-		EventDtoHelper eventDtoHelper = new EventDtoHelper();
-		EventParticipantDtoHelper eventParticipantDtoHelper = new EventParticipantDtoHelper();
-		SampleDtoHelper sampleDtoHelper = new SampleDtoHelper();
-		PathogenTestDtoHelper pathogenTestDtoHelper = new PathogenTestDtoHelper();
-		AdditionalTestDtoHelper additionalTestDtoHelper = new AdditionalTestDtoHelper();
-		ContactDtoHelper contactDtoHelper = new ContactDtoHelper();
-		VisitDtoHelper visitDtoHelper = new VisitDtoHelper();
-		TaskDtoHelper taskDtoHelper = new TaskDtoHelper();
-		WeeklyReportDtoHelper weeklyReportDtoHelper = new WeeklyReportDtoHelper();
-		AggregateReportDtoHelper aggregateReportDtoHelper = new AggregateReportDtoHelper();
-		PrescriptionDtoHelper prescriptionDtoHelper = new PrescriptionDtoHelper();
-		TreatmentDtoHelper treatmentDtoHelper = new TreatmentDtoHelper();
-		ClinicalVisitDtoHelper clinicalVisitDtoHelper = new ClinicalVisitDtoHelper();
-
-		// order is important, due to dependencies (e.g. case & person)
+		final EntityDtoHelpers helpers = new EntityDtoHelpers();
+		final Set<AdoDtoHelper<?, ?>> helpersNeedingPull = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+		SyncGraph pullAndPushGraph = new SyncGraph("pullAndPush");
+		pullAndPushGraph.add("Outbreak", () -> new OutbreakDtoHelper().pullEntities(false));
+		pullAndPushGraph.add("DiseaseConfiguration", () -> new DiseaseConfigurationDtoHelper().pullEntities(false));
+		pullAndPushGraph.add("CustomizableEnumValue", () -> new CustomizableEnumValueDtoHelper().pullEntities(false));
+		helpers.addSteps(pullAndPushGraph, helper -> {
+			if (helper.pullAndPushEntities()) {
+				helpersNeedingPull.add(helper);
+			}
+		}, "Outbreak", "DiseaseConfiguration", "CustomizableEnumValue");
+		pullAndPushGraph.execute();
 
-		new OutbreakDtoHelper().pullEntities(false);
-		new DiseaseConfigurationDtoHelper().pullEntities(false);
-		new CustomizableEnumValueDtoHelper().pullEntities(false);
-
-		boolean personsNeedPull = personDtoHelper.pullAndPushEntities();
-		boolean casesNeedPull = caseDtoHelper.pullAndPushEntities();
-		boolean immunizationsNeedPull = immunizationDtoHelper.pullAndPushEntities();
-		boolean eventsNeedPull = eventDtoHelper.pullAndPushEntities();
-		boolean eventParticipantsNeedPull = eventParticipantDtoHelper.pullAndPushEntities();
-		boolean samplesNeedPull = sampleDtoHelper.pullAndPushEntities();
-		boolean sampleTestsNeedPull = pathogenTestDtoHelper.pullAndPushEntities();
-		boolean additionalTestsNeedPull = additionalTestDtoHelper.pullAndPushEntities();
-		boolean contactsNeedPull = contactDtoHelper.pullAndPushEntities();
-		boolean visitsNeedPull = visitDtoHelper.pullAndPushEntities();
-		boolean tasksNeedPull = taskDtoHelper.pullAndPushEntities();
-		boolean weeklyReportsNeedPull = weeklyReportDtoHelper.pullAndPushEntities();
-		boolean aggregateReportsNeedPull = aggregateReportDtoHelper.pullAndPushEntities();
-		boolean prescriptionsNeedPull = prescriptionDtoHelper.pullAndPushEntities();
-		boolean treatmentsNeedPull = treatmentDtoHelper.pullAndPushEntities();
-		boolean clinicalVisitsNeedPull = clinicalVisitDtoHelper.pullAndPushEntities();
-
-		casesNeedPull |= clinicalVisitsNeedPull;
-
-		if (personsNeedPull)
-			personDtoHelper.pullEntities(true);
-		if (casesNeedPull)
-			caseDtoHelper.pullEntities(true);
-		if (immunizationsNeedPull)
-			immunizationDtoHelper.pullEntities(true);
-		if (eventsNeedPull)
-			eventDtoHelper.pullEntities(true);
-		if (eventParticipantsNeedPull)
-			eventParticipantDtoHelper.pullEntities(true);
-		if (samplesNeedPull)
-			sampleDtoHelper.pullEntities(true);
-		if (sampleTestsNeedPull)
-			pathogenTestDtoHelper.pullEntities(true);
-		if (additionalTestsNeedPull)
-			additionalTestDtoHelper.pullEntities(true);
-		if (contactsNeedPull)
-			contactDtoHelper.pullEntities(true);
-		if (visitsNeedPull)
-			visitDtoHelper.pullEntities(true);
-		if (tasksNeedPull)
-			taskDtoHelper.pullEntities(true);
-		if (weeklyReportsNeedPull)
-			weeklyReportDtoHelper.pullEntities(true);
-		if (aggregateReportsNeedPull)
-			aggregateReportDtoHelper.pullEntities(true);
-		if (prescriptionsNeedPull)
-			prescriptionDtoHelper.pullEntities(true);
-		if (treatmentsNeedPull)
-			treatmentDtoHelper.pullEntities(true);
-		if (clinicalVisitsNeedPull)
-			clinicalVisitDtoHelper.pullEntities(true);
-
-		// Campaigns
-		if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.CAMPAIGNS)) {
-			final CampaignFormDataDtoHelper campaignFormDataDtoHelper = new CampaignFormDataDtoHelper();
-			if (campaignFormDataDtoHelper.pullAndPushEntities())
-				campaignFormDataDtoHelper.pullEntities(true);
+		if (helpersNeedingPull.contains(helpers.clinicalVisitDtoHelper)) {
+			helpersNeedingPull.add(helpers.caseDtoHelper);
 		}
+
+		SyncGraph pullGraph = new SyncGraph("pull");
+		helpers.addSteps(pullGraph, helper -> {
+			if (helpersNeedingPull.contains(helper)) {
+				helper.pullEntities(true);
+			}
+		});
+		pullGraph.execute();
 	}
 
 	@AddTrace(name = "repullDataTrace")
 	private void repullData() throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException {
-		PersonDtoHelper personDtoHelper = new PersonDtoHelper();
-		CaseDtoHelper caseDtoHelper = new CaseDtoHelper();
-		ImmunizationDtoHelper immunizationDtoHelper = new ImmunizationDtoHelper();
-		EventDtoHelper eventDtoHelper = new EventDtoHelper();
-		EventParticipantDtoHelper eventParticipantDtoHelper = new EventParticipantDtoHelper();
-		SampleDtoHelper sampleDtoHelper = new SampleDtoHelper();
-		PathogenTestDtoHelper pathogenTestDtoHelper = new PathogenTestDtoHelper();
-		AdditionalTestDtoHelper additionalTestDtoHelper = new AdditionalTestDtoHelper();
-		ContactDtoHelper contactDtoHelper = new ContactDtoHelper();
-		VisitDtoHelper visitDtoHelper = new VisitDtoHelper();
-		TaskDtoHelper taskDtoHelper = new TaskDtoHelper();
-		WeeklyReportDtoHelper weeklyReportDtoHelper = new WeeklyReportDtoHelper();
-		AggregateReportDtoHelper aggregateReportDtoHelper = new AggregateReportDtoHelper();
-		PrescriptionDtoHelper prescriptionDtoHelper = new PrescriptionDtoHelper();
-		TreatmentDtoHelper treatmentDtoHelper = new TreatmentDtoHelper();
-		ClinicalVisitDtoHelper clinicalVisitDtoHelper = new ClinicalVisitDtoHelper();
-
-		// order is important, due to dependencies (e.g. case & person)
-
 		new UserRoleConfigDtoHelper().repullEntities();
 		new DiseaseClassificationDtoHelper().repullEntities();
 		new UserDtoHelper().repullEntities();
@@ -352,28 +295,10 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 		new DiseaseConfigurationDtoHelper().repullEntities();
 		new CustomizableEnumValueDtoHelper().repullEntities();
 		new FeatureConfigurationDtoHelper().repullEntities();
-		personDtoHelper.repullEntities();
-		caseDtoHelper.repullEntities();
-		immunizationDtoHelper.repullEntities();
-		eventDtoHelper.repullEntities();
-		eventParticipantDtoHelper.repullEntities();
-		sampleDtoHelper.repullEntities();
-		pathogenTestDtoHelper.repullEntities();
-		additionalTestDtoHelper.repullEntities();
-		contactDtoHelper.repullEntities();
-		visitDtoHelper.repullEntities();
-		taskDtoHelper.repullEntities();
-		weeklyReportDtoHelper.repullEntities();
-		aggregateReportDtoHelper.repullEntities();
-		prescriptionDtoHelper.repullEntities();
-		treatmentDtoHelper.repullEntities();
-		clinicalVisitDtoHelper.repullEntities();
-
-		// Campaigns
-		if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.CAMPAIGNS)) {
-			final CampaignFormDataDtoHelper campaignFormDataDtoHelper = new CampaignFormDataDtoHelper();
-			campaignFormDataDtoHelper.repullEntities();
-		}
+
+		SyncGraph repullGraph = new SyncGraph("repull");
+		new EntityDtoHelpers().addSteps(repullGraph, AdoDtoHelper::repullEntities);
+		repullGraph.execute();
 	}
 
 	@AddTrace(name = "pullInfrastructureTrace")
@@ -406,46 +331,126 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 
 	@AddTrace(name = "pullInitialInfrastructureTrace")
 	private void pullInitialInfrastructure() throws DaoException, ServerCommunicationException, ServerConnectionException, NoConnectionException {
-		new ContinentDtoHelper().pullEntities(false);
-		new SubcontinentDtoHelper().pullEntities(false);
-		new CountryDtoHelper().pullEntities(false);
+		// the following pulls only have to fetch what has been changed since the snapshot was built
+		pullInfrastructureSnapshot();
+
+		// evaluated before the feature configurations are pulled, which may happen in parallel to the other steps
+		final boolean areasEnabled = !DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.INFRASTRUCTURE_TYPE_AREA);
+
+		// steps depend on the infrastructure they reference (e.g. district & region)
+		SyncGraph graph = new SyncGraph("pullInitial");
+		graph.add("Continent", () -> new ContinentDtoHelper().pullEntities(false));
+		graph.add("Subcontinent", () -> new SubcontinentDtoHelper().pullEntities(false), "Continent");
+		graph.add("Country", () -> new CountryDtoHelper().pullEntities(false), "Subcontinent");
+		graph.add("Area", () -> {
+			if (areasEnabled) {
+				new AreaDtoHelper().pullEntities(false);
+			}
+		});
+		graph.add("Region", () -> new RegionDtoHelper().pullEntities(false), "Country", "Area");
+		graph.add("District", () -> new DistrictDtoHelper().pullEntities(false), "Region");
+		graph.add("Community", () -> new CommunityDtoHelper().pullEntities(false), "District");
+		graph.add("Facility", () -> new FacilityDtoHelper().pullEntities(false), "Community");
+		graph.add("PointOfEntry", () -> new PointOfEntryDtoHelper().pullEntities(false), "District");
+		graph.add("User", () -> new UserDtoHelper().pullEntities(false), "Facility", "PointOfEntry");
+		graph.add("DiseaseClassification", () -> new DiseaseClassificationDtoHelper().pullEntities(false));
+		graph.add("DiseaseConfiguration", () -> new DiseaseConfigurationDtoHelper().pullEntities(false));
+		graph.add("CustomizableEnumValue", () -> new CustomizableEnumValueDtoHelper().pullEntities(false));
+
+		graph.add("UserRoleConfig", () -> {
+			// user role configurations may be removed, so have to pull the deleted uuids
+			// this may be applied to other entities later as well
+			Date latestChangeDate = DatabaseHelper.getUserRoleConfigDao().getLatestChangeDate();
+			List<String> userRoleConfigUuids = executeUuidCall(
+				RetroProvider.getUserRoleConfigFacade().pullDeletedUuidsSince(latestChangeDate != null ? latestChangeDate.getTime() : 0));
+			DatabaseHelper.getUserRoleConfigDao().delete(userRoleConfigUuids);
+
+			new UserRoleConfigDtoHelper().pullEntities(false);
+		});
+
+		graph.add("FeatureConfiguration", () -> {
+			Date featureConfigurationChangeDate = DatabaseHelper.getFeatureConfigurationDao().getLatestChangeDate();
+			List<String> featureConfigurationConfigUuids = executeUuidCall(
+				RetroProvider.getFeatureConfigurationFacade()
+					.pullDeletedUuidsSince(featureConfigurationChangeDate != null ? featureConfigurationChangeDate.getTime() : 0));
+			DatabaseHelper.getFeatureConfigurationDao().delete(featureConfigurationConfigUuids);
+
+			new FeatureConfigurationDtoHelper().pullEntities(false);
+		}, "District");
+
+		graph.add("Campaign", () -> {
+			if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.CAMPAIGNS)) {
+				new CampaignFormMetaDtoHelper().pullEntities(false);
+				new CampaignDtoHelper().pullEntities(false);
+			}
+		}, "FeatureConfiguration", "User");
 
-		if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.INFRASTRUCTURE_TYPE_AREA)) {
-			new AreaDtoHelper().pullEntities(false);
+		graph.execute();
+
+		ConfigProvider.setInitialSyncRequired(false);
+	}
+
+	/**
+	 * Downloads the precomputed infrastructure snapshot of the server and loads it into the database. Nothing is downloaded if the
+	 * current snapshot has already been loaded; an interrupted download is resumed.
+	 */
+	@AddTrace(name = "pullInfrastructureSnapshotTrace")
+	private void pullInfrastructureSnapshot() throws DaoException, ServerCommunicationException, ServerConnectionException, NoConnectionException {
+
+		File snapshotFile = new File(context.getCacheDir(), INFRASTRUCTURE_SNAPSHOT_FILE_NAME);
+		String downloadETag = ConfigProvider.getInfrastructureSnapshotDownloadETag();
+		boolean resume = downloadETag != null && snapshotFile.length() > 0;
+
+		Response<ResponseBody> response;
+		try {
+			response = RetroProvider.getInfrastructureFacade()
+				.pullInfrastructureSnapshot(
+					ConfigProvider.getInfrastructureSnapshotETag(),
+					resume ? "bytes=" + snapshotFile.length() + "-" : null,
+					resume ? downloadETag : null)
+				.execute();
+		} catch (IOException e) {
+			throw new ServerCommunicationException(e);
 		}
-		new RegionDtoHelper().pullEntities(false);
-		new DistrictDtoHelper().pullEntities(false);
-		new CommunityDtoHelper().pullEntities(false);
-		new FacilityDtoHelper().pullEntities(false);
-		new PointOfEntryDtoHelper().pullEntities(false);
-		new UserDtoHelper().pullEntities(false);
-		new DiseaseClassificationDtoHelper().pullEntities(false);
-		new DiseaseConfigurationDtoHelper().pullEntities(false);
-		new CustomizableEnumValueDtoHelper().pullEntities(false);
-
-		// user role configurations may be removed, so have to pull the deleted uuids
-		// this may be applied to other entities later as well
-		Date latestChangeDate = DatabaseHelper.getUserRoleConfigDao().getLatestChangeDate();
-		List<String> userRoleConfigUuids =
-			executeUuidCall(RetroProvider.getUserRoleConfigFacade().pullDeletedUuidsSince(latestChangeDate != null ? latestChangeDate.getTime() : 0));
-		DatabaseHelper.getUserRoleConfigDao().delete(userRoleConfigUuids);
-
-		new UserRoleConfigDtoHelper().pullEntities(false);
-
-		Date featureConfigurationChangeDate = DatabaseHelper.getFeatureConfigurationDao().getLatestChangeDate();
-		List<String> featureConfigurationConfigUuids = executeUuidCall(
-			RetroProvider.getFeatureConfigurationFacade()
-				.pullDeletedUuidsSince(featureConfigurationChangeDate != null ? featureConfigurationChangeDate.getTime() : 0));
-		DatabaseHelper.getFeatureConfigurationDao().delete(featureConfigurationConfigUuids);
-
-		new FeatureConfigurationDtoHelper().pullEntities(false);
 
-		if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.CAMPAIGNS)) {
-			new CampaignFormMetaDtoHelper().pullEntities(false);
-			new CampaignDtoHelper().pullEntities(false);
+		if (response.code() == 304) {
+			// the current snapshot has already been loaded
+			return;
+		} else if (response.code() == 404) {
+			// server without snapshot support, the infrastructure is pulled entity by entity
+			return;
+		} else if (response.code() != 416) {
+			// 416: the interrupted download had already been completed
+			if (!response.isSuccessful()) {
+				RetroProvider.throwException(response);
+			}
+
+			downloadETag = response.headers().get("ETag");
+			ConfigProvider.setInfrastructureSnapshotDownloadETag(downloadETag);
+			try (ResponseBody body = response.body();
+				InputStream in = body.byteStream();
+				OutputStream out = new FileOutputStream(snapshotFile, response.code() == 206)) {
+				byte[] buffer = new byte[8192];
+				int length;
+				while ((length = in.read(buffer)) != -1) {
+					out.write(buffer, 0, length);
+				}
+			} catch (IOException e) {
+				throw new ServerCommunicationException(e);
+			}
 		}
 
-		ConfigProvider.setInitialSyncRequired(false);
+		try (JsonReader reader =
+			new JsonReader(new InputStreamReader(new GZIPInputStream(new BufferedInputStream(new FileInputStream(snapshotFile))), StandardCharsets.UTF_8))) {
+			InfrastructureHelper.handlePulledInfrastructureSnapshot(reader);
+			ConfigProvider.setInfrastructureSnapshotETag(downloadETag);
+		} catch (IOException e) {
+			// the download is corrupt and has to be started over
+			throw new ServerCommunicationException(e);
+		} finally {
+			snapshotFile.delete();
+			ConfigProvider.setInfrastructureSnapshotDownloadETag(null);
+		}
 	}
 
 	@AddTrace(name = "pullAndRemoveArchivedUuidsSinceTrace")
@@ -757,6 +762,64 @@ public class SynchronizeDataAsync extends AsyncTask<Void, Void, Void> {
 		}.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
 	}
 
+	/**
+	 * The DTO helpers of the entity types that are synchronized with every sync.
+	 */
+	private static final class EntityDtoHelpers {
+
+		private final PersonDtoHelper personDtoHelper = new PersonDtoHelper();
+		private final CaseDtoHelper caseDtoHelper = new CaseDtoHelper();
+		private final ImmunizationDtoHelper immunizationDtoHelper = new ImmunizationDtoHelper();
+		private final EventDtoHelper eventDtoHelper = new EventDtoHelper();
+		private final EventParticipantDtoHelper eventParticipantDtoHelper = new EventParticipantDtoHelper();
+		private final SampleDtoHelper sampleDtoHelper = new SampleDtoHelper();
+		private final PathogenTestDtoHelper pathogenTestDtoHelper = new PathogenTestDtoHelper();
+		private final AdditionalTestDtoHelper additionalTestDtoHelper = new AdditionalTestDtoHelper();
+		private final ContactDtoHelper contactDtoHelper = new ContactDtoHelper();
+		private final VisitDtoHelper visitDtoHelper = new VisitDtoHelper();
+		private final TaskDtoHelper taskDtoHelper = new TaskDtoHelper();
+		private final WeeklyReportDtoHelper weeklyReportDtoHelper = new WeeklyReportDtoHelper();
+		private final AggregateReportDtoHelper aggregateReportDtoHelper = new AggregateReportDtoHelper();
+		private final PrescriptionDtoHelper prescriptionDtoHelper = new PrescriptionDtoHelper();
+		private final TreatmentDtoHelper treatmentDtoHelper = new TreatmentDtoHelper();
+		private final ClinicalVisitDtoHelper clinicalVisitDtoHelper = new ClinicalVisitDtoHelper();
+		private final CampaignFormDataDtoHelper campaignFormDataDtoHelper = new CampaignFormDataDtoHelper();
+
+		/**
+		 * Adds one step per entity type that runs after the entity types it references (e.g. case & person) have been handled.
+		 *
+		 * @param dependencies
+		 *            Steps that have to be completed before any of the entity types is handled.
+		 */
+		private void addSteps(SyncGraph graph, EntitySyncStep step, String... dependencies) {
+			graph.add("Person", () -> step.run(personDtoHelper), dependencies);
+			graph.add("Case", () -> step.run(caseDtoHelper), "Person");
+			graph.add("Immunization", () -> step.run(immunizationDtoHelper), "Person", "Case");
+			graph.add("Event", () -> step.run(eventDtoHelper), dependencies);
+			graph.add("EventParticipant", () -> step.run(eventParticipantDtoHelper), "Event", "Person", "Case");
+			graph.add("Contact", () -> step.run(contactDtoHelper), "Person", "Case");
+			graph.add("Sample", () -> step.run(sampleDtoHelper), "Case", "Contact", "EventParticipant");
+			graph.add("PathogenTest", () -> step.run(pathogenTestDtoHelper), "Sample");
+			graph.add("AdditionalTest", () -> step.run(additionalTestDtoHelper), "Sample");
+			graph.add("Visit", () -> step.run(visitDtoHelper), "Person", "Case", "Contact");
+			graph.add("Task", () -> step.run(taskDtoHelper), "Case", "Contact", "Event");
+			graph.add("WeeklyReport", () -> step.run(weeklyReportDtoHelper), dependencies);
+			graph.add("AggregateReport", () -> step.run(aggregateReportDtoHelper), dependencies);
+			graph.add("Prescription", () -> step.run(prescriptionDtoHelper), "Case");
+			graph.add("Treatment", () -> step.run(treatmentDtoHelper), "Prescription");
+			graph.add("ClinicalVisit", () -> step.run(clinicalVisitDtoHelper), "Case");
+
+			if (!DatabaseHelper.getFeatureConfigurationDao().isFeatureDisabled(FeatureType.CAMPAIGNS)) {
+				graph.add("CampaignFormData", () -> step.run(campaignFormDataDtoHelper), dependencies);
+			}
+		}
+	}
+
+	private interface EntitySyncStep {
+
+		void run(AdoDtoHelper<?, ?> helper) throws DaoException, NoConnectionException, ServerConnectionException, ServerCommunicationException;
+	}
+
 	public enum SyncMode {
 		Changes,
 		Complete,
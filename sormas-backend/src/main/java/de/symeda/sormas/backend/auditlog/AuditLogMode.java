@@ -0,0 +1,46 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+/**
+ * Determines when {@link AuditLogEntry}s are written to the audit log database.
+ */
+public enum AuditLogMode {
+
+	/**
+	 * Within the transaction that changes the entities.
+	 */
+	SYNC,
+
+	/**
+	 * By the {@link AuditLogWriter} after the transaction has been committed. The entries are appended to a spool file right after
+	 * the commit, so they are written after a restart if the server is stopped or crashes before they have been written. Entries are
+	 * lost if the server crashes between the commit and the append.
+	 */
+	ASYNC_DURABLE,
+
+	/**
+	 * By the {@link AuditLogWriter} after the transaction has been committed. Entries that have not been written yet are lost if the
+	 * server crashes.
+	 */
+	ASYNC;
+
+	/**
+	 * @return The mode for the value of the configuration property, e.g. {@code async-durable}.
+	 */
+	public static AuditLogMode fromConfigValue(String value) {
+		return valueOf(value.trim().toUpperCase().replace('-', '_'));
+	}
+}
@@ -17,8 +17,15 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.auditlog;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
@@ -27,6 +34,8 @@ import javax.enterprise.event.TransactionPhase;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import org.hibernate.Session;
+
 import de.symeda.auditlog.api.ChangeEvent;
 import de.symeda.sormas.backend.util.ModelConstants;
 
@@ -38,12 +47,83 @@ import de.symeda.sormas.backend.util.ModelConstants;
 @Stateless
 public class AuditLogServiceBean {
 
+	private static final String INSERT_ENTRY =
+		"INSERT INTO auditlogentry (id, detection_ts, changetype, editinguser, clazz, uuid, transaction_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_ATTRIBUTE =
+		"INSERT INTO auditlogentry_attributes (auditlogentry_id, attribute_key, attribute_value) VALUES (?, ?, ?)";
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME_AUDITLOG)
 	private EntityManager entityManager;
 
+	@EJB
+	private AuditLogWriter auditLogWriter;
+
+	/**
+	 * Saves the change within the transaction that changes the entity if the audit log is written synchronously, otherwise the
+	 * {@link AuditLogWriter} saves it after the commit.
+	 */
 	@TransactionAttribute(TransactionAttributeType.MANDATORY)
 	public void receiveChanges(@Observes(during = TransactionPhase.IN_PROGRESS) ChangeEvent event) {
 
+		if (!auditLogWriter.isSynchronous()) {
+			return;
+		}
+
+		this.entityManager.persist(toAuditLogEntry(event));
+	}
+
+	/**
+	 * Saves the entries with one batch of inserts per table. The ids are fetched with one query instead of one per entry.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void saveEntries(List<AuditLogEntry> entries) {
+
+		if (entries.isEmpty()) {
+			return;
+		}
+
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			List<Long> ids = new ArrayList<>(entries.size());
+			try (PreparedStatement statement = connection.prepareStatement("SELECT nextval('auditlog_seq') FROM generate_series(1, ?)")) {
+				statement.setInt(1, entries.size());
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						ids.add(resultSet.getLong(1));
+					}
+				}
+			}
+
+			try (PreparedStatement entryStatement = connection.prepareStatement(INSERT_ENTRY);
+				PreparedStatement attributeStatement = connection.prepareStatement(INSERT_ATTRIBUTE)) {
+				for (int i = 0; i < entries.size(); i++) {
+					AuditLogEntry entry = entries.get(i);
+					long id = ids.get(i);
+					entryStatement.setLong(1, id);
+					entryStatement.setTimestamp(2, new Timestamp(entry.getDetectionTimestamp().getTime()));
+					entryStatement.setString(3, entry.getChangeType().name());
+					entryStatement.setString(4, entry.getEditingUser());
+					entryStatement.setString(5, entry.getClazz());
+					entryStatement.setString(6, entry.getUuid());
+					entryStatement.setString(7, entry.getTransactionId());
+					entryStatement.addBatch();
+
+					if (entry.getAttributes() != null) {
+						for (Map.Entry<String, String> attribute : entry.getAttributes().entrySet()) {
+							attributeStatement.setLong(1, id);
+							attributeStatement.setString(2, attribute.getKey());
+							attributeStatement.setString(3, attribute.getValue());
+							attributeStatement.addBatch();
+						}
+					}
+				}
+				entryStatement.executeBatch();
+				attributeStatement.executeBatch();
+			}
+		});
+	}
+
+	static AuditLogEntry toAuditLogEntry(ChangeEvent event) {
+
 		Date changeDate = AuditLogDateHelper.from(event.getChangeDate());
 
 		AuditLogEntry log = new AuditLogEntry();
@@ -54,7 +134,6 @@ public class AuditLogServiceBean {
 		log.setTransactionId(event.getTransactionId());
 		log.setUuid(event.getOid().getEntityUuid());
 		log.setClazz(event.getOid().getEntityClass().getName());
-
-		this.entityManager.persist(log);
+		return log;
 	}
 }
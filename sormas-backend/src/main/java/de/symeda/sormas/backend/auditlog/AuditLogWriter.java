@@ -0,0 +1,501 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.symeda.auditlog.api.ChangeEvent;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.util.MBeanHelper;
+
+/**
+ * Writes the {@link AuditLogEntry}s of committed transactions in batches, unless the {@link AuditLogMode} is {@link AuditLogMode#SYNC}.
+ * <ul>
+ * <li>The changes of a transaction are collected while it is running and received together after it has been committed
+ * successfully, so changes that are rolled back are not logged.</li>
+ * <li>Received entries are kept in a queue of at most {@link #QUEUE_CAPACITY} entries, which is written every
+ * {@link #FLUSH_INTERVAL_SECONDS} in batches of {@link #BATCH_SIZE}. If the queue is full, the committing thread writes its entries
+ * itself.</li>
+ * <li>In {@link AuditLogMode#ASYNC_DURABLE} mode the entries of a transaction are also appended to a spool file and flushed to the
+ * operating system once, right after the commit and before they are queued. The entries of a transaction are lost if the server
+ * crashes between its commit and the append. A spool file is deleted as soon as its entries have been written. Spool files left
+ * behind by a crash or a failed write are read and written by the next flush, so entries may be written twice if the server
+ * crashes right after a flush.</li>
+ * </ul>
+ * The queue size, the number of written entries and the duration of the flushes are exposed as JMX attributes of
+ * {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class AuditLogWriter implements AuditLogWriterMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=AuditLogWriter";
+
+	public static final int FLUSH_INTERVAL_SECONDS = 5;
+	public static final int QUEUE_CAPACITY = 10000;
+	public static final int BATCH_SIZE = 500;
+
+	private static final String SPOOL_FILE_PREFIX = "auditlog-";
+	private static final String SPOOL_FILE_SUFFIX = ".spool";
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	@EJB
+	private AuditLogServiceBean auditLogService;
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	private AuditLogMode mode;
+	private Path spoolDirectory;
+
+	private final BlockingQueue<AuditLogEntry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final AtomicBoolean flushing = new AtomicBoolean();
+
+	/**
+	 * The entries of a transaction are appended to the current spool file and the file is replaced by a new one while holding this
+	 * lock, so the queue only contains entries of the current spool file.
+	 */
+	private final Object spoolLock = new Object();
+	private Path spoolFile;
+	private Writer spoolWriter;
+	private int spoolFileCounter;
+	/**
+	 * Whether entries of the current spool file are missing in the queue because it was full.
+	 */
+	private boolean spoolFileIncomplete;
+	/**
+	 * Spool files whose entries have to be read from the file to be written; only accessed by the running flush.
+	 */
+	private final List<Path> pendingSpoolFiles = new ArrayList<>();
+
+	private final LongAdder writtenEntries = new LongAdder();
+	private final LongAdder overflowEntries = new LongAdder();
+	private final LongAdder failedFlushes = new LongAdder();
+
+	private volatile long lastFlushSize;
+	private volatile long lastFlushDurationMillis;
+	private volatile long maxFlushDurationMillis;
+
+	@PostConstruct
+	public void init() {
+
+		try {
+			mode = AuditLogMode.fromConfigValue(configFacade.getAuditLogMode());
+		} catch (IllegalArgumentException e) {
+			logger.error("Unknown audit log mode '{}', writing the audit log synchronously", configFacade.getAuditLogMode());
+			mode = AuditLogMode.SYNC;
+		}
+
+		if (mode == AuditLogMode.ASYNC_DURABLE) {
+			spoolDirectory = Paths.get(configFacade.getAuditLogSpoolPath());
+			try {
+				Files.createDirectories(spoolDirectory);
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory, SPOOL_FILE_PREFIX + "*" + SPOOL_FILE_SUFFIX)) {
+					for (Path file : files) {
+						pendingSpoolFiles.add(file);
+					}
+				}
+				Collections.sort(pendingSpoolFiles);
+				openSpoolFile();
+			} catch (IOException e) {
+				logger.error("Could not open the audit log spool in " + spoolDirectory + ", writing the audit log synchronously", e);
+				mode = AuditLogMode.SYNC;
+			}
+		}
+
+		MBeanHelper.register(this, OBJECT_NAME, "audit log writer metrics");
+	}
+
+	@PreDestroy
+	public void shutdown() {
+
+		flush();
+
+		synchronized (spoolLock) {
+			closeSpoolFile();
+		}
+
+		MBeanHelper.unregister(OBJECT_NAME, "audit log writer metrics");
+	}
+
+	/**
+	 * @return Whether the audit log is written within the transactions that change the entities.
+	 */
+	public boolean isSynchronous() {
+		return mode == AuditLogMode.SYNC;
+	}
+
+	/**
+	 * Collects the changes of the current transaction, which are spooled and queued together once the transaction has been
+	 * committed.
+	 */
+	@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+	public void receiveChanges(@Observes(during = TransactionPhase.IN_PROGRESS) ChangeEvent event) {
+
+		if (mode == AuditLogMode.SYNC) {
+			return;
+		}
+
+		AuditLogEntry entry = AuditLogServiceBean.toAuditLogEntry(event);
+		if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+			receiveCommittedEntries(Collections.singletonList(entry));
+			return;
+		}
+
+		TransactionEntries transactionEntries = (TransactionEntries) transactionSynchronizationRegistry.getResource(TransactionEntries.class);
+		if (transactionEntries == null) {
+			transactionEntries = new TransactionEntries();
+			transactionSynchronizationRegistry.putResource(TransactionEntries.class, transactionEntries);
+			transactionSynchronizationRegistry.registerInterposedSynchronization(transactionEntries);
+		}
+		transactionEntries.entries.add(entry);
+	}
+
+	/**
+	 * Spools and queues the entries of a committed transaction. The entries are written directly if they can't be queued.
+	 */
+	private void receiveCommittedEntries(List<AuditLogEntry> entries) {
+
+		if (mode == AuditLogMode.ASYNC_DURABLE) {
+			synchronized (spoolLock) {
+				if (appendToSpoolFile(entries)) {
+					for (int i = 0; i < entries.size(); i++) {
+						if (!queue.offer(entries.get(i))) {
+							// the entries are written when the spool file is read by the next flush
+							spoolFileIncomplete = true;
+							overflowEntries.add(entries.size() - i);
+							break;
+						}
+					}
+					return;
+				}
+			}
+			writeEntries(entries);
+			return;
+		}
+
+		List<AuditLogEntry> overflow = new ArrayList<>();
+		for (AuditLogEntry entry : entries) {
+			if (!queue.offer(entry)) {
+				overflow.add(entry);
+			}
+		}
+		if (!overflow.isEmpty()) {
+			overflowEntries.add(overflow.size());
+			writeEntries(overflow);
+		}
+	}
+
+	/**
+	 * Timeout methods must not return a value, see {@link #flush()}.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/" + FLUSH_INTERVAL_SECONDS, persistent = false)
+	public void scheduledFlush() {
+		flush();
+	}
+
+	/**
+	 * Writes the queued entries and the entries of spool files left behind.
+	 * 
+	 * @return The number of written entries, 0 if another flush is still in progress
+	 */
+	public int flush() {
+
+		if (mode == AuditLogMode.SYNC || !flushing.compareAndSet(false, true)) {
+			return 0;
+		}
+
+		try {
+			long start = System.currentTimeMillis();
+			int written = flushPendingSpoolFiles();
+
+			List<AuditLogEntry> entries = new ArrayList<>(queue.size());
+			Path flushedSpoolFile = null;
+			synchronized (spoolLock) {
+				queue.drainTo(entries);
+				if (mode == AuditLogMode.ASYNC_DURABLE && (!entries.isEmpty() || spoolFileIncomplete)) {
+					flushedSpoolFile = spoolFile;
+					closeSpoolFile();
+					if (spoolFileIncomplete) {
+						pendingSpoolFiles.add(flushedSpoolFile);
+						flushedSpoolFile = null;
+						entries.clear();
+						spoolFileIncomplete = false;
+					}
+					openSpoolFileOrLog();
+				} else if (mode == AuditLogMode.ASYNC_DURABLE && spoolWriter == null) {
+					openSpoolFileOrLog();
+				}
+			}
+
+			if (writeEntries(entries)) {
+				written += entries.size();
+				if (flushedSpoolFile != null) {
+					deleteSpoolFile(flushedSpoolFile);
+				}
+			} else if (flushedSpoolFile != null) {
+				pendingSpoolFiles.add(flushedSpoolFile);
+			} else {
+				// try again with the next flush, as far as the queue has room
+				for (AuditLogEntry entry : entries) {
+					if (!queue.offer(entry)) {
+						logger.error("Audit log queue is full, dropping {} entries", entries.size() - entries.indexOf(entry));
+						break;
+					}
+				}
+			}
+
+			if (written > 0) {
+				long duration = System.currentTimeMillis() - start;
+				lastFlushSize = written;
+				lastFlushDurationMillis = duration;
+				maxFlushDurationMillis = Math.max(maxFlushDurationMillis, duration);
+			}
+			return written;
+		} finally {
+			flushing.set(false);
+		}
+	}
+
+	private int flushPendingSpoolFiles() {
+
+		int written = 0;
+		while (!pendingSpoolFiles.isEmpty()) {
+			Path file = pendingSpoolFiles.get(0);
+			List<AuditLogEntry> entries;
+			try {
+				entries = readSpoolFile(file);
+			} catch (IOException e) {
+				logger.error("Could not read audit log spool file " + file, e);
+				failedFlushes.increment();
+				return written;
+			}
+
+			if (!writeEntries(entries)) {
+				return written;
+			}
+			written += entries.size();
+			pendingSpoolFiles.remove(0);
+			deleteSpoolFile(file);
+		}
+		return written;
+	}
+
+	/**
+	 * @return false if the entries could not be written
+	 */
+	private boolean writeEntries(List<AuditLogEntry> entries) {
+
+		try {
+			for (int i = 0; i < entries.size(); i += BATCH_SIZE) {
+				List<AuditLogEntry> batch = entries.subList(i, Math.min(i + BATCH_SIZE, entries.size()));
+				auditLogService.saveEntries(batch);
+				writtenEntries.add(batch.size());
+			}
+			return true;
+		} catch (RuntimeException e) {
+			logger.error("Could not write " + entries.size() + " audit log entries", e);
+			failedFlushes.increment();
+			return false;
+		}
+	}
+
+	/**
+	 * Appends the entries and flushes them to the operating system once.
+	 */
+	private boolean appendToSpoolFile(List<AuditLogEntry> entries) {
+
+		if (spoolWriter == null) {
+			return false;
+		}
+
+		try {
+			for (AuditLogEntry entry : entries) {
+				spoolWriter.write(objectMapper.writeValueAsString(entry));
+				spoolWriter.write('\n');
+			}
+			spoolWriter.flush();
+			return true;
+		} catch (IOException e) {
+			logger.error("Could not append to audit log spool file " + spoolFile, e);
+			return false;
+		}
+	}
+
+	private List<AuditLogEntry> readSpoolFile(Path file) throws IOException {
+
+		List<AuditLogEntry> entries = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				try {
+					entries.add(objectMapper.readValue(line, AuditLogEntry.class));
+				} catch (JsonProcessingException e) {
+					// a line may be incomplete if the server crashed while appending it
+					logger.warn("Skipping unreadable line of audit log spool file {}", file);
+				}
+			}
+		}
+		return entries;
+	}
+
+	private void openSpoolFile() throws IOException {
+
+		spoolFile = spoolDirectory.resolve(
+			String.format("%s%013d-%05d%s", SPOOL_FILE_PREFIX, System.currentTimeMillis(), ++spoolFileCounter % 100000, SPOOL_FILE_SUFFIX));
+		spoolWriter = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		spoolFileIncomplete = false;
+	}
+
+	private void openSpoolFileOrLog() {
+
+		try {
+			openSpoolFile();
+		} catch (IOException e) {
+			// entries are written directly until the next flush tries again
+			logger.error("Could not open a new audit log spool file", e);
+		}
+	}
+
+	private void closeSpoolFile() {
+
+		if (spoolWriter != null) {
+			try {
+				spoolWriter.close();
+			} catch (IOException e) {
+				logger.warn("Could not close audit log spool file " + spoolFile, e);
+			}
+			spoolWriter = null;
+		}
+	}
+
+	private void deleteSpoolFile(Path file) {
+
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.error("Could not delete audit log spool file " + file + ", its entries will be written again after a restart", e);
+		}
+	}
+
+	@Override
+	public String getMode() {
+		return mode.name();
+	}
+
+	@Override
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	@Override
+	public long getWrittenEntries() {
+		return writtenEntries.sum();
+	}
+
+	@Override
+	public long getOverflowEntries() {
+		return overflowEntries.sum();
+	}
+
+	@Override
+	public long getFailedFlushes() {
+		return failedFlushes.sum();
+	}
+
+	@Override
+	public long getLastFlushSize() {
+		return lastFlushSize;
+	}
+
+	@Override
+	public long getLastFlushDurationMillis() {
+		return lastFlushDurationMillis;
+	}
+
+	@Override
+	public long getMaxFlushDurationMillis() {
+		return maxFlushDurationMillis;
+	}
+
+	/**
+	 * The entries of a transaction, received by the {@link AuditLogWriter} if the transaction has been committed.
+	 */
+	private class TransactionEntries implements Synchronization {
+
+		private final List<AuditLogEntry> entries = new ArrayList<>();
+
+		@Override
+		public void beforeCompletion() {
+			// the entries are spooled after the commit, so entries of transactions that have been rolled back are never written
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+
+			if (status == Status.STATUS_COMMITTED) {
+				receiveCommittedEntries(entries);
+			}
+		}
+	}
+}
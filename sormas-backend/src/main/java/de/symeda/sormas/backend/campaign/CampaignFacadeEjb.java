@@ -38,16 +38,13 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.user.UserRight;
-import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.campaign.diagram.CampaignDiagramDefinitionFacadeEjb;
 import de.symeda.sormas.backend.campaign.form.CampaignFormMetaService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
-import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
-import de.symeda.sormas.backend.user.UserRoleConfigFacadeEjb.UserRoleConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -66,8 +63,6 @@ public class CampaignFacadeEjb implements CampaignFacade {
 	@EJB
 	private UserService userService;
 	@EJB
-	private UserRoleConfigFacadeEjbLocal userRoleConfigFacade;
-	@EJB
 	private CampaignDiagramDefinitionFacadeEjb.CampaignDiagramDefinitionFacadeEjbLocal campaignDiagramDefinitionFacade;
 
 	@Override
@@ -348,11 +343,9 @@ public class CampaignFacadeEjb implements CampaignFacade {
 	@Override
 	public void deleteCampaign(String campaignUuid) {
 
-		User user = userService.getCurrentUser();
-		if (!userRoleConfigFacade.getEffectiveUserRights(user.getUserRoles().toArray(new UserRole[user.getUserRoles().size()]))
-			.contains(UserRight.CAMPAIGN_DELETE)) {
+		if (!userService.hasRight(UserRight.CAMPAIGN_DELETE)) {
 			throw new UnsupportedOperationException(
-				I18nProperties.getString(Strings.entityUser) + " " + user.getUuid() + " is not allowed to delete "
+				I18nProperties.getString(Strings.entityUser) + " " + userService.getCurrentUser().getUuid() + " is not allowed to delete "
 					+ I18nProperties.getString(Strings.entityCampaigns).toLowerCase() + ".");
 		}
 
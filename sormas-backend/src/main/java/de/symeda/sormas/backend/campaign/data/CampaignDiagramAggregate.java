@@ -0,0 +1,115 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.campaign.data;
+
+import java.io.Serializable;
+
+/**
+ * Aggregated values of one element of a campaign form in one jurisdiction, or the number of submissions of the form if
+ * {@link #getElementId()} is {@code null}.
+ */
+public class CampaignDiagramAggregate implements Serializable {
+
+	private static final long serialVersionUID = 6102870319634519584L;
+
+	private final String formMetaUuid;
+	private final String formId;
+	private final String elementId;
+	private final String elementCaption;
+	private final boolean numeric;
+	private final String value;
+	private final long numericSum;
+	private final long count;
+	private final String jurisdictionUuid;
+	private final String jurisdictionName;
+
+	public CampaignDiagramAggregate(
+		String formMetaUuid,
+		String formId,
+		String elementId,
+		String elementCaption,
+		boolean numeric,
+		String value,
+		long numericSum,
+		long count,
+		String jurisdictionUuid,
+		String jurisdictionName) {
+
+		this.formMetaUuid = formMetaUuid;
+		this.formId = formId;
+		this.elementId = elementId;
+		this.elementCaption = elementCaption;
+		this.numeric = numeric;
+		this.value = value;
+		this.numericSum = numericSum;
+		this.count = count;
+		this.jurisdictionUuid = jurisdictionUuid;
+		this.jurisdictionName = jurisdictionName;
+	}
+
+	public String getFormMetaUuid() {
+		return formMetaUuid;
+	}
+
+	public String getFormId() {
+		return formId;
+	}
+
+	public String getElementId() {
+		return elementId;
+	}
+
+	public String getElementCaption() {
+		return elementCaption;
+	}
+
+	/**
+	 * @return Whether the values of the element are summed up instead of being compared with the reference values
+	 */
+	public boolean isNumeric() {
+		return numeric;
+	}
+
+	/**
+	 * @return The value of a non-numeric element if it is one of the aggregated reference values, otherwise {@code null}
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * @return The sum of the values of a numeric element
+	 */
+	public long getNumericSum() {
+		return numericSum;
+	}
+
+	/**
+	 * @return The number of values, or the number of submissions of the form
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public String getJurisdictionUuid() {
+		return jurisdictionUuid;
+	}
+
+	public String getJurisdictionName() {
+		return jurisdictionName;
+	}
+}
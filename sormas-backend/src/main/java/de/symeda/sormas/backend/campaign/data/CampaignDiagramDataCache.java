@@ -0,0 +1,161 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.campaign.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.campaign.diagram.CampaignDiagramCriteria;
+
+/**
+ * Node local cache of the aggregated campaign form data shown in the campaign diagrams, per campaign and jurisdiction filter.
+ * <ul>
+ * <li>Entries expire after {@link #TIME_TO_LIVE_MINUTES}, which also limits how long changes made on other nodes of a
+ * cluster are not visible.</li>
+ * <li>Changes made through {@link CampaignFormDataService} invalidate the cache when their transaction completes.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class CampaignDiagramDataCache {
+
+	public static final long TIME_TO_LIVE_MINUTES = 5;
+	public static final int MAX_ENTRIES = 1000;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented by every invalidation, so aggregates loaded concurrently to an invalidation are not cached.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * @param loader
+	 *            Aggregates the form data for the given measures. It may add further measures, e.g. those of the other diagrams
+	 *            of the dashboard, which are then served from the cache as well.
+	 * @return The cached aggregates, or the aggregates provided by the loader if the requested measures are not cached or
+	 *         expired.
+	 */
+	public List<CampaignDiagramAggregate> getAggregates(
+		CampaignDiagramCriteria criteria,
+		CampaignDiagramMeasures measures,
+		Function<CampaignDiagramMeasures, List<CampaignDiagramAggregate>> loader) {
+
+		List<Object> key = Arrays.asList(
+			getUuid(criteria.getCampaign()),
+			getUuid(criteria.getArea()),
+			getUuid(criteria.getRegion()),
+			getUuid(criteria.getDistrict()),
+			criteria.getCampaignJurisdictionLevelGroupBy());
+
+		long now = System.currentTimeMillis();
+		Entry entry = entries.get(key);
+		boolean valid = entry != null && entry.expiresAt > now;
+		if (valid && entry.measures.covers(measures)) {
+			return entry.aggregates;
+		}
+
+		CampaignDiagramMeasures loadMeasures = new CampaignDiagramMeasures();
+		loadMeasures.addAll(measures);
+		if (valid) {
+			loadMeasures.addAll(entry.measures);
+		}
+
+		long loadGeneration = generation.get();
+		List<CampaignDiagramAggregate> aggregates = Collections.unmodifiableList(loader.apply(loadMeasures));
+		if (loadGeneration == generation.get()) {
+			if (entries.size() >= MAX_ENTRIES) {
+				entries.clear();
+			}
+			entries.put(key, new Entry(loadMeasures, aggregates, now + TimeUnit.MINUTES.toMillis(TIME_TO_LIVE_MINUTES)));
+		}
+
+		return aggregates;
+	}
+
+	/**
+	 * Invalidates the cache now and again when the current transaction completes, because other threads could load and cache
+	 * the old data until the changes are committed.
+	 */
+	public void invalidateAfterCompletion() {
+
+		invalidateAll();
+
+		if (transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null) {
+			transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == Status.STATUS_COMMITTED) {
+						invalidateAll();
+					}
+				}
+			});
+		}
+	}
+
+	public void invalidateAll() {
+
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	private static String getUuid(ReferenceDto reference) {
+		return reference != null ? reference.getUuid() : null;
+	}
+
+	private static final class Entry {
+
+		private final CampaignDiagramMeasures measures;
+		private final List<CampaignDiagramAggregate> aggregates;
+		private final long expiresAt;
+
+		private Entry(CampaignDiagramMeasures measures, List<CampaignDiagramAggregate> aggregates, long expiresAt) {
+			this.measures = measures;
+			this.aggregates = aggregates;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
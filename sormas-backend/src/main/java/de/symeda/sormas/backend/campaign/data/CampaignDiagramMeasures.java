@@ -0,0 +1,122 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.campaign.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.symeda.sormas.api.campaign.diagram.CampaignDiagramSeries;
+
+/**
+ * The measures needed by campaign diagram series, which are aggregated together in one query by
+ * {@link CampaignFormDataService#getDiagramAggregates}: the number of submissions of forms, the values of form elements and
+ * the reference values these values are compared with.
+ */
+public class CampaignDiagramMeasures {
+
+	private final Set<String> countedFormIds = new HashSet<>();
+	private final Set<List<String>> elements = new HashSet<>();
+	private final Set<String> referenceValues = new HashSet<>();
+
+	public static CampaignDiagramMeasures of(Collection<CampaignDiagramSeries> diagramSeries) {
+
+		CampaignDiagramMeasures measures = new CampaignDiagramMeasures();
+		if (diagramSeries != null) {
+			for (CampaignDiagramSeries series : diagramSeries) {
+				measures.add(series);
+			}
+		}
+		return measures;
+	}
+
+	public void add(CampaignDiagramSeries series) {
+
+		if (series.getFormId() == null) {
+			// population series are not based on form data
+			return;
+		}
+
+		if (series.getFieldId() == null) {
+			countedFormIds.add(series.getFormId());
+		} else {
+			elements.add(Arrays.asList(series.getFormId(), series.getFieldId()));
+			referenceValues.add(getReferenceValue(series));
+		}
+	}
+
+	public void addAll(CampaignDiagramMeasures measures) {
+
+		countedFormIds.addAll(measures.countedFormIds);
+		elements.addAll(measures.elements);
+		referenceValues.addAll(measures.referenceValues);
+	}
+
+	public boolean covers(CampaignDiagramMeasures measures) {
+
+		return countedFormIds.containsAll(measures.countedFormIds)
+			&& elements.containsAll(measures.elements)
+			&& referenceValues.containsAll(measures.referenceValues);
+	}
+
+	public boolean isEmpty() {
+		return countedFormIds.isEmpty() && elements.isEmpty();
+	}
+
+	public Set<String> getCountedFormIds() {
+		return Collections.unmodifiableSet(countedFormIds);
+	}
+
+	/**
+	 * @return The ids of the forms of which element values are aggregated
+	 */
+	public Set<String> getElementFormIds() {
+
+		Set<String> formIds = new HashSet<>();
+		for (List<String> element : elements) {
+			formIds.add(element.get(0));
+		}
+		return formIds;
+	}
+
+	/**
+	 * @return The ids of the elements of which values are aggregated, regardless of the form
+	 */
+	public Set<String> getElementIds() {
+
+		Set<String> elementIds = new HashSet<>();
+		for (List<String> element : elements) {
+			elementIds.add(element.get(1));
+		}
+		return elementIds;
+	}
+
+	public Set<String> getReferenceValues() {
+		return Collections.unmodifiableSet(referenceValues);
+	}
+
+	/**
+	 * @return The value the values of non-numeric elements are compared with; {@code "null"} if the series has no reference
+	 *         value, like the diagrams have always done it.
+	 */
+	public static String getReferenceValue(CampaignDiagramSeries series) {
+		return String.valueOf(series.getReferenceValue());
+	}
+}
@@ -21,10 +21,15 @@
 package de.symeda.sormas.backend.campaign.data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
@@ -32,7 +37,6 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -51,11 +55,10 @@ import de.symeda.sormas.api.campaign.data.CampaignFormDataEntry;
 import de.symeda.sormas.api.campaign.data.CampaignFormDataFacade;
 import de.symeda.sormas.api.campaign.data.CampaignFormDataIndexDto;
 import de.symeda.sormas.api.campaign.data.CampaignFormDataReferenceDto;
+import de.symeda.sormas.api.campaign.diagram.CampaignDashboardElement;
 import de.symeda.sormas.api.campaign.diagram.CampaignDiagramCriteria;
 import de.symeda.sormas.api.campaign.diagram.CampaignDiagramDataDto;
 import de.symeda.sormas.api.campaign.diagram.CampaignDiagramSeries;
-import de.symeda.sormas.api.campaign.form.CampaignFormElement;
-import de.symeda.sormas.api.campaign.form.CampaignFormElementType;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.infrastructure.PopulationDataCriteria;
@@ -69,6 +72,8 @@ import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.campaign.Campaign;
 import de.symeda.sormas.backend.campaign.CampaignFacadeEjb;
 import de.symeda.sormas.backend.campaign.CampaignService;
+import de.symeda.sormas.backend.campaign.diagram.CampaignDiagramDefinition;
+import de.symeda.sormas.backend.campaign.diagram.CampaignDiagramDefinitionService;
 import de.symeda.sormas.backend.campaign.form.CampaignFormMeta;
 import de.symeda.sormas.backend.campaign.form.CampaignFormMetaFacadeEjb;
 import de.symeda.sormas.backend.campaign.form.CampaignFormMetaService;
@@ -125,6 +130,12 @@ public class CampaignFormDataFacadeEjb implements CampaignFormDataFacade {
 	@EJB
 	private AreaService areaService;
 
+	@EJB
+	private CampaignDiagramDefinitionService campaignDiagramDefinitionService;
+
+	@EJB
+	private CampaignDiagramDataCache campaignDiagramDataCache;
+
 	@EJB
 	private RegionFacadeEjb.RegionFacadeEjbLocal regionFacadeEjb;
 
@@ -173,6 +184,7 @@ public class CampaignFormDataFacadeEjb implements CampaignFormDataFacade {
 		validate(campaignFormDataDto);
 
 		campaignFormDataService.ensurePersisted(campaignFormData);
+		campaignFormDataService.updateValues(Collections.singletonList(campaignFormData));
 		return toDto(campaignFormData);
 	}
 
@@ -483,226 +495,94 @@ public class CampaignFormDataFacadeEjb implements CampaignFormDataFacade {
 	@Override
 	public List<CampaignDiagramDataDto> getDiagramData(List<CampaignDiagramSeries> diagramSeries, CampaignDiagramCriteria campaignDiagramCriteria) {
 
-		List<CampaignDiagramDataDto> resultData = new ArrayList<>();
-		final AreaReferenceDto area = campaignDiagramCriteria.getArea();
-		final RegionReferenceDto region = campaignDiagramCriteria.getRegion();
-		final DistrictReferenceDto district = campaignDiagramCriteria.getDistrict();
-		final CampaignReferenceDto campaign = campaignDiagramCriteria.getCampaign();
+		CampaignDiagramMeasures measures = CampaignDiagramMeasures.of(diagramSeries);
+		if (measures.isEmpty()) {
+			return new ArrayList<>();
+		}
 
-		for (CampaignDiagramSeries series : diagramSeries) {
-			//@formatter:off
-
-				final String areaFilter = area != null ? " AND " + Area.TABLE_NAME + "." + Area.UUID + " = :areaUuid" : "";
-				final String regionFilter = region != null ? " AND " + CampaignFormData.REGION + "." + Region.UUID + " = :regionUuid" : "";
-				final String districtFilter = district != null ? " AND " + CampaignFormData.DISTRICT + "." + District.UUID + " = :districtUuid" : "";
-				final String campaignFilter = campaign != null ? " AND " + Campaign.TABLE_NAME + "." + Campaign.UUID + " = :campaignUuid" : "";
-				//@formatter:on
-
-			// SELECT
-			StringBuilder selectBuilder = new StringBuilder("SELECT ").append(CampaignFormMeta.TABLE_NAME)
-				.append(".")
-				.append(CampaignFormMeta.UUID)
-				.append(" as formUuid,")
-				.append(CampaignFormMeta.TABLE_NAME)
-				.append(".")
-				.append(CampaignFormMeta.FORM_ID)
-				.append(" as formId");
-
-			if (series.getFieldId() != null) {
-				selectBuilder.append(", jsonData->>'")
-					.append(CampaignFormDataEntry.ID)
-					.append("' as fieldId, jsonMeta->>'")
-					.append(CampaignFormElement.CAPTION)
-					.append("' as fieldCaption,")
-					.append("CASE WHEN (jsonMeta ->> '")
-					.append(CampaignFormElement.TYPE)
-					.append("') = '")
-					.append(CampaignFormElementType.NUMBER.toString())
-					.append("' THEN sum(cast_to_int(jsonData->>'")
-					.append(CampaignFormDataEntry.VALUE)
-					.append("', 0)) ELSE sum(CASE WHEN(jsonData->>'")
-					.append(CampaignFormDataEntry.VALUE)
-					.append("') = '")
-					.append(series.getReferenceValue())
-					.append("' THEN 1 ELSE 0 END) END as sumValue,");
-			} else {
-				selectBuilder.append(", null as fieldId, null as fieldCaption, count(formId) as sumValue,");
+		// the data of all diagrams of the dashboard is aggregated at once, because they are requested one after another
+		final CampaignReferenceDto campaign = campaignDiagramCriteria.getCampaign();
+		List<CampaignDiagramAggregate> aggregates = campaignDiagramDataCache.getAggregates(campaignDiagramCriteria, measures, loadMeasures -> {
+			if (campaign != null) {
+				loadMeasures.addAll(getDashboardMeasures(campaign));
 			}
+			return campaignFormDataService.getDiagramAggregates(campaignDiagramCriteria, loadMeasures);
+		});
 
-			final String jurisdictionGrouping;
-			switch (campaignDiagramCriteria.getCampaignJurisdictionLevelGroupBy()) {
-			case REGION:
-				appendInfrastructureSelection(selectBuilder, Region.TABLE_NAME, Region.NAME);
-				break;
-			case DISTRICT:
-				appendInfrastructureSelection(selectBuilder, District.TABLE_NAME, District.NAME);
-				break;
-			case COMMUNITY:
-				appendInfrastructureSelection(selectBuilder, Community.TABLE_NAME, Community.NAME);
-				break;
-			case AREA:
-			default:
-				appendInfrastructureSelection(selectBuilder, Area.TABLE_NAME, Area.NAME);
-			}
+		Map<List<String>, List<CampaignDiagramAggregate>> aggregatesByElement = new HashMap<>();
+		for (CampaignDiagramAggregate aggregate : aggregates) {
+			aggregatesByElement.computeIfAbsent(Arrays.asList(aggregate.getFormId(), aggregate.getElementId()), k -> new ArrayList<>())
+				.add(aggregate);
+		}
 
-			// JOINS
-			StringBuilder joinBuilder = new StringBuilder(" LEFT JOIN ").append(CampaignFormMeta.TABLE_NAME)
-				.append(" ON ")
-				.append(CampaignFormData.CAMPAIGN_FORM_META)
-				.append("_id = ")
-				.append(CampaignFormMeta.TABLE_NAME)
-				.append(".")
-				.append(CampaignFormMeta.ID)
-				.append(" LEFT JOIN ")
-				.append(Region.TABLE_NAME)
-				.append(" ON ")
-				.append(CampaignFormData.REGION)
-				.append("_id =")
-				.append(Region.TABLE_NAME)
-				.append(".")
-				.append(Region.ID)
-				.append(" LEFT JOIN ")
-				.append(Area.TABLE_NAME)
-				.append(" ON ")
-				.append(Region.AREA)
-				.append("_id = ")
-				.append(Area.TABLE_NAME)
-				.append(".")
-				.append(Area.ID)
-				.append(" LEFT JOIN ")
-				.append(District.TABLE_NAME)
-				.append(" ON ")
-				.append(CampaignFormData.DISTRICT)
-				.append("_id = ")
-				.append(District.TABLE_NAME)
-				.append(".")
-				.append(District.ID)
-				.append(" LEFT JOIN ")
-				.append(Community.TABLE_NAME)
-				.append(" ON ")
-				.append(CampaignFormData.COMMUNITY)
-				.append("_id = ")
-				.append(Community.TABLE_NAME)
-				.append(".")
-				.append(Community.ID)
-				.append(" LEFT JOIN ")
-				.append(Campaign.TABLE_NAME)
-				.append(" ON ")
-				.append(CampaignFormData.CAMPAIGN)
-				.append("_id = ")
-				.append(Campaign.TABLE_NAME)
-				.append(".")
-				.append(Campaign.ID);
-
-			if (series.getFieldId() != null) {
-				joinBuilder.append(", json_array_elements(")
-					.append(CampaignFormData.FORM_VALUES)
-					.append(") as jsonData, json_array_elements(")
-					.append(CampaignFormMeta.CAMPAIGN_FORM_ELEMENTS)
-					.append(") as jsonMeta");
-			}
+		List<CampaignDiagramDataDto> resultData = new ArrayList<>();
+		for (CampaignDiagramSeries series : diagramSeries) {
+			List<CampaignDiagramAggregate> seriesAggregates =
+				aggregatesByElement.getOrDefault(Arrays.asList(series.getFormId(), series.getFieldId()), Collections.emptyList());
 
-			// WHERE
-			StringBuilder whereBuilder =
-				new StringBuilder(" WHERE ").append(CampaignFormMeta.TABLE_NAME).append(".").append(CampaignFormMeta.FORM_ID).append(" = :campaignFormMetaId");
-
-			if (series.getFieldId() != null) {
-				whereBuilder.append(" AND jsonData->>'")
-					.append(CampaignFormDataEntry.ID)
-					.append("' = :campaignFormDataId")
-					.append(" AND jsonData->>'")
-					.append(CampaignFormDataEntry.VALUE)
-					.append("' IS NOT NULL AND jsonData->>'")
-					.append(CampaignFormDataEntry.ID)
-					.append("' = jsonMeta->>'")
-					.append(CampaignFormElement.ID)
-					.append("'");
+			if (series.getFieldId() == null) {
+				for (CampaignDiagramAggregate aggregate : seriesAggregates) {
+					resultData.add(
+						new CampaignDiagramDataDto(
+							aggregate.getFormMetaUuid(),
+							aggregate.getFormId(),
+							null,
+							null,
+							aggregate.getCount(),
+							aggregate.getJurisdictionUuid(),
+							aggregate.getJurisdictionName(),
+							series.getStack()));
+				}
+				continue;
 			}
 
-			whereBuilder.append(areaFilter).append(regionFilter).append(districtFilter).append(campaignFilter);
-
-			// GROUP BY
-			StringBuilder groupByBuilder = new StringBuilder(" GROUP BY ").append(CampaignFormMeta.TABLE_NAME)
-				.append(".")
-				.append(CampaignFormMeta.UUID)
-				.append(",")
-				.append(CampaignFormMeta.TABLE_NAME)
-				.append(".")
-				.append(CampaignFormMeta.FORM_ID);
-
-			if (series.getFieldId() != null) {
-				groupByBuilder.append(", jsonData->>'")
-					.append(CampaignFormDataEntry.ID)
-					.append("', jsonMeta->>'")
-					.append(CampaignFormElement.CAPTION)
-					.append("', jsonMeta->>'")
-					.append(CampaignFormElement.TYPE)
-					.append("'");
+			// values of non-numeric elements are aggregated per value, so they have to be summed up per form and jurisdiction
+			String referenceValue = CampaignDiagramMeasures.getReferenceValue(series);
+			Map<List<String>, CampaignDiagramAggregate> firstAggregates = new LinkedHashMap<>();
+			Map<List<String>, Long> sums = new HashMap<>();
+			for (CampaignDiagramAggregate aggregate : seriesAggregates) {
+				List<String> key = Arrays.asList(aggregate.getFormMetaUuid(), aggregate.getJurisdictionUuid());
+				firstAggregates.putIfAbsent(key, aggregate);
+				long value = aggregate.isNumeric()
+					? aggregate.getNumericSum()
+					: referenceValue.equals(aggregate.getValue()) ? aggregate.getCount() : 0;
+				sums.merge(key, value, Long::sum);
 			}
 
-			switch (campaignDiagramCriteria.getCampaignJurisdictionLevelGroupBy()) {
-			case REGION:
-				jurisdictionGrouping = ", " + Region.TABLE_NAME + "." + Region.UUID + ", " + Region.TABLE_NAME + "." + Region.NAME;
-				break;
-			case DISTRICT:
-				jurisdictionGrouping = ", " + District.TABLE_NAME + "." + District.UUID + ", " + District.TABLE_NAME + "." + District.NAME;
-				break;
-			case COMMUNITY:
-				jurisdictionGrouping = ", " + Community.TABLE_NAME + "." + Community.UUID + ", " + Community.TABLE_NAME + "." + Community.NAME;
-				break;
-			case AREA:
-			default:
-				jurisdictionGrouping = ", " + Area.TABLE_NAME + "." + Area.UUID + ", " + Area.TABLE_NAME + "." + Area.NAME;
+			for (Map.Entry<List<String>, CampaignDiagramAggregate> entry : firstAggregates.entrySet()) {
+				CampaignDiagramAggregate aggregate = entry.getValue();
+				resultData.add(
+					new CampaignDiagramDataDto(
+						aggregate.getFormMetaUuid(),
+						aggregate.getFormId(),
+						aggregate.getElementId(),
+						aggregate.getElementCaption(),
+						sums.get(entry.getKey()),
+						aggregate.getJurisdictionUuid(),
+						aggregate.getJurisdictionName(),
+						series.getStack()));
 			}
+		}
 
-			groupByBuilder.append(jurisdictionGrouping);
+		return resultData;
+	}
 
-			//@formatter:off
-			Query seriesDataQuery = em.createNativeQuery(
-					selectBuilder.toString() + " FROM " + CampaignFormData.TABLE_NAME + joinBuilder + whereBuilder + groupByBuilder);
-			//@formatter:on
+	private CampaignDiagramMeasures getDashboardMeasures(CampaignReferenceDto campaignReference) {
 
-			seriesDataQuery.setParameter("campaignFormMetaId", series.getFormId());
-			if (area != null) {
-				seriesDataQuery.setParameter("areaUuid", area.getUuid());
-			}
-			if (region != null) {
-				seriesDataQuery.setParameter("regionUuid", region.getUuid());
-			}
-			if (district != null) {
-				seriesDataQuery.setParameter("districtUuid", district.getUuid());
-			}
-			if (campaign != null) {
-				seriesDataQuery.setParameter("campaignUuid", campaign.getUuid());
-			}
+		CampaignDiagramMeasures measures = new CampaignDiagramMeasures();
+		Campaign campaign = campaignService.getByUuid(campaignReference.getUuid());
+		if (campaign == null || campaign.getDashboardElements() == null) {
+			return measures;
+		}
 
-			if (series.getFieldId() != null) {
-				seriesDataQuery.setParameter("campaignFormDataId", series.getFieldId());
+		Set<String> diagramIds = campaign.getDashboardElements().stream().map(CampaignDashboardElement::getDiagramId).collect(Collectors.toSet());
+		for (CampaignDiagramDefinition diagramDefinition : campaignDiagramDefinitionService.getAll()) {
+			if (diagramIds.contains(diagramDefinition.getDiagramId())) {
+				measures.addAll(CampaignDiagramMeasures.of(diagramDefinition.getCampaignDiagramSeries()));
+				measures.addAll(CampaignDiagramMeasures.of(diagramDefinition.getCampaignSeriesTotal()));
 			}
-
-			@SuppressWarnings("unchecked")
-			List<Object[]> resultList = seriesDataQuery.getResultList();
-
-			resultData.addAll(
-				resultList.stream()
-					.map(
-						(result) -> new CampaignDiagramDataDto(
-							(String) result[0],
-							(String) result[1],
-							(String) result[2],
-							(String) result[3],
-							(Number) result[4],
-							(String) result[5],
-							(String) result[6],
-							series.getStack()))
-					.collect(Collectors.toList()));
 		}
-
-		return resultData;
-	}
-
-	private void appendInfrastructureSelection(StringBuilder sb, String tableNameField, String nameField) {
-		sb.append(tableNameField).append(".").append(AbstractDomainObject.UUID).append(", ").append(tableNameField).append(".").append(nameField);
+		return measures;
 	}
 
 	@Override
@@ -20,12 +20,25 @@
 
 package de.symeda.sormas.backend.campaign.data;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
@@ -33,7 +46,13 @@ import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.hibernate.Session;
+
 import de.symeda.sormas.api.campaign.data.CampaignFormDataCriteria;
+import de.symeda.sormas.api.campaign.data.CampaignFormDataEntry;
+import de.symeda.sormas.api.campaign.diagram.CampaignDiagramCriteria;
+import de.symeda.sormas.api.campaign.form.CampaignFormElement;
+import de.symeda.sormas.api.campaign.form.CampaignFormElementType;
 import de.symeda.sormas.api.user.JurisdictionLevel;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.campaign.Campaign;
@@ -41,19 +60,371 @@ import de.symeda.sormas.backend.campaign.form.CampaignFormMeta;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.AdoServiceWithUserFilter;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
+import de.symeda.sormas.backend.region.Area;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.IterableHelper;
 
 @Stateless
 @LocalBean
 public class CampaignFormDataService extends AdoServiceWithUserFilter<CampaignFormData> {
 
+	private static final int VALUE_BATCH_SIZE = 500;
+
+	private static final String INSERT_VALUE = "INSERT INTO " + CampaignFormDataValue.TABLE_NAME
+		+ " (campaignformdata_id, campaign_id, campaignformmeta_id, region_id, district_id, community_id, elementid, textvalue, numericvalue)"
+		+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	@EJB
+	private CampaignDiagramDataCache campaignDiagramDataCache;
+
 	public CampaignFormDataService() {
 		super(CampaignFormData.class);
 	}
 
+	@Override
+	public void delete(CampaignFormData campaignFormData) {
+
+		deleteValues(Collections.singletonList(campaignFormData.getId()));
+		super.delete(campaignFormData);
+		campaignDiagramDataCache.invalidateAfterCompletion();
+	}
+
+	/**
+	 * Replaces the {@link CampaignFormDataValue}s of the form data with their current values.
+	 */
+	public void updateValues(Collection<CampaignFormData> campaignFormDatas) {
+
+		List<Long> campaignFormDataIds = new ArrayList<>();
+		List<CampaignFormDataValue> values = new ArrayList<>();
+		for (CampaignFormData campaignFormData : campaignFormDatas) {
+			campaignFormDataIds.add(campaignFormData.getId());
+			values.addAll(buildValues(campaignFormData));
+		}
+
+		deleteValues(campaignFormDataIds);
+
+		em.unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(INSERT_VALUE)) {
+				for (CampaignFormDataValue value : values) {
+					statement.setLong(1, value.getCampaignFormDataId());
+					setLongOrNull(statement, 2, value.getCampaignId());
+					setLongOrNull(statement, 3, value.getCampaignFormMetaId());
+					setLongOrNull(statement, 4, value.getRegionId());
+					setLongOrNull(statement, 5, value.getDistrictId());
+					setLongOrNull(statement, 6, value.getCommunityId());
+					statement.setString(7, value.getElementId());
+					statement.setString(8, value.getTextValue());
+					if (value.getNumericValue() != null) {
+						statement.setInt(9, value.getNumericValue());
+					} else {
+						statement.setNull(9, Types.INTEGER);
+					}
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		});
+
+		campaignDiagramDataCache.invalidateAfterCompletion();
+	}
+
+	/**
+	 * Rebuilds the {@link CampaignFormDataValue}s of all data of the form, because the types of its elements may have changed.
+	 */
+	public void updateValuesOfForm(CampaignFormMeta campaignFormMeta) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<CampaignFormData> root = cq.from(CampaignFormData.class);
+		cq.select(root.get(CampaignFormData.ID));
+		cq.where(cb.equal(root.get(CampaignFormData.CAMPAIGN_FORM_META), campaignFormMeta));
+
+		IterableHelper.executeBatched(em.createQuery(cq).getResultList(), VALUE_BATCH_SIZE, ids -> updateValues(getByIds(ids)));
+	}
+
+	private void deleteValues(List<Long> campaignFormDataIds) {
+
+		if (campaignFormDataIds.isEmpty()) {
+			return;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<CampaignFormDataValue> cd = cb.createCriteriaDelete(CampaignFormDataValue.class);
+		Root<CampaignFormDataValue> value = cd.from(CampaignFormDataValue.class);
+		cd.where(value.get(CampaignFormDataValue.CAMPAIGN_FORM_DATA_ID).in(campaignFormDataIds));
+		em.createQuery(cd).executeUpdate();
+	}
+
+	private static void setLongOrNull(PreparedStatement statement, int index, Long value) throws SQLException {
+
+		if (value != null) {
+			statement.setLong(index, value);
+		} else {
+			statement.setNull(index, Types.BIGINT);
+		}
+	}
+
+	/**
+	 * Builds one value per form value that is not {@code null} and belongs to an element of the form. Values of
+	 * {@link CampaignFormElementType#NUMBER} elements are converted like {@code cast_to_int(value, 0)}.
+	 */
+	static List<CampaignFormDataValue> buildValues(CampaignFormData campaignFormData) {
+
+		List<CampaignFormDataValue> values = new ArrayList<>();
+		CampaignFormMeta campaignFormMeta = campaignFormData.getCampaignFormMeta();
+		if (campaignFormMeta == null || campaignFormData.getFormValues() == null) {
+			return values;
+		}
+
+		Map<String, CampaignFormElement> elements = getElementsById(campaignFormMeta);
+		for (CampaignFormDataEntry entry : campaignFormData.getFormValues()) {
+			CampaignFormElement element = elements.get(entry.getId());
+			if (element == null || entry.getValue() == null) {
+				continue;
+			}
+
+			CampaignFormDataValue value = new CampaignFormDataValue();
+			value.setCampaignFormDataId(campaignFormData.getId());
+			value.setCampaignId(getId(campaignFormData.getCampaign()));
+			value.setCampaignFormMetaId(campaignFormMeta.getId());
+			value.setRegionId(getId(campaignFormData.getRegion()));
+			value.setDistrictId(getId(campaignFormData.getDistrict()));
+			value.setCommunityId(getId(campaignFormData.getCommunity()));
+			value.setElementId(entry.getId());
+			String text = String.valueOf(entry.getValue());
+			if (isNumeric(element)) {
+				value.setNumericValue(toInt(text));
+			} else {
+				value.setTextValue(text);
+			}
+			values.add(value);
+		}
+
+		return values;
+	}
+
+	private static Map<String, CampaignFormElement> getElementsById(CampaignFormMeta campaignFormMeta) {
+
+		Map<String, CampaignFormElement> elements = new HashMap<>();
+		for (CampaignFormElement element : campaignFormMeta.getCampaignFormElementsList()) {
+			elements.putIfAbsent(element.getId(), element);
+		}
+		return elements;
+	}
+
+	private static boolean isNumeric(CampaignFormElement element) {
+		return CampaignFormElementType.NUMBER.toString().equals(element.getType());
+	}
+
+	private static int toInt(String text) {
+
+		try {
+			return Integer.parseInt(text.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static Long getId(AbstractDomainObject ado) {
+		return ado != null ? ado.getId() : null;
+	}
+
+	/**
+	 * Aggregates the form data needed for the measures in one query: the values of the elements from
+	 * {@link CampaignFormDataValue}, and the number of submissions of the forms from {@link CampaignFormData}, grouped by form and
+	 * the jurisdiction level of the criteria.
+	 */
+	public List<CampaignDiagramAggregate> getDiagramAggregates(CampaignDiagramCriteria criteria, CampaignDiagramMeasures measures) {
+
+		final String jurisdictionTable;
+		final String jurisdictionName;
+		switch (criteria.getCampaignJurisdictionLevelGroupBy()) {
+		case REGION:
+			jurisdictionTable = Region.TABLE_NAME;
+			jurisdictionName = Region.NAME;
+			break;
+		case DISTRICT:
+			jurisdictionTable = District.TABLE_NAME;
+			jurisdictionName = District.NAME;
+			break;
+		case COMMUNITY:
+			jurisdictionTable = Community.TABLE_NAME;
+			jurisdictionName = Community.NAME;
+			break;
+		case AREA:
+		default:
+			jurisdictionTable = Area.TABLE_NAME;
+			jurisdictionName = Area.NAME;
+		}
+		final String jurisdictionSelection =
+			jurisdictionTable + "." + AbstractDomainObject.UUID + ", " + jurisdictionTable + "." + jurisdictionName;
+
+		List<String> selects = new ArrayList<>();
+		if (!measures.getElementFormIds().isEmpty()) {
+			selects.add(
+				"SELECT " + CampaignFormMeta.TABLE_NAME + "." + CampaignFormMeta.UUID + ", " + CampaignFormMeta.TABLE_NAME + "."
+					+ CampaignFormMeta.FORM_ID + ", t.elementid, CASE WHEN t.textvalue IN (:referenceValues) THEN t.textvalue END,"
+					+ " COALESCE(sum(t.numericvalue), 0), count(*), " + jurisdictionSelection
+					+ buildDiagramFromAndWhere(CampaignFormDataValue.TABLE_NAME, criteria)
+					+ " AND " + CampaignFormMeta.TABLE_NAME + "." + CampaignFormMeta.FORM_ID + " IN (:elementFormIds)"
+					+ " AND t.elementid IN (:elementIds) GROUP BY 1, 2, 3, 4, 7, 8");
+		}
+		if (!measures.getCountedFormIds().isEmpty()) {
+			selects.add(
+				"SELECT " + CampaignFormMeta.TABLE_NAME + "." + CampaignFormMeta.UUID + ", " + CampaignFormMeta.TABLE_NAME + "."
+					+ CampaignFormMeta.FORM_ID + ", NULL, NULL, 0, count(*), " + jurisdictionSelection
+					+ buildDiagramFromAndWhere(CampaignFormData.TABLE_NAME, criteria)
+					+ " AND " + CampaignFormMeta.TABLE_NAME + "." + CampaignFormMeta.FORM_ID + " IN (:countedFormIds)"
+					+ " GROUP BY 1, 2, 7, 8");
+		}
+		if (selects.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		Query query = em.createNativeQuery(String.join(" UNION ALL ", selects));
+		if (!measures.getElementFormIds().isEmpty()) {
+			query.setParameter("referenceValues", measures.getReferenceValues());
+			query.setParameter("elementFormIds", measures.getElementFormIds());
+			query.setParameter("elementIds", measures.getElementIds());
+		}
+		if (!measures.getCountedFormIds().isEmpty()) {
+			query.setParameter("countedFormIds", measures.getCountedFormIds());
+		}
+		if (criteria.getArea() != null) {
+			query.setParameter("areaUuid", criteria.getArea().getUuid());
+		}
+		if (criteria.getRegion() != null) {
+			query.setParameter("regionUuid", criteria.getRegion().getUuid());
+		}
+		if (criteria.getDistrict() != null) {
+			query.setParameter("districtUuid", criteria.getDistrict().getUuid());
+		}
+		if (criteria.getCampaign() != null) {
+			query.setParameter("campaignUuid", criteria.getCampaign().getUuid());
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> resultList = query.getResultList();
+
+		Set<String> formMetaUuids = new HashSet<>();
+		for (Object[] result : resultList) {
+			if (result[2] != null) {
+				formMetaUuids.add((String) result[0]);
+			}
+		}
+		Map<String, Map<String, CampaignFormElement>> elementsByFormMeta = new HashMap<>();
+		if (!formMetaUuids.isEmpty()) {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<CampaignFormMeta> cq = cb.createQuery(CampaignFormMeta.class);
+			Root<CampaignFormMeta> campaignFormMeta = cq.from(CampaignFormMeta.class);
+			cq.where(campaignFormMeta.get(CampaignFormMeta.UUID).in(formMetaUuids));
+			for (CampaignFormMeta meta : em.createQuery(cq).getResultList()) {
+				elementsByFormMeta.put(meta.getUuid(), getElementsById(meta));
+			}
+		}
+
+		List<CampaignDiagramAggregate> aggregates = new ArrayList<>(resultList.size());
+		for (Object[] result : resultList) {
+			String formMetaUuid = (String) result[0];
+			String elementId = (String) result[2];
+			CampaignFormElement element =
+				elementId != null ? elementsByFormMeta.getOrDefault(formMetaUuid, Collections.emptyMap()).get(elementId) : null;
+			if (elementId != null && element == null) {
+				// the element has been removed from the form
+				continue;
+			}
+
+			aggregates.add(
+				new CampaignDiagramAggregate(
+					formMetaUuid,
+					(String) result[1],
+					elementId,
+					element != null ? element.getCaption() : null,
+					element != null && isNumeric(element),
+					(String) result[3],
+					((Number) result[4]).longValue(),
+					((Number) result[5]).longValue(),
+					(String) result[6],
+					(String) result[7]));
+		}
+
+		return aggregates;
+	}
+
+	private static String buildDiagramFromAndWhere(String tableName, CampaignDiagramCriteria criteria) {
+
+		StringBuilder sb = new StringBuilder(" FROM ").append(tableName)
+			.append(" t LEFT JOIN ")
+			.append(CampaignFormMeta.TABLE_NAME)
+			.append(" ON t.")
+			.append(CampaignFormData.CAMPAIGN_FORM_META)
+			.append("_id = ")
+			.append(CampaignFormMeta.TABLE_NAME)
+			.append(".")
+			.append(CampaignFormMeta.ID)
+			.append(" LEFT JOIN ")
+			.append(Region.TABLE_NAME)
+			.append(" ON t.")
+			.append(CampaignFormData.REGION)
+			.append("_id = ")
+			.append(Region.TABLE_NAME)
+			.append(".")
+			.append(Region.ID)
+			.append(" LEFT JOIN ")
+			.append(Area.TABLE_NAME)
+			.append(" ON ")
+			.append(Region.TABLE_NAME)
+			.append(".")
+			.append(Region.AREA)
+			.append("_id = ")
+			.append(Area.TABLE_NAME)
+			.append(".")
+			.append(Area.ID)
+			.append(" LEFT JOIN ")
+			.append(District.TABLE_NAME)
+			.append(" ON t.")
+			.append(CampaignFormData.DISTRICT)
+			.append("_id = ")
+			.append(District.TABLE_NAME)
+			.append(".")
+			.append(District.ID)
+			.append(" LEFT JOIN ")
+			.append(Community.TABLE_NAME)
+			.append(" ON t.")
+			.append(CampaignFormData.COMMUNITY)
+			.append("_id = ")
+			.append(Community.TABLE_NAME)
+			.append(".")
+			.append(Community.ID)
+			.append(" LEFT JOIN ")
+			.append(Campaign.TABLE_NAME)
+			.append(" ON t.")
+			.append(CampaignFormData.CAMPAIGN)
+			.append("_id = ")
+			.append(Campaign.TABLE_NAME)
+			.append(".")
+			.append(Campaign.ID)
+			.append(" WHERE 1 = 1");
+
+		if (criteria.getArea() != null) {
+			sb.append(" AND ").append(Area.TABLE_NAME).append(".").append(Area.UUID).append(" = :areaUuid");
+		}
+		if (criteria.getRegion() != null) {
+			sb.append(" AND ").append(Region.TABLE_NAME).append(".").append(Region.UUID).append(" = :regionUuid");
+		}
+		if (criteria.getDistrict() != null) {
+			sb.append(" AND ").append(District.TABLE_NAME).append(".").append(District.UUID).append(" = :districtUuid");
+		}
+		if (criteria.getCampaign() != null) {
+			sb.append(" AND ").append(Campaign.TABLE_NAME).append(".").append(Campaign.UUID).append(" = :campaignUuid");
+		}
+
+		return sb.toString();
+	}
+
 	public Predicate createCriteriaFilter(CampaignFormDataCriteria criteria, CriteriaBuilder cb, Root<CampaignFormData> root) {
 		Join<CampaignFormData, Campaign> campaignJoin = root.join(CampaignFormData.CAMPAIGN, JoinType.LEFT);
 		Join<CampaignFormData, CampaignFormMeta> campaignFormJoin = root.join(CampaignFormData.CAMPAIGN_FORM_META, JoinType.LEFT);
@@ -0,0 +1,160 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.campaign.data;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+import de.symeda.sormas.api.campaign.form.CampaignFormElementType;
+
+/**
+ * One value of a {@link CampaignFormData}, typed by the element of the form and denormalized with the campaign and
+ * jurisdiction of the form data, so the campaign diagrams can be aggregated without unnesting the JSON form values.
+ * Entries are maintained by {@link CampaignFormDataService#updateValues} and inserted with plain SQL batches.
+ */
+@Entity(name = CampaignFormDataValue.TABLE_NAME)
+public class CampaignFormDataValue implements Serializable {
+
+	private static final long serialVersionUID = -2391065818257346022L;
+
+	public static final String TABLE_NAME = "campaignformdatavalue";
+
+	public static final String ID = "id";
+	public static final String CAMPAIGN_FORM_DATA_ID = "campaignFormDataId";
+	public static final String CAMPAIGN_ID = "campaignId";
+	public static final String CAMPAIGN_FORM_META_ID = "campaignFormMetaId";
+	public static final String REGION_ID = "regionId";
+	public static final String DISTRICT_ID = "districtId";
+	public static final String COMMUNITY_ID = "communityId";
+	public static final String ELEMENT_ID = "elementId";
+	public static final String TEXT_VALUE = "textValue";
+	public static final String NUMERIC_VALUE = "numericValue";
+
+	private Long id;
+	private Long campaignFormDataId;
+	private Long campaignId;
+	private Long campaignFormMetaId;
+	private Long regionId;
+	private Long districtId;
+	private Long communityId;
+	private String elementId;
+	private String textValue;
+	private Integer numericValue;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Column(name = "campaignformdata_id", nullable = false)
+	public Long getCampaignFormDataId() {
+		return campaignFormDataId;
+	}
+
+	public void setCampaignFormDataId(Long campaignFormDataId) {
+		this.campaignFormDataId = campaignFormDataId;
+	}
+
+	@Column(name = "campaign_id")
+	public Long getCampaignId() {
+		return campaignId;
+	}
+
+	public void setCampaignId(Long campaignId) {
+		this.campaignId = campaignId;
+	}
+
+	@Column(name = "campaignformmeta_id")
+	public Long getCampaignFormMetaId() {
+		return campaignFormMetaId;
+	}
+
+	public void setCampaignFormMetaId(Long campaignFormMetaId) {
+		this.campaignFormMetaId = campaignFormMetaId;
+	}
+
+	@Column(name = "region_id")
+	public Long getRegionId() {
+		return regionId;
+	}
+
+	public void setRegionId(Long regionId) {
+		this.regionId = regionId;
+	}
+
+	@Column(name = "district_id")
+	public Long getDistrictId() {
+		return districtId;
+	}
+
+	public void setDistrictId(Long districtId) {
+		this.districtId = districtId;
+	}
+
+	@Column(name = "community_id")
+	public Long getCommunityId() {
+		return communityId;
+	}
+
+	public void setCommunityId(Long communityId) {
+		this.communityId = communityId;
+	}
+
+	@Column(nullable = false)
+	public String getElementId() {
+		return elementId;
+	}
+
+	public void setElementId(String elementId) {
+		this.elementId = elementId;
+	}
+
+	/**
+	 * The value as text, like {@code ->>} returns it from the JSON form values; {@code null} for
+	 * {@link CampaignFormElementType#NUMBER} elements.
+	 */
+	@Column(columnDefinition = "text")
+	public String getTextValue() {
+		return textValue;
+	}
+
+	public void setTextValue(String textValue) {
+		this.textValue = textValue;
+	}
+
+	/**
+	 * The value as integer, or 0 if it is not an integer, for {@link CampaignFormElementType#NUMBER} elements; {@code null}
+	 * for all other elements.
+	 */
+	public Integer getNumericValue() {
+		return numericValue;
+	}
+
+	public void setNumericValue(Integer numericValue) {
+		this.numericValue = numericValue;
+	}
+}
@@ -34,6 +34,7 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.utils.HtmlHelper;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
+import de.symeda.sormas.backend.campaign.data.CampaignFormDataService;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -48,6 +49,8 @@ public class CampaignFormMetaFacadeEjb implements CampaignFormMetaFacade {
 	private CampaignFormMetaService service;
 	@EJB
 	private UserService userService;
+	@EJB
+	private CampaignFormDataService campaignFormDataService;
 
 	public CampaignFormMeta fromDto(@NotNull CampaignFormMetaDto source, boolean checkChangeDate) {
 		CampaignFormMeta target = DtoHelper.fillOrBuildEntity(source, service.getByUuid(source.getUuid()), CampaignFormMeta::new, checkChangeDate);
@@ -83,7 +86,11 @@ public class CampaignFormMetaFacadeEjb implements CampaignFormMetaFacade {
 		validateAndClean(campaignFormMetaDto);
 
 		CampaignFormMeta campaignFormMeta = fromDto(campaignFormMetaDto, true);
+		boolean existing = campaignFormMeta.getId() != null;
 		service.ensurePersisted(campaignFormMeta);
+		if (existing) {
+			campaignFormDataService.updateValuesOfForm(campaignFormMeta);
+		}
 		return toDto(campaignFormMeta);
 	}
 
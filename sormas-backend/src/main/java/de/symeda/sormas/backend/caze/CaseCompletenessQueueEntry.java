@@ -0,0 +1,76 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Case whose completeness has to be updated by {@link CaseCompletenessWorker}. Entries are inserted by
+ * {@link CaseCompletenessService} with plain SQL inserts, so the same case can be queued several times.
+ */
+@Entity(name = CaseCompletenessQueueEntry.TABLE_NAME)
+public class CaseCompletenessQueueEntry implements Serializable {
+
+	private static final long serialVersionUID = -2716478120418911337L;
+
+	public static final String TABLE_NAME = "casecompletenessqueue";
+
+	public static final String ID = "id";
+	public static final String CAZE_ID = "cazeId";
+	public static final String ENQUEUED_DATE = "enqueuedDate";
+
+	private Long id;
+	private Long cazeId;
+	private Date enqueuedDate;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Column(name = "caze_id", nullable = false)
+	public Long getCazeId() {
+		return cazeId;
+	}
+
+	public void setCazeId(Long cazeId) {
+		this.cazeId = cazeId;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	public Date getEnqueuedDate() {
+		return enqueuedDate;
+	}
+
+	public void setEnqueuedDate(Date enqueuedDate) {
+		this.enqueuedDate = enqueuedDate;
+	}
+}
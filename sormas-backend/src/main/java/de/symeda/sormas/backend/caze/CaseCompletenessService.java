@@ -0,0 +1,209 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.backend.contact.Contact;
+import de.symeda.sormas.backend.contact.ContactService;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.sample.Sample;
+import de.symeda.sormas.backend.sample.SampleService;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Queues cases whose completeness has to be updated and updates the completeness of the queued cases in batches.
+ * <p>
+ * Saves don't update the queue entries of a case but always insert a new one, so a save never waits for the update of the
+ * completeness. An entry that is committed while its case is updated stays in the queue and the case is updated again.
+ */
+@Stateless
+@LocalBean
+public class CaseCompletenessService {
+
+	private static final String INSERT_QUEUE_ENTRIES =
+		"INSERT INTO " + CaseCompletenessQueueEntry.TABLE_NAME + " (caze_id, enqueueddate) SELECT id, now() FROM " + Case.TABLE_NAME;
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@EJB
+	private SampleService sampleService;
+	@EJB
+	private ContactService contactService;
+
+	public void enqueue(Case caze) {
+
+		if (caze == null || caze.getId() == null) {
+			return;
+		}
+
+		em.createNativeQuery(INSERT_QUEUE_ENTRIES + " WHERE id = :cazeId").setParameter("cazeId", caze.getId()).executeUpdate();
+	}
+
+	public void enqueueCasesOfPerson(Person person) {
+
+		em.createNativeQuery(INSERT_QUEUE_ENTRIES + " WHERE person_id = :personId AND deleted = false")
+			.setParameter("personId", person.getId())
+			.executeUpdate();
+	}
+
+	/**
+	 * Queues cases without completeness that have been changed without being queued, e.g. by a database migration.
+	 * 
+	 * @return The number of queued cases
+	 */
+	public int enqueueCasesWithoutCompleteness(int maxResults) {
+
+		return em
+			.createNativeQuery(
+				INSERT_QUEUE_ENTRIES + " c WHERE c.completeness IS NULL AND NOT EXISTS (SELECT 1 FROM " + CaseCompletenessQueueEntry.TABLE_NAME
+					+ " q WHERE q.caze_id = c.id) LIMIT :maxResults")
+			.setParameter("maxResults", maxResults)
+			.executeUpdate();
+	}
+
+	public long countQueueEntries() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		cq.select(cb.count(cq.from(CaseCompletenessQueueEntry.class)));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	/**
+	 * Updates the completeness of the cases queued first with one query to load the cases and one update per distinct completeness
+	 * value.
+	 * 
+	 * @return The number of updated cases, 0 if the queue is empty
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public int updateQueuedCases(int maxResults) {
+
+		List<Long> cazeIds = getQueuedCaseIds(maxResults);
+		if (cazeIds.isEmpty()) {
+			return 0;
+		}
+
+		// Remove the entries before the cases are loaded: Entries committed later belong to changes that might not be loaded
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<CaseCompletenessQueueEntry> cd = cb.createCriteriaDelete(CaseCompletenessQueueEntry.class);
+		Root<CaseCompletenessQueueEntry> entry = cd.from(CaseCompletenessQueueEntry.class);
+		cd.where(entry.get(CaseCompletenessQueueEntry.CAZE_ID).in(cazeIds));
+		em.createQuery(cd).executeUpdate();
+
+		Map<Float, List<Long>> casesByCompleteness = new HashMap<>();
+		for (Object[] caseData : getCompletenessData(cazeIds)) {
+			float completeness = CaseService.calculateCompleteness(
+				(InvestigationStatus) caseData[1],
+				(CaseClassification) caseData[2],
+				(Boolean) caseData[3],
+				(Boolean) caseData[4],
+				(Boolean) caseData[5],
+				(CaseOutcome) caseData[6],
+				(Integer) caseData[7],
+				(Integer) caseData[8],
+				(Sex) caseData[9],
+				(Date) caseData[10]);
+			casesByCompleteness.computeIfAbsent(completeness, c -> new ArrayList<>()).add((Long) caseData[0]);
+		}
+
+		/*
+		 * Set the calculated value without updating the changeDate, see CaseService.updateCompleteness(Case)
+		 */
+		for (Map.Entry<Float, List<Long>> completeness : casesByCompleteness.entrySet()) {
+			CriteriaUpdate<Case> cu = cb.createCriteriaUpdate(Case.class);
+			Root<Case> root = cu.from(Case.class);
+			cu.set(root.get(Case.COMPLETENESS), completeness.getKey());
+			cu.where(root.get(Case.ID).in(completeness.getValue()));
+			em.createQuery(cu).executeUpdate();
+		}
+
+		return cazeIds.size();
+	}
+
+	private List<Long> getQueuedCaseIds(int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<CaseCompletenessQueueEntry> entry = cq.from(CaseCompletenessQueueEntry.class);
+		cq.select(entry.get(CaseCompletenessQueueEntry.CAZE_ID));
+		cq.groupBy(entry.get(CaseCompletenessQueueEntry.CAZE_ID));
+		cq.orderBy(cb.asc(cb.min(entry.get(CaseCompletenessQueueEntry.ID))));
+
+		return em.createQuery(cq).setMaxResults(maxResults).getResultList();
+	}
+
+	private List<Object[]> getCompletenessData(List<Long> cazeIds) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		Join<Case, Person> person = caze.join(Case.PERSON, JoinType.LEFT);
+		Join<Case, Symptoms> symptoms = caze.join(Case.SYMPTOMS, JoinType.LEFT);
+
+		Subquery<Long> sampleSubquery = cq.subquery(Long.class);
+		Root<Sample> sample = sampleSubquery.from(Sample.class);
+		sampleSubquery.select(sample.get(Sample.ID))
+			.where(sampleService.createDefaultFilter(cb, sample), cb.equal(sample.get(Sample.ASSOCIATED_CASE), caze));
+
+		Subquery<Long> contactSubquery = cq.subquery(Long.class);
+		Root<Contact> contact = contactSubquery.from(Contact.class);
+		contactSubquery.select(contact.get(Contact.ID))
+			.where(contactService.createDefaultFilter(cb, contact), cb.equal(contact.get(Contact.CAZE), caze));
+
+		cq.multiselect(
+			caze.get(Case.ID),
+			caze.get(Case.INVESTIGATION_STATUS),
+			caze.get(Case.CASE_CLASSIFICATION),
+			cb.selectCase().when(cb.exists(sampleSubquery), true).otherwise(false),
+			symptoms.get(Symptoms.SYMPTOMATIC),
+			cb.selectCase().when(cb.exists(contactSubquery), true).otherwise(false),
+			caze.get(Case.OUTCOME),
+			person.get(Person.BIRTHDATE_YYYY),
+			person.get(Person.APPROXIMATE_AGE),
+			person.get(Person.SEX),
+			symptoms.get(Symptoms.ONSET_DATE));
+		cq.where(caze.get(Case.ID).in(cazeIds));
+
+		return em.createQuery(cq).getResultList();
+	}
+}
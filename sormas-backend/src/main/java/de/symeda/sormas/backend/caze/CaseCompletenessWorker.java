@@ -0,0 +1,134 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.backend.util.MBeanHelper;
+
+/**
+ * Updates the completeness of the cases queued by {@link CaseCompletenessService}.
+ * <ul>
+ * <li>Only one run at a time is executed on a node; runs started while another one is still running are skipped.</li>
+ * <li>Every batch of {@link #BATCH_SIZE} cases is updated in its own transaction.</li>
+ * <li>A run stops after {@link #MAX_RUN_SECONDS}, the remaining cases are updated by the next run.</li>
+ * </ul>
+ * The size of the queue and the number of updated cases are exposed as JMX attributes of {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class CaseCompletenessWorker implements CaseCompletenessWorkerMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=CaseCompletenessWorker";
+
+	public static final int BATCH_SIZE = 500;
+	public static final int MAX_RUN_SECONDS = 90;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@EJB
+	private CaseCompletenessService caseCompletenessService;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final LongAdder updatedCases = new LongAdder();
+	private final LongAdder skippedRuns = new LongAdder();
+
+	private volatile long backlogSize;
+	private volatile long lastRunDurationMillis;
+
+	@PostConstruct
+	public void registerMBean() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "case completeness metrics");
+	}
+
+	@PreDestroy
+	public void unregisterMBean() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "case completeness metrics");
+	}
+
+	/**
+	 * @return The number of updated cases, 0 if another run is still in progress
+	 */
+	public int updateQueuedCases() {
+
+		if (!running.compareAndSet(false, true)) {
+			skippedRuns.increment();
+			logger.debug("Case completeness update skipped, the previous run is still in progress");
+			return 0;
+		}
+
+		try {
+			long start = System.currentTimeMillis();
+			long end = start + TimeUnit.SECONDS.toMillis(MAX_RUN_SECONDS);
+
+			caseCompletenessService.enqueueCasesWithoutCompleteness(BATCH_SIZE);
+
+			int updated = 0;
+			int batchUpdated;
+			do {
+				batchUpdated = caseCompletenessService.updateQueuedCases(BATCH_SIZE);
+				updated += batchUpdated;
+			} while (batchUpdated > 0 && System.currentTimeMillis() < end);
+
+			updatedCases.add(updated);
+			backlogSize = caseCompletenessService.countQueueEntries();
+			lastRunDurationMillis = System.currentTimeMillis() - start;
+			return updated;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	@Override
+	public long getBacklogSize() {
+		return backlogSize;
+	}
+
+	@Override
+	public long getUpdatedCases() {
+		return updatedCases.sum();
+	}
+
+	@Override
+	public long getSkippedRuns() {
+		return skippedRuns.sum();
+	}
+
+	@Override
+	public long getLastRunDurationMillis() {
+		return lastRunDurationMillis;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.caze;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * Blocking key of a case for the detection of duplicate cases by {@link CaseDuplicateService}: Cases are only compared if
+ * they share a blocking key and their report weeks are close. Entries are inserted with plain SQL batches.
+ */
+@Entity(name = CaseDuplicateKey.TABLE_NAME)
+public class CaseDuplicateKey implements Serializable {
+
+	private static final long serialVersionUID = 3829174502286459137L;
+
+	public static final String TABLE_NAME = "caseduplicatekey";
+
+	public static final String ID = "id";
+	public static final String CAZE_ID = "cazeId";
+	public static final String BLOCKING_KEY = "blockingKey";
+	public static final String REPORT_WEEK = "reportWeek";
+	public static final String NAME_SIMILARITY_THRESHOLD = "nameSimilarityThreshold";
+
+	private Long id;
+	private Long cazeId;
+	private String blockingKey;
+	private int reportWeek;
+	private double nameSimilarityThreshold;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Column(name = "caze_id", nullable = false)
+	public Long getCazeId() {
+		return cazeId;
+	}
+
+	public void setCazeId(Long cazeId) {
+		this.cazeId = cazeId;
+	}
+
+	/**
+	 * Disease and one of the blocking trigrams of the person name; {@code null} for cases without a name, which are not compared.
+	 */
+	@Column(length = 64)
+	public String getBlockingKey() {
+		return blockingKey;
+	}
+
+	public void setBlockingKey(String blockingKey) {
+		this.blockingKey = blockingKey;
+	}
+
+	/**
+	 * Weeks since 1970-01-01 of the report date.
+	 */
+	@Column(nullable = false)
+	public int getReportWeek() {
+		return reportWeek;
+	}
+
+	public void setReportWeek(int reportWeek) {
+		this.reportWeek = reportWeek;
+	}
+
+	/**
+	 * The name similarity threshold the blocking trigrams have been selected for. Keys of another threshold are recreated.
+	 */
+	@Column(nullable = false)
+	public double getNameSimilarityThreshold() {
+		return nameSimilarityThreshold;
+	}
+
+	public void setNameSimilarityThreshold(double nameSimilarityThreshold) {
+		this.nameSimilarityThreshold = nameSimilarityThreshold;
+	}
+}
@@ -0,0 +1,420 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.caze;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.hibernate.Session;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.utils.TrigramSimilarity;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.util.IterableHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Detects probable duplicate cases without comparing every pair of cases in the database:
+ * <ul>
+ * <li>The blocking keys of a case ({@link CaseDuplicateKey}) are the disease combined with the blocking trigrams of the person
+ * name (see {@link TrigramSimilarity#getBlockingTrigrams(Set, double)}). They are updated when a case or the name of its person
+ * is saved and created by {@link #indexCasesWithoutKeys(int)} for cases that have not been indexed yet, which is scheduled by the
+ * {@code CronService}.</li>
+ * <li>Only cases that share a blocking key and have report weeks within {@link #REPORT_WEEK_WINDOW} are loaded and compared with
+ * the similarity criteria of the former pg_trgm query in {@link #isDuplicate}.</li>
+ * </ul>
+ * The blocking trigrams depend on the name similarity threshold, so keys that have been created for another threshold count as
+ * missing. Cases are only found as duplicates once their keys have been created.
+ */
+@Stateless
+@LocalBean
+public class CaseDuplicateService {
+
+	public static final int INDEX_BATCH_SIZE = 500;
+
+	/**
+	 * Number of cases whose duplicate candidates are loaded with one query.
+	 */
+	private static final int PAGE_SIZE = 1000;
+
+	/**
+	 * Report dates that are at most 30 days apart are at most 5 weeks apart.
+	 */
+	private static final int REPORT_WEEK_WINDOW = 5;
+
+	private static final long MILLIS_30_DAYS = TimeUnit.DAYS.toMillis(30L);
+	private static final long MILLIS_PER_WEEK = TimeUnit.DAYS.toMillis(7L);
+
+	private static final String INSERT_KEY =
+		"INSERT INTO " + CaseDuplicateKey.TABLE_NAME + " (caze_id, blockingkey, reportweek, namesimilaritythreshold) VALUES (?, ?, ?, ?)";
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+	@EJB
+	private CaseService caseService;
+
+	public void updateKeys(Case caze) {
+
+		if (caze != null && caze.getId() != null) {
+			updateKeys(Collections.singletonList(caze.getId()));
+		}
+	}
+
+	public void updateKeysOfPerson(Person person) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Case> caze = cq.from(Case.class);
+		cq.select(caze.get(Case.ID));
+		cq.where(cb.equal(caze.get(Case.PERSON), person), caseService.createDefaultFilter(cb, caze));
+
+		IterableHelper.executeBatched(em.createQuery(cq).getResultList(), INDEX_BATCH_SIZE, this::updateKeys);
+	}
+
+	/**
+	 * Creates the blocking keys of cases that have been created without them, e.g. before the keys were introduced, or whose keys
+	 * have been created for another name similarity threshold.
+	 * 
+	 * @return The number of indexed cases
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public int indexCasesWithoutKeys(int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Case> caze = cq.from(Case.class);
+
+		Subquery<Long> keySubquery = cq.subquery(Long.class);
+		Root<CaseDuplicateKey> key = keySubquery.from(CaseDuplicateKey.class);
+		keySubquery.select(key.get(CaseDuplicateKey.ID))
+			.where(
+				cb.equal(key.get(CaseDuplicateKey.CAZE_ID), caze.get(Case.ID)),
+				cb.equal(key.get(CaseDuplicateKey.NAME_SIMILARITY_THRESHOLD), configFacade.getNameSimilarityThreshold()));
+
+		cq.select(caze.get(Case.ID));
+		cq.where(caseService.createDefaultFilter(cb, caze), cb.not(cb.exists(keySubquery)));
+		cq.orderBy(cb.asc(caze.get(Case.ID)));
+
+		List<Long> cazeIds = em.createQuery(cq).setMaxResults(maxResults).getResultList();
+		updateKeys(cazeIds);
+		return cazeIds.size();
+	}
+
+	private void updateKeys(List<Long> cazeIds) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<CaseDuplicateKey> cd = cb.createCriteriaDelete(CaseDuplicateKey.class);
+		Root<CaseDuplicateKey> key = cd.from(CaseDuplicateKey.class);
+		cd.where(key.get(CaseDuplicateKey.CAZE_ID).in(cazeIds));
+		em.createQuery(cd).executeUpdate();
+
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		Join<Case, Person> person = caze.join(Case.PERSON, JoinType.LEFT);
+		cq.multiselect(caze.get(Case.ID), caze.get(Case.DISEASE), caze.get(Case.REPORT_DATE), person.get(Person.FIRST_NAME), person.get(Person.LAST_NAME));
+		cq.where(caze.get(Case.ID).in(cazeIds));
+
+		double threshold = configFacade.getNameSimilarityThreshold();
+		List<CaseDuplicateKey> keys = new ArrayList<>();
+		for (Object[] keyData : em.createQuery(cq).getResultList()) {
+			Date reportDate = (Date) keyData[2];
+			int reportWeek = reportDate != null ? (int) Math.floorDiv(reportDate.getTime(), MILLIS_PER_WEEK) : 0;
+			Set<String> trigrams = TrigramSimilarity.getTrigrams(getName((String) keyData[3], (String) keyData[4]));
+
+			List<String> blockingTrigrams = TrigramSimilarity.getBlockingTrigrams(trigrams, threshold);
+			if (blockingTrigrams.isEmpty()) {
+				// keeps the case from being indexed again
+				keys.add(buildKey((Long) keyData[0], null, reportWeek, threshold));
+			}
+			for (String blockingTrigram : blockingTrigrams) {
+				keys.add(buildKey((Long) keyData[0], keyData[1] + ":" + blockingTrigram, reportWeek, threshold));
+			}
+		}
+
+		em.unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(INSERT_KEY)) {
+				for (CaseDuplicateKey caseDuplicateKey : keys) {
+					statement.setLong(1, caseDuplicateKey.getCazeId());
+					statement.setString(2, caseDuplicateKey.getBlockingKey());
+					statement.setInt(3, caseDuplicateKey.getReportWeek());
+					statement.setDouble(4, caseDuplicateKey.getNameSimilarityThreshold());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+			}
+		});
+	}
+
+	private static CaseDuplicateKey buildKey(Long cazeId, String blockingKey, int reportWeek, double nameSimilarityThreshold) {
+
+		CaseDuplicateKey key = new CaseDuplicateKey();
+		key.setCazeId(cazeId);
+		key.setBlockingKey(blockingKey);
+		key.setReportWeek(reportWeek);
+		key.setNameSimilarityThreshold(nameSimilarityThreshold);
+		return key;
+	}
+
+	/**
+	 * Finds the probable duplicates of the cases page by page, comparing each case only with the cases that share a blocking key.
+	 * The cases are duplicates if
+	 * <ul>
+	 * <li>the similarity of first and last name concatenated with whitespace is above the name similarity threshold</li>
+	 * <li>they have the same disease</li>
+	 * <li>they have the same responsible region and the same region, if the case has one (unless {@code ignoreRegion})</li>
+	 * <li>the report dates are within 30 days of each other</li>
+	 * <li>the sexes are the same or one of them is not known</li>
+	 * <li>the birth dates are the same or one of them is not fully defined</li>
+	 * <li>the onset dates are within 30 days of each other (when defined)</li>
+	 * <li>the duplicate has been created after the case or outside of the creation date range of the cases</li>
+	 * </ul>
+	 * 
+	 * Cases without up to date keys are not found until they have been indexed by the scheduled
+	 * {@link CaseFacadeEjb#indexCaseDuplicateKeys()}, e.g. after an update or after the name similarity threshold has been changed.
+	 * Indexing them here would index the whole case table within the transaction of the request.
+	 * 
+	 * @return Id of the case, id of the duplicate and creation date of the case, ordered by the creation date descending.
+	 */
+	public List<Object[]> getDuplicateCaseIds(List<Long> cazeIds, Date creationDateFrom, Date creationDateTo, boolean ignoreRegion) {
+
+		double threshold = configFacade.getNameSimilarityThreshold();
+
+		List<Object[]> duplicates = new ArrayList<>();
+		IterableHelper.executeBatched(cazeIds, PAGE_SIZE, pageCazeIds -> {
+			List<Object[]> candidates = getCandidateIds(pageCazeIds, threshold);
+			Set<Long> candidateCazeIds = new HashSet<>();
+			for (Object[] candidate : candidates) {
+				candidateCazeIds.add((Long) candidate[0]);
+				candidateCazeIds.add((Long) candidate[1]);
+			}
+
+			Map<Long, DuplicateData> duplicateData = new HashMap<>();
+			IterableHelper.executeBatched(new ArrayList<>(candidateCazeIds), PAGE_SIZE, ids -> duplicateData.putAll(getDuplicateData(ids)));
+
+			for (Object[] candidate : candidates) {
+				DuplicateData caze = duplicateData.get(candidate[0]);
+				DuplicateData duplicate = duplicateData.get(candidate[1]);
+				if (caze != null
+					&& duplicate != null
+					&& isDuplicate(caze, duplicate, threshold, creationDateFrom, creationDateTo, ignoreRegion)) {
+					duplicates.add(
+						new Object[] {
+							caze.id,
+							duplicate.id,
+							caze.creationDate });
+				}
+			}
+		});
+
+		duplicates.sort(Comparator.comparing((Object[] duplicate) -> (Date) duplicate[2]).reversed());
+		return duplicates;
+	}
+
+	private List<Object[]> getCandidateIds(List<Long> cazeIds, double threshold) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<CaseDuplicateKey> key = cq.from(CaseDuplicateKey.class);
+		Root<CaseDuplicateKey> candidateKey = cq.from(CaseDuplicateKey.class);
+
+		cq.multiselect(key.get(CaseDuplicateKey.CAZE_ID), candidateKey.get(CaseDuplicateKey.CAZE_ID));
+		cq.where(
+			key.get(CaseDuplicateKey.CAZE_ID).in(cazeIds),
+			cb.equal(key.get(CaseDuplicateKey.NAME_SIMILARITY_THRESHOLD), threshold),
+			cb.equal(candidateKey.get(CaseDuplicateKey.BLOCKING_KEY), key.get(CaseDuplicateKey.BLOCKING_KEY)),
+			cb.equal(candidateKey.get(CaseDuplicateKey.NAME_SIMILARITY_THRESHOLD), threshold),
+			cb.between(
+				candidateKey.get(CaseDuplicateKey.REPORT_WEEK),
+				cb.diff(key.get(CaseDuplicateKey.REPORT_WEEK), REPORT_WEEK_WINDOW),
+				cb.sum(key.get(CaseDuplicateKey.REPORT_WEEK), REPORT_WEEK_WINDOW)),
+			cb.notEqual(candidateKey.get(CaseDuplicateKey.CAZE_ID), key.get(CaseDuplicateKey.CAZE_ID)));
+		cq.distinct(true);
+
+		return em.createQuery(cq).getResultList();
+	}
+
+	private Map<Long, DuplicateData> getDuplicateData(List<Long> cazeIds) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		Join<Case, Person> person = caze.join(Case.PERSON, JoinType.LEFT);
+		Join<Case, Region> responsibleRegion = caze.join(Case.RESPONSIBLE_REGION, JoinType.LEFT);
+		Join<Case, Region> region = caze.join(Case.REGION, JoinType.LEFT);
+		Join<Case, Symptoms> symptoms = caze.join(Case.SYMPTOMS, JoinType.LEFT);
+
+		cq.multiselect(
+			caze.get(Case.ID),
+			caze.get(Case.DISEASE),
+			caze.get(Case.CREATION_DATE),
+			caze.get(Case.REPORT_DATE),
+			responsibleRegion.get(Region.ID),
+			region.get(Region.ID),
+			person.get(Person.FIRST_NAME),
+			person.get(Person.LAST_NAME),
+			person.get(Person.SEX),
+			person.get(Person.BIRTHDATE_DD),
+			person.get(Person.BIRTHDATE_MM),
+			person.get(Person.BIRTHDATE_YYYY),
+			symptoms.get(Symptoms.ONSET_DATE));
+		cq.where(caze.get(Case.ID).in(cazeIds), caseService.createDefaultFilter(cb, caze));
+
+		Map<Long, DuplicateData> duplicateData = new HashMap<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			DuplicateData data = new DuplicateData(result);
+			duplicateData.put(data.id, data);
+		}
+		return duplicateData;
+	}
+
+	private static boolean isDuplicate(
+		DuplicateData caze,
+		DuplicateData duplicate,
+		double nameSimilarityThreshold,
+		Date creationDateFrom,
+		Date creationDateTo,
+		boolean ignoreRegion) {
+
+		if (caze.disease != duplicate.disease) {
+			return false;
+		}
+
+		if (!ignoreRegion
+			&& (caze.responsibleRegionId == null
+				|| !caze.responsibleRegionId.equals(duplicate.responsibleRegionId)
+				|| caze.regionId != null && !caze.regionId.equals(duplicate.regionId))) {
+			return false;
+		}
+
+		if (!isWithin30Days(caze.reportDate, duplicate.reportDate, false)
+			|| !isWithin30Days(caze.onsetDate, duplicate.onsetDate, true)) {
+			return false;
+		}
+
+		if (caze.sex != null && duplicate.sex != null && caze.sex != Sex.UNKNOWN && duplicate.sex != Sex.UNKNOWN && caze.sex != duplicate.sex) {
+			return false;
+		}
+
+		if (caze.isBirthdateDefined()
+			&& duplicate.isBirthdateDefined()
+			&& !(Objects.equals(caze.birthdateDD, duplicate.birthdateDD)
+				&& Objects.equals(caze.birthdateMM, duplicate.birthdateMM)
+				&& Objects.equals(caze.birthdateYYYY, duplicate.birthdateYYYY))) {
+			return false;
+		}
+
+		if (!(caze.creationDate.before(duplicate.creationDate)
+			|| creationDateFrom != null && !duplicate.creationDate.after(creationDateFrom)
+			|| creationDateTo != null && !duplicate.creationDate.before(creationDateTo))) {
+			return false;
+		}
+
+		return caze.getTrigrams() != null
+			&& duplicate.getTrigrams() != null
+			&& TrigramSimilarity.getSimilarity(caze.getTrigrams(), duplicate.getTrigrams()) > nameSimilarityThreshold;
+	}
+
+	private static boolean isWithin30Days(Date date1, Date date2, boolean matchIfUndefined) {
+
+		if (date1 == null || date2 == null) {
+			return matchIfUndefined;
+		}
+		return Math.abs(date1.getTime() - date2.getTime()) <= MILLIS_30_DAYS;
+	}
+
+	private static String getName(String firstName, String lastName) {
+		return firstName != null && lastName != null ? firstName + " " + lastName : null;
+	}
+
+	private static final class DuplicateData {
+
+		private final Long id;
+		private final Disease disease;
+		private final Date creationDate;
+		private final Date reportDate;
+		private final Long responsibleRegionId;
+		private final Long regionId;
+		private final String name;
+		private final Sex sex;
+		private final Integer birthdateDD;
+		private final Integer birthdateMM;
+		private final Integer birthdateYYYY;
+		private final Date onsetDate;
+		private Set<String> trigrams;
+
+		private DuplicateData(Object[] result) {
+			id = (Long) result[0];
+			disease = (Disease) result[1];
+			creationDate = (Date) result[2];
+			reportDate = (Date) result[3];
+			responsibleRegionId = (Long) result[4];
+			regionId = (Long) result[5];
+			name = getName((String) result[6], (String) result[7]);
+			sex = (Sex) result[8];
+			birthdateDD = (Integer) result[9];
+			birthdateMM = (Integer) result[10];
+			birthdateYYYY = (Integer) result[11];
+			onsetDate = (Date) result[12];
+		}
+
+		private boolean isBirthdateDefined() {
+			return birthdateDD != null && birthdateMM != null && birthdateYYYY != null;
+		}
+
+		/**
+		 * Computed on first use, because most candidates are already excluded by the cheaper criteria.
+		 */
+		private Set<String> getTrigrams() {
+			if (trigrams == null && name != null) {
+				trigrams = TrigramSimilarity.getTrigrams(name);
+			}
+			return trigrams;
+		}
+	}
+}
@@ -40,6 +40,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -109,6 +110,8 @@ import de.symeda.sormas.api.clinicalcourse.ClinicalVisitCriteria;
 import de.symeda.sormas.api.clinicalcourse.ClinicalVisitDto;
 import de.symeda.sormas.api.clinicalcourse.HealthConditionsDto;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncCursor;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
@@ -132,6 +135,7 @@ import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.infrastructure.InfrastructureHelper;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.messaging.ManualMessageLogDto;
@@ -142,7 +146,6 @@ import de.symeda.sormas.api.person.PersonContactDetailDto;
 import de.symeda.sormas.api.person.PersonDto;
 import de.symeda.sormas.api.person.PersonReferenceDto;
 import de.symeda.sormas.api.person.PresentCondition;
-import de.symeda.sormas.api.person.Sex;
 import de.symeda.sormas.api.region.CommunityReferenceDto;
 import de.symeda.sormas.api.region.DistrictDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
@@ -200,7 +203,6 @@ import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.ManualMessageLogService;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
@@ -302,7 +304,6 @@ import de.symeda.sormas.utils.CaseJoins;
 public class CaseFacadeEjb implements CaseFacade {
 
 	private static final int ARCHIVE_BATCH_SIZE = 1000;
-	private static final long SECONDS_30_DAYS = 30L * 24L * 60L * 60L;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -314,6 +315,14 @@ public class CaseFacadeEjb implements CaseFacade {
 	@EJB
 	private CaseService caseService;
 	@EJB
+	private CaseCompletenessService caseCompletenessService;
+	@EJB
+	private CaseCompletenessWorker caseCompletenessWorker;
+	@EJB
+	private CaseDuplicateService caseDuplicateService;
+	@EJB
+	private CaseStatisticsCubeService caseStatisticsCubeService;
+	@EJB
 	private CaseListCriteriaBuilder listQueryBuilder;
 	@EJB
 	private PersonService personService;
@@ -437,6 +446,22 @@ public class CaseFacadeEjb implements CaseFacade {
 			.collect(Collectors.toList());
 	}
 
+	@Override
+	public SyncPage<CaseDataDto> getActiveCasesPageAfter(Date date, String cursor) {
+
+		if (userService.getCurrentUser() == null) {
+			return new SyncPage<>(Collections.emptyList(), cursor, false);
+		}
+
+		int batchSize = configFacade.getSyncBatchSize();
+		Pseudonymizer pseudonymizer = Pseudonymizer.getDefault(userService::hasRight);
+		return QueryHelper.toSyncPage(
+			caseService.getAllActiveCasesAfter(date, false, SyncCursor.parse(cursor), batchSize + 1),
+			batchSize,
+			cursor,
+			c -> convertToDto(c, pseudonymizer));
+	}
+
 	@Override
 	public List<CaseDataDto> getByUuids(List<String> uuids) {
 		Pseudonymizer pseudonymizer = Pseudonymizer.getDefault(userService::hasRight);
@@ -607,6 +632,36 @@ public class CaseFacadeEjb implements CaseFacade {
 		int max,
 		ExportConfigurationDto exportConfiguration,
 		Language userLanguage) {
+		return getExportList(caseCriteria, selectedRows, exportType, first, max, null, false, exportConfiguration, userLanguage);
+	}
+
+	@Override
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public List<CaseExportDto> getExportList(
+		CaseCriteria caseCriteria,
+		Collection<String> selectedRows,
+		CaseExportType exportType,
+		ExportCursor after,
+		int max,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage) {
+		return getExportList(caseCriteria, selectedRows, exportType, 0, max, after, true, exportConfiguration, userLanguage);
+	}
+
+	/**
+	 * @param keysetPaging
+	 *            If true, the list is sorted by report date and uuid and starts after the given cursor instead of the offset.
+	 */
+	private List<CaseExportDto> getExportList(
+		CaseCriteria caseCriteria,
+		Collection<String> selectedRows,
+		CaseExportType exportType,
+		int first,
+		int max,
+		ExportCursor after,
+		boolean keysetPaging,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage) {
 
 		Boolean previousCaseManagementDataCriteria = caseCriteria.getMustHaveCaseManagementData();
 		if (CaseExportType.CASE_MANAGEMENT == exportType) {
@@ -724,6 +779,9 @@ public class CaseFacadeEjb implements CaseFacade {
 			filter = CriteriaBuilderHelper.and(cb, filter, criteriaFilter);
 		}
 		filter = CriteriaBuilderHelper.andInValues(selectedRows, filter, cb, caseRoot.get(Case.UUID));
+		if (keysetPaging) {
+			filter = CriteriaBuilderHelper.andAfterCursor(cb, filter, after, caseRoot.get(Case.REPORT_DATE), caseRoot.get(Case.UUID));
+		}
 
 		if (filter != null) {
 			cq.where(filter);
@@ -732,8 +790,13 @@ public class CaseFacadeEjb implements CaseFacade {
 		/*
 		 * Sort by report date DESC, but also by id for stable Sorting in case of equal report dates.
 		 * Since this method supports paging, values might jump between pages when sorting is unstable.
+		 * Keyset pagination uses the uuid as tie-breaker, because it is part of the exported row.
 		 */
-		cq.orderBy(cb.desc(caseRoot.get(Case.REPORT_DATE)), cb.desc(caseRoot.get(Case.ID)));
+		if (keysetPaging) {
+			cq.orderBy(cb.desc(caseRoot.get(Case.REPORT_DATE)), cb.desc(caseRoot.get(Case.UUID)));
+		} else {
+			cq.orderBy(cb.desc(caseRoot.get(Case.REPORT_DATE)), cb.desc(caseRoot.get(Case.ID)));
+		}
 
 		List<CaseExportDto> resultList = QueryHelper.getResultList(em, cq, first, max);
 		List<Long> resultCaseIds = resultList.stream().map(CaseExportDto::getId).collect(Collectors.toList());
@@ -1191,118 +1254,27 @@ public class CaseFacadeEjb implements CaseFacade {
 	public List<CaseIndexDto[]> getCasesForDuplicateMerging(CaseCriteria criteria, boolean ignoreRegion) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		Root<Case> root = cq.from(Case.class);
 		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, root);
-		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
-
-		Root<Case> root2 = cq.from(Case.class);
-		Join<Case, Person> person = joins.getPerson();
-		Join<Case, Person> person2 = root2.join(Case.PERSON, JoinType.LEFT);
-		Join<Case, Region> responsibleRegion = joins.getResponsibleRegion();
-		Join<Case, Region> responsibleRegion2 = root2.join(Case.RESPONSIBLE_REGION, JoinType.LEFT);
-		Join<Case, Region> region = joins.getRegion();
-		Join<Case, Region> region2 = root2.join(Case.REGION, JoinType.LEFT);
-		Join<Case, Symptoms> symptoms = joins.getSymptoms();
-		Join<Case, Symptoms> symptoms2 = root2.join(Case.SYMPTOMS, JoinType.LEFT);
-
-		cq.distinct(true);
-
-		// similarity:
-		// * first & last name concatenated with whitespace. Similarity function with default threshold of 0.65D
-		// uses postgres pg_trgm: https://www.postgresql.org/docs/9.6/pgtrgm.html
-		// * same disease
-		// * same region (optional)
-		// * report date within 30 days of each other
-		// * same sex or same birth date (when defined)
-		// * same birth date (when fully defined)
-		// * onset date within 30 days of each other (when defined)
 
+		Predicate filter = caseService.createDefaultFilter(cb, root);
 		Predicate userFilter = caseService.createUserFilter(cb, cq, root);
-		Predicate criteriaFilter = criteria != null ? caseService.createCriteriaFilter(criteria, caseQueryContext) : null;
-		Expression<String> nameSimilarityExpr = cb.concat(person.get(Person.FIRST_NAME), " ");
-		nameSimilarityExpr = cb.concat(nameSimilarityExpr, person.get(Person.LAST_NAME));
-		Expression<String> nameSimilarityExpr2 = cb.concat(person2.get(Person.FIRST_NAME), " ");
-		nameSimilarityExpr2 = cb.concat(nameSimilarityExpr2, person2.get(Person.LAST_NAME));
-		Predicate nameSimilarityFilter =
-			cb.gt(cb.function("similarity", double.class, nameSimilarityExpr, nameSimilarityExpr2), configFacade.getNameSimilarityThreshold());
-		Predicate diseaseFilter = cb.equal(root.get(Case.DISEASE), root2.get(Case.DISEASE));
-		Predicate regionFilter = cb.and(
-			cb.equal(responsibleRegion.get(Region.ID), responsibleRegion2.get(Region.ID)),
-			cb.or(cb.and(cb.isNull(region)), cb.equal(region.get(Region.ID), region2.get(Region.ID))));
-		Predicate reportDateFilter = cb.lessThanOrEqualTo(
-			cb.abs(
-				cb.diff(
-					cb.function("date_part", Long.class, cb.parameter(String.class, "date_type"), root.get(Case.REPORT_DATE)),
-					cb.function("date_part", Long.class, cb.parameter(String.class, "date_type"), root2.get(Case.REPORT_DATE)))),
-			SECONDS_30_DAYS);
-
-		// // todo this should use PersonService.buildSimilarityCriteriaFilter
-		// Sex filter: only when sex is filled in for both cases
-		Predicate sexFilter = cb.or(
-			cb.or(cb.isNull(person.get(Person.SEX)), cb.isNull(person2.get(Person.SEX))),
-			cb.or(cb.equal(person.get(Person.SEX), Sex.UNKNOWN), cb.equal(person2.get(Person.SEX), Sex.UNKNOWN)),
-			cb.equal(person.get(Person.SEX), person2.get(Person.SEX)));
-		// Birth date filter: only when birth date is filled in for both cases
-		Predicate birthDateFilter = cb.or(
-			cb.or(
-				cb.isNull(person.get(Person.BIRTHDATE_DD)),
-				cb.isNull(person.get(Person.BIRTHDATE_MM)),
-				cb.isNull(person.get(Person.BIRTHDATE_YYYY)),
-				cb.isNull(person2.get(Person.BIRTHDATE_DD)),
-				cb.isNull(person2.get(Person.BIRTHDATE_MM)),
-				cb.isNull(person2.get(Person.BIRTHDATE_YYYY))),
-			cb.and(
-				cb.equal(person.get(Person.BIRTHDATE_DD), person2.get(Person.BIRTHDATE_DD)),
-				cb.equal(person.get(Person.BIRTHDATE_MM), person2.get(Person.BIRTHDATE_MM)),
-				cb.equal(person.get(Person.BIRTHDATE_YYYY), person2.get(Person.BIRTHDATE_YYYY))));
-		// Onset date filter: only when onset date is filled in for both cases
-		Predicate onsetDateFilter = cb.or(
-			cb.or(cb.isNull(symptoms.get(Symptoms.ONSET_DATE)), cb.isNull(symptoms2.get(Symptoms.ONSET_DATE))),
-			cb.lessThanOrEqualTo(
-				cb.abs(
-					cb.diff(
-						cb.function("date_part", Long.class, cb.parameter(String.class, "date_type"), symptoms.get(Symptoms.ONSET_DATE)),
-						cb.function("date_part", Long.class, cb.parameter(String.class, "date_type"), symptoms2.get(Symptoms.ONSET_DATE)))),
-				SECONDS_30_DAYS));
-
-		Predicate creationDateFilter = cb.or(
-			cb.lessThan(root.get(Case.CREATION_DATE), root2.get(Case.CREATION_DATE)),
-			cb.or(
-				cb.lessThanOrEqualTo(root2.get(Case.CREATION_DATE), DateHelper.getStartOfDay(criteria.getCreationDateFrom())),
-				cb.greaterThanOrEqualTo(root2.get(Case.CREATION_DATE), DateHelper.getEndOfDay(criteria.getCreationDateTo()))));
-
-		Predicate filter = cb.and(caseService.createDefaultFilter(cb, root), caseService.createDefaultFilter(cb, root2));
 		if (userFilter != null) {
 			filter = cb.and(filter, userFilter);
 		}
-		if (filter != null) {
-			filter = cb.and(filter, criteriaFilter);
-		} else {
-			filter = criteriaFilter;
+		if (criteria != null) {
+			filter = CriteriaBuilderHelper.and(cb, filter, caseService.createCriteriaFilter(criteria, caseQueryContext));
 		}
-		if (filter != null) {
-			filter = cb.and(filter, nameSimilarityFilter);
-		} else {
-			filter = nameSimilarityFilter;
-		}
-		filter = cb.and(filter, diseaseFilter);
-
-		if (!ignoreRegion) {
-			filter = cb.and(filter, regionFilter);
-		}
-
-		filter = cb.and(filter, reportDateFilter);
-		filter = cb.and(filter, cb.and(sexFilter, birthDateFilter));
-		filter = cb.and(filter, onsetDateFilter);
-		filter = cb.and(filter, creationDateFilter);
-		filter = cb.and(filter, cb.notEqual(root.get(Case.ID), root2.get(Case.ID)));
-
+		cq.select(root.get(Case.ID));
 		cq.where(filter);
-		cq.multiselect(root.get(Case.ID), root2.get(Case.ID), root.get(Case.CREATION_DATE));
-		cq.orderBy(cb.desc(root.get(Case.CREATION_DATE)));
 
-		List<Object[]> foundIds = em.createQuery(cq).setParameter("date_type", "epoch").getResultList();
+		// similarity criteria are documented and evaluated by CaseDuplicateService, which only compares cases sharing a blocking key
+		List<Object[]> foundIds = caseDuplicateService.getDuplicateCaseIds(
+			em.createQuery(cq).getResultList(),
+			DateHelper.getStartOfDay(criteria.getCreationDateFrom()),
+			DateHelper.getEndOfDay(criteria.getCreationDateTo()),
+			ignoreRegion);
 		List<CaseIndexDto[]> resultList = new ArrayList<>();
 
 		if (!foundIds.isEmpty()) {
@@ -1510,12 +1482,20 @@ public class CaseFacadeEjb implements CaseFacade {
 
 	private void doSave(Case caze, boolean handleChanges, CaseDataDto existingCaseDto) {
 		caseService.ensurePersisted(caze);
+		caseCompletenessService.enqueue(caze);
+		if (existingCaseDto == null
+			|| existingCaseDto.getDisease() != caze.getDisease()
+			|| !Objects.equals(existingCaseDto.getReportDate(), caze.getReportDate())
+			|| !DataHelper.isSame(existingCaseDto.getPerson(), caze.getPerson())) {
+			caseDuplicateService.updateKeys(caze);
+		}
 		if (handleChanges) {
 			updateCaseVisitAssociations(existingCaseDto, caze);
 			caseService.updateFollowUpDetails(caze, existingCaseDto != null && caze.getFollowUpStatus() != existingCaseDto.getFollowUpStatus());
 
 			onCaseChanged(existingCaseDto, caze);
 		}
+		caseStatisticsCubeService.updateCase(caze);
 	}
 
 	private void updateCaseVisitAssociations(CaseDataDto existingCase, Case caze) {
@@ -1875,23 +1855,15 @@ public class CaseFacadeEjb implements CaseFacade {
 				UserRole.CASE_SUPERVISOR,
 				UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.CASE_CLASSIFICATION_CHANGED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
-							DataHelper.getShortUuid(newCase.getUuid()),
-							newCase.getCaseClassification().toString()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the change of a case classification. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.CASE_CLASSIFICATION_CHANGED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
+						DataHelper.getShortUuid(newCase.getUuid()),
+						newCase.getCaseClassification().toString()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -1905,24 +1877,16 @@ public class CaseFacadeEjb implements CaseFacade {
 				UserRole.CASE_SUPERVISOR,
 				UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.DISEASE_CHANGED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_DISEASE_CHANGED),
-							DataHelper.getShortUuid(newCase.getUuid()),
-							existingCase.getDisease().toString(),
-							newCase.getDisease().toString()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the change of a case disease. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.DISEASE_CHANGED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_DISEASE_CHANGED),
+						DataHelper.getShortUuid(newCase.getUuid()),
+						existingCase.getDisease().toString(),
+						newCase.getDisease().toString()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -1940,26 +1904,18 @@ public class CaseFacadeEjb implements CaseFacade {
 		Map<String, User> responsibleUserByEventByEventUuid =
 			eventService.getAllEventUuidWithResponsibleUserByCaseAfterDateForNotification(caze, fromDate);
 		for (Map.Entry<String, User> entry : responsibleUserByEventByEventUuid.entrySet()) {
-			try {
-				messagingService.sendMessage(
-					entry.getValue(),
-					MessageSubject.EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED,
-					new Object[] {
-						caze.getDisease().getName() },
-					String.format(
-						I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED),
-						DataHelper.getShortUuid(entry.getKey()),
-						caze.getDisease().getName(),
-						DataHelper.getShortUuid(caze.getUuid())),
-					MessageType.EMAIL,
-					MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify event responsible user about a newly confirmed case. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-						entry.getValue().getUuid()));
-			}
+			messagingService.sendMessage(
+				entry.getValue(),
+				MessageSubject.EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED,
+				new Object[] {
+					caze.getDisease().getName() },
+				String.format(
+					I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED),
+					DataHelper.getShortUuid(entry.getKey()),
+					caze.getDisease().getName(),
+					DataHelper.getShortUuid(caze.getUuid())),
+				MessageType.EMAIL,
+				MessageType.SMS);
 		}
 	}
 
@@ -2048,24 +2004,37 @@ public class CaseFacadeEjb implements CaseFacade {
 
 	@Override
 	public int updateCompleteness() {
-		List<String> getCompletenessCheckCaseList = getCompletenessCheckNeededCaseList();
-
-		IterableHelper.executeBatched(getCompletenessCheckCaseList, 10, caseCompletionBatch -> caseService.updateCompleteness(caseCompletionBatch));
-
-		return getCompletenessCheckCaseList.size();
+		return caseCompletenessWorker.updateQueuedCases();
 	}
 
-	private List<String> getCompletenessCheckNeededCaseList() {
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<String> cq = cb.createQuery(String.class);
-		Root<Case> caze = cq.from(Case.class);
+	/**
+	 * Creates the duplicate detection keys of cases that don't have up to date keys, one batch per transaction.
+	 * 
+	 * @return The number of indexed cases
+	 */
+	public int indexCaseDuplicateKeys() {
 
-		cq.where(cb.isNull(caze.get(Case.COMPLETENESS)));
+		long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+		int indexed = 0;
+		int batchIndexed;
+		do {
+			batchIndexed = caseDuplicateService.indexCasesWithoutKeys(CaseDuplicateService.INDEX_BATCH_SIZE);
+			indexed += batchIndexed;
+		} while (batchIndexed == CaseDuplicateService.INDEX_BATCH_SIZE && System.currentTimeMillis() < end);
 
-		cq.orderBy(cb.desc(caze.get(Case.CHANGE_DATE)));
-		cq.select(caze.get(Case.UUID));
+		return indexed;
+	}
 
-		return em.createQuery(cq).getResultList();
+	/**
+	 * Updates the case statistics cube for cases changed without updating it and merges the rows of its cells.
+	 * 
+	 * @return The number of updated cases
+	 */
+	public int updateCaseStatisticsCube() {
+
+		int updated = caseStatisticsCubeService.reconcile();
+		caseStatisticsCubeService.compactCells();
+		return updated;
 	}
 
 	@Override
@@ -3029,21 +2998,13 @@ public class CaseFacadeEjb implements CaseFacade {
 			UserRole.CASE_SUPERVISOR,
 			UserRole.CONTACT_SUPERVISOR);
 		for (User recipient : messageRecipients) {
-			try {
-				messagingService.sendMessage(
-					recipient,
-					MessageSubject.CASE_INVESTIGATION_DONE,
-					String
-						.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE), DataHelper.getShortUuid(caze.getUuid())),
-					MessageType.EMAIL,
-					MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify supervisors about the completion of a case investigation. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-						recipient.getUuid()));
-			}
+			messagingService.sendMessage(
+				recipient,
+				MessageSubject.CASE_INVESTIGATION_DONE,
+				String
+					.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE), DataHelper.getShortUuid(caze.getUuid())),
+				MessageType.EMAIL,
+				MessageType.SMS);
 		}
 	}
 
@@ -3527,16 +3488,7 @@ public class CaseFacadeEjb implements CaseFacade {
 			final Case aCase = caseService.getByUuid(uuid);
 			final Person person = aCase.getPerson();
 
-			try {
-				messagingService.sendMessage(person, subject, messageContent, messageTypes);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify person about: %s" + "Failed to send " + e.getMessageType()
-							+ " to person with UUID %s.",
-						subject,
-						person.getUuid()));
-			}
+			messagingService.sendMessage(person, subject, messageContent, messageTypes);
 		});
 	}
 
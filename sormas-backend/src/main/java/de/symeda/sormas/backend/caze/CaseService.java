@@ -19,6 +19,7 @@ package de.symeda.sormas.backend.caze;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -64,12 +65,14 @@ import de.symeda.sormas.api.caze.MapCaseDto;
 import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.clinicalcourse.ClinicalCourseReferenceDto;
 import de.symeda.sormas.api.clinicalcourse.ClinicalVisitCriteria;
+import de.symeda.sormas.api.common.SyncCursor;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.followup.FollowUpLogic;
+import de.symeda.sormas.api.person.Sex;
 import de.symeda.sormas.api.sample.PathogenTestResultType;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.therapy.PrescriptionCriteria;
@@ -104,6 +107,7 @@ import de.symeda.sormas.backend.hospitalization.Hospitalization;
 import de.symeda.sormas.backend.infrastructure.PointOfEntry;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.person.PersonSearchIndexService;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
@@ -139,6 +143,10 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 	@EJB
 	private ContactService contactService;
 	@EJB
+	private PersonSearchIndexService personSearchIndexService;
+	@EJB
+	private CaseStatisticsCubeService caseStatisticsCubeService;
+	@EJB
 	private SampleService sampleService;
 	@EJB
 	private EpiDataService epiDataService;
@@ -172,6 +180,12 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		super(Case.class);
 	}
 
+	@Override
+	public void ensurePersisted(Case caze) {
+		super.ensurePersisted(caze);
+		personSearchIndexService.markAssociated(caze.getPerson());
+	}
+
 	/**
 	 * Returns all cases that match the specified {@code caseCriteria} and that the current user has access to.
 	 * This should be the preferred method of retrieving cases from the database if there is no special logic required
@@ -198,6 +212,17 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 	}
 
 	public List<Case> getAllActiveCasesAfter(Date date, boolean includeExtendedChangeDateFilters) {
+		return getAllActiveCasesAfter(date, includeExtendedChangeDateFilters, null, null);
+	}
+
+	/**
+	 * @param after
+	 *            Only used together with maxResults: Position of the last case of the previous batch.
+	 * @param maxResults
+	 *            If set, the cases are sorted ascending by change date and uuid for keyset pagination. Otherwise all cases are
+	 *            returned, sorted descending by change date.
+	 */
+	public List<Case> getAllActiveCasesAfter(Date date, boolean includeExtendedChangeDateFilters, SyncCursor after, Integer maxResults) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Case> cq = cb.createQuery(getElementClass());
@@ -227,11 +252,21 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 			}
 		}
 
+		if (maxResults != null) {
+			filter = CriteriaBuilderHelper.andAfterSyncCursor(cb, filter, after, from.get(Case.CHANGE_DATE), from.get(Case.UUID));
+			cq.orderBy(cb.asc(from.get(Case.CHANGE_DATE)), cb.asc(from.get(Case.UUID)));
+		} else {
+			cq.orderBy(cb.desc(from.get(Case.CHANGE_DATE)));
+		}
+
 		cq.where(filter);
-		cq.orderBy(cb.desc(from.get(Case.CHANGE_DATE)));
 		cq.distinct(true);
 
-		return em.createQuery(cq).getResultList();
+		TypedQuery<Case> query = em.createQuery(cq);
+		if (maxResults != null) {
+			query.setMaxResults(maxResults);
+		}
+		return query.getResultList();
 	}
 
 	public List<String> getAllActiveUuids() {
@@ -871,6 +906,7 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 
 		// Mark the case as deleted
 		super.delete(caze);
+		caseStatisticsCubeService.updateCase(caze);
 	}
 
 	@Override
@@ -1052,6 +1088,63 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		return createUserFilter(cb, cq, casePath, null);
 	}
 
+	/**
+	 * @return A key that is equal for all users for whom
+	 *         {@link #createUserFilter(CriteriaBuilder, CriteriaQuery, From, CaseUserFilterCriteria)} creates the same filter, so
+	 *         that e.g. aggregated case figures can be shared by the users of a jurisdiction. Has to be kept in sync with the
+	 *         user filter.
+	 */
+	public List<Object> getUserFilterKey(CaseUserFilterCriteria userFilterCriteria) {
+
+		User currentUser = getCurrentUser();
+		if (currentUser == null) {
+			return Collections.emptyList();
+		}
+
+		List<Object> key = new ArrayList<>();
+		final JurisdictionLevel jurisdictionLevel = currentUser.getJurisdictionLevel();
+		if (jurisdictionLevel != JurisdictionLevel.NATION && !currentUser.hasAnyUserRole(UserRole.REST_USER, UserRole.REST_EXTERNAL_VISITS_USER)) {
+			key.add(jurisdictionLevel);
+			// cases the user is responsible for or is associated to by contacts
+			if (userFilterCriteria == null || userFilterCriteria.getIncludeCasesFromOtherJurisdictions()) {
+				key.add(currentUser.getId());
+			}
+
+			switch (jurisdictionLevel) {
+			case REGION:
+				key.add(getId(currentUser.getRegion()));
+				break;
+			case DISTRICT:
+				key.add(getId(currentUser.getDistrict()));
+				break;
+			case HEALTH_FACILITY:
+				key.add(getId(currentUser.getHealthFacility()));
+				break;
+			case COMMUNITY:
+				key.add(getId(currentUser.getCommunity()));
+				break;
+			case POINT_OF_ENTRY:
+				key.add(getId(currentUser.getPointOfEntry()));
+				break;
+			case LABORATORY:
+				key.add(getId(currentUser.getLaboratory()));
+				break;
+			default:
+			}
+		} else {
+			key.add(JurisdictionLevel.NATION);
+		}
+
+		key.add(currentUser.getLimitedDisease());
+		key.add(UserRole.isPortHealthUser(currentUser.getUserRoles()));
+
+		return key;
+	}
+
+	private static Long getId(AbstractDomainObject entity) {
+		return entity != null ? entity.getId() : null;
+	}
+
 	/**
 	 * Creates a filter that checks whether the case has "started" within the time frame specified by {@code fromDate} and {@code toDate}.
 	 * By default (if {@code dateType} is null), this logic looks at the {@link Symptoms#onsetDate} first or, if this is null,
@@ -1302,12 +1395,6 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		updateCompleteness(getByUuid(caseUuid));
 	}
 
-	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
-	public void updateCompleteness(List<String> caseUuids) {
-		List<Case> casesForUpdate = getByUuids(caseUuids);
-		casesForUpdate.forEach(this::updateCompleteness);
-	}
-
 	public void updateCompleteness(Case caze) {
 
 		float completeness = calculateCompleteness(caze);
@@ -1328,34 +1415,66 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 
 	private float calculateCompleteness(Case caze) {
 
+		boolean hasSample = sampleService
+			.exists((cb, root) -> cb.and(sampleService.createDefaultFilter(cb, root), cb.equal(root.get(Sample.ASSOCIATED_CASE), caze)));
+		boolean hasContact =
+			contactService.exists((cb, root) -> cb.and(contactService.createDefaultFilter(cb, root), cb.equal(root.get(Contact.CAZE), caze)));
+
+		return calculateCompleteness(
+			caze.getInvestigationStatus(),
+			caze.getCaseClassification(),
+			hasSample,
+			caze.getSymptoms().getSymptomatic(),
+			hasContact,
+			caze.getOutcome(),
+			caze.getPerson().getBirthdateYYYY(),
+			caze.getPerson().getApproximateAge(),
+			caze.getPerson().getSex(),
+			caze.getSymptoms().getOnsetDate());
+	}
+
+	/**
+	 * Also used by {@link CaseCompletenessService} to update the completeness of many cases at once.
+	 */
+	static float calculateCompleteness(
+		InvestigationStatus investigationStatus,
+		CaseClassification caseClassification,
+		boolean hasSample,
+		Boolean symptomatic,
+		boolean hasContact,
+		CaseOutcome outcome,
+		Integer birthdateYYYY,
+		Integer approximateAge,
+		Sex sex,
+		Date onsetDate) {
+
 		float completeness = 0f;
 
-		if (InvestigationStatus.DONE.equals(caze.getInvestigationStatus())) {
+		if (InvestigationStatus.DONE.equals(investigationStatus)) {
 			completeness += 0.2f;
 		}
-		if (!CaseClassification.NOT_CLASSIFIED.equals(caze.getCaseClassification())) {
+		if (!CaseClassification.NOT_CLASSIFIED.equals(caseClassification)) {
 			completeness += 0.2f;
 		}
-		if (sampleService
-			.exists((cb, root) -> cb.and(sampleService.createDefaultFilter(cb, root), cb.equal(root.get(Sample.ASSOCIATED_CASE), caze)))) {
+		if (hasSample) {
 			completeness += 0.15f;
 		}
-		if (Boolean.TRUE.equals(caze.getSymptoms().getSymptomatic())) {
+		if (Boolean.TRUE.equals(symptomatic)) {
 			completeness += 0.15f;
 		}
-		if (contactService.exists((cb, root) -> cb.and(contactService.createDefaultFilter(cb, root), cb.equal(root.get(Contact.CAZE), caze)))) {
+		if (hasContact) {
 			completeness += 0.10f;
 		}
-		if (!CaseOutcome.NO_OUTCOME.equals(caze.getOutcome())) {
+		if (!CaseOutcome.NO_OUTCOME.equals(outcome)) {
 			completeness += 0.05f;
 		}
-		if (caze.getPerson().getBirthdateYYYY() != null || caze.getPerson().getApproximateAge() != null) {
+		if (birthdateYYYY != null || approximateAge != null) {
 			completeness += 0.05f;
 		}
-		if (caze.getPerson().getSex() != null) {
+		if (sex != null) {
 			completeness += 0.05f;
 		}
-		if (caze.getSymptoms().getOnsetDate() != null) {
+		if (onsetDate != null) {
 			completeness += 0.05f;
 		}
 
@@ -0,0 +1,60 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * Number of cases with the same statistics dimensions. Changes of cases insert rows with the difference of the count
+ * instead of updating a row, so the count of a cell is the sum of all its rows; {@link CaseStatisticsCubeService#compactCells()}
+ * merges these rows.
+ */
+@Entity(name = CaseStatisticsCell.TABLE_NAME)
+public class CaseStatisticsCell extends CaseStatisticsDimensions {
+
+	private static final long serialVersionUID = -6083350297468121075L;
+
+	public static final String TABLE_NAME = "casestatisticscell";
+
+	public static final String ID = "id";
+	public static final String CASE_COUNT = "caseCount";
+
+	private Long id;
+	private int caseCount;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Column(nullable = false)
+	public int getCaseCount() {
+		return caseCount;
+	}
+
+	public void setCaseCount(int caseCount) {
+		this.caseCount = caseCount;
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.util.IterableHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Maintains the case statistics cube, i.e. the number of cases per combination of the {@link CaseStatisticsDimensions},
+ * which {@link CaseStatisticsFacadeEjb} queries instead of the cases whenever the criteria allow it.
+ * <p>
+ * The cube is updated in the transaction that changes a case: The case is taken out of the cell of its
+ * {@link CaseStatisticsEntry} and counted in the cell of its current dimensions. Both happen by inserting
+ * {@link CaseStatisticsCell} rows with the difference of the count, so concurrent changes of cases in the same cell never
+ * update the same row. Cases changed without passing one of the hooks (e.g. by a database migration) are caught up by
+ * {@link #reconcile()}.
+ */
+@Stateless
+@LocalBean
+public class CaseStatisticsCubeService {
+
+	public static final int RECONCILE_BATCH_SIZE = 1000;
+
+	private static final String CASE_FROM_CLAUSE = " FROM " + Case.TABLE_NAME + " c LEFT JOIN " + Person.TABLE_NAME
+		+ " p ON p.id = c.person_id LEFT JOIN " + Symptoms.TABLE_NAME + " s ON s.id = c.symptoms_id";
+
+	private static final String NOT_DELETED = "(c.deleted = false OR c.deleted IS NULL)";
+
+	private static final String CURRENT_DIMENSIONS =
+		"c.disease, c.caseclassification, c.outcome, p.sex, c.caseage, c.responsibleregion_id, c.responsibledistrict_id, "
+			+ "c.responsiblecommunity_id, c.healthfacility_id, CAST(c.reportdate AS date), CAST(s.onsetdate AS date), CAST(c.outcomedate AS date)";
+
+	private static final String CASE_CHANGE_DATE = "GREATEST(c.changedate, p.changedate, s.changedate)";
+
+	private static final String INSERT_DELTAS = "INSERT INTO " + CaseStatisticsCell.TABLE_NAME + " (" + CaseStatisticsDimensions.COLUMNS
+		+ ", casecount) SELECT " + CaseStatisticsDimensions.COLUMNS + ", SUM(delta) FROM (SELECT " + CaseStatisticsDimensions.COLUMNS
+		+ ", -1 AS delta FROM " + CaseStatisticsEntry.TABLE_NAME + " WHERE caze_id IN (:cazeIds) UNION ALL SELECT " + CURRENT_DIMENSIONS
+		+ ", 1" + CASE_FROM_CLAUSE + " WHERE c.id IN (:cazeIds) AND " + NOT_DELETED + ") deltas GROUP BY " + CaseStatisticsDimensions.COLUMNS
+		+ " HAVING SUM(delta) <> 0";
+
+	private static final String INSERT_ENTRIES = "INSERT INTO " + CaseStatisticsEntry.TABLE_NAME + " (caze_id, " + CaseStatisticsDimensions.COLUMNS
+		+ ", casechangedate) SELECT c.id, " + CURRENT_DIMENSIONS + ", " + CASE_CHANGE_DATE + CASE_FROM_CLAUSE + " WHERE c.id IN (:cazeIds) AND "
+		+ NOT_DELETED;
+
+	private static final String OUTDATED_CASE_IDS = "SELECT c.id" + CASE_FROM_CLAUSE + " LEFT JOIN " + CaseStatisticsEntry.TABLE_NAME
+		+ " e ON e.caze_id = c.id WHERE (e.caze_id IS NULL AND " + NOT_DELETED + ") OR (e.caze_id IS NOT NULL AND (NOT " + NOT_DELETED + " OR "
+		+ CASE_CHANGE_DATE + " > e.casechangedate))";
+
+	private static final String COMPACT_CELLS = "WITH deleted AS (DELETE FROM " + CaseStatisticsCell.TABLE_NAME + " RETURNING *) INSERT INTO "
+		+ CaseStatisticsCell.TABLE_NAME + " (" + CaseStatisticsDimensions.COLUMNS + ", casecount) SELECT " + CaseStatisticsDimensions.COLUMNS
+		+ ", SUM(casecount) FROM deleted GROUP BY " + CaseStatisticsDimensions.COLUMNS + " HAVING SUM(casecount) <> 0";
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	public void updateCase(Case caze) {
+
+		if (caze == null || caze.getId() == null) {
+			return;
+		}
+
+		updateCases(Collections.singletonList(caze.getId()));
+	}
+
+	@SuppressWarnings("unchecked")
+	public void updateCasesOfPerson(Person person) {
+
+		if (person == null || person.getId() == null) {
+			return;
+		}
+
+		List<Number> cazeIds = em.createNativeQuery("SELECT id FROM " + Case.TABLE_NAME + " WHERE person_id = :personId")
+			.setParameter("personId", person.getId())
+			.getResultList();
+		updateCases(cazeIds.stream().map(Number::longValue).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Moves the cases to the cells of their current dimensions. Deleted cases are removed from the cube.
+	 */
+	public void updateCases(Collection<Long> cazeIds) {
+
+		if (cazeIds.isEmpty()) {
+			return;
+		}
+
+		// the queries below read the cases from the database
+		em.flush();
+
+		// serializes concurrent updates of the same case, which would otherwise take it out of its old cell twice
+		em.createNativeQuery("SELECT id FROM " + Case.TABLE_NAME + " WHERE id IN (:cazeIds) ORDER BY id FOR UPDATE")
+			.setParameter("cazeIds", cazeIds)
+			.getResultList();
+
+		em.createNativeQuery(INSERT_DELTAS).setParameter("cazeIds", cazeIds).executeUpdate();
+		em.createNativeQuery("DELETE FROM " + CaseStatisticsEntry.TABLE_NAME + " WHERE caze_id IN (:cazeIds)")
+			.setParameter("cazeIds", cazeIds)
+			.executeUpdate();
+		em.createNativeQuery(INSERT_ENTRIES).setParameter("cazeIds", cazeIds).executeUpdate();
+	}
+
+	/**
+	 * Updates the cube for all cases that were changed, created or deleted without updating it.
+	 * 
+	 * @return The number of updated cases
+	 */
+	@SuppressWarnings("unchecked")
+	public int reconcile() {
+
+		List<Number> cazeIds = em.createNativeQuery(OUTDATED_CASE_IDS).getResultList();
+		IterableHelper.executeBatched(
+			cazeIds.stream().map(Number::longValue).collect(Collectors.toList()),
+			RECONCILE_BATCH_SIZE,
+			batch -> updateCases(batch));
+		return cazeIds.size();
+	}
+
+	/**
+	 * Merges the rows of each cell into one row. Uses a PostgreSQL data-modifying CTE; rows inserted by concurrent
+	 * transactions are not deleted and stay as they are.
+	 * 
+	 * @return The number of cells
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public int compactCells() {
+		return em.createNativeQuery(COMPACT_CELLS).executeUpdate();
+	}
+}
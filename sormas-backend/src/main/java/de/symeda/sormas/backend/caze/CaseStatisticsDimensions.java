@@ -0,0 +1,193 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.person.Sex;
+
+/**
+ * Attributes of a case that the case statistics can be filtered and grouped by. The columns are named like the columns of
+ * the case, person and symptoms tables so that {@link CaseStatisticsFacadeEjb} can query them in the same way; the dates
+ * only hold the day.
+ */
+@MappedSuperclass
+public abstract class CaseStatisticsDimensions implements Serializable {
+
+	private static final long serialVersionUID = -2408615302473618170L;
+
+	public static final String DISEASE = "disease";
+	public static final String CASE_CLASSIFICATION = "caseClassification";
+	public static final String OUTCOME = "outcome";
+	public static final String SEX = "sex";
+	public static final String CASE_AGE = "caseAge";
+	public static final String RESPONSIBLE_REGION_ID = "responsibleregion_id";
+	public static final String RESPONSIBLE_DISTRICT_ID = "responsibledistrict_id";
+	public static final String RESPONSIBLE_COMMUNITY_ID = "responsiblecommunity_id";
+	public static final String HEALTH_FACILITY_ID = "healthfacility_id";
+	public static final String REPORT_DATE = "reportDate";
+	public static final String ONSET_DATE = "onsetDate";
+	public static final String OUTCOME_DATE = "outcomeDate";
+
+	/**
+	 * All dimension columns, in the order used by the native queries of {@link CaseStatisticsCubeService}.
+	 */
+	public static final String COLUMNS = String.join(
+		", ",
+		DISEASE,
+		CASE_CLASSIFICATION,
+		OUTCOME,
+		SEX,
+		CASE_AGE,
+		RESPONSIBLE_REGION_ID,
+		RESPONSIBLE_DISTRICT_ID,
+		RESPONSIBLE_COMMUNITY_ID,
+		HEALTH_FACILITY_ID,
+		REPORT_DATE,
+		ONSET_DATE,
+		OUTCOME_DATE);
+
+	private Disease disease;
+	private CaseClassification caseClassification;
+	private CaseOutcome outcome;
+	private Sex sex;
+	private Integer caseAge;
+	private Long responsibleRegionId;
+	private Long responsibleDistrictId;
+	private Long responsibleCommunityId;
+	private Long healthFacilityId;
+	private Date reportDate;
+	private Date onsetDate;
+	private Date outcomeDate;
+
+	@Enumerated(EnumType.STRING)
+	public Disease getDisease() {
+		return disease;
+	}
+
+	public void setDisease(Disease disease) {
+		this.disease = disease;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public CaseClassification getCaseClassification() {
+		return caseClassification;
+	}
+
+	public void setCaseClassification(CaseClassification caseClassification) {
+		this.caseClassification = caseClassification;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public CaseOutcome getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(CaseOutcome outcome) {
+		this.outcome = outcome;
+	}
+
+	@Enumerated(EnumType.STRING)
+	public Sex getSex() {
+		return sex;
+	}
+
+	public void setSex(Sex sex) {
+		this.sex = sex;
+	}
+
+	public Integer getCaseAge() {
+		return caseAge;
+	}
+
+	public void setCaseAge(Integer caseAge) {
+		this.caseAge = caseAge;
+	}
+
+	@Column(name = RESPONSIBLE_REGION_ID)
+	public Long getResponsibleRegionId() {
+		return responsibleRegionId;
+	}
+
+	public void setResponsibleRegionId(Long responsibleRegionId) {
+		this.responsibleRegionId = responsibleRegionId;
+	}
+
+	@Column(name = RESPONSIBLE_DISTRICT_ID)
+	public Long getResponsibleDistrictId() {
+		return responsibleDistrictId;
+	}
+
+	public void setResponsibleDistrictId(Long responsibleDistrictId) {
+		this.responsibleDistrictId = responsibleDistrictId;
+	}
+
+	@Column(name = RESPONSIBLE_COMMUNITY_ID)
+	public Long getResponsibleCommunityId() {
+		return responsibleCommunityId;
+	}
+
+	public void setResponsibleCommunityId(Long responsibleCommunityId) {
+		this.responsibleCommunityId = responsibleCommunityId;
+	}
+
+	@Column(name = HEALTH_FACILITY_ID)
+	public Long getHealthFacilityId() {
+		return healthFacilityId;
+	}
+
+	public void setHealthFacilityId(Long healthFacilityId) {
+		this.healthFacilityId = healthFacilityId;
+	}
+
+	@Temporal(TemporalType.DATE)
+	public Date getReportDate() {
+		return reportDate;
+	}
+
+	public void setReportDate(Date reportDate) {
+		this.reportDate = reportDate;
+	}
+
+	@Temporal(TemporalType.DATE)
+	public Date getOnsetDate() {
+		return onsetDate;
+	}
+
+	public void setOnsetDate(Date onsetDate) {
+		this.onsetDate = onsetDate;
+	}
+
+	@Temporal(TemporalType.DATE)
+	public Date getOutcomeDate() {
+		return outcomeDate;
+	}
+
+	public void setOutcomeDate(Date outcomeDate) {
+		this.outcomeDate = outcomeDate;
+	}
+}
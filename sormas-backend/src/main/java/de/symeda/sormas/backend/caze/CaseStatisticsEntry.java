@@ -0,0 +1,65 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * The cell of the case statistics cube a case is currently counted in. Used by {@link CaseStatisticsCubeService} to take
+ * the case out of its old cell when it is changed.
+ */
+@Entity(name = CaseStatisticsEntry.TABLE_NAME)
+public class CaseStatisticsEntry extends CaseStatisticsDimensions {
+
+	private static final long serialVersionUID = 5318804562091487334L;
+
+	public static final String TABLE_NAME = "casestatisticsentry";
+
+	public static final String CAZE_ID = "cazeId";
+	public static final String CASE_CHANGE_DATE = "caseChangeDate";
+
+	private Long cazeId;
+	private Date caseChangeDate;
+
+	@Id
+	@Column(name = "caze_id")
+	public Long getCazeId() {
+		return cazeId;
+	}
+
+	public void setCazeId(Long cazeId) {
+		this.cazeId = cazeId;
+	}
+
+	/**
+	 * Change date of the case when the entry was written; used to find cases that were changed without updating the cube.
+	 */
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	public Date getCaseChangeDate() {
+		return caseChangeDate;
+	}
+
+	public void setCaseChangeDate(Date caseChangeDate) {
+		this.caseChangeDate = caseChangeDate;
+	}
+}
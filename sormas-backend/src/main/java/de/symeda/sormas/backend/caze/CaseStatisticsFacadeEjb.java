@@ -53,6 +53,7 @@ import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
 import de.symeda.sormas.api.statistics.StatisticsGroupingKey;
 import de.symeda.sormas.api.statistics.StatisticsHelper;
 import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb.FacilityFacadeEjbLocal;
 import de.symeda.sormas.backend.facility.FacilityService;
@@ -97,7 +98,6 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	@EJB
 	private FacilityFacadeEjbLocal facilityFacade;
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<StatisticsCaseCountDto> queryCaseCount(
 		StatisticsCaseCriteria caseCriteria,
@@ -109,9 +109,39 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		boolean includeZeroValues,
 		Integer populationReferenceYear) {
 
+		return queryCaseCount(
+			caseCriteria,
+			rowGrouping,
+			rowSubGrouping,
+			columnGrouping,
+			columnSubGrouping,
+			includePopulation,
+			includeZeroValues,
+			populationReferenceYear,
+			isCaseStatisticsCubeApplicable(caseCriteria, rowGrouping, columnGrouping));
+	}
+
+	/**
+	 * @param useCube
+	 *            Whether to count the cases in the case statistics cube instead of the cases; only possible if
+	 *            {@link #isCaseStatisticsCubeApplicable(StatisticsCaseCriteria, StatisticsCaseAttribute, StatisticsCaseAttribute)}
+	 */
+	@SuppressWarnings("unchecked")
+	public List<StatisticsCaseCountDto> queryCaseCount(
+		StatisticsCaseCriteria caseCriteria,
+		StatisticsCaseAttribute rowGrouping,
+		StatisticsCaseSubAttribute rowSubGrouping,
+		StatisticsCaseAttribute columnGrouping,
+		StatisticsCaseSubAttribute columnSubGrouping,
+		boolean includePopulation,
+		boolean includeZeroValues,
+		Integer populationReferenceYear,
+		boolean useCube) {
+
 		// case counts
-		Pair<String, List<Object>> caseCountQueryAndParams =
-			buildCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping);
+		Pair<String, List<Object>> caseCountQueryAndParams = useCube
+			? buildCubeCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping)
+			: buildCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping);
 
 		Query caseCountQuery = em.createNativeQuery(caseCountQueryAndParams.getKey().toString());
 		for (int i = 0; i < caseCountQueryAndParams.getValue().size(); i++) {
@@ -240,6 +270,67 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		return caseCountResults;
 	}
 
+	/**
+	 * The case statistics cube only holds the dimensions of {@link CaseStatisticsDimensions}, with days instead of
+	 * timestamps. Criteria for other attributes of cases and date ranges that don't cover whole days have to be
+	 * counted on the cases.
+	 */
+	public boolean isCaseStatisticsCubeApplicable(
+		StatisticsCaseCriteria caseCriteria,
+		StatisticsCaseAttribute rowGrouping,
+		StatisticsCaseAttribute columnGrouping) {
+
+		return rowGrouping != StatisticsCaseAttribute.REPORTING_USER_ROLE
+			&& columnGrouping != StatisticsCaseAttribute.REPORTING_USER_ROLE
+			&& CollectionUtils.isEmpty(caseCriteria.getReportingUserRoles())
+			&& CollectionUtils.isEmpty(caseCriteria.getPersonRegions())
+			&& CollectionUtils.isEmpty(caseCriteria.getPersonDistricts())
+			&& CollectionUtils.isEmpty(caseCriteria.getPersonCommunities())
+			&& StringUtils.isEmpty(caseCriteria.getPersonCity())
+			&& StringUtils.isEmpty(caseCriteria.getPersonPostcode())
+			&& isWholeDays(caseCriteria.getOnsetDateFrom(), caseCriteria.getOnsetDateTo())
+			&& isWholeDays(caseCriteria.getReportDateFrom(), caseCriteria.getReportDateTo())
+			&& isWholeDays(caseCriteria.getOutcomeDateFrom(), caseCriteria.getOutcomeDateTo());
+	}
+
+	private static boolean isWholeDays(Date from, Date to) {
+		return (from == null || from.getTime() == DateHelper.getStartOfDay(from).getTime())
+			&& (to == null || to.getTime() == DateHelper.getEndOfDay(to).getTime());
+	}
+
+	/**
+	 * Builds the SQL query string and list of parameters to count the cases in the case statistics cube
+	 */
+	public Pair<String, List<Object>> buildCubeCaseCountQuery(
+		StatisticsCaseCriteria caseCriteria,
+		StatisticsCaseAttribute groupingA,
+		StatisticsCaseSubAttribute subGroupingA,
+		StatisticsCaseAttribute groupingB,
+		StatisticsCaseSubAttribute subGroupingB) {
+
+		StringBuilder cubeFilterBuilder = new StringBuilder();
+		List<Object> filterBuilderParameters = new ArrayList<Object>();
+		extendCaseFilterBuilder(cubeFilterBuilder, filterBuilderParameters, caseCriteria, CaseCountColumns.CUBE);
+		if (cubeFilterBuilder.length() > 0) {
+			cubeFilterBuilder.insert(0, " WHERE ");
+		}
+
+		String caseCount = "SUM(" + CaseStatisticsCell.TABLE_NAME + "." + CaseStatisticsCell.CASE_COUNT + ")";
+		return new ImmutablePair<String, List<Object>>(
+			completeCaseCountQuery(
+				"COALESCE(" + caseCount + ", 0)",
+				CaseStatisticsCell.TABLE_NAME,
+				cubeFilterBuilder,
+				// cells of changed cases may sum up to zero until they are compacted
+				" HAVING " + caseCount + " <> 0",
+				CaseCountColumns.CUBE,
+				groupingA,
+				subGroupingA,
+				groupingB,
+				subGroupingB),
+			filterBuilderParameters);
+	}
+
 	/**
 	 * private void replaceIdsWithGroupingKeys(List<StatisticsCaseCountDto> results, StatisticsCaseAttribute groupingA,
 	 * for (StatisticsCaseCountDto result : results) {
@@ -407,306 +498,312 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		caseFilterBuilder.append(")");
 		List<Object> filterBuilderParameters = new ArrayList<Object>();
 
+		extendCaseFilterBuilder(caseFilterBuilder, filterBuilderParameters, caseCriteria, CaseCountColumns.RAW);
+
+		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonRegions())) {
+			List<Long> regionIds = regionService.getIdsByReferenceDtos(caseCriteria.getPersonRegions());
+			extendFilterBuilderWithSimpleValue(
+				caseFilterBuilder,
+				filterBuilderParameters,
+				Location.TABLE_NAME + "." + Location.REGION + "_id",
+				regionIds,
+				entry -> entry);
+		}
+		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonDistricts())) {
+			List<Long> districtIds = districtService.getIdsByReferenceDtos(caseCriteria.getPersonDistricts());
+			extendFilterBuilderWithSimpleValue(
+				caseFilterBuilder,
+				filterBuilderParameters,
+				Location.TABLE_NAME + "." + Location.DISTRICT + "_id",
+				districtIds,
+				entry -> entry);
+		}
+		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonCommunities())) {
+			List<Long> communityIds = communityService.getIdsByReferenceDtos(caseCriteria.getPersonCommunities());
+			extendFilterBuilderWithSimpleValue(
+				caseFilterBuilder,
+				filterBuilderParameters,
+				Location.TABLE_NAME + "." + Location.COMMUNITY + "_id",
+				communityIds,
+				entry -> entry);
+		}
+		if (StringUtils.isNotEmpty(caseCriteria.getPersonCity())) {
+			extendFilterBuilderWithLike(caseFilterBuilder, Location.TABLE_NAME + "." + Location.CITY, caseCriteria.getPersonCity());
+		}
+		if (StringUtils.isNotEmpty(caseCriteria.getPersonPostcode())) {
+			extendFilterBuilderWithLike(caseFilterBuilder, Location.TABLE_NAME + "." + Location.POSTAL_CODE, caseCriteria.getPersonPostcode());
+		}
+
+		if (CollectionUtils.isNotEmpty(caseCriteria.getReportingUserRoles())) {
+			extendFilterBuilderWithSimpleValue(
+				caseFilterBuilder,
+				filterBuilderParameters,
+				User.TABLE_NAME_USERROLES + "." + UserDto.COLUMN_NAME_USERROLE,
+				caseCriteria.getReportingUserRoles(),
+				entry -> entry.name());
+		}
+
+		return new ImmutablePair<String, List<Object>>(
+			completeCaseCountQuery(
+				"COUNT(*)",
+				Case.TABLE_NAME + caseJoinBuilder,
+				caseFilterBuilder,
+				"",
+				CaseCountColumns.RAW,
+				groupingA,
+				subGroupingA,
+				groupingB,
+				subGroupingB),
+			filterBuilderParameters);
+	}
+
+	/**
+	 * Adds the filters of the case criteria that are available for the cases as well as for the case statistics cube.
+	 */
+	private void extendCaseFilterBuilder(
+		StringBuilder filterBuilder,
+		List<Object> filterBuilderParameters,
+		StatisticsCaseCriteria caseCriteria,
+		CaseCountColumns columns) {
+
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetYears())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"YEAR",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetYears(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuarters())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"QUARTER",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetQuarters(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonths())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"MONTH",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetMonths(),
 				dateValue -> (dateValue.ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeks())) {
 			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetEpiWeeks(),
 				value -> value.getWeek());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuartersOfYear())) {
 			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetQuartersOfYear(),
 				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonthsOfYear())) {
 			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetMonthsOfYear(),
 				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeksOfYear())) {
 			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
+				columns.onsetDate,
 				caseCriteria.getOnsetEpiWeeksOfYear(),
 				value -> value.getYear() * 100 + value.getWeek());
 		}
 
 		if (caseCriteria.getOnsetDateFrom() != null || caseCriteria.getOnsetDateTo() != null) {
 			extendFilterBuilderWithDate(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				caseCriteria.getOnsetDateFrom(),
 				caseCriteria.getOnsetDateTo(),
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE);
+				columns.onsetDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportYears())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"YEAR",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportYears(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuarters())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"QUARTER",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportQuarters(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonths())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"MONTH",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportMonths(),
 				dateValue -> (dateValue.ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeks())) {
 			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportEpiWeeks(),
 				value -> value.getWeek());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuartersOfYear())) {
 			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportQuartersOfYear(),
 				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonthsOfYear())) {
 			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportMonthsOfYear(),
 				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeksOfYear())) {
 			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
+				columns.reportDate,
 				caseCriteria.getReportEpiWeeksOfYear(),
 				value -> value.getYear() * 100 + value.getWeek());
 		}
 
 		if (caseCriteria.getReportDateFrom() != null || caseCriteria.getReportDateTo() != null) {
 			extendFilterBuilderWithDate(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				caseCriteria.getReportDateFrom(),
 				caseCriteria.getReportDateTo(),
-				Case.TABLE_NAME,
-				Case.REPORT_DATE);
+				columns.reportDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeYears())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"YEAR",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeYears(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeQuarters())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"QUARTER",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeQuarters(),
 				dateValue -> (dateValue.getValue()));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeMonths())) {
 			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				"MONTH",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeMonths(),
 				dateValue -> (dateValue.ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeEpiWeeks())) {
 			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeEpiWeeks(),
 				value -> value.getWeek());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeQuartersOfYear())) {
 			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeQuartersOfYear(),
 				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeMonthsOfYear())) {
 			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeMonthsOfYear(),
 				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeEpiWeeksOfYear())) {
 			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
+				columns.outcomeDate,
 				caseCriteria.getOutcomeEpiWeeksOfYear(),
 				value -> value.getYear() * 100 + value.getWeek());
 		}
 
 		if (caseCriteria.getOutcomeDateFrom() != null || caseCriteria.getOutcomeDateTo() != null) {
 			extendFilterBuilderWithDate(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
 				caseCriteria.getOutcomeDateFrom(),
 				caseCriteria.getOutcomeDateTo(),
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE);
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonRegions())) {
-			List<Long> regionIds = regionService.getIdsByReferenceDtos(caseCriteria.getPersonRegions());
-			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Location.TABLE_NAME,
-				Location.REGION + "_id",
-				regionIds,
-				entry -> entry);
-		}
-		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonDistricts())) {
-			List<Long> districtIds = districtService.getIdsByReferenceDtos(caseCriteria.getPersonDistricts());
-			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Location.TABLE_NAME,
-				Location.DISTRICT + "_id",
-				districtIds,
-				entry -> entry);
-		}
-		if (CollectionUtils.isNotEmpty(caseCriteria.getPersonCommunities())) {
-			List<Long> communityIds = communityService.getIdsByReferenceDtos(caseCriteria.getPersonCommunities());
-			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Location.TABLE_NAME,
-				Location.COMMUNITY + "_id",
-				communityIds,
-				entry -> entry);
-		}
-		if (StringUtils.isNotEmpty(caseCriteria.getPersonCity())) {
-			extendFilterBuilderWithLike(caseFilterBuilder, Location.TABLE_NAME, Location.CITY, caseCriteria.getPersonCity());
-		}
-		if (StringUtils.isNotEmpty(caseCriteria.getPersonPostcode())) {
-			extendFilterBuilderWithLike(caseFilterBuilder, Location.TABLE_NAME, Location.POSTAL_CODE, caseCriteria.getPersonPostcode());
+				columns.outcomeDate);
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getSexes()) || caseCriteria.isSexUnknown() != null) {
-			if (caseFilterBuilder.length() > 0) {
-				caseFilterBuilder.append(" AND ");
+			if (filterBuilder.length() > 0) {
+				filterBuilder.append(" AND ");
 			}
 
-			caseFilterBuilder.append("(");
+			filterBuilder.append("(");
 			StringBuilder subFilterBuilder = new StringBuilder();
 
 			if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
 				extendFilterBuilderWithSimpleValue(
 					subFilterBuilder,
 					filterBuilderParameters,
-					Person.TABLE_NAME,
-					Person.SEX,
+					columns.sex,
 					caseCriteria.getSexes(),
 					entry -> entry.name());
 			}
@@ -715,23 +812,21 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				if (subFilterBuilder.length() > 0) {
 					subFilterBuilder.append(" OR ");
 				}
-				subFilterBuilder.append(Person.TABLE_NAME)
-					.append(".")
-					.append(Person.SEX)
+				subFilterBuilder.append(columns.sex)
 					.append(" IS ")
 					.append(caseCriteria.isSexUnknown() == true ? "NULL" : "NOT NULL");
 			}
 
-			caseFilterBuilder.append(subFilterBuilder);
-			caseFilterBuilder.append(")");
+			filterBuilder.append(subFilterBuilder);
+			filterBuilder.append(")");
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getAgeIntervals())) {
-			if (caseFilterBuilder.length() > 0) {
-				caseFilterBuilder.append(" AND ");
+			if (filterBuilder.length() > 0) {
+				filterBuilder.append(" AND ");
 			}
 
-			caseFilterBuilder.append("(");
+			filterBuilder.append("(");
 			StringBuilder subFilterBuilder = new StringBuilder();
 
 			Integer upperRangeBoundary = null;
@@ -753,8 +848,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				extendFilterBuilderWithSimpleValue(
 					subFilterBuilder,
 					filterBuilderParameters,
-					Case.TABLE_NAME,
-					Case.CASE_AGE,
+					columns.caseAge,
 					agesList,
 					value -> value);
 			}
@@ -763,7 +857,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				if (subFilterBuilder.length() > 0) {
 					subFilterBuilder.append(" OR ");
 				}
-				subFilterBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= ?").append(filterBuilderParameters.size() + 1);
+				subFilterBuilder.append(columns.caseAge).append(" >= ?").append(filterBuilderParameters.size() + 1);
 				filterBuilderParameters.add(upperRangeBoundary);
 			}
 
@@ -771,39 +865,36 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				if (subFilterBuilder.length() > 0) {
 					subFilterBuilder.append(" OR ");
 				}
-				subFilterBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" IS NULL");
+				subFilterBuilder.append(columns.caseAge).append(" IS NULL");
 			}
 
-			caseFilterBuilder.append(subFilterBuilder);
-			caseFilterBuilder.append(")");
+			filterBuilder.append(subFilterBuilder);
+			filterBuilder.append(")");
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDiseases())) {
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.DISEASE,
+				columns.disease,
 				caseCriteria.getDiseases(),
 				entry -> entry.name());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getClassifications())) {
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.CASE_CLASSIFICATION,
+				columns.caseClassification,
 				caseCriteria.getClassifications(),
 				entry -> entry.name());
 		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomes())) {
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME,
+				columns.outcome,
 				caseCriteria.getOutcomes(),
 				entry -> entry.name());
 		}
@@ -811,10 +902,9 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		if (CollectionUtils.isNotEmpty(caseCriteria.getRegions())) {
 			List<Long> regionIds = regionService.getIdsByReferenceDtos(caseCriteria.getRegions());
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.RESPONSIBLE_REGION + "_id",
+				columns.responsibleRegion,
 				regionIds,
 				entry -> entry);
 		}
@@ -822,10 +912,9 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDistricts())) {
 			List<Long> districtIds = districtService.getIdsByReferenceDtos(caseCriteria.getDistricts());
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.RESPONSIBLE_DISTRICT + "_id",
+				columns.responsibleDistrict,
 				districtIds,
 				entry -> entry);
 		}
@@ -833,10 +922,9 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		if (CollectionUtils.isNotEmpty(caseCriteria.getCommunities())) {
 			List<Long> communityIds = communityService.getIdsByReferenceDtos(caseCriteria.getCommunities());
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.RESPONSIBLE_COMMUNITY + "_id",
+				columns.responsibleCommunity,
 				communityIds,
 				entry -> entry);
 		}
@@ -844,26 +932,39 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		if (CollectionUtils.isNotEmpty(caseCriteria.getHealthFacilities())) {
 			List<Long> facilityIds = facilityService.getIdsByReferenceDtos(caseCriteria.getHealthFacilities());
 			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.HEALTH_FACILITY + "_id",
+				columns.healthFacility,
 				facilityIds,
 				entry -> entry);
 		}
+	}
 
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportingUserRoles())) {
-			extendFilterBuilderWithSimpleValue(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				User.TABLE_NAME_USERROLES,
-				UserDto.COLUMN_NAME_USERROLE,
-				caseCriteria.getReportingUserRoles(),
-				entry -> entry.name());
-		}
+	/**
+	 * Adds the groupings and the order to a case count query.
+	 * 
+	 * @param countExpression
+	 *            SQL expression of the case count
+	 * @param fromClause
+	 *            Tables and joins of the query
+	 * @param filterBuilder
+	 *            The complete WHERE clause, if any
+	 * @param groupHavingClause
+	 *            HAVING clause added when the results are grouped
+	 */
+	private String completeCaseCountQuery(
+		String countExpression,
+		String fromClause,
+		StringBuilder filterBuilder,
+		String groupHavingClause,
+		CaseCountColumns columns,
+		StatisticsCaseAttribute groupingA,
+		StatisticsCaseSubAttribute subGroupingA,
+		StatisticsCaseAttribute groupingB,
+		StatisticsCaseSubAttribute subGroupingB) {
 
 		//////////////
-		// 3. Add selected groupings
+		// 1. Add selected groupings
 		/////////////
 
 		String groupingSelectQueryA = null, groupingSelectQueryB = null;
@@ -876,11 +977,11 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			caseGroupByBuilder.append(" GROUP BY ");
 
 			if (groupingA != null) {
-				groupingSelectQueryA = buildCaseGroupingSelectQuery(groupingA, subGroupingA, groupAAlias);
+				groupingSelectQueryA = buildCaseGroupingSelectQuery(groupingA, subGroupingA, columns, groupAAlias);
 				caseGroupByBuilder.append(groupAAlias);
 			}
 			if (groupingB != null) {
-				groupingSelectQueryB = buildCaseGroupingSelectQuery(groupingB, subGroupingB, groupBAlias);
+				groupingSelectQueryB = buildCaseGroupingSelectQuery(groupingB, subGroupingB, columns, groupBAlias);
 				if (groupingA != null) {
 					caseGroupByBuilder.append(",");
 				}
@@ -889,7 +990,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		}
 
 		//////////////
-		// 4. Order results
+		// 2. Order results
 		/////////////
 
 		orderByBuilder.append(" ORDER BY ");
@@ -905,7 +1006,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 
 		StringBuilder queryBuilder = new StringBuilder();
 
-		queryBuilder.append("SELECT COUNT(*) AS casecount ");
+		queryBuilder.append("SELECT ").append(countExpression).append(" AS casecount ");
 
 		if (groupingSelectQueryA != null) {
 			queryBuilder.append(", ").append(groupingSelectQueryA);
@@ -918,13 +1019,13 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			queryBuilder.append(", null\\:\\:text AS ").append(groupBAlias);
 		}
 
-		queryBuilder.append(" FROM ").append(Case.TABLE_NAME).append(caseJoinBuilder).append(caseFilterBuilder).append(caseGroupByBuilder);
+		queryBuilder.append(" FROM ").append(fromClause).append(filterBuilder).append(caseGroupByBuilder);
 
 		if (groupingA != null || groupingB != null) {
-			queryBuilder.append(orderByBuilder);
+			queryBuilder.append(groupHavingClause).append(orderByBuilder);
 		}
 
-		return new ImmutablePair<String, List<Object>>(queryBuilder.toString(), filterBuilderParameters);
+		return queryBuilder.toString();
 	}
 
 	/**
@@ -985,8 +1086,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithSimpleValue(
 				whereBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.REGION + "_id",
+				PopulationData.TABLE_NAME + "." + PopulationData.REGION + "_id",
 				regionIds,
 				entry -> entry);
 		}
@@ -1000,8 +1100,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithSimpleValue(
 					whereBuilder,
 					filterBuilderParameters,
-					PopulationData.TABLE_NAME,
-					PopulationData.COMMUNITY + "_id",
+					PopulationData.TABLE_NAME + "." + PopulationData.COMMUNITY + "_id",
 					communityIds,
 					entry -> entry);
 			usesCommunitys = true;
@@ -1032,8 +1131,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithSimpleValue(
 				whereBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.DISTRICT + "_id",
+				PopulationData.TABLE_NAME + "." + PopulationData.DISTRICT + "_id",
 				districtIds,
 				entry -> entry);
 			usesDistricts = true;
@@ -1063,8 +1161,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithSimpleValue(
 				subFilterBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.SEX,
+				PopulationData.TABLE_NAME + "." + PopulationData.SEX,
 				caseCriteria.getSexes(),
 				entry -> entry.name());
 			whereBuilder.append(subFilterBuilder);
@@ -1098,8 +1195,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithSimpleValue(
 				subFilterBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.AGE_GROUP,
+				PopulationData.TABLE_NAME + "." + PopulationData.AGE_GROUP,
 				ageGroups,
 				entry -> entry.name());
 			whereBuilder.append(subFilterBuilder);
@@ -1211,20 +1307,19 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		return null;
 	}
 
-	private void extendFilterBuilderWithLike(StringBuilder filterBuilder, String tableName, String fieldName, String filterValue) {
+	private void extendFilterBuilderWithLike(StringBuilder filterBuilder, String column, String filterValue) {
 
 		if (filterBuilder.length() > 0) {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append(tableName).append(".").append(fieldName).append(" LIKE ").append("'%").append(filterValue).append("%'");
+		filterBuilder.append(column).append(" LIKE ").append("'%").append(filterValue).append("%'");
 	}
 
 	private <T> StringBuilder extendFilterBuilderWithSimpleValue(
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, ?> valueMapper) {
 
@@ -1232,7 +1327,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append(tableName).append(".").append(fieldName).append(" IN ");
+		filterBuilder.append(column).append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
 	}
 
@@ -1241,8 +1336,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		List<Object> filterBuilderParameters,
 		Date from,
 		Date to,
-		String tableName,
-		String fieldName) {
+		String column) {
 
 		if (from != null || to != null) {
 			if (filterBuilder.length() > 0) {
@@ -1250,15 +1344,15 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			}
 
 			if (from != null && to != null) {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" BETWEEN ?").append(filterBuilderParameters.size() + 1);
+				filterBuilder.append(column).append(" BETWEEN ?").append(filterBuilderParameters.size() + 1);
 				filterBuilderParameters.add(from);
 				filterBuilder.append(" AND ?").append(filterBuilderParameters.size() + 1).append("");
 				filterBuilderParameters.add(to);
 			} else if (from != null) {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" >= ?").append(filterBuilderParameters.size() + 1);
+				filterBuilder.append(column).append(" >= ?").append(filterBuilderParameters.size() + 1);
 				filterBuilderParameters.add(from);
 			} else {
-				filterBuilder.append(tableName).append(".").append(fieldName).append(" <= ?").append(filterBuilderParameters.size() + 1);
+				filterBuilder.append(column).append(" <= ?").append(filterBuilderParameters.size() + 1);
 				filterBuilderParameters.add(to);
 			}
 		}
@@ -1270,8 +1364,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
 		String dateElementToExtract,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, Integer> valueMapper) {
 
@@ -1280,9 +1373,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		}
 
 		filterBuilder.append("(CAST(EXTRACT(" + dateElementToExtract + " FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(")  AS integer))")
 			.append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
@@ -1291,8 +1382,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	private <T> StringBuilder extendFilterBuilderWithEpiWeek(
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, Integer> valueMapper) {
 
@@ -1300,15 +1390,14 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			filterBuilder.append(" AND ");
 		}
 
-		filterBuilder.append("epi_week(").append(tableName).append(".").append(fieldName).append(")").append(" IN ");
+		filterBuilder.append("epi_week(").append(column).append(")").append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
 	}
 
 	private <T> StringBuilder extendFilterBuilderWithEpiWeekOfYear(
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, Integer> valueMapper) {
 
@@ -1317,15 +1406,11 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		}
 
 		filterBuilder.append("(epi_year(")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(")")
 			.append(" * 100")
 			.append(" + epi_week(")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append("))")
 			.append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
@@ -1334,8 +1419,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	private <T> StringBuilder extendFilterBuilderWithQuarterOfYear(
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, Integer> valueMapper) {
 
@@ -1344,14 +1428,10 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		}
 
 		filterBuilder.append("(CAST(EXTRACT(YEAR FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(")")
 			.append(" * 10 AS integer)) + (CAST(EXTRACT(QUARTER FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") AS integer))")
 			.append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
@@ -1360,8 +1440,7 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	private <T> StringBuilder extendFilterBuilderWithMonthOfYear(
 		StringBuilder filterBuilder,
 		List<Object> filterBuilderParameters,
-		String tableName,
-		String fieldName,
+		String column,
 		List<T> values,
 		Function<T, Integer> valueMapper) {
 
@@ -1370,48 +1449,48 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		}
 
 		filterBuilder.append("(CAST(EXTRACT(YEAR FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(")")
 			.append(" * 100 AS integer)) + (CAST(EXTRACT(MONTH FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") AS integer))")
 			.append(" IN ");
 		return QueryHelper.appendInFilterValues(filterBuilder, filterBuilderParameters, values, valueMapper);
 	}
 
-	private String buildCaseGroupingSelectQuery(StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping, String groupAlias) {
+	private String buildCaseGroupingSelectQuery(
+		StatisticsCaseAttribute grouping,
+		StatisticsCaseSubAttribute subGrouping,
+		CaseCountColumns columns,
+		String groupAlias) {
 
 		StringBuilder groupingSelectPartBuilder = new StringBuilder();
 		switch (grouping) {
 		case SEX:
-			groupingSelectPartBuilder.append(Person.TABLE_NAME).append(".").append(Person.SEX).append(" AS ").append(groupAlias);
+			groupingSelectPartBuilder.append(columns.sex).append(" AS ").append(groupAlias);
 			break;
 		case DISEASE:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.DISEASE).append(" AS ").append(groupAlias);
+			groupingSelectPartBuilder.append(columns.disease).append(" AS ").append(groupAlias);
 			break;
 		case CLASSIFICATION:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_CLASSIFICATION).append(" AS ").append(groupAlias);
+			groupingSelectPartBuilder.append(columns.caseClassification).append(" AS ").append(groupAlias);
 			break;
 		case OUTCOME:
-			groupingSelectPartBuilder.append(Case.TABLE_NAME).append(".").append(Case.OUTCOME).append(" AS ").append(groupAlias);
+			groupingSelectPartBuilder.append(columns.outcome).append(" AS ").append(groupAlias);
 			break;
 		case JURISDICTION: {
 			switch (subGrouping) {
 			case REGION:
-				groupingSelectPartBuilder.append(Region.TABLE_NAME).append(".").append(Region.ID).append(" AS ").append(groupAlias);
+				groupingSelectPartBuilder.append(columns.regionGrouping).append(" AS ").append(groupAlias);
 				break;
 			case DISTRICT:
-				groupingSelectPartBuilder.append(District.TABLE_NAME).append(".").append(District.ID).append(" AS ").append(groupAlias);
+				groupingSelectPartBuilder.append(columns.districtGrouping).append(" AS ").append(groupAlias);
 				break;
 			case COMMUNITY:
-				groupingSelectPartBuilder.append(Community.TABLE_NAME).append(".").append(Community.ID).append(" AS ").append(groupAlias);
+				groupingSelectPartBuilder.append(columns.communityGrouping).append(" AS ").append(groupAlias);
 				break;
 			case FACILITY:
-				groupingSelectPartBuilder.append(Facility.TABLE_NAME).append(".").append(Facility.ID).append(" AS ").append(groupAlias);
+				groupingSelectPartBuilder.append(columns.facilityGrouping).append(" AS ").append(groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1424,30 +1503,30 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		case AGE_INTERVAL_CHILDREN_FINE:
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 		case AGE_INTERVAL_BASIC:
-			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, groupAlias);
+			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, columns.caseAge, groupAlias);
 			break;
 		case ONSET_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", columns.onsetDate, groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", columns.onsetDate, groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", columns.onsetDate, groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, columns.onsetDate, groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, columns.onsetDate, groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, columns.onsetDate, groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, columns.onsetDate, groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1456,25 +1535,25 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		case REPORT_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", columns.reportDate, groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", columns.reportDate, groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", columns.reportDate, groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, columns.reportDate, groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, columns.reportDate, groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, columns.reportDate, groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, columns.reportDate, groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1483,25 +1562,25 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		case OUTCOME_TIME:
 			switch (subGrouping) {
 			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", columns.outcomeDate, groupAlias);
 				break;
 			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", columns.outcomeDate, groupAlias);
 				break;
 			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", columns.outcomeDate, groupAlias);
 				break;
 			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, columns.outcomeDate, groupAlias);
 				break;
 			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, columns.outcomeDate, groupAlias);
 				break;
 			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, columns.outcomeDate, groupAlias);
 				break;
 			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
+				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, columns.outcomeDate, groupAlias);
 				break;
 			default:
 				throw new IllegalArgumentException(subGrouping.toString());
@@ -1523,77 +1602,64 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	private void extendGroupingBuilderWithDate(
 		StringBuilder groupingBuilder,
 		String dateToExtract,
-		String tableName,
-		String fieldName,
+		String column,
 		String groupAlias) {
 
 		groupingBuilder.append("(CAST(EXTRACT(" + dateToExtract + " FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") AS integer)) AS ")
 			.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithEpiWeek(StringBuilder groupingBuilder, String tableName, String fieldName, String groupAlias) {
-		groupingBuilder.append("epi_week(").append(tableName).append(".").append(fieldName).append(") AS ").append(groupAlias);
+	private void extendGroupingBuilderWithEpiWeek(StringBuilder groupingBuilder, String column, String groupAlias) {
+		groupingBuilder.append("epi_week(").append(column).append(") AS ").append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithEpiWeekOfYear(StringBuilder groupingBuilder, String tableName, String fieldName, String groupAlias) {
+	private void extendGroupingBuilderWithEpiWeekOfYear(StringBuilder groupingBuilder, String column, String groupAlias) {
 
 		groupingBuilder.append("(epi_year(")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") * 100")
 			.append(" + epi_week(")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(")) AS ")
 			.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithQuarterOfYear(StringBuilder groupingBuilder, String tableName, String fieldName, String groupAlias) {
+	private void extendGroupingBuilderWithQuarterOfYear(StringBuilder groupingBuilder, String column, String groupAlias) {
 
 		groupingBuilder.append("((CAST(EXTRACT(YEAR FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") * 10 AS integer)))")
 			.append(" + (CAST(EXTRACT(QUARTER FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") AS integer)) AS ")
 			.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithMonthOfYear(StringBuilder groupingBuilder, String tableName, String fieldName, String groupAlias) {
+	private void extendGroupingBuilderWithMonthOfYear(StringBuilder groupingBuilder, String column, String groupAlias) {
 
 		groupingBuilder.append("((CAST(EXTRACT(YEAR FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") * 100 AS integer)))")
 			.append(" + (CAST(EXTRACT(MONTH FROM ")
-			.append(tableName)
-			.append(".")
-			.append(fieldName)
+			.append(column)
 			.append(") AS integer)) AS ")
 			.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithAgeInterval(StringBuilder groupingBuilder, StatisticsCaseAttribute grouping, String groupAlias) {
+	private void extendGroupingBuilderWithAgeInterval(
+		StringBuilder groupingBuilder,
+		StatisticsCaseAttribute grouping,
+		String caseAgeColumn,
+		String groupAlias) {
 
 		groupingBuilder.append("CASE ");
 		switch (grouping) {
 		case AGE_INTERVAL_1_YEAR:
 			for (int i = 0; i < 80; i++) {
 				groupingBuilder.append("WHEN ")
-					.append(Case.TABLE_NAME)
-					.append(".")
-					.append(Case.CASE_AGE)
+					.append(caseAgeColumn)
 					.append(" = ")
 					.append(i < 10 ? "0" + i : i)
 					.append(" THEN ")
@@ -1604,24 +1670,22 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			break;
 		case AGE_INTERVAL_5_YEARS:
 			for (AgeGroup ageGroup : AgeGroup.values()) {
-				addAgeGroupToStringBuilder(groupingBuilder, ageGroup);
+				addAgeGroupToStringBuilder(groupingBuilder, caseAgeColumn, ageGroup);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_COARSE:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 14);
+			addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, 0, 14);
 			for (int i = 15; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_FINE:
 			for (int i = 0; i < 5; i++) {
 				groupingBuilder.append("WHEN ")
-					.append(Case.TABLE_NAME)
-					.append(".")
-					.append(Case.CASE_AGE)
+					.append(caseAgeColumn)
 					.append(" = ")
 					.append(i)
 					.append(" THEN ")
@@ -1632,44 +1696,42 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 					.append("' ");
 			}
 			for (int i = 5; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 			for (int i = 0; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_BASIC:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 0);
-			addAgeIntervalToStringBuilder(groupingBuilder, 1, 3);
-			addAgeIntervalToStringBuilder(groupingBuilder, 5, 9);
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= 15 THEN '15+' ");
+			addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, 0, 0);
+			addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, 1, 3);
+			addAgeIntervalToStringBuilder(groupingBuilder, caseAgeColumn, 5, 9);
+			groupingBuilder.append("WHEN ").append(caseAgeColumn).append(" >= 15 THEN '15+' ");
 			break;
 		default:
 			throw new IllegalArgumentException(grouping.toString());
 		}
 
 		if (grouping != StatisticsCaseAttribute.AGE_INTERVAL_BASIC && grouping != StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS) {
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= 80 THEN '80+' ");
+			groupingBuilder.append("WHEN ").append(caseAgeColumn).append(" >= 80 THEN '80+' ");
 		}
 		groupingBuilder.append("ELSE NULL END AS " + groupAlias);
 	}
 
-	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, int number, int increase) {
+	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, String caseAgeColumn, int number, int increase) {
 
 		String lowerNumberString = number < 10 ? "0" + number : String.valueOf(number);
 		String higherNumberString = number + increase < 10 ? "0" + (number + increase) : String.valueOf(number + increase);
 		groupingBuilder.append("WHEN ")
-			.append(Case.TABLE_NAME)
-			.append(".")
-			.append(Case.CASE_AGE)
+			.append(caseAgeColumn)
 			.append(" BETWEEN ")
 			.append(number)
 			.append(" AND ")
@@ -1681,10 +1743,10 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			.append("' ");
 	}
 
-	private void addAgeGroupToStringBuilder(StringBuilder groupingBuilder, AgeGroup ageGroup) {
+	private void addAgeGroupToStringBuilder(StringBuilder groupingBuilder, String caseAgeColumn, AgeGroup ageGroup) {
 
 		IntegerRange ageRange = ageGroup.toIntegerRange();
-		groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE);
+		groupingBuilder.append("WHEN ").append(caseAgeColumn);
 		if (ageRange.getTo() == null) {
 			groupingBuilder.append(" >= ").append(ageRange.getFrom());
 		} else {
@@ -1693,6 +1755,75 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		groupingBuilder.append(" THEN '").append(ageGroup.name()).append("' ");
 	}
 
+	/**
+	 * Columns the case count queries filter and group by. The columns of the case statistics cube are named like the
+	 * columns of the cases.
+	 */
+	private static final class CaseCountColumns {
+
+		private static final CaseCountColumns RAW = new CaseCountColumns(
+			Case.TABLE_NAME,
+			Symptoms.TABLE_NAME,
+			Person.TABLE_NAME,
+			Region.TABLE_NAME + "." + Region.ID,
+			District.TABLE_NAME + "." + District.ID,
+			Community.TABLE_NAME + "." + Community.ID,
+			Facility.TABLE_NAME + "." + Facility.ID);
+
+		private static final CaseCountColumns CUBE = new CaseCountColumns(
+			CaseStatisticsCell.TABLE_NAME,
+			CaseStatisticsCell.TABLE_NAME,
+			CaseStatisticsCell.TABLE_NAME,
+			CaseStatisticsCell.TABLE_NAME + "." + CaseStatisticsDimensions.RESPONSIBLE_REGION_ID,
+			CaseStatisticsCell.TABLE_NAME + "." + CaseStatisticsDimensions.RESPONSIBLE_DISTRICT_ID,
+			CaseStatisticsCell.TABLE_NAME + "." + CaseStatisticsDimensions.RESPONSIBLE_COMMUNITY_ID,
+			CaseStatisticsCell.TABLE_NAME + "." + CaseStatisticsDimensions.HEALTH_FACILITY_ID);
+
+		private final String disease;
+		private final String caseClassification;
+		private final String outcome;
+		private final String sex;
+		private final String caseAge;
+		private final String responsibleRegion;
+		private final String responsibleDistrict;
+		private final String responsibleCommunity;
+		private final String healthFacility;
+		private final String reportDate;
+		private final String onsetDate;
+		private final String outcomeDate;
+		private final String regionGrouping;
+		private final String districtGrouping;
+		private final String communityGrouping;
+		private final String facilityGrouping;
+
+		private CaseCountColumns(
+			String caseTable,
+			String symptomsTable,
+			String personTable,
+			String regionGrouping,
+			String districtGrouping,
+			String communityGrouping,
+			String facilityGrouping) {
+
+			this.disease = caseTable + "." + Case.DISEASE;
+			this.caseClassification = caseTable + "." + Case.CASE_CLASSIFICATION;
+			this.outcome = caseTable + "." + Case.OUTCOME;
+			this.sex = personTable + "." + Person.SEX;
+			this.caseAge = caseTable + "." + Case.CASE_AGE;
+			this.responsibleRegion = caseTable + "." + Case.RESPONSIBLE_REGION + "_id";
+			this.responsibleDistrict = caseTable + "." + Case.RESPONSIBLE_DISTRICT + "_id";
+			this.responsibleCommunity = caseTable + "." + Case.RESPONSIBLE_COMMUNITY + "_id";
+			this.healthFacility = caseTable + "." + Case.HEALTH_FACILITY + "_id";
+			this.reportDate = caseTable + "." + Case.REPORT_DATE;
+			this.onsetDate = symptomsTable + "." + Symptoms.ONSET_DATE;
+			this.outcomeDate = caseTable + "." + Case.OUTCOME_DATE;
+			this.regionGrouping = regionGrouping;
+			this.districtGrouping = districtGrouping;
+			this.communityGrouping = communityGrouping;
+			this.facilityGrouping = facilityGrouping;
+		}
+	}
+
 	@LocalBean
 	@Stateless
 	public static class CaseStatisticsFacadeEjbLocal extends CaseStatisticsFacadeEjb {
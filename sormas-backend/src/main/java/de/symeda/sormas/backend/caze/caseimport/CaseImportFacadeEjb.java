@@ -20,10 +20,12 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -64,6 +66,7 @@ import de.symeda.sormas.api.person.PersonHelper;
 import de.symeda.sormas.api.person.PersonReferenceDto;
 import de.symeda.sormas.api.region.CommunityReferenceDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.sample.PathogenTestDto;
 import de.symeda.sormas.api.sample.SampleDto;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
@@ -79,6 +82,8 @@ import de.symeda.sormas.backend.importexport.ImportCellData;
 import de.symeda.sormas.backend.importexport.ImportErrorException;
 import de.symeda.sormas.backend.importexport.ImportFacadeEjb.ImportFacadeEjbLocal;
 import de.symeda.sormas.backend.importexport.ImportHelper;
+import de.symeda.sormas.backend.importexport.ImportLookupCache;
+import de.symeda.sormas.backend.importexport.ImportLookupCache.ImportLookups;
 import de.symeda.sormas.backend.infrastructure.PointOfEntryFacadeEjb.PointOfEntryFacadeEjbLocal;
 import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
 import de.symeda.sormas.backend.region.CommunityFacadeEjb.CommunityFacadeEjbLocal;
@@ -116,6 +121,8 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 	private FeatureConfigurationFacadeEjbLocal featureConfigurationFacade;
 	@EJB
 	private ImportFacadeEjbLocal importFacade;
+	@EJB
+	private ImportLookupCache importLookupCache;
 
 	@Override
 	@Transactional
@@ -127,6 +134,82 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 		boolean ignoreEmptyEntries)
 		throws InvalidColumnException {
 
+		ImportLineResultDto<CaseImportEntities> validationResult =
+			buildAndValidateEntities(values, entityClasses, entityProperties, entityPropertyPaths, ignoreEmptyEntries, ImportLookups.NONE);
+		if (validationResult.isError()) {
+			return validationResult;
+		}
+
+		return saveValidatedEntities(validationResult.getImportEntities());
+	}
+
+	@Override
+	public List<ImportLineResultDto<CaseImportEntities>> validateCaseData(
+		String importUuid,
+		List<String[]> lines,
+		String[] entityClasses,
+		String[] entityProperties,
+		String[][] entityPropertyPaths,
+		boolean containsFirstLine)
+		throws InvalidColumnException {
+
+		ImportLookups lookups = importLookupCache.getLookups(importUuid);
+
+		List<ImportLineResultDto<CaseImportEntities>> results = new ArrayList<>(lines.size());
+		for (int i = 0; i < lines.size(); i++) {
+			boolean ignoreEmptyEntries = !containsFirstLine || i > 0;
+			results.add(buildAndValidateEntities(lines.get(i), entityClasses, entityProperties, entityPropertyPaths, ignoreEmptyEntries, lookups));
+		}
+		return results;
+	}
+
+	@Override
+	@Transactional
+	public List<ImportLineResultDto<CaseImportEntities>> saveValidatedEntities(List<CaseImportEntities> entities) {
+
+		// the persons of the batch are also compared with the persons preceding them in the batch
+		List<PersonDto> persons = entities.stream().map(CaseImportEntities::getPerson).collect(Collectors.toList());
+		List<Boolean> similarPersons = personFacade.arePersonsSimilarToExisting(persons);
+
+		List<PersonDto> savedPersons = new ArrayList<>(entities.size());
+		List<ImportLineResultDto<CaseImportEntities>> results = new ArrayList<>(entities.size());
+		for (int i = 0; i < entities.size(); i++) {
+			if (similarPersons.get(i)) {
+				results.add(ImportLineResultDto.duplicateResult(entities.get(i)));
+				// the following lines are only saved after the user has decided how to handle the similar person
+				break;
+			}
+
+			ImportLineResultDto<CaseImportEntities> result = saveImportedEntities(entities.get(i));
+			results.add(result);
+			if (result.isSuccess()) {
+				savedPersons.add(persons.get(i));
+			} else if (i + 1 < entities.size()) {
+				// the following persons must not be reported as similar to the person of this line, which has not been saved
+				List<PersonDto> remainingPersons = new ArrayList<>(savedPersons);
+				remainingPersons.addAll(persons.subList(i + 1, persons.size()));
+				List<Boolean> remainingSimilarPersons = personFacade.arePersonsSimilarToExisting(remainingPersons);
+				for (int j = i + 1; j < entities.size(); j++) {
+					similarPersons.set(j, remainingSimilarPersons.get(savedPersons.size() + j - i - 1));
+				}
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public void finishImport(String importUuid) {
+		importLookupCache.removeLookups(importUuid);
+	}
+
+	private ImportLineResultDto<CaseImportEntities> buildAndValidateEntities(
+		String[] values,
+		String[] entityClasses,
+		String[] entityProperties,
+		String[][] entityPropertyPaths,
+		boolean ignoreEmptyEntries,
+		ImportLookups lookups) {
+
 		// Check whether the new line has the same length as the header line
 		if (values.length > entityProperties.length) {
 			return ImportLineResultDto.errorResult(I18nProperties.getValidationError(Validations.importLineTooLong));
@@ -134,7 +217,7 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 
 		final CaseImportEntities entities = new CaseImportEntities(userService.getCurrentUser().toReference());
 		ImportLineResultDto<CaseImportEntities> importResult =
-			buildEntities(values, entityClasses, entityPropertyPaths, ignoreEmptyEntries, entities);
+			buildEntities(values, entityClasses, entityPropertyPaths, ignoreEmptyEntries, entities, lookups);
 		if (importResult.isError()) {
 			return importResult;
 		}
@@ -144,15 +227,19 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 			return validationResult;
 		}
 
-		PersonDto person = entities.getPerson();
+		return ImportLineResultDto.successResult(entities);
+	}
 
-		if (personFacade.isPersonSimilarToExisting(person)) {
+	/**
+	 * Saves the entities unless their person is similar to an existing one, which has to be resolved by the user.
+	 */
+	private ImportLineResultDto<CaseImportEntities> saveValidatedEntities(CaseImportEntities entities) {
+
+		if (personFacade.isPersonSimilarToExisting(entities.getPerson())) {
 			return ImportLineResultDto.duplicateResult(entities);
 		}
 
-		ImportLineResultDto<CaseImportEntities> result = saveImportedEntities(entities);
-
-		return result;
+		return saveImportedEntities(entities);
 	}
 
 	@Override
@@ -179,7 +266,8 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 		}
 
 		CaseImportEntities entities = new CaseImportEntities(person, caze);
-		ImportLineResultDto<CaseImportEntities> importResult = buildEntities(values, entityClasses, entityPropertyPaths, true, entities);
+		ImportLineResultDto<CaseImportEntities> importResult =
+			buildEntities(values, entityClasses, entityPropertyPaths, true, entities, ImportLookups.NONE);
 
 		if (importResult.isError()) {
 			return importResult;
@@ -247,7 +335,8 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 		String[] entityClasses,
 		String[][] entityPropertyPaths,
 		boolean ignoreEmptyEntries,
-		CaseImportEntities entities) {
+		CaseImportEntities entities,
+		ImportLookups lookups) {
 
 		final UserReferenceDto currentUserRef = userService.getCurrentUser().toReference();
 
@@ -294,7 +383,8 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 								samples.get(samples.size() - 1),
 								null,
 								cellData.getValue(),
-								cellData.getEntityPropertyPath());
+								cellData.getEntityPropertyPath(),
+								lookups);
 						}
 
 					} else if (DataHelper.equal(cellData.getEntityClass(), DataHelper.getHumanClassName(PathogenTestDto.class))) {
@@ -315,12 +405,13 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 									null,
 									pathogenTests.get(pathogenTests.size() - 1),
 									cellData.getValue(),
-									cellData.getEntityPropertyPath());
+									cellData.getEntityPropertyPath(),
+									lookups);
 							}
 						}
 					} else if (StringUtils.isNotEmpty(cellData.getValue())) {
 						// If the cell entry is not empty, try to insert it into the current case or its person
-						insertColumnEntryIntoData(caze, entities.getPerson(), cellData.getValue(), cellData.getEntityPropertyPath());
+						insertColumnEntryIntoData(caze, entities.getPerson(), cellData.getValue(), cellData.getEntityPropertyPath(), lookups);
 					}
 				} catch (ImportErrorException | InvalidColumnException e) {
 					return e;
@@ -392,7 +483,7 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 	/**
 	 * Inserts the entry of a single cell into the case or its person.
 	 */
-	private void insertColumnEntryIntoData(CaseDataDto caze, PersonDto person, String entry, String[] entryHeaderPath)
+	private void insertColumnEntryIntoData(CaseDataDto caze, PersonDto person, String entry, String[] entryHeaderPath, ImportLookups lookups)
 		throws InvalidColumnException, ImportErrorException {
 
 		Object currentElement = caze;
@@ -420,11 +511,14 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 
 					// Execute the default invokes specified in the data importer; if none of those were triggered, execute additional invokes
 					// according to the types of the case or person fields
-					if (importFacade.executeDefaultInvoke(pd, currentElement, entry, entryHeaderPath, false)) {
+					if (importFacade.executeDefaultInvoke(pd, currentElement, entry, entryHeaderPath, false, lookups)) {
 						continue;
 					} else if (propertyType.isAssignableFrom(DistrictReferenceDto.class)) {
-						List<DistrictReferenceDto> district = districtFacade
-							.getByName(entry, ImportHelper.getRegionBasedOnDistrict(pd.getName(), caze, null, null, person, currentElement), false);
+						final String districtName = entry;
+						RegionReferenceDto region = ImportHelper.getRegionBasedOnDistrict(pd.getName(), caze, null, null, person, currentElement);
+						List<DistrictReferenceDto> district = lookups.get(
+							Arrays.asList(DistrictReferenceDto.class, districtName, region),
+							() -> districtFacade.getByName(districtName, region, false));
 						if (district.isEmpty()) {
 							throw new ImportErrorException(
 								I18nProperties
@@ -436,8 +530,11 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 							pd.getWriteMethod().invoke(currentElement, district.get(0));
 						}
 					} else if (propertyType.isAssignableFrom(CommunityReferenceDto.class)) {
-						List<CommunityReferenceDto> community = communityFacade
-							.getByName(entry, ImportHelper.getDistrictBasedOnCommunity(pd.getName(), caze, person, currentElement), false);
+						final String communityName = entry;
+						DistrictReferenceDto district = ImportHelper.getDistrictBasedOnCommunity(pd.getName(), caze, person, currentElement);
+						List<CommunityReferenceDto> community = lookups.get(
+							Arrays.asList(CommunityReferenceDto.class, communityName, district),
+							() -> communityFacade.getByName(communityName, district, false));
 						if (community.isEmpty()) {
 							throw new ImportErrorException(
 								I18nProperties.getValidationError(
@@ -462,12 +559,17 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 							entry = FacilityDto.NO_FACILITY;
 						}
 
-						List<FacilityReferenceDto> facilities = facilityFacade.getByNameAndType(
-							entry,
-							infrastructureData.getElement0(),
-							infrastructureData.getElement1(),
-							getTypeOfFacility(pd.getName(), currentElement),
-							false);
+						final String facilityName = entry;
+						FacilityType facilityType = getTypeOfFacility(pd.getName(), currentElement);
+						List<FacilityReferenceDto> facilities = lookups.get(
+							Arrays.asList(
+								FacilityReferenceDto.class,
+								facilityName,
+								infrastructureData.getElement0(),
+								infrastructureData.getElement1(),
+								facilityType),
+							() -> facilityFacade
+								.getByNameAndType(facilityName, infrastructureData.getElement0(), infrastructureData.getElement1(), facilityType, false));
 
 						if (facilities.isEmpty()) {
 							if (infrastructureData.getElement1() != null) {
@@ -497,10 +599,14 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 					} else if (propertyType.isAssignableFrom(PointOfEntryReferenceDto.class)) {
 						PointOfEntryReferenceDto pointOfEntryReference;
 						DistrictReferenceDto pointOfEntryDistrict = CaseLogic.getDistrictWithFallback(caze);
-						List<PointOfEntryReferenceDto> customPointsOfEntry = pointOfEntryFacade.getByName(entry, pointOfEntryDistrict, false);
+						final String poeName = entry;
+						List<PointOfEntryReferenceDto> customPointsOfEntry = lookups.get(
+							Arrays.asList(PointOfEntryReferenceDto.class, poeName, pointOfEntryDistrict),
+							() -> pointOfEntryFacade.getByName(poeName, pointOfEntryDistrict, false));
 						if (customPointsOfEntry.isEmpty()) {
-							final String poeName = entry;
-							List<PointOfEntryDto> defaultPointOfEntries = pointOfEntryFacade.getByUuids(PointOfEntryDto.CONSTANT_POE_UUIDS);
+							List<PointOfEntryDto> defaultPointOfEntries = lookups.get(
+								Arrays.asList(PointOfEntryDto.class, PointOfEntryDto.CONSTANT_POE_UUIDS),
+								() -> pointOfEntryFacade.getByUuids(PointOfEntryDto.CONSTANT_POE_UUIDS));
 							Optional<PointOfEntryDto> defaultPointOfEntry = defaultPointOfEntries.stream()
 								.filter(
 									defaultPoe -> InfrastructureHelper.buildPointOfEntryString(defaultPoe.getUuid(), defaultPoe.getName())
@@ -556,7 +662,12 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 	/**
 	 * Inserts the entry of a single cell into the sample or pathogen test.
 	 */
-	private void insertColumnEntryIntoSampleData(SampleDto sample, PathogenTestDto test, String entry, String[] entryHeaderPath)
+	private void insertColumnEntryIntoSampleData(
+		SampleDto sample,
+		PathogenTestDto test,
+		String entry,
+		String[] entryHeaderPath,
+		ImportLookups lookups)
 		throws InvalidColumnException, ImportErrorException {
 		Object currentElement = sample != null ? sample : test;
 		for (int i = 0; i < entryHeaderPath.length; i++) {
@@ -571,10 +682,11 @@ public class CaseImportFacadeEjb implements CaseImportFacade {
 
 					// Execute the default invokes specified in the data importer; if none of those were triggered, execute additional invokes
 					// according to the types of the sample or pathogen test fields
-					if (importFacade.executeDefaultInvoke(pd, currentElement, entry, entryHeaderPath, false)) {
+					if (importFacade.executeDefaultInvoke(pd, currentElement, entry, entryHeaderPath, false, lookups)) {
 						continue;
 					} else if (propertyType.isAssignableFrom(FacilityReferenceDto.class)) {
-						List<FacilityReferenceDto> lab = facilityFacade.getLaboratoriesByName(entry, false);
+						List<FacilityReferenceDto> lab = lookups
+							.get(Arrays.asList(FacilityType.LABORATORY, entry), () -> facilityFacade.getLaboratoriesByName(entry, false));
 						if (lab.isEmpty()) {
 							throw new ImportErrorException(
 								I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildEntityProperty(entryHeaderPath)));
@@ -51,6 +51,7 @@ import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.user.CurrentUser;
 import de.symeda.sormas.backend.user.CurrentUserQualifier;
+import de.symeda.sormas.backend.user.CurrentUserSnapshot;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.ModelConstants;
 import de.symeda.sormas.backend.util.QueryHelper;
@@ -81,6 +82,14 @@ public class BaseAdoService<ADO extends AbstractDomainObject> implements AdoServ
 		return currentUser.get().getUser();
 	}
 
+	/**
+	 * @return The cached rights, roles and jurisdiction of the current user, null if there is none or it has been set by
+	 *         {@link #setCurrentUser(User)}.
+	 */
+	protected CurrentUserSnapshot getCurrentUserSnapshot() {
+		return currentUser.get().getSnapshot();
+	}
+
 	/**
 	 * Should only be used for testing scenarios of user rights & jurisdiction!
 	 * @param user
@@ -197,6 +206,20 @@ public class BaseAdoService<ADO extends AbstractDomainObject> implements AdoServ
 		return em.createQuery(cq).getResultList();
 	}
 
+	public List<ADO> getByIds(List<Long> ids) {
+
+		if (ids == null || ids.isEmpty()) {
+			return null;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<ADO> cq = cb.createQuery(getElementClass());
+		Root<ADO> from = cq.from(getElementClass());
+		cq.where(from.get(AbstractDomainObject.ID).in(ids));
+
+		return em.createQuery(cq).getResultList();
+	}
+
 	public Predicate createChangeDateFilter(CriteriaBuilder cb, From<?, ADO> from, Timestamp date) {
 		return cb.greaterThan(from.get(AbstractDomainObject.CHANGE_DATE), date);
 	}
@@ -94,6 +94,8 @@ public class ConfigFacadeEjb implements ConfigFacade {
 	public static final String NAME_SIMILARITY_THRESHOLD = "namesimilaritythreshold";
 
 	public static final String INFRASTRUCTURE_SYNC_THRESHOLD = "infrastructuresyncthreshold";
+	public static final String SYNC_BATCH_SIZE = "syncbatchsize";
+	public static final String PUSH_BATCH_SIZE = "pushbatchsize";
 
 	public static final String INTERFACE_SYMPTOM_JOURNAL_URL = "interface.symptomjournal.url";
 	public static final String INTERFACE_SYMPTOM_JOURNAL_AUTH_URL = "interface.symptomjournal.authurl";
@@ -122,6 +124,9 @@ public class ConfigFacadeEjb implements ConfigFacade {
 	private static final String GEOCODING_LONGITUDE_JSON_PATH = "geocodingLongitudeJsonPath";
 	private static final String GEOCODING_LATITUDE_JSON_PATH = "geocodingLatitudeJsonPath";
 	private static final String GEOCODING_EPSG4326_WKT = "geocodingEPSG4326_WKT";
+	private static final String GEOCODING_MAX_CONCURRENT_REQUESTS = "geocodingMaxConcurrentRequests";
+	private static final String GEOCODING_MAX_REQUESTS_PER_SECOND = "geocodingMaxRequestsPerSecond";
+	private static final String GEOCODING_CACHE_DAYS = "geocodingCacheDays";
 
 	private static final String SORMAS2SORMAS_FILES_PATH = "sormas2sormas.path";
 	private static final String SORMAS2SORMAS_SERVER_ACCESS_DATA_FILE_NAME = "sormas2sormas.serverAccessDataFileName";
@@ -137,11 +142,14 @@ public class ConfigFacadeEjb implements ConfigFacade {
 
 	private static final String DASHBOARD_MAP_MARKER_LIMIT = "dashboardMapMarkerLimit";
 	private static final String AUDITOR_ATTRIBUTE_LOGGING = "auditor.attribute.logging";
+	private static final String AUDIT_LOG_MODE = "auditlog.mode";
+	private static final String AUDIT_LOG_SPOOL_PATH = "auditlog.spoolPath";
 
 	private static final String CREATE_DEFAULT_ENTITIES = "createDefaultEntities";
 	private static final String SKIP_DEFAULT_PASSWORD_CHECK = "skipDefaultPasswordCheck";
 
 	private static final String STEP_SIZE_FOR_CSV_EXPORT = "stepSizeForCsvExport";
+	private static final String DATABASE_EXPORT_PARALLELISM = "databaseExportParallelism";
 
 	private static final String UI_URL = "ui.url";
 
@@ -388,6 +396,16 @@ public class ConfigFacadeEjb implements ConfigFacade {
 		return getInt(INFRASTRUCTURE_SYNC_THRESHOLD, 1000);
 	}
 
+	@Override
+	public int getSyncBatchSize() {
+		return getInt(SYNC_BATCH_SIZE, 500);
+	}
+
+	@Override
+	public int getPushBatchSize() {
+		return getInt(PUSH_BATCH_SIZE, 100);
+	}
+
 	@Override
 	public char getCsvSeparator() {
 
@@ -435,6 +453,21 @@ public class ConfigFacadeEjb implements ConfigFacade {
 			"GEOGCS[\"WGS 84\",DATUM[\"WGS_1984\",SPHEROID[\"WGS 84\",6378137,298.257223563,AUTHORITY[\"EPSG\",\"7030\"]],AUTHORITY[\"EPSG\",\"6326\"]],PRIMEM[\"Greenwich\",0,AUTHORITY[\"EPSG\",\"8901\"]],UNIT[\"degree\",0.01745329251994328,AUTHORITY[\"EPSG\",\"9122\"]],AXIS[\"Long\",EAST],AXIS[\"Lat\",NORTH],AUTHORITY[\"EPSG\",\"4326\"]]");
 	}
 
+	@Override
+	public int getGeocodingMaxConcurrentRequests() {
+		return getInt(GEOCODING_MAX_CONCURRENT_REQUESTS, 4);
+	}
+
+	@Override
+	public int getGeocodingMaxRequestsPerSecond() {
+		return getInt(GEOCODING_MAX_REQUESTS_PER_SECOND, 10);
+	}
+
+	@Override
+	public int getGeocodingCacheDays() {
+		return getInt(GEOCODING_CACHE_DAYS, 90);
+	}
+
 	@Override
 	public SymptomJournalConfig getSymptomJournalConfig() {
 		SymptomJournalConfig config = new SymptomJournalConfig();
@@ -601,11 +634,26 @@ public class ConfigFacadeEjb implements ConfigFacade {
 		return getBoolean(AUDITOR_ATTRIBUTE_LOGGING, true);
 	}
 
+	@Override
+	public String getAuditLogMode() {
+		return getProperty(AUDIT_LOG_MODE, "sync");
+	}
+
+	@Override
+	public String getAuditLogSpoolPath() {
+		return getProperty(AUDIT_LOG_SPOOL_PATH, "/opt/sormas/auditlog/");
+	}
+
 	@Override
 	public int getStepSizeForCsvExport() {
 		return getInt(STEP_SIZE_FOR_CSV_EXPORT, 5000);
 	}
 
+	@Override
+	public int getDatabaseExportParallelism() {
+		return getInt(DATABASE_EXPORT_PARALLELISM, 4);
+	}
+
 	@Override
 	public boolean isSmsServiceSetUp() {
 		return !StringUtils.isAnyBlank(getProperty(SMS_AUTH_KEY, null), getProperty(SMS_AUTH_SECRET, null));
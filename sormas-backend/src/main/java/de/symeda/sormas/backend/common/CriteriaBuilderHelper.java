@@ -20,6 +20,8 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
 
 import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.common.SyncCursor;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -106,6 +108,49 @@ public class CriteriaBuilderHelper {
 		return CriteriaBuilderHelper.and(cb, filter, or);
 	}
 
+	/**
+	 * Keyset pagination filter for lists sorted descending by report date and uuid: Only accepts rows that come after the cursor.
+	 */
+	public static Predicate andAfterCursor(
+		CriteriaBuilder cb,
+		Predicate filter,
+		ExportCursor after,
+		Expression<? extends Date> reportDatePath,
+		Expression<String> uuidPath) {
+		if (after == null) {
+			return filter;
+		}
+
+		return and(
+			cb,
+			filter,
+			cb.or(
+				cb.lessThan(reportDatePath, after.getReportDate()),
+				cb.and(cb.equal(reportDatePath, after.getReportDate()), cb.lessThan(uuidPath, after.getUuid()))));
+	}
+
+	/**
+	 * Keyset pagination filter for sync pages sorted ascending by change date and uuid: Only accepts rows that come after the
+	 * cursor.
+	 */
+	public static Predicate andAfterSyncCursor(
+		CriteriaBuilder cb,
+		Predicate filter,
+		SyncCursor after,
+		Expression<? extends Date> changeDatePath,
+		Expression<String> uuidPath) {
+		if (after == null) {
+			return filter;
+		}
+
+		return and(
+			cb,
+			filter,
+			cb.or(
+				cb.greaterThan(changeDatePath, after.getChangeDate()),
+				cb.and(cb.equal(changeDatePath, after.getChangeDate()), cb.greaterThan(uuidPath, after.getUuid()))));
+	}
+
 	public static Predicate unaccentedIlike(CriteriaBuilder cb, Expression<String> valueExpression, String pattern) {
 		return unaccentedIlike(cb, valueExpression, cb.literal("%" + pattern + "%"));
 	}
@@ -35,6 +35,7 @@ import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.common.messaging.NotificationOutboxService;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.document.DocumentFacadeEjb.DocumentFacadeEjbLocal;
 import de.symeda.sormas.backend.event.EventFacadeEjb.EventFacadeEjbLocal;
@@ -49,6 +50,7 @@ import de.symeda.sormas.backend.task.TaskFacadeEjb.TaskFacadeEjbLocal;
 public class CronService {
 
 	public static final int TASK_UPDATE_INTERVAL = 10;
+	public static final int NOTIFICATION_RETENTION_DAYS = 30;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -72,6 +74,8 @@ public class CronService {
 	private SystemEventFacadeEjbLocal systemEventFacade;
 	@EJB
 	private LabMessageFacadeEjbLocal labMessageFacade;
+	@EJB
+	private NotificationOutboxService notificationOutboxService;
 
 	@Schedule(hour = "*", minute = "*/" + TASK_UPDATE_INTERVAL, second = "0", persistent = false)
 	public void sendNewAndDueTaskMessages() {
@@ -85,6 +89,13 @@ public class CronService {
 		logger.debug("calculateCaseCompletion finished. {} cases, {} s", casesUpdated, DateHelper.durationSeconds(timeStart));
 	}
 
+	@Schedule(hour = "*", minute = "*/5", second = "30", persistent = false)
+	public void indexCaseDuplicateKeys() {
+		long timeStart = DateHelper.startTime();
+		int casesIndexed = caseFacade.indexCaseDuplicateKeys();
+		logger.debug("indexCaseDuplicateKeys finished. {} cases, {} s", casesIndexed, DateHelper.durationSeconds(timeStart));
+	}
+
 	@Schedule(hour = "1", minute = "0", second = "0", persistent = false)
 	public void deleteAllExpiredFeatureConfigurations() {
 
@@ -167,4 +178,17 @@ public class CronService {
 			labMessageFacade.fetchAndSaveExternalLabMessages(null);
 		}
 	}
+
+	@Schedule(hour = "1", minute = "40", second = "0", persistent = false)
+	public void updateCaseStatisticsCube() {
+		long timeStart = DateHelper.startTime();
+		int casesUpdated = caseFacade.updateCaseStatisticsCube();
+		logger.info("updateCaseStatisticsCube finished. {} cases, {} s", casesUpdated, DateHelper.durationSeconds(timeStart));
+	}
+
+	@Schedule(hour = "1", minute = "45", second = "0", persistent = false)
+	public void deleteFinishedNotifications() {
+		int deleted = notificationOutboxService.deleteFinishedEntries(DateHelper.subtractDays(new Date(), NOTIFICATION_RETENTION_DAYS));
+		logger.info("deleteFinishedNotifications finished. {} notifications", deleted);
+	}
 }
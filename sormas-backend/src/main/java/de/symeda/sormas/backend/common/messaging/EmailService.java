@@ -18,6 +18,9 @@
 package de.symeda.sormas.backend.common.messaging;
 
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Resource;
 import javax.ejb.Asynchronous;
@@ -54,6 +57,44 @@ public class EmailService {
 
 		Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
 
+		Transport.send(createMessage(recipient, subject, content));
+		logger.info("Mail sent to {}.", recipient);
+	}
+
+	/**
+	 * Sends the emails of the outbox entries over one connection to the mail server.
+	 * 
+	 * @return The entries whose email could not be sent, with the reason.
+	 * @throws MessagingException
+	 *             If no connection to the mail server could be established, so none of the emails has been sent.
+	 */
+	public Map<NotificationOutboxEntry, MessagingException> sendEmails(List<NotificationOutboxEntry> entries) throws MessagingException {
+
+		Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+
+		Map<NotificationOutboxEntry, MessagingException> failures = new HashMap<>();
+		Transport transport = mailSession.getTransport();
+		transport.connect();
+		try {
+			for (NotificationOutboxEntry entry : entries) {
+				try {
+					MimeMessage message = createMessage(entry.getRecipient(), entry.getSubject(), entry.getContent());
+					message.saveChanges();
+					transport.sendMessage(message, message.getAllRecipients());
+					logger.info("Mail sent to {}.", entry.getRecipient());
+				} catch (MessagingException e) {
+					failures.put(entry, e);
+				}
+			}
+		} finally {
+			transport.close();
+		}
+
+		return failures;
+	}
+
+	private MimeMessage createMessage(String recipient, String subject, String content) throws MessagingException {
+
 		MimeMessage message = new MimeMessage(mailSession);
 
 		String senderAddress = configFacade.getEmailSenderAddress();
@@ -71,7 +112,6 @@ public class EmailService {
 		message.setSubject(subject, "UTF-8");
 		message.setContent(content, "text/plain; charset=utf-8");
 
-		Transport.send(message);
-		logger.info("Mail sent to {}.", recipient);
+		return message;
 	}
 }
@@ -17,19 +17,13 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.common.messaging;
 
-import java.io.IOException;
-import java.util.Date;
-
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
-import javax.mail.MessagingException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.nexmo.client.NexmoClientException;
-
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.messaging.MessageType;
 import de.symeda.sormas.api.utils.DataHelper;
@@ -82,11 +76,7 @@ public class MessagingService {
 	@EJB
 	private UserService userService;
 	@EJB
-	private EmailService emailService;
-	@EJB
-	private SmsService smsService;
-	@EJB
-	private ManualMessageLogService manualMessageLogService;
+	private NotificationOutboxService notificationOutboxService;
 	@EJB
 	private FeatureConfigurationFacadeEjb.FeatureConfigurationFacadeEjbLocal featureConfigurationFacade;
 	@EJB
@@ -95,9 +85,10 @@ public class MessagingService {
 	/**
 	 * Sends the message specified by the messageContent via mail and/or SMS, according to the messageTypes, to the specified recipient's
 	 * email address and/or phone number. Logs an error if the email address or phone number is not set.
+	 * The message is written to the notification outbox and sent by the {@link NotificationDispatcher} once the current transaction
+	 * has been committed.
 	 */
-	public void sendMessage(User recipient, MessageSubject subject, String messageContent, MessageType... messageTypes)
-		throws NotificationDeliveryFailedException {
+	public void sendMessage(User recipient, MessageSubject subject, String messageContent, MessageType... messageTypes) {
 
 		// Don't send notifications if the feature is disabled for the current MessageSubject
 		if (!featureConfigurationFacade.isFeatureEnabled(subject.getRelatedFeatureType())) {
@@ -110,9 +101,10 @@ public class MessagingService {
 	/**
 	 * Sends the message specified by the messageContent via mail and/or SMS, according to the messageTypes, to the specified recipient's
 	 * email address and/or phone number. Logs an error if the email address or phone number is not set.
+	 * The message is written to the notification outbox and sent by the {@link NotificationDispatcher} once the current transaction
+	 * has been committed.
 	 */
-	public void sendMessage(User recipient, MessageSubject subject, Object[] subjectParameters, String messageContent, MessageType... messageTypes)
-		throws NotificationDeliveryFailedException {
+	public void sendMessage(User recipient, MessageSubject subject, Object[] subjectParameters, String messageContent, MessageType... messageTypes) {
 
 		// Don't send notifications if the feature is disabled for the current MessageSubject
 		if (!featureConfigurationFacade.isFeatureEnabled(subject.getRelatedFeatureType())) {
@@ -122,8 +114,7 @@ public class MessagingService {
 		sendMessage(recipient, String.format(I18nProperties.getEnumCaption(subject), subjectParameters), messageContent, messageTypes);
 	}
 
-	private void sendMessage(User recipient, String subject, String messageContent, MessageType... messageTypes)
-		throws NotificationDeliveryFailedException {
+	private void sendMessage(User recipient, String subject, String messageContent, MessageType... messageTypes) {
 		// Don't send notifications to users that initiated an action
 		if (recipient.equals(userService.getCurrentUser()) || !recipient.isActive()) {
 			return;
@@ -132,23 +123,18 @@ public class MessagingService {
 		final String emailAddress = recipient.getUserEmail();
 		final String phoneNumber = recipient.getPhone();
 		final String recipientUuid = recipient.getUuid();
-		sendMessage(subject, messageContent, emailAddress, phoneNumber, recipientUuid, "user", messageTypes);
+		sendMessage(subject, messageContent, emailAddress, phoneNumber, recipientUuid, "user", null, messageTypes);
 	}
 
-	public void sendMessage(Person recipient, String subject, String messageContent, MessageType... messageTypes)
-		throws NotificationDeliveryFailedException {
+	/**
+	 * Sends the message to the person manually. A {@link ManualMessageLog} is written by the {@link NotificationOutboxService} once the
+	 * message has actually been sent.
+	 */
+	public void sendMessage(Person recipient, String subject, String messageContent, MessageType... messageTypes) {
 		final String emailAddress = recipient.getEmailAddress();
 		final String phoneNumber = recipient.getPhone();
 		final String recipientUuid = recipient.getUuid();
-		for (MessageType messageType : messageTypes) {
-			sendMessage(subject, messageContent, emailAddress, phoneNumber, recipientUuid, "person", messageType);
-			final ManualMessageLog manualMessageLog = new ManualMessageLog();
-			manualMessageLog.setMessageType(messageType);
-			manualMessageLog.setRecipientPerson(recipient);
-			manualMessageLog.setSendingUser(userService.getCurrentUser());
-			manualMessageLog.setSentDate(new Date());
-			manualMessageLogService.ensurePersisted(manualMessageLog);
-		}
+		sendMessage(subject, messageContent, emailAddress, phoneNumber, recipientUuid, "person", recipient, messageTypes);
 	}
 
 	private void sendMessage(
@@ -158,8 +144,8 @@ public class MessagingService {
 		String phoneNumber,
 		String recipientUuid,
 		final String recipientType,
-		MessageType... messageTypes)
-		throws NotificationDeliveryFailedException {
+		Person recipientPerson,
+		MessageType... messageTypes) {
 
 		boolean isSmsServiceSetUp = configFacade.isSmsServiceSetUp();
 		for (MessageType messageType : messageTypes) {
@@ -168,20 +154,22 @@ public class MessagingService {
 			} else if (isSmsServiceSetUp && messageType == MessageType.SMS && DataHelper.isNullOrEmpty(phoneNumber)) {
 				logger.info(String.format("Tried to send an SMS to a " + recipientType + " without a phone number (UUID: %s).", recipientUuid));
 			} else {
-				try {
-					if (messageType == MessageType.EMAIL) {
-						emailService.sendEmail(emailAddress, subject, messageContent);
-					} else if (isSmsServiceSetUp && messageType == MessageType.SMS) {
-						smsService.sendSms(phoneNumber, messageContent);
-					}
-				} catch (MessagingException e) {
-					throw new NotificationDeliveryFailedException("Email could not be sent due to an unexpected error.", MessageType.EMAIL, e);
-				} catch (IOException | NexmoClientException e) {
-					throw new NotificationDeliveryFailedException("SMS could not be sent due to an unexpected error.", MessageType.SMS, e);
-				} catch (InvalidPhoneNumberException e) {
-					throw new NotificationDeliveryFailedException("SMS could not be sent because of an invalid phone number.", MessageType.SMS, e);
+				if (messageType == MessageType.EMAIL) {
+					enqueue(messageType, emailAddress, recipientUuid, recipientPerson, subject, messageContent);
+				} else if (isSmsServiceSetUp && messageType == MessageType.SMS) {
+					enqueue(messageType, phoneNumber, recipientUuid, recipientPerson, null, messageContent);
 				}
 			}
 		}
 	}
+
+	private void enqueue(MessageType messageType, String recipient, String recipientUuid, Person recipientPerson, String subject, String content) {
+
+		if (recipientPerson != null) {
+			notificationOutboxService
+				.enqueueManualMessage(messageType, recipient, recipientPerson, userService.getCurrentUser(), subject, content);
+		} else {
+			notificationOutboxService.enqueue(messageType, recipient, recipientUuid, subject, content);
+		}
+	}
 }
@@ -0,0 +1,275 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common.messaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.util.MBeanHelper;
+
+/**
+ * Sends the emails and SMS queued in the outbox by {@link NotificationOutboxService}.
+ * <ul>
+ * <li>Runs every {@link #DISPATCH_INTERVAL_SECONDS}, so messages are sent shortly after their transaction has been committed.</li>
+ * <li>Only one run at a time is executed on a node; runs started while another one is still running are skipped.</li>
+ * <li>Messages are sent in batches of {@link #BATCH_SIZE} per message type; all emails of a batch are sent over one connection
+ * to the mail server.</li>
+ * <li>Messages of a batch with the same type, recipient and content are only sent once.</li>
+ * <li>A message type is not dispatched any further in a run if the mail server can't be reached.</li>
+ * <li>A run stops after {@link #MAX_RUN_SECONDS}, the remaining messages are sent by the next run.</li>
+ * </ul>
+ * The size of the outbox and the numbers of sent, failed and deduplicated messages are exposed as JMX attributes of
+ * {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class NotificationDispatcher implements NotificationDispatcherMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=NotificationDispatcher";
+
+	public static final int DISPATCH_INTERVAL_SECONDS = 15;
+	public static final int BATCH_SIZE = 50;
+	public static final int MAX_RUN_SECONDS = 30;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@EJB
+	private NotificationOutboxService outboxService;
+	@EJB
+	private EmailService emailService;
+	@EJB
+	private SmsService smsService;
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private final LongAdder sentEmails = new LongAdder();
+	private final LongAdder sentSms = new LongAdder();
+	private final LongAdder failedAttempts = new LongAdder();
+	private final LongAdder givenUpMessages = new LongAdder();
+	private final LongAdder deduplicatedMessages = new LongAdder();
+	private final LongAdder skippedRuns = new LongAdder();
+
+	private volatile long backlogSize;
+	private volatile long lastRunDurationMillis;
+
+	@PostConstruct
+	public void registerMBean() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "notification dispatcher metrics");
+	}
+
+	@PreDestroy
+	public void unregisterMBean() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "notification dispatcher metrics");
+	}
+
+	/**
+	 * Scheduled here instead of in the CronService, so that a slow mail server or SMS gateway doesn't delay the other jobs.
+	 * Timeout methods must not return a value, see {@link #dispatch()}.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/" + DISPATCH_INTERVAL_SECONDS, persistent = false)
+	public void scheduledDispatch() {
+		dispatch();
+	}
+
+	/**
+	 * Sends the due messages of the outbox.
+	 * 
+	 * @return The number of sent messages, 0 if another run is still in progress
+	 */
+	public int dispatch() {
+
+		if (!running.compareAndSet(false, true)) {
+			skippedRuns.increment();
+			logger.debug("Notification dispatch skipped, the previous run is still in progress");
+			return 0;
+		}
+
+		try {
+			long start = System.currentTimeMillis();
+			long end = start + TimeUnit.SECONDS.toMillis(MAX_RUN_SECONDS);
+
+			int sent = 0;
+			for (MessageType messageType : MessageType.values()) {
+				List<NotificationOutboxEntry> entries;
+				do {
+					entries = outboxService.claimDueEntries(messageType, BATCH_SIZE);
+					if (entries.isEmpty()) {
+						break;
+					}
+					int batchSent = dispatchBatch(messageType, entries);
+					if (batchSent < 0) {
+						break;
+					}
+					sent += batchSent;
+				} while (entries.size() == BATCH_SIZE && System.currentTimeMillis() < end);
+			}
+
+			backlogSize = outboxService.countPendingEntries();
+			lastRunDurationMillis = System.currentTimeMillis() - start;
+			return sent;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/**
+	 * @return The number of sent messages, -1 if no further messages of this type should be sent in this run.
+	 */
+	private int dispatchBatch(MessageType messageType, List<NotificationOutboxEntry> entries) {
+
+		Map<String, List<NotificationOutboxEntry>> entriesByKey = new LinkedHashMap<>();
+		for (NotificationOutboxEntry entry : entries) {
+			entriesByKey.computeIfAbsent(entry.getDeduplicationKey(), k -> new ArrayList<>()).add(entry);
+		}
+		deduplicatedMessages.add(entries.size() - entriesByKey.size());
+		List<NotificationOutboxEntry> messages = entriesByKey.values().stream().map(e -> e.get(0)).collect(Collectors.toList());
+
+		Map<NotificationOutboxEntry, ? extends Exception> failures;
+		switch (messageType) {
+		case EMAIL:
+			try {
+				failures = emailService.sendEmails(messages);
+			} catch (MessagingException e) {
+				logger.warn("Could not connect to the mail server, {} emails will be sent later: {}", entries.size(), e.getMessage());
+				markFailed(getIds(entries), e, false);
+				return -1;
+			}
+			break;
+		case SMS:
+			if (!configFacade.isSmsServiceSetUp()) {
+				markFailed(getIds(entries), new IllegalStateException("The SMS service is not set up"), true);
+				return 0;
+			}
+			failures = smsService.sendSms(messages);
+			break;
+		default:
+			throw new IllegalArgumentException(messageType.toString());
+		}
+
+		List<Long> sentIds = new ArrayList<>();
+		for (List<NotificationOutboxEntry> sameEntries : entriesByKey.values()) {
+			NotificationOutboxEntry message = sameEntries.get(0);
+			Exception failure = failures.get(message);
+			if (failure == null) {
+				sentIds.addAll(getIds(sameEntries));
+			} else {
+				logger.warn(
+					"Could not send {} to recipient with UUID {}, attempt {}: {}",
+					messageType,
+					message.getRecipientUuid(),
+					message.getAttempts() + 1,
+					failure.getMessage());
+				markFailed(getIds(sameEntries), failure, isPermanentFailure(failure));
+			}
+		}
+		outboxService.markSent(sentIds);
+
+		int sent = entriesByKey.size() - failures.size();
+		(messageType == MessageType.EMAIL ? sentEmails : sentSms).add(sent);
+		return sent;
+	}
+
+	private void markFailed(Collection<Long> ids, Exception failure, boolean permanent) {
+
+		failedAttempts.add(ids.size());
+		givenUpMessages.add(outboxService.markFailed(ids, failure.getMessage(), permanent));
+	}
+
+	/**
+	 * @return Whether sending the message again won't succeed either.
+	 */
+	private static boolean isPermanentFailure(Exception failure) {
+		return failure instanceof InvalidPhoneNumberException
+			|| failure instanceof AddressException
+			|| failure instanceof SendFailedException && ArrayUtils.isNotEmpty(((SendFailedException) failure).getInvalidAddresses());
+	}
+
+	private static List<Long> getIds(List<NotificationOutboxEntry> entries) {
+		return entries.stream().map(NotificationOutboxEntry::getId).collect(Collectors.toList());
+	}
+
+	@Override
+	public long getBacklogSize() {
+		return backlogSize;
+	}
+
+	@Override
+	public long getSentEmails() {
+		return sentEmails.sum();
+	}
+
+	@Override
+	public long getSentSms() {
+		return sentSms.sum();
+	}
+
+	@Override
+	public long getFailedAttempts() {
+		return failedAttempts.sum();
+	}
+
+	@Override
+	public long getGivenUpMessages() {
+		return givenUpMessages.sum();
+	}
+
+	@Override
+	public long getDeduplicatedMessages() {
+		return deduplicatedMessages.sum();
+	}
+
+	@Override
+	public long getSkippedRuns() {
+		return skippedRuns.sum();
+	}
+
+	@Override
+	public long getLastRunDurationMillis() {
+		return lastRunDurationMillis;
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common.messaging;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import de.symeda.sormas.api.messaging.MessageType;
+
+/**
+ * Email or SMS that has to be sent by the {@link NotificationDispatcher}. Entries are written by {@link MessagingService} within
+ * the transaction of the change the recipient is notified about, so a notification is only sent if the change has been committed.
+ */
+@Entity(name = NotificationOutboxEntry.TABLE_NAME)
+public class NotificationOutboxEntry implements Serializable {
+
+	private static final long serialVersionUID = 4719503164624858023L;
+
+	public static final String TABLE_NAME = "notificationoutbox";
+
+	public static final String ID = "id";
+	public static final String MESSAGE_TYPE = "messageType";
+	public static final String RECIPIENT = "recipient";
+	public static final String DEDUPLICATION_KEY = "deduplicationKey";
+	public static final String STATUS = "status";
+	public static final String ATTEMPTS = "attempts";
+	public static final String NEXT_ATTEMPT_DATE = "nextAttemptDate";
+	public static final String DISPATCH_TOKEN = "dispatchToken";
+	public static final String CREATION_DATE = "creationDate";
+	public static final String SENT_DATE = "sentDate";
+	public static final String RECIPIENT_PERSON_ID = "recipientPersonId";
+	public static final String SENDING_USER_ID = "sendingUserId";
+
+	public enum Status {
+		PENDING,
+		SENT,
+		FAILED
+	}
+
+	private Long id;
+	private MessageType messageType;
+	private String recipient;
+	private String recipientUuid;
+	private String subject;
+	private String content;
+	private String deduplicationKey;
+	private Status status;
+	private int attempts;
+	private Date nextAttemptDate;
+	private String dispatchToken;
+	private Date creationDate;
+	private Date sentDate;
+	private String lastError;
+	private Long recipientPersonId;
+	private Long sendingUserId;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public MessageType getMessageType() {
+		return messageType;
+	}
+
+	public void setMessageType(MessageType messageType) {
+		this.messageType = messageType;
+	}
+
+	/**
+	 * @return The email address or phone number the message is sent to.
+	 */
+	@Column(nullable = false, length = 512)
+	public String getRecipient() {
+		return recipient;
+	}
+
+	public void setRecipient(String recipient) {
+		this.recipient = recipient;
+	}
+
+	/**
+	 * @return The uuid of the user or person the message is sent to, for logging.
+	 */
+	@Column(length = 36)
+	public String getRecipientUuid() {
+		return recipientUuid;
+	}
+
+	public void setRecipientUuid(String recipientUuid) {
+		this.recipientUuid = recipientUuid;
+	}
+
+	@Column(length = 512)
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	@Column(nullable = false, columnDefinition = "text")
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	/**
+	 * @return Hash of the message type, recipient, subject and content, identifying the same message to the same recipient.
+	 */
+	@Column(nullable = false, length = 64)
+	public String getDeduplicationKey() {
+		return deduplicationKey;
+	}
+
+	public void setDeduplicationKey(String deduplicationKey) {
+		this.deduplicationKey = deduplicationKey;
+	}
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	@Column(nullable = false)
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	/**
+	 * @return The date after which the message is sent. Set to a later date by a failed attempt and while a dispatcher sends the
+	 *         message.
+	 */
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	public Date getNextAttemptDate() {
+		return nextAttemptDate;
+	}
+
+	public void setNextAttemptDate(Date nextAttemptDate) {
+		this.nextAttemptDate = nextAttemptDate;
+	}
+
+	/**
+	 * @return Identifies the run of the dispatcher that has claimed the message last.
+	 */
+	@Column(length = 36)
+	public String getDispatchToken() {
+		return dispatchToken;
+	}
+
+	public void setDispatchToken(String dispatchToken) {
+		this.dispatchToken = dispatchToken;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	public Date getSentDate() {
+		return sentDate;
+	}
+
+	public void setSentDate(Date sentDate) {
+		this.sentDate = sentDate;
+	}
+
+	@Column(length = 1024)
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+	/**
+	 * @return The id of the person a message has been sent to manually, to log the message once it has been sent.
+	 */
+	public Long getRecipientPersonId() {
+		return recipientPersonId;
+	}
+
+	public void setRecipientPersonId(Long recipientPersonId) {
+		this.recipientPersonId = recipientPersonId;
+	}
+
+	/**
+	 * @return The id of the user that has sent a message to a person manually.
+	 */
+	public Long getSendingUserId() {
+		return sendingUserId;
+	}
+
+	public void setSendingUserId(Long sendingUserId) {
+		this.sendingUserId = sendingUserId;
+	}
+}
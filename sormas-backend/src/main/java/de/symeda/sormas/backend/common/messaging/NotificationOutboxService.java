@@ -0,0 +1,307 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common.messaging;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.backend.common.messaging.NotificationOutboxEntry.Status;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Writes notifications to the outbox and keeps track of their delivery.
+ * <ul>
+ * <li>A message that has already been queued for the same recipient within the last {@link #DEDUPLICATION_MINUTES} is not
+ * queued again.</li>
+ * <li>Failed attempts are retried with an exponential backoff, starting with {@link #RETRY_BASE_MINUTES}. A message is given up
+ * after {@link #MAX_ATTEMPTS} attempts.</li>
+ * <li>Claiming messages moves their next attempt {@link #CLAIM_MINUTES} into the future, so messages claimed by a dispatcher that
+ * has been stopped are sent again afterwards.</li>
+ * </ul>
+ */
+@Stateless
+@LocalBean
+public class NotificationOutboxService {
+
+	public static final int DEDUPLICATION_MINUTES = 60;
+	public static final int RETRY_BASE_MINUTES = 1;
+	public static final int MAX_RETRY_MINUTES = 360;
+	public static final int MAX_ATTEMPTS = 8;
+	public static final int CLAIM_MINUTES = 10;
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@EJB
+	private ManualMessageLogService manualMessageLogService;
+
+	/**
+	 * Queues the message within the current transaction.
+	 * 
+	 * @return false if the same message has already been queued for the recipient recently.
+	 */
+	public boolean enqueue(MessageType messageType, String recipient, String recipientUuid, String subject, String content) {
+		return enqueue(messageType, recipient, recipientUuid, subject, content, null, null);
+	}
+
+	/**
+	 * Queues a message that is sent manually to a person within the current transaction. A {@link ManualMessageLog} is written once
+	 * the message has been sent.
+	 * 
+	 * @return false if the same message has already been queued for the person recently.
+	 */
+	public boolean enqueueManualMessage(
+		MessageType messageType,
+		String recipient,
+		Person recipientPerson,
+		User sendingUser,
+		String subject,
+		String content) {
+		return enqueue(messageType, recipient, recipientPerson.getUuid(), subject, content, recipientPerson.getId(), sendingUser.getId());
+	}
+
+	private boolean enqueue(
+		MessageType messageType,
+		String recipient,
+		String recipientUuid,
+		String subject,
+		String content,
+		Long recipientPersonId,
+		Long sendingUserId) {
+
+		String deduplicationKey = buildDeduplicationKey(messageType, recipient, subject, content);
+		Date now = new Date();
+		if (isQueued(deduplicationKey, new Date(now.getTime() - TimeUnit.MINUTES.toMillis(DEDUPLICATION_MINUTES)))) {
+			return false;
+		}
+
+		NotificationOutboxEntry entry = new NotificationOutboxEntry();
+		entry.setMessageType(messageType);
+		entry.setRecipient(recipient);
+		entry.setRecipientUuid(recipientUuid);
+		entry.setSubject(subject);
+		entry.setContent(content);
+		entry.setDeduplicationKey(deduplicationKey);
+		entry.setStatus(Status.PENDING);
+		entry.setNextAttemptDate(now);
+		entry.setCreationDate(now);
+		entry.setRecipientPersonId(recipientPersonId);
+		entry.setSendingUserId(sendingUserId);
+		em.persist(entry);
+		return true;
+	}
+
+	private boolean isQueued(String deduplicationKey, Date since) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<NotificationOutboxEntry> entry = cq.from(NotificationOutboxEntry.class);
+		cq.select(entry.get(NotificationOutboxEntry.ID));
+		cq.where(
+			cb.equal(entry.get(NotificationOutboxEntry.DEDUPLICATION_KEY), deduplicationKey),
+			cb.notEqual(entry.get(NotificationOutboxEntry.STATUS), Status.FAILED),
+			cb.greaterThan(entry.get(NotificationOutboxEntry.CREATION_DATE), since));
+
+		return !em.createQuery(cq).setMaxResults(1).getResultList().isEmpty();
+	}
+
+	static String buildDeduplicationKey(MessageType messageType, String recipient, String subject, String content) {
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : new String[] {
+				messageType.name(),
+				recipient,
+				StringUtils.defaultString(subject),
+				content }) {
+				digest.update(part.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			return String.format("%064x", new BigInteger(1, digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Claims the due messages of the given type that have been queued first, so that no other dispatcher sends them as well.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public List<NotificationOutboxEntry> claimDueEntries(MessageType messageType, int maxResults) {
+
+		Date now = new Date();
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+
+		CriteriaQuery<Long> idQuery = cb.createQuery(Long.class);
+		Root<NotificationOutboxEntry> idRoot = idQuery.from(NotificationOutboxEntry.class);
+		idQuery.select(idRoot.get(NotificationOutboxEntry.ID));
+		idQuery.where(
+			cb.equal(idRoot.get(NotificationOutboxEntry.MESSAGE_TYPE), messageType),
+			cb.equal(idRoot.get(NotificationOutboxEntry.STATUS), Status.PENDING),
+			cb.lessThanOrEqualTo(idRoot.get(NotificationOutboxEntry.NEXT_ATTEMPT_DATE), now));
+		idQuery.orderBy(cb.asc(idRoot.get(NotificationOutboxEntry.ID)));
+		List<Long> ids = em.createQuery(idQuery).setMaxResults(maxResults).getResultList();
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		// Only the entries that are still due are claimed, entries claimed by another dispatcher in the meantime are skipped
+		String dispatchToken = DataHelper.createUuid();
+		CriteriaUpdate<NotificationOutboxEntry> cu = cb.createCriteriaUpdate(NotificationOutboxEntry.class);
+		Root<NotificationOutboxEntry> updateRoot = cu.from(NotificationOutboxEntry.class);
+		cu.set(updateRoot.get(NotificationOutboxEntry.DISPATCH_TOKEN), dispatchToken);
+		cu.set(updateRoot.get(NotificationOutboxEntry.NEXT_ATTEMPT_DATE), new Date(now.getTime() + TimeUnit.MINUTES.toMillis(CLAIM_MINUTES)));
+		cu.where(
+			updateRoot.get(NotificationOutboxEntry.ID).in(ids),
+			cb.equal(updateRoot.get(NotificationOutboxEntry.STATUS), Status.PENDING),
+			cb.lessThanOrEqualTo(updateRoot.get(NotificationOutboxEntry.NEXT_ATTEMPT_DATE), now));
+		em.createQuery(cu).executeUpdate();
+
+		CriteriaQuery<NotificationOutboxEntry> cq = cb.createQuery(NotificationOutboxEntry.class);
+		Root<NotificationOutboxEntry> entry = cq.from(NotificationOutboxEntry.class);
+		cq.where(cb.equal(entry.get(NotificationOutboxEntry.DISPATCH_TOKEN), dispatchToken));
+		cq.orderBy(cb.asc(entry.get(NotificationOutboxEntry.ID)));
+
+		List<NotificationOutboxEntry> entries = em.createQuery(cq).getResultList();
+		entries.forEach(em::detach);
+		return entries;
+	}
+
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void markSent(Collection<Long> ids) {
+
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<NotificationOutboxEntry> cu = cb.createCriteriaUpdate(NotificationOutboxEntry.class);
+		Root<NotificationOutboxEntry> entry = cu.from(NotificationOutboxEntry.class);
+		cu.set(entry.get(NotificationOutboxEntry.STATUS), Status.SENT);
+		cu.set(entry.get(NotificationOutboxEntry.SENT_DATE), new Date());
+		cu.set(entry.get(NotificationOutboxEntry.DISPATCH_TOKEN), (String) null);
+		cu.where(entry.get(NotificationOutboxEntry.ID).in(ids));
+		em.createQuery(cu).executeUpdate();
+
+		logManualMessages(ids);
+	}
+
+	/**
+	 * Writes the {@link ManualMessageLog} of the messages that have been sent manually to persons.
+	 */
+	private void logManualMessages(Collection<Long> sentIds) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<NotificationOutboxEntry> cq = cb.createQuery(NotificationOutboxEntry.class);
+		Root<NotificationOutboxEntry> entry = cq.from(NotificationOutboxEntry.class);
+		cq.where(entry.get(NotificationOutboxEntry.ID).in(sentIds), cb.isNotNull(entry.get(NotificationOutboxEntry.RECIPIENT_PERSON_ID)));
+
+		for (NotificationOutboxEntry sentEntry : em.createQuery(cq).getResultList()) {
+			ManualMessageLog manualMessageLog = new ManualMessageLog();
+			manualMessageLog.setMessageType(sentEntry.getMessageType());
+			manualMessageLog.setRecipientPerson(em.getReference(Person.class, sentEntry.getRecipientPersonId()));
+			manualMessageLog.setSendingUser(em.getReference(User.class, sentEntry.getSendingUserId()));
+			manualMessageLog.setSentDate(sentEntry.getSentDate());
+			manualMessageLogService.ensurePersisted(manualMessageLog);
+		}
+	}
+
+	/**
+	 * Schedules the next attempt to send the messages, or gives them up if they can't be sent at all or the maximum number of
+	 * attempts has been reached.
+	 * 
+	 * @return The number of messages that have been given up.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public int markFailed(Collection<Long> ids, String error, boolean permanent) {
+
+		int givenUp = 0;
+		long now = System.currentTimeMillis();
+		for (Long id : ids) {
+			NotificationOutboxEntry entry = em.find(NotificationOutboxEntry.class, id);
+			if (entry == null) {
+				continue;
+			}
+
+			int attempts = entry.getAttempts() + 1;
+			entry.setAttempts(attempts);
+			entry.setDispatchToken(null);
+			entry.setLastError(StringUtils.abbreviate(error, 1024));
+			if (permanent || attempts >= MAX_ATTEMPTS) {
+				entry.setStatus(Status.FAILED);
+				givenUp++;
+			} else {
+				entry.setNextAttemptDate(new Date(now + TimeUnit.MINUTES.toMillis(getRetryDelayMinutes(attempts))));
+			}
+		}
+		return givenUp;
+	}
+
+	static long getRetryDelayMinutes(int attempts) {
+		return Math.min(MAX_RETRY_MINUTES, RETRY_BASE_MINUTES * (1L << Math.min(attempts - 1, 20)));
+	}
+
+	public long countPendingEntries() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<NotificationOutboxEntry> entry = cq.from(NotificationOutboxEntry.class);
+		cq.select(cb.count(entry));
+		cq.where(cb.equal(entry.get(NotificationOutboxEntry.STATUS), Status.PENDING));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	/**
+	 * Deletes the messages that have been sent or given up before the given date.
+	 * 
+	 * @return The number of deleted messages
+	 */
+	public int deleteFinishedEntries(Date before) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaDelete<NotificationOutboxEntry> cd = cb.createCriteriaDelete(NotificationOutboxEntry.class);
+		Root<NotificationOutboxEntry> entry = cd.from(NotificationOutboxEntry.class);
+		cd.where(
+			cb.notEqual(entry.get(NotificationOutboxEntry.STATUS), Status.PENDING),
+			cb.lessThan(entry.get(NotificationOutboxEntry.CREATION_DATE), before));
+		return em.createQuery(cd).executeUpdate();
+	}
+}
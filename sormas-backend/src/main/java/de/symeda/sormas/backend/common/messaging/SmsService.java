@@ -18,6 +18,9 @@
 package de.symeda.sormas.backend.common.messaging;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
@@ -56,13 +59,41 @@ public class SmsService {
 			return;
 		}
 
+		sendSms(createClient(), phoneNumber, content);
+	}
+
+	/**
+	 * Sends the SMS of the outbox entries with one client.
+	 * 
+	 * @return The entries whose SMS could not be sent, with the reason.
+	 */
+	public Map<NotificationOutboxEntry, Exception> sendSms(List<NotificationOutboxEntry> entries) {
+
+		Map<NotificationOutboxEntry, Exception> failures = new HashMap<>();
+		NexmoClient client = createClient();
+		for (NotificationOutboxEntry entry : entries) {
+			try {
+				sendSms(client, entry.getRecipient(), entry.getContent());
+			} catch (IOException | NexmoClientException | InvalidPhoneNumberException e) {
+				failures.put(entry, e);
+			}
+		}
+
+		return failures;
+	}
+
+	private NexmoClient createClient() {
+		return NexmoClient.builder().apiKey(configFacade.getSmsAuthKey()).apiSecret(configFacade.getSmsAuthSecret()).build();
+	}
+
+	private void sendSms(NexmoClient client, String phoneNumber, String content)
+		throws IOException, NexmoClientException, InvalidPhoneNumberException {
+
 		// Remove the initial + that indicates the beginning of the country code to match the Nexmo specification of allowed number formats
 		if (phoneNumber.startsWith("+")) {
 			phoneNumber = phoneNumber.substring(1);
 		}
 
-		NexmoClient client = NexmoClient.builder().apiKey(configFacade.getSmsAuthKey()).apiSecret(configFacade.getSmsAuthSecret()).build();
-
 		// If the phone number is invalid, e.g. because it is a landline number or malformed otherwise, throw an exception
 		InsightClient insightClient = client.getInsightClient();
 		StandardInsightResponse insightResponse = insightClient.getStandardNumberInsight(phoneNumber);
@@ -29,10 +29,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -59,6 +61,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,6 +70,8 @@ import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.VisitOrigin;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncCursor;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactClassification;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactDto;
@@ -98,6 +103,7 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.person.PersonDto;
 import de.symeda.sormas.api.person.PersonReferenceDto;
@@ -109,7 +115,6 @@ import de.symeda.sormas.api.symptoms.SymptomsHelper;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskPriority;
-import de.symeda.sormas.api.task.TaskStatus;
 import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.user.UserRole;
@@ -125,6 +130,7 @@ import de.symeda.sormas.api.visit.VisitStatus;
 import de.symeda.sormas.api.visit.VisitSummaryExportDetailsDto;
 import de.symeda.sormas.api.visit.VisitSummaryExportDto;
 import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseCompletenessService;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.caze.CaseService;
@@ -192,6 +198,8 @@ public class ContactFacadeEjb implements ContactFacade {
 
 	private static final long SECONDS_30_DAYS = TimeUnit.DAYS.toSeconds(30L);
 
+	static final int FOLLOW_UP_TASK_BATCH_SIZE = 100;
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
@@ -206,6 +214,8 @@ public class ContactFacadeEjb implements ContactFacade {
 	@EJB
 	private CaseService caseService;
 	@EJB
+	private CaseCompletenessService caseCompletenessService;
+	@EJB
 	private PersonService personService;
 	@EJB
 	private UserService userService;
@@ -273,6 +283,22 @@ public class ContactFacadeEjb implements ContactFacade {
 		return contactService.getAllActiveContactsAfter(date).stream().map(c -> convertToDto(c, pseudonymizer)).collect(Collectors.toList());
 	}
 
+	@Override
+	public SyncPage<ContactDto> getActiveContactsPageAfter(Date date, String cursor) {
+
+		if (userService.getCurrentUser() == null) {
+			return new SyncPage<>(Collections.emptyList(), cursor, false);
+		}
+
+		int batchSize = configFacade.getSyncBatchSize();
+		Pseudonymizer pseudonymizer = Pseudonymizer.getDefault(userService::hasRight);
+		return QueryHelper.toSyncPage(
+			contactService.getAllActiveContactsAfter(date, SyncCursor.parse(cursor), batchSize + 1),
+			batchSize,
+			cursor,
+			c -> convertToDto(c, pseudonymizer));
+	}
+
 	@Override
 	public List<ContactDto> getByUuids(List<String> uuids) {
 		Pseudonymizer pseudonymizer = Pseudonymizer.getDefault(userService::hasRight);
@@ -338,6 +364,7 @@ public class ContactFacadeEjb implements ContactFacade {
 
 		Contact entity = fromDto(dto, checkChangeDate);
 		doSave(entity, true);
+		caseCompletenessService.enqueue(entity.getCaze());
 
 		if (existingContact == null && featureConfigurationFacade.isTaskGenerationFeatureEnabled(TaskType.CONTACT_INVESTIGATION)) {
 			createInvestigationTask(entity);
@@ -461,6 +488,7 @@ public class ContactFacadeEjb implements ContactFacade {
 		externalJournalService.handleExternalJournalPersonUpdateAsync(contact.getPerson().toReference());
 
 		contactService.delete(contact);
+		caseCompletenessService.enqueue(contact.getCaze());
 
 		if (contact.getCaze() != null) {
 			caseFacade.onCaseChanged(CaseFacadeEjbLocal.toDto(contact.getCaze()), contact.getCaze());
@@ -475,6 +503,33 @@ public class ContactFacadeEjb implements ContactFacade {
 		int max,
 		ExportConfigurationDto exportConfiguration,
 		Language userLanguage) {
+		return getExportList(contactCriteria, selectedRows, first, max, null, false, exportConfiguration, userLanguage);
+	}
+
+	@Override
+	public List<ContactExportDto> getExportList(
+		ContactCriteria contactCriteria,
+		Collection<String> selectedRows,
+		ExportCursor after,
+		int max,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage) {
+		return getExportList(contactCriteria, selectedRows, 0, max, after, true, exportConfiguration, userLanguage);
+	}
+
+	/**
+	 * @param keysetPaging
+	 *            If true, the list is sorted by report date and uuid and starts after the given cursor instead of the offset.
+	 */
+	private List<ContactExportDto> getExportList(
+		ContactCriteria contactCriteria,
+		Collection<String> selectedRows,
+		int first,
+		int max,
+		ExportCursor after,
+		boolean keysetPaging,
+		ExportConfigurationDto exportConfiguration,
+		Language userLanguage) {
 
 		final CriteriaBuilder cb = em.getCriteriaBuilder();
 		final CriteriaQuery<ContactExportDto> cq = cb.createQuery(ContactExportDto.class);
@@ -588,11 +643,18 @@ public class ContactFacadeEjb implements ContactFacade {
 		Predicate filter = listCriteriaBuilder.buildContactFilter(contactCriteria, contactQueryContext);
 
 		filter = CriteriaBuilderHelper.andInValues(selectedRows, filter, cb, contact.get(Contact.UUID));
+		if (keysetPaging) {
+			filter = CriteriaBuilderHelper.andAfterCursor(cb, filter, after, contact.get(Contact.REPORT_DATE_TIME), contact.get(Contact.UUID));
+		}
 		if (filter != null) {
 			cq.where(filter);
 		}
 
-		cq.orderBy(cb.desc(contact.get(Contact.REPORT_DATE_TIME)), cb.desc(contact.get(Contact.ID)));
+		if (keysetPaging) {
+			cq.orderBy(cb.desc(contact.get(Contact.REPORT_DATE_TIME)), cb.desc(contact.get(Contact.UUID)));
+		} else {
+			cq.orderBy(cb.desc(contact.get(Contact.REPORT_DATE_TIME)), cb.desc(contact.get(Contact.ID)));
+		}
 
 		List<ContactExportDto> exportContacts = QueryHelper.getResultList(em, cq, first, max);
 		List<String> resultContactsUuids = exportContacts.stream().map(ContactExportDto::getUuid).collect(Collectors.toList());
@@ -1496,54 +1558,67 @@ public class ContactFacadeEjb implements ContactFacade {
 		return target;
 	}
 
+	/**
+	 * Generates the follow-up tasks of the day for all contacts under follow-up with a constant number of queries:
+	 * <ul>
+	 * <li>The contacts without a follow-up task for the day and the pending follow-up tasks of these contacts are loaded
+	 * with one query each.</li>
+	 * <li>The assignees are picked from the contact officers and supervisors of all districts and regions, loaded with one
+	 * query each.</li>
+	 * <li>The tasks are inserted in JDBC batches of {@link #FOLLOW_UP_TASK_BATCH_SIZE}.</li>
+	 * </ul>
+	 */
 	@RolesAllowed(UserRole._SYSTEM)
 	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
 	public void generateContactFollowUpTasks() {
 
-		// get all contacts that are followed up
+		// get all contacts that are followed up and don't have a task for the exact day
 		LocalDateTime fromDateTime = LocalDate.now().atStartOfDay();
 		LocalDateTime toDateTime = fromDateTime.plusDays(1);
-		List<Contact> contacts = contactService.getFollowUpBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
+		Date fromDate = DateHelper8.toDate(fromDateTime);
+		Date toDate = DateHelper8.toDate(toDateTime);
+		List<ContactFollowUpTaskCandidate> candidates = contactService.getFollowUpTaskCandidates(fromDate, toDate, TaskType.CONTACT_FOLLOW_UP);
+		if (candidates.isEmpty()) {
+			return;
+		}
 
-		for (Contact contact : contacts) {
-			// Only generate tasks for contacts that are under follow-up
-			if (!(contact.getFollowUpStatus().equals(FollowUpStatus.FOLLOW_UP) || contact.getFollowUpStatus().equals(FollowUpStatus.LOST))) {
-				continue;
-			}
+		Map<Long, Set<Long>> pendingTaskAssigneeIds = contactService.getPendingFollowUpTaskAssigneeIds(fromDate, toDate, TaskType.CONTACT_FOLLOW_UP);
+		Map<Long, List<Long>> contactOfficerIds = userService.getActiveUserIdsByJurisdiction(User.DISTRICT, UserRole.CONTACT_OFFICER);
+		Map<Long, List<Long>> contactSupervisorIds = userService.getActiveUserIdsByJurisdiction(User.REGION, UserRole.CONTACT_SUPERVISOR);
 
-			User assignee;
+		Map<Long, Long> assigneeIds = new LinkedHashMap<>();
+		for (ContactFollowUpTaskCandidate candidate : candidates) {
+			Long assigneeId;
 			try {
-				assignee = taskService.getTaskAssignee(contact);
+				assigneeId = taskService.getTaskAssigneeId(candidate, contactOfficerIds, contactSupervisorIds);
 			} catch (TaskCreationException e) {
 				logger.warn(e.getMessage());
 				continue;
 			}
 
-			// find already existing tasks
-			TaskCriteria pendingUserTaskCriteria = new TaskCriteria().contact(contact.toReference())
-				.taskType(TaskType.CONTACT_FOLLOW_UP)
-				.assigneeUser(assignee.toReference())
-				.taskStatus(TaskStatus.PENDING);
-			List<Task> pendingUserTasks = taskService.findBy(pendingUserTaskCriteria, true);
-
-			if (!pendingUserTasks.isEmpty()) {
+			if (pendingTaskAssigneeIds.getOrDefault(candidate.getId(), Collections.emptySet()).contains(assigneeId)) {
 				// the user still has a pending task for this contact
 				continue;
 			}
 
-			TaskCriteria dayTaskCriteria = new TaskCriteria().contact(contact.toReference())
-				.taskType(TaskType.CONTACT_FOLLOW_UP)
-				.dueDateBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
-			List<Task> dayTasks = taskService.findBy(dayTaskCriteria, true);
-
-			if (!dayTasks.isEmpty()) {
-				// there is already a task for the exact day
-				continue;
-			}
+			assigneeIds.put(candidate.getId(), assigneeId);
+		}
 
-			// none found -> create the task
-			Task task = createContactTask(TaskType.CONTACT_FOLLOW_UP, fromDateTime, toDateTime, contact, assignee);
-			taskService.ensurePersisted(task);
+		// none found -> create the tasks
+		Session session = em.unwrap(Session.class);
+		Integer jdbcBatchSize = session.getJdbcBatchSize();
+		session.setJdbcBatchSize(FOLLOW_UP_TASK_BATCH_SIZE);
+		try {
+			IterableHelper.executeBatched(new ArrayList<>(assigneeIds.keySet()), FOLLOW_UP_TASK_BATCH_SIZE, contactIds -> {
+				for (Contact contact : contactService.getByIds(contactIds)) {
+					User assignee = userService.getById(assigneeIds.get(contact.getId()));
+					taskService.persist(createContactTask(TaskType.CONTACT_FOLLOW_UP, fromDateTime, toDateTime, contact, assignee));
+				}
+				em.flush();
+				em.clear();
+			});
+		} finally {
+			session.setJdbcBatchSize(jdbcBatchSize);
 		}
 	}
 
@@ -0,0 +1,116 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.contact;
+
+import java.io.Serializable;
+
+/**
+ * A contact for which a follow-up task has to be generated, with the ids needed to resolve the assignee of the task.
+ */
+public class ContactFollowUpTaskCandidate implements Serializable {
+
+	private static final long serialVersionUID = 5217146329364938167L;
+
+	private final Long id;
+	private final String uuid;
+	private final boolean highPriority;
+	private final Long contactOfficerId;
+	private final Long districtId;
+	private final Long personDistrictId;
+	private final Long caseResponsibleDistrictId;
+	private final Long caseDistrictId;
+	private final Long regionId;
+	private final Long personRegionId;
+	private final Long caseResponsibleRegionId;
+	private final Long caseRegionId;
+
+	public ContactFollowUpTaskCandidate(
+		Long id,
+		String uuid,
+		boolean highPriority,
+		Long contactOfficerId,
+		Long districtId,
+		Long personDistrictId,
+		Long caseResponsibleDistrictId,
+		Long caseDistrictId,
+		Long regionId,
+		Long personRegionId,
+		Long caseResponsibleRegionId,
+		Long caseRegionId) {
+
+		this.id = id;
+		this.uuid = uuid;
+		this.highPriority = highPriority;
+		this.contactOfficerId = contactOfficerId;
+		this.districtId = districtId;
+		this.personDistrictId = personDistrictId;
+		this.caseResponsibleDistrictId = caseResponsibleDistrictId;
+		this.caseDistrictId = caseDistrictId;
+		this.regionId = regionId;
+		this.personRegionId = personRegionId;
+		this.caseResponsibleRegionId = caseResponsibleRegionId;
+		this.caseRegionId = caseRegionId;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	public boolean isHighPriority() {
+		return highPriority;
+	}
+
+	public Long getContactOfficerId() {
+		return contactOfficerId;
+	}
+
+	public Long getDistrictId() {
+		return districtId;
+	}
+
+	public Long getPersonDistrictId() {
+		return personDistrictId;
+	}
+
+	public Long getCaseResponsibleDistrictId() {
+		return caseResponsibleDistrictId;
+	}
+
+	public Long getCaseDistrictId() {
+		return caseDistrictId;
+	}
+
+	public Long getRegionId() {
+		return regionId;
+	}
+
+	public Long getPersonRegionId() {
+		return personRegionId;
+	}
+
+	public Long getCaseResponsibleRegionId() {
+		return caseResponsibleRegionId;
+	}
+
+	public Long getCaseRegionId() {
+		return caseRegionId;
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -33,6 +34,7 @@ import java.util.stream.Collectors;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
@@ -51,6 +53,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.EntityRelevanceStatus;
+import de.symeda.sormas.api.common.SyncCursor;
 import de.symeda.sormas.api.contact.ContactClassification;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactDto;
@@ -68,6 +71,8 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.sample.PathogenTestResultType;
 import de.symeda.sormas.api.task.TaskCriteria;
+import de.symeda.sormas.api.task.TaskStatus;
+import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.JurisdictionLevel;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
@@ -89,6 +94,7 @@ import de.symeda.sormas.backend.exposure.ExposureService;
 import de.symeda.sormas.backend.externaljournal.ExternalJournalService;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.person.PersonSearchIndexService;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
@@ -118,6 +124,8 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 	@EJB
 	private CaseService caseService;
 	@EJB
+	private PersonSearchIndexService personSearchIndexService;
+	@EJB
 	private DiseaseConfigurationFacadeEjbLocal diseaseConfigurationFacade;
 	@EJB
 	private TaskService taskService;
@@ -146,6 +154,12 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		super(Contact.class);
 	}
 
+	@Override
+	public void ensurePersisted(Contact contact) {
+		super.ensurePersisted(contact);
+		personSearchIndexService.markAssociated(contact.getPerson());
+	}
+
 	public List<Contact> findBy(ContactCriteria contactCriteria, User user) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -167,6 +181,17 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 	}
 
 	public List<Contact> getAllActiveContactsAfter(Date date) {
+		return getAllActiveContactsAfter(date, null, null);
+	}
+
+	/**
+	 * @param after
+	 *            Only used together with maxResults: Position of the last contact of the previous batch.
+	 * @param maxResults
+	 *            If set, the contacts are sorted ascending by change date and uuid for keyset pagination. Otherwise all contacts
+	 *            are returned, sorted descending by change date.
+	 */
+	public List<Contact> getAllActiveContactsAfter(Date date, SyncCursor after, Integer maxResults) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
@@ -184,11 +209,21 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 			filter = CriteriaBuilderHelper.and(cb, filter, dateFilter);
 		}
 
+		if (maxResults != null) {
+			filter = CriteriaBuilderHelper.andAfterSyncCursor(cb, filter, after, from.get(Contact.CHANGE_DATE), from.get(Contact.UUID));
+			cq.orderBy(cb.asc(from.get(Contact.CHANGE_DATE)), cb.asc(from.get(Contact.UUID)));
+		} else {
+			cq.orderBy(cb.desc(from.get(Contact.CHANGE_DATE)));
+		}
+
 		cq.where(filter);
-		cq.orderBy(cb.desc(from.get(Contact.CHANGE_DATE)));
 		cq.distinct(true);
 
-		return em.createQuery(cq).getResultList();
+		TypedQuery<Contact> query = em.createQuery(cq);
+		if (maxResults != null) {
+			query.setMaxResults(maxResults);
+		}
+		return query.getResultList();
 	}
 
 	@Override
@@ -261,6 +296,80 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
 		Root<Contact> from = cq.from(getElementClass());
 
+		cq.where(createFollowUpBetweenFilter(cb, from, fromDate, toDate));
+
+		return em.createQuery(cq).getResultList();
+	}
+
+	/**
+	 * @return The contacts that are followed up between the dates, have the follow-up status {@link FollowUpStatus#FOLLOW_UP} or
+	 *         {@link FollowUpStatus#LOST} and don't have a task of the type due between the dates yet.
+	 */
+	public List<ContactFollowUpTaskCandidate> getFollowUpTaskCandidates(@NotNull Date fromDate, @NotNull Date toDate, TaskType taskType) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<ContactFollowUpTaskCandidate> cq = cb.createQuery(ContactFollowUpTaskCandidate.class);
+		Root<Contact> from = cq.from(getElementClass());
+		ContactJoins<Contact> joins = new ContactJoins<>(from);
+
+		cq.multiselect(
+			from.get(Contact.ID),
+			from.get(Contact.UUID),
+			from.get(Contact.HIGH_PRIORITY),
+			joins.getContactOfficer().get(User.ID),
+			joins.getDistrict().get(District.ID),
+			joins.getAddressDistrict().get(District.ID),
+			joins.getCaseResponsibleDistrict().get(District.ID),
+			joins.getCaseDistrict().get(District.ID),
+			joins.getRegion().get(Region.ID),
+			joins.getAddressRegion().get(Region.ID),
+			joins.getCaseResponsibleRegion().get(Region.ID),
+			joins.getCaseRegion().get(Region.ID));
+
+		Subquery<Long> dayTaskSubquery = cq.subquery(Long.class);
+		Root<Task> dayTask = dayTaskSubquery.from(Task.class);
+		dayTaskSubquery.select(dayTask.get(Task.ID));
+		dayTaskSubquery.where(
+			cb.equal(dayTask.get(Task.CONTACT), from),
+			cb.equal(dayTask.get(Task.TASK_TYPE), taskType),
+			cb.greaterThanOrEqualTo(dayTask.get(Task.DUE_DATE), fromDate),
+			cb.lessThan(dayTask.get(Task.DUE_DATE), toDate));
+
+		cq.where(
+			createFollowUpBetweenFilter(cb, from, fromDate, toDate),
+			from.get(Contact.FOLLOW_UP_STATUS).in(FollowUpStatus.FOLLOW_UP, FollowUpStatus.LOST),
+			cb.not(cb.exists(dayTaskSubquery)));
+
+		return em.createQuery(cq).getResultList();
+	}
+
+	/**
+	 * @return The ids of the assignees of the pending tasks of the type, grouped by the id of the contact. Only contacts that are
+	 *         followed up between the dates are considered.
+	 */
+	public Map<Long, Set<Long>> getPendingFollowUpTaskAssigneeIds(@NotNull Date fromDate, @NotNull Date toDate, TaskType taskType) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Task> from = cq.from(Task.class);
+		Join<Task, Contact> contact = from.join(Task.CONTACT);
+		Join<Task, User> assignee = from.join(Task.ASSIGNEE_USER);
+
+		cq.multiselect(contact.get(Contact.ID), assignee.get(User.ID));
+		cq.where(
+			cb.equal(from.get(Task.TASK_TYPE), taskType),
+			cb.equal(from.get(Task.TASK_STATUS), TaskStatus.PENDING),
+			createFollowUpBetweenFilter(cb, contact, fromDate, toDate));
+
+		Map<Long, Set<Long>> assigneeIds = new HashMap<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			assigneeIds.computeIfAbsent((Long) result[0], k -> new HashSet<>()).add((Long) result[1]);
+		}
+		return assigneeIds;
+	}
+
+	private Predicate createFollowUpBetweenFilter(CriteriaBuilder cb, From<?, Contact> from, Date fromDate, Date toDate) {
+
 		Predicate filter = createActiveContactsFilter(cb, from);
 		filter = cb.and(filter, cb.isNotNull(from.get(Contact.FOLLOW_UP_UNTIL)));
 		filter = cb.and(filter, cb.greaterThanOrEqualTo(from.get(Contact.FOLLOW_UP_UNTIL), fromDate));
@@ -269,10 +378,7 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 			cb.or(
 				cb.and(cb.isNotNull(from.get(Contact.LAST_CONTACT_DATE)), cb.lessThan(from.get(Contact.LAST_CONTACT_DATE), toDate)),
 				cb.lessThan(from.get(Contact.REPORT_DATE_TIME), toDate)));
-
-		cq.where(filter);
-
-		return em.createQuery(cq).getResultList();
+		return filter;
 	}
 
 	public List<Contact> getByPersonAndDisease(Person person, Disease disease) {
@@ -1301,13 +1407,7 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 	 * {@link CoreAdo#isDeleted()} or associated with cases that are
 	 * {@link Case#isArchived()}.
 	 */
-	public Predicate createActiveContactsFilter(CriteriaBuilder cb, Root<Contact> root) {
-
-		Join<Contact, Case> caze = root.join(Contact.CAZE, JoinType.LEFT);
-		return cb.and(cb.or(cb.isNull(root.get(Contact.CAZE)), cb.isFalse(caze.get(Case.ARCHIVED))), cb.isFalse(root.get(Contact.DELETED)));
-	}
-
-	public Predicate createActiveContactsFilter(CriteriaBuilder cb, Join<?, Contact> contactJoin) {
+	public Predicate createActiveContactsFilter(CriteriaBuilder cb, From<?, Contact> contactJoin) {
 
 		Join<Contact, Case> caze = contactJoin.join(Contact.CAZE, JoinType.LEFT);
 		return cb
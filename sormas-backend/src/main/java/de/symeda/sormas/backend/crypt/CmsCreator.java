@@ -1,6 +1,7 @@
 package de.symeda.sormas.backend.crypt;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
@@ -9,6 +10,7 @@ import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.bouncycastle.asn1.ASN1EncodableVector;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.cms.AttributeTable;
@@ -19,11 +21,14 @@ import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cms.CMSEnvelopedData;
 import org.bouncycastle.cms.CMSEnvelopedDataGenerator;
+import org.bouncycastle.cms.CMSEnvelopedDataStreamGenerator;
 import org.bouncycastle.cms.CMSException;
 import org.bouncycastle.cms.CMSProcessableByteArray;
 import org.bouncycastle.cms.CMSSignedData;
 import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.CMSSignedDataStreamGenerator;
 import org.bouncycastle.cms.CMSTypedData;
+import org.bouncycastle.cms.SignerInfoGenerator;
 import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
 import org.bouncycastle.cms.jcajce.JceCMSContentEncryptorBuilder;
 import org.bouncycastle.cms.jcajce.JceKeyTransRecipientInfoGenerator;
@@ -107,6 +112,50 @@ public class CmsCreator {
 		return encrypt(signedData, recipientCertificate);
 	}
 
+	/**
+	 * Streaming variant of {@link #signAndEncrypt(byte[], X509Certificate, PrivateKey, X509Certificate, boolean)}: The content is
+	 * signed and encrypted while it is written, without keeping the plain, signed or encrypted data in memory. The result is BER
+	 * encoded, which {@link CmsReader} reads like the DER encoded result of the byte array variant.
+	 *
+	 * @param out
+	 *            Receives the encrypted data; it is not closed.
+	 */
+	public static void signAndEncrypt(
+		CmsContent content,
+		X509Certificate signerCertificate,
+		PrivateKey privateKey,
+		X509Certificate recipientCertificate,
+		OutputStream out)
+		throws CMSException, IOException {
+
+		BouncyCastleProvider provider = CryptInit.getProvider();
+
+		CMSEnvelopedDataStreamGenerator encryptor = new CMSEnvelopedDataStreamGenerator();
+		try {
+			encryptor.addRecipientInfoGenerator(new JceKeyTransRecipientInfoGenerator(recipientCertificate).setProvider(provider));
+		} catch (CertificateEncodingException e) {
+			throw new RuntimeException(e.getMessage(), e);
+		}
+		OutputEncryptor outputEncryptor = new JceCMSContentEncryptorBuilder(SYMMETRIC_CRYPT_ALG).setProvider(provider).build();
+
+		CMSSignedDataStreamGenerator signer = new CMSSignedDataStreamGenerator();
+		signer.addSignerInfoGenerator(createSignerInfoGenerator(signerCertificate, privateKey, provider));
+		signer.addCertificates(createCertStore(signerCertificate));
+
+		try (OutputStream encryptedOut = encryptor.open(new CloseShieldOutputStream(out), outputEncryptor);
+			OutputStream signedOut = signer.open(encryptedOut, true)) {
+			content.writeTo(new CloseShieldOutputStream(signedOut));
+		}
+	}
+
+	/**
+	 * Content that is signed and encrypted while it is written.
+	 */
+	public interface CmsContent {
+
+		void writeTo(OutputStream out) throws IOException;
+	}
+
 	static byte[] sign(byte[] plainData, X509Certificate signerCertificate, PrivateKey privateKey, boolean validateSignature) throws CMSException {
 
 		BouncyCastleProvider provider = CryptInit.getProvider();
@@ -135,26 +184,40 @@ public class CmsCreator {
 	private static CMSSignedDataGenerator createSigner(X509Certificate signerCertificate, PrivateKey privateKey, BouncyCastleProvider provider)
 		throws CMSException {
 
-		ASN1EncodableVector attributes = createAttributes(signerCertificate);
+		CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
+		generator.addSignerInfoGenerator(createSignerInfoGenerator(signerCertificate, privateKey, provider));
 
-		try {
-			CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
-			generator.addSignerInfoGenerator(
-				new JcaSimpleSignerInfoGeneratorBuilder().setProvider(provider)
-					.setSignedAttributeGenerator(new AttributeTable(attributes))
-					.build(SIG_ALG, privateKey, signerCertificate));
+		/* Add the list of certs to the generator */
+		generator.addCertificates(createCertStore(signerCertificate));
 
-			/* Add the list of certs to the generator */
-			JcaCertStore certs = new JcaCertStore(Arrays.asList(signerCertificate));
-			generator.addCertificates(certs);
+		return generator;
+	}
 
-			return generator;
+	private static SignerInfoGenerator createSignerInfoGenerator(
+		X509Certificate signerCertificate,
+		PrivateKey privateKey,
+		BouncyCastleProvider provider) {
 
+		ASN1EncodableVector attributes = createAttributes(signerCertificate);
+
+		try {
+			return new JcaSimpleSignerInfoGeneratorBuilder().setProvider(provider)
+				.setSignedAttributeGenerator(new AttributeTable(attributes))
+				.build(SIG_ALG, privateKey, signerCertificate);
 		} catch (CertificateEncodingException | OperatorCreationException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	private static JcaCertStore createCertStore(X509Certificate signerCertificate) {
+
+		try {
+			return new JcaCertStore(Arrays.asList(signerCertificate));
+		} catch (CertificateEncodingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private static ASN1EncodableVector createAttributes(Certificate certificate) {
 		ASN1EncodableVector attributes = new ASN1EncodableVector();
 		attributes.add(
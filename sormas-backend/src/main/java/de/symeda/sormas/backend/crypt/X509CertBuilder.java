@@ -29,7 +29,7 @@ import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 /**
  * Generates simple X509 Certificates
  */
-class X509CertBuilder {
+public class X509CertBuilder {
 
 	private static final String KEY_ALG = "RSA";
 	private static final int KEY_SIZE = 4096;
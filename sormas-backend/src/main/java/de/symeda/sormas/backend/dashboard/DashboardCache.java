@@ -0,0 +1,90 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.dashboard;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import de.symeda.sormas.api.dashboard.DashboardCaseStatisticsDto;
+
+/**
+ * Node local cache of the aggregated case figures shown by the surveillance dashboard. The entries are shared by all users
+ * of the same jurisdiction, so that many users watching the same dashboard only cause one aggregation per
+ * {@link #TIME_TO_LIVE_SECONDS}.
+ * <p>
+ * Changes to cases are not tracked, the figures are up to {@link #TIME_TO_LIVE_SECONDS} old.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class DashboardCache {
+
+	public static final long TIME_TO_LIVE_SECONDS = 60;
+	public static final int MAX_ENTRIES = 1000;
+
+	private final Map<List<Object>, Entry> caseStatistics = new ConcurrentHashMap<>();
+
+	/**
+	 * @param key
+	 *            Has to contain the criteria and the jurisdiction of the current user.
+	 * @return The cached figures, or the figures provided by the loader if they are not cached or expired.
+	 */
+	public DashboardCaseStatisticsDto getCaseStatistics(List<Object> key, Supplier<DashboardCaseStatisticsDto> loader) {
+
+		long now = System.currentTimeMillis();
+		Entry entry = caseStatistics.get(key);
+		if (entry != null && entry.expiresAt > now) {
+			return entry.caseStatistics;
+		}
+
+		DashboardCaseStatisticsDto loaded = loader.get();
+		if (caseStatistics.size() >= MAX_ENTRIES) {
+			caseStatistics.values().removeIf(e -> e.expiresAt <= now);
+			if (caseStatistics.size() >= MAX_ENTRIES) {
+				caseStatistics.clear();
+			}
+		}
+		caseStatistics.put(key, new Entry(loaded, now + TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS)));
+
+		return loaded;
+	}
+
+	public void invalidateAll() {
+		caseStatistics.clear();
+	}
+
+	private static final class Entry {
+
+		private final DashboardCaseStatisticsDto caseStatistics;
+		private final long expiresAt;
+
+		private Entry(DashboardCaseStatisticsDto caseStatistics, long expiresAt) {
+			this.caseStatistics = caseStatistics;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
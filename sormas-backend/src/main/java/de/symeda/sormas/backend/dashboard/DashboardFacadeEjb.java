@@ -1,5 +1,6 @@
 package de.symeda.sormas.backend.dashboard;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -12,9 +13,11 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 
 import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.ReferenceDto;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
+import de.symeda.sormas.api.dashboard.DashboardCaseStatisticsDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
 import de.symeda.sormas.api.dashboard.DashboardFacade;
@@ -27,6 +30,8 @@ import de.symeda.sormas.api.person.PresentCondition;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.sample.PathogenTestResultType;
+import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.caze.CaseUserFilterCriteria;
 import de.symeda.sormas.backend.disease.DiseaseConfigurationFacadeEjb;
 import de.symeda.sormas.backend.event.EventFacadeEjb;
 import de.symeda.sormas.backend.feature.FeatureConfigurationFacadeEjb;
@@ -55,6 +60,12 @@ public class DashboardFacadeEjb implements DashboardFacade {
 	@EJB
 	private DashboardService dashboardService;
 
+	@EJB
+	private DashboardCache dashboardCache;
+
+	@EJB
+	private CaseService caseService;
+
 	@Override
 	public List<DashboardCaseDto> getCases(DashboardCriteria dashboardCriteria) {
 		return dashboardService.getCases(dashboardCriteria);
@@ -78,6 +89,25 @@ public class DashboardFacadeEjb implements DashboardFacade {
 		return sampleFacade.getNewTestResultCountByResultType(cases.stream().map(DashboardCaseDto::getId).collect(Collectors.toList()));
 	}
 
+	@Override
+	public DashboardCaseStatisticsDto getCaseStatistics(DashboardCriteria dashboardCriteria, Date previousDateFrom, Date previousDateTo) {
+
+		List<Object> key = Arrays.asList(
+			getUuid(dashboardCriteria.getRegion()),
+			getUuid(dashboardCriteria.getDistrict()),
+			dashboardCriteria.getDisease(),
+			dashboardCriteria.getNewCaseDateType(),
+			dashboardCriteria.getDateFrom(),
+			dashboardCriteria.getDateTo(),
+			dashboardCriteria.shouldIncludeNotACaseClassification(),
+			previousDateFrom,
+			previousDateTo,
+			caseService.getUserFilterKey(new CaseUserFilterCriteria().excludeCasesFromContacts(true)));
+
+		return dashboardCache
+			.getCaseStatistics(key, () -> dashboardService.getCaseStatistics(dashboardCriteria, previousDateFrom, previousDateTo));
+	}
+
 	@Override
 	public long countCasesConvertedFromContacts(DashboardCriteria dashboardCriteria) {
 		return dashboardService.countCasesConvertedFromContacts(dashboardCriteria);
@@ -164,6 +194,10 @@ public class DashboardFacadeEjb implements DashboardFacade {
 		return diseasesBurden;
 	}
 
+	private static String getUuid(ReferenceDto reference) {
+		return reference != null ? reference.getUuid() : null;
+	}
+
 	@LocalBean
 	@Stateless
 	public static class DashboardFacadeEjbLocal extends DashboardFacadeEjb {
@@ -20,18 +20,23 @@ import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
 import org.apache.commons.lang3.StringUtils;
 
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
+import de.symeda.sormas.api.dashboard.DashboardCaseStatisticsDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.person.PresentCondition;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
+import de.symeda.sormas.api.sample.SpecimenCondition;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseQueryContext;
@@ -47,6 +52,7 @@ import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.sample.Sample;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.JurisdictionHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -131,6 +137,116 @@ public class DashboardService {
 		return result;
 	}
 
+	/**
+	 * Aggregates the case figures of the surveillance dashboard. The fatalities are additionally counted for the cases of the
+	 * previous period.
+	 */
+	public DashboardCaseStatisticsDto getCaseStatistics(DashboardCriteria dashboardCriteria, Date previousDateFrom, Date previousDateTo) {
+
+		DashboardCaseStatisticsDto caseStatistics = new DashboardCaseStatisticsDto();
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
+
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
+
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		Predicate inQuarantineFilter = createQuarantineFilter(cb, caze, dashboardCriteria.getDateFrom(), dashboardCriteria.getDateTo());
+		Predicate placedInQuarantineFilter;
+		if (dashboardCriteria.getDateFrom() != null && dashboardCriteria.getDateTo() != null) {
+			placedInQuarantineFilter = cb.and(
+				inQuarantineFilter,
+				cb.greaterThan(caze.get(Case.QUARANTINE_FROM), DateHelper.subtractDays(dashboardCriteria.getDateFrom(), 1)),
+				cb.lessThan(caze.get(Case.QUARANTINE_FROM), dashboardCriteria.getDateTo()));
+		} else {
+			placedInQuarantineFilter = cb.disjunction();
+		}
+
+		cq.multiselect(
+			cb.count(caze),
+			cb.sum(cb.selectCase().when(createFatalCaseFilter(cb, caze, joins.getPerson()), 1).otherwise(0).as(Long.class)),
+			cb.sum(cb.selectCase().when(inQuarantineFilter, 1).otherwise(0).as(Long.class)),
+			cb.sum(cb.selectCase().when(placedInQuarantineFilter, 1).otherwise(0).as(Long.class)));
+
+		Object[] counts = em.createQuery(cq).getSingleResult();
+		caseStatistics.setCaseCount(toLong(counts[0]));
+		caseStatistics.setFatalCaseCount(toLong(counts[1]));
+		caseStatistics.setCasesInQuarantineCount(toLong(counts[2]));
+		caseStatistics.setCasesPlacedInQuarantineCount(toLong(counts[3]));
+
+		caseStatistics.setPreviousFatalCaseCount(countFatalCases(copyCriteria(dashboardCriteria).dateBetween(previousDateFrom, previousDateTo)));
+		caseStatistics.setLastReportedDistrictName(getLastReportedDistrictName(dashboardCriteria));
+		caseStatistics.setTestResultCountByResultType(getTestResultCountByResultType(dashboardCriteria));
+		caseStatistics
+			.setCaseCountByClassification(getCasesCountByClassification(copyCriteria(dashboardCriteria).includeNotACaseClassification(true)));
+
+		return caseStatistics;
+	}
+
+	public long countFatalCases(DashboardCriteria dashboardCriteria) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Case> caze = cq.from(Case.class);
+		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
+
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
+		filter = CriteriaBuilderHelper.and(cb, filter, createFatalCaseFilter(cb, caze, joins.getPerson()));
+
+		cq.where(filter);
+		cq.select(cb.count(caze));
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	/**
+	 * Counts the results of the latest adequate sample of each case.
+	 */
+	public Map<PathogenTestResultType, Long> getTestResultCountByResultType(DashboardCriteria dashboardCriteria) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		Join<Case, Sample> sample = caze.join(Case.SAMPLES, JoinType.INNER);
+
+		Subquery<Long> laterSampleSubquery = cq.subquery(Long.class);
+		Root<Sample> laterSample = laterSampleSubquery.from(Sample.class);
+		laterSampleSubquery.select(laterSample.get(Sample.ID));
+		laterSampleSubquery.where(
+			cb.equal(laterSample.get(Sample.ASSOCIATED_CASE), caze),
+			createAdequateSampleFilter(cb, laterSample),
+			cb.or(
+				cb.greaterThan(laterSample.get(Sample.SAMPLE_DATE_TIME), sample.get(Sample.SAMPLE_DATE_TIME)),
+				cb.and(
+					cb.equal(laterSample.get(Sample.SAMPLE_DATE_TIME), sample.get(Sample.SAMPLE_DATE_TIME)),
+					cb.greaterThan(laterSample.get(Sample.ID), sample.get(Sample.ID)))));
+
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
+		filter = CriteriaBuilderHelper.and(cb, filter, createAdequateSampleFilter(cb, sample), cb.not(cb.exists(laterSampleSubquery)));
+
+		cq.where(filter);
+		cq.multiselect(sample.get(Sample.PATHOGEN_TEST_RESULT), cb.count(caze));
+		cq.groupBy(sample.get(Sample.PATHOGEN_TEST_RESULT));
+
+		Map<PathogenTestResultType, Long> result = new HashMap<>();
+		for (Object[] e : em.createQuery(cq).getResultList()) {
+			if (e[0] != null) {
+				result.put((PathogenTestResultType) e[0], (Long) e[1]);
+			}
+		}
+		return result;
+	}
+
 	public Map<Disease, Long> getCaseCountByDisease(DashboardCriteria dashboardCriteria) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -408,6 +524,58 @@ public class DashboardService {
 		return filter;
 	}
 
+	private Predicate createFatalCaseFilter(CriteriaBuilder cb, From<?, Case> caze, Join<Case, Person> person) {
+
+		return cb.and(
+			cb.isNotNull(person.get(Person.PRESENT_CONDITION)),
+			cb.notEqual(person.get(Person.PRESENT_CONDITION), PresentCondition.ALIVE),
+			cb.equal(person.get(Person.CAUSE_OF_DEATH_DISEASE), caze.get(Case.DISEASE)));
+	}
+
+	/**
+	 * Cases whose quarantine overlaps with the given period. Only the known end of the quarantine is compared if the start or
+	 * end is missing.
+	 */
+	private Predicate createQuarantineFilter(CriteriaBuilder cb, From<?, Case> caze, Date dateFrom, Date dateTo) {
+
+		Path<Date> quarantineFrom = caze.get(Case.QUARANTINE_FROM);
+		Path<Date> quarantineTo = caze.get(Case.QUARANTINE_TO);
+
+		if (dateFrom != null && dateTo != null) {
+			return cb.or(
+				cb.and(cb.greaterThan(quarantineTo, dateFrom), cb.lessThan(quarantineFrom, dateTo)),
+				cb.and(cb.isNull(quarantineTo), cb.greaterThan(quarantineFrom, dateFrom), cb.lessThan(quarantineFrom, dateTo)),
+				cb.and(cb.isNull(quarantineFrom), cb.greaterThan(quarantineTo, dateFrom), cb.lessThan(quarantineTo, dateTo)));
+		} else if (dateFrom != null) {
+			return cb.or(cb.greaterThan(quarantineFrom, dateFrom), cb.and(cb.isNull(quarantineFrom), cb.greaterThan(quarantineTo, dateFrom)));
+		} else if (dateTo != null) {
+			return cb.or(cb.lessThan(quarantineFrom, dateTo), cb.and(cb.isNull(quarantineFrom), cb.lessThan(quarantineTo, dateTo)));
+		} else {
+			return cb.disjunction();
+		}
+	}
+
+	private Predicate createAdequateSampleFilter(CriteriaBuilder cb, From<?, Sample> sample) {
+
+		return cb.and(
+			cb.or(cb.isNull(sample.get(Sample.SPECIMEN_CONDITION)), cb.equal(sample.get(Sample.SPECIMEN_CONDITION), SpecimenCondition.ADEQUATE)),
+			cb.isFalse(sample.get(Sample.DELETED)));
+	}
+
+	private static DashboardCriteria copyCriteria(DashboardCriteria dashboardCriteria) {
+
+		return new DashboardCriteria().region(dashboardCriteria.getRegion())
+			.district(dashboardCriteria.getDistrict())
+			.disease(dashboardCriteria.getDisease())
+			.newCaseDateType(dashboardCriteria.getNewCaseDateType())
+			.dateBetween(dashboardCriteria.getDateFrom(), dashboardCriteria.getDateTo())
+			.includeNotACaseClassification(dashboardCriteria.shouldIncludeNotACaseClassification());
+	}
+
+	private static long toLong(Object count) {
+		return count != null ? ((Number) count).longValue() : 0L;
+	}
+
 	private Predicate buildEventCriteriaFilter(DashboardCriteria dashboardCriteria, EventQueryContext eventQueryContext) {
 
 		CriteriaBuilder cb = eventQueryContext.getCriteriaBuilder();
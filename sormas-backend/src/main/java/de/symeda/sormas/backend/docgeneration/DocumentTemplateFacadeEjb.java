@@ -22,18 +22,26 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.enterprise.concurrent.ManagedExecutorService;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -81,6 +89,15 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 
 	private static final Pattern BASENAME_PATTERN = Pattern.compile("^([^_.]+)([_.].*)?");
 
+	/**
+	 * Maximum number of documents generated at the same time in bulk generation, which is also the number of generated documents that
+	 * are held in memory before they are passed on.
+	 */
+	private static final int BULK_GENERATION_PARALLELISM = 4;
+
+	// Shared by all bean instances, so that compiled templates are reused
+	private static final TemplateEngine templateEngine = new TemplateEngine();
+
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 
@@ -120,7 +137,8 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 	@EJB
 	private EventParticipantFacadeEjbLocal eventParticipantFacade;
 
-	private TemplateEngine templateEngine = new TemplateEngine();
+	@Resource
+	private ManagedExecutorService executorService;
 
 	@Override
 	public byte[] generateDocumentDocxFromEntities(
@@ -141,12 +159,81 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		DocumentVariables documentVariables = getTemplateVariablesDocx(templateFile);
 
 		// 3. prepare properties
-		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, documentVariables);
+		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, documentVariables, getReferenceDtoResolver());
 
 		// 4. generate document
 		return generateDocumentDocx(templateFile, properties);
 	}
 
+	/**
+	 * Generates one docx document per root entity and passes it to the consumer, in the order of the given map. The properties are
+	 * prepared in the calling thread, while up to {@link #BULK_GENERATION_PARALLELISM} documents are generated in parallel.
+	 */
+	public void generateDocumentsDocxFromEntities(
+		DocumentWorkflow documentWorkflow,
+		String templateName,
+		Map<ReferenceDto, DocumentTemplateEntities> entities,
+		Properties extraProperties,
+		GeneratedDocumentConsumer documentConsumer)
+		throws DocumentTemplateException, IOException {
+		if (!documentWorkflow.isDocx()) {
+			throw new DocumentTemplateException(
+				String.format(I18nProperties.getString(Strings.messageWrongTemplateFileType), documentWorkflow, documentWorkflow.getFileExtension()));
+		}
+
+		File templateFile = getTemplateFile(documentWorkflow, templateName);
+		DocumentVariables documentVariables = getTemplateVariablesDocx(templateFile);
+		EntityDtoAccessHelper.IReferenceDtoResolver referenceDtoResolver = getReferenceDtoResolver();
+
+		Deque<AbstractMap.SimpleEntry<ReferenceDto, Future<byte[]>>> pendingDocuments = new ArrayDeque<>(BULK_GENERATION_PARALLELISM);
+		try {
+			for (Map.Entry<ReferenceDto, DocumentTemplateEntities> rootEntity : entities.entrySet()) {
+				// Resolving referenced entities accesses the database and thus stays in the transaction of this call
+				Properties properties =
+					prepareProperties(documentWorkflow, rootEntity.getValue(), extraProperties, documentVariables, referenceDtoResolver);
+				pendingDocuments.add(
+					new AbstractMap.SimpleEntry<>(
+						rootEntity.getKey(),
+						executorService.submit(() -> templateEngine.generateDocumentDocx(properties, templateFile))));
+
+				if (pendingDocuments.size() >= BULK_GENERATION_PARALLELISM) {
+					passNextDocument(pendingDocuments, documentConsumer, templateName);
+				}
+			}
+
+			while (!pendingDocuments.isEmpty()) {
+				passNextDocument(pendingDocuments, documentConsumer, templateName);
+			}
+		} finally {
+			for (AbstractMap.SimpleEntry<ReferenceDto, Future<byte[]>> pendingDocument : pendingDocuments) {
+				pendingDocument.getValue().cancel(true);
+			}
+		}
+	}
+
+	private void passNextDocument(
+		Deque<AbstractMap.SimpleEntry<ReferenceDto, Future<byte[]>>> pendingDocuments,
+		GeneratedDocumentConsumer documentConsumer,
+		String templateName)
+		throws DocumentTemplateException, IOException {
+
+		AbstractMap.SimpleEntry<ReferenceDto, Future<byte[]>> pendingDocument = pendingDocuments.poll();
+		byte[] document;
+		try {
+			document = pendingDocument.getValue().get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof DocumentTemplateException) {
+				throw (DocumentTemplateException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateName));
+		}
+
+		documentConsumer.accept(pendingDocument.getKey(), document);
+	}
+
 	@Override
 	public String generateDocumentTxtFromEntities(
 		DocumentWorkflow documentWorkflow,
@@ -166,7 +253,7 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		DocumentVariables documentVariables = getTemplateVariablesTxt(templateFile);
 
 		// 3. prepare properties
-		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, documentVariables);
+		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, documentVariables, getReferenceDtoResolver());
 
 		// 4. generate document
 		return generateDocumentTxt(templateFile, properties);
@@ -176,7 +263,8 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		DocumentWorkflow documentWorkflow,
 		DocumentTemplateEntities entities,
 		Properties extraProperties,
-		DocumentVariables documentVariables) {
+		DocumentVariables documentVariables,
+		EntityDtoAccessHelper.IReferenceDtoResolver referenceDtoResolver) {
 		Properties properties = new Properties();
 
 		// 1. Map template variables to entity data if possible
@@ -185,8 +273,6 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		// <CaseDataDto>.quarantineFrom
 		// Generic access as implemented in DataDictionaryGenerator.java
 
-		EntityDtoAccessHelper.IReferenceDtoResolver referenceDtoResolver = getReferenceDtoResolver();
-
 		String propertySeparator = documentWorkflow.isDocx() ? "." : "_";
 		for (String propertyKey : documentVariables.getVariables()) {
 			if (isEntityVariable(documentWorkflow, propertyKey)) {
@@ -256,7 +342,7 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		return templateEngine.generateDocumentDocx(properties, templateFile);
 	}
 
-	private String generateDocumentTxt(File templateFile, Properties properties) {
+	private String generateDocumentTxt(File templateFile, Properties properties) throws DocumentTemplateException {
 		return templateEngine.generateDocumentTxt(properties, templateFile);
 	}
 
@@ -422,6 +508,11 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		}
 	}
 
+	public interface GeneratedDocumentConsumer {
+
+		void accept(ReferenceDto rootEntityReference, byte[] document) throws IOException;
+	}
+
 	@LocalBean
 	@Stateless
 	public static class DocumentTemplateFacadeEjbLocal extends DocumentTemplateFacadeEjb {
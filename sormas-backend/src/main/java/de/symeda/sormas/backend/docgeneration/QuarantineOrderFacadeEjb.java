@@ -15,23 +15,39 @@
 
 package de.symeda.sormas.backend.docgeneration;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 
+import org.apache.commons.collections4.ListUtils;
+
 import de.symeda.sormas.api.ReferenceDto;
 import de.symeda.sormas.api.docgeneneration.DocumentTemplateEntities;
 import de.symeda.sormas.api.docgeneneration.DocumentTemplateException;
 import de.symeda.sormas.api.docgeneneration.DocumentVariables;
 import de.symeda.sormas.api.docgeneneration.DocumentWorkflow;
 import de.symeda.sormas.api.docgeneneration.QuarantineOrderFacade;
+import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.api.sample.PathogenTestReferenceDto;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.docgeneration.DocumentTemplateFacadeEjb.DocumentTemplateFacadeEjbLocal;
 import de.symeda.sormas.backend.event.EventParticipantFacadeEjb.EventParticipantFacadeEjbLocal;
@@ -41,6 +57,11 @@ import de.symeda.sormas.backend.sample.SampleFacadeEjb.SampleFacadeEjbLocal;
 @Stateless(name = "QuarantineOrderFacade")
 public class QuarantineOrderFacadeEjb implements QuarantineOrderFacade {
 
+	private static final int ENTITIES_CHUNK_SIZE = 100;
+
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
 	@EJB
 	private CaseFacadeEjbLocal caseFacade;
 
@@ -90,16 +111,44 @@ public class QuarantineOrderFacadeEjb implements QuarantineOrderFacade {
 
 		Map<ReferenceDto, DocumentTemplateEntities> quarantineOrderEntities =
 			entitiesBuilder.getQuarantineOrderEntities(workflow, rootEntityReferences);
-		for (Map.Entry<ReferenceDto, DocumentTemplateEntities> entities : quarantineOrderEntities.entrySet()) {
-			byte[] documentContent =
-				documentTemplateFacade.generateDocumentDocxFromEntities(workflow, templateName, entities.getValue(), extraProperties);
-
-			documents.put(entities.getKey(), documentContent);
+		try {
+			documentTemplateFacade.generateDocumentsDocxFromEntities(workflow, templateName, quarantineOrderEntities, extraProperties, documents::put);
+		} catch (IOException e) {
+			// collecting the documents in a map does not perform any I/O
+			throw new UncheckedIOException(e);
 		}
 
 		return documents;
 	}
 
+	@Override
+	public String generateDocumentsZip(
+		String templateName,
+		DocumentWorkflow workflow,
+		List<ReferenceDto> rootEntityReferences,
+		Properties extraProperties)
+		throws DocumentTemplateException, IOException {
+
+		Path zipPath = generateDocumentsZipTempPath();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(zipPath)))) {
+			// The entities are loaded in chunks, so that only the entities of one chunk are held in memory
+			for (List<ReferenceDto> chunk : ListUtils.partition(rootEntityReferences, ENTITIES_CHUNK_SIZE)) {
+				Map<ReferenceDto, DocumentTemplateEntities> quarantineOrderEntities = entitiesBuilder.getQuarantineOrderEntities(workflow, chunk);
+				documentTemplateFacade
+					.generateDocumentsDocxFromEntities(workflow, templateName, quarantineOrderEntities, extraProperties, (reference, document) -> {
+						zipOutputStream.putNextEntry(new ZipEntry(DataHelper.getShortUuid(reference) + '-' + templateName));
+						zipOutputStream.write(document);
+						zipOutputStream.closeEntry();
+					});
+			}
+		} catch (DocumentTemplateException | IOException | RuntimeException e) {
+			Files.deleteIfExists(zipPath);
+			throw e;
+		}
+
+		return zipPath.toString();
+	}
+
 	@Override
 	public List<String> getAvailableTemplates(DocumentWorkflow workflow) {
 		return documentTemplateFacade.getAvailableTemplates(workflow);
@@ -109,4 +158,13 @@ public class QuarantineOrderFacadeEjb implements QuarantineOrderFacade {
 	public DocumentVariables getDocumentVariables(DocumentWorkflow documentWorkflow, String templateName) throws DocumentTemplateException {
 		return documentTemplateFacade.getDocumentVariables(documentWorkflow, templateName);
 	}
+
+	private Path generateDocumentsZipTempPath() {
+
+		Path path = Paths.get(configFacade.getTempFilesPath());
+		String fileName = ImportExportUtils.TEMP_FILE_PREFIX + "_documents_" + DateHelper.formatDateForExport(new Date()) + "_"
+			+ new Random().nextInt(Integer.MAX_VALUE) + ".zip";
+
+		return path.resolve(fileName);
+	}
 }
@@ -19,26 +19,26 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.io.FilenameUtils;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.exception.VelocityException;
 import org.apache.velocity.runtime.RuntimeConstants;
-import org.apache.velocity.runtime.RuntimeSingleton;
+import org.apache.velocity.runtime.RuntimeInstance;
 import org.apache.velocity.runtime.parser.ParseException;
 import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.apache.velocity.util.introspection.SecureUberspector;
@@ -74,6 +74,17 @@ public class TemplateEngine {
 
 	private final Properties xdocVelocityProperties;
 
+	/**
+	 * Shared runtime for txt templates; it is configured once and only used to parse and merge templates, never to load files.
+	 */
+	private final RuntimeInstance txtVelocityRuntime;
+
+	/**
+	 * Compiled templates by absolute path. An entry is reused as long as modification time and size of the file are unchanged.
+	 */
+	private final Map<String, CompiledTemplate<IXDocReport>> docxTemplates = new ConcurrentHashMap<>();
+	private final Map<String, CompiledTemplate<Template>> txtTemplates = new ConcurrentHashMap<>();
+
 	public TemplateEngine() {
 		xdocVelocityProperties = new Properties();
 		try (InputStream velocityPropertiesFile =
@@ -86,39 +97,55 @@ public class TemplateEngine {
 		xdocVelocityProperties.setProperty(RuntimeConstants.UBERSPECT_CLASSNAME, SecureUberspector.class.getCanonicalName());
 		// Disable Includes
 		xdocVelocityProperties.setProperty(RuntimeConstants.EVENTHANDLER_INCLUDE, NoIncludesEventHandler.class.getCanonicalName());
+
+		txtVelocityRuntime = new RuntimeInstance();
+		// Disable Reflection and Classloader related methods
+		txtVelocityRuntime.setProperty(RuntimeConstants.UBERSPECT_CLASSNAME, SecureUberspector.class.getCanonicalName());
+		// Disable Includes
+		txtVelocityRuntime.setProperty(RuntimeConstants.EVENTHANDLER_INCLUDE, NoIncludesEventHandler.class.getCanonicalName());
+		// Clean Html
+		txtVelocityRuntime.setProperty(RuntimeConstants.EVENTHANDLER_REFERENCEINSERTION, CleanHtmlReference.class.getCanonicalName());
+		txtVelocityRuntime.init();
 	}
 
 	public DocumentVariables extractTemplateVariablesDocx(File templateFile) throws DocumentTemplateException {
-		try {
-			FileInputStream templateInputStream = new FileInputStream(templateFile);
-			IXDocReport report = readXDocReport(templateInputStream);
+		CompiledTemplate<IXDocReport> compiledTemplate = getDocxTemplate(templateFile);
+		if (compiledTemplate.variables == null) {
+			try {
+				FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
+				compiledTemplate.template.extractFields(extractor);
 
-			FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
-			report.extractFields(extractor);
-
-			return filterExtractedVariables(extractor);
-		} catch (XDocReportException | IOException e) {
-			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+				compiledTemplate.variables = filterExtractedVariables(extractor);
+			} catch (XDocReportException | IOException e) {
+				throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+			}
 		}
+		return copyOf(compiledTemplate.variables);
 	}
 
 	public DocumentVariables extractTemplateVariablesTxt(File templateFile) throws DocumentTemplateException {
-		try {
-			FileReader templateFileReader = new FileReader(templateFile);
-			String templateName = templateFile.getName();
-
-			FieldsExtractor<FieldExtractor> extractor = getFieldExtractorTxt(templateFileReader, templateName);
+		CompiledTemplate<Template> compiledTemplate = getTxtTemplate(templateFile);
+		if (compiledTemplate.variables == null) {
+			FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
+			((SimpleNode) compiledTemplate.template.getData()).jjtAccept(new ExtractVariablesVelocityVisitor(extractor), null);
 
-			return filterExtractedVariables(extractor);
-		} catch (IOException e) {
-			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+			compiledTemplate.variables = filterExtractedVariables(extractor);
 		}
+		return copyOf(compiledTemplate.variables);
 	}
 
 	public byte[] generateDocumentDocx(Properties properties, File templateFile) throws DocumentTemplateException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generateDocumentDocx(properties, templateFile, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Writes the document generated from the given template to the output stream. May be called concurrently for the same template.
+	 */
+	public void generateDocumentDocx(Properties properties, File templateFile, OutputStream outputStream) throws DocumentTemplateException {
 		try {
-			FileInputStream templateInputStream = new FileInputStream(templateFile);
-			IXDocReport report = readXDocReport(templateInputStream);
+			IXDocReport report = getDocxTemplate(templateFile).template;
 			IContext context = report.createContext();
 
 			for (Object key : properties.keySet()) {
@@ -130,26 +157,14 @@ public class TemplateEngine {
 				}
 			}
 
-			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 			report.process(context, outputStream);
-			return outputStream.toByteArray();
 		} catch (IOException | XDocReportException | VelocityException e) {
 			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateFile.getName()));
 		}
 	}
 
-	public String generateDocumentTxt(Properties properties, File templateFile) {
-		VelocityEngine velocityEngine = new VelocityEngine();
-		// Disable Reflection and Classloader related methods
-		velocityEngine.setProperty(RuntimeConstants.UBERSPECT_CLASSNAME, SecureUberspector.class.getCanonicalName());
-		// Disable Includes
-		velocityEngine.setProperty(RuntimeConstants.EVENTHANDLER_INCLUDE, NoIncludesEventHandler.class.getCanonicalName());
-		// Clean Html
-		velocityEngine.setProperty(RuntimeConstants.EVENTHANDLER_REFERENCEINSERTION, CleanHtmlReference.class.getCanonicalName());
-
-		velocityEngine.setProperty(RuntimeConstants.RESOURCE_LOADER, "file");
-		velocityEngine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, FilenameUtils.getFullPathNoEndSeparator(templateFile.getPath()));
-		Template template = velocityEngine.getTemplate(templateFile.getName());
+	public String generateDocumentTxt(Properties properties, File templateFile) throws DocumentTemplateException {
+		Template template = getTxtTemplate(templateFile).template;
 		VelocityContext velocityContext = new VelocityContext();
 
 		for (Object key : properties.keySet()) {
@@ -170,12 +185,14 @@ public class TemplateEngine {
 	}
 
 	public void validateTemplateDocx(InputStream templateInputStream) throws DocumentTemplateException {
+		IXDocReport report = readXDocReport(templateInputStream);
 		try {
-			IXDocReport report = readXDocReport(templateInputStream);
 			FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
 			report.extractFields(extractor);
 		} catch (XDocReportException | IOException e) {
 			throw new DocumentTemplateException(I18nProperties.getString(Strings.errorProcessingTemplate));
+		} finally {
+			XDocReportRegistry.getRegistry().unregisterReport(report);
 		}
 	}
 
@@ -203,21 +220,78 @@ public class TemplateEngine {
 	}
 
 	public void validateTemplateTxt(InputStream templateInputStream) throws DocumentTemplateException {
-		getFieldExtractorTxt(new InputStreamReader(templateInputStream), "validate");
+		parseTxtTemplate(new InputStreamReader(templateInputStream), "validate");
+	}
+
+	private CompiledTemplate<IXDocReport> getDocxTemplate(File templateFile) throws DocumentTemplateException {
+		CompiledTemplate<IXDocReport> compiledTemplate = docxTemplates.get(templateFile.getAbsolutePath());
+		if (compiledTemplate != null && compiledTemplate.isUpToDate(templateFile)) {
+			return compiledTemplate;
+		}
+
+		// Read the file metadata before the content, so that a concurrent change leads to a recompilation on the next access
+		long lastModified = templateFile.lastModified();
+		long length = templateFile.length();
+		IXDocReport report;
+		try (InputStream templateInputStream = new FileInputStream(templateFile)) {
+			report = readXDocReport(templateInputStream);
+		} catch (IOException e) {
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+		}
+
+		compiledTemplate = new CompiledTemplate<>(report, lastModified, length);
+		CompiledTemplate<IXDocReport> replacedTemplate = docxTemplates.put(templateFile.getAbsolutePath(), compiledTemplate);
+		if (replacedTemplate != null) {
+			// Reports are registered globally when loaded; documents still being generated keep their reference
+			XDocReportRegistry.getRegistry().unregisterReport(replacedTemplate.template);
+		}
+		return compiledTemplate;
 	}
 
-	private FieldsExtractor<FieldExtractor> getFieldExtractorTxt(Reader templateFileReader, String templateName) throws DocumentTemplateException {
-		FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
-		ExtractVariablesVelocityVisitor visitor = new ExtractVariablesVelocityVisitor(extractor);
+	private CompiledTemplate<Template> getTxtTemplate(File templateFile) throws DocumentTemplateException {
+		CompiledTemplate<Template> compiledTemplate = txtTemplates.get(templateFile.getAbsolutePath());
+		if (compiledTemplate != null && compiledTemplate.isUpToDate(templateFile)) {
+			return compiledTemplate;
+		}
+
+		long lastModified = templateFile.lastModified();
+		long length = templateFile.length();
+		SimpleNode document;
+		String encoding = txtVelocityRuntime.getString(RuntimeConstants.INPUT_ENCODING, RuntimeConstants.ENCODING_DEFAULT);
+		try (Reader templateFileReader = new InputStreamReader(new FileInputStream(templateFile), encoding)) {
+			document = parseTxtTemplate(templateFileReader, templateFile.getName());
+		} catch (IOException e) {
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+		}
+
+		Template template = new Template();
+		template.setRuntimeServices(txtVelocityRuntime);
+		template.setName(templateFile.getName());
+		template.setData(document);
 		try {
-			SimpleNode document = RuntimeSingleton.parse(templateFileReader, templateName);
-			document.jjtAccept(visitor, null);
-			return extractor;
+			template.initDocument();
+		} catch (VelocityException e) {
+			throw new DocumentTemplateException(I18nProperties.getString(Strings.errorProcessingTemplate));
+		}
+
+		compiledTemplate = new CompiledTemplate<>(template, lastModified, length);
+		txtTemplates.put(templateFile.getAbsolutePath(), compiledTemplate);
+		return compiledTemplate;
+	}
+
+	private SimpleNode parseTxtTemplate(Reader templateReader, String templateName) throws DocumentTemplateException {
+		try {
+			return txtVelocityRuntime.parse(templateReader, templateName);
 		} catch (ParseException e) {
 			throw new DocumentTemplateException(I18nProperties.getString(Strings.errorProcessingTemplate));
 		}
 	}
 
+	private DocumentVariables copyOf(DocumentVariables variables) {
+		// callers add used entities and additional variables to the returned instance
+		return new DocumentVariables(new HashSet<>(variables.getVariables()), new HashSet<>(variables.getNullableVariables()));
+	}
+
 	private DocumentVariables filterExtractedVariables(FieldsExtractor<FieldExtractor> extractor) {
 		Set<String> variables = new HashSet<>();
 		Set<String> nullableVariables = new HashSet<>();
@@ -240,4 +314,22 @@ public class TemplateEngine {
 		}
 		return new DocumentVariables(variables, nullableVariables);
 	}
+
+	private static final class CompiledTemplate<T> {
+
+		private final T template;
+		private final long lastModified;
+		private final long length;
+		private volatile DocumentVariables variables;
+
+		private CompiledTemplate(T template, long lastModified, long length) {
+			this.template = template;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		private boolean isUpToDate(File templateFile) {
+			return templateFile.lastModified() == lastModified && templateFile.length() == length;
+		}
+	}
 }
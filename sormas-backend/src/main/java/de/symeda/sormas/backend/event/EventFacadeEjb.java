@@ -74,6 +74,7 @@ import de.symeda.sormas.api.facility.FacilityDto;
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.user.UserRight;
@@ -558,6 +559,25 @@ public class EventFacadeEjb implements EventFacade {
 
 	@Override
 	public List<EventExportDto> getExportList(EventCriteria eventCriteria, Collection<String> selectedRows, Integer first, Integer max) {
+		return getExportList(eventCriteria, selectedRows, first, max, null, false);
+	}
+
+	@Override
+	public List<EventExportDto> getExportList(EventCriteria eventCriteria, Collection<String> selectedRows, ExportCursor after, int max) {
+		return getExportList(eventCriteria, selectedRows, 0, max, after, true);
+	}
+
+	/**
+	 * @param keysetPaging
+	 *            If true, the list is sorted by report date and uuid and starts after the given cursor instead of the offset.
+	 */
+	private List<EventExportDto> getExportList(
+		EventCriteria eventCriteria,
+		Collection<String> selectedRows,
+		Integer first,
+		Integer max,
+		ExportCursor after,
+		boolean keysetPaging) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<EventExportDto> cq = cb.createQuery(EventExportDto.class);
 		Root<Event> event = cq.from(Event.class);
@@ -634,8 +654,16 @@ public class EventFacadeEjb implements EventFacade {
 			filter = CriteriaBuilderHelper.andInValues(selectedRows, filter, cb, event.get(Event.UUID));
 		}
 
+		if (keysetPaging) {
+			filter = CriteriaBuilderHelper.andAfterCursor(cb, filter, after, event.get(Event.REPORT_DATE_TIME), event.get(Event.UUID));
+		}
+
 		cq.where(filter);
-		cq.orderBy(cb.desc(event.get(Event.REPORT_DATE_TIME)));
+		if (keysetPaging) {
+			cq.orderBy(cb.desc(event.get(Event.REPORT_DATE_TIME)), cb.desc(event.get(Event.UUID)));
+		} else {
+			cq.orderBy(cb.desc(event.get(Event.REPORT_DATE_TIME)));
+		}
 
 		List<EventExportDto> exportList = QueryHelper.getResultList(em, cq, first, max);
 
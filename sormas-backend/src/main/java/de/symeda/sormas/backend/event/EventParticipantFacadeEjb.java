@@ -85,7 +85,6 @@ import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.feature.FeatureConfigurationFacadeEjb;
@@ -272,27 +271,19 @@ public class EventParticipantFacadeEjb implements EventParticipantFacade {
 			entry.getValue()
 				.filter(user -> StringUtils.isNotEmpty(user.getUserEmail()))
 				.ifPresent(user -> {
-					try {
-						messagingService.sendMessage(
-							user,
-							MessageSubject.EVENT_PARTICIPANT_RELATED_TO_OTHER_EVENTS,
-							String.format(
-								I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_RELATED_TO_OTHER_EVENTS),
-								DataHelper.getShortUuid(eventParticipant.getPerson().getUuid()),
-								DataHelper.getShortUuid(eventParticipant.getUuid()),
-								DataHelper.getShortUuid(event.getUuid()),
-								User.buildCaptionForNotification(event.getResponsibleUser()),
-								User.buildCaptionForNotification(userService.getCurrentUser()),
-								buildEventListContentForNotification(responsibleUserByEventUuid)),
-							MessageType.EMAIL,
-							MessageType.SMS);
-					} catch (NotificationDeliveryFailedException e) {
-						logger.error(
-							String.format(
-								"NotificationDeliveryFailedException when trying to notify event responsible user about a newly created EventPartipant related to other events. "
-									+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-								user.getUuid()));
-					}
+					messagingService.sendMessage(
+						user,
+						MessageSubject.EVENT_PARTICIPANT_RELATED_TO_OTHER_EVENTS,
+						String.format(
+							I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_RELATED_TO_OTHER_EVENTS),
+							DataHelper.getShortUuid(eventParticipant.getPerson().getUuid()),
+							DataHelper.getShortUuid(eventParticipant.getUuid()),
+							DataHelper.getShortUuid(event.getUuid()),
+							User.buildCaptionForNotification(event.getResponsibleUser()),
+							User.buildCaptionForNotification(userService.getCurrentUser()),
+							buildEventListContentForNotification(responsibleUserByEventUuid)),
+						MessageType.EMAIL,
+						MessageType.SMS);
 				});
 		}
 	}
@@ -49,6 +49,7 @@ import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactQueryContext;
 import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.person.PersonQueryContext;
+import de.symeda.sormas.backend.person.PersonSearchIndexService;
 import de.symeda.sormas.backend.sample.Sample;
 import de.symeda.sormas.backend.sample.SampleService;
 import de.symeda.sormas.backend.sormastosormas.shareinfo.SormasToSormasShareInfoService;
@@ -67,6 +68,8 @@ public class EventParticipantService extends AbstractCoreAdoService<EventPartici
 	@EJB
 	private EventService eventService;
 	@EJB
+	private PersonSearchIndexService personSearchIndexService;
+	@EJB
 	private SampleService sampleService;
 	@EJB
 	private VaccinationInfoService vaccinationInfoService;
@@ -77,6 +80,12 @@ public class EventParticipantService extends AbstractCoreAdoService<EventPartici
 		super(EventParticipant.class);
 	}
 
+	@Override
+	public void ensurePersisted(EventParticipant eventParticipant) {
+		super.ensurePersisted(eventParticipant);
+		personSearchIndexService.markAssociated(eventParticipant.getPerson());
+	}
+
 	public List<EventParticipant> getAllActiveEventParticipantsAfter(Date date, User user) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -0,0 +1,243 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.feature;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.feature.FeatureType;
+import de.symeda.sormas.backend.util.MBeanHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Node local cache of the feature states checked by {@link FeatureConfigurationFacadeEjb}.
+ * <ul>
+ * <li>Entries expire after {@link #TIME_TO_LIVE_MINUTES}.</li>
+ * <li>Changes made through {@link FeatureConfigurationService} invalidate the cache when their transaction completes.</li>
+ * <li>Changes made on other nodes of a cluster are detected by polling the latest change date and the number of feature
+ * configurations every {@link #POLL_INTERVAL_SECONDS} seconds.</li>
+ * </ul>
+ * Hits, misses and invalidations are exposed as JMX attributes of {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class FeatureConfigurationCache implements FeatureConfigurationCacheMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=FeatureConfigurationCache";
+
+	public static final long TIME_TO_LIVE_MINUTES = 10;
+	public static final int POLL_INTERVAL_SECONDS = 30;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	private final Map<FeatureType, Entry> featureDisabled = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented by every invalidation, so values loaded concurrently to an invalidation are not cached.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	private volatile ChangeState lastChangeState;
+
+	@PostConstruct
+	public void registerMBean() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "feature configuration cache metrics");
+	}
+
+	@PreDestroy
+	public void unregisterMBean() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "feature configuration cache metrics");
+	}
+
+	/**
+	 * @return The cached state of the feature, or the state provided by the loader if it is not cached or expired.
+	 */
+	public boolean isFeatureDisabled(FeatureType featureType, BooleanSupplier loader) {
+
+		long now = System.currentTimeMillis();
+		Entry entry = featureDisabled.get(featureType);
+		if (entry != null && entry.expiresAt > now) {
+			hits.increment();
+			return entry.value;
+		}
+
+		misses.increment();
+		long loadGeneration = generation.get();
+		boolean value = loader.getAsBoolean();
+		if (loadGeneration == generation.get()) {
+			featureDisabled.put(featureType, new Entry(value, now + TimeUnit.MINUTES.toMillis(TIME_TO_LIVE_MINUTES)));
+		}
+
+		return value;
+	}
+
+	/**
+	 * Invalidates the cache now and again when the current transaction completes, because other threads could load and cache
+	 * the old state until the changes are committed.
+	 */
+	public void invalidateAfterCompletion() {
+
+		invalidateAll();
+
+		if (transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null) {
+			transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == Status.STATUS_COMMITTED) {
+						invalidateAll();
+					}
+				}
+			});
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+
+		generation.incrementAndGet();
+		featureDisabled.clear();
+		invalidations.increment();
+	}
+
+	/**
+	 * Invalidates the cache when feature configurations have been changed on another node.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/" + POLL_INTERVAL_SECONDS, persistent = false)
+	@TransactionAttribute(TransactionAttributeType.REQUIRED)
+	public void pollChanges() {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<FeatureConfiguration> root = cq.from(FeatureConfiguration.class);
+		cq.multiselect(cb.greatest(root.<Date> get(FeatureConfiguration.CHANGE_DATE)), cb.count(root));
+
+		Object[] result = em.createQuery(cq).getSingleResult();
+		ChangeState changeState = new ChangeState((Date) result[0], (Long) result[1]);
+
+		if (lastChangeState != null && !lastChangeState.equals(changeState)) {
+			logger.debug("Feature configurations have been changed, invalidating cache");
+			invalidateAll();
+		}
+		lastChangeState = changeState;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	@Override
+	public long getInvalidations() {
+		return invalidations.sum();
+	}
+
+	@Override
+	public int getSize() {
+		return featureDisabled.size();
+	}
+
+	private static final class Entry {
+
+		private final boolean value;
+		private final long expiresAt;
+
+		private Entry(boolean value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static final class ChangeState {
+
+		private final Date latestChangeDate;
+		private final long count;
+
+		private ChangeState(Date latestChangeDate, long count) {
+			this.latestChangeDate = latestChangeDate;
+			this.count = count;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ChangeState that = (ChangeState) o;
+			return count == that.count && Objects.equals(latestChangeDate, that.latestChangeDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(latestChangeDate, count);
+		}
+	}
+}
@@ -72,6 +72,8 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 	private DistrictService districtService;
 	@EJB
 	private UserService userService;
+	@EJB
+	private FeatureConfigurationCache featureConfigurationCache;
 
 	@Override
 	public List<FeatureConfigurationDto> getAllAfter(Date date) {
@@ -242,6 +244,10 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 
 	@Override
 	public boolean isFeatureDisabled(FeatureType featureType) {
+		return featureConfigurationCache.isFeatureDisabled(featureType, () -> countDisabledFeatureConfigurations(featureType) > 0);
+	}
+
+	private long countDisabledFeatureConfigurations(FeatureType featureType) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
@@ -250,7 +256,7 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 		cq.where(cb.and(cb.equal(root.get(FeatureConfiguration.FEATURE_TYPE), featureType), cb.isFalse(root.get(FeatureConfiguration.ENABLED))));
 		cq.select(cb.count(root));
 
-		return em.createQuery(cq).getSingleResult() > 0;
+		return em.createQuery(cq).getSingleResult();
 	}
 
 	@Override
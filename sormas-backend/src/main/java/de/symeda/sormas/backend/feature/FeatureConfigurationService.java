@@ -6,8 +6,10 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.persistence.EntityExistsException;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -30,10 +32,25 @@ import de.symeda.sormas.backend.user.User;
 @LocalBean
 public class FeatureConfigurationService extends AdoServiceWithUserFilter<FeatureConfiguration> {
 
+	@EJB
+	private FeatureConfigurationCache featureConfigurationCache;
+
 	public FeatureConfigurationService() {
 		super(FeatureConfiguration.class);
 	}
 
+	@Override
+	public void ensurePersisted(FeatureConfiguration configuration) throws EntityExistsException {
+		super.ensurePersisted(configuration);
+		featureConfigurationCache.invalidateAfterCompletion();
+	}
+
+	@Override
+	public void delete(FeatureConfiguration configuration) {
+		super.delete(configuration);
+		featureConfigurationCache.invalidateAfterCompletion();
+	}
+
 	public List<String> getDeletedUuids(Date since, User user) {
 
 		StringBuilder queryBuilder = new StringBuilder();
@@ -0,0 +1,206 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status.Family;
+
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.util.ClientHelper;
+
+/**
+ * Sends the requests of {@link GeocodingService} to the geocoding service.
+ * <ul>
+ * <li>All requests share one HTTP client with a connection pool of {@link ConfigFacadeEjbLocal#getGeocodingMaxConcurrentRequests()}
+ * connections.</li>
+ * <li>All requests of this node together are limited to {@link ConfigFacadeEjbLocal#getGeocodingMaxRequestsPerSecond()}.</li>
+ * <li>{@link #requestAll} runs at most {@link ConfigFacadeEjbLocal#getGeocodingMaxConcurrentRequests()} requests in parallel.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class GeocodingClient {
+
+	private static final int TIMEOUT_SECONDS = 10;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
+	@Resource
+	private ManagedExecutorService executorService;
+
+	private int maxConcurrentRequests;
+	private RateLimiter rateLimiter;
+	private Client client;
+
+	@PostConstruct
+	public void createClient() {
+
+		maxConcurrentRequests = Math.max(1, configFacade.getGeocodingMaxConcurrentRequests());
+		rateLimiter = RateLimiter.create(Math.max(1, configFacade.getGeocodingMaxRequestsPerSecond()));
+
+		ClientBuilder clientBuilder =
+			ClientHelper.newBuilderWithProxy().connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		if (clientBuilder instanceof ResteasyClientBuilder) {
+			// without a pool, RESTEasy clients can only be used by one thread at a time
+			((ResteasyClientBuilder) clientBuilder).connectionPoolSize(maxConcurrentRequests).maxPooledPerRoute(maxConcurrentRequests);
+		}
+		client = clientBuilder.build();
+	}
+
+	@PreDestroy
+	public void closeClient() {
+		client.close();
+	}
+
+	/**
+	 * Requests the coordinates of all queries.
+	 * 
+	 * @return The results of the queries the geocoding service has answered, including the addresses it could not find. Queries
+	 *         that failed, e.g. because of timeouts, are missing.
+	 */
+	public Map<LocationQuery, GeocodingResult> requestAll(Map<LocationQuery, URI> urls, String latitudeJsonPath, String longitudeJsonPath) {
+
+		Queue<Map.Entry<LocationQuery, URI>> pendingRequests = new ConcurrentLinkedQueue<>(urls.entrySet());
+		Map<LocationQuery, GeocodingResult> results = new ConcurrentHashMap<>();
+		Runnable worker = () -> {
+			Map.Entry<LocationQuery, URI> request;
+			while ((request = pendingRequests.poll()) != null) {
+				GeocodingResult result = request(request.getKey(), request.getValue(), latitudeJsonPath, longitudeJsonPath);
+				if (result != null) {
+					results.put(request.getKey(), result);
+				}
+			}
+		};
+
+		int workerCount = Math.min(maxConcurrentRequests, urls.size());
+		if (workerCount <= 1) {
+			worker.run();
+		} else {
+			List<Future<?>> workers = new ArrayList<>(workerCount);
+			for (int i = 0; i < workerCount; i++) {
+				workers.add(executorService.submit(worker));
+			}
+			awaitAll(workers);
+		}
+
+		return results;
+	}
+
+	private void awaitAll(Collection<Future<?>> workers) {
+
+		for (Future<?> worker : workers) {
+			try {
+				worker.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				workers.forEach(w -> w.cancel(true));
+				return;
+			} catch (ExecutionException e) {
+				logger.error("Geocoding worker failed", e.getCause());
+			}
+		}
+	}
+
+	private GeocodingResult request(LocationQuery query, URI url, String latitudeJsonPath, String longitudeJsonPath) {
+
+		rateLimiter.acquire();
+
+		Response response;
+		// prevent timeouts on invalid addresses from causing errors
+		try {
+			response = client.target(url).request(MediaType.APPLICATION_JSON_TYPE).get();
+		} catch (ProcessingException exception) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("geosearch query '{}' threw Exception with cause {}", query, String.valueOf(exception.getCause()));
+			}
+			return null;
+		}
+
+		try {
+			String responseText = readResponseAsText(response);
+			if (response.getStatusInfo().getFamily() != Family.SUCCESSFUL) {
+				if (logger.isErrorEnabled()) {
+					logger.error("geosearch query '{}' returned {} - {}:\n{}", query, response.getStatus(), response.getStatusInfo(), responseText);
+				}
+				return null;
+			}
+
+			GeocodingResult result = new GeocodingResult();
+			result.setQueryKey(query.getCacheKey());
+			result.setChangeDate(new Timestamp(System.currentTimeMillis()));
+			try {
+				result.setLatitude(JsonPath.read(responseText, latitudeJsonPath));
+				result.setLongitude(JsonPath.read(responseText, longitudeJsonPath));
+			} catch (PathNotFoundException e) {
+				logger.debug("geosearch coordinates not found in '{}'", responseText);
+				result.setLatitude(null);
+				result.setLongitude(null);
+			}
+			return result;
+		} finally {
+			response.close();
+		}
+	}
+
+	private String readResponseAsText(Response response) {
+		try {
+			return response.readEntity(String.class).trim();
+		} catch (RuntimeException e) {
+			return "(Exception when retrieving body: " + e + ")";
+		}
+	}
+}
@@ -20,8 +20,6 @@ package de.symeda.sormas.backend.geocoding;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 
-import org.apache.commons.lang3.StringUtils;
-
 import de.symeda.sormas.api.geocoding.GeocodingFacade;
 import de.symeda.sormas.api.region.GeoLatLon;
 
@@ -39,8 +37,9 @@ public class GeocodingFacadeEjb implements GeocodingFacade {
 	@Override
 	public GeoLatLon getLatLon(String street, String houseNumber, String postalCode, String city) {
 
-		if (StringUtils.isNotBlank(street) && (StringUtils.isNotBlank(city) || StringUtils.isNotBlank(postalCode))) {
-			return geocodingService.getLatLon(new LocationQuery(houseNumber, street, postalCode, city));
+		LocationQuery query = new LocationQuery(houseNumber, street, postalCode, city);
+		if (query.isGeocodable()) {
+			return geocodingService.getLatLon(query);
 		}
 
 		return null;
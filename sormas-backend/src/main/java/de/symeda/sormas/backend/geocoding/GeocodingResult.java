@@ -0,0 +1,89 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Transient;
+
+/**
+ * Cached response of the geocoding service for a {@link LocationQuery}. Addresses the service could not find are cached as well,
+ * without coordinates, so they are not requested again until the entry expires.
+ */
+@Entity(name = GeocodingResult.TABLE_NAME)
+public class GeocodingResult implements Serializable {
+
+	private static final long serialVersionUID = -4325183712298713407L;
+
+	public static final String TABLE_NAME = "geocodingresult";
+
+	public static final String QUERY_KEY = "queryKey";
+	public static final String LATITUDE = "latitude";
+	public static final String LONGITUDE = "longitude";
+	public static final String CHANGE_DATE = "changeDate";
+
+	private String queryKey;
+	private Double latitude;
+	private Double longitude;
+	private Timestamp changeDate;
+
+	/**
+	 * @see LocationQuery#getCacheKey()
+	 */
+	@Id
+	@Column(name = "querykey", length = 1024)
+	public String getQueryKey() {
+		return queryKey;
+	}
+
+	public void setQueryKey(String queryKey) {
+		this.queryKey = queryKey;
+	}
+
+	public Double getLatitude() {
+		return latitude;
+	}
+
+	public void setLatitude(Double latitude) {
+		this.latitude = latitude;
+	}
+
+	public Double getLongitude() {
+		return longitude;
+	}
+
+	public void setLongitude(Double longitude) {
+		this.longitude = longitude;
+	}
+
+	@Column(nullable = false)
+	public Timestamp getChangeDate() {
+		return changeDate;
+	}
+
+	public void setChangeDate(Timestamp changeDate) {
+		this.changeDate = changeDate;
+	}
+
+	@Transient
+	public boolean isFound() {
+		return latitude != null && longitude != null;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import de.symeda.sormas.backend.util.IterableHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Reads and writes the cached {@link GeocodingResult}s.
+ */
+@Stateless
+@LocalBean
+public class GeocodingResultService {
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	/**
+	 * @param notBefore
+	 *            Results that have been requested before are expired and not returned.
+	 * @return The results by {@link GeocodingResult#getQueryKey()}
+	 */
+	public Map<String, GeocodingResult> getResults(Collection<String> queryKeys, Timestamp notBefore) {
+
+		Map<String, GeocodingResult> results = new HashMap<>();
+		IterableHelper.executeBatched(new ArrayList<>(queryKeys), ModelConstants.PARAMETER_LIMIT, batchedKeys -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<GeocodingResult> cq = cb.createQuery(GeocodingResult.class);
+			Root<GeocodingResult> root = cq.from(GeocodingResult.class);
+			cq.where(root.get(GeocodingResult.QUERY_KEY).in(batchedKeys), cb.greaterThanOrEqualTo(root.get(GeocodingResult.CHANGE_DATE), notBefore));
+
+			for (GeocodingResult result : em.createQuery(cq).getResultList()) {
+				results.put(result.getQueryKey(), result);
+			}
+		});
+
+		return results;
+	}
+
+	/**
+	 * Stores the results in their own transaction, so they are cached even if the caller's transaction fails.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void saveResults(Collection<GeocodingResult> results) {
+
+		for (GeocodingResult result : results) {
+			GeocodingResult existing = em.find(GeocodingResult.class, result.getQueryKey());
+			if (existing == null) {
+				em.persist(result);
+			} else {
+				existing.setLatitude(result.getLatitude());
+				existing.setLongitude(result.getLongitude());
+				existing.setChangeDate(result.getChangeDate());
+			}
+		}
+	}
+}
@@ -21,39 +21,42 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import javax.ejb.EJB;
+import javax.ejb.EJBException;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.Status.Family;
-
-import org.apache.commons.lang3.StringUtils;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
 import org.apache.commons.text.StringSubstitutor;
 import org.apache.http.client.utils.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
 import com.nimbusds.jose.util.StandardCharset;
 
 import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.location.Location;
-import de.symeda.sormas.backend.util.ClientHelper;
 
+/**
+ * Geocodes addresses with the service configured by {@link ConfigFacadeEjbLocal#getGeocodingServiceUrlTemplate()}. The results
+ * are cached as {@link GeocodingResult}s for {@link ConfigFacadeEjbLocal#getGeocodingCacheDays()}, the requests are sent by the
+ * {@link GeocodingClient}.
+ */
 @Stateless
 @LocalBean
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
 public class GeocodingService {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
@@ -65,6 +68,10 @@ public class GeocodingService {
 
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
+	@EJB
+	private GeocodingClient geocodingClient;
+	@EJB
+	private GeocodingResultService geocodingResultService;
 
 	public boolean isEnabled() {
 		return configFacade.getGeocodingServiceUrlTemplate() != null;
@@ -76,77 +83,78 @@ public class GeocodingService {
 		String houseNumber = Objects.toString(location.getHouseNumber(), "");
 		String city = Objects.toString(location.getCity(), "");
 		String postalCode = Objects.toString(location.getPostalCode(), "");
-		if (StringUtils.isNotBlank(street) && (StringUtils.isNotBlank(city) || StringUtils.isNotBlank(postalCode))) {
-			return getLatLon(new LocationQuery(houseNumber, street, postalCode, city));
+		LocationQuery query = new LocationQuery(houseNumber, street, postalCode, city);
+		if (query.isGeocodable()) {
+			return getLatLon(query);
 		}
 		return null;
 	}
 
 	public GeoLatLon getLatLon(LocationQuery query) {
-
-		String urlTemplate = configFacade.getGeocodingServiceUrlTemplate();
-		if (DataHelper.isNullOrEmpty(urlTemplate)
-			|| DataHelper.isNullOrEmpty(configFacade.getGeocodingLatitudeJsonPath())
-			|| DataHelper.isNullOrEmpty(configFacade.getGeocodingLongitudeJsonPath())) {
-			return null;
-		}
-
-		return getLatLon(query, urlTemplate);
+		return getLatLons(Collections.singleton(query)).get(query);
 	}
 
-	private GeoLatLon getLatLon(LocationQuery query, String urlTemplate) {
+	/**
+	 * Geocodes many addresses at once: Queries that are equal or have been cached are only requested once, the others are
+	 * requested in parallel. Should be called outside of transactions, because the requests can take a long time.
+	 * 
+	 * @return The coordinates of the queries that could be geocoded
+	 */
+	public Map<LocationQuery, GeoLatLon> getLatLons(Collection<LocationQuery> queries) {
 
-		StringSubstitutor substitutor = new StringSubstitutor(buildQuerySubstitutions(query));
-		String url = substitutor.replace(urlTemplate);
+		String urlTemplate = configFacade.getGeocodingServiceUrlTemplate();
+		String latitudeJsonPath = configFacade.getGeocodingLatitudeJsonPath();
+		String longitudeJsonPath = configFacade.getGeocodingLongitudeJsonPath();
+		if (DataHelper.isNullOrEmpty(urlTemplate) || DataHelper.isNullOrEmpty(latitudeJsonPath) || DataHelper.isNullOrEmpty(longitudeJsonPath)) {
+			return Collections.emptyMap();
+		}
 
-		URI targetUrl;
-		try {
-			targetUrl = new URIBuilder(url).build();
-		} catch (URISyntaxException e) {
-			throw new IllegalArgumentException(e);
+		Map<String, LocationQuery> queriesByKey = new LinkedHashMap<>();
+		for (LocationQuery query : queries) {
+			queriesByKey.putIfAbsent(query.getCacheKey(), query);
 		}
 
-		Client client = ClientHelper.newBuilderWithProxy().connectTimeout(10, TimeUnit.SECONDS).readTimeout(10, TimeUnit.SECONDS).build();
-		WebTarget target = client.target(targetUrl);
-		Response response = null;
+		Timestamp notBefore = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(configFacade.getGeocodingCacheDays()));
+		Map<String, GeocodingResult> results = new HashMap<>(geocodingResultService.getResults(queriesByKey.keySet(), notBefore));
 
-		// prevent timeouts on invalid addresses from causing errors
-		try {
-			response = target.request(MediaType.APPLICATION_JSON_TYPE).get();
-		} catch (ProcessingException exception) {
-			if (logger.isWarnEnabled()) {
-				logger.warn("geosearch query '{}' threw Exception with cause {}", query, exception.getCause().toString());
+		Map<LocationQuery, URI> urls = new LinkedHashMap<>();
+		queriesByKey.forEach((key, query) -> {
+			if (!results.containsKey(key)) {
+				urls.put(query, buildUrl(query, urlTemplate));
+			}
+		});
+
+		if (!urls.isEmpty()) {
+			Map<LocationQuery, GeocodingResult> requestedResults = geocodingClient.requestAll(urls, latitudeJsonPath, longitudeJsonPath);
+			requestedResults.values().forEach(result -> results.put(result.getQueryKey(), result));
+			try {
+				geocodingResultService.saveResults(requestedResults.values());
+			} catch (EJBException e) {
+				// e.g. another node has cached the same address concurrently
+				logger.warn("Could not cache geocoding results", e);
 			}
-			return null;
 		}
 
-		String responseText = readResponseAsText(response);
-		if (response.getStatusInfo().getFamily() != Family.SUCCESSFUL) {
-			if (logger.isErrorEnabled()) {
-				logger.error("geosearch query '{}' returned {} - {}:\n{}", query, response.getStatus(), response.getStatusInfo(), responseText);
+		Map<LocationQuery, GeoLatLon> latLons = new HashMap<>();
+		for (LocationQuery query : queriesByKey.values()) {
+			GeocodingResult result = results.get(query.getCacheKey());
+			if (result != null && result.isFound()) {
+				latLons.put(query, new GeoLatLon(result.getLatitude(), result.getLongitude()));
 			}
-			return null;
 		}
 
-		try {
-			Double latitude = JsonPath.read(responseText, configFacade.getGeocodingLatitudeJsonPath());
-			Double longitude = JsonPath.read(responseText, configFacade.getGeocodingLongitudeJsonPath());
+		return latLons;
+	}
 
-			return new GeoLatLon(latitude, longitude);
-		} catch (PathNotFoundException e) {
-			if (logger.isDebugEnabled()) {
-				logger.debug("geosearch coordinates not found in '{}'" + responseText);
-			}
+	private URI buildUrl(LocationQuery query, String urlTemplate) {
 
-			return null;
-		}
-	}
+		StringSubstitutor substitutor = new StringSubstitutor(buildQuerySubstitutions(query));
+		String url = substitutor.replace(urlTemplate);
 
-	private String readResponseAsText(Response response) {
 		try {
-			return response.readEntity(String.class).trim();
-		} catch (RuntimeException e) {
-			return "(Exception when retrieving body: " + e + ")";
+			return new URIBuilder(url).build();
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException(e);
 		}
 	}
 
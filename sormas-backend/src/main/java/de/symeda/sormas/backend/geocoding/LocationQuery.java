@@ -15,6 +15,14 @@
 
 package de.symeda.sormas.backend.geocoding;
 
+import java.util.Locale;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Address to be geocoded. Queries that only differ in case or whitespace are equal and share the same {@link #getCacheKey()}.
+ */
 public class LocationQuery {
 
 	private final String houseNumber;
@@ -45,6 +53,40 @@ public class LocationQuery {
 		return city;
 	}
 
+	/**
+	 * @return Whether the query contains enough of the address to be geocoded: The street and the city or postal code.
+	 */
+	public boolean isGeocodable() {
+		return StringUtils.isNotBlank(street) && (StringUtils.isNotBlank(city) || StringUtils.isNotBlank(postalCode));
+	}
+
+	/**
+	 * @return The trimmed, lower case address parts with collapsed whitespace, used as key of the {@link GeocodingResult}s.
+	 */
+	public String getCacheKey() {
+		return normalize(street) + '|' + normalize(houseNumber) + '|' + normalize(postalCode) + '|' + normalize(city);
+	}
+
+	private static String normalize(String value) {
+		return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return getCacheKey().equals(((LocationQuery) o).getCacheKey());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(getCacheKey());
+	}
+
 	@Override
 	public String toString() {
 		return "LocationQuery{" + "houseNumber='" + houseNumber + '\'' + ", street='" + street + '\'' + ", postalCode='" + postalCode + '\''
@@ -30,6 +30,7 @@ import javax.persistence.criteria.Root;
 import de.symeda.sormas.api.immunization.ImmunizationCriteria;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.common.AbstractCoreAdoService;
+import de.symeda.sormas.backend.person.PersonSearchIndexService;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.JurisdictionHelper;
@@ -40,11 +41,19 @@ public class ImmunizationService extends AbstractCoreAdoService<Immunization> {
 
 	@EJB
 	private UserService userService;
+	@EJB
+	private PersonSearchIndexService personSearchIndexService;
 
 	public ImmunizationService() {
 		super(Immunization.class);
 	}
 
+	@Override
+	public void ensurePersisted(Immunization immunization) {
+		super.ensurePersisted(immunization);
+		personSearchIndexService.markAssociated(immunization.getPerson());
+	}
+
 	public boolean inJurisdictionOrOwned(Immunization immunization) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
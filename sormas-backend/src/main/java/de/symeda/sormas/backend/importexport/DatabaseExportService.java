@@ -15,32 +15,70 @@
 
 package de.symeda.sormas.backend.importexport;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.hibernate.Session;
 import org.postgresql.PGConnection;
 import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.symeda.sormas.api.importexport.DatabaseTable;
+import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.backend.action.Action;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.clinicalcourse.ClinicalCourse;
@@ -77,19 +115,34 @@ import de.symeda.sormas.backend.visit.Visit;
 
 /**
  * Exporting data directly from the PostgreSQL database with COPY commands as .csv files.
- * 
+ * <p>
+ * With a parallelism greater than 1, the tables are copied concurrently over several connections into compressed temporary files. All
+ * connections read the snapshot exported by a coordinating connection ({@code pg_export_snapshot()}), so the exported tables are
+ * consistent with each other as if they had been read in a single transaction.
+ *
  * @author Stefan Kock
  */
 @Stateless
 @LocalBean
 public class DatabaseExportService {
 
-	private static final String COPY_SINGLE_TABLE = "COPY (SELECT * FROM %s) TO STDOUT WITH (FORMAT CSV, DELIMITER '%s', HEADER)";
+	private static final String COPY_SINGLE_TABLE = "COPY (SELECT * FROM %s%s) TO STDOUT WITH (FORMAT CSV, DELIMITER '%s', HEADER)";
 	private static final String COPY_WITH_JOIN_TABLE =
-		"COPY (SELECT * FROM %s AS root_table INNER JOIN %s AS leaf_table ON (root_table.%s = leaf_table.%s)) TO STDOUT WITH (FORMAT CSV, DELIMITER '%s', HEADER)";
+		"COPY (SELECT * FROM %s AS root_table INNER JOIN %s AS leaf_table ON (root_table.%s = leaf_table.%s)%s) TO STDOUT WITH (FORMAT CSV, DELIMITER '%s', HEADER)";
+	/**
+	 * COPY does not support bind parameters, so the timestamp is passed as a literal without time zone, formatted like a bound
+	 * {@link Timestamp} in the time zone of the server. This matches {@code changedate}, which is stored without time zone.
+	 */
+	private static final String WHERE_CHANGED_SINCE = " WHERE changedate > TIMESTAMP '%s'";
+	private static final String WHERE_ANY_CHANGED_SINCE =
+		" WHERE (root_table.changedate > TIMESTAMP '%1$s' OR leaf_table.changedate > TIMESTAMP '%1$s')";
 
 	private static final Map<DatabaseTable, DatabaseExportConfiguration> EXPORT_CONFIGS = new LinkedHashMap<>();
-	public static final String COUNT_TABLE_COLUMNS = "SELECT COUNT(column_name) FROM information_schema.columns WHERE table_name=:tableName";
+	public static final String COUNT_TABLE_COLUMNS =
+		"SELECT table_name, COUNT(column_name) FROM information_schema.columns WHERE table_name = ANY(?) GROUP BY table_name";
+	private static final String TABLE_PAGES = "SELECT relname, relpages FROM pg_class WHERE relkind = 'r' AND relname = ANY(?)";
+
+	private static final String SORMAS_DATA_POOL_JNDI = "jdbc/sormasDataPool";
 
 	static {
 		EXPORT_CONFIGS.put(DatabaseTable.CASES, new DatabaseExportConfiguration(Case.TABLE_NAME));
@@ -134,28 +187,289 @@ public class DatabaseExportService {
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
+	@Resource(lookup = SORMAS_DATA_POOL_JNDI)
+	private DataSource dataSource;
+
+	@Resource
+	private ManagedExecutorService executorService;
+
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 
-	public void exportAsCsvFiles(ZipOutputStream zos, List<DatabaseTable> databaseTables) throws IOException {
+	/**
+	 * Exports the tables one after another within the current transaction.
+	 *
+	 * @param changedSince
+	 *            If not null, only rows changed after this point in time are exported. Deleted rows are not exported.
+	 */
+	public void exportAsCsvFiles(ZipOutputStream zos, List<DatabaseTable> databaseTables, Date changedSince) throws IOException {
 
 		//Writer must not be closed so it does not close the zip too early
 		Writer writer = new OutputStreamWriter(zos, StandardCharsets.UTF_8);
+		char csvSeparator = configFacade.getCsvSeparator();
+		Map<String, Integer> columnCounts = em.unwrap(Session.class).doReturningWork(conn -> getColumnCounts(conn, databaseTables));
 
 		// Export all selected tables to .csv files
 		for (DatabaseTable databaseTable : databaseTables) {
 			zos.putNextEntry(new ZipEntry(databaseTable.getFileName() + ".csv"));
 			DatabaseExportConfiguration exportConfig = getConfig(databaseTable);
-			addEntityNamesRow(exportConfig, writer);
-			addDataRows(databaseTable, exportConfig, writer);
+			addEntityNamesRow(exportConfig, columnCounts, csvSeparator, writer);
+			addDataRows(databaseTable, exportConfig, changedSince, csvSeparator, writer);
 			writer.flush();
 			zos.closeEntry();
 		}
 	}
 
-	private void addEntityNamesRow(DatabaseExportConfiguration config, Writer writer) throws IOException {
-		final int mainTableColumnCount = getColumnCount(config.getTableName());
+	/**
+	 * Exports the tables concurrently over up to {@code parallelism} connections that all read the same database snapshot. Each table
+	 * is copied and compressed into a temporary file by the worker that exports it; the compressed files are then assembled into the
+	 * zip archive without compressing them again.
+	 *
+	 * @param changedSince
+	 *            If not null, only rows changed after this point in time are exported. Deleted rows are not exported.
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void exportAsCsvFilesInParallel(Path zipPath, List<DatabaseTable> databaseTables, Date changedSince, int parallelism)
+		throws IOException {
+
+		long startTime = System.currentTimeMillis();
 		char csvSeparator = configFacade.getCsvSeparator();
+		Set<DatabaseTable> distinctTables = new LinkedHashSet<>(databaseTables);
+		Path tempDirectory =
+			Files.createTempDirectory(Paths.get(configFacade.getTempFilesPath()), ImportExportUtils.TEMP_FILE_PREFIX + "_database_export_");
+
+		try (Connection connection = dataSource.getConnection()) {
+			beginSnapshotTransaction(connection);
+			try {
+				// The snapshot stays importable as long as this transaction is open
+				String snapshotId;
+				try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT pg_export_snapshot()")) {
+					resultSet.next();
+					snapshotId = resultSet.getString(1);
+				}
+
+				Map<String, Integer> columnCounts = getColumnCounts(connection, distinctTables);
+				Queue<DatabaseTable> pendingTables = new ConcurrentLinkedQueue<>(sortByTableSize(connection, distinctTables));
+				AtomicBoolean failed = new AtomicBoolean();
+
+				List<Future<List<CompressedCsvFile>>> workers = new ArrayList<>();
+				for (int i = 0; i < Math.min(parallelism, distinctTables.size()); i++) {
+					workers.add(
+						executorService
+							.submit(() -> exportTables(snapshotId, pendingTables, columnCounts, changedSince, csvSeparator, tempDirectory, failed)));
+				}
+
+				Map<DatabaseTable, CompressedCsvFile> csvFiles = new EnumMap<>(DatabaseTable.class);
+				Throwable failure = null;
+				// Wait for all workers, even after a failure, so that no worker still writes into the temp directory
+				for (Future<List<CompressedCsvFile>> worker : workers) {
+					try {
+						for (CompressedCsvFile csvFile : worker.get()) {
+							csvFiles.put(csvFile.databaseTable, csvFile);
+						}
+					} catch (ExecutionException e) {
+						failed.set(true);
+						failure = failure == null ? e.getCause() : failure;
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						failed.set(true);
+						failure = failure == null ? e : failure;
+					}
+				}
+				if (failure instanceof IOException) {
+					throw (IOException) failure;
+				} else if (failure instanceof RuntimeException) {
+					throw (RuntimeException) failure;
+				} else if (failure != null) {
+					throw new RuntimeException("Failed to export the database", failure);
+				}
+
+				writeZipArchive(zipPath, distinctTables, csvFiles);
+			} finally {
+				endSnapshotTransaction(connection);
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Failed to export the database", e);
+		} finally {
+			FileUtils.deleteQuietly(tempDirectory.toFile());
+		}
+
+		logger.debug(
+			"exportAsCsvFilesInParallel(): Exported {} tables with {} connections in {} ms",
+			distinctTables.size(),
+			Math.min(parallelism, distinctTables.size()),
+			System.currentTimeMillis() - startTime);
+	}
+
+	/**
+	 * Worker of {@link #exportAsCsvFilesInParallel(Path, List, Date, int)}: Takes tables from the queue until it is empty or another
+	 * worker failed.
+	 */
+	private List<CompressedCsvFile> exportTables(
+		String snapshotId,
+		Queue<DatabaseTable> pendingTables,
+		Map<String, Integer> columnCounts,
+		Date changedSince,
+		char csvSeparator,
+		Path directory,
+		AtomicBoolean failed)
+		throws SQLException, IOException {
+
+		List<CompressedCsvFile> csvFiles = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection()) {
+			beginSnapshotTransaction(connection);
+			try (Statement statement = connection.createStatement()) {
+				// snapshotId is generated by PostgreSQL and cannot be passed as bind parameter
+				statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				DatabaseTable databaseTable;
+				while (!failed.get() && (databaseTable = pendingTables.poll()) != null) {
+					csvFiles.add(exportCompressedCsv(pgConnection, databaseTable, columnCounts, changedSince, csvSeparator, directory));
+				}
+			} catch (SQLException | IOException | RuntimeException e) {
+				failed.set(true);
+				throw e;
+			} finally {
+				endSnapshotTransaction(connection);
+			}
+		}
+		return csvFiles;
+	}
+
+	private CompressedCsvFile exportCompressedCsv(
+		PGConnection pgConnection,
+		DatabaseTable databaseTable,
+		Map<String, Integer> columnCounts,
+		Date changedSince,
+		char csvSeparator,
+		Path directory)
+		throws SQLException, IOException {
+
+		long startTime = System.currentTimeMillis();
+		String sql = buildCopySql(getConfig(databaseTable), changedSince, csvSeparator);
+
+		CompressedCsvFile csvFile;
+		try (InputStream csv = new PGCopyInputStream(pgConnection, sql)) {
+			csvFile = writeCompressedCsv(databaseTable, csv, columnCounts, csvSeparator, directory);
+		}
+
+		logger.trace(
+			"exportAsCsvFilesInParallel(): Exported '{}' in {} ms. sql='{}'",
+			databaseTable.getFileName(),
+			System.currentTimeMillis() - startTime,
+			sql);
+		return csvFile;
+	}
+
+	/**
+	 * Writes the entity names row followed by the {@code csv} rows into a temporary file in {@code directory}, compressed like a zip
+	 * entry so that {@link #writeZipArchive(Path, Collection, Map)} can add it as it is.
+	 *
+	 * @param csv
+	 *            UTF-8 encoded CSV rows, as delivered by PostgreSQL's COPY.
+	 */
+	static CompressedCsvFile writeCompressedCsv(
+		DatabaseTable databaseTable,
+		InputStream csv,
+		Map<String, Integer> columnCounts,
+		char csvSeparator,
+		Path directory)
+		throws IOException {
+
+		Path file = directory.resolve(databaseTable.getFileName() + ".csv.deflate");
+
+		// Raw deflate data (without zlib header) as it is stored in zip entries
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		CRC32 crc = new CRC32();
+		try {
+			try (OutputStream out =
+				new CheckedOutputStream(new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), deflater), crc)) {
+				//Writer must not be closed so it does not close the stream before the rows are copied
+				Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+				addEntityNamesRow(getConfig(databaseTable), columnCounts, csvSeparator, writer);
+				writer.flush();
+				IOUtils.copy(csv, out);
+			}
+			return new CompressedCsvFile(databaseTable, file, crc.getValue(), deflater.getBytesRead(), deflater.getBytesWritten());
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Assembles the files written by {@link #writeCompressedCsv(DatabaseTable, InputStream, Map, char, Path)} into the zip archive,
+	 * without compressing them again.
+	 */
+	static void writeZipArchive(Path zipPath, Collection<DatabaseTable> databaseTables, Map<DatabaseTable, CompressedCsvFile> csvFiles)
+		throws IOException {
+
+		try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zipPath.toFile())) {
+			for (DatabaseTable databaseTable : databaseTables) {
+				CompressedCsvFile csvFile = csvFiles.get(databaseTable);
+				ZipArchiveEntry entry = new ZipArchiveEntry(databaseTable.getFileName() + ".csv");
+				entry.setMethod(ZipEntry.DEFLATED);
+				entry.setTime(System.currentTimeMillis());
+				entry.setCrc(csvFile.crc);
+				entry.setSize(csvFile.size);
+				entry.setCompressedSize(csvFile.compressedSize);
+				try (InputStream in = Files.newInputStream(csvFile.file)) {
+					zos.addRawArchiveEntry(entry, in);
+				}
+			}
+		}
+	}
+
+	private static void beginSnapshotTransaction(Connection connection) throws SQLException {
+
+		connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+		connection.setAutoCommit(false);
+	}
+
+	/**
+	 * Ends the read-only transaction and restores the defaults before the connection is returned to the pool.
+	 */
+	private static void endSnapshotTransaction(Connection connection) throws SQLException {
+
+		connection.rollback();
+		connection.setAutoCommit(true);
+		connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	/**
+	 * Export the largest tables first, so that the workers finish at about the same time.
+	 */
+	private static List<DatabaseTable> sortByTableSize(Connection connection, Collection<DatabaseTable> databaseTables) throws SQLException {
+
+		Map<String, Long> tablePages = new HashMap<>();
+		try (PreparedStatement statement = connection.prepareStatement(TABLE_PAGES)) {
+			statement.setArray(1, createTableNameArray(connection, databaseTables));
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					tablePages.put(resultSet.getString(1), resultSet.getLong(2));
+				}
+			}
+		}
+
+		List<DatabaseTable> sortedTables = new ArrayList<>(databaseTables);
+		sortedTables.sort((t1, t2) -> Long.compare(getTablePages(tablePages, t2), getTablePages(tablePages, t1)));
+		return sortedTables;
+	}
+
+	private static long getTablePages(Map<String, Long> tablePages, DatabaseTable databaseTable) {
+
+		DatabaseExportConfiguration config = getConfig(databaseTable);
+		long pages = tablePages.getOrDefault(config.getTableName(), 0L);
+		if (config.isUseJoinTable()) {
+			pages += tablePages.getOrDefault(config.getJoinTableName(), 0L);
+		}
+		return pages;
+	}
+
+	private static void addEntityNamesRow(DatabaseExportConfiguration config, Map<String, Integer> columnCounts, char csvSeparator, Writer writer)
+		throws IOException {
+
+		final int mainTableColumnCount = columnCounts.getOrDefault(config.getTableName(), 0);
 		if (mainTableColumnCount > 0) {
 			writer.write(config.getTableName());
 		}
@@ -163,7 +477,7 @@ public class DatabaseExportService {
 			writer.write(csvSeparator + config.getTableName());
 		}
 		if (config.isUseJoinTable()) {
-			final int joinTableColumnCount = getColumnCount(config.getJoinTableName());
+			final int joinTableColumnCount = columnCounts.getOrDefault(config.getJoinTableName(), 0);
 			for (int i = 0; i < joinTableColumnCount; i++) {
 				writer.write(csvSeparator + config.getJoinTableName());
 			}
@@ -171,35 +485,73 @@ public class DatabaseExportService {
 		writer.write('\n');
 	}
 
-	private int getColumnCount(String tableName) {
-		BigInteger bigIntegerResult = (BigInteger) em.createNativeQuery(COUNT_TABLE_COLUMNS).setParameter("tableName", tableName).getSingleResult();
-		return bigIntegerResult.intValue();
+	/**
+	 * @return The number of columns of all tables involved in exporting the given databaseTables, in one query.
+	 */
+	private static Map<String, Integer> getColumnCounts(Connection connection, Collection<DatabaseTable> databaseTables) throws SQLException {
+
+		Map<String, Integer> columnCounts = new HashMap<>();
+		try (PreparedStatement statement = connection.prepareStatement(COUNT_TABLE_COLUMNS)) {
+			statement.setArray(1, createTableNameArray(connection, databaseTables));
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					columnCounts.put(resultSet.getString(1), resultSet.getInt(2));
+				}
+			}
+		}
+		return columnCounts;
+	}
+
+	private static Array createTableNameArray(Connection connection, Collection<DatabaseTable> databaseTables) throws SQLException {
+
+		Set<String> tableNames = new LinkedHashSet<>();
+		for (DatabaseTable databaseTable : databaseTables) {
+			DatabaseExportConfiguration config = getConfig(databaseTable);
+			tableNames.add(config.getTableName());
+			if (config.isUseJoinTable()) {
+				tableNames.add(config.getJoinTableName());
+			}
+		}
+		return connection.createArrayOf("varchar", tableNames.toArray());
 	}
 
-	private void addDataRows(DatabaseTable databaseTable, DatabaseExportConfiguration config, Writer writer) {
+	private void addDataRows(DatabaseTable databaseTable, DatabaseExportConfiguration config, Date changedSince, char csvSeparator, Writer writer) {
 		long startTime = System.currentTimeMillis();
-		final String sql;
+		final String sql = buildCopySql(config, changedSince, csvSeparator);
+		writeCsv(writer, sql, databaseTable.getFileName());
+
+		// Be able to check performance for each export query
+		logger
+			.trace("exportAsCsvFiles(): Exported '{}' in {} ms. sql='{}'", databaseTable.getFileName(), System.currentTimeMillis() - startTime, sql);
+	}
+
+	static String buildCopySql(DatabaseExportConfiguration config, Date changedSince, char csvSeparator) {
+
 		if (config.isUseJoinTable()) {
-			sql = String.format(
+			return String.format(
 				COPY_WITH_JOIN_TABLE,
 				config.getTableName(),
 				config.getJoinTableName(),
 				config.getColumnName(),
 				config.getJoinColumnName(),
-				configFacade.getCsvSeparator());
+				changedSince != null ? String.format(WHERE_ANY_CHANGED_SINCE, toTimestampLiteral(changedSince)) : "",
+				csvSeparator);
 		} else {
-			sql = String.format(COPY_SINGLE_TABLE, config.getTableName(), configFacade.getCsvSeparator());
+			return String.format(
+				COPY_SINGLE_TABLE,
+				config.getTableName(),
+				changedSince != null ? String.format(WHERE_CHANGED_SINCE, toTimestampLiteral(changedSince)) : "",
+				csvSeparator);
 		}
-		writeCsv(writer, sql, databaseTable.getFileName());
+	}
 
-		// Be able to check performance for each export query
-		logger
-			.trace("exportAsCsvFiles(): Exported '{}' in {} ms. sql='{}'", databaseTable.getFileName(), System.currentTimeMillis() - startTime, sql);
+	static String toTimestampLiteral(Date date) {
+		return new Timestamp(date.getTime()).toString();
 	}
 
 	/**
 	 * Run an export command and write the result directly into a Writer
-	 * 
+	 *
 	 * @param writer
 	 * @param sql
 	 *            Actual native sql command to copy data to CSV.
@@ -230,4 +582,21 @@ public class DatabaseExportService {
 		// leave EXPORT_CONFIGS strictly private to fulfill the expectation to a constant
 		return EXPORT_CONFIGS.get(databaseTable);
 	}
+
+	static final class CompressedCsvFile {
+
+		private final DatabaseTable databaseTable;
+		private final Path file;
+		private final long crc;
+		private final long size;
+		private final long compressedSize;
+
+		CompressedCsvFile(DatabaseTable databaseTable, Path file, long crc, long size, long compressedSize) {
+			this.databaseTable = databaseTable;
+			this.file = file;
+			this.crc = crc;
+			this.size = size;
+			this.compressedSize = compressedSize;
+		}
+	}
 }
@@ -105,6 +105,11 @@ public class ExportFacadeEjb implements ExportFacade {
 
 	@Override
 	public String generateDatabaseExportArchive(List<DatabaseTable> databaseTables) throws ExportErrorException, IOException {
+		return generateDatabaseExportArchive(databaseTables, null);
+	}
+
+	@Override
+	public String generateDatabaseExportArchive(List<DatabaseTable> databaseTables, Date changedSince) throws ExportErrorException, IOException {
 
 		// Create the folder if it doesn't exist
 		try {
@@ -122,9 +127,16 @@ public class ExportFacadeEjb implements ExportFacade {
 			throw new IOException("File already exists: " + zipPath);
 		}
 
-		try (OutputStream fos = Files.newOutputStream(zipPath); ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(fos))) {
-			// Export all selected tables to .csv files
-			databaseExportService.exportAsCsvFiles(zos, databaseTables);
+		int parallelism = configFacade.getDatabaseExportParallelism();
+		try {
+			if (parallelism > 1) {
+				databaseExportService.exportAsCsvFilesInParallel(zipPath, databaseTables, changedSince, parallelism);
+			} else {
+				try (OutputStream fos = Files.newOutputStream(zipPath); ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(fos))) {
+					// Export all selected tables to .csv files
+					databaseExportService.exportAsCsvFiles(zos, databaseTables, changedSince);
+				}
+			}
 		} catch (RuntimeException e) {
 			Files.deleteIfExists(zipPath);
 			throw e;
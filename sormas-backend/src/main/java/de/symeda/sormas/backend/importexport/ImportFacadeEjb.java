@@ -137,6 +137,7 @@ import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.common.EnumService;
 import de.symeda.sormas.backend.disease.DiseaseConfigurationFacadeEjb.DiseaseConfigurationFacadeEjbLocal;
 import de.symeda.sormas.backend.feature.FeatureConfigurationFacadeEjb.FeatureConfigurationFacadeEjbLocal;
+import de.symeda.sormas.backend.importexport.ImportLookupCache.ImportLookups;
 import de.symeda.sormas.backend.region.AreaFacadeEjb.AreaFacadeEjbLocal;
 import de.symeda.sormas.backend.region.CountryFacadeEjb;
 import de.symeda.sormas.backend.region.CountryFacadeEjb.CountryFacadeEjbLocal;
@@ -857,6 +858,21 @@ public class ImportFacadeEjb implements ImportFacade {
 	}
 
 	public boolean executeDefaultInvoke(PropertyDescriptor pd, Object element, String entry, String[] entryHeaderPath, boolean allowForeignRegions)
+		throws InvocationTargetException, IllegalAccessException, ParseException, ImportErrorException, EnumService.InvalidEnumCaptionException {
+		return executeDefaultInvoke(pd, element, entry, entryHeaderPath, allowForeignRegions, ImportLookups.NONE);
+	}
+
+	/**
+	 * @param lookups
+	 *            Caches the countries, areas, regions and users the entries are resolved to.
+	 */
+	public boolean executeDefaultInvoke(
+		PropertyDescriptor pd,
+		Object element,
+		String entry,
+		String[] entryHeaderPath,
+		boolean allowForeignRegions,
+		ImportLookups lookups)
 		throws InvocationTargetException, IllegalAccessException, ParseException, ImportErrorException, EnumService.InvalidEnumCaptionException {
 		Class<?> propertyType = pd.getPropertyType();
 
@@ -917,7 +933,8 @@ public class ImportFacadeEjb implements ImportFacade {
 			return true;
 		}
 		if (propertyType.isAssignableFrom(CountryReferenceDto.class)) {
-			List<CountryReferenceDto> countries = countryFacade.getReferencesByName(entry, false);
+			List<CountryReferenceDto> countries =
+				lookups.get(Arrays.asList(CountryReferenceDto.class, entry), () -> countryFacade.getReferencesByName(entry, false));
 			if (countries.isEmpty()) {
 				throw new ImportErrorException(
 					I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildEntityProperty(entryHeaderPath)));
@@ -930,7 +947,7 @@ public class ImportFacadeEjb implements ImportFacade {
 			}
 		}
 		if (propertyType.isAssignableFrom(AreaReferenceDto.class)) {
-			List<AreaReferenceDto> areas = areaFacade.getByName(entry, false);
+			List<AreaReferenceDto> areas = lookups.get(Arrays.asList(AreaReferenceDto.class, entry), () -> areaFacade.getByName(entry, false));
 			if (areas.isEmpty()) {
 				throw new ImportErrorException(
 					I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildEntityProperty(entryHeaderPath)));
@@ -943,31 +960,17 @@ public class ImportFacadeEjb implements ImportFacade {
 			}
 		}
 		if (propertyType.isAssignableFrom(RegionReferenceDto.class)) {
-			List<Region> regions = regionService.getByName(entry, false);
-			if (regions.isEmpty()) {
-				throw new ImportErrorException(
-					I18nProperties.getValidationError(Validations.importEntryDoesNotExist, entry, buildEntityProperty(entryHeaderPath)));
-			} else if (regions.size() > 1) {
-				throw new ImportErrorException(
-					I18nProperties.getValidationError(Validations.importRegionNotUnique, entry, buildEntityProperty(entryHeaderPath)));
-			} else if (allowForeignRegions) {
-				pd.getWriteMethod().invoke(element, RegionFacadeEjb.toReferenceDto(regions.get(0)));
-				return true;
+			DataHelper.Pair<RegionReferenceDto, String> region =
+				lookups.get(Arrays.asList(RegionReferenceDto.class, entry, allowForeignRegions), () -> getRegionByName(entry, allowForeignRegions));
+			if (region.getElement1() != null) {
+				throw new ImportErrorException(I18nProperties.getValidationError(region.getElement1(), entry, buildEntityProperty(entryHeaderPath)));
 			} else {
-				Region region = regions.get(0);
-				CountryReferenceDto serverCountry = countryFacade.getServerCountry();
-
-				if (region.getCountry() != null && !CountryFacadeEjb.toReferenceDto(region.getCountry()).equals(serverCountry)) {
-					throw new ImportErrorException(
-						I18nProperties.getValidationError(Validations.importRegionNotInServerCountry, entry, buildEntityProperty(entryHeaderPath)));
-				} else {
-					pd.getWriteMethod().invoke(element, RegionFacadeEjb.toReferenceDto(region));
-					return true;
-				}
+				pd.getWriteMethod().invoke(element, region.getElement0());
+				return true;
 			}
 		}
 		if (propertyType.isAssignableFrom(UserReferenceDto.class)) {
-			UserDto user = userFacade.getByUserName(entry);
+			UserDto user = lookups.get(Arrays.asList(UserReferenceDto.class, entry), () -> userFacade.getByUserName(entry));
 			if (user != null) {
 				pd.getWriteMethod().invoke(element, user.toReference());
 				return true;
@@ -984,6 +987,31 @@ public class ImportFacadeEjb implements ImportFacade {
 		return false;
 	}
 
+	/**
+	 * @return The region with the given name, or the key of the validation error if there is no such region or it can't be
+	 *         used.
+	 */
+	private DataHelper.Pair<RegionReferenceDto, String> getRegionByName(String name, boolean allowForeignRegions) {
+
+		List<Region> regions = regionService.getByName(name, false);
+		if (regions.isEmpty()) {
+			return DataHelper.Pair.createPair(null, Validations.importEntryDoesNotExist);
+		} else if (regions.size() > 1) {
+			return DataHelper.Pair.createPair(null, Validations.importRegionNotUnique);
+		} else if (allowForeignRegions) {
+			return DataHelper.Pair.createPair(RegionFacadeEjb.toReferenceDto(regions.get(0)), null);
+		} else {
+			Region region = regions.get(0);
+			CountryReferenceDto serverCountry = countryFacade.getServerCountry();
+
+			if (region.getCountry() != null && !CountryFacadeEjb.toReferenceDto(region.getCountry()).equals(serverCountry)) {
+				return DataHelper.Pair.createPair(null, Validations.importRegionNotInServerCountry);
+			} else {
+				return DataHelper.Pair.createPair(RegionFacadeEjb.toReferenceDto(region), null);
+			}
+		}
+	}
+
 	public String buildEntityProperty(String[] entityPropertyPath) {
 		return String.join(".", entityPropertyPath);
 	}
@@ -0,0 +1,114 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.importexport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * Node local cache of the infrastructure and user references that the cells of an import file have been resolved to, per
+ * running import. Imports resolve the same names over and over again, e.g. the district and facility of every imported case,
+ * so each name is only looked up once per import.
+ * <ul>
+ * <li>The lookups of an import are removed by {@link #removeLookups(String)} when it is finished, or when they have not been
+ * used for {@link #TIME_TO_LIVE_MINUTES}.</li>
+ * <li>Infrastructure data changed during an import is not seen by the remaining lines of that import.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class ImportLookupCache {
+
+	public static final long TIME_TO_LIVE_MINUTES = 30;
+
+	private final Map<String, ImportLookups> lookups = new ConcurrentHashMap<>();
+
+	/**
+	 * @return The lookups of the import, created if the import has not resolved any name yet.
+	 */
+	public ImportLookups getLookups(String importUuid) {
+
+		long now = System.currentTimeMillis();
+		lookups.values().removeIf(l -> l.lastAccess < now - TimeUnit.MINUTES.toMillis(TIME_TO_LIVE_MINUTES));
+
+		ImportLookups importLookups = lookups.computeIfAbsent(importUuid, uuid -> new ImportLookups(true));
+		importLookups.lastAccess = now;
+		return importLookups;
+	}
+
+	public void removeLookups(String importUuid) {
+		lookups.remove(importUuid);
+	}
+
+	/**
+	 * The results of the lookups of one import. Can be used concurrently by the lines of the import that are processed in
+	 * parallel.
+	 */
+	public static final class ImportLookups {
+
+		/**
+		 * Does not cache anything, for lines that are imported on their own.
+		 */
+		public static final ImportLookups NONE = new ImportLookups(false);
+
+		private static final Object NULL_RESULT = new Object();
+
+		private final boolean caching;
+		private final Map<List<Object>, Object> results = new ConcurrentHashMap<>();
+		private volatile long lastAccess;
+
+		private ImportLookups(boolean caching) {
+			this.caching = caching;
+		}
+
+		/**
+		 * @param key
+		 *            Has to identify the lookup, e.g. the type of the looked up entity, the name and the parent infrastructure.
+		 * @return The cached result, or the result of the loader if the lookup has not been done for this import yet. Two lines
+		 *         resolving the same name concurrently may both call the loader.
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T get(List<Object> key, Supplier<T> loader) {
+
+			if (!caching) {
+				return loader.get();
+			}
+
+			Object result = results.get(key);
+			if (result == null) {
+				T loaded = loader.get();
+				result = loaded != null ? loaded : NULL_RESULT;
+				Object existing = results.putIfAbsent(key, result);
+				if (existing != null) {
+					result = existing;
+				}
+			}
+			return result != NULL_RESULT ? (T) result : null;
+		}
+	}
+}
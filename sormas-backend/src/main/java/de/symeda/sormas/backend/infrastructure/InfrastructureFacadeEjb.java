@@ -1,11 +1,14 @@
 package de.symeda.sormas.backend.infrastructure;
 
+import java.util.Arrays;
+
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.infrastructure.InfrastructureChangeDatesDto;
 import de.symeda.sormas.api.infrastructure.InfrastructureFacade;
+import de.symeda.sormas.api.infrastructure.InfrastructureSnapshotDto;
 import de.symeda.sormas.api.infrastructure.InfrastructureSyncDto;
 import de.symeda.sormas.backend.campaign.CampaignFacadeEjb;
 import de.symeda.sormas.backend.campaign.form.CampaignFormMetaFacadeEjb;
@@ -68,6 +71,8 @@ public class InfrastructureFacadeEjb implements InfrastructureFacade {
 	private CampaignFacadeEjb.CampaignFacadeEjbLocal campaignFacade;
 	@EJB
 	private CampaignFormMetaFacadeEjb.CampaignFormMetaFacadeEjbLocal campaignFormMetaFacade;
+	@EJB
+	private InfrastructureSnapshotCache infrastructureSnapshotCache;
 
 	@Override
 	public InfrastructureSyncDto getInfrastructureSyncData(InfrastructureChangeDatesDto changeDates) {
@@ -106,4 +111,72 @@ public class InfrastructureFacadeEjb implements InfrastructureFacade {
 
 		return sync;
 	}
+
+	@Override
+	public InfrastructureSnapshotDto getInfrastructureSnapshot(
+		String regionUuid,
+		String eTag,
+		String rangeETag,
+		Long rangeFirstByte,
+		Long rangeLastByte) {
+
+		if (regionUuid != null && regionFacade.getRegionByUuid(regionUuid) == null) {
+			throw new IllegalArgumentException("Unknown region: " + regionUuid);
+		}
+
+		InfrastructureSnapshotCache.Snapshot snapshot = infrastructureSnapshotCache.getSnapshot(regionUuid);
+		byte[] data = snapshot.getData();
+		InfrastructureSnapshotDto snapshotDto = new InfrastructureSnapshotDto();
+		snapshotDto.setETag(snapshot.getETag());
+		snapshotDto.setChangeDate(snapshot.getChangeDate());
+		snapshotDto.setTotalLength(data.length);
+		if (snapshot.getETag().equals(eTag)) {
+			return snapshotDto;
+		}
+
+		// a range of another version of the snapshot would corrupt the download, so the whole snapshot is sent instead
+		long[] byteRange = rangeETag == null || rangeETag.equals(snapshot.getETag())
+			? getByteRange(rangeFirstByte, rangeLastByte, data.length)
+			: null;
+		if (byteRange == null) {
+			snapshotDto.setData(data);
+		} else if (byteRange.length == 0) {
+			snapshotDto.setData(new byte[0]);
+		} else {
+			snapshotDto.setRangeStart(byteRange[0]);
+			snapshotDto.setData(Arrays.copyOfRange(data, (int) byteRange[0], (int) byteRange[1] + 1));
+		}
+		return snapshotDto;
+	}
+
+	/**
+	 * @return The first and last byte of the requested range, an empty array if it is not satisfiable or null if the whole data is to
+	 *         be sent (no range or an invalid range).
+	 */
+	static long[] getByteRange(Long firstByte, Long lastByte, long length) {
+
+		long start;
+		long end;
+		if (firstByte == null) {
+			if (lastByte == null) {
+				return null;
+			}
+			// suffix range: the last n bytes
+			if (lastByte == 0) {
+				return new long[0];
+			}
+			start = Math.max(0, length - lastByte);
+			end = length - 1;
+		} else {
+			start = firstByte;
+			end = lastByte == null ? length - 1 : Math.min(lastByte, length - 1);
+			if (end < start && start < length) {
+				return null;
+			}
+		}
+
+		return start < length ? new long[] {
+			start,
+			end } : new long[0];
+	}
 }
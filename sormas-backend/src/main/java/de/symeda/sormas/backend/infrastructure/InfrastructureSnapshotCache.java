@@ -0,0 +1,423 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.infrastructure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.facility.FacilityDto;
+import de.symeda.sormas.api.infrastructure.InfrastructureSnapshotDto;
+import de.symeda.sormas.api.infrastructure.PointOfEntryDto;
+import de.symeda.sormas.api.region.CommunityDto;
+import de.symeda.sormas.api.region.DistrictDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.backend.facility.Facility;
+import de.symeda.sormas.backend.facility.FacilityFacadeEjb.FacilityFacadeEjbLocal;
+import de.symeda.sormas.backend.infrastructure.PointOfEntryFacadeEjb.PointOfEntryFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Area;
+import de.symeda.sormas.backend.region.AreaFacadeEjb.AreaFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Community;
+import de.symeda.sormas.backend.region.CommunityFacadeEjb.CommunityFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Continent;
+import de.symeda.sormas.backend.region.ContinentFacadeEjb.ContinentFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Country;
+import de.symeda.sormas.backend.region.CountryFacadeEjb.CountryFacadeEjbLocal;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.DistrictFacadeEjb.DistrictFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
+import de.symeda.sormas.backend.region.Subcontinent;
+import de.symeda.sormas.backend.region.SubcontinentFacadeEjb.SubcontinentFacadeEjbLocal;
+import de.symeda.sormas.backend.util.MBeanHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Node local cache of the precomputed infrastructure snapshots served to mobile devices for their initial synchronization
+ * (see {@link InfrastructureSnapshotDto}), so the infrastructure is queried and serialized once per change instead of once per
+ * device.
+ * <ul>
+ * <li>There is one snapshot of the whole infrastructure and one for each region that has been requested.</li>
+ * <li>Changes of the infrastructure are detected by polling the latest change date and the number of infrastructure entities
+ * every {@link #POLL_INTERVAL_SECONDS} seconds. The snapshots that have been requested before are then rebuilt right away.</li>
+ * <li>The eTag of a snapshot is a hash of its data, so it is the same on all nodes of a cluster.</li>
+ * </ul>
+ * Hits and builds are exposed as JMX attributes of {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class InfrastructureSnapshotCache implements InfrastructureSnapshotCacheMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=InfrastructureSnapshotCache";
+
+	public static final int POLL_INTERVAL_SECONDS = 30;
+
+	private static final String ALL_REGIONS = "";
+
+	private static final String CHANGE_STATE_QUERY = "SELECT MAX(changedate), COUNT(*) FROM ("
+		+ Arrays
+			.asList(
+				Continent.TABLE_NAME,
+				Subcontinent.TABLE_NAME,
+				Country.TABLE_NAME,
+				Area.TABLE_NAME,
+				Region.TABLE_NAME,
+				District.TABLE_NAME,
+				Community.TABLE_NAME,
+				Facility.TABLE_NAME,
+				PointOfEntry.TABLE_NAME)
+			.stream()
+			.map(tableName -> "SELECT changedate FROM " + tableName)
+			.collect(Collectors.joining(" UNION ALL "))
+		+ ") AS infrastructure";
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@EJB
+	private ContinentFacadeEjbLocal continentFacade;
+	@EJB
+	private SubcontinentFacadeEjbLocal subcontinentFacade;
+	@EJB
+	private CountryFacadeEjbLocal countryFacade;
+	@EJB
+	private AreaFacadeEjbLocal areaFacade;
+	@EJB
+	private RegionFacadeEjbLocal regionFacade;
+	@EJB
+	private DistrictFacadeEjbLocal districtFacade;
+	@EJB
+	private CommunityFacadeEjbLocal communityFacade;
+	@EJB
+	private FacilityFacadeEjbLocal facilityFacade;
+	@EJB
+	private PointOfEntryFacadeEjbLocal pointOfEntryFacade;
+
+	private final ObjectMapper objectMapper = createObjectMapper();
+
+	private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * Only one snapshot is built at a time, so concurrent requests wait for it instead of building it as well.
+	 */
+	private final Object buildLock = new Object();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder builds = new LongAdder();
+
+	private volatile ChangeState lastChangeState;
+
+	@PostConstruct
+	public void registerMBean() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "infrastructure snapshot cache metrics");
+	}
+
+	@PreDestroy
+	public void unregisterMBean() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "infrastructure snapshot cache metrics");
+	}
+
+	/**
+	 * @param regionUuid
+	 *            If not null, the snapshot only contains the districts, communities, facilities and points of entry of this region
+	 *            (and the ones without region). Has to be an existing region.
+	 * @return The snapshot of the current infrastructure, built if it is not cached or outdated.
+	 */
+	public Snapshot getSnapshot(String regionUuid) {
+
+		String key = regionUuid != null ? regionUuid : ALL_REGIONS;
+		Snapshot snapshot = snapshots.get(key);
+		if (snapshot != null && snapshot.changeState.equals(lastChangeState)) {
+			hits.increment();
+			return snapshot;
+		}
+
+		synchronized (buildLock) {
+			if (lastChangeState == null) {
+				lastChangeState = loadChangeState();
+			}
+
+			snapshot = snapshots.get(key);
+			if (snapshot != null && snapshot.changeState.equals(lastChangeState)) {
+				hits.increment();
+				return snapshot;
+			}
+
+			snapshot = buildSnapshot(regionUuid, lastChangeState);
+			snapshots.put(key, snapshot);
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Rebuilds the cached snapshots when the infrastructure has been changed.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/" + POLL_INTERVAL_SECONDS, persistent = false)
+	@TransactionAttribute(TransactionAttributeType.REQUIRED)
+	public void pollChanges() {
+
+		ChangeState changeState = loadChangeState();
+		if (changeState.equals(lastChangeState)) {
+			return;
+		}
+
+		synchronized (buildLock) {
+			lastChangeState = changeState;
+			for (String key : new ArrayList<>(snapshots.keySet())) {
+				logger.debug("Infrastructure has been changed, rebuilding snapshot '{}'", key);
+				try {
+					snapshots.put(key, buildSnapshot(ALL_REGIONS.equals(key) ? null : key, changeState));
+				} catch (RuntimeException e) {
+					// the snapshot will be built again when it is requested
+					logger.warn("Could not rebuild infrastructure snapshot '{}'", key, e);
+					snapshots.remove(key);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+
+		synchronized (buildLock) {
+			snapshots.clear();
+			lastChangeState = null;
+		}
+	}
+
+	private ChangeState loadChangeState() {
+
+		Object[] result = (Object[]) em.createNativeQuery(CHANGE_STATE_QUERY).getSingleResult();
+		return new ChangeState((Date) result[0], ((Number) result[1]).longValue());
+	}
+
+	private Snapshot buildSnapshot(String regionUuid, ChangeState changeState) {
+
+		long startTime = System.currentTimeMillis();
+		Date since = new Date(0);
+
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new GZIPOutputStream(data))) {
+			generator.writeStartObject();
+			writeList(generator, InfrastructureSnapshotDto.CONTINENTS, continentFacade.getAllAfter(since));
+			writeList(generator, InfrastructureSnapshotDto.SUBCONTINENTS, subcontinentFacade.getAllAfter(since));
+			writeList(generator, InfrastructureSnapshotDto.COUNTRIES, countryFacade.getAllAfter(since));
+			writeList(generator, InfrastructureSnapshotDto.AREAS, areaFacade.getAllAfter(since));
+			writeList(generator, InfrastructureSnapshotDto.REGIONS, regionFacade.getAllAfter(since));
+			writeList(
+				generator,
+				InfrastructureSnapshotDto.DISTRICTS,
+				filterByRegion(districtFacade.getAllAfter(since), DistrictDto::getRegion, regionUuid));
+			writeList(
+				generator,
+				InfrastructureSnapshotDto.COMMUNITIES,
+				filterByRegion(communityFacade.getAllAfter(since), CommunityDto::getRegion, regionUuid));
+			writeList(
+				generator,
+				InfrastructureSnapshotDto.FACILITIES,
+				filterByRegion(facilityFacade.getAllByRegionAfter(null, since), FacilityDto::getRegion, regionUuid));
+			writeList(
+				generator,
+				InfrastructureSnapshotDto.POINTS_OF_ENTRY,
+				filterByRegion(pointOfEntryFacade.getAllAfter(since), PointOfEntryDto::getRegion, regionUuid));
+			generator.writeEndObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		Snapshot snapshot = new Snapshot(changeState, data.toByteArray());
+		builds.increment();
+		logger.debug(
+			"buildSnapshot(): Built infrastructure snapshot '{}' with {} bytes in {} ms",
+			snapshot.eTag,
+			snapshot.data.length,
+			System.currentTimeMillis() - startTime);
+		return snapshot;
+	}
+
+	/**
+	 * The mobile app reads the snapshot with the Gson of its {@code RetroProvider}, which expects dates as epoch milliseconds and
+	 * enums by their name. These formats are configured explicitly instead of relying on the defaults of Jackson.
+	 */
+	static ObjectMapper createObjectMapper() {
+
+		return new ObjectMapper().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.disable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING)
+			.disable(SerializationFeature.WRITE_ENUMS_USING_INDEX);
+	}
+
+	/**
+	 * Writes the DTOs ordered by their uuid, so snapshots of the same infrastructure have the same data.
+	 */
+	private <T extends EntityDto> void writeList(JsonGenerator generator, String fieldName, List<T> dtos) throws IOException {
+
+		List<T> sortedDtos = new ArrayList<>(dtos);
+		sortedDtos.sort(Comparator.comparing(EntityDto::getUuid));
+		generator.writeFieldName(fieldName);
+		objectMapper.writeValue(generator, sortedDtos);
+	}
+
+	static <T> List<T> filterByRegion(List<T> dtos, Function<T, RegionReferenceDto> regionGetter, String regionUuid) {
+
+		if (regionUuid == null) {
+			return dtos;
+		}
+
+		List<T> filtered = new ArrayList<>();
+		for (T dto : dtos) {
+			RegionReferenceDto region = regionGetter.apply(dto);
+			if (region == null || regionUuid.equals(region.getUuid())) {
+				filtered.add(dto);
+			}
+		}
+		return filtered;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getBuilds() {
+		return builds.sum();
+	}
+
+	@Override
+	public int getSize() {
+		return snapshots.size();
+	}
+
+	@Override
+	public long getTotalBytes() {
+
+		long totalBytes = 0;
+		for (Snapshot snapshot : snapshots.values()) {
+			totalBytes += snapshot.data.length;
+		}
+		return totalBytes;
+	}
+
+	public static final class Snapshot {
+
+		private final ChangeState changeState;
+		private final String eTag;
+		private final byte[] data;
+
+		private Snapshot(ChangeState changeState, byte[] data) {
+
+			this.changeState = changeState;
+			this.eTag = hash(data);
+			this.data = data;
+		}
+
+		public String getETag() {
+			return eTag;
+		}
+
+		public Date getChangeDate() {
+			return changeState.latestChangeDate;
+		}
+
+		/**
+		 * @return The gzip compressed JSON data; must not be modified.
+		 */
+		public byte[] getData() {
+			return data;
+		}
+
+		private static String hash(byte[] data) {
+
+			try {
+				byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+				return new String(Base64.getUrlEncoder().withoutPadding().encode(Arrays.copyOf(digest, 18)), StandardCharsets.US_ASCII);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static final class ChangeState {
+
+		private final Date latestChangeDate;
+		private final long count;
+
+		private ChangeState(Date latestChangeDate, long count) {
+			this.latestChangeDate = latestChangeDate;
+			this.count = count;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ChangeState that = (ChangeState) o;
+			return count == that.count && Objects.equals(latestChangeDate, that.latestChangeDate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(latestChangeDate, count);
+		}
+	}
+}
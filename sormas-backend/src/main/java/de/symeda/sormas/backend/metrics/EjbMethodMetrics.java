@@ -0,0 +1,69 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, failures and executed SQL statements of the calls of one EJB method.
+ */
+public final class EjbMethodMetrics {
+
+	private final String method;
+	private final LatencyHistogram durations = new LatencyHistogram();
+	private final LongAdder durationSum = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder statements = new LongAdder();
+
+	EjbMethodMetrics(String method) {
+		this.method = method;
+	}
+
+	void record(long durationNanos, long statementCount, boolean failed) {
+
+		durations.record(durationNanos);
+		durationSum.add(durationNanos);
+		if (statementCount > 0) {
+			statements.add(statementCount);
+		}
+		if (failed) {
+			errors.increment();
+		}
+	}
+
+	/**
+	 * @return The invoked method with the EJB class, e.g. {@code CaseFacadeEjb.getCaseDataByUuid}.
+	 */
+	public String getMethod() {
+		return method;
+	}
+
+	public LatencyHistogram.Snapshot getDurations() {
+		return durations.snapshot();
+	}
+
+	public long getDurationSumNanos() {
+		return durationSum.sum();
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	public long getStatements() {
+		return statements.sum();
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of the calls of one EJB method, as shown via JMX.
+ */
+public class EjbMethodStatistics {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final String method;
+	private final long calls;
+	private final long errors;
+	private final long statements;
+	private final double totalMillis;
+	private final double p50Millis;
+	private final double p95Millis;
+	private final double p99Millis;
+	private final double maxMillis;
+
+	@ConstructorProperties({
+		"method",
+		"calls",
+		"errors",
+		"statements",
+		"totalMillis",
+		"p50Millis",
+		"p95Millis",
+		"p99Millis",
+		"maxMillis" })
+	public EjbMethodStatistics(
+		String method,
+		long calls,
+		long errors,
+		long statements,
+		double totalMillis,
+		double p50Millis,
+		double p95Millis,
+		double p99Millis,
+		double maxMillis) {
+
+		this.method = method;
+		this.calls = calls;
+		this.errors = errors;
+		this.statements = statements;
+		this.totalMillis = totalMillis;
+		this.p50Millis = p50Millis;
+		this.p95Millis = p95Millis;
+		this.p99Millis = p99Millis;
+		this.maxMillis = maxMillis;
+	}
+
+	static EjbMethodStatistics of(EjbMethodMetrics metrics) {
+
+		LatencyHistogram.Snapshot durations = metrics.getDurations();
+		return new EjbMethodStatistics(
+			metrics.getMethod(),
+			durations.getTotalCount(),
+			metrics.getErrors(),
+			metrics.getStatements(),
+			metrics.getDurationSumNanos() / NANOS_PER_MILLI,
+			durations.getValueAtPercentile(50) / NANOS_PER_MILLI,
+			durations.getValueAtPercentile(95) / NANOS_PER_MILLI,
+			durations.getValueAtPercentile(99) / NANOS_PER_MILLI,
+			durations.getMaxValue() / NANOS_PER_MILLI);
+	}
+
+	public String getMethod() {
+		return method;
+	}
+
+	public long getCalls() {
+		return calls;
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getStatements() {
+		return statements;
+	}
+
+	public double getTotalMillis() {
+		return totalMillis;
+	}
+
+	public double getP50Millis() {
+		return p50Millis;
+	}
+
+	public double getP95Millis() {
+		return p95Millis;
+	}
+
+	public double getP99Millis() {
+		return p99Millis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+}
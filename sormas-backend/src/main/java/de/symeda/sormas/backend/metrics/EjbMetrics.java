@@ -0,0 +1,171 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the {@link EjbMethodMetrics} recorded by the {@link EjbMetricsInterceptor}, shared by all EJBs of the application.
+ * Metrics of overloaded methods are combined.
+ */
+public final class EjbMetrics {
+
+	/**
+	 * Upper bounds of the histogram buckets exposed to Prometheus, in seconds. The recorded histograms are much finer, but each
+	 * exposed bucket is a time series of its own.
+	 */
+	static final double[] PROMETHEUS_BUCKETS = {
+		0.001,
+		0.005,
+		0.01,
+		0.05,
+		0.1,
+		0.5,
+		1,
+		5,
+		10 };
+
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<Method, EjbMethodMetrics>> metricsByEjbClass = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, EjbMethodMetrics> metricsByName = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<long[]> statementCount = ThreadLocal.withInitial(() -> new long[1]);
+
+	private EjbMetrics() {
+		// Hide Utility Class Constructor
+	}
+
+	/**
+	 * @return The metrics of the given method. The lookup does not allocate once the method has been invoked before.
+	 */
+	static EjbMethodMetrics getMethodMetrics(Class<?> ejbClass, Method method) {
+
+		ConcurrentMap<Method, EjbMethodMetrics> ejbMetrics = metricsByEjbClass.get(ejbClass);
+		if (ejbMetrics == null) {
+			ejbMetrics = metricsByEjbClass.computeIfAbsent(ejbClass, c -> new ConcurrentHashMap<>());
+		}
+
+		EjbMethodMetrics methodMetrics = ejbMetrics.get(method);
+		if (methodMetrics == null) {
+			String name = getEjbName(ejbClass) + "." + method.getName();
+			methodMetrics = ejbMetrics.computeIfAbsent(method, m -> metricsByName.computeIfAbsent(name, EjbMethodMetrics::new));
+		}
+		return methodMetrics;
+	}
+
+	/**
+	 * @return The name of the EJB without package and the suffix of the local bean view ({@code CaseFacadeEjb$CaseFacadeEjbLocal}
+	 *         becomes {@code CaseFacadeEjb}).
+	 */
+	static String getEjbName(Class<?> ejbClass) {
+
+		String className = ejbClass.getName();
+		int classBegin = className.lastIndexOf('.') + 1;
+		int innerClassBegin = className.indexOf('$', classBegin);
+		return className.substring(classBegin, innerClassBegin > 0 ? innerClassBegin : className.length());
+	}
+
+	/**
+	 * Called for every SQL statement Hibernate prepares on the current thread.
+	 */
+	static void countStatement() {
+		statementCount.get()[0]++;
+	}
+
+	/**
+	 * @return Counter of the SQL statements prepared on the current thread. Only the difference between two reads is meaningful.
+	 */
+	static long[] getStatementCounter() {
+		return statementCount.get();
+	}
+
+	/**
+	 * @return The metrics of all invoked methods, ordered by method name.
+	 */
+	public static List<EjbMethodMetrics> getAll() {
+
+		List<EjbMethodMetrics> metrics = new ArrayList<>(metricsByName.values());
+		metrics.sort(Comparator.comparing(EjbMethodMetrics::getMethod));
+		return metrics;
+	}
+
+	/**
+	 * Discards all metrics recorded so far.
+	 */
+	public static void reset() {
+
+		metricsByEjbClass.clear();
+		metricsByName.clear();
+	}
+
+	/**
+	 * @return All metrics in the Prometheus text exposition format (version 0.0.4). Call and error rates are to be derived from the
+	 *         counters with {@code rate()}, percentiles from the histogram with {@code histogram_quantile()}.
+	 */
+	public static String toPrometheusText() {
+
+		List<EjbMethodMetrics> metrics = getAll();
+		List<LatencyHistogram.Snapshot> durations = new ArrayList<>(metrics.size());
+		for (EjbMethodMetrics methodMetrics : metrics) {
+			durations.add(methodMetrics.getDurations());
+		}
+
+		StringBuilder sb = new StringBuilder();
+
+		appendFamily(sb, "sormas_ejb_call_duration_seconds", "histogram", "Duration of EJB method calls.");
+		for (int i = 0; i < metrics.size(); i++) {
+			String label = "{method=\"" + metrics.get(i).getMethod() + "\"";
+			LatencyHistogram.Snapshot snapshot = durations.get(i);
+			for (double bucket : PROMETHEUS_BUCKETS) {
+				long nanos = (long) (bucket * TimeUnit.SECONDS.toNanos(1));
+				appendSample(sb, "sormas_ejb_call_duration_seconds_bucket", label + ",le=\"" + bucket + "\"}", snapshot.getCountAtOrBelow(nanos));
+			}
+			appendSample(sb, "sormas_ejb_call_duration_seconds_bucket", label + ",le=\"+Inf\"}", snapshot.getTotalCount());
+			sb.append("sormas_ejb_call_duration_seconds_sum")
+				.append(label)
+				.append("} ")
+				.append(metrics.get(i).getDurationSumNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+				.append('\n');
+			appendSample(sb, "sormas_ejb_call_duration_seconds_count", label + "}", snapshot.getTotalCount());
+		}
+
+		appendFamily(sb, "sormas_ejb_call_errors_total", "counter", "EJB method calls that ended with an exception.");
+		for (EjbMethodMetrics methodMetrics : metrics) {
+			appendSample(sb, "sormas_ejb_call_errors_total", "{method=\"" + methodMetrics.getMethod() + "\"}", methodMetrics.getErrors());
+		}
+
+		appendFamily(sb, "sormas_ejb_sql_statements_total", "counter", "SQL statements executed within EJB method calls, including nested calls.");
+		for (EjbMethodMetrics methodMetrics : metrics) {
+			appendSample(sb, "sormas_ejb_sql_statements_total", "{method=\"" + methodMetrics.getMethod() + "\"}", methodMetrics.getStatements());
+		}
+
+		return sb.toString();
+	}
+
+	private static void appendFamily(StringBuilder sb, String name, String type, String help) {
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void appendSample(StringBuilder sb, String name, String labels, long value) {
+		sb.append(name).append(labels).append(' ').append(value).append('\n');
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.InvocationContext;
+
+/**
+ * Records the duration, the outcome and the number of SQL statements of every EJB method call into the {@link EjbMetrics}.
+ * Unlike the {@link de.symeda.sormas.backend.util.PerformanceLoggingInterceptor} it is always active: it neither logs nor allocates
+ * once a method has been invoked for the first time.
+ * <p>
+ * Nested EJB calls are recorded separately, but their time and statements are included in those of the calling method.
+ */
+public class EjbMetricsInterceptor {
+
+	@AroundInvoke
+	public Object recordInvocation(InvocationContext context) throws Exception {
+
+		long[] statementCounter = EjbMetrics.getStatementCounter();
+		long statementsBefore = statementCounter[0];
+		long startTime = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object result = context.proceed();
+			failed = false;
+			return result;
+		} finally {
+			long duration = System.nanoTime() - startTime;
+			EjbMetrics.getMethodMetrics(context.getTarget().getClass(), context.getMethod())
+				.record(duration, statementCounter[0] - statementsBefore, failed);
+		}
+	}
+}
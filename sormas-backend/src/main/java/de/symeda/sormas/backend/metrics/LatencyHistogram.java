@@ -0,0 +1,143 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with a fixed relative precision, following the bucket layout of HdrHistogram:
+ * Every power of two is divided into {@value #SUB_BUCKET_COUNT} linear sub-buckets, so each recorded value is represented with an
+ * error of less than 1/{@value #SUB_BUCKET_COUNT} (6.25 %) up to 2^{@value #MAX_EXPONENT} ns (~73 minutes). Larger values end up in
+ * the last bucket.
+ * <p>
+ * Recording is a single atomic increment and never allocates; reading takes a {@link #snapshot()} that is not atomic across buckets,
+ * which is fine for monitoring purposes.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 42;
+
+	static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	public void record(long nanos) {
+		counts.incrementAndGet(bucketIndex(nanos));
+	}
+
+	public Snapshot snapshot() {
+
+		long[] snapshot = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+		}
+		return new Snapshot(snapshot);
+	}
+
+	static int bucketIndex(long nanos) {
+
+		if (nanos < SUB_BUCKET_COUNT) {
+			return nanos < 0 ? 0 : (int) nanos;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * @return The highest value that is recorded into the given bucket.
+	 */
+	static long highestValueInBucket(int index) {
+
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		int subBucket = index % SUB_BUCKET_COUNT;
+		return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	public static final class Snapshot {
+
+		private final long[] counts;
+		private final long totalCount;
+
+		private Snapshot(long[] counts) {
+
+			this.counts = counts;
+			long total = 0;
+			for (long count : counts) {
+				total += count;
+			}
+			this.totalCount = total;
+		}
+
+		public long getTotalCount() {
+			return totalCount;
+		}
+
+		/**
+		 * @return The number of recorded values that are less than or equal to the given value (with the precision of the buckets).
+		 */
+		public long getCountAtOrBelow(long nanos) {
+
+			long count = 0;
+			for (int i = 0; i < BUCKET_COUNT && highestValueInBucket(i) <= nanos; i++) {
+				count += counts[i];
+			}
+			return count;
+		}
+
+		/**
+		 * @param percentile
+		 *            Between 0 and 100.
+		 * @return The value below or at which the given percentage of the recorded values are, 0 if nothing has been recorded.
+		 */
+		public long getValueAtPercentile(double percentile) {
+
+			if (totalCount == 0) {
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+			long count = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				count += counts[i];
+				if (count >= rank) {
+					return highestValueInBucket(i);
+				}
+			}
+			return highestValueInBucket(BUCKET_COUNT - 1);
+		}
+
+		public long getMaxValue() {
+
+			for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+				if (counts[i] > 0) {
+					return highestValueInBucket(i);
+				}
+			}
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import de.symeda.sormas.api.metrics.MetricsFacade;
+import de.symeda.sormas.backend.util.MBeanHelper;
+
+/**
+ * Exposes the {@link EjbMetrics} recorded by the {@link EjbMetricsInterceptor} for Prometheus and as JMX MXBean
+ * {@value #OBJECT_NAME}.
+ */
+@Singleton(name = "MetricsFacade")
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class MetricsFacadeEjb implements MetricsFacade, EjbMetricsMXBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=EjbMetrics";
+
+	@PostConstruct
+	public void init() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "EJB metrics");
+	}
+
+	@PreDestroy
+	public void shutdown() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "EJB metrics");
+	}
+
+	@Override
+	public String getPrometheusMetrics() {
+		return EjbMetrics.toPrometheusText();
+	}
+
+	@Override
+	public List<EjbMethodStatistics> getMethodStatistics() {
+
+		List<EjbMethodStatistics> statistics = new ArrayList<>();
+		for (EjbMethodMetrics metrics : EjbMetrics.getAll()) {
+			statistics.add(EjbMethodStatistics.of(metrics));
+		}
+		statistics.sort(Collections.reverseOrder(Comparator.comparingDouble(EjbMethodStatistics::getTotalMillis)));
+		return statistics;
+	}
+
+	@Override
+	public void reset() {
+		EjbMetrics.reset();
+	}
+}
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -94,6 +95,7 @@ import de.symeda.sormas.api.person.Sex;
 import de.symeda.sormas.api.person.SimilarPersonDto;
 import de.symeda.sormas.api.person.SymptomJournalStatus;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DataHelper.Pair;
@@ -101,8 +103,11 @@ import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseCompletenessService;
+import de.symeda.sormas.backend.caze.CaseDuplicateService;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.caze.CaseStatisticsCubeService;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.contact.Contact;
@@ -111,6 +116,8 @@ import de.symeda.sormas.backend.externaljournal.ExternalJournalService;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
 import de.symeda.sormas.backend.facility.FacilityService;
 import de.symeda.sormas.backend.feature.FeatureConfigurationFacadeEjb.FeatureConfigurationFacadeEjbLocal;
+import de.symeda.sormas.backend.geocoding.GeocodingService;
+import de.symeda.sormas.backend.geocoding.LocationQuery;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.location.LocationFacadeEjb;
 import de.symeda.sormas.backend.location.LocationFacadeEjb.LocationFacadeEjbLocal;
@@ -138,6 +145,8 @@ import de.symeda.sormas.backend.util.QueryHelper;
 @Stateless(name = "PersonFacade")
 public class PersonFacadeEjb implements PersonFacade {
 
+	private static final int GEOCODING_BATCH_SIZE = 500;
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -146,6 +155,12 @@ public class PersonFacadeEjb implements PersonFacade {
 	@EJB
 	private CaseService caseService;
 	@EJB
+	private CaseCompletenessService caseCompletenessService;
+	@EJB
+	private CaseDuplicateService caseDuplicateService;
+	@EJB
+	private CaseStatisticsCubeService caseStatisticsCubeService;
+	@EJB
 	private CaseFacadeEjbLocal caseFacade;
 	@EJB
 	private ConfigFacadeEjb.ConfigFacadeEjbLocal configFacade;
@@ -172,6 +187,8 @@ public class PersonFacadeEjb implements PersonFacade {
 	@EJB
 	private FeatureConfigurationFacadeEjbLocal featureConfigurationFacade;
 	@EJB
+	private GeocodingService geocodingService;
+	@EJB
 	private UserFacadeEjbLocal userFacade;
 	@EJB
 	private SormasToSormasOriginInfoService sormasToSormasOriginInfoService;
@@ -911,15 +928,26 @@ public class PersonFacadeEjb implements PersonFacade {
 	}
 
 	@Override
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public long setMissingGeoCoordinates(boolean overwriteExistingCoordinates) {
 
 		// The uuid-list is filtered by the users jurisdiction and retrieved in batches to avoid timeouts
 		List<String> personUuidList = getAllUuidsBatched(2500, overwriteExistingCoordinates);
 
-		// Run updates in batches to avoid large JPA cache
+		// Geocode outside of a transaction and write the coordinates of each batch in a short transaction of its own
 		List<Long> batchResults = new ArrayList<>();
-		IterableHelper.executeBatched(personUuidList, 100, batchedUuids -> {
-			batchResults.add(personService.updateGeoLocation(batchedUuids, overwriteExistingCoordinates));
+		IterableHelper.executeBatched(personUuidList, GEOCODING_BATCH_SIZE, batchedUuids -> {
+			Map<Long, LocationQuery> queries = personService.getAddressQueries(batchedUuids, overwriteExistingCoordinates);
+			Map<LocationQuery, GeoLatLon> latLons = geocodingService.getLatLons(queries.values());
+
+			Map<Long, GeoLatLon> coordinates = new HashMap<>();
+			queries.forEach((locationId, query) -> {
+				GeoLatLon latLon = latLons.get(query);
+				if (latLon != null) {
+					coordinates.put(locationId, latLon);
+				}
+			});
+			batchResults.add(personService.updateAddressCoordinates(coordinates));
 		});
 		Long changedPersons = batchResults.stream().reduce(0L, Long::sum);
 
@@ -957,6 +985,14 @@ public class PersonFacadeEjb implements PersonFacade {
 
 	public void onPersonChanged(PersonDto existingPerson, Person newPerson) {
 
+		if (existingPerson != null) {
+			caseCompletenessService.enqueueCasesOfPerson(newPerson);
+			if (!DataHelper.equal(existingPerson.getFirstName(), newPerson.getFirstName())
+				|| !DataHelper.equal(existingPerson.getLastName(), newPerson.getLastName())) {
+				caseDuplicateService.updateKeysOfPerson(newPerson);
+			}
+		}
+
 		List<Case> personCases = caseService.findBy(new CaseCriteria().person(new PersonReferenceDto(newPerson.getUuid())), true);
 		// Call onCaseChanged once for every case to update case classification
 		// Attention: this may lead to infinite recursion when not properly implemented
@@ -1075,6 +1111,10 @@ public class PersonFacadeEjb implements PersonFacade {
 			}
 		}
 
+		if (existingPerson != null) {
+			caseStatisticsCubeService.updateCasesOfPerson(newPerson);
+		}
+
 		cleanUp(newPerson);
 	}
 
@@ -1399,8 +1439,28 @@ public class PersonFacadeEjb implements PersonFacade {
 	}
 
 	public boolean isPersonSimilarToExisting(PersonDto referencePerson) {
+		return checkMatchingNameInDatabase(userFacade.getCurrentUser().toReference(), buildSimilarityCriteria(referencePerson));
+	}
+
+	/**
+	 * Like {@link #isPersonSimilarToExisting(PersonDto)} for many persons (e.g. import rows), checked with one query per
+	 * {@link PersonService#MATCHING_PERSONS_BATCH_SIZE} persons. The persons are also compared with the persons preceding them,
+	 * as if they were saved in the order of the list.
+	 * 
+	 * @return Whether a similar person exists, in the order of the reference persons
+	 */
+	public List<Boolean> arePersonsSimilarToExisting(List<PersonDto> referencePersons) {
+
+		if (userService.getCurrentUser() == null) {
+			return referencePersons.stream().map(p -> false).collect(Collectors.toList());
+		}
+
+		return personService.hasMatchingPersons(referencePersons.stream().map(PersonFacadeEjb::buildSimilarityCriteria).collect(Collectors.toList()));
+	}
+
+	private static PersonSimilarityCriteria buildSimilarityCriteria(PersonDto referencePerson) {
 
-		PersonSimilarityCriteria criteria = new PersonSimilarityCriteria().firstName(referencePerson.getFirstName())
+		return new PersonSimilarityCriteria().firstName(referencePerson.getFirstName())
 			.lastName(referencePerson.getLastName())
 			.sex(referencePerson.getSex())
 			.birthdateDD(referencePerson.getBirthdateDD())
@@ -1408,8 +1468,6 @@ public class PersonFacadeEjb implements PersonFacade {
 			.birthdateYYYY(referencePerson.getBirthdateYYYY())
 			.passportNumber(referencePerson.getPassportNumber())
 			.nationalHealthId(referencePerson.getNationalHealthId());
-
-		return checkMatchingNameInDatabase(userFacade.getCurrentUser().toReference(), criteria);
 	}
 
 	@LocalBean
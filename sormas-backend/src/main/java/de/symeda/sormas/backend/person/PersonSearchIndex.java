@@ -0,0 +1,80 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.person;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Normalized name of a person for the duplicate checks of {@link PersonService#getMatchingNameDtos}, searched with a trigram
+ * index. Maintained by {@link PersonSearchIndexService} when persons and their cases, contacts, event participants, immunizations
+ * or travel entries are saved.
+ */
+@Entity(name = PersonSearchIndex.TABLE_NAME)
+public class PersonSearchIndex implements Serializable {
+
+	private static final long serialVersionUID = 5106282573406119416L;
+
+	public static final String TABLE_NAME = "personsearchindex";
+
+	public static final String PERSON_ID = "personId";
+	public static final String NAME = "name";
+	public static final String ASSOCIATED = "associated";
+
+	private Long personId;
+	private String name;
+	private boolean associated;
+
+	@Id
+	@Column(name = "person_id")
+	public Long getPersonId() {
+		return personId;
+	}
+
+	public void setPersonId(Long personId) {
+		this.personId = personId;
+	}
+
+	/**
+	 * Lower case first and last name separated by whitespace; {@code null} if one of them is missing.
+	 */
+	@Column(length = 512)
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Whether the person has ever been associated with a case, contact, event participant, immunization or travel entry. Persons
+	 * without associations are never found by the duplicate checks, so they are excluded before the associations are checked for
+	 * visibility. The flag is not reset when associations are deleted.
+	 */
+	@Column(nullable = false)
+	public boolean isAssociated() {
+		return associated;
+	}
+
+	public void setAssociated(boolean associated) {
+		this.associated = associated;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.backend.person;
+
+import java.util.Locale;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.contact.Contact;
+import de.symeda.sormas.backend.event.EventParticipant;
+import de.symeda.sormas.backend.immunization.Immunization;
+import de.symeda.sormas.backend.travelentry.TravelEntry;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Maintains the {@link PersonSearchIndex}: The name is updated whenever a person is persisted, the association flag whenever a
+ * case, contact, event participant, immunization or travel entry is persisted.
+ */
+@Stateless
+@LocalBean
+public class PersonSearchIndexService {
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	/**
+	 * @param newPerson
+	 *            Whether the person has just been created, so it can't have any associations yet.
+	 */
+	public void updateName(Person person, boolean newPerson) {
+
+		PersonSearchIndex entry = em.find(PersonSearchIndex.class, person.getId());
+		if (entry == null) {
+			entry = new PersonSearchIndex();
+			entry.setPersonId(person.getId());
+			entry.setAssociated(!newPerson && hasAssociations(person.getId()));
+			entry.setName(buildName(person.getFirstName(), person.getLastName()));
+			em.persist(entry);
+		} else {
+			entry.setName(buildName(person.getFirstName(), person.getLastName()));
+		}
+	}
+
+	public void markAssociated(Person person) {
+
+		if (person == null || person.getId() == null) {
+			return;
+		}
+
+		PersonSearchIndex entry = em.find(PersonSearchIndex.class, person.getId());
+		if (entry == null) {
+			entry = new PersonSearchIndex();
+			entry.setPersonId(person.getId());
+			entry.setName(buildName(person.getFirstName(), person.getLastName()));
+			entry.setAssociated(true);
+			em.persist(entry);
+		} else if (!entry.isAssociated()) {
+			entry.setAssociated(true);
+		}
+	}
+
+	private boolean hasAssociations(Long personId) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Person> person = cq.from(Person.class);
+
+		cq.select(person.get(Person.ID));
+		cq.where(
+			cb.equal(person.get(Person.ID), personId),
+			cb.or(
+				exists(cq, cb, person, Case.class, Case.PERSON),
+				exists(cq, cb, person, Contact.class, Contact.PERSON),
+				exists(cq, cb, person, EventParticipant.class, EventParticipant.PERSON),
+				exists(cq, cb, person, Immunization.class, Immunization.PERSON),
+				exists(cq, cb, person, TravelEntry.class, TravelEntry.PERSON)));
+
+		return !em.createQuery(cq).setMaxResults(1).getResultList().isEmpty();
+	}
+
+	private static <T> Predicate exists(CriteriaQuery<?> cq, CriteriaBuilder cb, Root<Person> person, Class<T> associationClass, String personProperty) {
+
+		Subquery<Integer> subquery = cq.subquery(Integer.class);
+		Root<T> association = subquery.from(associationClass);
+		subquery.select(cb.literal(1)).where(cb.equal(association.get(personProperty), person));
+		return cb.exists(subquery);
+	}
+
+	/**
+	 * @return The normalized name as stored in {@link PersonSearchIndex#getName()}
+	 */
+	public static String buildName(String firstName, String lastName) {
+		return firstName != null && lastName != null ? (firstName + " " + lastName).toLowerCase(Locale.ROOT) : null;
+	}
+}
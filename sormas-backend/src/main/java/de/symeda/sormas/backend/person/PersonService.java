@@ -23,15 +23,21 @@ import static de.symeda.sormas.backend.common.CriteriaBuilderHelper.andEquals;
 import static de.symeda.sormas.backend.common.CriteriaBuilderHelper.andEqualsReferenceDto;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
@@ -41,6 +47,7 @@ import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
@@ -49,6 +56,7 @@ import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -66,6 +74,7 @@ import de.symeda.sormas.api.person.Sex;
 import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.TrigramSimilarity;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
@@ -76,7 +85,7 @@ import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.event.EventParticipant;
 import de.symeda.sormas.backend.event.EventParticipantService;
-import de.symeda.sormas.backend.geocoding.GeocodingService;
+import de.symeda.sormas.backend.geocoding.LocationQuery;
 import de.symeda.sormas.backend.immunization.Immunization;
 import de.symeda.sormas.backend.immunization.ImmunizationService;
 import de.symeda.sormas.backend.location.Location;
@@ -95,6 +104,10 @@ import de.symeda.sormas.backend.util.ModelConstants;
 @LocalBean
 public class PersonService extends AdoServiceWithUserFilter<Person> {
 
+	public static final int MATCHING_PERSONS_BATCH_SIZE = 100;
+
+	private static final String SIMILARITY_THRESHOLD_RESOURCE = PersonService.class.getName() + ".similarityThreshold";
+
 	@EJB
 	private UserService userService;
 	@EJB
@@ -108,14 +121,25 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 	@EJB
 	private TravelEntryService travelEntryService;
 	@EJB
-	private GeocodingService geocodingService;
-	@EJB
 	private ConfigFacadeEjbLocal configFacade;
+	@EJB
+	private PersonSearchIndexService personSearchIndexService;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
 
 	public PersonService() {
 		super(Person.class);
 	}
 
+	@Override
+	public void ensurePersisted(Person person) {
+
+		boolean newPerson = person.getId() == null;
+		super.ensurePersisted(person);
+		personSearchIndexService.updateName(person, newPerson);
+	}
+
 	public Person createPerson() {
 		return new Person();
 	}
@@ -461,72 +485,236 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 	public List<PersonNameDto> getMatchingNameDtos(PersonSimilarityCriteria criteria, Integer limit) {
 
 		setSimilarityThresholdQuery();
-		boolean activeEntriesOnly = configFacade.isDuplicateChecksExcludePersonsOfArchivedEntries();
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
-
 		CriteriaQuery<PersonNameDto> personQuery = cb.createQuery(PersonNameDto.class);
+		Root<PersonSearchIndex> indexRoot = personQuery.from(PersonSearchIndex.class);
 		Root<Person> personRoot = personQuery.from(Person.class);
-		Join<Person, Case> personCaseJoin = personRoot.join(Person.CASES, JoinType.LEFT);
-		Join<Person, Contact> personContactJoin = personRoot.join(Person.CONTACTS, JoinType.LEFT);
-		Join<Person, EventParticipant> personEventParticipantJoin = personRoot.join(Person.EVENT_PARTICIPANTS, JoinType.LEFT);
-		Join<Person, Immunization> personImmunizationJoin = personRoot.join(Person.IMMUNIZATIONS, JoinType.LEFT);
-		Join<Person, TravelEntry> personTravelEntryJoin = personRoot.join(Person.TRAVEL_ENTRIES, JoinType.LEFT);
 
 		personQuery.multiselect(personRoot.get(Person.FIRST_NAME), personRoot.get(Person.LAST_NAME), personRoot.get(Person.UUID));
 
+		// The trigram index on the name narrows the persons down before their associations are checked
+		Predicate personSimilarityFilter = buildSimilarityCriteriaFilter(criteria, cb, personRoot, indexRoot.get(PersonSearchIndex.NAME));
+		personQuery.where(
+			and(
+				cb,
+				cb.equal(indexRoot.get(PersonSearchIndex.PERSON_ID), personRoot.get(Person.ID)),
+				cb.isTrue(indexRoot.get(PersonSearchIndex.ASSOCIATED)),
+				personSimilarityFilter,
+				createVisibleAssociationFilter(cb, personQuery, personRoot)));
+
+		TypedQuery<PersonNameDto> query = em.createQuery(personQuery);
+		if (limit != null) {
+			query.setMaxResults(limit);
+		}
+		return query.getResultList();
+	}
+
+	/**
+	 * Checks for every criteria whether a matching person exists, like {@code getMatchingNameDtos(criteria, 1)}, but with one query
+	 * for up to {@link #MATCHING_PERSONS_BATCH_SIZE} criteria (e.g. the rows of an import). Only first and last name, sex, birth date,
+	 * national health id and passport number of the criteria are considered. Criteria without first or last name are checked one by
+	 * one.
+	 * <p>
+	 * The criteria are also compared with the criteria preceding them, because their persons are saved in this order (e.g. the rows of
+	 * an import) and would be found by a check after saving them.
+	 * 
+	 * @return Whether a matching person exists, in the order of the criteria
+	 */
+	public List<Boolean> hasMatchingPersons(List<PersonSimilarityCriteria> criteriaList) {
+
+		setSimilarityThresholdQuery();
+		double nameSimilarityThreshold = configFacade.getNameSimilarityThreshold();
+
+		Boolean[] matches = new Boolean[criteriaList.size()];
+		List<Integer> namedCriteria = new ArrayList<>();
+		for (int i = 0; i < criteriaList.size(); i++) {
+			PersonSimilarityCriteria criteria = criteriaList.get(i);
+			if (StringUtils.isBlank(criteria.getFirstName()) || StringUtils.isBlank(criteria.getLastName())) {
+				matches[i] = !getMatchingNameDtos(criteria, 1).isEmpty();
+			} else {
+				namedCriteria.add(i);
+			}
+		}
+
+		IterableHelper.executeBatched(namedCriteria, MATCHING_PERSONS_BATCH_SIZE, batchIndexes -> {
+			List<PersonSimilarityCriteria> batch = new ArrayList<>(batchIndexes.size());
+			for (Integer index : batchIndexes) {
+				batch.add(criteriaList.get(index));
+			}
+
+			List<MatchCandidate> candidates = getMatchCandidates(batch);
+			for (int i = 0; i < batch.size(); i++) {
+				PersonSimilarityCriteria criteria = batch.get(i);
+				Set<String> nameTrigrams =
+					TrigramSimilarity.getTrigrams(PersonSearchIndexService.buildName(criteria.getFirstName(), criteria.getLastName()));
+				boolean match = false;
+				for (MatchCandidate candidate : candidates) {
+					if (candidate.matches(criteria, nameTrigrams, nameSimilarityThreshold)) {
+						match = true;
+						break;
+					}
+				}
+				matches[batchIndexes.get(i)] = match;
+			}
+		});
+
+		List<MatchCandidate> precedingCandidates = new ArrayList<>(criteriaList.size());
+		for (int i = 0; i < criteriaList.size(); i++) {
+			PersonSimilarityCriteria criteria = criteriaList.get(i);
+			if (!matches[i] && !precedingCandidates.isEmpty()) {
+				Set<String> nameTrigrams = StringUtils.isBlank(criteria.getFirstName()) || StringUtils.isBlank(criteria.getLastName())
+					? Collections.emptySet()
+					: TrigramSimilarity.getTrigrams(PersonSearchIndexService.buildName(criteria.getFirstName(), criteria.getLastName()));
+				for (MatchCandidate candidate : precedingCandidates) {
+					if (candidate.matches(criteria, nameTrigrams, nameSimilarityThreshold)) {
+						matches[i] = true;
+						break;
+					}
+				}
+			}
+			precedingCandidates.add(new MatchCandidate(criteria));
+		}
+
+		return Arrays.asList(matches);
+	}
+
+	/**
+	 * @return The persons with visible associations whose names are similar to or whose passport numbers equal those of the
+	 *         criteria
+	 */
+	private List<MatchCandidate> getMatchCandidates(List<PersonSimilarityCriteria> criteriaList) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<PersonSearchIndex> indexRoot = cq.from(PersonSearchIndex.class);
+		Root<Person> personRoot = cq.from(Person.class);
+
+		cq.multiselect(
+			indexRoot.get(PersonSearchIndex.NAME),
+			personRoot.get(Person.SEX),
+			personRoot.get(Person.BIRTHDATE_DD),
+			personRoot.get(Person.BIRTHDATE_MM),
+			personRoot.get(Person.BIRTHDATE_YYYY),
+			personRoot.get(Person.NATIONAL_HEALTH_ID),
+			personRoot.get(Person.PASSPORT_NUMBER));
+
+		Predicate nameOrPassportFilter = null;
+		for (PersonSimilarityCriteria criteria : criteriaList) {
+			String name = PersonSearchIndexService.buildName(criteria.getFirstName(), criteria.getLastName());
+			nameOrPassportFilter = CriteriaBuilderHelper.or(
+				cb,
+				nameOrPassportFilter,
+				cb.isTrue(cb.function(SIMILARITY_OPERATOR, boolean.class, indexRoot.get(PersonSearchIndex.NAME), cb.literal(name))));
+			if (!StringUtils.isBlank(criteria.getPassportNumber())) {
+				nameOrPassportFilter =
+					CriteriaBuilderHelper.or(cb, nameOrPassportFilter, cb.equal(personRoot.get(Person.PASSPORT_NUMBER), criteria.getPassportNumber()));
+			}
+		}
+
+		cq.where(
+			and(
+				cb,
+				cb.equal(indexRoot.get(PersonSearchIndex.PERSON_ID), personRoot.get(Person.ID)),
+				cb.isTrue(indexRoot.get(PersonSearchIndex.ASSOCIATED)),
+				nameOrPassportFilter,
+				createVisibleAssociationFilter(cb, cq, personRoot)));
+
+		List<MatchCandidate> candidates = new ArrayList<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			candidates.add(new MatchCandidate(result));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Persons are only found by the duplicate checks if they have a case, contact, event participant, immunization or travel entry
+	 * visible to the current user (and active, if configured).
+	 */
+	private Predicate createVisibleAssociationFilter(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Person> personRoot) {
+
+		boolean activeEntriesOnly = configFacade.isDuplicateChecksExcludePersonsOfArchivedEntries();
+
 		// Persons of active cases
-		Predicate personSimilarityFilter = buildSimilarityCriteriaFilter(criteria, cb, personRoot);
-		Predicate activeCasesFilter = activeEntriesOnly ? caseService.createActiveCasesFilter(cb, personCaseJoin) : null;
-		Predicate caseUserFilter = caseService.createUserFilter(cb, personQuery, personCaseJoin);
-		Predicate personCasePredicate = and(cb, personCaseJoin.get(Case.ID).isNotNull(), activeCasesFilter, caseUserFilter);
+		Subquery<Long> caseSubquery = cq.subquery(Long.class);
+		Root<Case> caseRoot = caseSubquery.from(Case.class);
+		caseSubquery.select(caseRoot.get(Case.ID))
+			.where(
+				and(
+					cb,
+					cb.equal(caseRoot.get(Case.PERSON), personRoot),
+					activeEntriesOnly ? caseService.createActiveCasesFilter(cb, caseRoot) : null,
+					caseService.createUserFilter(cb, cq, caseRoot)));
 
 		// Persons of active contacts
-		Predicate activeContactsFilter = activeEntriesOnly ? contactService.createActiveContactsFilter(cb, personContactJoin) : null;
-		Predicate contactUserFilter = contactService.createUserFilter(cb, personQuery, personContactJoin);
-		Predicate personContactPredicate = and(cb, personContactJoin.get(Contact.ID).isNotNull(), contactUserFilter, activeContactsFilter);
+		Subquery<Long> contactSubquery = cq.subquery(Long.class);
+		Root<Contact> contactRoot = contactSubquery.from(Contact.class);
+		contactSubquery.select(contactRoot.get(Contact.ID))
+			.where(
+				and(
+					cb,
+					cb.equal(contactRoot.get(Contact.PERSON), personRoot),
+					activeEntriesOnly ? contactService.createActiveContactsFilter(cb, contactRoot) : null,
+					contactService.createUserFilter(cb, cq, contactRoot)));
 
 		// Persons of event participants in active events
-		Predicate activeEventParticipantsFilter =
-			activeEntriesOnly ? eventParticipantService.createActiveEventParticipantsFilter(cb, personEventParticipantJoin) : null;
-		Predicate eventParticipantUserFilter = eventParticipantService.createUserFilter(cb, personQuery, personEventParticipantJoin);
-		Predicate personEventParticipantPredicate =
-			and(cb, personEventParticipantJoin.get(EventParticipant.ID).isNotNull(), activeEventParticipantsFilter, eventParticipantUserFilter);
+		Subquery<Long> eventParticipantSubquery = cq.subquery(Long.class);
+		Root<EventParticipant> eventParticipantRoot = eventParticipantSubquery.from(EventParticipant.class);
+		eventParticipantSubquery.select(eventParticipantRoot.get(EventParticipant.ID))
+			.where(
+				and(
+					cb,
+					cb.equal(eventParticipantRoot.get(EventParticipant.PERSON), personRoot),
+					activeEntriesOnly ? eventParticipantService.createActiveEventParticipantsFilter(cb, eventParticipantRoot) : null,
+					eventParticipantService.createUserFilter(cb, cq, eventParticipantRoot)));
 
 		// Persons of active immunizations
-		Predicate activeImmunizationsFilter = activeEntriesOnly ? immunizationService.createDefaultFilter(cb, personImmunizationJoin) : null;
-		Predicate immunizationUserFilter = immunizationService.createUserFilter(cb, personQuery, personImmunizationJoin);
-		Predicate personImmunizationPredicate =
-			and(cb, personImmunizationJoin.get(Immunization.ID).isNotNull(), immunizationUserFilter, activeImmunizationsFilter);
+		Subquery<Long> immunizationSubquery = cq.subquery(Long.class);
+		Root<Immunization> immunizationRoot = immunizationSubquery.from(Immunization.class);
+		immunizationSubquery.select(immunizationRoot.get(Immunization.ID))
+			.where(
+				and(
+					cb,
+					cb.equal(immunizationRoot.get(Immunization.PERSON), personRoot),
+					activeEntriesOnly ? immunizationService.createDefaultFilter(cb, immunizationRoot) : null,
+					immunizationService.createUserFilter(cb, cq, immunizationRoot)));
 
 		// Persons of active travel entries
-		Predicate activeTravelEntriesFilter = activeEntriesOnly ? travelEntryService.createDefaultFilter(cb, personTravelEntryJoin) : null;
-		Predicate travelEntryUserFilter = travelEntryService.createUserFilter(cb, personQuery, personTravelEntryJoin);
-		Predicate personTravelEntryPredicate =
-			and(cb, personTravelEntryJoin.get(TravelEntry.ID).isNotNull(), travelEntryUserFilter, activeTravelEntriesFilter);
-
-		Predicate finalPredicate = CriteriaBuilderHelper.or(
-			cb,
-			personCasePredicate,
-			personContactPredicate,
-			personEventParticipantPredicate,
-			personImmunizationPredicate,
-			personTravelEntryPredicate);
-
-		personQuery.where(and(cb, personSimilarityFilter, finalPredicate));
-		personQuery.distinct(true);
-
-		TypedQuery<PersonNameDto> query = em.createQuery(personQuery);
-		if (limit != null) {
-			query.setMaxResults(limit);
-		}
-		return query.getResultList();
+		Subquery<Long> travelEntrySubquery = cq.subquery(Long.class);
+		Root<TravelEntry> travelEntryRoot = travelEntrySubquery.from(TravelEntry.class);
+		travelEntrySubquery.select(travelEntryRoot.get(TravelEntry.ID))
+			.where(
+				and(
+					cb,
+					cb.equal(travelEntryRoot.get(TravelEntry.PERSON), personRoot),
+					activeEntriesOnly ? travelEntryService.createDefaultFilter(cb, travelEntryRoot) : null,
+					travelEntryService.createUserFilter(cb, cq, travelEntryRoot)));
+
+		return cb.or(
+			cb.exists(caseSubquery),
+			cb.exists(contactSubquery),
+			cb.exists(eventParticipantSubquery),
+			cb.exists(immunizationSubquery),
+			cb.exists(travelEntrySubquery));
 	}
 
+	/**
+	 * Sets the threshold of the similarity operator once per transaction; it is kept by the database session.
+	 */
 	public void setSimilarityThresholdQuery() {
+
+		boolean inTransaction = transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null;
+		if (inTransaction && transactionSynchronizationRegistry.getResource(SIMILARITY_THRESHOLD_RESOURCE) != null) {
+			return;
+		}
+
 		double nameSimilarityThreshold = configFacade.getNameSimilarityThreshold();
 		Query q = em.createNativeQuery("select set_limit(" + nameSimilarityThreshold + ")");
 		q.getSingleResult();
+
+		if (inTransaction) {
+			transactionSynchronizationRegistry.putResource(SIMILARITY_THRESHOLD_RESOURCE, Boolean.TRUE);
+		}
 	}
 
 	public List<Person> getDeathsBetween(Date fromDate, Date toDate, District district, Disease disease, User user) {
@@ -587,13 +775,25 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 
 	public Predicate buildSimilarityCriteriaFilter(PersonSimilarityCriteria criteria, CriteriaBuilder cb, From<?, Person> personFrom) {
 
+		Expression<String> nameExpr = cb.concat(personFrom.get(Person.FIRST_NAME), " ");
+		nameExpr = cb.concat(nameExpr, personFrom.get(Person.LAST_NAME));
+		return buildSimilarityCriteriaFilter(criteria, cb, personFrom, nameExpr);
+	}
+
+	/**
+	 * @param nameExpr
+	 *            First and last name of the person separated by whitespace, e.g. {@link PersonSearchIndex#getName()}.
+	 */
+	public Predicate buildSimilarityCriteriaFilter(
+		PersonSimilarityCriteria criteria,
+		CriteriaBuilder cb,
+		From<?, Person> personFrom,
+		Expression<String> nameExpr) {
+
 		Predicate filter = null;
 
 		if (!StringUtils.isBlank(criteria.getFirstName()) && !StringUtils.isBlank(criteria.getLastName())) {
-			Expression<String> nameExpr = cb.concat(personFrom.get(Person.FIRST_NAME), " ");
-			nameExpr = cb.concat(nameExpr, personFrom.get(Person.LAST_NAME));
-
-			String name = criteria.getFirstName() + " " + criteria.getLastName();
+			String name = PersonSearchIndexService.buildName(criteria.getFirstName(), criteria.getLastName());
 
 			filter = and(cb, filter, cb.isTrue(cb.function(SIMILARITY_OPERATOR, boolean.class, nameExpr, cb.literal(name))));
 		}
@@ -668,33 +868,63 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 
 	}
 
-	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
-	public long updateGeoLocation(List<String> personUuids, boolean overwriteExistingCoordinates) {
+	/**
+	 * @return The addresses of the persons that can be geocoded, by the id of the {@link Location}
+	 */
+	public Map<Long, LocationQuery> getAddressQueries(List<String> personUuids, boolean overwriteExistingCoordinates) {
 
-		long updatedCount = 0;
-		List<Person> persons = getByUuids(personUuids);
-		for (Person person : persons) {
-			if (updateGeoLocation(person, overwriteExistingCoordinates)) {
-				updatedCount++;
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Person> person = cq.from(Person.class);
+		Join<Person, Location> address = person.join(Person.ADDRESS);
+
+		cq.multiselect(
+			address.get(Location.ID),
+			address.get(Location.HOUSE_NUMBER),
+			address.get(Location.STREET),
+			address.get(Location.POSTAL_CODE),
+			address.get(Location.CITY));
+
+		Predicate filter = person.get(Person.UUID).in(personUuids);
+		if (!overwriteExistingCoordinates) {
+			filter = cb.and(filter, cb.or(cb.isNull(address.get(Location.LATITUDE)), cb.isNull(address.get(Location.LONGITUDE))));
+		}
+		cq.where(filter);
+
+		Map<Long, LocationQuery> queries = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			LocationQuery query = new LocationQuery((String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+			if (query.isGeocodable()) {
+				queries.put((Long) row[0], query);
 			}
 		}
-		return updatedCount;
+		return queries;
 	}
 
-	public boolean updateGeoLocation(Person person, boolean overwriteExistingCoordinates) {
-
-		boolean geoLocationUpdated = false;
-		if (person.getAddress() != null
-			&& (overwriteExistingCoordinates || (person.getAddress().getLatitude() == null || person.getAddress().getLongitude() == null))) {
-			GeoLatLon latLon = geocodingService.getLatLon(person.getAddress());
-			if (latLon != null) {
-				person.getAddress().setLatitude(latLon.getLat());
-				person.getAddress().setLongitude(latLon.getLon());
-				ensurePersisted(person);
-				geoLocationUpdated = true;
-			}
+	/**
+	 * Sets the coordinates of the addresses in a new transaction, without loading the persons.
+	 * 
+	 * @param coordinates
+	 *            The coordinates by the id of the {@link Location}
+	 * @return The number of updated addresses
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public long updateAddressCoordinates(Map<Long, GeoLatLon> coordinates) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		Timestamp changeDate = new Timestamp(System.currentTimeMillis());
+
+		long updatedCount = 0;
+		for (Map.Entry<Long, GeoLatLon> entry : coordinates.entrySet()) {
+			CriteriaUpdate<Location> cu = cb.createCriteriaUpdate(Location.class);
+			Root<Location> location = cu.from(Location.class);
+			cu.set(Location.LATITUDE, entry.getValue().getLat());
+			cu.set(Location.LONGITUDE, entry.getValue().getLon());
+			cu.set(Location.CHANGE_DATE, changeDate);
+			cu.where(cb.equal(location.get(Location.ID), entry.getKey()));
+			updatedCount += em.createQuery(cu).executeUpdate();
 		}
-		return geoLocationUpdated;
+		return updatedCount;
 	}
 
 	@Transactional(rollbackOn = Exception.class)
@@ -728,4 +958,73 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 
 		return em.createQuery(cq).getResultList();
 	}
+
+	/**
+	 * Person found by {@link #getMatchCandidates}, which is checked against the criteria like {@link #buildSimilarityCriteriaFilter}.
+	 */
+	private static final class MatchCandidate {
+
+		private final String name;
+		private final Sex sex;
+		private final Integer birthdateDD;
+		private final Integer birthdateMM;
+		private final Integer birthdateYYYY;
+		private final String nationalHealthId;
+		private final String passportNumber;
+		private Set<String> nameTrigrams;
+
+		private MatchCandidate(PersonSimilarityCriteria criteria) {
+			name = StringUtils.isBlank(criteria.getFirstName()) || StringUtils.isBlank(criteria.getLastName())
+				? null
+				: PersonSearchIndexService.buildName(criteria.getFirstName(), criteria.getLastName());
+			sex = criteria.getSex();
+			birthdateDD = criteria.getBirthdateDD();
+			birthdateMM = criteria.getBirthdateMM();
+			birthdateYYYY = criteria.getBirthdateYYYY();
+			nationalHealthId = criteria.getNationalHealthId();
+			passportNumber = criteria.getPassportNumber();
+		}
+
+		private MatchCandidate(Object[] result) {
+			name = (String) result[0];
+			sex = (Sex) result[1];
+			birthdateDD = (Integer) result[2];
+			birthdateMM = (Integer) result[3];
+			birthdateYYYY = (Integer) result[4];
+			nationalHealthId = (String) result[5];
+			passportNumber = (String) result[6];
+		}
+
+		private boolean matches(PersonSimilarityCriteria criteria, Set<String> criteriaNameTrigrams, double nameSimilarityThreshold) {
+
+			if (!StringUtils.isBlank(criteria.getPassportNumber()) && criteria.getPassportNumber().equals(passportNumber)) {
+				return true;
+			}
+
+			if (name == null) {
+				return false;
+			}
+			if (nameTrigrams == null) {
+				nameTrigrams = TrigramSimilarity.getTrigrams(name);
+			}
+			// same as the similarity operator of pg_trgm
+			if (TrigramSimilarity.getSimilarity(criteriaNameTrigrams, nameTrigrams) < nameSimilarityThreshold) {
+				return false;
+			}
+
+			Sex criteriaSex = criteria.getSex();
+			if (criteriaSex != null && sex != null && criteriaSex != Sex.UNKNOWN && sex != Sex.UNKNOWN && criteriaSex != sex) {
+				return false;
+			}
+
+			return matchesIfDefined(criteria.getBirthdateYYYY(), birthdateYYYY)
+				&& matchesIfDefined(criteria.getBirthdateMM(), birthdateMM)
+				&& matchesIfDefined(criteria.getBirthdateDD(), birthdateDD)
+				&& (StringUtils.isBlank(criteria.getNationalHealthId()) || matchesIfDefined(criteria.getNationalHealthId(), nationalHealthId));
+		}
+
+		private static boolean matchesIfDefined(Object criteriaValue, Object value) {
+			return criteriaValue == null || value == null || Objects.equals(criteriaValue, value);
+		}
+	}
 }
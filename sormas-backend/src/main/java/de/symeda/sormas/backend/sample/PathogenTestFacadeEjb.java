@@ -55,7 +55,6 @@ import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.event.EventParticipant;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
@@ -63,7 +62,6 @@ import de.symeda.sormas.backend.facility.FacilityService;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
-import de.symeda.sormas.backend.user.UserRoleConfigFacadeEjb.UserRoleConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.JurisdictionHelper;
@@ -91,8 +89,6 @@ public class PathogenTestFacadeEjb implements PathogenTestFacade {
 	private UserService userService;
 	@EJB
 	private MessagingService messagingService;
-	@EJB
-	private UserRoleConfigFacadeEjbLocal userRoleConfigFacade;
 
 	@Override
 	public List<String> getAllActiveUuids() {
@@ -211,10 +207,9 @@ public class PathogenTestFacadeEjb implements PathogenTestFacade {
 
 	@Override
 	public void deletePathogenTest(String pathogenTestUuid) {
-		User user = userService.getCurrentUser();
-		if (!userRoleConfigFacade.getEffectiveUserRights(user.getUserRoles().toArray(new UserRole[user.getUserRoles().size()]))
-			.contains(UserRight.PATHOGEN_TEST_DELETE)) {
-			throw new UnsupportedOperationException("User " + user.getUuid() + " is not allowed to delete pathogen " + "tests.");
+		if (!userService.hasRight(UserRight.PATHOGEN_TEST_DELETE)) {
+			throw new UnsupportedOperationException(
+				"User " + userService.getCurrentUser().getUuid() + " is not allowed to delete pathogen " + "tests.");
 		}
 
 		PathogenTest pathogenTest = pathogenTestService.getByUuid(pathogenTestUuid);
@@ -487,51 +482,35 @@ public class PathogenTestFacadeEjb implements PathogenTestFacade {
 		String shortUuid) {
 		if (existingPathogenTest == null && newPathogenTest.getTestResult() != PathogenTestResultType.PENDING) {
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.LAB_RESULT_ARRIVED,
-						String.format(
-							I18nProperties.getString(contentLabResultArrived),
-							newPathogenTest.getTestResult().toString(),
-							disease,
-							shortUuid,
-							newPathogenTest.getTestType(),
-							newPathogenTest.getTestedDisease()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors " + "about the arrival of a lab result. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.LAB_RESULT_ARRIVED,
+					String.format(
+						I18nProperties.getString(contentLabResultArrived),
+						newPathogenTest.getTestResult().toString(),
+						disease,
+						shortUuid,
+						newPathogenTest.getTestType(),
+						newPathogenTest.getTestedDisease()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		} else if (existingPathogenTest != null
 			&& existingPathogenTest.getTestResult() == PathogenTestResultType.PENDING
 			&& newPathogenTest.getTestResult() != PathogenTestResultType.PENDING) {
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.LAB_RESULT_SPECIFIED,
-						String.format(
-							I18nProperties.getString(contentLabResultSpecified),
-							disease,
-							shortUuid,
-							newPathogenTest.getTestResult().toString(),
-							newPathogenTest.getTestType(),
-							newPathogenTest.getTestedDisease()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors " + "about the specification of a lab result. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.LAB_RESULT_SPECIFIED,
+					String.format(
+						I18nProperties.getString(contentLabResultSpecified),
+						disease,
+						shortUuid,
+						newPathogenTest.getTestResult().toString(),
+						newPathogenTest.getTestType(),
+						newPathogenTest.getTestedDisease()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 	}
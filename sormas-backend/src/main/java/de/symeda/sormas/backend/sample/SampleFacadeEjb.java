@@ -78,12 +78,12 @@ import de.symeda.sormas.api.sample.SampleMaterial;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
 import de.symeda.sormas.api.sample.SampleSimilarityCriteria;
 import de.symeda.sormas.api.user.UserRight;
-import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseCompletenessService;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.caze.CaseQueryContext;
@@ -92,7 +92,6 @@ import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -116,7 +115,6 @@ import de.symeda.sormas.backend.sormastosormas.shareinfo.ShareInfoHelper;
 import de.symeda.sormas.backend.sormastosormas.shareinfo.SormasToSormasShareInfoService;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
-import de.symeda.sormas.backend.user.UserRoleConfigFacadeEjb.UserRoleConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.IterableHelper;
@@ -154,6 +152,8 @@ public class SampleFacadeEjb implements SampleFacade {
 	@EJB
 	private CaseService caseService;
 	@EJB
+	private CaseCompletenessService caseCompletenessService;
+	@EJB
 	private ContactService contactService;
 	@EJB
 	private EventParticipantService eventParticipantService;
@@ -164,8 +164,6 @@ public class SampleFacadeEjb implements SampleFacade {
 	@EJB
 	private MessagingService messagingService;
 	@EJB
-	private UserRoleConfigFacadeEjbLocal userRoleConfigFacade;
-	@EJB
 	private PathogenTestFacadeEjbLocal pathogenTestFacade;
 	@EJB
 	private SormasToSormasOriginInfoFacadeEjbLocal originInfoFacade;
@@ -335,6 +333,7 @@ public class SampleFacadeEjb implements SampleFacade {
 		}
 
 		sampleService.ensurePersisted(sample);
+		caseCompletenessService.enqueue(sample.getAssociatedCase());
 
 		if (handleChanges) {
 			onSampleChanged(existingSampleDto, sample);
@@ -882,14 +881,14 @@ public class SampleFacadeEjb implements SampleFacade {
 	@Override
 	public void deleteSample(SampleReferenceDto sampleRef) {
 
-		User user = userService.getCurrentUser();
-		if (!userRoleConfigFacade.getEffectiveUserRights(user.getUserRoles().toArray(new UserRole[user.getUserRoles().size()]))
-			.contains(UserRight.SAMPLE_DELETE)) {
-			throw new UnsupportedOperationException("User " + user.getUuid() + " is not allowed to delete samples.");
+		if (!userService.hasRight(UserRight.SAMPLE_DELETE)) {
+			throw new UnsupportedOperationException(
+				"User " + userService.getCurrentUser().getUuid() + " is not allowed to delete samples.");
 		}
 
 		Sample sample = sampleService.getByReferenceDto(sampleRef);
 		sampleService.delete(sample);
+		caseCompletenessService.enqueue(sample.getAssociatedCase());
 
 		final Case associatedCase = sample.getAssociatedCase();
 		if (associatedCase != null) {
@@ -899,10 +898,9 @@ public class SampleFacadeEjb implements SampleFacade {
 
 	@Override
 	public void deleteAllSamples(List<String> sampleUuids) {
-		User user = userService.getCurrentUser();
-		if (!userRoleConfigFacade.getEffectiveUserRights(user.getUserRoles().toArray(new UserRole[user.getUserRoles().size()]))
-			.contains(UserRight.SAMPLE_DELETE)) {
-			throw new UnsupportedOperationException("User " + user.getUuid() + " is not allowed to delete samples.");
+		if (!userService.hasRight(UserRight.SAMPLE_DELETE)) {
+			throw new UnsupportedOperationException(
+				"User " + userService.getCurrentUser().getUuid() + " is not allowed to delete samples.");
 		}
 		long startTime = DateHelper.startTime();
 
@@ -1120,30 +1118,21 @@ public class SampleFacadeEjb implements SampleFacade {
 			List<User> messageRecipients = userService.getLabUsersOfLab(newSample.getLab());
 
 			for (User recipient : messageRecipients) {
-				try {
-					String messageContent = null;
-					if (newSample.getAssociatedCase() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT),
-							DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid()));
-					} else if (newSample.getAssociatedContact() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_CONTACT),
-							DataHelper.getShortUuid(newSample.getAssociatedContact().getUuid()));
-					} else if (newSample.getAssociatedEventParticipant() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_EVENT_PARTICIPANT),
-							DataHelper.getShortUuid(newSample.getAssociatedEventParticipant().getUuid()));
-					}
-					messagingService.sendMessage(recipient, MessageSubject.LAB_SAMPLE_SHIPPED, messageContent, MessageType.EMAIL, MessageType.SMS);
-
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors about " + "the shipment of a lab sample. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
+				String messageContent = null;
+				if (newSample.getAssociatedCase() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT),
+						DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid()));
+				} else if (newSample.getAssociatedContact() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_CONTACT),
+						DataHelper.getShortUuid(newSample.getAssociatedContact().getUuid()));
+				} else if (newSample.getAssociatedEventParticipant() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_EVENT_PARTICIPANT),
+						DataHelper.getShortUuid(newSample.getAssociatedEventParticipant().getUuid()));
 				}
+				messagingService.sendMessage(recipient, MessageSubject.LAB_SAMPLE_SHIPPED, messageContent, MessageType.EMAIL, MessageType.SMS);
 			}
 		}
 	}
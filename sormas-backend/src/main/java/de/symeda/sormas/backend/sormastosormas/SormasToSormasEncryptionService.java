@@ -14,17 +14,13 @@
  */
 package de.symeda.sormas.backend.sormastosormas;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
 import java.security.PrivateKey;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 
 import javax.ejb.EJB;
@@ -58,6 +54,8 @@ public class SormasToSormasEncryptionService {
 	protected SormasToSormasConfig sormasToSormasConfig;
 	@EJB
 	protected ServerAccessDataService serverAccessDataService;
+	@EJB
+	protected SormasToSormasKeyStoreCache keyStoreCache;
 
 	private final ObjectMapper objectMapper;
 
@@ -67,61 +65,47 @@ public class SormasToSormasEncryptionService {
 		objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
 	}
 
-	private KeyStore getKeystore() throws CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException {
-		return loadStore(sormasToSormasConfig.getKeystoreName(), sormasToSormasConfig.getKeystorePass());
-	}
-
-	private KeyStore getTruststore() throws CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException {
-		return loadStore(sormasToSormasConfig.getTruststoreName(), sormasToSormasConfig.getTruststorePass());
-	}
-
-	private KeyStore loadStore(String name, String password) throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
-		String filePath = sormasToSormasConfig.getPath();
-		Path storePath = Paths.get(filePath, name);
-		KeyStore store = KeyStore.getInstance("pkcs12");
-		try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(storePath))) {
-			store.load(in, password.toCharArray());
-		}
-
-		return store;
+	private Path getStorePath(String name) {
+		return Paths.get(sormasToSormasConfig.getPath(), name);
 	}
 
-	private enum Mode {
-		ENCRYPTION,
-		DECRYPTION
-	}
-
-	private byte[] cipher(Mode mode, byte[] data, String otherId)
-		throws SormasToSormasException, CMSException, CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException,
-		UnrecoverableKeyException {
+	private KeyMaterial getKeyMaterial(String otherId) throws SormasToSormasException, GeneralSecurityException, IOException {
 		String ownId = getOrganizationId();
-		KeyStore keystore = getKeystore();
-		KeyStore truststore = getTruststore();
-		X509Certificate ownCert = (X509Certificate) keystore.getCertificate(ownId);
+		Path keystorePath = getStorePath(sormasToSormasConfig.getKeystoreName());
+		String keystorePass = sormasToSormasConfig.getKeystorePass();
+		X509Certificate ownCert = keyStoreCache.getCertificate(keystorePath, keystorePass, ownId);
 		// todo private key should have own password
-		PrivateKey ownKey = (PrivateKey) keystore.getKey(ownId, sormasToSormasConfig.getKeystorePass().toCharArray());
-		X509Certificate otherCert = (X509Certificate) truststore.getCertificate(otherId);
+		PrivateKey ownKey = keyStoreCache.getPrivateKey(keystorePath, keystorePass, ownId, keystorePass);
+		X509Certificate otherCert =
+			keyStoreCache.getCertificate(getStorePath(sormasToSormasConfig.getTruststoreName()), sormasToSormasConfig.getTruststorePass(), otherId);
 
 		if (otherCert == null) {
 			throw SormasToSormasException.fromStringProperty(Strings.errorSormasToSormasCertNotGenerated);
 		}
 
-		switch (mode) {
-		case ENCRYPTION:
-			return CmsCreator.signAndEncrypt(data, ownCert, ownKey, otherCert, true);
-		case DECRYPTION:
-			return CmsReader.decryptAndVerify(data, Lists.newArrayList(otherCert), ownCert, ownKey);
-		default:
-			throw new IllegalArgumentException("Unknown mode " + mode);
+		return new KeyMaterial(ownCert, ownKey, otherCert);
+	}
+
+	/**
+	 * Resolves the key material needed to send data to the recipient. The data itself is serialized, signed and encrypted
+	 * while it is written by {@link EncryptedDataWriter#writeTo(OutputStream)}, so it is never held in memory as a whole.
+	 */
+	public EncryptedDataWriter prepareSignAndEncrypt(Object entities, String recipientId) throws SormasToSormasException {
+		try {
+			return new EncryptedDataWriter(getOrganizationId(), entities, getKeyMaterial(recipientId));
+		} catch (Exception e) {
+			LOGGER.error("Could not sign and encrypt data", e);
+			throw SormasToSormasException.fromStringProperty(Strings.errorSormasToSormasEncrypt);
 		}
 	}
 
 	public SormasToSormasEncryptedDataDto signAndEncrypt(Object entities, String recipientId) throws SormasToSormasException {
+		EncryptedDataWriter writer = prepareSignAndEncrypt(entities, recipientId);
 		try {
-			OrganizationServerAccessData serverAccessData = serverAccessDataService.getServerAccessData();
-			byte[] encryptedData = cipher(Mode.ENCRYPTION, objectMapper.writeValueAsBytes(entities), recipientId);
-			return new SormasToSormasEncryptedDataDto(serverAccessData.getId(), encryptedData);
-		} catch (Exception e) {
+			ByteArrayOutputStream encryptedData = new ByteArrayOutputStream();
+			writer.writeTo(encryptedData);
+			return new SormasToSormasEncryptedDataDto(writer.getOrganizationId(), encryptedData.toByteArray());
+		} catch (IOException e) {
 			LOGGER.error("Could not sign and encrypt data", e);
 			throw SormasToSormasException.fromStringProperty(Strings.errorSormasToSormasEncrypt);
 		}
@@ -129,7 +113,12 @@ public class SormasToSormasEncryptionService {
 
 	public <T> T decryptAndVerify(SormasToSormasEncryptedDataDto encryptedData, Class<T> dataType) throws SormasToSormasException {
 		try {
-			byte[] decryptedData = cipher(Mode.DECRYPTION, encryptedData.getData(), encryptedData.getOrganizationId());
+			KeyMaterial keyMaterial = getKeyMaterial(encryptedData.getOrganizationId());
+			byte[] decryptedData = CmsReader.decryptAndVerify(
+				encryptedData.getData(),
+				Lists.newArrayList(keyMaterial.otherCert),
+				keyMaterial.ownCert,
+				keyMaterial.ownKey);
 			return objectMapper.readValue(decryptedData, dataType);
 		} catch (Exception e) {
 			LOGGER.error("Could not decrypt and verify data", e);
@@ -140,4 +129,53 @@ public class SormasToSormasEncryptionService {
 	private String getOrganizationId() {
 		return serverAccessDataService.getServerAccessData().getId();
 	}
+
+	private static final class KeyMaterial {
+
+		private final X509Certificate ownCert;
+		private final PrivateKey ownKey;
+		private final X509Certificate otherCert;
+
+		private KeyMaterial(X509Certificate ownCert, PrivateKey ownKey, X509Certificate otherCert) {
+			this.ownCert = ownCert;
+			this.ownKey = ownKey;
+			this.otherCert = otherCert;
+		}
+	}
+
+	/**
+	 * Signed and encrypted data of {@link #getOrganizationId()}, created while it is written.
+	 */
+	public final class EncryptedDataWriter {
+
+		private final String organizationId;
+		private final Object entities;
+		private final KeyMaterial keyMaterial;
+
+		private EncryptedDataWriter(String organizationId, Object entities, KeyMaterial keyMaterial) {
+			this.organizationId = organizationId;
+			this.entities = entities;
+			this.keyMaterial = keyMaterial;
+		}
+
+		public String getOrganizationId() {
+			return organizationId;
+		}
+
+		/**
+		 * Writes the entities signed and encrypted as CMS to the stream, which is not closed.
+		 */
+		public void writeTo(OutputStream out) throws IOException {
+			try {
+				CmsCreator.signAndEncrypt(
+					content -> objectMapper.writeValue(content, entities),
+					keyMaterial.ownCert,
+					keyMaterial.ownKey,
+					keyMaterial.otherCert,
+					out);
+			} catch (CMSException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+	}
 }
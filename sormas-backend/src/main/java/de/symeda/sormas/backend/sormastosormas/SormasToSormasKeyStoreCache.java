@@ -0,0 +1,153 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.sormastosormas;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Node local cache of the key material used by {@link SormasToSormasEncryptionService}.
+ * <ul>
+ * <li>A PKCS12 store is loaded again only when the last modified time of its file or its password has changed, so replaced
+ * keystores and truststores are picked up without a restart.</li>
+ * <li>The certificates of all aliases are resolved when a store is loaded.</li>
+ * <li>Private keys are recovered on first use and kept until the store is loaded again.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SormasToSormasKeyStoreCache {
+
+	private static final String STORE_TYPE = "pkcs12";
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final Map<Path, LoadedStore> stores = new ConcurrentHashMap<>();
+
+	/**
+	 * @return The certificate stored for the alias, or {@code null} if the store has no certificate for it.
+	 */
+	public X509Certificate getCertificate(Path storePath, String storePassword, String alias) throws GeneralSecurityException, IOException {
+		return getStore(storePath, storePassword).certificates.get(alias);
+	}
+
+	/**
+	 * @return The private key stored for the alias, or {@code null} if the store has no key for it.
+	 */
+	public PrivateKey getPrivateKey(Path storePath, String storePassword, String alias, String keyPassword)
+		throws GeneralSecurityException, IOException {
+
+		LoadedStore store = getStore(storePath, storePassword);
+		CachedKey cachedKey = store.privateKeys.get(alias);
+		if (cachedKey == null || !Objects.equals(cachedKey.password, keyPassword)) {
+			Key key;
+			synchronized (store.keyStore) {
+				key = store.keyStore.getKey(alias, keyPassword.toCharArray());
+			}
+			cachedKey = new CachedKey(key instanceof PrivateKey ? (PrivateKey) key : null, keyPassword);
+			store.privateKeys.put(alias, cachedKey);
+		}
+
+		return cachedKey.key;
+	}
+
+	private LoadedStore getStore(Path storePath, String password) throws GeneralSecurityException, IOException {
+
+		FileTime lastModified = Files.getLastModifiedTime(storePath);
+		LoadedStore store = stores.get(storePath);
+		if (store != null && store.lastModified.equals(lastModified) && Objects.equals(store.password, password)) {
+			return store;
+		}
+
+		// concurrent reloads of the same store are harmless, so no lock is held while loading
+		store = loadStore(storePath, password, lastModified);
+		stores.put(storePath, store);
+		logger.info("Loaded key store {} (last modified {})", storePath, lastModified);
+
+		return store;
+	}
+
+	private static LoadedStore loadStore(Path storePath, String password, FileTime lastModified) throws GeneralSecurityException, IOException {
+
+		KeyStore keyStore = KeyStore.getInstance(STORE_TYPE);
+		try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(storePath))) {
+			keyStore.load(in, password.toCharArray());
+		}
+
+		Map<String, X509Certificate> certificates = new HashMap<>();
+		Enumeration<String> aliases = keyStore.aliases();
+		while (aliases.hasMoreElements()) {
+			String alias = aliases.nextElement();
+			Certificate certificate = keyStore.getCertificate(alias);
+			if (certificate instanceof X509Certificate) {
+				certificates.put(alias, (X509Certificate) certificate);
+			}
+		}
+
+		return new LoadedStore(keyStore, password, lastModified, certificates);
+	}
+
+	private static final class LoadedStore {
+
+		private final KeyStore keyStore;
+		private final String password;
+		private final FileTime lastModified;
+		private final Map<String, X509Certificate> certificates;
+		private final Map<String, CachedKey> privateKeys = new ConcurrentHashMap<>();
+
+		private LoadedStore(KeyStore keyStore, String password, FileTime lastModified, Map<String, X509Certificate> certificates) {
+			this.keyStore = keyStore;
+			this.password = password;
+			this.lastModified = lastModified;
+			this.certificates = Collections.unmodifiableMap(certificates);
+		}
+	}
+
+	private static final class CachedKey {
+
+		private final PrivateKey key;
+		private final String password;
+
+		private CachedKey(PrivateKey key, String password) {
+			this.key = key;
+			this.password = password;
+		}
+	}
+}
@@ -18,6 +18,9 @@ package de.symeda.sormas.backend.sormastosormas;
 import static de.symeda.sormas.api.sormastosormas.SormasToSormasApiConstants.SORMAS_REST_PATH;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.ConnectException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -31,7 +34,9 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.ResponseProcessingException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,8 +104,8 @@ public class SormasToSormasRestClient {
 
 	private <T> T sendRequest(String receiverId, String endpoint, Object body, Class<T> responseType, String method) throws SormasToSormasException {
 		try {
-			SormasToSormasEncryptedDataDto encryptedBody = encryptionService.signAndEncrypt(body, receiverId);
-			Entity<String> entity = Entity.entity(mapper.writeValueAsString(encryptedBody), MediaType.APPLICATION_JSON_TYPE);
+			SormasToSormasEncryptionService.EncryptedDataWriter encryptedBody = encryptionService.prepareSignAndEncrypt(body, receiverId);
+			Entity<StreamingOutput> entity = Entity.entity(createEncryptedDataOutput(encryptedBody), MediaType.APPLICATION_JSON_TYPE);
 			Invocation.Builder invocation = buildRestClient(receiverId, endpoint);
 
 			Response response;
@@ -132,6 +137,30 @@ public class SormasToSormasRestClient {
 		}
 	}
 
+	/**
+	 * Writes the same JSON as a serialized {@link SormasToSormasEncryptedDataDto}, but signs and encrypts the data directly into
+	 * the request body instead of keeping the plain, encrypted and Base64 encoded data in memory.
+	 */
+	private StreamingOutput createEncryptedDataOutput(SormasToSormasEncryptionService.EncryptedDataWriter encryptedBody) throws JsonProcessingException {
+
+		String organizationId = mapper.writeValueAsString(encryptedBody.getOrganizationId());
+
+		return out -> {
+			Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			writer.write("{\"organizationId\":");
+			writer.write(organizationId);
+			writer.write(",\"data\":\"");
+			writer.flush();
+
+			try (OutputStream base64Out = Base64.getEncoder().wrap(new CloseShieldOutputStream(out))) {
+				encryptedBody.writeTo(base64Out);
+			}
+
+			writer.write("\"}");
+			writer.flush();
+		};
+	}
+
 	private <T> T handleResponse(Response response, Class<T> responseType) throws SormasToSormasException {
 		int statusCode = response.getStatus();
 		if (statusCode != HttpStatus.SC_NO_CONTENT && statusCode != HttpStatus.SC_OK) {
@@ -83,7 +83,6 @@ import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.CronService;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -264,23 +263,15 @@ public class TaskFacadeEjb implements TaskFacade {
 				UserRole.CASE_SUPERVISOR,
 				UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.VISIT_COMPLETED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED),
-							DataHelper.getShortUuid(ado.getContact().getUuid()),
-							DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the completion of a follow-up visit. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.VISIT_COMPLETED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED),
+						DataHelper.getShortUuid(ado.getContact().getUuid()),
+						DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -665,27 +656,19 @@ public class TaskFacadeEjb implements TaskFacade {
 				? task.getCaze()
 				: context == TaskContext.CONTACT ? task.getContact() : context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null) {
-				try {
-					String content = context == TaskContext.GENERAL
-						? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString())
-						: String.format(
-							I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC),
-							task.getTaskType().toString(),
-							buildAssociatedEntityLinkContent(context, associatedEntity));
-
-					messagingService.sendMessage(
-						userService.getByUuid(task.getAssigneeUser().getUuid()),
-						MessageSubject.TASK_START,
-						content,
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify a user about a starting task. " + "Failed to send "
-								+ e.getMessageType() + " to user with UUID %s.",
-							task.getAssigneeUser().getUuid()));
-				}
+				String content = context == TaskContext.GENERAL
+					? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString())
+					: String.format(
+						I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC),
+						task.getTaskType().toString(),
+						buildAssociatedEntityLinkContent(context, associatedEntity));
+
+				messagingService.sendMessage(
+					task.getAssigneeUser(),
+					MessageSubject.TASK_START,
+					content,
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -696,27 +679,19 @@ public class TaskFacadeEjb implements TaskFacade {
 				? task.getCaze()
 				: context == TaskContext.CONTACT ? task.getContact() : context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null) {
-				try {
-					String content = context == TaskContext.GENERAL
-						? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString())
-						: String.format(
-							I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC),
-							task.getTaskType().toString(),
-							buildAssociatedEntityLinkContent(context, associatedEntity));
-
-					messagingService.sendMessage(
-						userService.getByUuid(task.getAssigneeUser().getUuid()),
-						MessageSubject.TASK_DUE,
-						content,
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify a user about a due task. " + "Failed to send " + e.getMessageType()
-								+ " to user with UUID %s.",
-							task.getAssigneeUser().getUuid()));
-				}
+				String content = context == TaskContext.GENERAL
+					? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString())
+					: String.format(
+						I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC),
+						task.getTaskType().toString(),
+						buildAssociatedEntityLinkContent(context, associatedEntity));
+
+				messagingService.sendMessage(
+					task.getAssigneeUser(),
+					MessageSubject.TASK_DUE,
+					content,
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 	}
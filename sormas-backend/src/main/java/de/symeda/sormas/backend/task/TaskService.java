@@ -22,6 +22,8 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
 import javax.ejb.EJB;
@@ -56,6 +58,7 @@ import de.symeda.sormas.backend.common.AdoServiceWithUserFilter;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.TaskCreationException;
 import de.symeda.sormas.backend.contact.Contact;
+import de.symeda.sormas.backend.contact.ContactFollowUpTaskCandidate;
 import de.symeda.sormas.backend.contact.ContactJoins;
 import de.symeda.sormas.backend.contact.ContactQueryContext;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -459,6 +462,59 @@ public class TaskService extends AdoServiceWithUserFilter<Task> {
 		return assignee;
 	}
 
+	/**
+	 * Same as {@link #getTaskAssignee(Contact)}, but picks the random contact officers and supervisors from the preloaded ids of
+	 * {@link UserService#getActiveUserIdsByJurisdiction(String, UserRole)}.
+	 * 
+	 * @return The id of the assignee.
+	 */
+	public Long getTaskAssigneeId(
+		ContactFollowUpTaskCandidate contact,
+		Map<Long, List<Long>> contactOfficerIdsByDistrict,
+		Map<Long, List<Long>> contactSupervisorIdsByRegion)
+		throws TaskCreationException {
+
+		// 1) The contact officer that is responsible for the contact
+		Long assigneeId = contact.getContactOfficerId();
+
+		// 2) A random contact officer from the contact's, contact person's or contact case's district
+		if (assigneeId == null) {
+			assigneeId = getRandomUserId(
+				contactOfficerIdsByDistrict,
+				contact.getDistrictId(),
+				contact.getPersonDistrictId(),
+				contact.getCaseResponsibleDistrictId(),
+				contact.getCaseDistrictId());
+		}
+
+		// 3) Assign a random contact supervisor from the contact's, contact person's or contact case's region
+		if (assigneeId == null) {
+			assigneeId = getRandomUserId(
+				contactSupervisorIdsByRegion,
+				contact.getRegionId(),
+				contact.getPersonRegionId(),
+				contact.getCaseResponsibleRegionId(),
+				contact.getCaseRegionId());
+		}
+
+		if (assigneeId == null) {
+			throw new TaskCreationException("Contact has not contact officer and no region - can't create follow-up task: " + contact.getUuid());
+		}
+
+		return assigneeId;
+	}
+
+	private static Long getRandomUserId(Map<Long, List<Long>> userIdsByJurisdiction, Long... jurisdictionIds) {
+
+		for (Long jurisdictionId : jurisdictionIds) {
+			List<Long> userIds = userIdsByJurisdiction.get(jurisdictionId);
+			if (userIds != null) {
+				return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+			}
+		}
+		return null;
+	}
+
 	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
 	public void updateArchived(List<String> taskUuids, boolean archived) {
 
@@ -19,6 +19,7 @@ import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.common.AbstractCoreAdoService;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.person.PersonSearchIndexService;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.JurisdictionHelper;
@@ -29,11 +30,19 @@ public class TravelEntryService extends AbstractCoreAdoService<TravelEntry> {
 
 	@EJB
 	private UserService userService;
+	@EJB
+	private PersonSearchIndexService personSearchIndexService;
 
 	public TravelEntryService() {
 		super(TravelEntry.class);
 	}
 
+	@Override
+	public void ensurePersisted(TravelEntry travelEntry) {
+		super.ensurePersisted(travelEntry);
+		personSearchIndexService.markAssociated(travelEntry.getPerson());
+	}
+
 	public boolean inJurisdictionOrOwned(TravelEntry travelEntry) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Boolean> cq = cb.createQuery(Boolean.class);
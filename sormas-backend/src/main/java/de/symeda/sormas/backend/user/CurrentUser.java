@@ -1,6 +1,7 @@
 package de.symeda.sormas.backend.user;
 
 import java.io.Serializable;
+import java.util.function.Function;
 
 import javax.enterprise.context.RequestScoped;
 
@@ -11,6 +12,8 @@ public class CurrentUser implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 	private User user;
+	private CurrentUserSnapshot snapshot;
+	private transient Function<Long, User> userLoader;
 
 	public CurrentUser() {
 	}
@@ -19,10 +22,32 @@ public class CurrentUser implements Serializable {
 		this.user = user;
 	}
 
+	/**
+	 * @param user
+	 *            The user if it has already been loaded, otherwise it is loaded by the userLoader on first access.
+	 */
+	public CurrentUser(CurrentUserSnapshot snapshot, User user, Function<Long, User> userLoader) {
+		this.snapshot = snapshot;
+		this.user = user;
+		this.userLoader = userLoader;
+	}
+
 	public User getUser() {
+
+		if (user == null && snapshot != null && userLoader != null) {
+			user = userLoader.apply(snapshot.getId());
+		}
 		return user;
 	}
 
+	/**
+	 * @return The cached rights, roles and jurisdiction of the user, to be checked without loading the user. Null for anonymous
+	 *         users and after {@link #setUser(User)}.
+	 */
+	public CurrentUserSnapshot getSnapshot() {
+		return snapshot;
+	}
+
 	/**
 	 * Should only be used for testing scenarios of user rights & jurisdiction!
 	 * @param user
@@ -30,5 +55,6 @@ public class CurrentUser implements Serializable {
 	@Deprecated
 	public void setUser(User user) {
 		this.user = user;
+		this.snapshot = null;
 	}
 }
@@ -0,0 +1,243 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.user;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.util.MBeanHelper;
+
+/**
+ * Node local cache of the {@link CurrentUserSnapshot}s resolved by {@link CurrentUserService} and of the rights of the user roles
+ * used by {@link UserRoleConfigFacadeEjb}.
+ * <ul>
+ * <li>Snapshots are keyed by the lower case user name of the principal and expire after {@link #TIME_TO_LIVE_SECONDS}, which is
+ * also the longest time changes made on other nodes of a cluster take to become visible. At most {@link #MAX_ENTRIES} snapshots
+ * are kept.</li>
+ * <li>Saving a user invalidates the snapshot of the user, changing a user role configuration invalidates everything. Both happen
+ * again when the transaction completes.</li>
+ * </ul>
+ * Hits, misses and invalidations are exposed as JMX attributes of {@link #OBJECT_NAME}.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.SUPPORTS)
+public class CurrentUserCache implements CurrentUserCacheMBean {
+
+	public static final String OBJECT_NAME = "de.symeda.sormas:type=CurrentUserCache";
+
+	public static final long TIME_TO_LIVE_SECONDS = 60;
+	public static final int MAX_ENTRIES = 10000;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	private final Map<String, Entry> snapshots = new ConcurrentHashMap<>();
+	private volatile Map<UserRole, Set<UserRight>> userRoleRights;
+
+	/**
+	 * Incremented by every invalidation, so values loaded concurrently to an invalidation are not cached.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	@PostConstruct
+	public void registerMBean() {
+
+		MBeanHelper.register(this, OBJECT_NAME, "current user cache metrics");
+	}
+
+	@PreDestroy
+	public void unregisterMBean() {
+
+		MBeanHelper.unregister(OBJECT_NAME, "current user cache metrics");
+	}
+
+	/**
+	 * @return The cached snapshot of the user, or null if it is not cached or expired.
+	 */
+	public CurrentUserSnapshot getSnapshot(String userName) {
+
+		Entry entry = snapshots.get(toKey(userName));
+		if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+			hits.increment();
+			return entry.snapshot;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * @return To be passed to {@link #putSnapshot(String, CurrentUserSnapshot, long)}; has to be read before loading the user.
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Caches the snapshot unless the cache has been invalidated since the given generation.
+	 */
+	public void putSnapshot(String userName, CurrentUserSnapshot snapshot, long loadGeneration) {
+
+		long now = System.currentTimeMillis();
+		if (snapshots.size() >= MAX_ENTRIES) {
+			snapshots.values().removeIf(e -> e.expiresAt <= now);
+			if (snapshots.size() >= MAX_ENTRIES) {
+				snapshots.clear();
+			}
+		}
+
+		if (loadGeneration == generation.get()) {
+			snapshots.put(toKey(userName), new Entry(snapshot, now + TimeUnit.SECONDS.toMillis(TIME_TO_LIVE_SECONDS)));
+		}
+	}
+
+	/**
+	 * @return The cached rights of all user roles, or the rights provided by the loader if they are not cached.
+	 */
+	public Map<UserRole, Set<UserRight>> getUserRoleRights(Supplier<Map<UserRole, Set<UserRight>>> loader) {
+
+		Map<UserRole, Set<UserRight>> cached = userRoleRights;
+		if (cached != null) {
+			return cached;
+		}
+
+		long loadGeneration = generation.get();
+		Map<UserRole, Set<UserRight>> loaded = loader.get();
+		if (loadGeneration == generation.get()) {
+			userRoleRights = loaded;
+		}
+		return loaded;
+	}
+
+	/**
+	 * Invalidates the snapshots of the given users now and again when the current transaction completes, because other threads
+	 * could load and cache the old state until the changes are committed.
+	 */
+	public void invalidateAfterCompletion(String... userNames) {
+
+		Runnable invalidation = () -> {
+			generation.incrementAndGet();
+			for (String userName : userNames) {
+				if (userName != null) {
+					snapshots.remove(toKey(userName));
+				}
+			}
+			invalidations.increment();
+		};
+		invalidation.run();
+		runAfterCommit(invalidation);
+	}
+
+	/**
+	 * Invalidates the rights of the user roles and all snapshots now and again when the current transaction completes.
+	 */
+	public void invalidateAllAfterCompletion() {
+
+		invalidateAll();
+		runAfterCommit(this::invalidateAll);
+	}
+
+	@Override
+	public void invalidateAll() {
+
+		generation.incrementAndGet();
+		userRoleRights = null;
+		snapshots.clear();
+		invalidations.increment();
+	}
+
+	private void runAfterCommit(Runnable runnable) {
+
+		if (transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null) {
+			transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == Status.STATUS_COMMITTED) {
+						runnable.run();
+					}
+				}
+			});
+		}
+	}
+
+	private static String toKey(String userName) {
+		return userName.toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public long getHits() {
+		return hits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	@Override
+	public long getInvalidations() {
+		return invalidations.sum();
+	}
+
+	@Override
+	public int getSize() {
+		return snapshots.size();
+	}
+
+	private static final class Entry {
+
+		private final CurrentUserSnapshot snapshot;
+		private final long expiresAt;
+
+		private Entry(CurrentUserSnapshot snapshot, long expiresAt) {
+			this.snapshot = snapshot;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
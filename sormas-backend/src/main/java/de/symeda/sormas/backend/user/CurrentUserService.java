@@ -1,6 +1,7 @@
 package de.symeda.sormas.backend.user;
 
 import javax.annotation.Resource;
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.SessionContext;
 import javax.ejb.Stateless;
@@ -15,6 +16,8 @@ import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
 
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.user.UserRoleConfigFacadeEjb.UserRoleConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.util.ModelConstants;
 
 /**
@@ -30,8 +33,14 @@ public class CurrentUserService {
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
+	@EJB
+	private CurrentUserCache currentUserCache;
+	@EJB
+	private UserRoleConfigFacadeEjbLocal userRoleConfigFacade;
+
 	/**
-	 * Returns the User entity corresponding to the current user.
+	 * Returns the User entity corresponding to the current user. The rights, roles and jurisdiction of the user are taken from
+	 * the {@link CurrentUserCache}, the entity itself is only loaded (by id) when it is accessed.
 	 *
 	 * @return
 	 */
@@ -47,6 +56,14 @@ public class CurrentUserService {
 			return new CurrentUser(null);
 		}
 
+		final EntityManager entityManager = em;
+		CurrentUserSnapshot snapshot = currentUserCache.getSnapshot(userName);
+		if (snapshot != null) {
+			return new CurrentUser(snapshot, null, id -> loadUser(entityManager, id));
+		}
+
+		long loadGeneration = currentUserCache.getGeneration();
+
 		final CriteriaBuilder cb = em.getCriteriaBuilder();
 		final ParameterExpression<String> userNameParam = cb.parameter(String.class, User.USER_NAME);
 		final CriteriaQuery<User> cq = cb.createQuery(User.class);
@@ -59,11 +76,36 @@ public class CurrentUserService {
 
 		if (user != null) {
 			user.getUserRoles().size();
-			// TODO
-			user.getAddress().getAddressType();
-			return new CurrentUser(user);
+			initializeAddress(user);
+			snapshot = CurrentUserSnapshot
+				.of(user, userRoleConfigFacade.getEffectiveUserRights(user.getUserRoles().toArray(new UserRole[user.getUserRoles().size()])));
+			currentUserCache.putSnapshot(userName, snapshot, loadGeneration);
+			return new CurrentUser(snapshot, user, id -> loadUser(entityManager, id));
 		} else {
 			return new CurrentUser(null);
 		}
 	}
+
+	/**
+	 * Loads the user of a cached snapshot when it is accessed for the first time during a request, in the transaction of the caller.
+	 */
+	private static User loadUser(EntityManager em, Long id) {
+
+		User user = em.find(User.class, id);
+		if (user != null) {
+			initializeAddress(user);
+		}
+		return user;
+	}
+
+	/**
+	 * The current user is request scoped and its address is still read after the persistence context of the request's
+	 * transaction has been closed, so the lazy address has to be initialized while it is open.
+	 */
+	private static void initializeAddress(User user) {
+
+		if (user.getAddress() != null) {
+			user.getAddress().getAddressType();
+		}
+	}
 }
@@ -0,0 +1,72 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.user;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.api.user.UserRole;
+
+/**
+ * Detached, immutable copy of the data of a {@link User} that is needed to check the rights of the current user, cached by the
+ * {@link CurrentUserCache}. Jurisdiction checks use the {@link User} itself, which is loaded on access by {@link CurrentUser}.
+ */
+public final class CurrentUserSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long id;
+	private final String uuid;
+	private final Set<UserRole> userRoles;
+	private final Set<UserRight> userRights;
+
+	private CurrentUserSnapshot(User user, Set<UserRight> userRights) {
+
+		this.id = user.getId();
+		this.uuid = user.getUuid();
+		this.userRoles = Collections.unmodifiableSet(
+			user.getUserRoles().isEmpty() ? EnumSet.noneOf(UserRole.class) : EnumSet.copyOf(user.getUserRoles()));
+		this.userRights =
+			Collections.unmodifiableSet(userRights.isEmpty() ? EnumSet.noneOf(UserRight.class) : EnumSet.copyOf(userRights));
+	}
+
+	/**
+	 * @param userRights
+	 *            The effective rights of the roles of the user.
+	 */
+	public static CurrentUserSnapshot of(User user, Set<UserRight> userRights) {
+		return new CurrentUserSnapshot(user, userRights);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	public Set<UserRole> getUserRoles() {
+		return userRoles;
+	}
+
+	public Set<UserRight> getUserRights() {
+		return userRights;
+	}
+}
@@ -101,6 +101,8 @@ public class UserFacadeEjb implements UserFacade {
 	@EJB
 	private UserService userService;
 	@EJB
+	private CurrentUserCache currentUserCache;
+	@EJB
 	private LocationFacadeEjbLocal locationFacade;
 	@EJB
 	private RegionService regionService;
@@ -373,6 +375,7 @@ public class UserFacadeEjb implements UserFacade {
 		}
 
 		userService.ensurePersisted(user);
+		currentUserCache.invalidateAfterCompletion(user.getUserName(), oldUser != null ? oldUser.getUserName() : null);
 
 		if (oldUser == null) {
 			userCreateEvent.fire(new UserCreateEvent(user));
@@ -627,6 +630,7 @@ public class UserFacadeEjb implements UserFacade {
 
 			user.setActive(active);
 			userService.ensurePersisted(user);
+			currentUserCache.invalidateAfterCompletion(user.getUserName());
 
 			userUpdateEvent.fire(new UserUpdateEvent(oldUser, user));
 		}
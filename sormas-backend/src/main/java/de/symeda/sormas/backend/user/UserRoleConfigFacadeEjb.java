@@ -45,9 +45,8 @@ public class UserRoleConfigFacadeEjb implements UserRoleConfigFacade {
 	private UserRoleConfigService userRoleConfigService;
 	@EJB
 	private UserService userService;
-
-	//Assumption: UserRoleConfigs are not changed during runtime 
-	private Map<UserRole, Set<UserRight>> userRoleRightsCache;
+	@EJB
+	private CurrentUserCache currentUserCache;
 
 	@Override
 	public List<UserRoleConfigDto> getAllAfter(Date since) {
@@ -109,17 +108,15 @@ public class UserRoleConfigFacadeEjb implements UserRoleConfigFacade {
 		return userRights;
 	}
 
+	/**
+	 * Also invalidates the cached rights of all current users.
+	 */
 	public void resetUserRoleRightsCache() {
-		userRoleRightsCache = null;
+		currentUserCache.invalidateAllAfterCompletion();
 	}
 
 	private Map<UserRole, Set<UserRight>> getUserRoleRightsCached() {
-
-		if (userRoleRightsCache == null) {
-			userRoleRightsCache = getAllAsMap();
-		}
-
-		return userRoleRightsCache;
+		return currentUserCache.getUserRoleRights(this::getAllAsMap);
 	}
 
 	public UserRoleConfig fromDto(UserRoleConfigDto source, boolean checkChangeDate) {
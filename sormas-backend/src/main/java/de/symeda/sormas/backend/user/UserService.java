@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.user;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -293,6 +294,34 @@ public class UserService extends AdoServiceWithUserFilter<User> {
 		return getByUuid(chosenUser.getUuid());
 	}
 
+	/**
+	 * Loads the candidates of {@link #getRandomUser(District, UserRole...)} or {@link #getRandomUser(Region, UserRole...)} for all
+	 * districts or regions at once.
+	 * 
+	 * @param jurisdictionProperty
+	 *            {@link User#DISTRICT} or {@link User#REGION}
+	 * @return The ids of the active users with the role, grouped by the id of their district or region and ordered by id.
+	 */
+	public Map<Long, List<Long>> getActiveUserIdsByJurisdiction(String jurisdictionProperty, UserRole userRole) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<User> from = cq.from(getElementClass());
+		Join<User, AbstractDomainObject> jurisdictionJoin = from.join(jurisdictionProperty);
+		Join<User, UserRole> rolesJoin = from.join(User.USER_ROLES);
+
+		cq.multiselect(jurisdictionJoin.get(AbstractDomainObject.ID), from.get(User.ID));
+		cq.where(createDefaultFilter(cb, from), rolesJoin.in(userRole));
+		cq.distinct(true);
+		cq.orderBy(cb.asc(from.get(User.ID)));
+
+		Map<Long, List<Long>> userIds = new HashMap<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			userIds.computeIfAbsent((Long) result[0], k -> new ArrayList<>()).add((Long) result[1]);
+		}
+		return userIds;
+	}
+
 	public List<User> getInformantsOfFacility(Facility facility) {
 
 		if (facility == null || !FacilityType.HOSPITAL.equals(facility.getType())) {
@@ -525,17 +554,35 @@ public class UserService extends AdoServiceWithUserFilter<User> {
 	}
 
 	public boolean hasRole(UserRole userRoleName) {
-		return getCurrentUser().getUserRoles().contains(userRoleName);
+		return getCurrentUserRoles().contains(userRoleName);
 	}
 
 	public boolean hasAnyRole(Set<UserRole> typeRoles) {
-		Set<UserRole> userRoles = getCurrentUser().getUserRoles();
-		return !userRoles.stream().filter(userRole -> typeRoles.contains(userRole)).collect(Collectors.toList()).isEmpty();
+		return getCurrentUserRoles().stream().anyMatch(typeRoles::contains);
 	}
 
 	public boolean hasRight(UserRight right) {
+		return getCurrentUserRights().contains(right);
+	}
+
+	/**
+	 * @return The effective rights of the current user, taken from the cached snapshot of the user without database access.
+	 */
+	public Set<UserRight> getCurrentUserRights() {
+
+		CurrentUserSnapshot snapshot = getCurrentUserSnapshot();
+		if (snapshot != null) {
+			return snapshot.getUserRights();
+		}
+
 		User currentUser = getCurrentUser();
-		return userRoleConfigFacade.getEffectiveUserRights(currentUser.getUserRoles().toArray(new UserRole[0])).contains(right);
+		return userRoleConfigFacade.getEffectiveUserRights(currentUser.getUserRoles().toArray(new UserRole[0]));
+	}
+
+	private Set<UserRole> getCurrentUserRoles() {
+
+		CurrentUserSnapshot snapshot = getCurrentUserSnapshot();
+		return snapshot != null ? snapshot.getUserRoles() : getCurrentUser().getUserRoles();
 	}
 
 	public boolean hasRegion(RegionReferenceDto regionReference) {
@@ -0,0 +1,58 @@
+package de.symeda.sormas.backend.util;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper methods to expose beans as MBeans on the platform MBean server.
+ */
+public final class MBeanHelper {
+
+	private static final Logger logger = LoggerFactory.getLogger(MBeanHelper.class);
+
+	private MBeanHelper() {
+		// Hide utility class constructor
+	}
+
+	/**
+	 * Registers the {@code mbean} under {@code objectName}. An MBean left over from a previous deployment is replaced. Failures are
+	 * only logged, the bean is usable without its MBean.
+	 *
+	 * @param description
+	 *            What the MBean exposes, used in the log message.
+	 */
+	public static void register(Object mbean, String objectName, String description) {
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(mbean, name);
+		} catch (JMException e) {
+			logger.warn("Could not register " + description, e);
+		}
+	}
+
+	/**
+	 * Unregisters the MBean registered under {@code objectName}.
+	 *
+	 * @param description
+	 *            What the MBean exposes, used in the log message.
+	 */
+	public static void unregister(String objectName, String description) {
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(objectName));
+		} catch (JMException e) {
+			logger.debug("Could not unregister " + description, e);
+		}
+	}
+}
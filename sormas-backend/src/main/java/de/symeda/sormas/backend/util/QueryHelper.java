@@ -11,6 +11,10 @@ import javax.persistence.criteria.CriteriaQuery;
 
 import org.apache.commons.lang3.StringUtils;
 
+import de.symeda.sormas.api.common.SyncCursor;
+import de.symeda.sormas.api.common.SyncPage;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+
 /**
  * Helper methods for building JDBC queries.
  */
@@ -235,4 +239,28 @@ public final class QueryHelper {
 		}
 	}
 
+	/**
+	 * Converts one batch of a keyset paginated sync query to a {@link SyncPage}.
+	 * 
+	 * @param entities
+	 *            Result of the query, sorted ascending by change date and uuid and fetched with {@code batchSize + 1} max results,
+	 *            so the additional entity tells whether there are more.
+	 * @param cursor
+	 *            Cursor of the previous batch, returned again if the batch is empty.
+	 */
+	public static <T extends AbstractDomainObject, U> SyncPage<U> toSyncPage(
+		List<T> entities,
+		int batchSize,
+		String cursor,
+		Function<T, U> converter) {
+
+		boolean hasMore = entities.size() > batchSize;
+		List<T> batch = hasMore ? entities.subList(0, batchSize) : entities;
+		if (!batch.isEmpty()) {
+			T last = batch.get(batch.size() - 1);
+			cursor = new SyncCursor(last.getChangeDate(), last.getUuid()).toString();
+		}
+
+		return new SyncPage<>(batch.stream().map(converter).collect(Collectors.toList()), cursor, hasMore);
+	}
 }
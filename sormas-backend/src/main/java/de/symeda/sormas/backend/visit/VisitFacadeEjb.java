@@ -85,7 +85,6 @@ import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactQueryContext;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -574,28 +573,20 @@ public class VisitFacadeEjb implements VisitFacade {
 					UserRole.SURVEILLANCE_SUPERVISOR,
 					UserRole.CONTACT_SUPERVISOR);
 				for (User recipient : messageRecipients) {
-					try {
-						String messageContent;
-						if (contactCase != null) {
-							messageContent = String.format(
-								I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC),
-								DataHelper.getShortUuid(contact.getUuid()),
-								DataHelper.getShortUuid(contactCase.getUuid()));
-						} else {
-							messageContent = String.format(
-								I18nProperties.getString(MessagingService.CONTENT_CONTACT_WITHOUT_CASE_SYMPTOMATIC),
-								DataHelper.getShortUuid(contact.getUuid()));
-						}
-
-						messagingService
-							.sendMessage(recipient, MessageSubject.CONTACT_SYMPTOMATIC, messageContent, MessageType.EMAIL, MessageType.SMS);
-					} catch (NotificationDeliveryFailedException e) {
-						logger.error(
-							String.format(
-								"EmailDeliveryFailedException when trying to notify supervisors about a contact that has become symptomatic. "
-									+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-								recipient.getUuid()));
+					String messageContent;
+					if (contactCase != null) {
+						messageContent = String.format(
+							I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC),
+							DataHelper.getShortUuid(contact.getUuid()),
+							DataHelper.getShortUuid(contactCase.getUuid()));
+					} else {
+						messageContent = String.format(
+							I18nProperties.getString(MessagingService.CONTENT_CONTACT_WITHOUT_CASE_SYMPTOMATIC),
+							DataHelper.getShortUuid(contact.getUuid()));
 					}
+
+					messagingService
+						.sendMessage(recipient, MessageSubject.CONTACT_SYMPTOMATIC, messageContent, MessageType.EMAIL, MessageType.SMS);
 				}
 			}
 		}
@@ -7672,4 +7672,184 @@ ALTER TABLE events_history ADD COLUMN eventidentificationsource varchar(255);
 
 INSERT INTO schema_version (version_number, comment) VALUES (385, 'Event identification source (#5526)');
 
+-- 2021-07-19 Update case completeness from a queue of changed cases
+CREATE TABLE casecompletenessqueue (
+    id bigserial PRIMARY KEY,
+    caze_id bigint NOT NULL,
+    enqueueddate timestamp NOT NULL
+);
+ALTER TABLE casecompletenessqueue ADD CONSTRAINT fk_casecompletenessqueue_caze_id FOREIGN KEY (caze_id) REFERENCES cases (id) ON DELETE CASCADE;
+CREATE INDEX idx_casecompletenessqueue_caze_id ON casecompletenessqueue (caze_id);
+CREATE INDEX idx_cases_completeness_null ON cases (id) WHERE completeness IS NULL;
+
+INSERT INTO casecompletenessqueue (caze_id, enqueueddate) SELECT id, now() FROM cases WHERE completeness IS NULL;
+
+INSERT INTO schema_version (version_number, comment) VALUES (386, 'Update case completeness from a queue of changed cases');
+
+-- 2021-07-21 Detect duplicate cases with blocking keys instead of a self-join of all cases
+CREATE TABLE caseduplicatekey (
+    id bigserial PRIMARY KEY,
+    caze_id bigint NOT NULL,
+    blockingkey varchar(64),
+    reportweek integer NOT NULL,
+    namesimilaritythreshold float8 NOT NULL
+);
+ALTER TABLE caseduplicatekey ADD CONSTRAINT fk_caseduplicatekey_caze_id FOREIGN KEY (caze_id) REFERENCES cases (id) ON DELETE CASCADE;
+CREATE INDEX idx_caseduplicatekey_caze_id ON caseduplicatekey (caze_id);
+CREATE INDEX idx_caseduplicatekey_blockingkey_reportweek ON caseduplicatekey (blockingkey, reportweek);
+-- the keys of existing cases are created by the indexCaseDuplicateKeys job and when searching for duplicates
+
+INSERT INTO schema_version (version_number, comment) VALUES (387, 'Detect duplicate cases with blocking keys');
+
+-- 2021-07-23 Search persons for duplicate checks in an index with a trigram index on the name
+CREATE TABLE personsearchindex (
+    person_id bigint PRIMARY KEY,
+    name varchar(512),
+    associated boolean NOT NULL DEFAULT false
+);
+ALTER TABLE personsearchindex ADD CONSTRAINT fk_personsearchindex_person_id FOREIGN KEY (person_id) REFERENCES person (id) ON DELETE CASCADE;
+
+INSERT INTO personsearchindex (person_id, name, associated)
+SELECT p.id, lower(p.firstname || ' ' || p.lastname),
+       EXISTS (SELECT 1 FROM cases c WHERE c.person_id = p.id)
+           OR EXISTS (SELECT 1 FROM contact c WHERE c.person_id = p.id)
+           OR EXISTS (SELECT 1 FROM eventparticipant ep WHERE ep.person_id = p.id)
+           OR EXISTS (SELECT 1 FROM immunization i WHERE i.person_id = p.id)
+           OR EXISTS (SELECT 1 FROM travelentry t WHERE t.person_id = p.id)
+FROM person p;
+
+CREATE INDEX idx_personsearchindex_name_trgm ON personsearchindex USING gin (name gin_trgm_ops);
+
+INSERT INTO schema_version (version_number, comment) VALUES (388, 'Search persons for duplicate checks in an index');
+
+-- 2021-07-26 Cache geocoding results
+CREATE TABLE geocodingresult (
+    querykey varchar(1024) PRIMARY KEY,
+    latitude double precision,
+    longitude double precision,
+    changedate timestamp NOT NULL
+);
+
+INSERT INTO schema_version (version_number, comment) VALUES (389, 'Cache geocoding results');
+
+-- 2021-07-28 Aggregate campaign diagrams from a table of typed campaign form data values
+CREATE TABLE campaignformdatavalue (
+    id bigserial PRIMARY KEY,
+    campaignformdata_id bigint NOT NULL,
+    campaign_id bigint,
+    campaignformmeta_id bigint,
+    region_id bigint,
+    district_id bigint,
+    community_id bigint,
+    elementid varchar(255) NOT NULL,
+    textvalue text,
+    numericvalue integer
+);
+ALTER TABLE campaignformdatavalue ADD CONSTRAINT fk_campaignformdatavalue_campaignformdata_id FOREIGN KEY (campaignformdata_id) REFERENCES campaignformdata (id) ON DELETE CASCADE;
+
+-- values out of the integer range are treated like the other invalid numbers
+create or replace function cast_to_int(text, integer) returns integer as $$
+begin
+    return cast($1 as integer);
+exception
+    when invalid_text_representation or numeric_value_out_of_range then
+        return $2;
+end;
+$$ language plpgsql immutable;
+
+INSERT INTO campaignformdatavalue (campaignformdata_id, campaign_id, campaignformmeta_id, region_id, district_id, community_id, elementid, textvalue, numericvalue)
+SELECT d.id, d.campaign_id, d.campaignformmeta_id, d.region_id, d.district_id, d.community_id, v.value->>'id',
+       CASE WHEN e.value->>'type' = 'number' THEN NULL ELSE v.value->>'value' END,
+       CASE WHEN e.value->>'type' = 'number' THEN cast_to_int(v.value->>'value', 0) END
+FROM campaignformdata d
+JOIN campaignformmeta m ON m.id = d.campaignformmeta_id
+CROSS JOIN LATERAL json_array_elements(d.formvalues) v
+CROSS JOIN LATERAL (
+    SELECT DISTINCT ON (me->>'id') me AS value
+    FROM json_array_elements(m.campaignformelements) WITH ORDINALITY AS elements(me, position)
+    ORDER BY me->>'id', position
+) e
+WHERE v.value->>'id' = e.value->>'id' AND v.value->>'value' IS NOT NULL;
+
+CREATE INDEX idx_campaignformdatavalue_campaignformdata_id ON campaignformdatavalue (campaignformdata_id);
+CREATE INDEX idx_campaignformdatavalue_campaign_id_elementid ON campaignformdatavalue (campaign_id, elementid);
+
+INSERT INTO schema_version (version_number, comment) VALUES (390, 'Aggregate campaign diagrams from typed campaign form data values');
+
+-- 2021-07-29 Count cases for the statistics in a rollup cube
+CREATE TABLE casestatisticsentry (
+    caze_id bigint PRIMARY KEY,
+    disease varchar(255),
+    caseclassification varchar(255),
+    outcome varchar(255),
+    sex varchar(255),
+    caseage integer,
+    responsibleregion_id bigint,
+    responsibledistrict_id bigint,
+    responsiblecommunity_id bigint,
+    healthfacility_id bigint,
+    reportdate date,
+    onsetdate date,
+    outcomedate date,
+    casechangedate timestamp NOT NULL
+);
+ALTER TABLE casestatisticsentry ADD CONSTRAINT fk_casestatisticsentry_caze_id FOREIGN KEY (caze_id) REFERENCES cases (id) ON DELETE CASCADE;
+
+CREATE TABLE casestatisticscell (
+    id bigserial PRIMARY KEY,
+    disease varchar(255),
+    caseclassification varchar(255),
+    outcome varchar(255),
+    sex varchar(255),
+    caseage integer,
+    responsibleregion_id bigint,
+    responsibledistrict_id bigint,
+    responsiblecommunity_id bigint,
+    healthfacility_id bigint,
+    reportdate date,
+    onsetdate date,
+    outcomedate date,
+    casecount integer NOT NULL
+);
+
+INSERT INTO casestatisticsentry (caze_id, disease, caseclassification, outcome, sex, caseage, responsibleregion_id, responsibledistrict_id, responsiblecommunity_id, healthfacility_id, reportdate, onsetdate, outcomedate, casechangedate)
+SELECT c.id, c.disease, c.caseclassification, c.outcome, p.sex, c.caseage, c.responsibleregion_id, c.responsibledistrict_id, c.responsiblecommunity_id, c.healthfacility_id,
+       c.reportdate::date, s.onsetdate::date, c.outcomedate::date, GREATEST(c.changedate, p.changedate, s.changedate)
+FROM cases c
+LEFT JOIN person p ON p.id = c.person_id
+LEFT JOIN symptoms s ON s.id = c.symptoms_id
+WHERE c.deleted IS NOT TRUE;
+
+INSERT INTO casestatisticscell (disease, caseclassification, outcome, sex, caseage, responsibleregion_id, responsibledistrict_id, responsiblecommunity_id, healthfacility_id, reportdate, onsetdate, outcomedate, casecount)
+SELECT disease, caseclassification, outcome, sex, caseage, responsibleregion_id, responsibledistrict_id, responsiblecommunity_id, healthfacility_id, reportdate, onsetdate, outcomedate, COUNT(*)
+FROM casestatisticsentry
+GROUP BY disease, caseclassification, outcome, sex, caseage, responsibleregion_id, responsibledistrict_id, responsiblecommunity_id, healthfacility_id, reportdate, onsetdate, outcomedate;
+
+INSERT INTO schema_version (version_number, comment) VALUES (391, 'Count cases for the statistics in a rollup cube');
+
+-- 2021-07-30 Send email and SMS notifications from an outbox
+CREATE TABLE notificationoutbox (
+    id bigserial PRIMARY KEY,
+    messagetype varchar(255) NOT NULL,
+    recipient varchar(512) NOT NULL,
+    recipientuuid varchar(36),
+    subject varchar(512),
+    content text NOT NULL,
+    deduplicationkey varchar(64) NOT NULL,
+    status varchar(255) NOT NULL,
+    attempts integer NOT NULL DEFAULT 0,
+    nextattemptdate timestamp NOT NULL,
+    dispatchtoken varchar(36),
+    creationdate timestamp NOT NULL,
+    sentdate timestamp,
+    lasterror varchar(1024),
+    recipientpersonid bigint,
+    sendinguserid bigint
+);
+CREATE INDEX idx_notificationoutbox_pending ON notificationoutbox (messagetype, nextattemptdate) WHERE status = 'PENDING';
+CREATE INDEX idx_notificationoutbox_deduplicationkey ON notificationoutbox (deduplicationkey, creationdate);
+CREATE INDEX idx_notificationoutbox_dispatchtoken ON notificationoutbox (dispatchtoken);
+
+INSERT INTO schema_version (version_number, comment) VALUES (392, 'Send email and SMS notifications from an outbox');
+
 -- *** Insert new sql commands BEFORE this line ***
@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend;
 
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
@@ -26,9 +27,11 @@ import java.io.File;
 import java.lang.reflect.Field;
 import java.security.Principal;
 import java.util.Properties;
+import java.util.concurrent.Executors;
 
 import javax.ejb.SessionContext;
 import javax.ejb.TimerService;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.Specializes;
@@ -60,6 +63,8 @@ public class MockProducer {
 	private static final UserTransaction userTransaction = mock(UserTransaction.class);
 	private static final SormasToSormasRestClient SORMAS_TO_SORMAS_REST_CLIENT = mock(SormasToSormasRestClient.class);
 	private static final ManagedScheduledExecutorService managedScheduledExecutorService = mock(ManagedScheduledExecutorService.class);
+	private static final ManagedExecutorService managedExecutorService =
+		mock(ManagedExecutorService.class, delegatesTo(Executors.newCachedThreadPool()));
 	private static final String TMP_PATH = "target/tmp";
 
 	// Receiving e-mail server is mocked: org. jvnet. mock_javamail. mailbox
@@ -172,6 +177,11 @@ public class MockProducer {
 		return managedScheduledExecutorService;
 	}
 
+	@Produces
+	public static ManagedExecutorService getManagedExecutorService() {
+		return managedExecutorService;
+	}
+
 	public static void mockProperty(String property, String value) {
 		properties.setProperty(property, value);
 	}
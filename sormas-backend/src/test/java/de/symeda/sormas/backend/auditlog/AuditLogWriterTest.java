@@ -0,0 +1,296 @@
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.symeda.auditlog.api.ChangeEvent;
+import de.symeda.auditlog.api.ChangeType;
+import de.symeda.auditlog.api.EntityId;
+import de.symeda.auditlog.api.TransactionId;
+import de.symeda.auditlog.api.UserId;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditLogWriterTest {
+
+	@Rule
+	public TemporaryFolder spoolFolder = new TemporaryFolder();
+
+	@Mock
+	private AuditLogServiceBean auditLogService;
+	@Mock
+	private ConfigFacadeEjbLocal configFacade;
+
+	@InjectMocks
+	private AuditLogWriter sut;
+
+	private final List<String> savedUuids = new ArrayList<>();
+	private final TestTransactionSynchronizationRegistry transactionSynchronizationRegistry = new TestTransactionSynchronizationRegistry();
+
+	@Before
+	public void setUp() throws ReflectiveOperationException {
+		setField(sut, "transactionSynchronizationRegistry", transactionSynchronizationRegistry);
+	}
+
+	@After
+	public void shutdown() {
+		sut.shutdown();
+	}
+
+	@Test
+	public void testSyncModeIgnoresCommittedChanges() {
+
+		when(configFacade.getAuditLogMode()).thenReturn("sync");
+		sut.init();
+
+		sut.receiveChanges(createEvent("A"));
+
+		assertTrue(sut.isSynchronous());
+		assertEquals(0, sut.getQueueSize());
+		assertEquals(0, sut.flush());
+		verify(auditLogService, never()).saveEntries(any());
+	}
+
+	@Test
+	public void testDurableModeWritesSpooledEntriesInOneBatch() throws IOException {
+
+		initDurable();
+		recordSavedEntries();
+
+		sut.receiveChanges(createEvent("A"));
+		sut.receiveChanges(createEvent("B"));
+		assertEquals(2, sut.getQueueSize());
+		assertEquals(2, countSpooledLines());
+
+		assertEquals(2, sut.flush());
+		verify(auditLogService).saveEntries(any());
+		assertEquals(Arrays.asList("A", "B"), savedUuids);
+		assertEquals(0, countSpooledLines());
+		assertEquals(2, sut.getWrittenEntries());
+	}
+
+	@Test
+	public void testDurableModeWritesSpoolOfCrashedRunAfterRestart() throws IOException, ReflectiveOperationException {
+
+		initDurable();
+		sut.receiveChanges(createEvent("A"));
+		sut.receiveChanges(createEvent("B"));
+
+		// restart without flushing the entries
+		AuditLogWriter crashedWriter = sut;
+		sut = new AuditLogWriter();
+		setField(sut, "auditLogService", auditLogService);
+		setField(sut, "configFacade", configFacade);
+		setField(sut, "transactionSynchronizationRegistry", transactionSynchronizationRegistry);
+		initDurable();
+		recordSavedEntries();
+
+		assertEquals(2, sut.flush());
+		assertEquals(Arrays.asList("A", "B"), savedUuids);
+		assertEquals(0, crashedWriter.getWrittenEntries());
+		assertEquals(0, countSpooledLines());
+	}
+
+	@Test
+	public void testDurableModeRetriesFailedFlushFromSpool() throws IOException {
+
+		initDurable();
+		doThrow(new RuntimeException("Connection refused")).doAnswer(invocation -> {
+			List<AuditLogEntry> entries = invocation.getArgument(0);
+			entries.forEach(e -> savedUuids.add(e.getUuid()));
+			return null;
+		}).when(auditLogService).saveEntries(any());
+
+		sut.receiveChanges(createEvent("A"));
+		assertEquals(0, sut.flush());
+		assertEquals(1, sut.getFailedFlushes());
+		assertEquals(1, countSpooledLines());
+
+		sut.receiveChanges(createEvent("B"));
+		assertEquals(2, sut.flush());
+		assertEquals(Arrays.asList("A", "B"), savedUuids);
+		assertEquals(0, countSpooledLines());
+	}
+
+	@Test
+	public void testDurableModeSpoolsChangesOfTransactionAfterCommit() throws IOException {
+
+		initDurable();
+		recordSavedEntries();
+
+		transactionSynchronizationRegistry.begin();
+		sut.receiveChanges(createEvent("A"));
+		sut.receiveChanges(createEvent("B"));
+		assertEquals(0, sut.getQueueSize());
+		assertEquals(0, countSpooledLines());
+
+		transactionSynchronizationRegistry.complete(Status.STATUS_COMMITTED);
+		assertEquals(2, sut.getQueueSize());
+		assertEquals(2, countSpooledLines());
+
+		assertEquals(2, sut.flush());
+		assertEquals(Arrays.asList("A", "B"), savedUuids);
+	}
+
+	@Test
+	public void testDurableModeIgnoresChangesOfRolledBackTransaction() throws IOException {
+
+		initDurable();
+
+		transactionSynchronizationRegistry.begin();
+		sut.receiveChanges(createEvent("A"));
+		transactionSynchronizationRegistry.complete(Status.STATUS_ROLLEDBACK);
+
+		assertEquals(0, sut.getQueueSize());
+		assertEquals(0, countSpooledLines());
+		assertEquals(0, sut.flush());
+		verify(auditLogService, never()).saveEntries(any());
+	}
+
+	@Test
+	public void testAsyncModeRequeuesEntriesOfFailedFlush() {
+
+		when(configFacade.getAuditLogMode()).thenReturn("async");
+		sut.init();
+		doThrow(new RuntimeException("Connection refused")).when(auditLogService).saveEntries(any());
+
+		sut.receiveChanges(createEvent("A"));
+		assertEquals(0, sut.flush());
+		assertEquals(1, sut.getQueueSize());
+	}
+
+	private void initDurable() {
+		when(configFacade.getAuditLogMode()).thenReturn("async-durable");
+		when(configFacade.getAuditLogSpoolPath()).thenReturn(spoolFolder.getRoot().getPath());
+		sut.init();
+	}
+
+	private void recordSavedEntries() {
+		doAnswer(invocation -> {
+			List<AuditLogEntry> entries = invocation.getArgument(0);
+			entries.forEach(e -> savedUuids.add(e.getUuid()));
+			return null;
+		}).when(auditLogService).saveEntries(any());
+	}
+
+	private long countSpooledLines() throws IOException {
+		long lines = 0;
+		try (Stream<Path> files = Files.list(spoolFolder.getRoot().toPath())) {
+			for (Path file : files.collect(Collectors.toList())) {
+				lines += Files.readAllLines(file).size();
+			}
+		}
+		return lines;
+	}
+
+	private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	private ChangeEvent createEvent(String uuid) {
+		return new ChangeEvent(
+			new EntityId(Case.class, uuid),
+			Collections.singletonMap("caseClassification", "SUSPECT"),
+			ChangeType.UPDATE,
+			LocalDateTime.now(),
+			new UserId("user"),
+			new TransactionId());
+	}
+
+	/**
+	 * Runs the synchronizations of one transaction at a time. Without a transaction, changes are received as committed directly.
+	 */
+	private static class TestTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry {
+
+		private Object transactionKey;
+		private final Map<Object, Object> resources = new HashMap<>();
+		private final List<Synchronization> synchronizations = new ArrayList<>();
+
+		private void begin() {
+			transactionKey = new Object();
+		}
+
+		private void complete(int status) {
+
+			if (status == Status.STATUS_COMMITTED) {
+				synchronizations.forEach(Synchronization::beforeCompletion);
+			}
+			transactionKey = null;
+			synchronizations.forEach(s -> s.afterCompletion(status));
+			synchronizations.clear();
+			resources.clear();
+		}
+
+		@Override
+		public Object getTransactionKey() {
+			return transactionKey;
+		}
+
+		@Override
+		public void putResource(Object key, Object value) {
+			resources.put(key, value);
+		}
+
+		@Override
+		public Object getResource(Object key) {
+			return resources.get(key);
+		}
+
+		@Override
+		public void registerInterposedSynchronization(Synchronization sync) {
+			synchronizations.add(sync);
+		}
+
+		@Override
+		public int getTransactionStatus() {
+			return transactionKey != null ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+		}
+
+		@Override
+		public void setRollbackOnly() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean getRollbackOnly() {
+			return false;
+		}
+	}
+}
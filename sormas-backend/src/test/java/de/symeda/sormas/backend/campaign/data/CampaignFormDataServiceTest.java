@@ -0,0 +1,101 @@
+package de.symeda.sormas.backend.campaign.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.campaign.data.CampaignFormDataEntry;
+import de.symeda.sormas.api.campaign.diagram.CampaignDiagramSeries;
+import de.symeda.sormas.api.campaign.form.CampaignFormElement;
+import de.symeda.sormas.backend.campaign.Campaign;
+import de.symeda.sormas.backend.campaign.form.CampaignFormMeta;
+import de.symeda.sormas.backend.region.Region;
+
+public class CampaignFormDataServiceTest {
+
+	@Test
+	public void testBuildValues() {
+
+		CampaignFormMeta campaignFormMeta = new CampaignFormMeta();
+		campaignFormMeta.setId(2L);
+		campaignFormMeta.setCampaignFormElementsList(
+			Arrays.asList(element("children", "number"), element("vaccinated", "yes-no"), element("remarks", "text"), element("overflow", "number")));
+
+		Campaign campaign = new Campaign();
+		campaign.setId(3L);
+		Region region = new Region();
+		region.setId(4L);
+
+		CampaignFormData campaignFormData = new CampaignFormData();
+		campaignFormData.setId(1L);
+		campaignFormData.setCampaign(campaign);
+		campaignFormData.setCampaignFormMeta(campaignFormMeta);
+		campaignFormData.setRegion(region);
+		campaignFormData.setFormValues(
+			Arrays.asList(
+				new CampaignFormDataEntry("children", " 12 "),
+				new CampaignFormDataEntry("vaccinated", true),
+				new CampaignFormDataEntry("remarks", null),
+				new CampaignFormDataEntry("removed", "value"),
+				new CampaignFormDataEntry("overflow", "99999999999")));
+
+		List<CampaignFormDataValue> values = CampaignFormDataService.buildValues(campaignFormData);
+
+		assertEquals(3, values.size());
+		CampaignFormDataValue children = values.get(0);
+		assertEquals(Long.valueOf(1), children.getCampaignFormDataId());
+		assertEquals(Long.valueOf(3), children.getCampaignId());
+		assertEquals(Long.valueOf(2), children.getCampaignFormMetaId());
+		assertEquals(Long.valueOf(4), children.getRegionId());
+		assertNull(children.getDistrictId());
+		assertEquals("children", children.getElementId());
+		assertNull(children.getTextValue());
+		assertEquals(Integer.valueOf(12), children.getNumericValue());
+
+		CampaignFormDataValue vaccinated = values.get(1);
+		assertEquals("vaccinated", vaccinated.getElementId());
+		assertEquals("true", vaccinated.getTextValue());
+		assertNull(vaccinated.getNumericValue());
+
+		CampaignFormDataValue overflow = values.get(2);
+		assertEquals("overflow", overflow.getElementId());
+		assertEquals(Integer.valueOf(0), overflow.getNumericValue());
+	}
+
+	@Test
+	public void testMeasuresCover() {
+
+		CampaignDiagramMeasures dashboard = CampaignDiagramMeasures
+			.of(Arrays.asList(series("form", null, null), series("form", "vaccinated", "true"), series("form", "children", null)));
+
+		assertTrue(dashboard.covers(CampaignDiagramMeasures.of(Collections.singletonList(series("form", "vaccinated", "true")))));
+		assertFalse(dashboard.covers(CampaignDiagramMeasures.of(Collections.singletonList(series("form", "vaccinated", "false")))));
+		assertFalse(dashboard.covers(CampaignDiagramMeasures.of(Collections.singletonList(series("other", null, null)))));
+		assertTrue(CampaignDiagramMeasures.of(Collections.singletonList(series(null, null, null))).isEmpty());
+	}
+
+	private static CampaignFormElement element(String id, String type) {
+
+		CampaignFormElement element = new CampaignFormElement();
+		element.setId(id);
+		element.setType(type);
+		element.setCaption(id);
+		return element;
+	}
+
+	private static CampaignDiagramSeries series(String formId, String fieldId, String referenceValue) {
+
+		CampaignDiagramSeries series = new CampaignDiagramSeries();
+		series.setFormId(formId);
+		series.setFieldId(fieldId);
+		series.setReferenceValue(referenceValue);
+		return series;
+	}
+}
@@ -17,10 +17,12 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.caze;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isEmptyOrNullString;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
@@ -43,7 +45,9 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.DateUtils;
@@ -74,6 +78,7 @@ import de.symeda.sormas.api.caze.InvestigationStatus;
 import de.symeda.sormas.api.caze.MapCaseDto;
 import de.symeda.sormas.api.caze.surveillancereport.SurveillanceReportDto;
 import de.symeda.sormas.api.clinicalcourse.ClinicalVisitDto;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.contact.FollowUpStatus;
@@ -92,6 +97,7 @@ import de.symeda.sormas.api.externalsurveillancetool.ExternalSurveillanceToolExc
 import de.symeda.sormas.api.facility.FacilityReferenceDto;
 import de.symeda.sormas.api.facility.FacilityType;
 import de.symeda.sormas.api.hospitalization.PreviousHospitalizationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.messaging.MessageType;
 import de.symeda.sormas.api.person.CauseOfDeath;
 import de.symeda.sormas.api.person.PersonContactDetailDto;
@@ -133,9 +139,11 @@ import de.symeda.sormas.api.visit.VisitDto;
 import de.symeda.sormas.api.visit.VisitIndexDto;
 import de.symeda.sormas.api.visit.VisitStatus;
 import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.TestDataCreator.RDCF;
 import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.share.ExternalShareInfo;
@@ -193,6 +201,59 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		Assert.assertEquals(1, casesForDuplicateMergingThreeDaysAgo.size());
 	}
 
+	@Test
+	public void testIndexCaseDuplicateKeysCreatesMissingAndOutdatedKeys() {
+
+		final Date today = new Date();
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto cazePerson = creator.createPerson("Case", "Person", Sex.MALE, 1980, 1, 1);
+		creator.createCase(
+			user.toReference(),
+			cazePerson.toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			today,
+			rdcf);
+		PersonDto cazePerson2 = creator.createPerson("Case", "Person", Sex.MALE, 1980, 1, 1);
+		creator.createCase(
+			user.toReference(),
+			cazePerson2.toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			DateUtils.addMinutes(today, -3),
+			rdcf);
+
+		// cases created before the keys were introduced
+		getEntityManager().getTransaction().begin();
+		getEntityManager().createNativeQuery("DELETE FROM " + CaseDuplicateKey.TABLE_NAME).executeUpdate();
+		getEntityManager().getTransaction().commit();
+
+		// the missing keys are created by the scheduled indexing, not within the request
+		CaseCriteria criteria = new CaseCriteria().creationDateFrom(today).creationDateTo(today);
+		assertThat(getCaseFacade().getCasesForDuplicateMerging(criteria, true), empty());
+		CaseFacadeEjbLocal caseFacade = getBean(CaseFacadeEjbLocal.class);
+		assertEquals(2, caseFacade.indexCaseDuplicateKeys());
+		assertThat(getCaseFacade().getCasesForDuplicateMerging(criteria, true), hasSize(1));
+
+		// keys of another threshold are recreated
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.NAME_SIMILARITY_THRESHOLD, "0.5");
+		try {
+			assertEquals(2, caseFacade.indexCaseDuplicateKeys());
+			assertThat(getCaseFacade().getCasesForDuplicateMerging(criteria, true), hasSize(1));
+			Number outdatedKeys = (Number) getEntityManager()
+				.createNativeQuery("SELECT COUNT(*) FROM " + CaseDuplicateKey.TABLE_NAME + " WHERE namesimilaritythreshold <> 0.5")
+				.getSingleResult();
+			assertEquals(0, outdatedKeys.intValue());
+		} finally {
+			MockProducer.getProperties().remove(ConfigFacadeEjb.NAME_SIMILARITY_THRESHOLD);
+		}
+	}
+
 	@Test
 	public void testGetDuplicateCasesOfSameSexAndDifferentBirthDateIsEmpty() {
 
@@ -764,6 +825,49 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		assertTrue(exportDto.isTraveled());
 	}
 
+	@Test
+	public void testGetExportListWithKeysetPaging() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		Date reportDate = new Date();
+		for (int i = 0; i < 5; i++) {
+			// cases with equal report dates have to be ordered by the uuid tie-breaker
+			creator.createCase(
+				user.toReference(),
+				creator.createPerson("Case", "Person" + i).toReference(),
+				Disease.EVD,
+				CaseClassification.PROBABLE,
+				InvestigationStatus.PENDING,
+				i < 3 ? reportDate : DateHelper.subtractDays(reportDate, i),
+				rdcf);
+		}
+
+		List<CaseExportDto> allCases =
+			getCaseFacade().getExportList(new CaseCriteria(), Collections.emptySet(), CaseExportType.CASE_SURVEILLANCE, null, 100, null, Language.EN);
+		assertThat(allCases, hasSize(5));
+
+		List<String> pagedUuids = new ArrayList<>();
+		CaseExportDto lastRow = null;
+		List<CaseExportDto> page;
+		do {
+			page = getCaseFacade().getExportList(
+				new CaseCriteria(),
+				Collections.emptySet(),
+				CaseExportType.CASE_SURVEILLANCE,
+				lastRow != null ? new ExportCursor(lastRow.getReportDate(), lastRow.getUuid()) : null,
+				2,
+				null,
+				Language.EN);
+			page.forEach(c -> pagedUuids.add(c.getUuid()));
+			lastRow = page.isEmpty() ? null : page.get(page.size() - 1);
+		} while (!page.isEmpty());
+
+		assertEquals(allCases.stream().map(CaseExportDto::getUuid).collect(Collectors.toList()), pagedUuids);
+	}
+
 	@Test
 	public void testCaseDeletion() throws ExternalSurveillanceToolException {
 
@@ -1024,6 +1128,55 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(0, getCaseFacade().getArchivedUuidsSince(testStartDate).size());
 	}
 
+	@Test
+	public void testGetActiveCasesPageAfter() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		Set<String> caseUuids = new HashSet<>();
+		for (int i = 0; i < 5; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			caseUuids.add(
+				creator
+					.createCase(
+						user.toReference(),
+						cazePerson.toReference(),
+						Disease.EVD,
+						CaseClassification.PROBABLE,
+						InvestigationStatus.PENDING,
+						new Date(),
+						rdcf)
+					.getUuid());
+		}
+
+		MockProducer.mockProperty(ConfigFacadeEjb.SYNC_BATCH_SIZE, "2");
+		try {
+			Set<String> pulledUuids = new HashSet<>();
+			List<Boolean> hasMore = new ArrayList<>();
+			String cursor = null;
+			do {
+				SyncPage<CaseDataDto> page = getCaseFacade().getActiveCasesPageAfter(new Date(0), cursor);
+				assertThat(page.getElements().size(), lessThanOrEqualTo(2));
+				page.getElements().forEach(c -> assertTrue(pulledUuids.add(c.getUuid())));
+				cursor = page.getCursor();
+				hasMore.add(page.isHasMore());
+			}
+			while (hasMore.get(hasMore.size() - 1));
+
+			assertEquals(caseUuids, pulledUuids);
+			assertEquals(Arrays.asList(true, true, false), hasMore);
+
+			// nothing left after the last page, the cursor is kept
+			SyncPage<CaseDataDto> emptyPage = getCaseFacade().getActiveCasesPageAfter(new Date(0), cursor);
+			assertThat(emptyPage.getElements(), hasSize(0));
+			assertEquals(cursor, emptyPage.getCursor());
+			assertFalse(emptyPage.isHasMore());
+		} finally {
+			MockProducer.getProperties().remove(ConfigFacadeEjb.SYNC_BATCH_SIZE);
+		}
+	}
+
 	@Test
 	public void testGetAllActiveCasesIncludeExtendedChangeDateFiltersSample() throws InterruptedException {
 
@@ -2028,6 +2181,18 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 			DateUtils.addMinutes(new Date(), -3),
 			rdcf);
 
+		// saved cases are queued
+		int changedCases = getCaseFacade().updateCompleteness();
+
+		Case completenessUpdateResult = getCaseService().getByUuid(caseNoCompleteness.getUuid());
+		MatcherAssert.assertThat(completenessUpdateResult.getCompleteness(), notNullValue());
+		MatcherAssert.assertThat(completenessUpdateResult.getChangeDate(), equalTo(caseNoCompleteness.getChangeDate()));
+		MatcherAssert.assertThat(getCaseService().getByUuid(caseWithCompleteness.getUuid()).getCompleteness(), notNullValue());
+		MatcherAssert.assertThat(changedCases, is(2));
+
+		MatcherAssert.assertThat(getCaseFacade().updateCompleteness(), is(0));
+
+		// cases that are neither queued nor without completeness are not updated
 		SessionImpl em = (SessionImpl) getEntityManager();
 		QueryImplementor query2 = em.createQuery("select c from cases c where c.uuid=:uuid");
 		query2.setParameter("uuid", caseWithCompleteness.getUuid());
@@ -2035,15 +2200,23 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		caseWithCompletenessSingleResult.setCompleteness(0.7f);
 		em.save(caseWithCompletenessSingleResult);
 
-		int changedCases = getCaseFacade().updateCompleteness();
+		MatcherAssert.assertThat(getCaseFacade().updateCompleteness(), is(0));
+		MatcherAssert.assertThat(getCaseService().getByUuid(caseWithCompleteness.getUuid()).getCompleteness(), is(0.7f));
 
-		Case completenessUpdateResult = getCaseService().getByUuid(caseNoCompleteness.getUuid());
-		Case completenessUpdateResult2 = getCaseService().getByUuid(caseWithCompleteness.getUuid());
+		// changing the person queues the cases of the person
+		PersonDto changedPerson = getPersonFacade().getPersonByUuid(cazePerson.getUuid());
+		changedPerson.setSex(Sex.FEMALE);
+		getPersonFacade().savePerson(changedPerson);
 
-		MatcherAssert.assertThat(completenessUpdateResult.getCompleteness(), notNullValue());
-		MatcherAssert.assertThat(completenessUpdateResult.getChangeDate(), equalTo(caseNoCompleteness.getChangeDate()));
-		MatcherAssert.assertThat(completenessUpdateResult2.getCompleteness(), is(0.7f));
-		MatcherAssert.assertThat(changedCases, is(1));
+		MatcherAssert.assertThat(getCaseFacade().updateCompleteness(), is(1));
+
+		// cases without completeness are queued even when they have not been saved through the facade
+		caseWithCompletenessSingleResult = (Case) query2.getSingleResult();
+		caseWithCompletenessSingleResult.setCompleteness(null);
+		em.save(caseWithCompletenessSingleResult);
+
+		MatcherAssert.assertThat(getCaseFacade().updateCompleteness(), is(1));
+		MatcherAssert.assertThat(getCaseService().getByUuid(caseWithCompleteness.getUuid()).getCompleteness(), notNullValue());
 
 		int changedCasesAfterUpdateCompleteness = getCaseFacade().updateCompleteness();
 
@@ -0,0 +1,175 @@
+package de.symeda.sormas.backend.caze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.IntegerRange;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.externalsurveillancetool.ExternalSurveillanceToolException;
+import de.symeda.sormas.api.person.ApproximateAgeType;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCountDto;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
+import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.caze.CaseStatisticsFacadeEjb.CaseStatisticsFacadeEjbLocal;
+
+public class CaseStatisticsCubeTest extends AbstractBeanTest {
+
+	@Test
+	public void testCubeMatchesCaseCounts() throws ExternalSurveillanceToolException {
+
+		RDCF rdcf1 = creator.createRDCF("Region 1", "District 1", "Community 1", "Facility 1");
+		RDCF rdcf2 = creator.createRDCF("Region 2", "District 2", "Community 2", "Facility 2");
+		UserDto user = creator
+			.createUser(rdcf1.region.getUuid(), rdcf1.district.getUuid(), rdcf1.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		Date now = new Date();
+		List<CaseDataDto> cases = new ArrayList<>();
+		List<PersonDto> persons = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			final int index = i;
+			PersonDto person = creator.createPerson("Case", "Person " + i, p -> {
+				p.setSex(index % 3 == 0 ? null : Sex.values()[index % Sex.values().length]);
+				if (index % 4 != 0) {
+					p.setApproximateAge(index * 11);
+					p.setApproximateAgeReferenceDate(now);
+					p.setApproximateAgeType(ApproximateAgeType.YEARS);
+				}
+			});
+			persons.add(person);
+			CaseDataDto caze = creator.createCase(
+				user.toReference(),
+				person.toReference(),
+				i % 2 == 0 ? Disease.EVD : Disease.CHOLERA,
+				i % 3 == 0 ? CaseClassification.CONFIRMED : CaseClassification.SUSPECT,
+				InvestigationStatus.PENDING,
+				DateHelper.subtractDays(now, i * 47),
+				i % 2 == 0 ? rdcf1 : rdcf2);
+			if (i % 3 == 1) {
+				caze.setOutcome(CaseOutcome.RECOVERED);
+				caze.setOutcomeDate(DateHelper.addDays(caze.getReportDate(), 10));
+				caze = getCaseFacade().saveCase(caze);
+			}
+			cases.add(caze);
+		}
+
+		// changes of cases, deleted cases and changes of persons have to be reflected by the cube
+		CaseDataDto changedCase = getCaseFacade().getCaseDataByUuid(cases.get(1).getUuid());
+		changedCase.setCaseClassification(CaseClassification.PROBABLE);
+		changedCase.setDisease(Disease.EVD);
+		getCaseFacade().saveCase(changedCase);
+		getCaseFacade().deleteCase(cases.get(2).getUuid());
+		PersonDto changedPerson = getPersonFacade().getPersonByUuid(persons.get(4).getUuid());
+		changedPerson.setSex(Sex.OTHER);
+		getPersonFacade().savePerson(changedPerson);
+
+		List<StatisticsCaseCriteria> criteriaList = new ArrayList<>();
+		criteriaList.add(new StatisticsCaseCriteria());
+		criteriaList.add(new StatisticsCaseCriteria().diseases(Arrays.asList(Disease.EVD)));
+		criteriaList.add(new StatisticsCaseCriteria().regions(Arrays.asList(new RegionReferenceDto(rdcf2.region.getUuid(), null, null))));
+		criteriaList.add(new StatisticsCaseCriteria().sexUnknown(true).sexes(Arrays.asList(Sex.MALE)));
+		StatisticsCaseCriteria ageCriteria = new StatisticsCaseCriteria();
+		ageCriteria.addAgeIntervals(Arrays.asList(new IntegerRange(10, 40), new IntegerRange(null, null)));
+		criteriaList.add(ageCriteria);
+		criteriaList.add(
+			new StatisticsCaseCriteria().dateRange(
+				DateHelper.getStartOfDay(DateHelper.subtractDays(now, 200)),
+				DateHelper.getEndOfDay(DateHelper.subtractDays(now, 47)),
+				StatisticsCaseAttribute.REPORT_TIME));
+
+		for (StatisticsCaseCriteria criteria : criteriaList) {
+			assertSameCaseCounts(criteria, null, null, null, null);
+			for (StatisticsCaseAttribute grouping : StatisticsCaseAttribute.values()) {
+				if (grouping == StatisticsCaseAttribute.REPORTING_USER_ROLE) {
+					continue;
+				}
+				if (grouping.getSubAttributes().length == 0) {
+					assertSameCaseCounts(criteria, grouping, null, null, null);
+					assertSameCaseCounts(criteria, grouping, null, StatisticsCaseAttribute.DISEASE, null);
+				} else {
+					for (StatisticsCaseSubAttribute subGrouping : grouping.getSubAttributes()) {
+						if (subGrouping.isUsedForGrouping()) {
+							assertSameCaseCounts(criteria, grouping, subGrouping, null, null);
+							assertSameCaseCounts(criteria, StatisticsCaseAttribute.SEX, null, grouping, subGrouping);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCubeApplicability() {
+
+		CaseStatisticsFacadeEjbLocal facade = getBean(CaseStatisticsFacadeEjbLocal.class);
+		Date now = new Date();
+
+		assertTrue(facade.isCaseStatisticsCubeApplicable(new StatisticsCaseCriteria(), StatisticsCaseAttribute.DISEASE, null));
+		assertFalse(
+			facade.isCaseStatisticsCubeApplicable(new StatisticsCaseCriteria(), StatisticsCaseAttribute.REPORTING_USER_ROLE, null));
+		assertFalse(facade.isCaseStatisticsCubeApplicable(new StatisticsCaseCriteria().setPersonCity("City"), null, null));
+		assertTrue(
+			facade.isCaseStatisticsCubeApplicable(
+				new StatisticsCaseCriteria()
+					.dateRange(DateHelper.getStartOfDay(now), DateHelper.getEndOfDay(now), StatisticsCaseAttribute.ONSET_TIME),
+				null,
+				null));
+		// a range up to midnight only contains the cases of the last day that have been reported at midnight
+		assertFalse(
+			facade.isCaseStatisticsCubeApplicable(
+				new StatisticsCaseCriteria().dateRange(
+					DateHelper.getStartOfDay(DateHelper.subtractDays(now, 1)),
+					DateHelper.getStartOfDay(now),
+					StatisticsCaseAttribute.REPORT_TIME),
+				null,
+				null));
+	}
+
+	private void assertSameCaseCounts(
+		StatisticsCaseCriteria criteria,
+		StatisticsCaseAttribute rowGrouping,
+		StatisticsCaseSubAttribute rowSubGrouping,
+		StatisticsCaseAttribute columnGrouping,
+		StatisticsCaseSubAttribute columnSubGrouping) {
+
+		CaseStatisticsFacadeEjbLocal facade = getBean(CaseStatisticsFacadeEjbLocal.class);
+		List<StatisticsCaseCountDto> expected =
+			facade.queryCaseCount(criteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping, false, false, null, false);
+		List<StatisticsCaseCountDto> actual =
+			facade.queryCaseCount(criteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping, false, false, null, true);
+
+		String message = rowGrouping + "/" + rowSubGrouping + " x " + columnGrouping + "/" + columnSubGrouping;
+		assertEquals(message, toCaseCounts(expected), toCaseCounts(actual));
+	}
+
+	private Map<List<Object>, Integer> toCaseCounts(List<StatisticsCaseCountDto> results) {
+
+		Map<List<Object>, Integer> caseCounts = new HashMap<>();
+		for (StatisticsCaseCountDto result : results) {
+			caseCounts.put(Arrays.asList(result.getRowKey(), result.getColumnKey()), result.getCaseCount());
+		}
+		return caseCounts;
+	}
+}
@@ -0,0 +1,96 @@
+package de.symeda.sormas.backend.caze.caseimport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.caseimport.CaseImportEntities;
+import de.symeda.sormas.api.importexport.ImportLineResult;
+import de.symeda.sormas.api.importexport.ImportLineResultDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+public class CaseImportFacadeEjbTest extends AbstractBeanTest {
+
+	private RDCF rdcf;
+	private UserDto user;
+
+	@Before
+	public void createUser() {
+
+		rdcf = creator.createRDCF();
+		user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		loginWith(user);
+	}
+
+	@Test
+	public void testSaveValidatedEntitiesStopsAtSamePersonInBatch() {
+
+		List<CaseImportEntities> entities = Arrays.asList(
+			buildEntities("Peter", "Parker", null),
+			buildEntities("Mary", "Watson", null),
+			buildEntities("Peter", "Parker", null),
+			buildEntities("Harry", "Osborn", null));
+
+		List<ImportLineResultDto<CaseImportEntities>> results = getBean(CaseImportFacadeEjb.class).saveValidatedEntities(entities);
+
+		// the second Peter Parker is returned for the user to decide, the following line is not saved yet
+		assertThat(getResults(results), contains(ImportLineResult.SUCCESS, ImportLineResult.SUCCESS, ImportLineResult.DUPLICATE));
+		assertEquals(entities.get(2), results.get(2).getImportEntities());
+		assertEquals(2, getCaseFacade().getAllActiveUuids().size());
+	}
+
+	@Test
+	public void testSaveValidatedEntitiesIgnoresPersonOfFailedLine() {
+
+		creator.createCase(user.toReference(), creator.createPerson().toReference(), rdcf, c -> c.setEpidNumber("EPID-1"));
+
+		List<CaseImportEntities> entities = Arrays.asList(
+			// not saved because of the existing epid number
+			buildEntities("Peter", "Parker", "EPID-1"),
+			buildEntities("Peter", "Parker", null));
+
+		List<ImportLineResultDto<CaseImportEntities>> results = getBean(CaseImportFacadeEjb.class).saveValidatedEntities(entities);
+
+		assertThat(getResults(results), contains(ImportLineResult.ERROR, ImportLineResult.SUCCESS));
+		assertEquals(2, getCaseFacade().getAllActiveUuids().size());
+	}
+
+	private CaseImportEntities buildEntities(String firstName, String lastName, String epidNumber) {
+
+		PersonDto person = PersonDto.build();
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		person.setSex(Sex.MALE);
+
+		CaseDataDto caze = CaseImportEntities.createCase(person, user.toReference());
+		caze.setDisease(Disease.EVD);
+		caze.setReportDate(new Date());
+		caze.setEpidNumber(epidNumber);
+		caze.setResponsibleRegion(rdcf.region);
+		caze.setResponsibleDistrict(rdcf.district);
+		caze.setResponsibleCommunity(rdcf.community);
+		caze.setFacilityType(getFacilityFacade().getByUuid(rdcf.facility.getUuid()).getType());
+		caze.setHealthFacility(rdcf.facility);
+
+		return new CaseImportEntities(person, caze);
+	}
+
+	private static List<ImportLineResult> getResults(List<ImportLineResultDto<CaseImportEntities>> results) {
+		return results.stream().map(ImportLineResultDto::getResult).collect(Collectors.toList());
+	}
+}
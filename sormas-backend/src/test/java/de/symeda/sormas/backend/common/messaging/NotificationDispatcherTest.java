@@ -0,0 +1,125 @@
+package de.symeda.sormas.backend.common.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.mail.MessagingException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NotificationDispatcherTest {
+
+	@Mock
+	private NotificationOutboxService outboxService;
+	@Mock
+	private EmailService emailService;
+	@Mock
+	private SmsService smsService;
+	@Mock
+	private ConfigFacadeEjbLocal configFacade;
+
+	@InjectMocks
+	private NotificationDispatcher sut;
+
+	@Test
+	public void testDispatchSendsDuplicatesOnce() throws MessagingException {
+
+		NotificationOutboxEntry first = createEntry(1L, MessageType.EMAIL, "a@example.com", "Content");
+		NotificationOutboxEntry duplicate = createEntry(2L, MessageType.EMAIL, "a@example.com", "Content");
+		NotificationOutboxEntry other = createEntry(3L, MessageType.EMAIL, "b@example.com", "Content");
+		when(outboxService.claimDueEntries(eq(MessageType.EMAIL), anyInt())).thenReturn(Arrays.asList(first, duplicate, other));
+		when(outboxService.claimDueEntries(eq(MessageType.SMS), anyInt())).thenReturn(Collections.emptyList());
+
+		// fake mail server
+		List<String> sentEmails = new ArrayList<>();
+		when(emailService.sendEmails(any())).thenAnswer(invocation -> {
+			List<NotificationOutboxEntry> entries = invocation.getArgument(0);
+			entries.forEach(e -> sentEmails.add(e.getRecipient()));
+			return Collections.emptyMap();
+		});
+
+		assertEquals(2, sut.dispatch());
+		assertEquals(Arrays.asList("a@example.com", "b@example.com"), sentEmails);
+		verify(outboxService).markSent(Arrays.asList(1L, 2L, 3L));
+		verify(outboxService, never()).markFailed(anyCollection(), anyString(), anyBoolean());
+		assertEquals(2, sut.getSentEmails());
+		assertEquals(1, sut.getDeduplicatedMessages());
+	}
+
+	@Test
+	public void testDispatchRetriesWhenMailServerIsNotReachable() throws MessagingException {
+
+		NotificationOutboxEntry email = createEntry(1L, MessageType.EMAIL, "a@example.com", "Content");
+		NotificationOutboxEntry sms = createEntry(2L, MessageType.SMS, "+49123456789", "Content");
+		when(outboxService.claimDueEntries(eq(MessageType.EMAIL), anyInt())).thenReturn(Collections.singletonList(email));
+		when(outboxService.claimDueEntries(eq(MessageType.SMS), anyInt())).thenReturn(Collections.singletonList(sms));
+		when(emailService.sendEmails(any())).thenThrow(new MessagingException("Connection refused"));
+		when(configFacade.isSmsServiceSetUp()).thenReturn(true);
+		when(smsService.sendSms(any())).thenReturn(Collections.emptyMap());
+
+		// the SMS are dispatched even though the emails can't be sent
+		assertEquals(1, sut.dispatch());
+		verify(outboxService).markFailed(Collections.singletonList(1L), "Connection refused", false);
+		verify(outboxService).markSent(Collections.singletonList(2L));
+		assertEquals(1, sut.getFailedAttempts());
+		assertEquals(1, sut.getSentSms());
+	}
+
+	@Test
+	public void testDispatchGivesUpInvalidPhoneNumbers() {
+
+		NotificationOutboxEntry invalid = createEntry(1L, MessageType.SMS, "123", "Content");
+		NotificationOutboxEntry valid = createEntry(2L, MessageType.SMS, "+49123456789", "Content");
+		when(outboxService.claimDueEntries(eq(MessageType.EMAIL), anyInt())).thenReturn(Collections.emptyList());
+		when(outboxService.claimDueEntries(eq(MessageType.SMS), anyInt())).thenReturn(Arrays.asList(invalid, valid));
+		when(configFacade.isSmsServiceSetUp()).thenReturn(true);
+		// fake SMS gateway
+		when(smsService.sendSms(any()))
+			.thenReturn(Collections.singletonMap(invalid, new InvalidPhoneNumberException("Cannot send an SMS to the specified phone number", null)));
+		when(outboxService.markFailed(Collections.singletonList(1L), "Cannot send an SMS to the specified phone number", true)).thenReturn(1);
+
+		assertEquals(1, sut.dispatch());
+		verify(outboxService).markSent(Collections.singletonList(2L));
+		assertEquals(1, sut.getGivenUpMessages());
+	}
+
+	@Test
+	public void testRetryDelay() {
+
+		assertEquals(NotificationOutboxService.RETRY_BASE_MINUTES, NotificationOutboxService.getRetryDelayMinutes(1));
+		assertEquals(4 * NotificationOutboxService.RETRY_BASE_MINUTES, NotificationOutboxService.getRetryDelayMinutes(3));
+		assertEquals(NotificationOutboxService.MAX_RETRY_MINUTES, NotificationOutboxService.getRetryDelayMinutes(100));
+	}
+
+	private static NotificationOutboxEntry createEntry(Long id, MessageType messageType, String recipient, String content) {
+
+		NotificationOutboxEntry entry = new NotificationOutboxEntry();
+		entry.setId(id);
+		entry.setMessageType(messageType);
+		entry.setRecipient(recipient);
+		entry.setContent(content);
+		entry.setDeduplicationKey(NotificationOutboxService.buildDeduplicationKey(messageType, recipient, null, content));
+		return entry;
+	}
+}
@@ -0,0 +1,49 @@
+package de.symeda.sormas.backend.common.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator;
+
+public class NotificationOutboxServiceTest extends AbstractBeanTest {
+
+	@Test
+	public void testManualMessageIsLoggedWhenSent() {
+
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto person = creator.createPerson("James", "Smith", p -> p.setEmailAddress("test@email.com"));
+		CaseDataDto caze = creator.createCase(user.toReference(), person.toReference(), rdcf);
+
+		NotificationOutboxService outboxService = getBean(NotificationOutboxService.class);
+		ManualMessageLogService manualMessageLogService = getBean(ManualMessageLogService.class);
+
+		getCaseFacade().sendMessage(Collections.singletonList(caze.getUuid()), "Subject", "Content", MessageType.EMAIL, MessageType.SMS);
+		// the same message is not queued again
+		getCaseFacade().sendMessage(Collections.singletonList(caze.getUuid()), "Subject", "Content", MessageType.EMAIL);
+
+		// queued messages are not logged yet, and the SMS is not logged because the person has no phone number
+		assertTrue(manualMessageLogService.getByPersonUuid(person.getUuid(), MessageType.EMAIL).isEmpty());
+
+		List<NotificationOutboxEntry> entries = outboxService.claimDueEntries(MessageType.EMAIL, 10);
+		assertEquals(1, entries.size());
+		outboxService.markSent(entries.stream().map(NotificationOutboxEntry::getId).collect(Collectors.toList()));
+
+		List<ManualMessageLog> manualMessageLogs = manualMessageLogService.getByPersonUuid(person.getUuid(), MessageType.EMAIL);
+		assertEquals(1, manualMessageLogs.size());
+		assertEquals(person.getUuid(), manualMessageLogs.get(0).getRecipientPerson().getUuid());
+		assertTrue(manualMessageLogService.getByPersonUuid(person.getUuid(), MessageType.SMS).isEmpty());
+	}
+}
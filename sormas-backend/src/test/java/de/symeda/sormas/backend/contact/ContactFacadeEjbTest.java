@@ -35,6 +35,7 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -91,7 +92,9 @@ import de.symeda.sormas.api.sample.SampleMaterial;
 import de.symeda.sormas.api.symptoms.SymptomState;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
 import de.symeda.sormas.api.task.TaskContext;
+import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskDto;
+import de.symeda.sormas.api.task.TaskPriority;
 import de.symeda.sormas.api.task.TaskStatus;
 import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserDto;
@@ -112,10 +115,14 @@ import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.TestDataCreator;
 import de.symeda.sormas.backend.TestDataCreator.RDCF;
 import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
+import de.symeda.sormas.backend.common.TaskCreationException;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.task.Task;
+import de.symeda.sormas.backend.task.TaskService;
+import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.DateHelper8;
 import de.symeda.sormas.backend.visit.Visit;
 
@@ -332,6 +339,197 @@ public class ContactFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(1, tasks.size());
 	}
 
+	@Test
+	public void testGenerateContactFollowUpTasksEqualsPerContactGeneration() {
+
+		RDCF rdcf1 = creator.createRDCF("Region 1", "District 1", "Community 1", "Facility 1");
+		RDCF rdcf2 = creator.createRDCF("Region 2", "District 2", "Community 2", "Facility 2");
+		RDCF rdcf3 = creator.createRDCF("Region 3", "District 3", "Community 3", "Facility 3");
+		UserDto user = creator
+			.createUser(rdcf1.region.getUuid(), rdcf1.district.getUuid(), rdcf1.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		// one user per jurisdiction, so the randomly picked assignees are the same for both implementations
+		UserDto contactOfficer =
+			creator.createUser(rdcf1.region.getUuid(), rdcf1.district.getUuid(), rdcf1.facility.getUuid(), "Cont", "Off", UserRole.CONTACT_OFFICER);
+		UserDto contactSupervisor =
+			creator.createUser(rdcf2.region.getUuid(), null, rdcf2.facility.getUuid(), "Cont", "Sup", UserRole.CONTACT_SUPERVISOR);
+		CaseDataDto caze1 = creator.createCase(user.toReference(), creator.createPerson().toReference(), rdcf1);
+		CaseDataDto caze2 = creator.createCase(user.toReference(), creator.createPerson().toReference(), rdcf2);
+
+		Date today = new Date();
+		Date yesterday = DateHelper.subtractDays(today, 1);
+		for (int i = 0; i < 32; i++) {
+			PersonReferenceDto person = creator.createPerson("Contact", "Person " + i).toReference();
+			ContactDto contact;
+			switch (i % 8) {
+			case 0:
+				// assigned to the contact officer of the contact
+				contact = creator.createContact(user.toReference(), contactOfficer.toReference(), person, null, today, today, null, rdcf3);
+				break;
+			case 1:
+				// assigned to a contact officer of the district
+				contact = creator.createContact(user.toReference(), null, person, null, today, today, null, rdcf1);
+				break;
+			case 2:
+				// assigned to a contact supervisor of the region of the case
+				contact = creator.createContact(user.toReference(), null, person, caze2, today, today, null);
+				break;
+			case 3:
+				// no assignee
+				contact = creator.createContact(user.toReference(), null, person, null, today, today, null, rdcf3);
+				break;
+			case 4:
+				contact = creator.createContact(user.toReference(), null, person, caze1, today, today, null, null, c -> c.setHighPriority(true));
+				break;
+			case 5:
+				// the assignee still has a pending task
+				contact = creator.createContact(user.toReference(), null, person, null, today, today, null, rdcf1);
+				creator.createTask(
+					TaskContext.CONTACT,
+					TaskType.CONTACT_FOLLOW_UP,
+					TaskStatus.PENDING,
+					null,
+					contact.toReference(),
+					null,
+					yesterday,
+					contactOfficer.toReference());
+				break;
+			case 6:
+				// only another user has a pending task
+				contact = creator.createContact(user.toReference(), null, person, null, today, today, null, rdcf1);
+				creator.createTask(
+					TaskContext.CONTACT,
+					TaskType.CONTACT_FOLLOW_UP,
+					TaskStatus.PENDING,
+					null,
+					contact.toReference(),
+					null,
+					yesterday,
+					user.toReference());
+				creator.createTask(
+					TaskContext.CONTACT,
+					TaskType.CONTACT_FOLLOW_UP,
+					TaskStatus.DONE,
+					null,
+					contact.toReference(),
+					null,
+					yesterday,
+					contactOfficer.toReference());
+				break;
+			default:
+				// there already is a task for the day
+				contact = creator.createContact(user.toReference(), null, person, caze2, today, today, null);
+				creator.createTask(
+					TaskContext.CONTACT,
+					TaskType.CONTACT_FOLLOW_UP,
+					TaskStatus.DONE,
+					null,
+					contact.toReference(),
+					null,
+					today,
+					user.toReference());
+				break;
+			}
+			assertNotNull(contact);
+		}
+		// follow-up is already completed
+		creator.createContact(
+			user.toReference(),
+			contactOfficer.toReference(),
+			creator.createPerson().toReference(),
+			null,
+			DateHelper.subtractDays(today, 60),
+			DateHelper.subtractDays(today, 60),
+			null,
+			rdcf1);
+
+		List<String> existingTaskUuids = getTaskService().getAll().stream().map(Task::getUuid).collect(Collectors.toList());
+
+		generateContactFollowUpTasksPerContact();
+		List<Task> perContactTasks = getTaskService().getAll()
+			.stream()
+			.filter(t -> !existingTaskUuids.contains(t.getUuid()))
+			.collect(Collectors.toList());
+		List<String> expectedTasks = perContactTasks.stream().map(this::describeFollowUpTask).sorted().collect(Collectors.toList());
+		perContactTasks.forEach(t -> getTaskService().delete(t));
+
+		getContactFacade().generateContactFollowUpTasks();
+		List<String> tasks = getTaskService().getAll()
+			.stream()
+			.filter(t -> !existingTaskUuids.contains(t.getUuid()))
+			.map(this::describeFollowUpTask)
+			.sorted()
+			.collect(Collectors.toList());
+
+		assertThat(expectedTasks, hasSize(20));
+		assertEquals(expectedTasks, tasks);
+	}
+
+	/**
+	 * The former implementation of {@link ContactFacadeEjb#generateContactFollowUpTasks()}, which resolves the assignee and
+	 * queries the existing tasks for every contact.
+	 */
+	private void generateContactFollowUpTasksPerContact() {
+
+		TaskService taskService = getTaskService();
+		LocalDateTime fromDateTime = LocalDate.now().atStartOfDay();
+		LocalDateTime toDateTime = fromDateTime.plusDays(1);
+		List<Contact> contacts = getContactService().getFollowUpBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
+
+		for (Contact contact : contacts) {
+			if (!(contact.getFollowUpStatus().equals(FollowUpStatus.FOLLOW_UP) || contact.getFollowUpStatus().equals(FollowUpStatus.LOST))) {
+				continue;
+			}
+
+			User assignee;
+			try {
+				assignee = taskService.getTaskAssignee(contact);
+			} catch (TaskCreationException e) {
+				continue;
+			}
+
+			TaskCriteria pendingUserTaskCriteria = new TaskCriteria().contact(contact.toReference())
+				.taskType(TaskType.CONTACT_FOLLOW_UP)
+				.assigneeUser(assignee.toReference())
+				.taskStatus(TaskStatus.PENDING);
+			if (!taskService.findBy(pendingUserTaskCriteria, true).isEmpty()) {
+				continue;
+			}
+
+			TaskCriteria dayTaskCriteria = new TaskCriteria().contact(contact.toReference())
+				.taskType(TaskType.CONTACT_FOLLOW_UP)
+				.dueDateBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
+			if (!taskService.findBy(dayTaskCriteria, true).isEmpty()) {
+				continue;
+			}
+
+			Task task = taskService.buildTask(null);
+			task.setTaskContext(TaskContext.CONTACT);
+			task.setContact(contact);
+			task.setTaskType(TaskType.CONTACT_FOLLOW_UP);
+			task.setSuggestedStart(DateHelper8.toDate(fromDateTime));
+			task.setDueDate(DateHelper8.toDate(toDateTime.minusMinutes(1)));
+			task.setAssigneeUser(assignee);
+			if (contact.isHighPriority()) {
+				task.setPriority(TaskPriority.HIGH);
+			}
+			taskService.ensurePersisted(task);
+		}
+	}
+
+	private String describeFollowUpTask(Task task) {
+
+		return StringUtils.joinWith(
+			"|",
+			task.getContact().getUuid(),
+			task.getAssigneeUser().getUuid(),
+			task.getTaskContext(),
+			task.getTaskType(),
+			task.getTaskStatus(),
+			task.getPriority(),
+			task.getSuggestedStart().getTime(),
+			task.getDueDate().getTime());
+	}
+
 	@Test
 	public void testMapContactListCreation() {
 
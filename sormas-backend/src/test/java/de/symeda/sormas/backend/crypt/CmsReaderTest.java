@@ -3,6 +3,7 @@ package de.symeda.sormas.backend.crypt;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -93,4 +94,26 @@ public class CmsReaderTest {
 
 	}
 
+	@Test
+	public void testDecryptAndVerifyStreamed() throws Exception {
+
+		final String helloWorld = "Hello World!";
+
+		ByteArrayOutputStream signedAndEncrypted = new ByteArrayOutputStream();
+		CmsCreator.signAndEncrypt(
+			out -> out.write(helloWorld.getBytes(StandardCharsets.UTF_8)),
+			(X509Certificate) aliceKs.getCertificate(ALICE_ALIAS),
+			(PrivateKey) aliceKs.getKey(ALICE_ALIAS, PASSWORD.toCharArray()),
+			(X509Certificate) bobKs.getCertificate(BOB_ALIAS),
+			signedAndEncrypted);
+
+		byte[] plain = CmsReader.decryptAndVerify(
+			signedAndEncrypted.toByteArray(),
+			Arrays.asList((X509Certificate) aliceKs.getCertificate(ALICE_ALIAS)),
+			(X509Certificate) bobKs.getCertificate(BOB_ALIAS),
+			(PrivateKey) bobKs.getKey(BOB_ALIAS, PASSWORD.toCharArray()));
+
+		assertEquals(new String(plain, StandardCharsets.UTF_8), helloWorld);
+	}
+
 }
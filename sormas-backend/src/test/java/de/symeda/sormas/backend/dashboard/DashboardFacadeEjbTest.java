@@ -13,6 +13,7 @@ import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.InvestigationStatus;
 import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
+import de.symeda.sormas.api.dashboard.DashboardCaseStatisticsDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
@@ -20,8 +21,12 @@ import de.symeda.sormas.api.event.EventDto;
 import de.symeda.sormas.api.event.EventInvestigationStatus;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.event.TypeOfPlace;
+import de.symeda.sormas.api.person.CauseOfDeath;
 import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.PresentCondition;
+import de.symeda.sormas.api.facility.FacilityReferenceDto;
 import de.symeda.sormas.api.region.CommunityDto;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
 import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DateHelper;
@@ -171,4 +176,123 @@ public class DashboardFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(new Long(1), evdBurden.getPreviousCaseCount());
 		assertEquals(rdcf.district.getCaption(), evdBurden.getLastReportedDistrictName());
 	}
+
+	@Test
+	public void testGetCaseStatisticsForDashboard() {
+
+		Date referenceDate = new Date();
+
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		FacilityReferenceDto lab = creator.createFacility("Lab", rdcf.region, rdcf.district, rdcf.community).toReference();
+
+		PersonDto fatalPerson = creator.createPerson("Fatal", "Person", p -> {
+			p.setPresentCondition(PresentCondition.DEAD);
+			p.setDeathDate(referenceDate);
+			p.setCauseOfDeath(CauseOfDeath.EPIDEMIC_DISEASE);
+			p.setCauseOfDeathDisease(Disease.EVD);
+		});
+		CaseDataDto fatalCase = creator.createCase(
+			user.toReference(),
+			fatalPerson.toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			referenceDate,
+			rdcf);
+		creator.createSample(
+			fatalCase.toReference(),
+			user.toReference(),
+			lab,
+			s -> {
+				s.setSampleDateTime(DateHelper.subtractDays(referenceDate, 1));
+				s.setPathogenTestResult(PathogenTestResultType.POSITIVE);
+			});
+		creator.createSample(fatalCase.toReference(), user.toReference(), lab, s -> s.setPathogenTestResult(PathogenTestResultType.NEGATIVE));
+
+		CaseDataDto placedInQuarantineCase = creator.createCase(
+			user.toReference(),
+			creator.createPerson("Quarantine", "Person").toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			referenceDate,
+			rdcf,
+			c -> {
+				c.setQuarantineFrom(referenceDate);
+				c.setQuarantineTo(DateHelper.addDays(referenceDate, 14));
+			});
+		creator.createSample(
+			placedInQuarantineCase.toReference(),
+			user.toReference(),
+			lab,
+			s -> s.setPathogenTestResult(PathogenTestResultType.POSITIVE));
+
+		creator.createCase(
+			user.toReference(),
+			creator.createPerson("Quarantine", "Person2").toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			referenceDate,
+			rdcf,
+			c -> {
+				c.setQuarantineFrom(DateHelper.subtractDays(referenceDate, 20));
+				c.setQuarantineTo(DateHelper.addDays(referenceDate, 5));
+			});
+
+		creator.createCase(
+			user.toReference(),
+			creator.createPerson("No", "Case").toReference(),
+			Disease.EVD,
+			CaseClassification.NO_CASE,
+			InvestigationStatus.PENDING,
+			referenceDate,
+			rdcf);
+
+		PersonDto previousFatalPerson = creator.createPerson("Previous", "Person", p -> {
+			p.setPresentCondition(PresentCondition.DEAD);
+			p.setDeathDate(DateHelper.subtractDays(referenceDate, 10));
+			p.setCauseOfDeath(CauseOfDeath.EPIDEMIC_DISEASE);
+			p.setCauseOfDeathDisease(Disease.EVD);
+		});
+		creator.createCase(
+			user.toReference(),
+			previousFatalPerson.toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			DateHelper.subtractDays(referenceDate, 10),
+			rdcf);
+
+		DashboardCriteria dashboardCriteria = new DashboardCriteria().region(rdcf.region)
+			.district(rdcf.district)
+			.disease(Disease.EVD)
+			.newCaseDateType(NewCaseDateType.MOST_RELEVANT)
+			.dateBetween(DateHelper.getStartOfDay(DateHelper.subtractDays(referenceDate, 1)), DateHelper.getEndOfDay(referenceDate));
+		Date previousDateFrom = DateHelper.getStartOfDay(DateHelper.subtractDays(referenceDate, 15));
+		Date previousDateTo = DateHelper.getEndOfDay(DateHelper.subtractDays(referenceDate, 5));
+
+		DashboardCaseStatisticsDto caseStatistics = getDashboardFacade().getCaseStatistics(dashboardCriteria, previousDateFrom, previousDateTo);
+
+		assertEquals(3, caseStatistics.getCaseCount());
+		assertEquals(1, caseStatistics.getFatalCaseCount());
+		assertEquals(1, caseStatistics.getPreviousFatalCaseCount());
+		assertEquals(2, caseStatistics.getCasesInQuarantineCount());
+		assertEquals(1, caseStatistics.getCasesPlacedInQuarantineCount());
+		assertEquals(rdcf.district.getCaption(), caseStatistics.getLastReportedDistrictName());
+		assertEquals(Integer.valueOf(3), caseStatistics.getCaseCountByClassification().get(CaseClassification.PROBABLE));
+		assertEquals(Integer.valueOf(1), caseStatistics.getCaseCountByClassification().get(CaseClassification.NO_CASE));
+		// only the latest sample of a case is counted
+		assertEquals(2, caseStatistics.getTestResultCountByResultType().size());
+		assertEquals(Long.valueOf(1), caseStatistics.getTestResultCountByResultType().get(PathogenTestResultType.NEGATIVE));
+		assertEquals(Long.valueOf(1), caseStatistics.getTestResultCountByResultType().get(PathogenTestResultType.POSITIVE));
+
+		// the statistics are cached for a short time
+		creator.createCase(user.toReference(), creator.createPerson().toReference(), rdcf);
+		assertEquals(3, getDashboardFacade().getCaseStatistics(dashboardCriteria, previousDateFrom, previousDateTo).getCaseCount());
+		getBean(DashboardCache.class).invalidateAll();
+		assertEquals(4, getDashboardFacade().getCaseStatistics(dashboardCriteria, previousDateFrom, previousDateTo).getCaseCount());
+	}
 }
@@ -23,6 +23,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -30,6 +32,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
@@ -64,6 +68,7 @@ import de.symeda.sormas.api.sample.SamplePurpose;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
 import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.TestDataCreator;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb;
@@ -242,6 +247,27 @@ public class QuarantineOrderFacadeEjbTest extends AbstractDocGenerationTest {
 		verifyGeneratedDocument(rootEntityReference, workflow, "QuarantineEvent.cmp", documentContents.get(rootEntityReference));
 	}
 
+	@Test
+	public void testBulkDocumentCreationAsZip() throws DocumentTemplateException, IOException {
+		ReferenceDto rootEntityReference = caseDataDto.toReference();
+
+		Properties properties = new Properties();
+		properties.setProperty("extraremark1", "the first remark");
+		properties.setProperty("extra.remark.no3", "the third remark");
+
+		DocumentWorkflow workflow = DocumentWorkflow.QUARANTINE_ORDER_CASE;
+		String zipPath =
+			quarantineOrderFacadeEjb.generateDocumentsZip("Quarantine.docx", workflow, Collections.singletonList(rootEntityReference), properties);
+
+		try (ZipFile zipFile = new ZipFile(zipPath)) {
+			assertEquals(1, zipFile.size());
+			ZipEntry entry = zipFile.getEntry(DataHelper.getShortUuid(rootEntityReference) + "-Quarantine.docx");
+			verifyGeneratedDocument(rootEntityReference, workflow, "QuarantineCase.cmp", IOUtils.toByteArray(zipFile.getInputStream(entry)));
+		} finally {
+			Files.deleteIfExists(Paths.get(zipPath));
+		}
+	}
+
 	private void generateQuarantineOrderTest(
 		ReferenceDto rootEntityReference,
 		DocumentWorkflow documentWorkflow,
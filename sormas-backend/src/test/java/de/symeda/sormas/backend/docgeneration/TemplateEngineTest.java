@@ -28,11 +28,14 @@ import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
@@ -69,6 +72,23 @@ public class TemplateEngineTest {
 		genericTestCases(getTestCaseRunnerTxt());
 	}
 
+	@Test
+	public void compiledTemplateReloadedOnChangeTest() throws IOException, DocumentTemplateException {
+		File templateFile = File.createTempFile("template", ".txt");
+		templateFile.deleteOnExit();
+		Properties properties = new Properties();
+		properties.setProperty("name", "Jane");
+
+		FileUtils.writeStringToFile(templateFile, "Hello $name", StandardCharsets.UTF_8);
+		assertEquals("Hello Jane", templateEngine.generateDocumentTxt(properties, templateFile));
+		assertEquals(Collections.singleton("name"), templateEngine.extractTemplateVariablesTxt(templateFile).getVariables());
+
+		FileUtils.writeStringToFile(templateFile, "Goodbye $name and $other", StandardCharsets.UTF_8);
+		assertTrue(templateFile.setLastModified(templateFile.lastModified() - 10000));
+		assertEquals("Goodbye Jane and $other", templateEngine.generateDocumentTxt(properties, templateFile));
+		assertEquals(2, templateEngine.extractTemplateVariablesTxt(templateFile).getVariables().size());
+	}
+
 	private void genericTestCases(TestCaseRunner testCaseRunner)
 		throws IOException, XDocReportException, ParseException, ClassNotFoundException, URISyntaxException, DocumentTemplateException {
 		File testCasesDir = new File(getClass().getResource(testCaseRunner.getTestCasesDirPath()).toURI());
@@ -190,7 +210,7 @@ public class TemplateEngineTest {
 			}
 
 			@Override
-			public String getGeneratedText(File testCase, Properties properties) {
+			public String getGeneratedText(File testCase, Properties properties) throws DocumentTemplateException {
 				return templateEngine.generateDocumentTxt(properties, testCase);
 			}
 		};
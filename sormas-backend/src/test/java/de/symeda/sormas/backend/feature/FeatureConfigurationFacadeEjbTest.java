@@ -1,6 +1,8 @@
 package de.symeda.sormas.backend.feature;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
@@ -35,4 +37,21 @@ public class FeatureConfigurationFacadeEjbTest extends AbstractBeanTest {
 		List<TaskDto> caseTasks = getTaskFacade().getAllPendingByCase(caze.toReference());
 		assertEquals(0, caseTasks.size());
 	}
+
+	@Test
+	public void testIsFeatureDisabledIsCachedAndInvalidated() {
+
+		FeatureConfigurationCache cache = getBean(FeatureConfigurationCache.class);
+
+		assertTrue(getFeatureConfigurationFacade().isFeatureEnabled(FeatureType.TASK_GENERATION_CASE_SURVEILLANCE));
+		long hits = cache.getHits();
+		assertTrue(getFeatureConfigurationFacade().isFeatureEnabled(FeatureType.TASK_GENERATION_CASE_SURVEILLANCE));
+		assertEquals(hits + 1, cache.getHits());
+
+		FeatureConfigurationIndexDto featureConfiguration =
+			new FeatureConfigurationIndexDto(DataHelper.createUuid(), null, null, null, null, null, false, null);
+		getFeatureConfigurationFacade().saveFeatureConfiguration(featureConfiguration, FeatureType.TASK_GENERATION_CASE_SURVEILLANCE);
+
+		assertFalse(getFeatureConfigurationFacade().isFeatureEnabled(FeatureType.TASK_GENERATION_CASE_SURVEILLANCE));
+	}
 }
@@ -0,0 +1,118 @@
+package de.symeda.sormas.backend.geocoding;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
+
+public class GeocodingServiceTest extends AbstractBeanTest {
+
+	private static final int WIREMOCK_TESTING_PORT = 7778;
+
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule(options().port(WIREMOCK_TESTING_PORT), false);
+
+	@Before
+	public void setup() {
+		MockProducer.getProperties()
+			.setProperty(
+				"geocodingServiceUrlTemplate",
+				String.format("http://localhost:%s/geocode?street=${street}&city=${city}", WIREMOCK_TESTING_PORT));
+		MockProducer.getProperties().setProperty("geocodingLongitudeJsonPath", "$.features[0].geometry.coordinates[0]");
+		MockProducer.getProperties().setProperty("geocodingLatitudeJsonPath", "$.features[0].geometry.coordinates[1]");
+	}
+
+	@After
+	public void teardown() {
+		MockProducer.getProperties().remove("geocodingServiceUrlTemplate");
+		MockProducer.getProperties().remove("geocodingLongitudeJsonPath");
+		MockProducer.getProperties().remove("geocodingLatitudeJsonPath");
+	}
+
+	@Test
+	public void testGetLatLonIsCached() {
+
+		stubAddress("Main Street", 13.4, 52.5);
+
+		GeoLatLon latLon = getGeocodingService().getLatLon(new LocationQuery("1", "Main Street", null, "Berlin"));
+		assertThat(latLon.getLat(), is(52.5));
+		assertThat(latLon.getLon(), is(13.4));
+
+		// queries only differing in case and whitespace are answered from the cache
+		latLon = getGeocodingService().getLatLon(new LocationQuery("1", " main  street", null, "BERLIN "));
+		assertThat(latLon.getLat(), is(52.5));
+		verify(1, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	@Test
+	public void testGetLatLons() {
+
+		stubAddress("First Street", 1.0, 2.0);
+		stubAddress("Second Street", 3.0, 4.0);
+		stubFor(
+			get(urlPathEqualTo("/geocode")).withQueryParam("street", equalTo("Unknown Street"))
+				.willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody("{\"features\":[]}")));
+
+		LocationQuery first = new LocationQuery(null, "First Street", "12345", "Berlin");
+		LocationQuery second = new LocationQuery(null, "Second Street", "12345", "Berlin");
+		LocationQuery unknown = new LocationQuery(null, "Unknown Street", "12345", "Berlin");
+		LocationQuery firstAgain = new LocationQuery(null, "first street", "12345", "berlin");
+
+		Map<LocationQuery, GeoLatLon> latLons = getGeocodingService().getLatLons(Arrays.asList(first, second, unknown, firstAgain));
+		assertThat(latLons.size(), is(2));
+		assertThat(latLons.get(first).getLat(), is(2.0));
+		assertThat(latLons.get(firstAgain).getLat(), is(2.0));
+		assertThat(latLons.get(second).getLat(), is(4.0));
+		assertThat(latLons.get(unknown), is(nullValue()));
+		verify(3, getRequestedFor(urlPathEqualTo("/geocode")));
+
+		// addresses that could not be found are cached as well
+		latLons = getGeocodingService().getLatLons(Arrays.asList(first, second, unknown));
+		assertThat(latLons.size(), is(2));
+		verify(3, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	@Test
+	public void testFailedRequestsAreNotCached() {
+
+		stubFor(get(urlPathEqualTo("/geocode")).willReturn(aResponse().withStatus(HttpStatus.SC_INTERNAL_SERVER_ERROR)));
+
+		LocationQuery query = new LocationQuery("1", "Main Street", null, "Berlin");
+		assertThat(getGeocodingService().getLatLon(query), is(nullValue()));
+
+		stubAddress("Main Street", 13.4, 52.5);
+		assertThat(getGeocodingService().getLatLon(query).getLat(), is(52.5));
+		verify(2, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	private void stubAddress(String street, double longitude, double latitude) {
+
+		stubFor(
+			get(urlPathEqualTo("/geocode")).withQueryParam("street", equalTo(street))
+				.willReturn(
+					aResponse().withStatus(HttpStatus.SC_OK)
+						.withBody(String.format("{\"features\":[{\"geometry\":{\"coordinates\":[%s,%s]}}]}", longitude, latitude))));
+	}
+}
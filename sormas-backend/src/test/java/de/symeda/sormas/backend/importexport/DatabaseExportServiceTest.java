@@ -1,11 +1,34 @@
 package de.symeda.sormas.backend.importexport;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.isEmptyString;
 import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.symeda.sormas.api.importexport.DatabaseTable;
 
@@ -15,6 +38,9 @@ import de.symeda.sormas.api.importexport.DatabaseTable;
  */
 public class DatabaseExportServiceTest {
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	/**
 	 * Assure, that every {@link DatabaseTable} has an export configuration defined.
 	 */
@@ -36,4 +62,101 @@ public class DatabaseExportServiceTest {
 			}
 		}
 	}
+
+	@Test
+	public void testBuildCopySql() {
+
+		DatabaseExportConfiguration casesConfig = DatabaseExportService.getConfig(DatabaseTable.CASES);
+		Date changedSince = new Date(1600000000000L);
+		String changedSinceLiteral = new Timestamp(changedSince.getTime()).toString();
+		assertEquals(
+			"COPY (SELECT * FROM cases) TO STDOUT WITH (FORMAT CSV, DELIMITER ';', HEADER)",
+			DatabaseExportService.buildCopySql(casesConfig, null, ';'));
+		assertEquals(
+			"COPY (SELECT * FROM cases WHERE changedate > TIMESTAMP '" + changedSinceLiteral
+				+ "') TO STDOUT WITH (FORMAT CSV, DELIMITER ';', HEADER)",
+			DatabaseExportService.buildCopySql(casesConfig, changedSince, ';'));
+
+		// Joined rows are exported when either of both rows changed
+		String visitSymptomsSql =
+			DatabaseExportService.buildCopySql(DatabaseExportService.getConfig(DatabaseTable.VISIT_SYMPTOMS), changedSince, ',');
+		assertThat(
+			visitSymptomsSql,
+			containsString(
+				" WHERE (root_table.changedate > TIMESTAMP '" + changedSinceLiteral + "' OR leaf_table.changedate > TIMESTAMP '"
+					+ changedSinceLiteral + "')) TO STDOUT"));
+	}
+
+	/**
+	 * The literal is compared with {@code changedate} (timestamp without time zone) and therefore has to carry the local time of the
+	 * server without any zone information.
+	 */
+	@Test
+	public void testToTimestampLiteral() {
+
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+			assertEquals("2020-09-13 14:26:40.123", DatabaseExportService.toTimestampLiteral(new Date(1600000000123L)));
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			assertEquals("2020-09-13 12:26:40.123", DatabaseExportService.toTimestampLiteral(new Date(1600000000123L)));
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+	/**
+	 * The separately compressed CSV files have to be assembled into an archive that is read like any other zip file.
+	 */
+	@Test
+	public void testWriteZipArchive() throws IOException {
+
+		Path directory = tempFolder.newFolder().toPath();
+		Map<String, Integer> columnCounts = new HashMap<>();
+		columnCounts.put(DatabaseExportService.getConfig(DatabaseTable.CASES).getTableName(), 2);
+		columnCounts.put(DatabaseExportService.getConfig(DatabaseTable.PERSONS).getTableName(), 3);
+		String casesCsv = "uuid;disease\nCASE-1;EVD\nCASE-2;CHOLERA\n";
+		String personsCsv = "uuid;firstname;lastname\nPERSON-1;Zoë;Müller\n";
+
+		Map<DatabaseTable, DatabaseExportService.CompressedCsvFile> csvFiles = new EnumMap<>(DatabaseTable.class);
+		csvFiles.put(
+			DatabaseTable.CASES,
+			DatabaseExportService.writeCompressedCsv(DatabaseTable.CASES, toInputStream(casesCsv), columnCounts, ';', directory));
+		csvFiles.put(
+			DatabaseTable.PERSONS,
+			DatabaseExportService.writeCompressedCsv(DatabaseTable.PERSONS, toInputStream(personsCsv), columnCounts, ';', directory));
+		Path zipPath = directory.resolve("export.zip");
+		DatabaseExportService.writeZipArchive(zipPath, Arrays.asList(DatabaseTable.PERSONS, DatabaseTable.CASES), csvFiles);
+
+		try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+			assertEquals(
+				Arrays.asList("persons.csv", "cases.csv"),
+				Collections.list(zipFile.entries()).stream().map(ZipEntry::getName).collect(Collectors.toList()));
+			assertZipEntry(zipFile, "cases.csv", "cases;cases\n" + casesCsv);
+			assertZipEntry(zipFile, "persons.csv", "person;person;person\n" + personsCsv);
+		}
+	}
+
+	private static void assertZipEntry(ZipFile zipFile, String name, String expectedContent) throws IOException {
+
+		byte[] expectedBytes = expectedContent.getBytes(StandardCharsets.UTF_8);
+		CRC32 expectedCrc = new CRC32();
+		expectedCrc.update(expectedBytes);
+
+		ZipEntry entry = zipFile.getEntry(name);
+		assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+		assertEquals(expectedBytes.length, entry.getSize());
+		assertEquals(expectedCrc.getValue(), entry.getCrc());
+		try (InputStream in = zipFile.getInputStream(entry)) {
+			byte[] actualBytes = IOUtils.toByteArray(in);
+			CRC32 actualCrc = new CRC32();
+			actualCrc.update(actualBytes);
+			assertEquals(expectedContent, new String(actualBytes, StandardCharsets.UTF_8));
+			assertEquals(entry.getCrc(), actualCrc.getValue());
+		}
+	}
+
+	private static InputStream toInputStream(String csv) {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
 }
@@ -0,0 +1,148 @@
+package de.symeda.sormas.backend.infrastructure;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.symeda.sormas.api.infrastructure.InfrastructureSnapshotDto;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+
+public class InfrastructureFacadeEjbTest extends AbstractBeanTest {
+
+	@Test
+	public void testGetInfrastructureSnapshot() throws IOException {
+
+		RDCF rdcf1 = creator.createRDCF("Region 1", "District 1", "Community 1", "Facility 1");
+		RDCF rdcf2 = creator.createRDCF("Region 2", "District 2", "Community 2", "Facility 2");
+		InfrastructureFacadeEjb infrastructureFacade = getBean(InfrastructureFacadeEjb.class);
+
+		InfrastructureSnapshotDto snapshot = infrastructureFacade.getInfrastructureSnapshot(null, null, null, null, null);
+		assertNotNull(snapshot.getETag());
+		JsonNode data = readSnapshotData(snapshot);
+		// the lists are ordered by their references
+		assertEquals(
+			Arrays.asList(
+				InfrastructureSnapshotDto.CONTINENTS,
+				InfrastructureSnapshotDto.SUBCONTINENTS,
+				InfrastructureSnapshotDto.COUNTRIES,
+				InfrastructureSnapshotDto.AREAS,
+				InfrastructureSnapshotDto.REGIONS,
+				InfrastructureSnapshotDto.DISTRICTS,
+				InfrastructureSnapshotDto.COMMUNITIES,
+				InfrastructureSnapshotDto.FACILITIES,
+				InfrastructureSnapshotDto.POINTS_OF_ENTRY),
+			getFieldNames(data));
+		assertThat(getUuids(data, InfrastructureSnapshotDto.FACILITIES), containsInAnyOrder(rdcf1.facility.getUuid(), rdcf2.facility.getUuid()));
+		assertEquals(snapshot.getData().length, snapshot.getTotalLength());
+		assertNull(snapshot.getRangeStart());
+
+		// only the requested range is returned
+		InfrastructureSnapshotDto range = infrastructureFacade.getInfrastructureSnapshot(null, null, snapshot.getETag(), 10L, null);
+		assertEquals(Long.valueOf(10), range.getRangeStart());
+		assertEquals(snapshot.getTotalLength(), range.getTotalLength());
+		assertArrayEquals(Arrays.copyOfRange(snapshot.getData(), 10, snapshot.getData().length), range.getData());
+		// the whole snapshot for a range of another version
+		InfrastructureSnapshotDto otherVersion = infrastructureFacade.getInfrastructureSnapshot(null, null, "other", 10L, null);
+		assertNull(otherVersion.getRangeStart());
+		assertArrayEquals(snapshot.getData(), otherVersion.getData());
+		// not satisfiable
+		InfrastructureSnapshotDto outOfRange =
+			infrastructureFacade.getInfrastructureSnapshot(null, null, null, snapshot.getTotalLength(), null);
+		assertEquals(0, outOfRange.getData().length);
+
+		// not modified
+		InfrastructureSnapshotDto unmodified = infrastructureFacade.getInfrastructureSnapshot(null, snapshot.getETag(), null, null, null);
+		assertEquals(snapshot.getETag(), unmodified.getETag());
+		assertNull(unmodified.getData());
+
+		// region
+		InfrastructureSnapshotDto regionSnapshot = infrastructureFacade.getInfrastructureSnapshot(rdcf1.region.getUuid(), snapshot.getETag(), null, null, null);
+		assertThat(regionSnapshot.getETag(), not(snapshot.getETag()));
+		JsonNode regionData = readSnapshotData(regionSnapshot);
+		assertThat(getUuids(regionData, InfrastructureSnapshotDto.REGIONS), containsInAnyOrder(rdcf1.region.getUuid(), rdcf2.region.getUuid()));
+		assertThat(getUuids(regionData, InfrastructureSnapshotDto.DISTRICTS), containsInAnyOrder(rdcf1.district.getUuid()));
+		assertThat(getUuids(regionData, InfrastructureSnapshotDto.COMMUNITIES), containsInAnyOrder(rdcf1.community.getUuid()));
+		assertThat(getUuids(regionData, InfrastructureSnapshotDto.FACILITIES), containsInAnyOrder(rdcf1.facility.getUuid()));
+
+		// rebuilt when the infrastructure is changed
+		RDCF rdcf3 = creator.createRDCF("Region 3", "District 3", "Community 3", "Facility 3");
+		getBean(InfrastructureSnapshotCache.class).pollChanges();
+		InfrastructureSnapshotDto changedSnapshot = infrastructureFacade.getInfrastructureSnapshot(null, snapshot.getETag(), null, null, null);
+		assertThat(changedSnapshot.getETag(), not(snapshot.getETag()));
+		assertThat(
+			getUuids(readSnapshotData(changedSnapshot), InfrastructureSnapshotDto.FACILITIES),
+			containsInAnyOrder(rdcf1.facility.getUuid(), rdcf2.facility.getUuid(), rdcf3.facility.getUuid()));
+	}
+
+	@Test
+	public void testGetByteRange() {
+
+		assertNull(InfrastructureFacadeEjb.getByteRange(null, null, 100));
+		assertArrayEquals(new long[] {
+			10,
+			99 }, InfrastructureFacadeEjb.getByteRange(10L, null, 100));
+		assertArrayEquals(new long[] {
+			10,
+			19 }, InfrastructureFacadeEjb.getByteRange(10L, 19L, 100));
+		assertArrayEquals(new long[] {
+			10,
+			99 }, InfrastructureFacadeEjb.getByteRange(10L, 1000L, 100));
+		// suffix range
+		assertArrayEquals(new long[] {
+			80,
+			99 }, InfrastructureFacadeEjb.getByteRange(null, 20L, 100));
+		assertArrayEquals(new long[] {
+			0,
+			99 }, InfrastructureFacadeEjb.getByteRange(null, 200L, 100));
+		// invalid range
+		assertNull(InfrastructureFacadeEjb.getByteRange(20L, 10L, 100));
+		// not satisfiable
+		assertArrayEquals(new long[0], InfrastructureFacadeEjb.getByteRange(100L, null, 100));
+		assertArrayEquals(new long[0], InfrastructureFacadeEjb.getByteRange(null, 0L, 100));
+	}
+
+	private static JsonNode readSnapshotData(InfrastructureSnapshotDto snapshot) throws IOException {
+
+		assertNotNull(snapshot.getData());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getData()))) {
+			return new ObjectMapper().readTree(in);
+		}
+	}
+
+	private static List<String> getFieldNames(JsonNode data) {
+
+		List<String> fieldNames = new ArrayList<>();
+		for (Iterator<Map.Entry<String, JsonNode>> fields = data.fields(); fields.hasNext();) {
+			fieldNames.add(fields.next().getKey());
+		}
+		return fieldNames;
+	}
+
+	private static List<String> getUuids(JsonNode data, String fieldName) {
+
+		List<String> uuids = new ArrayList<>();
+		for (JsonNode dto : data.get(fieldName)) {
+			uuids.add(dto.get("uuid").asText());
+		}
+		return uuids;
+	}
+}
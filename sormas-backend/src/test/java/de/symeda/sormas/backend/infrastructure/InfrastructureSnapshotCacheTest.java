@@ -0,0 +1,100 @@
+package de.symeda.sormas.backend.infrastructure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+
+import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.facility.FacilityDto;
+import de.symeda.sormas.api.facility.FacilityType;
+import de.symeda.sormas.api.infrastructure.PointOfEntryDto;
+import de.symeda.sormas.api.infrastructure.PointOfEntryType;
+import de.symeda.sormas.api.location.AreaType;
+import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
+
+/**
+ * @see InfrastructureSnapshotCache
+ */
+public class InfrastructureSnapshotCacheTest {
+
+	/**
+	 * Configured like {@code RetroProvider.initGson()} of the app, which reads the snapshot.
+	 */
+	private static final Gson APP_GSON = new GsonBuilder().registerTypeAdapter(Date.class, (JsonDeserializer<Date>) (json, typeOfT, context) -> {
+		if (json.isJsonNull()) {
+			return null;
+		}
+		return new Date(json.getAsLong());
+	}).registerTypeAdapter(Date.class, (JsonSerializer<Date>) (src, typeOfSrc, context) -> {
+		if (src == null) {
+			return JsonNull.INSTANCE;
+		}
+		return new JsonPrimitive(src.getTime());
+	}).create();
+
+	private final ObjectMapper objectMapper = InfrastructureSnapshotCache.createObjectMapper();
+
+	@Test
+	public void testFacilityIsReadByApp() throws IOException {
+
+		FacilityDto facility = FacilityDto.build();
+		facility.setCreationDate(new Date(1600000000123L));
+		facility.setChangeDate(new Date(1600000000456L));
+		facility.setName("Facility");
+		facility.setType(FacilityType.HOSPITAL);
+		facility.setAreaType(AreaType.URBAN);
+		facility.setRegion(new RegionReferenceDto("R-UUID", "Region", null));
+		facility.setDistrict(new DistrictReferenceDto("D-UUID", "District", null));
+		facility.setLatitude(52.5);
+
+		JsonNode json = objectMapper.valueToTree(facility);
+		assertTrue(json.get(EntityDto.CHANGE_DATE).isIntegralNumber());
+		assertEquals("HOSPITAL", json.get(FacilityDto.TYPE).asText());
+
+		FacilityDto read = assertReadByApp(facility, FacilityDto.class);
+		assertEquals(facility.getCreationDate(), read.getCreationDate());
+		assertEquals(facility.getChangeDate(), read.getChangeDate());
+		assertEquals(FacilityType.HOSPITAL, read.getType());
+		assertEquals(AreaType.URBAN, read.getAreaType());
+		assertEquals(facility.getRegion(), read.getRegion());
+	}
+
+	@Test
+	public void testPointOfEntryIsReadByApp() throws IOException {
+
+		PointOfEntryDto pointOfEntry = PointOfEntryDto.build();
+		pointOfEntry.setChangeDate(new Date(1600000000456L));
+		pointOfEntry.setName("Airport");
+		pointOfEntry.setPointOfEntryType(PointOfEntryType.AIRPORT);
+		pointOfEntry.setActive(true);
+
+		PointOfEntryDto read = assertReadByApp(pointOfEntry, PointOfEntryDto.class);
+		assertEquals(pointOfEntry.getChangeDate(), read.getChangeDate());
+		assertEquals(PointOfEntryType.AIRPORT, read.getPointOfEntryType());
+	}
+
+	/**
+	 * Reads the serialized DTO like the app does and asserts that no value has been lost on the way.
+	 */
+	private <T> T assertReadByApp(T dto, Class<T> dtoClass) throws IOException {
+
+		String json = objectMapper.writeValueAsString(dto);
+		T read = APP_GSON.fromJson(json, dtoClass);
+		assertEquals(objectMapper.readTree(json), objectMapper.valueToTree(read));
+		return read;
+	}
+}
@@ -0,0 +1,174 @@
+package de.symeda.sormas.backend.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.interceptor.InvocationContext;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @see EjbMetrics
+ */
+public class EjbMetricsTest {
+
+	@After
+	public void resetMetrics() {
+		EjbMetrics.reset();
+	}
+
+	@Test
+	public void testHistogramPrecision() {
+
+		for (long value : new long[] {
+			0,
+			15,
+			16,
+			1_000,
+			123_456_789,
+			60_000_000_000L }) {
+			long highestEquivalent = LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value));
+			assertThat(value, lessThanOrEqualTo(highestEquivalent));
+			assertThat((double) (highestEquivalent - value), lessThanOrEqualTo(value / 16.0));
+		}
+		assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testPercentiles() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1_000_000L);
+		}
+
+		LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(1000, snapshot.getTotalCount());
+		assertWithinPrecision(500_000_000L, snapshot.getValueAtPercentile(50));
+		assertWithinPrecision(950_000_000L, snapshot.getValueAtPercentile(95));
+		assertWithinPrecision(990_000_000L, snapshot.getValueAtPercentile(99));
+		assertWithinPrecision(1_000_000_000L, snapshot.getMaxValue());
+		assertEquals(100, snapshot.getCountAtOrBelow(100_000_000L), 100 / 16);
+	}
+
+	@Test
+	public void testInterceptorRecordsCallsErrorsAndStatements() throws Exception {
+
+		EjbMetricsInterceptor interceptor = new EjbMetricsInterceptor();
+		TestFacadeEjbLocal ejb = new TestFacadeEjbLocal();
+		Method method = TestFacadeEjb.class.getMethod("getData");
+
+		interceptor.recordInvocation(new TestInvocationContext(ejb, method, () -> {
+			EjbMetrics.countStatement();
+			EjbMetrics.countStatement();
+			return "data";
+		}));
+		try {
+			interceptor.recordInvocation(new TestInvocationContext(ejb, method, () -> {
+				throw new IllegalStateException();
+			}));
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		List<EjbMethodMetrics> metrics = EjbMetrics.getAll();
+		assertEquals(1, metrics.size());
+		assertThat(metrics.get(0).getMethod(), equalTo("EjbMetricsTest.getData"));
+		assertEquals(2, metrics.get(0).getDurations().getTotalCount());
+		assertEquals(1, metrics.get(0).getErrors());
+		assertEquals(2, metrics.get(0).getStatements());
+
+		String prometheusText = EjbMetrics.toPrometheusText();
+		assertThat(prometheusText, containsString("# TYPE sormas_ejb_call_duration_seconds histogram\n"));
+		assertThat(prometheusText, containsString("sormas_ejb_call_duration_seconds_bucket{method=\"EjbMetricsTest.getData\",le=\"+Inf\"} 2\n"));
+		assertThat(prometheusText, containsString("sormas_ejb_call_duration_seconds_count{method=\"EjbMetricsTest.getData\"} 2\n"));
+		assertThat(prometheusText, containsString("sormas_ejb_call_errors_total{method=\"EjbMetricsTest.getData\"} 1\n"));
+		assertThat(prometheusText, containsString("sormas_ejb_sql_statements_total{method=\"EjbMetricsTest.getData\"} 2\n"));
+	}
+
+	@Test
+	public void testGetEjbName() {
+
+		assertThat(EjbMetrics.getEjbName(EjbMetricsInterceptor.class), equalTo("EjbMetricsInterceptor"));
+		assertThat(EjbMetrics.getEjbName(TestFacadeEjbLocal.class), equalTo("EjbMetricsTest"));
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertEquals(expected, actual, expected / 16.0);
+	}
+
+	public static class TestFacadeEjb {
+
+		public String getData() {
+			return "data";
+		}
+	}
+
+	public static class TestFacadeEjbLocal extends TestFacadeEjb {
+	}
+
+	private static class TestInvocationContext implements InvocationContext {
+
+		private final Object target;
+		private final Method method;
+		private final Callable<Object> invocation;
+
+		TestInvocationContext(Object target, Method method, Callable<Object> invocation) {
+			this.target = target;
+			this.method = method;
+			this.invocation = invocation;
+		}
+
+		@Override
+		public Object getTarget() {
+			return target;
+		}
+
+		@Override
+		public Object getTimer() {
+			return null;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Constructor<?> getConstructor() {
+			return null;
+		}
+
+		@Override
+		public Object[] getParameters() {
+			return new Object[0];
+		}
+
+		@Override
+		public void setParameters(Object[] params) {
+		}
+
+		@Override
+		public Map<String, Object> getContextData() {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		public Object proceed() throws Exception {
+			return invocation.call();
+		}
+	}
+}
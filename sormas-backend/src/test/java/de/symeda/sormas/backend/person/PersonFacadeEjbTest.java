@@ -1,6 +1,7 @@
 package de.symeda.sormas.backend.person;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -11,6 +12,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -42,6 +44,7 @@ import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
+import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
 
 public class PersonFacadeEjbTest extends AbstractBeanTest {
 
@@ -228,6 +231,74 @@ public class PersonFacadeEjbTest extends AbstractBeanTest {
 		assertThat(matchingUuids, containsInAnyOrder(person1.getUuid(), person3.getUuid(), person7.getUuid(), person9.getUuid(), person11.getUuid()));
 	}
 
+	@Test
+	public void testArePersonsSimilarToExisting() {
+		RDCFEntities rdcf = creator.createRDCFEntities();
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		loginWith(user);
+
+		PersonDto person1 = creator.createPerson("James", "Smith", Sex.MALE, 1980, 1, 1);
+		PersonDto person2 = creator.createPerson("Maria", "Garcia", Sex.FEMALE, 1984, 12, 2, "passportNr", null);
+		// without association
+		creator.createPerson("John", "Doe", Sex.MALE, 1970, 1, 1);
+		creator.createCase(user.toReference(), person1.toReference(), rdcf);
+		creator.createCase(user.toReference(), person2.toReference(), rdcf);
+
+		List<PersonDto> importedPersons = Arrays.asList(
+			buildPerson("James", "Smith", Sex.MALE, 1980, 1, 1, null),
+			buildPerson("James", "Smith", Sex.FEMALE, 1980, 1, 1, null),
+			buildPerson("James", "Smith", Sex.MALE, 1980, 2, 1, null),
+			buildPerson("Maria", "Garcia", null, null, null, null, null),
+			buildPerson("Someone", "Else", Sex.FEMALE, 1984, 12, 2, "passportNr"),
+			buildPerson("John", "Doe", Sex.MALE, 1970, 1, 1, null),
+			buildPerson(null, null, Sex.MALE, 1980, 1, 1, null));
+
+		PersonFacadeEjbLocal personFacade = (PersonFacadeEjbLocal) getPersonFacade();
+		List<Boolean> similar = personFacade.arePersonsSimilarToExisting(importedPersons);
+		assertThat(similar, contains(true, false, false, true, true, false, true));
+		for (int i = 0; i < importedPersons.size(); i++) {
+			assertEquals(personFacade.isPersonSimilarToExisting(importedPersons.get(i)), similar.get(i));
+		}
+	}
+
+	@Test
+	public void testArePersonsSimilarToPrecedingPersons() {
+		RDCFEntities rdcf = creator.createRDCFEntities();
+		UserDto user = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		loginWith(user);
+
+		List<PersonDto> importedPersons = Arrays.asList(
+			buildPerson("Peter", "Parker", Sex.MALE, 1980, 1, 1, null),
+			buildPerson("Mary", "Watson", Sex.FEMALE, 1981, 2, 2, "passportNr"),
+			buildPerson("Peter", "Parker", Sex.MALE, 1980, 1, 1, null),
+			buildPerson("Mary Jane", "Watson", Sex.FEMALE, 1981, 2, 3, null),
+			buildPerson("Someone", "Else", null, null, null, null, "passportNr"));
+
+		// the persons are saved in the order of the list, so later persons are similar to the preceding ones
+		List<Boolean> similar = ((PersonFacadeEjbLocal) getPersonFacade()).arePersonsSimilarToExisting(importedPersons);
+		assertThat(similar, contains(false, false, true, false, true));
+	}
+
+	private static PersonDto buildPerson(
+		String firstName,
+		String lastName,
+		Sex sex,
+		Integer birthdateYYYY,
+		Integer birthdateMM,
+		Integer birthdateDD,
+		String passportNumber) {
+
+		PersonDto person = PersonDto.build();
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		person.setSex(sex);
+		person.setBirthdateYYYY(birthdateYYYY);
+		person.setBirthdateMM(birthdateMM);
+		person.setBirthdateDD(birthdateDD);
+		person.setPassportNumber(passportNumber);
+		return person;
+	}
+
 	@Test
 	/*
 	 * If you need to change this test to make it pass, you probably changed the behaviour of the ExternalVisitsResource.
@@ -10,6 +10,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
@@ -27,9 +28,12 @@ import org.mockito.MockedStatic;
 
 import de.symeda.sormas.api.AuthProvider;
 import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.user.UserRoleConfigDto;
 import de.symeda.sormas.api.utils.PasswordHelper;
 import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.TestDataCreator.RDCF;
 
 public class UserServiceTest extends AbstractBeanTest {
@@ -160,4 +164,32 @@ public class UserServiceTest extends AbstractBeanTest {
 			assertFalse(result.contains(randomUser));
 		}
 	}
+
+	@Test
+	public void testCurrentUserSnapshotIsCachedUntilUserOrRoleConfigIsSaved() {
+
+		RDCF rdcf = creator.createRDCF();
+		UserDto officer = creator.createUser(rdcf, UserRole.SURVEILLANCE_OFFICER);
+		when(MockProducer.getPrincipal().getName()).thenReturn(officer.getUserName());
+
+		CurrentUserSnapshot snapshot = getCurrentUserService().getCurrentUser().getSnapshot();
+		assertThat(snapshot.getUuid(), equalTo(officer.getUuid()));
+		assertThat(snapshot.getUserRights(), equalTo(getUserRoleConfigFacade().getEffectiveUserRights(UserRole.SURVEILLANCE_OFFICER)));
+
+		// cached snapshot, the user is loaded on access
+		CurrentUser currentUser = getCurrentUserService().getCurrentUser();
+		assertSame(snapshot, currentUser.getSnapshot());
+		assertThat(currentUser.getUser().getUuid(), equalTo(officer.getUuid()));
+
+		officer.setUserRoles(new HashSet<>(Arrays.asList(UserRole.SURVEILLANCE_SUPERVISOR)));
+		getUserFacade().saveUser(officer);
+		snapshot = getCurrentUserService().getCurrentUser().getSnapshot();
+		assertThat(snapshot.getUserRoles(), contains(UserRole.SURVEILLANCE_SUPERVISOR));
+
+		UserRoleConfigDto userRoleConfig = UserRoleConfigDto.build(UserRole.SURVEILLANCE_SUPERVISOR);
+		userRoleConfig.getUserRights().add(UserRight.CASE_VIEW);
+		getUserRoleConfigFacade().saveUserRoleConfig(userRoleConfig);
+		snapshot = getCurrentUserService().getCurrentUser().getSnapshot();
+		assertThat(snapshot.getUserRights(), contains(UserRight.CASE_VIEW));
+	}
 }
@@ -0,0 +1,192 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import de.symeda.sormas.api.ConfigFacade;
+import de.symeda.sormas.api.caze.CaseExportDto;
+import de.symeda.sormas.api.caze.CaseIndexDto;
+import de.symeda.sormas.api.location.LocationDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.symptoms.SymptomsDto;
+
+/**
+ * Creates synthetic DTOs for the benchmarks. The values are deterministic, so runs are comparable.
+ */
+public final class BenchmarkDataGenerator {
+
+	private static final long BASE_TIME = 1600000000000L;
+
+	private BenchmarkDataGenerator() {
+		// Hide Utility Class Constructor
+	}
+
+	public static List<CaseExportDto> createCaseExportDtos(int count) {
+
+		Constructor<?> constructor = getLargestConstructor(CaseExportDto.class);
+		List<CaseExportDto> dtos = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			CaseExportDto dto = (CaseExportDto) newInstance(constructor, i);
+			dto.setSymptoms(SymptomsDto.build());
+			dtos.add(dto);
+		}
+		return dtos;
+	}
+
+	public static List<CaseIndexDto> createCaseIndexDtos(int count) {
+
+		Constructor<?> constructor = getLargestConstructor(CaseIndexDto.class);
+		List<CaseIndexDto> dtos = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			dtos.add((CaseIndexDto) newInstance(constructor, i));
+		}
+		return dtos;
+	}
+
+	public static List<PersonDto> createPersonDtos(int count) {
+
+		List<PersonDto> dtos = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			PersonDto person = PersonDto.build();
+			person.setFirstName("First" + i);
+			person.setLastName("Last" + i);
+			person.setBirthName("Birth" + i);
+			person.setBirthdateYYYY(1950 + i % 70);
+			person.setPhone("+49 " + i);
+			person.setEmailAddress("person" + i + "@example.org");
+
+			LocationDto address = person.getAddress();
+			address.setStreet("Street " + i);
+			address.setHouseNumber(String.valueOf(i));
+			address.setPostalCode(String.valueOf(10000 + i % 90000));
+			address.setCity("City " + i % 100);
+			address.setLatitude(52.0 + (i % 100) / 100D);
+			address.setLongitude(10.0 + (i % 100) / 100D);
+			dtos.add(person);
+		}
+		return dtos;
+	}
+
+	/**
+	 * Person names where every fifth name is a copy of a previous one with a typo, like the names of duplicate cases.
+	 */
+	public static List<String> createPersonNames(int count) {
+
+		String[] firstNames = {
+			"Anna",
+			"Peter",
+			"Maria",
+			"Thomas",
+			"Fatima",
+			"Mohamed",
+			"Julia",
+			"Lukas",
+			"Aisha",
+			"Jan" };
+		Random random = new Random(42);
+		List<String> names = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			if (i % 5 == 4) {
+				StringBuilder name = new StringBuilder(names.get(random.nextInt(i)));
+				name.setCharAt(random.nextInt(name.length()), (char) ('a' + random.nextInt(26)));
+				names.add(name.toString());
+			} else {
+				StringBuilder lastName = new StringBuilder();
+				for (int j = 0; j < 6 + random.nextInt(5); j++) {
+					lastName.append((char) ('a' + random.nextInt(26)));
+				}
+				names.add(firstNames[random.nextInt(firstNames.length)] + " " + lastName);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Fills every constructor parameter with a value derived from the row index; parameters of other types stay null.
+	 */
+	public static Object newInstance(Constructor<?> constructor, int index) {
+
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		Object[] args = new Object[parameterTypes.length];
+		for (int p = 0; p < parameterTypes.length; p++) {
+			args[p] = createValue(parameterTypes[p], index, p);
+		}
+
+		try {
+			return constructor.newInstance(args);
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public static Constructor<?> getLargestConstructor(Class<?> clazz) {
+
+		Constructor<?> largest = null;
+		for (Constructor<?> constructor : clazz.getConstructors()) {
+			if (largest == null || constructor.getParameterCount() > largest.getParameterCount()) {
+				largest = constructor;
+			}
+		}
+		return largest;
+	}
+
+	private static Object createValue(Class<?> type, int index, int parameter) {
+
+		if (type == String.class) {
+			return "value-" + parameter + "-" + index;
+		} else if (type == long.class || type == Long.class) {
+			return (long) index;
+		} else if (type == int.class || type == Integer.class) {
+			return (index + parameter) % 28 + 1;
+		} else if (type == boolean.class || type == Boolean.class) {
+			return (index + parameter) % 2 == 0;
+		} else if (type == float.class || type == Float.class) {
+			return (float) index / 10;
+		} else if (type == double.class || type == Double.class) {
+			return (double) index / 10;
+		} else if (type == Date.class) {
+			return new Date(BASE_TIME + index * 60000L);
+		} else if (type.isEnum()) {
+			Object[] constants = type.getEnumConstants();
+			return constants[(index + parameter) % constants.length];
+		} else {
+			return null;
+		}
+	}
+
+	public static ConfigFacade createConfigFacade() {
+
+		return (ConfigFacade) Proxy.newProxyInstance(ConfigFacade.class.getClassLoader(), new Class<?>[] {
+			ConfigFacade.class }, (proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getCsvSeparator":
+					return ',';
+				case "getStepSizeForCsvExport":
+					return 5000;
+				case "getCountryLocale":
+					return "en";
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.utils.TrigramSimilarity;
+
+/**
+ * Finds the probable duplicates among generated cases by comparing all pairs of cases with the same disease and report weeks
+ * within the window (like the former self-join) and by comparing only the cases that share a blocking key, like
+ * {@code CaseDuplicateService}. Both variants find the same pairs; the database lookups of the keys are not part of the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CaseDuplicateBenchmark {
+
+	private static final double THRESHOLD = 0.65;
+	private static final int REPORT_WEEK_WINDOW = 5;
+	private static final Disease[] DISEASES = {
+		Disease.CORONAVIRUS,
+		Disease.MEASLES,
+		Disease.CHOLERA };
+
+	@Param({
+		"2000",
+		"10000" })
+	private int caseCount;
+
+	private List<Set<String>> trigrams;
+	private Disease[] diseases;
+	private int[] reportWeeks;
+	private List<List<String>> blockingKeys;
+	private Map<String, List<Integer>> blockingIndex;
+
+	@Setup
+	public void setUp() {
+
+		List<String> names = BenchmarkDataGenerator.createPersonNames(caseCount);
+		trigrams = new ArrayList<>(caseCount);
+		diseases = new Disease[caseCount];
+		reportWeeks = new int[caseCount];
+		blockingKeys = new ArrayList<>(caseCount);
+		blockingIndex = new HashMap<>();
+		for (int i = 0; i < caseCount; i++) {
+			trigrams.add(TrigramSimilarity.getTrigrams(names.get(i)));
+			diseases[i] = DISEASES[i % DISEASES.length];
+			reportWeeks[i] = i % 52;
+			List<String> keys = new ArrayList<>();
+			for (String trigram : TrigramSimilarity.getBlockingTrigrams(trigrams.get(i), THRESHOLD)) {
+				keys.add(diseases[i] + ":" + trigram);
+				blockingIndex.computeIfAbsent(diseases[i] + ":" + trigram, k -> new ArrayList<>()).add(i);
+			}
+			blockingKeys.add(keys);
+		}
+	}
+
+	@Benchmark
+	public int allPairs() {
+
+		int duplicates = 0;
+		for (int i = 0; i < caseCount; i++) {
+			for (int j = 0; j < caseCount; j++) {
+				if (i != j && isCandidate(i, j) && isDuplicate(i, j)) {
+					duplicates++;
+				}
+			}
+		}
+		return duplicates;
+	}
+
+	@Benchmark
+	public int blocked() {
+
+		int duplicates = 0;
+		for (int i = 0; i < caseCount; i++) {
+			Set<Integer> candidates = new HashSet<>();
+			for (String key : blockingKeys.get(i)) {
+				for (int j : blockingIndex.get(key)) {
+					if (i != j && isCandidate(i, j)) {
+						candidates.add(j);
+					}
+				}
+			}
+			for (int j : candidates) {
+				if (isDuplicate(i, j)) {
+					duplicates++;
+				}
+			}
+		}
+		return duplicates;
+	}
+
+	private boolean isCandidate(int i, int j) {
+		return diseases[i] == diseases[j] && Math.abs(reportWeeks[i] - reportWeeks[j]) <= REPORT_WEEK_WINDOW;
+	}
+
+	private boolean isDuplicate(int i, int j) {
+		return TrigramSimilarity.getSimilarity(trigrams.get(i), trigrams.get(j)) > THRESHOLD;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.benchmark;
+
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opencsv.CSVWriter;
+
+import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.caze.CaseExportDto;
+import de.symeda.sormas.api.utils.CSVUtils;
+import de.symeda.sormas.api.utils.CsvStreamUtils;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.Order;
+
+/**
+ * Compares the compiled column plan of {@link CsvStreamUtils} with the former reflective export path
+ * ({@link Method#invoke(Object, Object...)} and {@link DataHelper#valueToString(Object)} for every cell).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvExportBenchmark {
+
+	@Param("100000")
+	private int rowCount;
+
+	private List<CaseExportDto> rows;
+
+	@Setup
+	public void setUp() {
+		rows = BenchmarkDataGenerator.createCaseExportDtos(rowCount);
+	}
+
+	@Benchmark
+	public void columnPlan() {
+
+		CsvStreamUtils.writeCsvContentToStream(
+			CaseExportDto.class,
+			(Integer start, Integer max) -> rows.subList(Math.min(start, rows.size()), Math.min(start + max, rows.size())),
+			(propertyId, type) -> propertyId,
+			null,
+			null,
+			BenchmarkDataGenerator.createConfigFacade(),
+			new NullOutputStream());
+	}
+
+	@Benchmark
+	public void reflection() throws Exception {
+
+		try (CSVWriter writer = CSVUtils.createCSVWriter(new OutputStreamWriter(new NullOutputStream(), StandardCharsets.UTF_8.name()), ',')) {
+
+			List<Method> readMethods = getReadMethods(CaseExportDto.class);
+			Map<Method, Method> subEntityGetters = new HashMap<>();
+			for (int i = 0; i < readMethods.size(); i++) {
+				Method method = readMethods.get(i);
+				if (EntityDto.class.isAssignableFrom(method.getReturnType())) {
+					readMethods.remove(i);
+					List<Method> subReadMethods = getReadMethods(method.getReturnType());
+					readMethods.addAll(i, subReadMethods);
+					i--;
+					for (Method subReadMethod : subReadMethods) {
+						subEntityGetters.put(subReadMethod, method);
+					}
+				}
+			}
+
+			String[] values = new String[readMethods.size()];
+			for (CaseExportDto row : rows) {
+				for (int i = 0; i < readMethods.size(); i++) {
+					Method method = readMethods.get(i);
+					Method subEntityGetter = subEntityGetters.get(method);
+					Object entity = subEntityGetter != null ? subEntityGetter.invoke(row) : row;
+					Object value = entity != null ? method.invoke(entity) : null;
+					values[i] = DataHelper.valueToString(value);
+				}
+				writer.writeNext(values);
+			}
+		}
+	}
+
+	private static List<Method> getReadMethods(Class<?> clazz) {
+		return Arrays.stream(clazz.getDeclaredMethods())
+			.filter(m -> (m.getName().startsWith("get") || m.getName().startsWith("is")) && m.isAnnotationPresent(Order.class))
+			.sorted(Comparator.comparingInt(m -> m.getAnnotation(Order.class).value()))
+			.collect(Collectors.toCollection(ArrayList::new));
+	}
+}
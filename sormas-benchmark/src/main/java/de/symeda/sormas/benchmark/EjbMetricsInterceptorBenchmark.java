@@ -0,0 +1,139 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.interceptor.InvocationContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.symeda.sormas.backend.metrics.EjbMetricsInterceptor;
+
+/**
+ * Overhead of the {@link EjbMetricsInterceptor} on an EJB call that does nothing, compared to invoking the same call without it.
+ * The contended variants let 8 threads record into the metrics of the same method, which is the worst case for the shared
+ * histogram and counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EjbMetricsInterceptorBenchmark {
+
+	private final EjbMetricsInterceptor interceptor = new EjbMetricsInterceptor();
+	private InvocationContext context;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		context = new NoOpInvocationContext(new BenchmarkFacadeEjb(), BenchmarkFacadeEjb.class.getMethod("getData"));
+	}
+
+	@Benchmark
+	public Object withoutInterceptor() throws Exception {
+		return context.proceed();
+	}
+
+	@Benchmark
+	public Object withInterceptor() throws Exception {
+		return interceptor.recordInvocation(context);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object withoutInterceptorContended() throws Exception {
+		return context.proceed();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object withInterceptorContended() throws Exception {
+		return interceptor.recordInvocation(context);
+	}
+
+	public static class BenchmarkFacadeEjb {
+
+		public String getData() {
+			return "data";
+		}
+	}
+
+	private static class NoOpInvocationContext implements InvocationContext {
+
+		private final Object target;
+		private final Method method;
+
+		NoOpInvocationContext(Object target, Method method) {
+			this.target = target;
+			this.method = method;
+		}
+
+		@Override
+		public Object getTarget() {
+			return target;
+		}
+
+		@Override
+		public Object getTimer() {
+			return null;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Constructor<?> getConstructor() {
+			return null;
+		}
+
+		@Override
+		public Object[] getParameters() {
+			return new Object[0];
+		}
+
+		@Override
+		public void setParameters(Object[] params) {
+		}
+
+		@Override
+		public Map<String, Object> getContextData() {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		public Object proceed() {
+			return "data";
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.symeda.sormas.api.caze.CaseIndexDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.api.utils.fieldaccess.FieldAccessCheckers;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.PersonalDataFieldAccessChecker;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.SensitiveDataFieldAccessChecker;
+import de.symeda.sormas.api.utils.pseudonymization.DtoPseudonymizer;
+import de.symeda.sormas.api.utils.pseudonymization.Pseudonymizable;
+import de.symeda.sormas.api.utils.pseudonymization.Pseudonymizer;
+import de.symeda.sormas.api.utils.pseudonymization.ValuePseudonymizer;
+import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.DefaultValuePseudonymizer;
+
+/**
+ * Pseudonymizes 10k index and person DTOs with the cached pseudonymization plans of {@link DtoPseudonymizer} and with the former
+ * reflective implementation. Like in the backend, a new pseudonymizer is created for every request (benchmark invocation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PseudonymizationBenchmark {
+
+	/**
+	 * Rights of a surveillance officer: all data in jurisdiction, nothing outside.
+	 */
+	private static final Set<UserRight> USER_RIGHTS =
+		EnumSet.of(UserRight.SEE_PERSONAL_DATA_IN_JURISDICTION, UserRight.SEE_SENSITIVE_DATA_IN_JURISDICTION);
+
+	@Param("10000")
+	private int dtoCount;
+
+	@Param({
+		"true",
+		"false" })
+	private boolean inJurisdiction;
+
+	private List<CaseIndexDto> cases;
+	private List<PersonDto> persons;
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		// pseudonymization overwrites the values, so every invocation needs fresh DTOs
+		cases = BenchmarkDataGenerator.createCaseIndexDtos(dtoCount);
+		persons = BenchmarkDataGenerator.createPersonDtos(dtoCount);
+	}
+
+	@Benchmark
+	public List<CaseIndexDto> caseIndexPlan() {
+		BenchmarkPseudonymizer pseudonymizer = new BenchmarkPseudonymizer();
+		pseudonymizer.pseudonymizeDtoCollection(CaseIndexDto.class, cases, jurisdictionValidator(), null);
+		return cases;
+	}
+
+	@Benchmark
+	public List<CaseIndexDto> caseIndexReflection() {
+		new ReflectivePseudonymizer().pseudonymizeDtoCollection(CaseIndexDto.class, cases, inJurisdiction);
+		return cases;
+	}
+
+	@Benchmark
+	public List<PersonDto> personPlan() {
+		BenchmarkPseudonymizer pseudonymizer = new BenchmarkPseudonymizer();
+		pseudonymizer.pseudonymizeDtoCollection(PersonDto.class, persons, jurisdictionValidator(), null);
+		return persons;
+	}
+
+	@Benchmark
+	public List<PersonDto> personReflection() {
+		new ReflectivePseudonymizer().pseudonymizeDtoCollection(PersonDto.class, persons, inJurisdiction);
+		return persons;
+	}
+
+	private <DTO> DtoPseudonymizer.JurisdictionValidator<DTO> jurisdictionValidator() {
+		return dto -> inJurisdiction;
+	}
+
+	private static FieldAccessCheckers createFieldAccessCheckers(boolean inJurisdiction) {
+		return inJurisdiction
+			? FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.inJurisdiction(USER_RIGHTS::contains),
+				SensitiveDataFieldAccessChecker.inJurisdiction(USER_RIGHTS::contains))
+			: FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.outsideJurisdiction(USER_RIGHTS::contains),
+				SensitiveDataFieldAccessChecker.outsideJurisdiction(USER_RIGHTS::contains));
+	}
+
+	private static class BenchmarkPseudonymizer extends DtoPseudonymizer {
+
+		BenchmarkPseudonymizer() {
+			super(createFieldAccessCheckers(true), createFieldAccessCheckers(false), "", true);
+		}
+	}
+
+	/**
+	 * The former implementation of {@link DtoPseudonymizer}: looks up the fields for every collection and evaluates the access
+	 * checks and reflective field access for every DTO.
+	 */
+	private static class ReflectivePseudonymizer {
+
+		private final FieldAccessCheckers inJurisdictionCheckers = createFieldAccessCheckers(true);
+		private final FieldAccessCheckers outsideJurisdictionCheckers = createFieldAccessCheckers(false);
+
+		<DTO> void pseudonymizeDtoCollection(Class<DTO> type, Collection<DTO> dtos, boolean inJurisdiction) {
+
+			FieldAccessCheckers checkers = inJurisdiction ? inJurisdictionCheckers : outsideJurisdictionCheckers;
+			List<Field> pseudonymizableFields = filterFields(type, checkers, false);
+			List<Field> embeddedFields = filterFields(type, checkers, true);
+			for (DTO dto : dtos) {
+				pseudonymizeDto(dto, pseudonymizableFields, embeddedFields, checkers, null);
+			}
+		}
+
+		private boolean pseudonymizeDto(
+			Object dto,
+			List<Field> pseudonymizableFields,
+			List<Field> embeddedFields,
+			FieldAccessCheckers checkers,
+			Class<? extends ValuePseudonymizer> defaultPseudonymizerClass) {
+
+			if (dto == null) {
+				return false;
+			}
+
+			try {
+				boolean didPseudonymization = false;
+				for (Field field : pseudonymizableFields) {
+					if (!checkers.isAccessible(field, true)) {
+						field.setAccessible(true);
+						Pseudonymizer annotation = field.getAnnotation(Pseudonymizer.class);
+						ValuePseudonymizer<?> pseudonymizer = annotation != null
+							? annotation.value().newInstance()
+							: defaultPseudonymizerClass != null ? defaultPseudonymizerClass.newInstance() : new DefaultValuePseudonymizer<>("");
+						field.set(dto, pseudonymizer.pseudonymize(field.get(dto)));
+						field.setAccessible(false);
+						didPseudonymization = true;
+					}
+				}
+
+				for (Field embeddedField : embeddedFields) {
+					embeddedField.setAccessible(true);
+					Pseudonymizer annotation = embeddedField.getAnnotation(Pseudonymizer.class);
+					Class<?> embeddedType = embeddedField.getType();
+					didPseudonymization = pseudonymizeDto(
+						embeddedField.get(dto),
+						filterFields(embeddedType, checkers, false),
+						filterFields(embeddedType, checkers, true),
+						checkers,
+						annotation != null ? annotation.value() : defaultPseudonymizerClass);
+					embeddedField.setAccessible(false);
+				}
+
+				if (dto instanceof Pseudonymizable) {
+					((Pseudonymizable) dto).setPseudonymized(didPseudonymization);
+				}
+				return didPseudonymization;
+			} catch (IllegalAccessException | InstantiationException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private static List<Field> filterFields(Class<?> type, FieldAccessCheckers checkers, boolean embedded) {
+
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+				Arrays.stream(current.getDeclaredFields())
+					.filter(f -> embedded ? checkers.isEmbedded(f) : checkers.isConfiguredForCheck(f, true))
+					.forEach(fields::add);
+			}
+			return fields;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.bouncycastle.cms.CMSException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sormastosormas.SormasToSormasEncryptedDataDto;
+import de.symeda.sormas.backend.crypt.CmsCreator;
+import de.symeda.sormas.backend.crypt.X509CertBuilder;
+import de.symeda.sormas.backend.sormastosormas.SormasToSormasKeyStoreCache;
+
+/**
+ * Signs and encrypts the request bodies of SORMAS to SORMAS shares like {@code SormasToSormasEncryptionService} and
+ * {@code SormasToSormasRestClient}:
+ * <ul>
+ * <li>{@link #reloadPerShare()}: Loads both keystores for every share and creates the body from byte arrays.</li>
+ * <li>{@link #cachedAndStreamed()}: Uses the {@link SormasToSormasKeyStoreCache} and streams the body.</li>
+ * </ul>
+ * The throughput is measured in shares per second; the HTTP transfer is not part of the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SormasToSormasEncryptionBenchmark {
+
+	private static final String PASSWORD = "benchmark";
+	private static final String OWN_ID = "own";
+	private static final String RECIPIENT_ID = "recipient";
+
+	/**
+	 * Number of persons per share, e.g. a case with its contacts or a bulk share.
+	 */
+	@Param({
+		"1",
+		"500" })
+	private int personCount;
+
+	private Path directory;
+	private Path keystorePath;
+	private Path truststorePath;
+	private ObjectMapper objectMapper;
+	private List<PersonDto> persons;
+	private SormasToSormasKeyStoreCache keyStoreCache;
+
+	@Setup
+	public void setUp() throws GeneralSecurityException, IOException {
+
+		directory = Files.createTempDirectory("s2s-benchmark");
+		keystorePath = directory.resolve("keystore.p12");
+		truststorePath = directory.resolve("truststore.p12");
+
+		KeyStore keystore = X509CertBuilder.createTemporaryCert(OWN_ID, OWN_ID, PASSWORD);
+		KeyStore recipientKeystore = X509CertBuilder.createTemporaryCert(RECIPIENT_ID, RECIPIENT_ID, PASSWORD);
+		KeyStore truststore = KeyStore.getInstance("pkcs12");
+		truststore.load(null, PASSWORD.toCharArray());
+		truststore.setCertificateEntry(RECIPIENT_ID, recipientKeystore.getCertificate(RECIPIENT_ID));
+		store(keystore, keystorePath);
+		store(truststore, truststorePath);
+
+		objectMapper = new ObjectMapper();
+		objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+		objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+		persons = BenchmarkDataGenerator.createPersonDtos(personCount);
+		keyStoreCache = new SormasToSormasKeyStoreCache();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(directory.toFile());
+	}
+
+	@Benchmark
+	public int reloadPerShare() throws GeneralSecurityException, IOException, CMSException {
+
+		KeyStore keystore = load(keystorePath);
+		KeyStore truststore = load(truststorePath);
+		X509Certificate ownCert = (X509Certificate) keystore.getCertificate(OWN_ID);
+		PrivateKey ownKey = (PrivateKey) keystore.getKey(OWN_ID, PASSWORD.toCharArray());
+		X509Certificate recipientCert = (X509Certificate) truststore.getCertificate(RECIPIENT_ID);
+
+		byte[] encryptedData = CmsCreator.signAndEncrypt(objectMapper.writeValueAsBytes(persons), ownCert, ownKey, recipientCert, true);
+
+		return objectMapper.writeValueAsString(new SormasToSormasEncryptedDataDto(OWN_ID, encryptedData)).length();
+	}
+
+	@Benchmark
+	public long cachedAndStreamed() throws GeneralSecurityException, IOException, CMSException {
+
+		X509Certificate ownCert = keyStoreCache.getCertificate(keystorePath, PASSWORD, OWN_ID);
+		PrivateKey ownKey = keyStoreCache.getPrivateKey(keystorePath, PASSWORD, OWN_ID, PASSWORD);
+		X509Certificate recipientCert = keyStoreCache.getCertificate(truststorePath, PASSWORD, RECIPIENT_ID);
+
+		CountingOutputStream body = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+		try (OutputStream base64Out = Base64.getEncoder().wrap(body)) {
+			CmsCreator.signAndEncrypt(out -> objectMapper.writeValue(out, persons), ownCert, ownKey, recipientCert, base64Out);
+		}
+
+		return body.getByteCount();
+	}
+
+	private static KeyStore load(Path path) throws GeneralSecurityException, IOException {
+
+		KeyStore store = KeyStore.getInstance("pkcs12");
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+			store.load(in, PASSWORD.toCharArray());
+		}
+		return store;
+	}
+
+	private static void store(KeyStore store, Path path) throws GeneralSecurityException, IOException {
+
+		try (OutputStream out = Files.newOutputStream(path)) {
+			store.store(out, PASSWORD.toCharArray());
+		}
+	}
+}
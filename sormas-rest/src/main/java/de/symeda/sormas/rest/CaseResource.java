@@ -41,6 +41,7 @@ import de.symeda.sormas.api.caze.CaseIndexDto;
 import de.symeda.sormas.api.caze.CasePersonDto;
 import de.symeda.sormas.api.caze.CriteriaWithSorting;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -59,6 +60,12 @@ public class CaseResource extends EntityDtoResource {
 		return FacadeProvider.getCaseFacade().getAllActiveCasesAfter(new Date(since));
 	}
 
+	@GET
+	@Path("/sync/{since}")
+	public SyncPage<CaseDataDto> getCasesPage(@PathParam("since") long since, @QueryParam("cursor") String cursor) {
+		return FacadeProvider.getCaseFacade().getActiveCasesPageAfter(new Date(since), cursor);
+	}
+
 	@POST
 	@Path("/query")
 	public List<CaseDataDto> getByUuids(List<String> uuids) {
@@ -74,7 +81,7 @@ public class CaseResource extends EntityDtoResource {
 	@POST
 	@Path("/push")
 	public List<PushResult> postCases(@Valid List<CaseDataDto> dtos) {
-		return savePushedDto(dtos, FacadeProvider.getCaseFacade()::saveCase);
+		return savePushedDtoInBatches(dtos, FacadeProvider.getCaseFacade()::saveCase);
 	}
 
 	@GET
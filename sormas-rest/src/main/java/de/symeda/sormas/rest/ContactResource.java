@@ -36,6 +36,7 @@ import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.caze.CriteriaWithSorting;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.common.SyncPage;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactIndexDto;
@@ -65,6 +66,12 @@ public class ContactResource extends EntityDtoResource {
 		return FacadeProvider.getContactFacade().getAllActiveContactsAfter(new Date(since));
 	}
 
+	@GET
+	@Path("/sync/{since}")
+	public SyncPage<ContactDto> getContactsPage(@PathParam("since") long since, @QueryParam("cursor") String cursor) {
+		return FacadeProvider.getContactFacade().getActiveContactsPageAfter(new Date(since), cursor);
+	}
+
 	@POST
 	@Path("/query")
 	public List<ContactDto> getByUuids(List<String> uuids) {
@@ -83,7 +90,7 @@ public class ContactResource extends EntityDtoResource {
 	@Path("/push")
 	public List<PushResult> postContacts(@Valid List<ContactDto> dtos) {
 
-		List<PushResult> result = savePushedDto(dtos, FacadeProvider.getContactFacade()::saveContact);
+		List<PushResult> result = savePushedDtoInBatches(dtos, FacadeProvider.getContactFacade()::saveContact);
 		return result;
 	}
 
@@ -2,6 +2,7 @@ package de.symeda.sormas.rest;
 
 import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -11,7 +12,9 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.symeda.sormas.api.ConfigFacade;
 import de.symeda.sormas.api.EntityDto;
+import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.PushResult;
 import de.symeda.sormas.api.utils.OutdatedEntityException;
 
@@ -46,6 +49,46 @@ public abstract class EntityDtoResource {
 		return results;
 	}
 
+	/**
+	 * Saves the pushed DTOs with one transaction per batch of {@link ConfigFacade#getPushBatchSize()} DTOs. A failed batch is rolled
+	 * back and split in halves until the failing DTOs are saved in their own transaction by {@link #savePushedDto(List, Function)},
+	 * so every DTO gets the same {@link PushResult} as without batching.
+	 */
+	protected <T extends Object> List<PushResult> savePushedDtoInBatches(List<T> dtos, Function<T, T> saveEntityDto) {
+		return savePushedDtoInBatches(dtos, saveEntityDto, FacadeProvider.getConfigFacade().getPushBatchSize());
+	}
+
+	<T extends Object> List<PushResult> savePushedDtoInBatches(List<T> dtos, Function<T, T> saveEntityDto, int batchSize) {
+
+		if (batchSize <= 1) {
+			return savePushedDto(dtos, saveEntityDto);
+		}
+
+		List<PushResult> results = new ArrayList<>(dtos.size());
+		for (int i = 0; i < dtos.size(); i += batchSize) {
+			results.addAll(savePushedBatch(dtos.subList(i, Math.min(i + batchSize, dtos.size())), saveEntityDto));
+		}
+		return results;
+	}
+
+	private <T extends Object> List<PushResult> savePushedBatch(List<T> batch, Function<T, T> saveEntityDto) {
+
+		if (batch.size() == 1) {
+			return savePushedDto(batch, saveEntityDto);
+		}
+
+		try {
+			transactionWrapper.executeAll(saveEntityDto, batch);
+			return new ArrayList<>(Collections.nCopies(batch.size(), PushResult.OK));
+		} catch (Exception e) {
+			logger.debug("Saving a batch of " + batch.size() + " pushed entities failed, splitting it", e);
+			int half = batch.size() / 2;
+			List<PushResult> results = savePushedBatch(batch.subList(0, half), saveEntityDto);
+			results.addAll(savePushedBatch(batch.subList(half, batch.size()), saveEntityDto));
+			return results;
+		}
+	}
+
 	protected <T extends Object> String createErrorMessage(T dto) {
 
 		final EntityDto entityDto = (EntityDto) dto;
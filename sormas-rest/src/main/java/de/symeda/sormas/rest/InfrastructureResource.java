@@ -1,13 +1,27 @@
 package de.symeda.sormas.rest;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.infrastructure.InfrastructureChangeDatesDto;
+import de.symeda.sormas.api.infrastructure.InfrastructureSnapshotDto;
 import de.symeda.sormas.api.infrastructure.InfrastructureSyncDto;
 
 @Path("/infrastructure")
@@ -17,9 +31,127 @@ import de.symeda.sormas.api.infrastructure.InfrastructureSyncDto;
 	"REST_USER" })
 public class InfrastructureResource {
 
+	static final String SNAPSHOT_MEDIA_TYPE = "application/gzip";
+
+	private static final String RANGE = "Range";
+	private static final String IF_RANGE = "If-Range";
+	private static final String ACCEPT_RANGES = "Accept-Ranges";
+	private static final String CONTENT_RANGE = "Content-Range";
+	private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
 	@POST
 	@Path("/sync")
 	public InfrastructureSyncDto getInfrastructureSyncData(InfrastructureChangeDatesDto changeDates) {
 		return FacadeProvider.getInfrastructureFacade().getInfrastructureSyncData(changeDates);
 	}
+
+	/**
+	 * The precomputed infrastructure snapshot for the initial synchronization of mobile devices (see
+	 * {@link InfrastructureSnapshotDto}). Supports conditional requests with If-None-Match and resuming an interrupted download with
+	 * a single byte range (Range and If-Range).
+	 *
+	 * @param regionUuid
+	 *            Optional, to only get the districts, communities, facilities and points of entry of this region.
+	 */
+	@GET
+	@Path("/snapshot")
+	@Produces(SNAPSHOT_MEDIA_TYPE)
+	public Response getInfrastructureSnapshot(
+		@QueryParam("region") String regionUuid,
+		@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+		@HeaderParam(RANGE) String range,
+		@HeaderParam(IF_RANGE) String ifRange) {
+
+		List<String> knownETags = parseETags(ifNoneMatch);
+		List<String> ifRangeETags = parseETags(ifRange);
+		// a range of another version of the snapshot would corrupt the download, so the facade sends the whole snapshot instead
+		Long[] byteRange = ifRange == null || ifRangeETags.size() == 1 ? parseByteRange(range) : null;
+		InfrastructureSnapshotDto snapshot = FacadeProvider.getInfrastructureFacade()
+			.getInfrastructureSnapshot(
+				regionUuid,
+				knownETags.size() == 1 ? knownETags.get(0) : null,
+				ifRangeETags.size() == 1 ? ifRangeETags.get(0) : null,
+				byteRange != null ? byteRange[0] : null,
+				byteRange != null ? byteRange[1] : null);
+
+		EntityTag eTag = new EntityTag(snapshot.getETag());
+		CacheControl cacheControl = new CacheControl();
+		cacheControl.setPrivate(true);
+		cacheControl.setNoCache(true);
+
+		if (snapshot.getData() == null || knownETags.contains(snapshot.getETag()) || knownETags.contains("*")) {
+			return Response.notModified(eTag).cacheControl(cacheControl).build();
+		}
+
+		byte[] data = snapshot.getData();
+		if (data.length == 0) {
+			return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+				.tag(eTag)
+				.header(CONTENT_RANGE, "bytes */" + snapshot.getTotalLength())
+				.build();
+		}
+
+		Response.ResponseBuilder response = Response.ok().tag(eTag).cacheControl(cacheControl).lastModified(snapshot.getChangeDate());
+		response.header(ACCEPT_RANGES, "bytes");
+		if (snapshot.getRangeStart() == null) {
+			return response.entity(writeBytes(data)).build();
+		}
+
+		long start = snapshot.getRangeStart();
+		long end = start + data.length - 1;
+		return response.status(Response.Status.PARTIAL_CONTENT)
+			.header(CONTENT_RANGE, "bytes " + start + "-" + end + "/" + snapshot.getTotalLength())
+			.entity(writeBytes(data))
+			.build();
+	}
+
+	private static StreamingOutput writeBytes(byte[] data) {
+		return output -> output.write(data);
+	}
+
+	/**
+	 * @return The opaque tags of the given If-None-Match or If-Range header, with weak tags compared like strong ones.
+	 */
+	static List<String> parseETags(String header) {
+
+		List<String> eTags = new ArrayList<>();
+		if (header == null) {
+			return eTags;
+		}
+
+		for (String eTag : header.split(",")) {
+			eTag = eTag.trim();
+			if (eTag.startsWith("W/")) {
+				eTag = eTag.substring(2);
+			}
+			if (eTag.length() >= 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+				eTag = eTag.substring(1, eTag.length() - 1);
+			}
+			if (!eTag.isEmpty()) {
+				eTags.add(eTag);
+			}
+		}
+		return eTags;
+	}
+
+	/**
+	 * @return The first and last byte of the requested range, where the first byte is null for a suffix range (the last n bytes) and
+	 *         the last byte is null for an open range. Null if the whole data is to be sent (no range, an invalid range or multiple
+	 *         ranges, which are not supported).
+	 */
+	static Long[] parseByteRange(String range) {
+
+		Matcher matcher = range != null ? BYTE_RANGE.matcher(range.trim()) : null;
+		if (matcher == null || !matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+			return null;
+		}
+
+		try {
+			return new Long[] {
+				matcher.group(1).isEmpty() ? null : Long.valueOf(matcher.group(1)),
+				matcher.group(2).isEmpty() ? null : Long.valueOf(matcher.group(2)) };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
 }
@@ -0,0 +1,38 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.rest;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import de.symeda.sormas.api.FacadeProvider;
+
+/**
+ * Scrape endpoint for Prometheus; the latencies, errors and SQL statements of the EJB method calls in the text exposition format.
+ */
+@Path("/metrics")
+@Produces(MediaType.TEXT_PLAIN + "; version=0.0.4; charset=UTF-8")
+@RolesAllowed("REST_USER")
+public class MetricsResource {
+
+	@GET
+	public String getMetrics() {
+		return FacadeProvider.getMetricsFacade().getPrometheusMetrics();
+	}
+}
@@ -80,7 +80,7 @@ public class PersonResource extends EntityDtoResource {
 	@POST
 	@Path("/push")
 	public List<PushResult> postPersons(@Valid List<PersonDto> dtos) {
-		return savePushedDto(dtos, FacadeProvider.getPersonFacade()::savePerson);
+		return savePushedDtoInBatches(dtos, FacadeProvider.getPersonFacade()::savePerson);
 	}
 
 	@GET
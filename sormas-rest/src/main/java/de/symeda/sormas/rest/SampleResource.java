@@ -71,7 +71,7 @@ public class SampleResource extends EntityDtoResource {
 	@POST
 	@Path("/push")
 	public List<PushResult> postSamples(@Valid List<SampleDto> dtos) {
-		List<PushResult> result = savePushedDto(dtos, FacadeProvider.getSampleFacade()::saveSample);
+		List<PushResult> result = savePushedDtoInBatches(dtos, FacadeProvider.getSampleFacade()::saveSample);
 		return result;
 	}
 
@@ -1,9 +1,13 @@
 package de.symeda.sormas.rest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
+import javax.annotation.Resource;
 import javax.annotation.security.PermitAll;
 import javax.ejb.LocalBean;
+import javax.ejb.SessionContext;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
@@ -23,6 +27,9 @@ import javax.ejb.TransactionAttributeType;
 @PermitAll
 public class TransactionWrapper {
 
+	@Resource
+	private SessionContext sessionContext;
+
 	/**
 	 * Calls the passed function in a new JTA transaction.
 	 * 
@@ -37,4 +44,30 @@ public class TransactionWrapper {
 
 		return function.apply(data);
 	}
+
+	/**
+	 * Calls the passed function for all elements in one new JTA transaction. When the function fails for one of the elements, the
+	 * transaction is rolled back for all of them. This includes application exceptions like {@code OutdatedEntityException}, which
+	 * would otherwise commit the elements processed before the failing one.
+	 * 
+	 * @param function
+	 *            The business logic to be executed.
+	 * @param data
+	 *            The data to be processed.
+	 * @return The return values of the processing defined by {@code function} in the order of {@code data}.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public <T, R> List<R> executeAll(Function<T, R> function, List<T> data) {
+
+		List<R> results = new ArrayList<>(data.size());
+		try {
+			for (T element : data) {
+				results.add(function.apply(element));
+			}
+		} catch (RuntimeException e) {
+			sessionContext.setRollbackOnly();
+			throw e;
+		}
+		return results;
+	}
 }
@@ -78,7 +78,7 @@ public class VisitResource extends EntityDtoResource {
 	@Path("/push")
 	public List<PushResult> postVisits(@Valid List<VisitDto> dtos) {
 
-		List<PushResult> result = savePushedDto(dtos, FacadeProvider.getVisitFacade()::saveVisit);
+		List<PushResult> result = savePushedDtoInBatches(dtos, FacadeProvider.getVisitFacade()::saveVisit);
 		return result;
 	}
 
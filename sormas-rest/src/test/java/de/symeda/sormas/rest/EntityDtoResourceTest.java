@@ -0,0 +1,150 @@
+package de.symeda.sormas.rest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.ejb.ApplicationException;
+import javax.ejb.SessionContext;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.sormas.api.PushResult;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.utils.OutdatedEntityException;
+import de.symeda.sormas.api.utils.ValidationRuntimeException;
+
+public class EntityDtoResourceTest {
+
+	private EntityDtoResource resource;
+
+	/**
+	 * The saves of the running transaction, written to {@link #committedSaves} on commit.
+	 */
+	private final List<String> pendingSaves = new ArrayList<>();
+	private final Map<String, Integer> committedSaves = new HashMap<>();
+	private boolean rollbackOnly;
+
+	@Before
+	public void setUp() throws IllegalAccessException {
+
+		SessionContext sessionContext = mock(SessionContext.class);
+		doAnswer(invocation -> rollbackOnly = true).when(sessionContext).setRollbackOnly();
+
+		TransactionWrapper transactionWrapper = new TestTransactionWrapper();
+		FieldUtils.writeField(transactionWrapper, "sessionContext", sessionContext, true);
+
+		resource = new EntityDtoResource() {
+		};
+		FieldUtils.writeField(resource, "transactionWrapper", transactionWrapper, true);
+	}
+
+	@Test
+	public void testSavePushedDtoInBatchesWithFailingDtosInTheMiddle() {
+
+		List<PersonDto> dtos = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			dtos.add(PersonDto.build());
+		}
+		PersonDto outdatedDto = dtos.get(1);
+		PersonDto invalidDto = dtos.get(3);
+
+		Function<PersonDto, PersonDto> save = dto -> {
+			if (dto == outdatedDto) {
+				throw new OutdatedEntityException(dto.getUuid(), PersonDto.class);
+			} else if (dto == invalidDto) {
+				throw new ValidationRuntimeException("invalid");
+			}
+			pendingSaves.add(dto.getUuid());
+			return dto;
+		};
+
+		List<PushResult> results = resource.savePushedDtoInBatches(dtos, save, dtos.size());
+
+		assertThat(results, contains(PushResult.OK, PushResult.TOO_OLD, PushResult.OK, PushResult.ERROR, PushResult.OK, PushResult.OK));
+		for (PersonDto dto : dtos) {
+			int expectedSaves = dto == outdatedDto || dto == invalidDto ? 0 : 1;
+			assertEquals(dto.getUuid(), expectedSaves, committedSaves.getOrDefault(dto.getUuid(), 0).intValue());
+		}
+	}
+
+	@Test
+	public void testSavePushedDtoInBatchesWithoutFailures() {
+
+		List<PersonDto> dtos = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			dtos.add(PersonDto.build());
+		}
+
+		List<PushResult> results = resource.savePushedDtoInBatches(dtos, dto -> {
+			pendingSaves.add(dto.getUuid());
+			return dto;
+		}, 2);
+
+		assertThat(results, contains(PushResult.OK, PushResult.OK, PushResult.OK, PushResult.OK, PushResult.OK));
+		assertEquals(5, committedSaves.size());
+	}
+
+	/**
+	 * Commits and rolls back the saves like the container does for a REQUIRES_NEW transaction: Application exceptions with
+	 * {@code rollback = false} commit the transaction unless it has been marked for rollback.
+	 */
+	private <R> R inNewTransaction(Supplier<R> work) {
+
+		pendingSaves.clear();
+		rollbackOnly = false;
+		try {
+			R result = work.get();
+			commit();
+			return result;
+		} catch (RuntimeException e) {
+			if (!rollbackOnly && !isRollbackApplicationException(e.getClass())) {
+				commit();
+			}
+			throw e;
+		}
+	}
+
+	private void commit() {
+		for (String uuid : pendingSaves) {
+			committedSaves.merge(uuid, 1, Integer::sum);
+		}
+		pendingSaves.clear();
+	}
+
+	private static boolean isRollbackApplicationException(Class<?> exceptionClass) {
+
+		for (Class<?> type = exceptionClass; type != null; type = type.getSuperclass()) {
+			ApplicationException applicationException = type.getAnnotation(ApplicationException.class);
+			if (applicationException != null) {
+				return applicationException.rollback();
+			}
+		}
+		// system exception
+		return true;
+	}
+
+	private class TestTransactionWrapper extends TransactionWrapper {
+
+		@Override
+		public <T, R> R execute(Function<T, R> function, T data) {
+			return inNewTransaction(() -> super.execute(function, data));
+		}
+
+		@Override
+		public <T, R> List<R> executeAll(Function<T, R> function, List<T> data) {
+			return inNewTransaction(() -> super.executeAll(function, data));
+		}
+	}
+}
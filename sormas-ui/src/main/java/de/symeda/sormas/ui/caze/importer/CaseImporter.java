@@ -16,7 +16,11 @@ package de.symeda.sormas.ui.caze.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -47,6 +51,7 @@ import de.symeda.sormas.ui.importer.CaseImportSimilarityInput;
 import de.symeda.sormas.ui.importer.CaseImportSimilarityResult;
 import de.symeda.sormas.ui.importer.DataImporter;
 import de.symeda.sormas.ui.importer.ImportLineResult;
+import de.symeda.sormas.ui.importer.ImportResultStatus;
 import de.symeda.sormas.ui.importer.ImportSimilarityResultOption;
 import de.symeda.sormas.ui.utils.ButtonHelper;
 import de.symeda.sormas.ui.utils.CommitDiscardWrapperComponent;
@@ -65,22 +70,51 @@ import de.symeda.sormas.ui.utils.VaadinUiUtil;
  * the data in the CSV file
  * - Save the person and case to the database (unless the case was skipped or the import
  * was canceled)
+ * 
+ * The lines are validated in parallel and the valid lines of a chunk are saved in one transaction, up to the first line
+ * with a similar person.
  */
 public class CaseImporter extends DataImporter {
 
+	/**
+	 * Number of threads that validate the chunks of the import file in parallel.
+	 */
+	private static final int VALIDATION_PARALLELISM = 4;
+
 	private UI currentUI;
 	private final CaseImportFacade caseImportFacade;
+	/**
+	 * Identifies this import to the backend, which caches the infrastructure data referenced by the lines per import.
+	 */
+	private final String importUuid = DataHelper.createUuid();
+	private final Map<ImportChunk, List<ImportLineResultDto<CaseImportEntities>>> validationResults = new ConcurrentHashMap<>();
 
 	private final PersonFacade personFacade;
 	private final CaseFacade caseFacade;
 
 	public CaseImporter(File inputFile, boolean hasEntityClassRow, UserDto currentUser) {
+		this(
+			inputFile,
+			hasEntityClassRow,
+			currentUser,
+			FacadeProvider.getCaseImportFacade(),
+			FacadeProvider.getPersonFacade(),
+			FacadeProvider.getCaseFacade());
+	}
+
+	CaseImporter(
+		File inputFile,
+		boolean hasEntityClassRow,
+		UserDto currentUser,
+		CaseImportFacade caseImportFacade,
+		PersonFacade personFacade,
+		CaseFacade caseFacade) {
 		super(inputFile, hasEntityClassRow, currentUser);
 
-		caseImportFacade = FacadeProvider.getCaseImportFacade();
+		this.caseImportFacade = caseImportFacade;
 
-		personFacade = FacadeProvider.getPersonFacade();
-		caseFacade = FacadeProvider.getCaseFacade();
+		this.personFacade = personFacade;
+		this.caseFacade = caseFacade;
 	}
 
 	@Override
@@ -91,6 +125,113 @@ public class CaseImporter extends DataImporter {
 		super.startImport(addErrorReportToLayoutCallback, currentUI, duplicatesPossible);
 	}
 
+	@Override
+	public ImportResultStatus runImport() throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		try {
+			return super.runImport();
+		} finally {
+			validationResults.clear();
+			caseImportFacade.finishImport(importUuid);
+		}
+	}
+
+	@Override
+	protected int getParallelism() {
+		return VALIDATION_PARALLELISM;
+	}
+
+	@Override
+	protected void prepareChunk(ImportChunk chunk, String[] entityClasses, String[] entityProperties, String[][] entityPropertyPaths)
+		throws InvalidColumnException {
+
+		for (String[] values : chunk.getLines()) {
+			regenerateUuid(values, entityProperties);
+		}
+
+		validationResults.put(
+			chunk,
+			caseImportFacade
+				.validateCaseData(importUuid, chunk.getLines(), entityClasses, entityProperties, entityPropertyPaths, chunk.isFirstLine(0)));
+	}
+
+	@Override
+	protected boolean importChunk(ImportChunk chunk, String[] entityClasses, String[] entityProperties, String[][] entityPropertyPaths)
+		throws IOException, InvalidColumnException, InterruptedException {
+
+		List<String[]> lines = chunk.getLines();
+		List<ImportLineResultDto<CaseImportEntities>> chunkResults = validationResults.remove(chunk);
+
+		int lineIndex = 0;
+		while (lineIndex < lines.size()) {
+			ImportLineResultDto<CaseImportEntities> validationResult = chunkResults.get(lineIndex);
+			if (validationResult.isError()) {
+				writeImportError(lines.get(lineIndex), validationResult.getMessage());
+				lineIndex++;
+				if (!onLineImported(ImportLineResult.ERROR)) {
+					return false;
+				}
+				continue;
+			}
+
+			List<CaseImportEntities> validEntities = new ArrayList<>();
+			for (int i = lineIndex; i < lines.size() && !chunkResults.get(i).isError(); i++) {
+				validEntities.add(chunkResults.get(i).getImportEntities());
+			}
+
+			boolean canceled = false;
+			for (ImportLineResultDto<CaseImportEntities> saveResult : saveValidatedEntities(validEntities)) {
+				String[] values = lines.get(lineIndex++);
+				ImportLineResult lineResult;
+				if (saveResult.isDuplicate()) {
+					if (canceled) {
+						return false;
+					}
+					lineResult = handleDuplicate(saveResult, values, entityClasses, entityPropertyPaths);
+				} else if (saveResult.isError()) {
+					writeImportError(values, saveResult.getMessage());
+					lineResult = ImportLineResult.ERROR;
+				} else {
+					lineResult = ImportLineResult.SUCCESS;
+				}
+
+				// the lines saved along with the current one are still reported when the import is canceled
+				canceled = !onLineImported(lineResult) || canceled;
+			}
+			if (canceled) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Saves the entities in one transaction. If this fails because of one of the lines, which rolls back the others as well,
+	 * the lines are saved one by one.
+	 */
+	private List<ImportLineResultDto<CaseImportEntities>> saveValidatedEntities(List<CaseImportEntities> entities) {
+
+		try {
+			return caseImportFacade.saveValidatedEntities(entities);
+		} catch (RuntimeException e) {
+			if (entities.size() == 1) {
+				throw e;
+			}
+
+			logger.warn("Saving {} imported cases in one transaction failed, saving them one by one: {}", entities.size(), e.getMessage());
+			List<ImportLineResultDto<CaseImportEntities>> results = new ArrayList<>(entities.size());
+			for (CaseImportEntities lineEntities : entities) {
+				ImportLineResultDto<CaseImportEntities> result = caseImportFacade.saveValidatedEntities(Collections.singletonList(lineEntities)).get(0);
+				results.add(result);
+				if (result.isDuplicate()) {
+					break;
+				}
+			}
+			return results;
+		}
+	}
+
 	@Override
 	protected ImportLineResult importDataFromCsvLine(
 		String[] values,
@@ -100,11 +241,7 @@ public class CaseImporter extends DataImporter {
 		boolean firstLine)
 		throws IOException, InvalidColumnException, InterruptedException {
 
-		// regenerate the UUID to prevent overwrite in case of export and import of the same entities
-		int uuidIndex = ArrayUtils.indexOf(entityProperties, CaseDataDto.UUID);
-		if (uuidIndex >= 0) {
-			values[uuidIndex] = DataHelper.createUuid();
-		}
+		regenerateUuid(values, entityProperties);
 
 		ImportLineResultDto<CaseImportEntities> importResult =
 			caseImportFacade.importCaseData(values, entityClasses, entityProperties, entityPropertyPaths, !firstLine);
@@ -113,116 +250,140 @@ public class CaseImporter extends DataImporter {
 			writeImportError(values, importResult.getMessage());
 			return ImportLineResult.ERROR;
 		} else if (importResult.isDuplicate()) {
-			CaseImportEntities entities = importResult.getImportEntities();
-			CaseDataDto importCase = entities.getCaze();
-			PersonDto importPerson = entities.getPerson();
-
-			String selectedPersonUuid = null;
-			String selectedCaseUuid = null;
-
-			CaseImportConsumer consumer = new CaseImportConsumer();
-			ImportSimilarityResultOption resultOption = null;
-
-			CaseImportLock personSelectLock = new CaseImportLock();
-			// We need to pause the current thread to prevent the import from continuing until the user has acted
-			synchronized (personSelectLock) {
-				// Call the logic that allows the user to handle the similarity; once this has been done, the LOCK should be notified
-				// to allow the importer to resume
-				handlePersonSimilarity(
-					importPerson,
-					result -> consumer.onImportResult(result, personSelectLock),
-					(person, similarityResultOption) -> new CaseImportSimilarityResult(person, null, similarityResultOption),
-					Strings.infoSelectOrCreatePersonForImport,
-					currentUI);
-
-				try {
-					if (!personSelectLock.wasNotified) {
-						personSelectLock.wait();
-					}
-				} catch (InterruptedException e) {
-					logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
-					throw e;
-				}
+			return handleDuplicate(importResult, values, entityClasses, entityPropertyPaths);
+		}
 
-				if (consumer.result != null) {
-					resultOption = consumer.result.getResultOption();
-				}
+		return ImportLineResult.SUCCESS;
+	}
+
+	private void regenerateUuid(String[] values, String[] entityProperties) {
+
+		// regenerate the UUID to prevent overwrite in case of export and import of the same entities
+		int uuidIndex = ArrayUtils.indexOf(entityProperties, CaseDataDto.UUID);
+		if (uuidIndex >= 0) {
+			values[uuidIndex] = DataHelper.createUuid();
+		}
+	}
 
-				// If the user picked an existing person, override the case person with it
-				if (ImportSimilarityResultOption.PICK.equals(resultOption)) {
-					selectedPersonUuid = consumer.result.getMatchingPerson().getUuid();
-					// Reset the importResult option for case selection
-					resultOption = null;
+	/**
+	 * Lets the user decide how to handle a line whose person is similar to an existing person, and saves it accordingly.
+	 */
+	private ImportLineResult handleDuplicate(
+		ImportLineResultDto<CaseImportEntities> importResult,
+		String[] values,
+		String[] entityClasses,
+		String[][] entityPropertyPaths)
+		throws IOException, InterruptedException, InvalidColumnException {
+
+		CaseImportEntities entities = importResult.getImportEntities();
+		CaseDataDto importCase = entities.getCaze();
+		PersonDto importPerson = entities.getPerson();
+
+		String selectedPersonUuid = null;
+		String selectedCaseUuid = null;
+
+		CaseImportConsumer consumer = new CaseImportConsumer();
+		ImportSimilarityResultOption resultOption = null;
+
+		CaseImportLock personSelectLock = new CaseImportLock();
+		// We need to pause the current thread to prevent the import from continuing until the user has acted
+		synchronized (personSelectLock) {
+			// Call the logic that allows the user to handle the similarity; once this has been done, the LOCK should be notified
+			// to allow the importer to resume
+			handlePersonSimilarity(
+				importPerson,
+				result -> consumer.onImportResult(result, personSelectLock),
+				(person, similarityResultOption) -> new CaseImportSimilarityResult(person, null, similarityResultOption),
+				Strings.infoSelectOrCreatePersonForImport,
+				currentUI);
+
+			try {
+				if (!personSelectLock.wasNotified) {
+					personSelectLock.wait();
 				}
+			} catch (InterruptedException e) {
+				logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
+				throw e;
 			}
 
-			if (ImportSimilarityResultOption.SKIP.equals(resultOption)) {
-				return ImportLineResult.SKIPPED;
-			} else {
-				final CaseImportLock caseSelectLock = new CaseImportLock();
-				synchronized (caseSelectLock) {
-					// Retrieve all similar cases from the database
-					CaseSimilarityCriteria criteria =
-						CaseSimilarityCriteria.forCase(importCase, selectedPersonUuid != null ? selectedPersonUuid : importPerson.getUuid());
-
-					List<CaseIndexDto> similarCases = caseFacade.getSimilarCases(criteria);
-
-					if (similarCases.size() > 0) {
-						// Call the logic that allows the user to handle the similarity; once this has been done, the LOCK should be notified
-						// to allow the importer to resume
-						if (selectedPersonUuid != null) {
-							importPerson = personFacade.getPersonByUuid(selectedPersonUuid);
-						}
+			if (consumer.result != null) {
+				resultOption = consumer.result.getResultOption();
+			}
 
-						handleCaseSimilarity(
-							new CaseImportSimilarityInput(importCase, importPerson, similarCases),
-							result -> consumer.onImportResult(result, caseSelectLock));
-
-						try {
-							if (!caseSelectLock.wasNotified) {
-								caseSelectLock.wait();
-							}
-						} catch (InterruptedException e) {
-							logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
-							throw e;
-						}
+			// If the user picked an existing person, override the case person with it
+			if (ImportSimilarityResultOption.PICK.equals(resultOption)) {
+				selectedPersonUuid = consumer.result.getMatchingPerson().getUuid();
+				// Reset the importResult option for case selection
+				resultOption = null;
+			}
+		}
 
-						if (consumer.result != null) {
-							resultOption = consumer.result.getResultOption();
-						}
+		if (ImportSimilarityResultOption.SKIP.equals(resultOption)) {
+			return ImportLineResult.SKIPPED;
+		} else {
+			final CaseImportLock caseSelectLock = new CaseImportLock();
+			synchronized (caseSelectLock) {
+				// Retrieve all similar cases from the database
+				CaseSimilarityCriteria criteria =
+					CaseSimilarityCriteria.forCase(importCase, selectedPersonUuid != null ? selectedPersonUuid : importPerson.getUuid());
+
+				List<CaseIndexDto> similarCases = caseFacade.getSimilarCases(criteria);
+
+				if (similarCases.size() > 0) {
+					// Call the logic that allows the user to handle the similarity; once this has been done, the LOCK should be notified
+					// to allow the importer to resume
+					if (selectedPersonUuid != null) {
+						importPerson = personFacade.getPersonByUuid(selectedPersonUuid);
+					}
+
+					handleCaseSimilarity(
+						new CaseImportSimilarityInput(importCase, importPerson, similarCases),
+						result -> consumer.onImportResult(result, caseSelectLock));
 
-						// If the user chose to override an existing case with the imported case, insert the new data into the existing case and associate the imported samples with it
-						if (resultOption == ImportSimilarityResultOption.OVERRIDE
-							&& consumer.result != null
-							&& consumer.result.getMatchingCase() != null) {
-							selectedCaseUuid = consumer.result.getMatchingCase().getUuid();
+					try {
+						if (!caseSelectLock.wasNotified) {
+							caseSelectLock.wait();
 						}
+					} catch (InterruptedException e) {
+						logger.error("InterruptedException when trying to perform LOCK.wait() in case import: " + e.getMessage());
+						throw e;
+					}
+
+					if (consumer.result != null) {
+						resultOption = consumer.result.getResultOption();
+					}
+
+					// If the user chose to override an existing case with the imported case, insert the new data into the existing case and associate the imported samples with it
+					if (resultOption == ImportSimilarityResultOption.OVERRIDE
+						&& consumer.result != null
+						&& consumer.result.getMatchingCase() != null) {
+						selectedCaseUuid = consumer.result.getMatchingCase().getUuid();
 					}
 				}
 			}
+		}
 
-			if (resultOption == ImportSimilarityResultOption.SKIP) {
-				consumer.result = null;
-				return ImportLineResult.SKIPPED;
-			} else if (resultOption == ImportSimilarityResultOption.PICK) {
-				consumer.result = null;
-				return ImportLineResult.DUPLICATE;
-			} else if (resultOption == ImportSimilarityResultOption.CANCEL) {
-				cancelImport();
-				return ImportLineResult.SKIPPED;
+		if (resultOption == ImportSimilarityResultOption.SKIP) {
+			consumer.result = null;
+			return ImportLineResult.SKIPPED;
+		} else if (resultOption == ImportSimilarityResultOption.PICK) {
+			consumer.result = null;
+			return ImportLineResult.DUPLICATE;
+		} else if (resultOption == ImportSimilarityResultOption.CANCEL) {
+			cancelImport();
+			return ImportLineResult.SKIPPED;
+		} else {
+			ImportLineResultDto<CaseImportEntities> saveResult;
+			if (selectedPersonUuid != null || selectedCaseUuid != null) {
+				saveResult =
+					caseImportFacade.updateCaseWithImportData(selectedPersonUuid, selectedCaseUuid, values, entityClasses, entityPropertyPaths);
 			} else {
-				ImportLineResultDto<CaseImportEntities> saveResult;
-				if (selectedPersonUuid != null || selectedCaseUuid != null) {
-					saveResult =
-						caseImportFacade.updateCaseWithImportData(selectedPersonUuid, selectedCaseUuid, values, entityClasses, entityPropertyPaths);
-				} else {
-					saveResult = caseImportFacade.saveImportedEntities(entities);
-				}
+				saveResult = caseImportFacade.saveImportedEntities(entities);
+			}
 
-				if (saveResult.isError()) {
-					writeImportError(values, importResult.getMessage());
-					return ImportLineResult.ERROR;
-				}
+			if (saveResult.isError()) {
+				writeImportError(values, saveResult.getMessage());
+				return ImportLineResult.ERROR;
 			}
 		}
 
@@ -32,6 +32,7 @@ import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
+import de.symeda.sormas.api.dashboard.DashboardCaseStatisticsDto;
 import de.symeda.sormas.api.dashboard.DashboardContactDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
@@ -67,7 +68,7 @@ public class DashboardDataProvider {
 
 	// disease specific
 	private List<DashboardCaseDto> cases = new ArrayList<>();
-	private List<DashboardCaseDto> previousCases = new ArrayList<>();
+	private DashboardCaseStatisticsDto caseStatistics = new DashboardCaseStatisticsDto();
 	private Map<CaseClassification, Integer> casesCountByClassification = new HashMap<>();
 	private Long outbreakDistrictCount = 0L;
 	private String lastReportedDistrict = "";
@@ -108,20 +109,6 @@ public class DashboardDataProvider {
 		setContactsPlacedInQuarantineCount(dashboardContactsPlacedInQuarantineCount);
 	}
 
-	private void refreshDataForQuarantinedCases() {
-
-		List<DashboardQuarantineDataDto> casesInQuarantineDtos = getCases().stream()
-			.map(DashboardCaseDto::getDashboardQuarantineDataDto)
-			.filter(quarantineData(fromDate, toDate))
-			.collect(Collectors.toList());
-
-		setCasesInQuarantineCount((long) casesInQuarantineDtos.size());
-
-		Long dashboardCasesPlacedInQuarantineCount = getPlacedInQuarantine(casesInQuarantineDtos);
-
-		setCasesPlacedInQuarantineCount(dashboardCasesPlacedInQuarantineCount);
-	}
-
 	private Predicate<DashboardQuarantineDataDto> quarantineData(Date fromDate, Date toDate) {
 		return p -> {
 			Date quarantineFrom = p.getQuarantineFrom();
@@ -179,9 +166,7 @@ public class DashboardDataProvider {
 				FacadeProvider.getContactFacade().getContactsForDashboard(region, district, disease, previousFromDate, previousToDate));
 
 			this.refreshDataForQuarantinedContacts();
-		}
 
-		if (getDashboardType() == DashboardType.CONTACTS || this.disease != null) {
 			// Cases
 			DashboardCriteria dashboardCriteria = new DashboardCriteria().region(region)
 				.district(district)
@@ -189,23 +174,30 @@ public class DashboardDataProvider {
 				.newCaseDateType(newCaseDateType)
 				.dateBetween(fromDate, toDate);
 			setCases(FacadeProvider.getDashboardFacade().getCases(dashboardCriteria));
-			setLastReportedDistrict(FacadeProvider.getDashboardFacade().getLastReportedDistrictName(dashboardCriteria));
-
-			dashboardCriteria.dateBetween(previousFromDate, previousToDate);
-			setPreviousCases(FacadeProvider.getDashboardFacade().getCases(dashboardCriteria));
-
-			if (getDashboardType() != DashboardType.CONTACTS) {
-				setTestResultCountByResultType(FacadeProvider.getDashboardFacade().getTestResultCountByResultType(getCases()));
-			}
-
-			dashboardCriteria.dateBetween(fromDate, toDate).includeNotACaseClassification(true);
-			setCasesCountByClassification(FacadeProvider.getDashboardFacade().getCasesCountByClassification(dashboardCriteria));
+			return;
 		}
 
-		if (this.disease == null || getDashboardType() == DashboardType.CONTACTS) {
+		if (this.disease == null) {
 			return;
 		}
 
+		// Cases
+		DashboardCaseStatisticsDto caseStatistics = FacadeProvider.getDashboardFacade()
+			.getCaseStatistics(
+				new DashboardCriteria().region(region)
+					.district(district)
+					.disease(disease)
+					.newCaseDateType(newCaseDateType)
+					.dateBetween(fromDate, toDate),
+				previousFromDate,
+				previousToDate);
+		setCaseStatistics(caseStatistics);
+		setLastReportedDistrict(caseStatistics.getLastReportedDistrictName());
+		setTestResultCountByResultType(caseStatistics.getTestResultCountByResultType());
+		setCasesCountByClassification(caseStatistics.getCaseCountByClassification());
+		setCasesInQuarantineCount(caseStatistics.getCasesInQuarantineCount());
+		setCasesPlacedInQuarantineCount(caseStatistics.getCasesPlacedInQuarantineCount());
+
 		// Events
 		DashboardCriteria dashboardCriteria =
 			new DashboardCriteria().region(region).district(district).disease(disease).dateBetween(fromDate, toDate);
@@ -217,7 +209,6 @@ public class DashboardDataProvider {
 				.getOutbreakDistrictCount(
 					new OutbreakCriteria().region(region).district(district).disease(disease).reportedBetween(fromDate, toDate)));
 
-		refreshDataForQuarantinedCases();
 		refreshDataForConvertedContactsToCase();
 	}
 
@@ -229,12 +220,12 @@ public class DashboardDataProvider {
 		this.cases = cases;
 	}
 
-	public List<DashboardCaseDto> getPreviousCases() {
-		return previousCases;
+	public DashboardCaseStatisticsDto getCaseStatistics() {
+		return caseStatistics;
 	}
 
-	public void setPreviousCases(List<DashboardCaseDto> previousCases) {
-		this.previousCases = previousCases;
+	public void setCaseStatistics(DashboardCaseStatisticsDto caseStatistics) {
+		this.caseStatistics = caseStatistics;
 	}
 
 	public Map<CaseClassification, Integer> getCasesCountByClassification() {
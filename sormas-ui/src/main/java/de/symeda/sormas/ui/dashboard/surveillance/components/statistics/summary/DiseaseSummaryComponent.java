@@ -51,7 +51,7 @@ public class DiseaseSummaryComponent extends DashboardStatisticsSubComponent {
 	}
 
 	public void update(DashboardDataProvider dashboardDataProvider) {
-		fatalitiesSummaryElementComponent.update(dashboardDataProvider.getCases(), dashboardDataProvider.getPreviousCases());
+		fatalitiesSummaryElementComponent.update(dashboardDataProvider.getCaseStatistics());
 
 		String district = dashboardDataProvider.getLastReportedDistrict();
 		lastReportedDistrict.updateTotalLabel(DataHelper.isNullOrEmpty(district) ? I18nProperties.getString(Strings.none).toUpperCase() : district);
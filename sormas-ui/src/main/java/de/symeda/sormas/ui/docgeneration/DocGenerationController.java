@@ -16,13 +16,11 @@
 package de.symeda.sormas.ui.docgeneration;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import com.vaadin.server.Sizeable;
 import com.vaadin.ui.Window;
@@ -59,28 +57,12 @@ public class DocGenerationController {
 		showDialog(new QuarantineOrderLayout(workflow, null, (templateFile, sample, pathogenTest, extraProperties) -> {
 			QuarantineOrderFacade quarantineOrderFacade = FacadeProvider.getQuarantineOrderFacade();
 
-			Map<ReferenceDto, byte[]> generatedDocumentContents =
-				quarantineOrderFacade.getGeneratedDocuments(templateFile, workflow, referenceDtos, extraProperties);
-
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-
-				for (Map.Entry<ReferenceDto, byte[]> referenceDocumentContent : generatedDocumentContents.entrySet()) {
-					ZipEntry entry = new ZipEntry(getDocumentFileName(referenceDocumentContent.getKey(), templateFile));
-					zos.putNextEntry(entry);
-
-					zos.write(referenceDocumentContent.getValue());
-					zos.closeEntry();
-				}
-
-				zos.finish();
-				zos.flush();
-
-				return new ByteArrayInputStream(baos.toByteArray());
+			try {
+				String zipPath = quarantineOrderFacade.generateDocumentsZip(templateFile, workflow, referenceDtos, extraProperties);
+				return Files.newInputStream(Paths.get(zipPath));
 			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
-
 		}, (templateFile) -> filename));
 	}
 
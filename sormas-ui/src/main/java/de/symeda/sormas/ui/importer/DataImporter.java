@@ -17,9 +17,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -74,11 +84,24 @@ import de.symeda.sormas.ui.utils.VaadinUiUtil;
  * 2) Read the header row(s) from the CSV and build a list of properties based on its columns
  * 3) Insert every line of data into the object using a callback
  * 4) Present the result of the import and, if errors occurred, an error report file to the user
+ * 
+ * The lines are read by a separate thread in chunks of {@link #CHUNK_SIZE} lines. Sub classes can prepare chunks in parallel on
+ * {@link #getParallelism()} threads, e.g. to validate them, while the chunks are always imported one after the other in the order
+ * of the file.
  */
 public abstract class DataImporter {
 
 	protected static final String ERROR_COLUMN_NAME = I18nProperties.getCaption(Captions.importErrorDescription);
 
+	/**
+	 * Number of lines that are read, prepared and imported together.
+	 */
+	protected static final int CHUNK_SIZE = 100;
+	/**
+	 * Number of chunks the reader thread reads ahead of the import.
+	 */
+	private static final int READ_AHEAD_CHUNKS = 8;
+
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
@@ -103,11 +126,15 @@ public abstract class DataImporter {
 	/**
 	 * Whether the import should be canceled after the current line.
 	 */
-	private boolean cancelAfterCurrent;
+	private volatile boolean cancelAfterCurrent;
 	/**
 	 * Whether or not the current import has resulted in at least one error.
 	 */
 	private boolean hasImportError;
+	/**
+	 * Number of lines that have been processed by the current import.
+	 */
+	private int importedLineCount;
 	/**
 	 * CSV separator used in the file
 	 */
@@ -224,6 +251,7 @@ public abstract class DataImporter {
 		logger.debug("runImport - {}", inputFile.getAbsolutePath());
 
 		long t0 = System.currentTimeMillis();
+		importedLineCount = 0;
 
 		try (CSVReader csvReader = getCSVReader(inputFile)) {
 			errorReportCsvWriter = CSVUtils.createCSVWriter(createErrorReportWriter(), this.csvSeparator);
@@ -252,26 +280,17 @@ public abstract class DataImporter {
 			}
 			errorReportCsvWriter.writeNext(columnNames);
 
-			// Read and import all lines from the import file
-			String[] nextLine = readNextValidLine(csvReader);
-			int lineCounter = 0;
-			while (nextLine != null) {
-				ImportLineResult lineResult = importDataFromCsvLine(nextLine, entityClasses, entityProperties, entityPropertyPaths, lineCounter == 0);
-				logger.debug("runImport - line {}", lineCounter);
-				if (importedLineCallback != null) {
-					importedLineCallback.accept(lineResult);
-				}
-				if (cancelAfterCurrent) {
-					break;
-				}
-				nextLine = readNextValidLine(csvReader);
-				lineCounter++;
-			}
+			// Read, prepare and import all lines from the import file
+			importChunks(csvReader, entityClasses, entityProperties, entityPropertyPaths);
 
 			if (logger.isDebugEnabled()) {
 				logger.debug("runImport - done");
 				long dt = System.currentTimeMillis() - t0;
-				logger.debug("import of {} lines took {} ms ({} ms/line)", lineCounter, dt, lineCounter > 0 ? dt / lineCounter : -1);
+				logger.debug(
+					"import of {} lines took {} ms ({} ms/line)",
+					importedLineCount,
+					dt,
+					importedLineCount > 0 ? dt / importedLineCount : -1);
 			}
 
 			if (cancelAfterCurrent) {
@@ -292,6 +311,128 @@ public abstract class DataImporter {
 		}
 	}
 
+	private void importChunks(CSVReader csvReader, String[] entityClasses, String[] entityProperties, String[][] entityPropertyPaths)
+		throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		int parallelism = getParallelism();
+		ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism, runnable -> new Thread(() -> {
+			I18nProperties.setUserLanguage(currentUser.getLanguage());
+			FacadeProvider.getI18nFacade().setUserLanguage(currentUser.getLanguage());
+			runnable.run();
+		})) : null;
+
+		ChunkReader chunkReader = new ChunkReader(csvReader);
+		Thread readerThread = new Thread(chunkReader);
+		readerThread.start();
+
+		// The chunks that are being prepared, in the order of the file
+		Deque<DataHelper.Pair<ImportChunk, Future<Void>>> preparedChunks = new ArrayDeque<>();
+		try {
+			boolean endOfFile = false;
+			while (true) {
+				while (!endOfFile && preparedChunks.size() < Math.max(1, 2 * parallelism)) {
+					ImportChunk chunk = chunkReader.nextChunk();
+					if (chunk == null) {
+						endOfFile = true;
+						break;
+					}
+
+					FutureTask<Void> preparation = new FutureTask<>(() -> {
+						prepareChunk(chunk, entityClasses, entityProperties, entityPropertyPaths);
+						return null;
+					});
+					if (executor != null) {
+						executor.execute(preparation);
+					} else {
+						preparation.run();
+					}
+					preparedChunks.add(DataHelper.Pair.createPair(chunk, preparation));
+				}
+
+				DataHelper.Pair<ImportChunk, Future<Void>> preparedChunk = preparedChunks.poll();
+				if (preparedChunk == null) {
+					break;
+				}
+
+				try {
+					preparedChunk.getElement1().get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof InvalidColumnException) {
+						throw (InvalidColumnException) cause;
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					} else {
+						throw new RuntimeException(cause);
+					}
+				}
+
+				if (!importChunk(preparedChunk.getElement0(), entityClasses, entityProperties, entityPropertyPaths)) {
+					break;
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			readerThread.interrupt();
+			readerThread.join();
+		}
+	}
+
+	/**
+	 * @return The number of threads that prepare chunks in parallel by calling
+	 *         {@link #prepareChunk(ImportChunk, String[], String[], String[][])}. If this is 1, the chunks are prepared by the import
+	 *         thread itself.
+	 */
+	protected int getParallelism() {
+		return 1;
+	}
+
+	/**
+	 * Called for every chunk before it is imported, concurrently for several chunks if {@link #getParallelism()} is greater than 1.
+	 * Must not write to the error report or interact with the user, which is done by
+	 * {@link #importChunk(ImportChunk, String[], String[], String[][])}.
+	 */
+	protected void prepareChunk(ImportChunk chunk, String[] entityClasses, String[] entityProperties, String[][] entityPropertyPaths)
+		throws InvalidColumnException {
+	}
+
+	/**
+	 * Imports the lines of a prepared chunk. The chunks are imported one after the other in the order of the import file.
+	 * 
+	 * @return false if the import has been canceled.
+	 */
+	protected boolean importChunk(ImportChunk chunk, String[] entityClasses, String[] entityProperties, String[][] entityPropertyPaths)
+		throws IOException, InvalidColumnException, InterruptedException {
+
+		for (int i = 0; i < chunk.getLines().size(); i++) {
+			ImportLineResult lineResult =
+				importDataFromCsvLine(chunk.getLines().get(i), entityClasses, entityProperties, entityPropertyPaths, chunk.isFirstLine(i));
+			if (!onLineImported(lineResult)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Has to be called by {@link #importChunk(ImportChunk, String[], String[], String[][])} for every processed line.
+	 * 
+	 * @return false if the import has been canceled.
+	 */
+	protected boolean onLineImported(ImportLineResult lineResult) {
+
+		logger.debug("runImport - line {}", importedLineCount);
+		importedLineCount++;
+		if (importedLineCallback != null) {
+			importedLineCallback.accept(lineResult);
+		}
+		return !cancelAfterCurrent;
+	}
+
 	public void cancelImport() {
 		cancelAfterCurrent = true;
 	}
@@ -334,7 +475,7 @@ public abstract class DataImporter {
 		return importFileLength;
 	}
 
-	private CSVReader getCSVReader(File inputFile) throws IOException {
+	protected CSVReader getCSVReader(File inputFile) throws IOException {
 		CharsetDecoder decoder = CharsetHelper.getDecoder(inputFile);
 		InputStream inputStream = Files.newInputStream(inputFile.toPath());
 		BOMInputStream bomInputStream = new BOMInputStream(inputStream);
@@ -654,6 +795,104 @@ public abstract class DataImporter {
 		return nextValidLine;
 	}
 
+	/**
+	 * Consecutive lines of the import file.
+	 */
+	protected static final class ImportChunk {
+
+		private final List<String[]> lines;
+		private final int firstLineIndex;
+
+		private ImportChunk(List<String[]> lines, int firstLineIndex) {
+			this.lines = lines;
+			this.firstLineIndex = firstLineIndex;
+		}
+
+		public List<String[]> getLines() {
+			return lines;
+		}
+
+		/**
+		 * @return Whether the line at the given index of this chunk is the first data line in the document.
+		 */
+		public boolean isFirstLine(int index) {
+			return firstLineIndex + index == 0;
+		}
+	}
+
+	/**
+	 * Reads the data lines of the import file in chunks ahead of the import, so that the import does not have to wait for the file.
+	 */
+	private class ChunkReader implements Runnable {
+
+		private final ImportChunk endOfFile = new ImportChunk(Collections.emptyList(), -1);
+
+		private final CSVReader csvReader;
+		private final BlockingQueue<ImportChunk> chunks = new ArrayBlockingQueue<>(READ_AHEAD_CHUNKS);
+		private volatile Throwable readException;
+
+		private ChunkReader(CSVReader csvReader) {
+			this.csvReader = csvReader;
+		}
+
+		@Override
+		public void run() {
+
+			try {
+				int lineIndex = 0;
+				List<String[]> lines = new ArrayList<>(CHUNK_SIZE);
+				String[] nextLine = readNextValidLine(csvReader);
+				while (nextLine != null) {
+					lines.add(nextLine);
+					if (lines.size() == CHUNK_SIZE) {
+						chunks.put(new ImportChunk(lines, lineIndex));
+						lineIndex += lines.size();
+						lines = new ArrayList<>(CHUNK_SIZE);
+					}
+					nextLine = readNextValidLine(csvReader);
+				}
+				if (!lines.isEmpty()) {
+					chunks.put(new ImportChunk(lines, lineIndex));
+				}
+			} catch (InterruptedException e) {
+				// the import has been finished before the whole file has been read
+				return;
+			} catch (Throwable t) {
+				// also errors, because the import waits for the end of the file
+				readException = t;
+			}
+
+			try {
+				chunks.put(endOfFile);
+			} catch (InterruptedException e) {
+				// the import has been finished in the meantime
+			}
+		}
+
+		/**
+		 * @return The next chunk of the file, or null if the whole file has been read.
+		 */
+		private ImportChunk nextChunk() throws IOException, CsvValidationException, InterruptedException {
+
+			ImportChunk chunk = chunks.take();
+			if (chunk == endOfFile) {
+				// keep returning null when called again
+				chunks.offer(endOfFile);
+				if (readException instanceof IOException) {
+					throw (IOException) readException;
+				} else if (readException instanceof CsvValidationException) {
+					throw (CsvValidationException) readException;
+				} else if (readException instanceof Error) {
+					throw (Error) readException;
+				} else if (readException != null) {
+					throw (RuntimeException) readException;
+				}
+				return null;
+			}
+			return chunk;
+		}
+	}
+
 	public void setCsvSeparator(char csvSeparator) {
 		this.csvSeparator = csvSeparator;
 	}
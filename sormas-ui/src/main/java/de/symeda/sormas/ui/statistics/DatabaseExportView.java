@@ -37,6 +37,7 @@ import com.vaadin.ui.themes.ValoTheme;
 import com.vaadin.v7.ui.CheckBox;
 
 import de.symeda.sormas.api.i18n.Captions;
+import de.symeda.sormas.api.i18n.Descriptions;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.importexport.DatabaseTable;
@@ -44,6 +45,7 @@ import de.symeda.sormas.api.importexport.DatabaseTableType;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.utils.ButtonHelper;
 import de.symeda.sormas.ui.utils.CssStyles;
+import de.symeda.sormas.ui.utils.DateTimeField;
 import de.symeda.sormas.ui.utils.DownloadUtil;
 
 public class DatabaseExportView extends AbstractStatisticsView {
@@ -54,6 +56,7 @@ public class DatabaseExportView extends AbstractStatisticsView {
 
 	private VerticalLayout databaseExportLayout;
 	private Map<CheckBox, DatabaseTable> databaseTableToggles;
+	private DateTimeField changedSinceField;
 
 	public DatabaseExportView() {
 
@@ -73,6 +76,11 @@ public class DatabaseExportView extends AbstractStatisticsView {
 		databaseExportLayout.addComponent(headerLayout);
 		databaseExportLayout.addComponent(createDatabaseTablesLayout());
 
+		changedSinceField = new DateTimeField();
+		changedSinceField.setCaption(I18nProperties.getCaption(Captions.exportChangedSince));
+		changedSinceField.setDescription(I18nProperties.getDescription(Descriptions.descExportChangedSince));
+		databaseExportLayout.addComponent(changedSinceField);
+
 		Button exportButton = ButtonHelper.createIconButton(Captions.export, VaadinIcons.DOWNLOAD, null, ValoTheme.BUTTON_PRIMARY);
 
 		StreamResource streamResource = DownloadUtil
@@ -209,4 +217,11 @@ public class DatabaseExportView extends AbstractStatisticsView {
 	public Map<CheckBox, DatabaseTable> getDatabaseTableToggles() {
 		return databaseTableToggles;
 	}
+
+	/**
+	 * @return If set, only data changed after this date is exported. Deleted rows are not part of such an export.
+	 */
+	public Date getChangedSince() {
+		return changedSinceField.getValue();
+	}
 }
@@ -30,6 +30,7 @@ import de.symeda.sormas.api.epidata.EpiDataDto;
 import de.symeda.sormas.api.hospitalization.HospitalizationDto;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.person.PersonDto;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
@@ -42,11 +43,18 @@ public class CaseDownloadUtil {
 		CaseExportType exportType,
 		ExportConfigurationDto exportConfiguration) {
 
-		return DownloadUtil.createCsvExportStreamResource(
+		return DownloadUtil.createKeysetPagedCsvExportStreamResource(
 			CaseExportDto.class,
 			exportType,
-			(Integer start, Integer max) -> FacadeProvider.getCaseFacade()
-				.getExportList(criteria, selectedRows.get(), exportType, start, max, exportConfiguration, I18nProperties.getUserLanguage()),
+			(CaseExportDto lastRow, Integer max) -> FacadeProvider.getCaseFacade()
+				.getExportList(
+					criteria,
+					selectedRows.get(),
+					exportType,
+					lastRow != null ? new ExportCursor(lastRow.getReportDate(), lastRow.getUuid()) : null,
+					max,
+					exportConfiguration,
+					I18nProperties.getUserLanguage()),
 			CaseDownloadUtil::captionProvider,
 			ExportEntityName.CASES,
 			exportConfiguration);
@@ -30,6 +30,7 @@ import de.symeda.sormas.api.epidata.EpiDataDto;
 import de.symeda.sormas.api.hospitalization.HospitalizationDto;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.person.PersonDto;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
@@ -40,11 +41,17 @@ public class ContactDownloadUtil {
 		ContactCriteria contactCriteria,
 		Supplier<Collection<String>> selectedRows,
 		ExportConfigurationDto exportConfiguration) {
-		return DownloadUtil.createCsvExportStreamResource(
+		return DownloadUtil.createKeysetPagedCsvExportStreamResource(
 			ContactExportDto.class,
 			null,
-			(Integer start, Integer max) -> FacadeProvider.getContactFacade()
-				.getExportList(contactCriteria, selectedRows.get(), start, max, exportConfiguration, I18nProperties.getUserLanguage()),
+			(ContactExportDto lastRow, Integer max) -> FacadeProvider.getContactFacade()
+				.getExportList(
+					contactCriteria,
+					selectedRows.get(),
+					lastRow != null ? new ExportCursor(lastRow.getReportDate(), lastRow.getUuid()) : null,
+					max,
+					exportConfiguration,
+					I18nProperties.getUserLanguage()),
 			ContactDownloadUtil::captionProvider,
 			ExportEntityName.CONTACTS,
 			exportConfiguration);
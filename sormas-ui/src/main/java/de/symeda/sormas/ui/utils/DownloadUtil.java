@@ -25,10 +25,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -69,6 +72,7 @@ import com.vaadin.v7.ui.Grid.Column;
 
 import de.symeda.sormas.api.AgeGroup;
 import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.caze.CaseCriteria;
 import de.symeda.sormas.api.caze.CaseExportType;
 import de.symeda.sormas.api.clinicalcourse.ClinicalVisitDto;
@@ -117,10 +121,11 @@ public final class DownloadUtil {
 					tablesToExport.add(databaseToggles.get(checkBox));
 				}
 			}
+			Date changedSince = databaseExportView.getChangedSince();
 			return new DelayedInputStream(() -> {
 
 				try {
-					String zipPath = FacadeProvider.getExportFacade().generateDatabaseExportArchive(tablesToExport);
+					String zipPath = FacadeProvider.getExportFacade().generateDatabaseExportArchive(tablesToExport, changedSince);
 					return new BufferedInputStream(Files.newInputStream(new File(zipPath).toPath()));
 				} catch (IOException | ExportErrorException e) {
 					LoggerFactory.getLogger(DownloadUtil.class).error(e.getMessage(), e);
@@ -470,6 +475,107 @@ public final class DownloadUtil {
 		}
 	}
 
+	/**
+	 * Streams the content written by the osConsumer without buffering it completely: The content is produced by a separate thread
+	 * and piped to the reader, so the download starts with the first written bytes and memory usage does not grow with the
+	 * size of the content.
+	 */
+	public static class PipedDelayedInputStream extends DelayedInputStream {
+
+		private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
+		public PipedDelayedInputStream(OutputStreamConsumer osConsumer, Consumer<IOException> exceptionHandler) {
+			super(() -> {
+				Language userLanguage = I18nProperties.getUserLanguage();
+				ProducerPipedInputStream in = new ProducerPipedInputStream(PIPE_BUFFER_SIZE, exceptionHandler);
+				PipedOutputStream out;
+				try {
+					out = new PipedOutputStream(in);
+				} catch (IOException e) {
+					exceptionHandler.accept(e);
+					throw new UncheckedIOException(e);
+				}
+
+				Thread producerThread = new Thread(() -> {
+					I18nProperties.setUserLanguage(userLanguage);
+					try {
+						// the pipe is only closed after a failure has been reported to the reader
+						osConsumer.writeTo(new FilterOutputStream(out) {
+
+							@Override
+							public void write(byte[] b, int off, int len) throws IOException {
+								out.write(b, off, len);
+							}
+
+							@Override
+							public void close() throws IOException {
+								flush();
+							}
+						});
+					} catch (Exception e) {
+						in.producerFailed(e);
+					} finally {
+						try {
+							out.close();
+						} catch (IOException e) {
+							LoggerFactory.getLogger(DownloadUtil.class).warn("Could not close export pipe", e);
+						}
+					}
+				});
+				producerThread.setDaemon(true);
+				producerThread.start();
+
+				return in;
+			});
+		}
+	}
+
+	/**
+	 * Hands failures of the producing thread over to the reading thread once all written content has been read.
+	 */
+	private static class ProducerPipedInputStream extends PipedInputStream {
+
+		private final Consumer<IOException> exceptionHandler;
+		private volatile Exception producerException;
+
+		public ProducerPipedInputStream(int pipeSize, Consumer<IOException> exceptionHandler) {
+			super(pipeSize);
+			this.exceptionHandler = exceptionHandler;
+		}
+
+		public void producerFailed(Exception e) {
+			producerException = e;
+		}
+
+		@Override
+		public synchronized int read() throws IOException {
+			int b = super.read();
+			if (b == -1) {
+				checkProducer();
+			}
+			return b;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			int length = super.read(b, off, len);
+			if (length == -1) {
+				checkProducer();
+			}
+			return length;
+		}
+
+		private void checkProducer() throws IOException {
+			Exception e = producerException;
+			if (e != null) {
+				producerException = null;
+				IOException ioException = e instanceof IOException ? (IOException) e : new IOException(e);
+				exceptionHandler.accept(ioException);
+				throw ioException;
+			}
+		}
+	}
+
 	public static StreamResource createVisitsExportStreamResource(
 		ContactCriteria contactCriteria,
 		Supplier<Set<String>> selectedRows,
@@ -595,6 +701,54 @@ public final class DownloadUtil {
 		return extendedStreamResource;
 	}
 
+	/**
+	 * Same as {@link #createCsvExportStreamResource(Class, Enum, CsvStreamUtils.SupplierBiFunction, CsvStreamUtils.SupplierBiFunction, ExportEntityName, ExportConfigurationDto)},
+	 * but the rows are fetched by keyset pagination and written straight to the download without buffering the whole file.
+	 *
+	 * @param exportRowsAfterSupplier
+	 *            Supplies the next rows after the given last row of the previous page (null for the first page).
+	 */
+	public static <T> StreamResource createKeysetPagedCsvExportStreamResource(
+		Class<T> exportRowClass,
+		Enum<?> exportType,
+		CsvStreamUtils.SupplierBiFunction<T, Integer, List<T>> exportRowsAfterSupplier,
+		CsvStreamUtils.SupplierBiFunction<String, Class<?>, String> propertyIdCaptionFunction,
+		ExportEntityName entityName,
+		ExportConfigurationDto exportConfiguration) {
+
+		String exportFileName = createFileNameWithCurrentDate(entityName, ".csv");
+		StreamResource extendedStreamResource = new StreamResource(() -> new PipedDelayedInputStream((out) -> {
+			try {
+				CsvStreamUtils.writeKeysetPagedCsvContentToStream(
+					exportRowClass,
+					exportRowsAfterSupplier,
+					propertyIdCaptionFunction,
+					exportConfiguration,
+					(o) -> exportType == null || hasExportTarget(exportType, (Method) o),
+					FacadeProvider.getConfigFacade(),
+					out);
+			} catch (Exception e) {
+				LoggerFactory.getLogger(DownloadUtil.class).error(e.getMessage(), e);
+
+				throw e;
+			}
+		}, e -> {
+			// Headers have already been sent at this point, so the download ends prematurely and the user is notified
+			VaadinSession session = VaadinSession.getCurrent();
+			if (session != null) {
+				session.access(
+					() -> new Notification(
+						I18nProperties.getString(Strings.headingExportFailed),
+						I18nProperties.getString(Strings.messageExportFailed),
+						Type.ERROR_MESSAGE,
+						false).show(Page.getCurrent()));
+			}
+		}), exportFileName);
+		extendedStreamResource.setMIMEType("text/csv");
+		extendedStreamResource.setCacheTime(0);
+		return extendedStreamResource;
+	}
+
 	@SuppressWarnings("rawtypes")
 	private static boolean hasExportTarget(Enum<?> exportType, Method m) {
 
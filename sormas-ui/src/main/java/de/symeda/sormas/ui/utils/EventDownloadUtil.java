@@ -31,6 +31,7 @@ import de.symeda.sormas.api.event.EventExportDto;
 import de.symeda.sormas.api.event.EventIndexDto;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.importexport.ExportConfigurationDto;
+import de.symeda.sormas.api.importexport.ExportCursor;
 import de.symeda.sormas.api.location.LocationDto;
 
 public class EventDownloadUtil {
@@ -40,11 +41,15 @@ public class EventDownloadUtil {
           Supplier<Collection<String>> selectedRows,
           ExportConfigurationDto exportConfiguration) {
 
-        return DownloadUtil.createCsvExportStreamResource(
+        return DownloadUtil.createKeysetPagedCsvExportStreamResource(
               EventExportDto.class,
               null,
-              (Integer start, Integer max) -> FacadeProvider.getEventFacade()
-                    .getExportList(criteria, selectedRows.get(), start, max),
+              (EventExportDto lastRow, Integer max) -> FacadeProvider.getEventFacade()
+                    .getExportList(
+                          criteria,
+                          selectedRows.get(),
+                          lastRow != null ? new ExportCursor(lastRow.getReportDateTime(), lastRow.getUuid()) : null,
+                          max),
               EventDownloadUtil::captionProvider,
               ExportEntityName.EVENTS,
               exportConfiguration);
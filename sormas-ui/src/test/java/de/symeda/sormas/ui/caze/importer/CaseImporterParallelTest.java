@@ -0,0 +1,311 @@
+package de.symeda.sormas.ui.caze.importer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.vaadin.ui.UI;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseFacade;
+import de.symeda.sormas.api.caze.caseimport.CaseImportEntities;
+import de.symeda.sormas.api.caze.caseimport.CaseImportFacade;
+import de.symeda.sormas.api.importexport.ImportLineResultDto;
+import de.symeda.sormas.api.importexport.InvalidColumnException;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.PersonFacade;
+import de.symeda.sormas.api.person.SimilarPersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.CSVUtils;
+import de.symeda.sormas.ui.AbstractBeanTest;
+import de.symeda.sormas.ui.importer.CaseImportSimilarityInput;
+import de.symeda.sormas.ui.importer.CaseImportSimilarityResult;
+import de.symeda.sormas.ui.importer.ImportResultStatus;
+import de.symeda.sormas.ui.importer.ImportSimilarityResultOption;
+import de.symeda.sormas.ui.importer.PersonImportSimilarityResult;
+
+/**
+ * Tests the parallel validation and the batch saving of {@link CaseImporter} with a mocked {@link CaseImportFacade}. The lines of
+ * the import files only contain an epid number, which is used to identify the lines in the validated entities.
+ */
+// Using Silent Runner to ignore unnecessary stubbing exception
+// which is a side effect of extending AbstractBeanTest
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CaseImporterParallelTest extends AbstractBeanTest {
+
+	private static final Pattern INVALID_LINE = Pattern.compile("invalid (E-\\d+)");
+
+	private UserDto user;
+	private CaseImportFacade caseImportFacade;
+	private CaseFacade caseFacade;
+
+	/**
+	 * The epid numbers of the saved lines in the order they have been saved.
+	 */
+	private final List<String> savedLines = new ArrayList<>();
+
+	@Before
+	public void setUpFacades() {
+
+		user = creator.createUser(null, null, null, "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		caseImportFacade = mock(CaseImportFacade.class);
+		caseFacade = mock(CaseFacade.class);
+
+		// every 7th line is invalid; the validation of the first chunk takes longest so that the chunks are not validated in order
+		when(caseImportFacade.validateCaseData(anyString(), anyList(), any(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+			List<String[]> lines = invocation.getArgument(1);
+			boolean containsFirstLine = invocation.getArgument(5);
+			if (containsFirstLine) {
+				Thread.sleep(200);
+			}
+			return lines.stream().map(line -> {
+				if (getLineNumber(line[0]) % 7 == 0) {
+					return ImportLineResultDto.<CaseImportEntities> errorResult("invalid " + line[0]);
+				}
+				return ImportLineResultDto.successResult(createEntities(line[0]));
+			}).collect(Collectors.toList());
+		});
+		when(caseImportFacade.saveValidatedEntities(anyList())).thenAnswer(invocation -> {
+			List<CaseImportEntities> entities = invocation.getArgument(0);
+			return entities.stream().map(this::save).collect(Collectors.toList());
+		});
+	}
+
+	@Test
+	public void testErrorLinesAreReportedInFileOrder() throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		File csvFile = createImportFile(350);
+		ParallelCaseImporter caseImporter = new ParallelCaseImporter(csvFile);
+
+		assertEquals(ImportResultStatus.COMPLETED_WITH_ERRORS, caseImporter.runImport());
+
+		List<String> expectedErrorLines = new ArrayList<>();
+		List<String> expectedSavedLines = new ArrayList<>();
+		for (int i = 1; i <= 350; i++) {
+			(i % 7 == 0 ? expectedErrorLines : expectedSavedLines).add(getEpidNumber(i));
+		}
+		assertEquals(expectedErrorLines, caseImporter.getErrorLines());
+		assertEquals(expectedSavedLines, savedLines);
+		verify(caseImportFacade).finishImport(anyString());
+	}
+
+	@Test
+	public void testDuplicateInTheMiddleOfABatch() throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		when(caseImportFacade.saveValidatedEntities(anyList())).thenAnswer(invocation -> {
+			List<CaseImportEntities> entities = invocation.getArgument(0);
+			List<ImportLineResultDto<CaseImportEntities>> results = new ArrayList<>();
+			for (CaseImportEntities lineEntities : entities) {
+				if (getEpidNumber(3).equals(lineEntities.getCaze().getEpidNumber())) {
+					results.add(ImportLineResultDto.duplicateResult(lineEntities));
+					break;
+				}
+				results.add(save(lineEntities));
+			}
+			return results;
+		});
+		when(caseImportFacade.saveImportedEntities(any())).thenAnswer(invocation -> save(invocation.getArgument(0)));
+		when(caseFacade.getSimilarCases(any())).thenReturn(Collections.emptyList());
+
+		File csvFile = createImportFile(6);
+		ParallelCaseImporter caseImporter = new ParallelCaseImporter(csvFile);
+
+		assertEquals(ImportResultStatus.COMPLETED, caseImporter.runImport());
+
+		// the duplicate is created after the user decision, the following lines are saved in the next batch
+		assertThat(savedLines, contains(getEpidNumber(1), getEpidNumber(2), getEpidNumber(3), getEpidNumber(4), getEpidNumber(5), getEpidNumber(6)));
+		verify(caseImportFacade).saveValidatedEntities(batchOf(1, 2, 3, 4, 5, 6));
+		verify(caseImportFacade).saveValidatedEntities(batchOf(4, 5, 6));
+	}
+
+	@Test
+	public void testFallbackToSingleLinesWhenBatchFails()
+		throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		when(caseImportFacade.saveValidatedEntities(anyList())).thenAnswer(invocation -> {
+			List<CaseImportEntities> entities = invocation.getArgument(0);
+			if (entities.size() > 1) {
+				throw new RuntimeException("Transaction rolled back");
+			} else if (getEpidNumber(2).equals(entities.get(0).getCaze().getEpidNumber())) {
+				return Collections.singletonList(ImportLineResultDto.errorResult("invalid " + getEpidNumber(2)));
+			}
+			return Collections.singletonList(save(entities.get(0)));
+		});
+
+		File csvFile = createImportFile(4);
+		ParallelCaseImporter caseImporter = new ParallelCaseImporter(csvFile);
+
+		assertEquals(ImportResultStatus.COMPLETED_WITH_ERRORS, caseImporter.runImport());
+
+		assertThat(caseImporter.getErrorLines(), contains(getEpidNumber(2)));
+		assertThat(savedLines, contains(getEpidNumber(1), getEpidNumber(3), getEpidNumber(4)));
+		verify(caseImportFacade, never()).saveImportedEntities(any());
+	}
+
+	@Test(timeout = 10000, expected = ReadError.class)
+	public void testReadErrorDoesNotBlockImport() throws IOException, InvalidColumnException, InterruptedException, CsvValidationException {
+
+		File csvFile = createImportFile(250);
+		ParallelCaseImporter caseImporter = new ParallelCaseImporter(csvFile) {
+
+			@Override
+			protected CSVReader getCSVReader(File inputFile) throws IOException {
+				// fails after the last line of the file has been read
+				String content = new String(Files.readAllBytes(inputFile.toPath()), StandardCharsets.UTF_8);
+				return CSVUtils.createCSVReader(new FailingReader(content), ',');
+			}
+		};
+
+		caseImporter.runImport();
+	}
+
+	private File createImportFile(int lineCount) throws IOException {
+
+		List<String> lines = new ArrayList<>();
+		lines.add(CaseDataDto.EPID_NUMBER);
+		for (int i = 1; i <= lineCount; i++) {
+			lines.add(getEpidNumber(i));
+		}
+
+		File csvFile = File.createTempFile("case_import", ".csv");
+		csvFile.deleteOnExit();
+		Files.write(csvFile.toPath(), lines, StandardCharsets.UTF_8);
+		return csvFile;
+	}
+
+	private static String getEpidNumber(int lineNumber) {
+		return String.format("E-%04d", lineNumber);
+	}
+
+	private static int getLineNumber(String epidNumber) {
+		return Integer.parseInt(epidNumber.substring(2));
+	}
+
+	private static CaseImportEntities createEntities(String epidNumber) {
+
+		CaseImportEntities entities = new CaseImportEntities(null);
+		entities.getCaze().setEpidNumber(epidNumber);
+		return entities;
+	}
+
+	private ImportLineResultDto<CaseImportEntities> save(CaseImportEntities entities) {
+
+		savedLines.add(entities.getCaze().getEpidNumber());
+		return ImportLineResultDto.successResult();
+	}
+
+	private static List<CaseImportEntities> batchOf(int... lineNumbers) {
+
+		List<String> epidNumbers = new ArrayList<>();
+		for (int lineNumber : lineNumbers) {
+			epidNumbers.add(getEpidNumber(lineNumber));
+		}
+		return argThat(entities -> entities.stream().map(e -> e.getCaze().getEpidNumber()).collect(Collectors.toList()).equals(epidNumbers));
+	}
+
+	private class ParallelCaseImporter extends CaseImporter {
+
+		private final StringBuilder errorReport = new StringBuilder();
+
+		private ParallelCaseImporter(File inputFile) {
+			super(inputFile, false, user, caseImportFacade, mock(PersonFacade.class), caseFacade);
+		}
+
+		@Override
+		protected <T extends PersonImportSimilarityResult> void handlePersonSimilarity(
+			PersonDto newPerson,
+			Consumer<T> resultConsumer,
+			BiFunction<SimilarPersonDto, ImportSimilarityResultOption, T> createSimilarityResult,
+			String infoText,
+			UI currentUI) {
+			resultConsumer.accept((T) new CaseImportSimilarityResult(null, null, ImportSimilarityResultOption.CREATE));
+		}
+
+		@Override
+		protected void handleCaseSimilarity(CaseImportSimilarityInput input, Consumer<CaseImportSimilarityResult> resultConsumer) {
+			resultConsumer.accept(new CaseImportSimilarityResult(null, null, ImportSimilarityResultOption.CREATE));
+		}
+
+		@Override
+		protected Writer createErrorReportWriter() {
+			return new StringBuilderWriter(errorReport);
+		}
+
+		/**
+		 * @return The epid numbers of the lines in the error report, in the order of the report.
+		 */
+		private List<String> getErrorLines() {
+
+			List<String> errorLines = new ArrayList<>();
+			Matcher matcher = INVALID_LINE.matcher(errorReport);
+			while (matcher.find()) {
+				errorLines.add(matcher.group(1));
+			}
+			return errorLines;
+		}
+	}
+
+	private static class FailingReader extends Reader {
+
+		private final StringReader content;
+
+		private FailingReader(String content) {
+			this.content = new StringReader(content);
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+
+			int read = content.read(cbuf, off, len);
+			if (read < 0) {
+				throw new ReadError();
+			}
+			return read;
+		}
+
+		@Override
+		public void close() {
+			content.close();
+		}
+	}
+
+	private static class ReadError extends Error {
+
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -274,5 +274,14 @@ public class CaseImporterTest extends AbstractBeanTest {
 		protected Writer createErrorReportWriter() {
 			return writer;
 		}
+
+		/**
+		 * The beans of the test container share one entity manager, which must not be used by several threads. The parallel
+		 * validation is tested with a mocked facade in {@link CaseImporterParallelTest}.
+		 */
+		@Override
+		protected int getParallelism() {
+			return 1;
+		}
 	}
 }